@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.benchmark;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.paris.lutece.plugins.identitypicker.business.IdentitySearchCriteria;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.util.Constants;
+
+/**
+ * Generators of realistic identities, change requests, search results and histories for the benchmarks. The generated data only depends on
+ * the seed, so that two runs measure the same payloads.
+ */
+public final class IdentityFixtures
+{
+    private static final String [ ] CERTIFIERS = {
+            "DEC", "FC", "MAIL", "R2P", "ORIG1", "ORIG2"
+    };
+    private static final String [ ] FIRST_NAMES = {
+            "Jean", "Marie", "Camille", "Nicolas", "Léa", "Mohamed", "Chloé", "Pierre-Yves"
+    };
+    private static final String [ ] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Lefèvre", "N'Diaye", "Nguyen", "Garcia", "de La Fontaine"
+    };
+    private static final String [ ] CHANGE_TYPES = {
+            "CREATE", "UPDATE", "DELETE", "MERGED", "CONSOLIDATED"
+    };
+    private static final String ATTRIBUTE_VALUE = "value";
+    private static final String ATTRIBUTE_CERTIFICATION = "certification";
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long BASE_DATE = 1_700_000_000_000L;
+
+    /**
+     * Private constructor
+     */
+    private IdentityFixtures( )
+    {
+    }
+
+    /**
+     * Generates an identity. The first attributes are the usual civil status, birth and contact attributes, the following ones are
+     * additional attributes with values of varied lengths.
+     *
+     * @param nAttributes
+     *            the number of attributes
+     * @param lSeed
+     *            the seed of the generated values
+     * @return the identity
+     */
+    public static IdentityDto newIdentity( int nAttributes, long lSeed )
+    {
+        Random random = new Random( lSeed );
+        IdentityDto identity = new IdentityDto( );
+        identity.setCustomerId( "cuid-" + Long.toHexString( random.nextLong( ) ) );
+        identity.setLastUpdateDate( new Timestamp( BASE_DATE + random.nextInt( 1_000 ) * DAY_MILLIS ) );
+
+        List<AttributeDto> listAttributes = new ArrayList<>( nAttributes );
+        for ( Map.Entry<String, String> value : newValues( nAttributes, random ).entrySet( ) )
+        {
+            AttributeDto attribute = new AttributeDto( );
+            attribute.setKey( value.getKey( ) );
+            attribute.setValue( value.getValue( ) );
+            attribute.setCertifier( pick( CERTIFIERS, random ) );
+            attribute.setCertificationDate( new Date( BASE_DATE - random.nextInt( 1_000 ) * DAY_MILLIS ) );
+            listAttributes.add( attribute );
+        }
+        identity.setAttributes( listAttributes );
+        return identity;
+    }
+
+    /**
+     * Generates the data posted by the front-end to create or update an identity: one {@code { value, certification }} object per attribute.
+     * The birth date is sent in ISO format, as the date input of the form does.
+     *
+     * @param identity
+     *            the identity the data starts from
+     * @param dModifiedRatio
+     *            the share of the attributes whose value is changed, between 0 and 1
+     * @param lSeed
+     *            the seed of the changed values
+     * @return the posted data
+     */
+    public static Map<String, Object> newChangeData( IdentityDto identity, double dModifiedRatio, long lSeed )
+    {
+        Random random = new Random( lSeed );
+        Map<String, Object> data = new LinkedHashMap<>( );
+        for ( AttributeDto attribute : identity.getAttributes( ) )
+        {
+            String strValue = attribute.getValue( );
+            if ( Constants.PARAM_BIRTH_DATE.equals( attribute.getKey( ) ) )
+            {
+                strValue = toIsoDate( strValue );
+            }
+            else
+                if ( random.nextDouble( ) < dModifiedRatio )
+                {
+                    strValue = strValue + "-" + random.nextInt( 1_000 );
+                }
+            Map<String, String> attributeData = new HashMap<>( );
+            attributeData.put( ATTRIBUTE_VALUE, strValue );
+            attributeData.put( ATTRIBUTE_CERTIFICATION, attribute.getCertifier( ) );
+            data.put( attribute.getKey( ), attributeData );
+        }
+        return data;
+    }
+
+    /**
+     * Generates the result of a search
+     *
+     * @param nIdentities
+     *            the number of identities found
+     * @param nAttributes
+     *            the number of attributes of each identity
+     * @param lSeed
+     *            the seed of the generated values
+     * @return the identities
+     */
+    public static List<IdentityDto> newSearchResult( int nIdentities, int nAttributes, long lSeed )
+    {
+        List<IdentityDto> listIdentities = new ArrayList<>( nIdentities );
+        for ( int i = 0; i < nIdentities; i++ )
+        {
+            listIdentities.add( newIdentity( nAttributes, lSeed + i ) );
+        }
+        return listIdentities;
+    }
+
+    /**
+     * Generates the search criteria of the form
+     *
+     * @param bByEmail
+     *            true for a search by email, false for a search by name and birth date
+     * @return the criteria
+     */
+    public static IdentitySearchCriteria newSearchCriteria( boolean bByEmail )
+    {
+        IdentitySearchCriteria criteria = new IdentitySearchCriteria( );
+        if ( bByEmail )
+        {
+            criteria.setCommonEmail( "jean.martin@example.org" );
+        }
+        else
+        {
+            criteria.setFirstName( "Jean" );
+            criteria.setCommonLastName( "Martin" );
+            criteria.setBirthDate( "17/05/1980" );
+        }
+        return criteria;
+    }
+
+    /**
+     * Generates the changes of a history page, in the identity store JSON form flattened by the history index
+     *
+     * @param nChanges
+     *            the number of changes
+     * @param nAttributes
+     *            the number of attributes the changes are spread over
+     * @param lSeed
+     *            the seed of the generated values
+     * @return the changes, most recent first
+     */
+    public static List<JsonNode> newHistoryChanges( int nChanges, int nAttributes, long lSeed )
+    {
+        Random random = new Random( lSeed );
+        List<String> listKeys = new ArrayList<>( newValues( nAttributes, random ).keySet( ) );
+        List<JsonNode> listChanges = new ArrayList<>( nChanges );
+        for ( int i = 0; i < nChanges; i++ )
+        {
+            ObjectNode change = JsonNodeFactory.instance.objectNode( );
+            change.put( "change_type", pick( CHANGE_TYPES, random ) );
+            change.put( "change_status", "SUCCESS" );
+            change.put( "change_message", "Modification de l'identité" );
+            change.put( "author_type", "agent" );
+            change.put( "author_name", pick( FIRST_NAMES, random ) + " " + pick( LAST_NAMES, random ) );
+            change.put( "client_code", "TEST" );
+            change.put( "modification_date", BASE_DATE - i * DAY_MILLIS );
+            if ( random.nextInt( 4 ) == 0 )
+            {
+                change.put( "entry_type", "identity" );
+                change.put( "customer_id", "cuid-" + lSeed );
+            }
+            else
+            {
+                String strKey = listKeys.get( random.nextInt( listKeys.size( ) ) );
+                change.put( "entry_type", "attribute" );
+                change.put( "attribute_key", strKey );
+                change.put( "attribute_value", strKey + "-" + random.nextInt( 100_000 ) );
+                change.put( "certification_process", pick( CERTIFIERS, random ) );
+                change.put( "certification_date", BASE_DATE - i * DAY_MILLIS );
+            }
+            listChanges.add( change );
+        }
+        return listChanges;
+    }
+
+    /**
+     * Generates the attribute values of an identity
+     *
+     * @param nAttributes
+     *            the number of attributes
+     * @param random
+     *            the source of the values
+     * @return the values by attribute key, in insertion order
+     */
+    private static Map<String, String> newValues( int nAttributes, Random random )
+    {
+        String strFirstName = pick( FIRST_NAMES, random );
+        String strLastName = pick( LAST_NAMES, random );
+        Map<String, String> mapValues = new LinkedHashMap<>( );
+        mapValues.put( Constants.PARAM_FIRST_NAME, strFirstName );
+        mapValues.put( Constants.PARAM_COMMON_LASTNAME, strLastName );
+        mapValues.put( Constants.PARAM_BIRTH_DATE, String.format( "%02d/%02d/%d", 1 + random.nextInt( 28 ), 1 + random.nextInt( 12 ),
+                1940 + random.nextInt( 70 ) ) );
+        mapValues.put( Constants.PARAM_BIRTH_PLACE, "Paris 1er Arrondissement" );
+        mapValues.put( Constants.PARAM_BIRTH_PLACE_CODE, "75101" );
+        mapValues.put( Constants.PARAM_BIRTH_COUNTRY, "France" );
+        mapValues.put( Constants.PARAM_BIRTH_COUNTRY_CODE, "99100" );
+        mapValues.put( Constants.PARAM_COMMON_EMAIL, strFirstName.toLowerCase( ) + "." + strLastName.toLowerCase( ) + "@example.org" );
+        mapValues.put( "gender", String.valueOf( random.nextInt( 3 ) ) );
+        mapValues.put( "mobile_phone", "06" + ( 10_000_000 + random.nextInt( 89_999_999 ) ) );
+        for ( int i = mapValues.size( ); i < nAttributes; i++ )
+        {
+            StringBuilder sbValue = new StringBuilder( );
+            int nLength = 4 + random.nextInt( 60 );
+            while ( sbValue.length( ) < nLength )
+            {
+                sbValue.append( (char) ( 'a' + random.nextInt( 26 ) ) );
+            }
+            mapValues.put( "attribute_" + i, sbValue.toString( ) );
+        }
+        if ( mapValues.size( ) <= nAttributes )
+        {
+            return mapValues;
+        }
+        Map<String, String> mapFirstValues = new LinkedHashMap<>( );
+        for ( Map.Entry<String, String> value : mapValues.entrySet( ) )
+        {
+            if ( mapFirstValues.size( ) == nAttributes )
+            {
+                break;
+            }
+            mapFirstValues.put( value.getKey( ), value.getValue( ) );
+        }
+        return mapFirstValues;
+    }
+
+    /**
+     * Converts a dd/MM/yyyy date to yyyy-MM-dd
+     *
+     * @param strFrenchDate
+     *            the date
+     * @return the ISO date
+     */
+    private static String toIsoDate( String strFrenchDate )
+    {
+        String [ ] parts = strFrenchDate.split( "/" );
+        return parts [2] + "-" + parts [1] + "-" + parts [0];
+    }
+
+    /**
+     * Picks a value
+     *
+     * @param values
+     *            the values
+     * @param random
+     *            the source of the choice
+     * @return one of the values
+     */
+    private static String pick( String [ ] values, Random random )
+    {
+        return values [random.nextInt( values.length )];
+    }
+}
@@ -0,0 +1,529 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import fr.paris.lutece.plugins.identitypicker.benchmark.IdentityFixtures;
+
+/**
+ * In-process HTTP stub of the identity store v3 API. It answers the search, identity, creation, update, history, task, referential and service
+ * contract calls of the picker with generated payloads, after a log-normal latency, and fails a share of the calls with a 500.
+ *
+ * The calls are routed on their method and on the keywords of their path, and the customer id is the path segment starting with
+ * {@value #CUSTOMER_ID_PREFIX} (the last segment otherwise), so that the stub does not depend on the exact paths of a version of the client
+ * library.
+ */
+public class IdentityStoreStub implements HttpHandler
+{
+    /**
+     * Prefix of the customer ids of the generated identities
+     */
+    public static final String CUSTOMER_ID_PREFIX = "cuid-";
+
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    private static final String METHOD_GET = "GET";
+    private static final String METHOD_POST = "POST";
+    private static final String METHOD_PUT = "PUT";
+    private static final String ENTRY_TYPE = "entry_type";
+    private static final String ENTRY_TYPE_IDENTITY = "identity";
+    private static final String FIELD_ATTRIBUTE_KEY = "attribute_key";
+    private static final double Z_99 = 2.326;
+
+    private final Settings _settings;
+    private final ObjectMapper _mapper = new ObjectMapper( );
+    private final Map<String, byte [ ]> _mapIdentities = new ConcurrentHashMap<>( );
+    private final Map<String, byte [ ]> _mapHistories = new ConcurrentHashMap<>( );
+    private final Set<String> _setConnections = ConcurrentHashMap.newKeySet( );
+    private final AtomicInteger _nInFlight = new AtomicInteger( );
+    private final AtomicInteger _nMaxInFlight = new AtomicInteger( );
+    private final LongAdder _requests = new LongAdder( );
+    private final LongAdder _injectedErrors = new LongAdder( );
+    private final double _dSigma;
+    private HttpServer _server;
+    private ExecutorService _executor;
+
+    /**
+     * Settings of the stub
+     */
+    public static final class Settings
+    {
+        private final int _nPort;
+        private final double _dLatencyMedian;
+        private final double _dLatencyP99;
+        private final double _dErrorRate;
+        private final int _nAttributes;
+        private final int _nSearchResults;
+        private final int _nHistoryChanges;
+
+        /**
+         * Constructor
+         *
+         * @param nPort
+         *            the listening port
+         * @param dLatencyMedian
+         *            the median latency, in milliseconds
+         * @param dLatencyP99
+         *            the 99th percentile of the latency, in milliseconds
+         * @param dErrorRate
+         *            the share of the calls failing with a 500, between 0 and 1
+         * @param nAttributes
+         *            the number of attributes of the identities
+         * @param nSearchResults
+         *            the number of identities found by a search
+         * @param nHistoryChanges
+         *            the number of changes of a history
+         */
+        public Settings( int nPort, double dLatencyMedian, double dLatencyP99, double dErrorRate, int nAttributes, int nSearchResults,
+                int nHistoryChanges )
+        {
+            _nPort = nPort;
+            _dLatencyMedian = dLatencyMedian;
+            _dLatencyP99 = Math.max( dLatencyMedian, dLatencyP99 );
+            _dErrorRate = dErrorRate;
+            _nAttributes = nAttributes;
+            _nSearchResults = nSearchResults;
+            _nHistoryChanges = nHistoryChanges;
+        }
+
+        /**
+         * Reads the settings from the {@code stub.*} system properties
+         *
+         * @return the settings
+         */
+        public static Settings fromSystemProperties( )
+        {
+            return new Settings( Integer.getInteger( "stub.port", 9090 ), Double.parseDouble( System.getProperty( "stub.latency.median", "40" ) ),
+                    Double.parseDouble( System.getProperty( "stub.latency.p99", "400" ) ),
+                    Double.parseDouble( System.getProperty( "stub.errorRate", "0.01" ) ), Integer.getInteger( "stub.attributes", 30 ),
+                    Integer.getInteger( "stub.searchResults", 5 ), Integer.getInteger( "stub.historyChanges", 100 ) );
+        }
+
+        @Override
+        public String toString( )
+        {
+            return String.format( "latency median %.0f ms, p99 %.0f ms, error rate %.3f, %d attributes, %d search results, %d history changes",
+                    _dLatencyMedian, _dLatencyP99, _dErrorRate, _nAttributes, _nSearchResults, _nHistoryChanges );
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param settings
+     *            the settings
+     */
+    public IdentityStoreStub( Settings settings )
+    {
+        _settings = settings;
+        _dSigma = settings._dLatencyMedian > 0 ? Math.log( settings._dLatencyP99 / settings._dLatencyMedian ) / Z_99 : 0;
+    }
+
+    /**
+     * Starts listening
+     *
+     * @throws IOException
+     *             if the port cannot be bound
+     */
+    public void start( ) throws IOException
+    {
+        // without TCP_NODELAY, the headers and the body of a response are delayed by the delayed acknowledgments of the client
+        System.setProperty( "sun.net.httpserver.nodelay", "true" );
+        _server = HttpServer.create( new InetSocketAddress( _settings._nPort ), 1024 );
+        _executor = Executors.newCachedThreadPool( );
+        _server.setExecutor( _executor );
+        _server.createContext( "/", this );
+        _server.start( );
+    }
+
+    /**
+     * Stops listening
+     */
+    public void stop( )
+    {
+        _server.stop( 0 );
+        _executor.shutdownNow( );
+    }
+
+    /**
+     * Gets the base URL of the stub, to set in identitypicker.identitystore.apiEndPointUrl
+     *
+     * @return the URL
+     */
+    public String getUrl( )
+    {
+        return "http://localhost:" + _server.getAddress( ).getPort( ) + "/identitystore/api";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handle( HttpExchange exchange ) throws IOException
+    {
+        _requests.increment( );
+        _setConnections.add( exchange.getRemoteAddress( ).toString( ) );
+        int nInFlight = _nInFlight.incrementAndGet( );
+        _nMaxInFlight.accumulateAndGet( nInFlight, Math::max );
+        try ( InputStream in = exchange.getRequestBody( ) )
+        {
+            in.transferTo( OutputStream.nullOutputStream( ) );
+            sleep( );
+            if ( ThreadLocalRandom.current( ).nextDouble( ) < _settings._dErrorRate )
+            {
+                _injectedErrors.increment( );
+                send( exchange, 500, status( "FAILURE", 500 ) );
+            }
+            else
+            {
+                route( exchange );
+            }
+        }
+        finally
+        {
+            _nInFlight.decrementAndGet( );
+            exchange.close( );
+        }
+    }
+
+    /**
+     * Answers a call according to its method and path
+     *
+     * @param exchange
+     *            the call
+     * @throws IOException
+     *             if the response cannot be written
+     */
+    private void route( HttpExchange exchange ) throws IOException
+    {
+        String strMethod = exchange.getRequestMethod( );
+        String strPath = exchange.getRequestURI( ).getPath( );
+        String strCustomerId = getCustomerId( strPath );
+        boolean bPost = METHOD_POST.equals( strMethod );
+        if ( strPath.contains( "referential" ) || strPath.contains( "contract" ) )
+        {
+            ObjectNode response = status( "SUCCESS", 200 );
+            response.putArray( "processus" );
+            response.putArray( "levels" );
+            response.putArray( "attribute_keys" );
+            send( exchange, 200, response );
+            return;
+        }
+        if ( strPath.contains( "/search" ) )
+        {
+            ObjectNode response = status( "SUCCESS", 200 );
+            ArrayNode identities = response.putArray( "identities" );
+            for ( int i = 0; i < _settings._nSearchResults; i++ )
+            {
+                String strFoundId = CUSTOMER_ID_PREFIX + ThreadLocalRandom.current( ).nextInt( 1_000_000 );
+                identities.add( _mapper.readTree( getIdentity( strFoundId ) ).get( "identities" ).get( 0 ) );
+            }
+            send( exchange, 200, response );
+            return;
+        }
+        if ( strPath.contains( "history" ) )
+        {
+            sendBytes( exchange, 200, _mapHistories.computeIfAbsent( strCustomerId, this::newHistory ) );
+            return;
+        }
+        if ( strPath.contains( "task" ) )
+        {
+            ObjectNode response = status( "SUCCESS", bPost ? 201 : 200 );
+            if ( bPost )
+            {
+                response.put( "task_code", "task-" + System.nanoTime( ) );
+            }
+            else
+            {
+                response.putArray( "tasks" );
+            }
+            send( exchange, bPost ? 201 : 200, response );
+            return;
+        }
+        if ( METHOD_GET.equals( strMethod ) )
+        {
+            sendBytes( exchange, 200, getIdentity( strCustomerId ) );
+            return;
+        }
+        if ( bPost || METHOD_PUT.equals( strMethod ) )
+        {
+            int nStatus = bPost ? 201 : 200;
+            ObjectNode response = status( "SUCCESS", nStatus );
+            response.put( "customer_id", bPost ? CUSTOMER_ID_PREFIX + ThreadLocalRandom.current( ).nextInt( 1_000_000 ) : strCustomerId );
+            send( exchange, nStatus, response );
+            return;
+        }
+        send( exchange, 404, status( "NOT_FOUND", 404 ) );
+    }
+
+    /**
+     * Gets the JSON of the search response holding a single identity, generated on the first call
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the JSON
+     */
+    private byte [ ] getIdentity( String strCustomerId )
+    {
+        return _mapIdentities.computeIfAbsent( strCustomerId, this::newIdentity );
+    }
+
+    /**
+     * Generates the search response holding a single identity
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the JSON
+     */
+    private byte [ ] newIdentity( String strCustomerId )
+    {
+        ObjectNode identity = _mapper.valueToTree( IdentityFixtures.newIdentity( _settings._nAttributes, strCustomerId.hashCode( ) ) );
+        identity.put( "customer_id", strCustomerId );
+        ObjectNode response = status( "SUCCESS", 200 );
+        response.putArray( "identities" ).add( identity );
+        return toBytes( response );
+    }
+
+    /**
+     * Generates the history response of an identity
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the JSON
+     */
+    private byte [ ] newHistory( String strCustomerId )
+    {
+        ObjectNode response = status( "SUCCESS", 200 );
+        ObjectNode history = response.putObject( "history" );
+        history.put( "customer_id", strCustomerId );
+        ArrayNode identityChanges = history.putArray( "identity_changes" );
+        ArrayNode attributeHistories = history.putArray( "attribute_histories" );
+        Map<String, ArrayNode> mapAttributeChanges = new HashMap<>( );
+        for ( JsonNode change : IdentityFixtures.newHistoryChanges( _settings._nHistoryChanges, _settings._nAttributes, strCustomerId.hashCode( ) ) )
+        {
+            ObjectNode entry = (ObjectNode) change;
+            if ( ENTRY_TYPE_IDENTITY.equals( entry.remove( ENTRY_TYPE ).asText( ) ) )
+            {
+                identityChanges.add( entry );
+            }
+            else
+            {
+                mapAttributeChanges.computeIfAbsent( entry.get( FIELD_ATTRIBUTE_KEY ).asText( ), key -> {
+                    ObjectNode attributeHistory = attributeHistories.addObject( );
+                    attributeHistory.put( FIELD_ATTRIBUTE_KEY, key );
+                    return attributeHistory.putArray( "attribute_changes" );
+                } ).add( entry );
+            }
+        }
+        return toBytes( response );
+    }
+
+    /**
+     * Creates a response holding a status
+     *
+     * @param strType
+     *            the status type
+     * @param nHttpCode
+     *            the HTTP code of the status
+     * @return the response
+     */
+    private ObjectNode status( String strType, int nHttpCode )
+    {
+        ObjectNode response = _mapper.createObjectNode( );
+        ObjectNode status = response.putObject( "status" );
+        status.put( "type", strType );
+        status.put( "http_code", nHttpCode );
+        status.put( "message", "Identity store stub" );
+        return response;
+    }
+
+    /**
+     * Waits for a latency drawn from the log-normal distribution of the settings
+     */
+    private void sleep( )
+    {
+        double dMillis = _settings._dLatencyMedian * Math.exp( _dSigma * ThreadLocalRandom.current( ).nextGaussian( ) );
+        try
+        {
+            TimeUnit.MICROSECONDS.sleep( (long) ( dMillis * 1_000 ) );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Writes a JSON response
+     *
+     * @param exchange
+     *            the call
+     * @param nStatus
+     *            the HTTP status
+     * @param response
+     *            the response
+     * @throws IOException
+     *             if the response cannot be written
+     */
+    private void send( HttpExchange exchange, int nStatus, JsonNode response ) throws IOException
+    {
+        sendBytes( exchange, nStatus, toBytes( response ) );
+    }
+
+    /**
+     * Writes a serialized JSON response
+     *
+     * @param exchange
+     *            the call
+     * @param nStatus
+     *            the HTTP status
+     * @param body
+     *            the JSON
+     * @throws IOException
+     *             if the response cannot be written
+     */
+    private static void sendBytes( HttpExchange exchange, int nStatus, byte [ ] body ) throws IOException
+    {
+        exchange.getResponseHeaders( ).set( "Content-Type", CONTENT_TYPE_JSON );
+        exchange.sendResponseHeaders( nStatus, body.length );
+        try ( OutputStream out = exchange.getResponseBody( ) )
+        {
+            out.write( body );
+        }
+    }
+
+    /**
+     * Serializes a JSON tree
+     *
+     * @param node
+     *            the tree
+     * @return the JSON
+     */
+    private byte [ ] toBytes( JsonNode node )
+    {
+        return node.toString( ).getBytes( StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Finds the customer id of a path
+     *
+     * @param strPath
+     *            the path
+     * @return the segment starting with the customer id prefix, or the last segment
+     */
+    private static String getCustomerId( String strPath )
+    {
+        String [ ] segments = strPath.split( "/" );
+        for ( String strSegment : segments )
+        {
+            if ( strSegment.startsWith( CUSTOMER_ID_PREFIX ) )
+            {
+                return strSegment;
+            }
+        }
+        return segments.length > 0 ? segments [segments.length - 1] : "";
+    }
+
+    /**
+     * Gets the number of calls received
+     *
+     * @return the number of calls
+     */
+    public long getRequestCount( )
+    {
+        return _requests.sum( );
+    }
+
+    /**
+     * Gets the number of calls failed on purpose
+     *
+     * @return the number of failed calls
+     */
+    public long getInjectedErrorCount( )
+    {
+        return _injectedErrors.sum( );
+    }
+
+    /**
+     * Gets the highest number of calls processed at the same time
+     *
+     * @return the highest concurrency
+     */
+    public int getMaxInFlight( )
+    {
+        return _nMaxInFlight.get( );
+    }
+
+    /**
+     * Gets the number of distinct client connections seen, that is the connections opened by the HTTP client of the picker
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount( )
+    {
+        return _setConnections.size( );
+    }
+
+    /**
+     * Gets the settings
+     *
+     * @return the settings
+     */
+    public Settings getSettings( )
+    {
+        return _settings;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and statuses of the requests of one operation. A recorder is used by a single agent, then the recorders of the agents are merged
+ * for the report.
+ */
+class LatencyRecorder
+{
+    private long [ ] _latencies = new long [ 1024];
+    private int _nCount;
+    private boolean _bSorted;
+    private final Map<Integer, Long> _mapStatuses = new TreeMap<>( );
+
+    /**
+     * Records a request
+     *
+     * @param nStatus
+     *            the HTTP status, 0 if the request failed without a response
+     * @param lLatencyNanos
+     *            the latency
+     */
+    void record( int nStatus, long lLatencyNanos )
+    {
+        if ( _nCount == _latencies.length )
+        {
+            _latencies = Arrays.copyOf( _latencies, _nCount * 2 );
+        }
+        _latencies [_nCount++] = lLatencyNanos;
+        _bSorted = false;
+        _mapStatuses.merge( nStatus, 1L, Long::sum );
+    }
+
+    /**
+     * Adds the requests of another recorder
+     *
+     * @param other
+     *            the other recorder
+     */
+    void merge( LatencyRecorder other )
+    {
+        if ( _nCount + other._nCount > _latencies.length )
+        {
+            _latencies = Arrays.copyOf( _latencies, _nCount + other._nCount );
+        }
+        System.arraycopy( other._latencies, 0, _latencies, _nCount, other._nCount );
+        _nCount += other._nCount;
+        _bSorted = false;
+        other._mapStatuses.forEach( ( status, count ) -> _mapStatuses.merge( status, count, Long::sum ) );
+    }
+
+    /**
+     * Gets the number of requests
+     *
+     * @return the count
+     */
+    int getCount( )
+    {
+        return _nCount;
+    }
+
+    /**
+     * Gets the number of requests which did not succeed: no response, or a status of 400 or more
+     *
+     * @return the count
+     */
+    long getErrorCount( )
+    {
+        return _mapStatuses.entrySet( ).stream( ).filter( status -> status.getKey( ) == 0 || status.getKey( ) >= 400 ).mapToLong( Map.Entry::getValue )
+                .sum( );
+    }
+
+    /**
+     * Gets the number of requests by HTTP status
+     *
+     * @return the counts, 0 for the requests without a response
+     */
+    Map<Integer, Long> getStatuses( )
+    {
+        return _mapStatuses;
+    }
+
+    /**
+     * Gets a percentile of the latencies
+     *
+     * @param dPercentile
+     *            the percentile, between 0 and 100
+     * @return the latency, in milliseconds
+     */
+    double getPercentile( double dPercentile )
+    {
+        if ( _nCount == 0 )
+        {
+            return 0;
+        }
+        if ( !_bSorted )
+        {
+            Arrays.sort( _latencies, 0, _nCount );
+            _bSorted = true;
+        }
+        int nIndex = (int) Math.ceil( dPercentile / 100 * _nCount ) - 1;
+        return _latencies [Math.max( 0, Math.min( _nCount - 1, nIndex ) )] / 1_000_000d;
+    }
+}
@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of a deployed picker. The harness starts the identity store stub, then agents send a mix of searches, identity views, history
+ * views and updates to the REST API of the picker during a fixed duration. It reports the throughput and the latency percentiles of each
+ * operation, the concurrency and the connections seen by the stub, and the peaks of the thread pools and bulkheads of the picker, sampled
+ * from its metrics endpoint.
+ *
+ * The picker must be configured with {@code identitypicker.identitystore.apiEndPointUrl} set to the URL of the stub, without access manager,
+ * and the agents authenticate with the session cookie of a back office user holding all the picker permissions. Without
+ * {@code loadtest.target}, only the stub is started.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:java@loadtest -Dloadtest.target=http://localhost:8080/lutece/rest/identitypicker/api \
+ *     -Dloadtest.cookie="JSESSIONID=..." -Dloadtest.agents=100 -Dstub.latency.median=40 -Dstub.latency.p99=400
+ * </pre>
+ */
+public final class LoadTestHarness
+{
+    private static final String METRIC_PREFIX = "identitypicker_";
+    private static final String [ ] SAMPLED_METRICS = {
+            "identitypicker_http_requests_in_flight", "identitypicker_executor_active_threads", "identitypicker_executor_pool_size",
+            "identitypicker_executor_queue_size", "identitypicker_bulkhead_in_flight", "identitypicker_bulkhead_limit"
+    };
+    private static final String [ ] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Lefèvre", "Nguyen", "Garcia"
+    };
+    private static final String [ ] FIRST_NAMES = {
+            "Jean", "Marie", "Camille", "Nicolas", "Léa", "Pierre"
+    };
+    private static final double [ ] PERCENTILES = {
+            50, 90, 99, 99.9
+    };
+
+    /**
+     * Operations of the agents
+     */
+    private enum Operation
+    {
+        SEARCH,
+        VIEW,
+        HISTORY,
+        EDIT
+    }
+
+    private final String _strTarget;
+    private final String _strCookie;
+    private final String _strMetricsToken;
+    private final int _nAgents;
+    private final long _lDurationMillis;
+    private final long _lRampUpMillis;
+    private final long _lThinkTimeMillis;
+    private final int _nIdentities;
+    private final Map<Operation, Integer> _mapMix;
+    private final long _lSampleIntervalMillis;
+    private final HttpClient _httpClient;
+    private final Map<String, Double> _mapPeaks = new ConcurrentHashMap<>( );
+    private final AtomicInteger _nAgentsInRequest = new AtomicInteger( );
+    private final AtomicInteger _nMaxAgentsInRequest = new AtomicInteger( );
+
+    /**
+     * Constructor, reading the {@code loadtest.*} system properties
+     */
+    private LoadTestHarness( )
+    {
+        _strTarget = System.getProperty( "loadtest.target", "" ).replaceAll( "/+$", "" );
+        _strCookie = System.getProperty( "loadtest.cookie", "" );
+        _strMetricsToken = System.getProperty( "loadtest.metricsToken", "" );
+        _nAgents = Integer.getInteger( "loadtest.agents", 50 );
+        _lDurationMillis = TimeUnit.SECONDS.toMillis( Integer.getInteger( "loadtest.duration", 60 ) );
+        _lRampUpMillis = TimeUnit.SECONDS.toMillis( Integer.getInteger( "loadtest.rampUp", 10 ) );
+        _lThinkTimeMillis = Long.getLong( "loadtest.thinkTime", 1000L );
+        _nIdentities = Integer.getInteger( "loadtest.identities", 1000 );
+        _mapMix = parseMix( System.getProperty( "loadtest.mix", "search=40,view=35,history=15,edit=10" ) );
+        _lSampleIntervalMillis = TimeUnit.SECONDS.toMillis( Integer.getInteger( "loadtest.sampleInterval", 2 ) );
+        _httpClient = HttpClient.newBuilder( ).version( HttpClient.Version.HTTP_1_1 ).connectTimeout( Duration.ofSeconds( 5 ) )
+                .executor( Executors.newCachedThreadPool( LoadTestHarness::newDaemonThread ) ).build( );
+    }
+
+    /**
+     * Runs the load test
+     *
+     * @param args
+     *            unused, the settings are system properties
+     * @throws Exception
+     *             if the stub cannot be started or the test is interrupted
+     */
+    public static void main( String [ ] args ) throws Exception
+    {
+        IdentityStoreStub stub = null;
+        if ( Boolean.parseBoolean( System.getProperty( "stub.enabled", "true" ) ) )
+        {
+            stub = new IdentityStoreStub( IdentityStoreStub.Settings.fromSystemProperties( ) );
+            stub.start( );
+            System.out.println( "Identity store stub listening on " + stub.getUrl( ) + " (" + stub.getSettings( ) + ")" );
+        }
+        LoadTestHarness harness = new LoadTestHarness( );
+        if ( harness._strTarget.isEmpty( ) )
+        {
+            System.out.println( "No loadtest.target: set identitypicker.identitystore.apiEndPointUrl to the stub URL, then stop with Ctrl+C" );
+            Thread.currentThread( ).join( );
+            return;
+        }
+        try
+        {
+            harness.run( stub );
+        }
+        finally
+        {
+            if ( stub != null )
+            {
+                stub.stop( );
+            }
+        }
+    }
+
+    /**
+     * Runs the agents, then prints the report
+     *
+     * @param stub
+     *            the identity store stub, or null if it runs elsewhere
+     * @throws Exception
+     *             if the test is interrupted
+     */
+    private void run( IdentityStoreStub stub ) throws Exception
+    {
+        System.out.println( String.format( "%d agents for %d s (ramp-up %d s, think time %d ms) on %s, mix %s", _nAgents, _lDurationMillis / 1000,
+                _lRampUpMillis / 1000, _lThinkTimeMillis, _strTarget, _mapMix ) );
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor( );
+        sampler.scheduleAtFixedRate( this::sampleMetrics, 0, _lSampleIntervalMillis, TimeUnit.MILLISECONDS );
+
+        ExecutorService agents = Executors.newFixedThreadPool( _nAgents );
+        long lStart = System.currentTimeMillis( );
+        long lEnd = lStart + _lRampUpMillis + _lDurationMillis;
+        List<Future<Map<Operation, LatencyRecorder>>> listAgents = new ArrayList<>( );
+        for ( int i = 0; i < _nAgents; i++ )
+        {
+            long lAgentStart = lStart + _lRampUpMillis * i / _nAgents;
+            long lSeed = i;
+            listAgents.add( agents.submit( ( ) -> runAgent( lAgentStart, lStart + _lRampUpMillis, lEnd, new Random( lSeed ) ) ) );
+        }
+        Map<Operation, LatencyRecorder> mapResults = new EnumMap<>( Operation.class );
+        for ( Future<Map<Operation, LatencyRecorder>> agent : listAgents )
+        {
+            agent.get( ).forEach( ( operation, recorder ) -> mapResults.computeIfAbsent( operation, key -> new LatencyRecorder( ) ).merge( recorder ) );
+        }
+        agents.shutdown( );
+        sampler.shutdown( );
+        sampleMetrics( );
+        report( mapResults, stub );
+    }
+
+    /**
+     * Runs an agent: requests separated by a random think time, until the end of the test. Only the requests sent after the ramp-up are
+     * recorded.
+     *
+     * @param lAgentStart
+     *            the time the agent starts
+     * @param lRecordStart
+     *            the end of the ramp-up
+     * @param lEnd
+     *            the end of the test
+     * @param random
+     *            the source of the choices of the agent
+     * @return the recorders of the operations
+     * @throws InterruptedException
+     *             if the agent is interrupted
+     */
+    private Map<Operation, LatencyRecorder> runAgent( long lAgentStart, long lRecordStart, long lEnd, Random random ) throws InterruptedException
+    {
+        Map<Operation, LatencyRecorder> mapRecorders = new EnumMap<>( Operation.class );
+        Thread.sleep( Math.max( 0, lAgentStart - System.currentTimeMillis( ) ) );
+        while ( System.currentTimeMillis( ) < lEnd )
+        {
+            Operation operation = pickOperation( random );
+            HttpRequest request = newRequest( operation, random );
+            int nInRequest = _nAgentsInRequest.incrementAndGet( );
+            _nMaxAgentsInRequest.accumulateAndGet( nInRequest, Math::max );
+            long lRequestStart = System.nanoTime( );
+            int nStatus;
+            try
+            {
+                nStatus = _httpClient.send( request, HttpResponse.BodyHandlers.discarding( ) ).statusCode( );
+            }
+            catch( IOException e )
+            {
+                nStatus = 0;
+            }
+            finally
+            {
+                _nAgentsInRequest.decrementAndGet( );
+            }
+            if ( System.currentTimeMillis( ) >= lRecordStart )
+            {
+                mapRecorders.computeIfAbsent( operation, key -> new LatencyRecorder( ) ).record( nStatus, System.nanoTime( ) - lRequestStart );
+            }
+            Thread.sleep( (long) ( -_lThinkTimeMillis * Math.log( 1 - random.nextDouble( ) ) ) );
+        }
+        return mapRecorders;
+    }
+
+    /**
+     * Builds the request of an operation. The identities are picked with a skewed distribution, so that a few identities are requested often,
+     * as the identities being processed by the agents of a desk.
+     *
+     * @param operation
+     *            the operation
+     * @param random
+     *            the source of the choices
+     * @return the request
+     */
+    private HttpRequest newRequest( Operation operation, Random random )
+    {
+        double dRandom = random.nextDouble( );
+        String strCustomerId = IdentityStoreStub.CUSTOMER_ID_PREFIX + (int) ( _nIdentities * dRandom * dRandom );
+        HttpRequest.Builder builder;
+        switch( operation )
+        {
+            case SEARCH:
+                String strQuery = random.nextBoolean( )
+                        ? "common_email=" + encode( "agent" + random.nextInt( _nIdentities ) + "@example.org" )
+                        : "common_lastname=" + encode( LAST_NAMES [random.nextInt( LAST_NAMES.length )] ) + "&first_name="
+                                + encode( FIRST_NAMES [random.nextInt( FIRST_NAMES.length )] ) + "&birthdate=" + encode( "17/05/1980" );
+                builder = HttpRequest.newBuilder( URI.create( _strTarget + "/search?" + strQuery ) ).GET( );
+                break;
+            case HISTORY:
+                builder = HttpRequest.newBuilder( URI.create( _strTarget + "/identity/" + strCustomerId + "/history/changes?limit=20" ) ).GET( );
+                break;
+            case EDIT:
+                String strBody = "{\"mobile_phone\":{\"value\":\"06" + ( 10_000_000 + random.nextInt( 89_999_999 ) ) + "\",\"certification\":\"\"}}";
+                builder = HttpRequest.newBuilder( URI.create( _strTarget + "/identity/" + strCustomerId ) )
+                        .PUT( HttpRequest.BodyPublishers.ofString( strBody ) ).header( "Content-Type", "application/json" );
+                break;
+            default:
+                builder = HttpRequest.newBuilder( URI.create( _strTarget + "/identity/" + strCustomerId ) ).GET( );
+                break;
+        }
+        builder.header( "Accept", "application/json" ).timeout( Duration.ofSeconds( 60 ) );
+        if ( !_strCookie.isEmpty( ) )
+        {
+            builder.header( "Cookie", _strCookie );
+        }
+        return builder.build( );
+    }
+
+    /**
+     * Scrapes the metrics endpoint of the picker and keeps the highest value of each sampled gauge
+     */
+    private void sampleMetrics( )
+    {
+        HttpRequest.Builder builder = HttpRequest.newBuilder( URI.create( _strTarget + "/metrics" ) ).timeout( Duration.ofSeconds( 5 ) );
+        if ( !_strMetricsToken.isEmpty( ) )
+        {
+            builder.header( "Authorization", "Bearer " + _strMetricsToken );
+        }
+        else
+            if ( !_strCookie.isEmpty( ) )
+            {
+                builder.header( "Cookie", _strCookie );
+            }
+        try
+        {
+            HttpResponse<String> response = _httpClient.send( builder.build( ), HttpResponse.BodyHandlers.ofString( ) );
+            if ( response.statusCode( ) != 200 )
+            {
+                return;
+            }
+            for ( String strLine : response.body( ).split( "\n" ) )
+            {
+                int nSeparator = strLine.lastIndexOf( ' ' );
+                if ( nSeparator > 0 && isSampled( strLine ) )
+                {
+                    _mapPeaks.merge( strLine.substring( METRIC_PREFIX.length( ), nSeparator ), Double.parseDouble( strLine.substring( nSeparator + 1 ) ),
+                            Math::max );
+                }
+            }
+        }
+        catch( IOException | NumberFormatException e )
+        {
+            // the metrics are optional: the report leaves them out
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+        }
+    }
+
+    /**
+     * Prints the report
+     *
+     * @param mapResults
+     *            the merged recorders of the operations
+     * @param stub
+     *            the identity store stub, or null
+     */
+    private void report( Map<Operation, LatencyRecorder> mapResults, IdentityStoreStub stub )
+    {
+        double dSeconds = _lDurationMillis / 1000d;
+        LatencyRecorder total = new LatencyRecorder( );
+        System.out.println( );
+        System.out.println( String.format( "%-10s %8s %8s %9s %9s %9s %9s %9s %9s", "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms" ) );
+        for ( Map.Entry<Operation, LatencyRecorder> result : mapResults.entrySet( ) )
+        {
+            printLine( result.getKey( ).name( ).toLowerCase( ), result.getValue( ), dSeconds );
+            total.merge( result.getValue( ) );
+        }
+        printLine( "total", total, dSeconds );
+
+        System.out.println( );
+        System.out.println( "Statuses:" );
+        mapResults.forEach( ( operation, recorder ) -> System.out.println( "  " + operation.name( ).toLowerCase( ) + " " + recorder.getStatuses( ) ) );
+        System.out.println( "Highest number of agents waiting for a response: " + _nMaxAgentsInRequest.get( ) );
+
+        if ( stub != null )
+        {
+            System.out.println( );
+            System.out.println( String.format( "Identity store stub: %d calls (%.1f per request), %d injected errors, %d calls at most in flight, %d connections",
+                    stub.getRequestCount( ), total.getCount( ) > 0 ? (double) stub.getRequestCount( ) / total.getCount( ) : 0,
+                    stub.getInjectedErrorCount( ), stub.getMaxInFlight( ), stub.getConnectionCount( ) ) );
+        }
+
+        System.out.println( );
+        if ( _mapPeaks.isEmpty( ) )
+        {
+            System.out.println( "Picker metrics not available: enable identitypicker.metrics and set loadtest.metricsToken or loadtest.cookie" );
+        }
+        else
+        {
+            System.out.println( "Peaks sampled from the picker metrics:" );
+            new TreeMap<>( _mapPeaks ).forEach( ( series, value ) -> System.out.println( String.format( "  %-70s %8.0f", series, value ) ) );
+        }
+    }
+
+    /**
+     * Prints the line of an operation
+     *
+     * @param strName
+     *            the operation name
+     * @param recorder
+     *            the recorder of the operation
+     * @param dSeconds
+     *            the measured duration
+     */
+    private static void printLine( String strName, LatencyRecorder recorder, double dSeconds )
+    {
+        StringBuilder sb = new StringBuilder( String.format( "%-10s %8d %8d %9.1f", strName, recorder.getCount( ), recorder.getErrorCount( ),
+                recorder.getCount( ) / dSeconds ) );
+        for ( double dPercentile : PERCENTILES )
+        {
+            sb.append( String.format( " %9.1f", recorder.getPercentile( dPercentile ) ) );
+        }
+        sb.append( String.format( " %9.1f", recorder.getPercentile( 100 ) ) );
+        System.out.println( sb );
+    }
+
+    /**
+     * Picks an operation according to the mix
+     *
+     * @param random
+     *            the source of the choice
+     * @return the operation
+     */
+    private Operation pickOperation( Random random )
+    {
+        int nTotal = _mapMix.values( ).stream( ).mapToInt( Integer::intValue ).sum( );
+        int nPick = random.nextInt( nTotal );
+        for ( Map.Entry<Operation, Integer> weight : _mapMix.entrySet( ) )
+        {
+            nPick -= weight.getValue( );
+            if ( nPick < 0 )
+            {
+                return weight.getKey( );
+            }
+        }
+        return Operation.VIEW;
+    }
+
+    /**
+     * Parses the mix of the operations
+     *
+     * @param strMix
+     *            the weights, as {@code search=40,view=35,history=15,edit=10}
+     * @return the weights by operation
+     */
+    private static Map<Operation, Integer> parseMix( String strMix )
+    {
+        Map<Operation, Integer> mapMix = new EnumMap<>( Operation.class );
+        for ( String strWeight : strMix.split( "," ) )
+        {
+            String [ ] parts = strWeight.trim( ).split( "=" );
+            int nWeight = Integer.parseInt( parts [1].trim( ) );
+            if ( nWeight > 0 )
+            {
+                mapMix.put( Operation.valueOf( parts [0].trim( ).toUpperCase( ) ), nWeight );
+            }
+        }
+        if ( mapMix.isEmpty( ) )
+        {
+            throw new IllegalArgumentException( "Empty operation mix: " + strMix );
+        }
+        return mapMix;
+    }
+
+    /**
+     * Tells whether a line of the metrics is a sample of a sampled gauge
+     *
+     * @param strLine
+     *            the line
+     * @return true if the line is sampled
+     */
+    private static boolean isSampled( String strLine )
+    {
+        for ( String strMetric : SAMPLED_METRICS )
+        {
+            if ( strLine.startsWith( strMetric + "{" ) || strLine.startsWith( strMetric + " " ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a daemon thread, so that the idle threads of the HTTP client do not keep the JVM running after the report
+     *
+     * @param runnable
+     *            the task of the thread
+     * @return the thread
+     */
+    private static Thread newDaemonThread( Runnable runnable )
+    {
+        Thread thread = new Thread( runnable );
+        thread.setDaemon( true );
+        return thread;
+    }
+
+    /**
+     * Encodes a query parameter value
+     *
+     * @param strValue
+     *            the value
+     * @return the encoded value
+     */
+    private static String encode( String strValue )
+    {
+        return URLEncoder.encode( strValue, StandardCharsets.UTF_8 );
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.paris.lutece.plugins.identitypicker.benchmark.IdentityFixtures;
+import fr.paris.lutece.plugins.identitypicker.business.IdentitySearchCriteria;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.crud.IdentityChangeRequest;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.search.IdentitySearchRequest;
+
+/**
+ * Benchmarks of the requests built by IdentityPickerService before calling the identity store: the change request of a creation or an update,
+ * the diff of an update against the previous identity, and the search request.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class IdentityPickerServiceBenchmark
+{
+    private static final long SEED = 42L;
+
+    /**
+     * Number of attributes of the identity
+     */
+    @Param( {
+            "10", "50", "200"
+    } )
+    public int attributeCount;
+
+    /**
+     * Share of the attributes changed by the update
+     */
+    @Param( {
+            "0.1"
+    } )
+    public double modifiedRatio;
+
+    private IdentityPickerService _service;
+    private IdentityDto _previousIdentity;
+    private Map<String, Object> _data;
+    private List<AttributeDto> _listUpdatedAttributes;
+    private IdentitySearchCriteria _criteriaByEmail;
+    private IdentitySearchCriteria _criteriaByName;
+
+    /**
+     * Generates the fixtures. The methods measured here do not use the injected services, so the service is created without CDI.
+     */
+    @Setup
+    public void setUp( )
+    {
+        _service = new IdentityPickerService( );
+        _previousIdentity = IdentityFixtures.newIdentity( attributeCount, SEED );
+        _data = IdentityFixtures.newChangeData( _previousIdentity, modifiedRatio, SEED );
+        _listUpdatedAttributes = _service.buildIdentityChangeRequest( _data, _previousIdentity ).getIdentity( ).getAttributes( );
+        _criteriaByEmail = IdentityFixtures.newSearchCriteria( true );
+        _criteriaByName = IdentityFixtures.newSearchCriteria( false );
+    }
+
+    /**
+     * Builds the change request of a creation
+     *
+     * @return the request
+     */
+    @Benchmark
+    public IdentityChangeRequest buildCreateRequest( )
+    {
+        return _service.buildIdentityChangeRequest( _data, null );
+    }
+
+    /**
+     * Builds the change request of an update
+     *
+     * @return the request
+     */
+    @Benchmark
+    public IdentityChangeRequest buildUpdateRequest( )
+    {
+        return _service.buildIdentityChangeRequest( _data, _previousIdentity );
+    }
+
+    /**
+     * Copies the certification of the birth place and country codes to their labels
+     *
+     * @return the attributes
+     */
+    @Benchmark
+    public List<AttributeDto> handleBirthAttributes( )
+    {
+        _service.handleBirthAttributes( _listUpdatedAttributes );
+        return _listUpdatedAttributes;
+    }
+
+    /**
+     * Builds a certified birth date attribute, converted from the ISO format
+     *
+     * @return the attribute
+     */
+    @Benchmark
+    public AttributeDto buildBirthDateAttribute( )
+    {
+        return _service.buildAttribute( "birthdate", "1980-05-17", "DEC" );
+    }
+
+    /**
+     * Builds a certified attribute
+     *
+     * @return the attribute
+     */
+    @Benchmark
+    public AttributeDto buildAttribute( )
+    {
+        return _service.buildAttribute( "first_name", "Jean", "DEC" );
+    }
+
+    /**
+     * Keeps the modified attributes of an update, as updateIdentity does before calling the identity store
+     *
+     * @return the modified attributes
+     */
+    @Benchmark
+    public List<AttributeDto> diffUpdatedAttributes( )
+    {
+        return _service.getModifiedAttributes( _previousIdentity, _listUpdatedAttributes );
+    }
+
+    /**
+     * Builds the request of a search by email
+     *
+     * @return the request
+     */
+    @Benchmark
+    public IdentitySearchRequest createSearchRequestByEmail( )
+    {
+        return _service.createSearchRequest( _criteriaByEmail );
+    }
+
+    /**
+     * Builds the request of a search by name and birth date
+     *
+     * @return the request
+     */
+    @Benchmark
+    public IdentitySearchRequest createSearchRequestByName( )
+    {
+        return _service.createSearchRequest( _criteriaByName );
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.paris.lutece.plugins.identitypicker.benchmark.IdentityFixtures;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryPage;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks of the JSON serialization of the REST responses. The payloads are written with the writers used by the JSON responses of
+ * IdentityRestService: streamed for a search result, buffered for the bounded identity and history page. The JAX-RS response itself is left
+ * out, as it needs the runtime of the container; the response stream is replaced by a stream counting the bytes. The *AsString benchmarks are the
+ * baseline: the payload is written to a String with a plain ObjectMapper, then encoded by the container, as the responses used to be built.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class IdentityRestServiceBenchmark
+{
+    private static final long SEED = 42L;
+    private static final int SEARCH_RESULT_SIZE = 10;
+    private static final int HISTORY_PAGE_SIZE = 200;
+
+    /**
+     * Number of attributes of the identities
+     */
+    @Param( {
+            "10", "50", "200"
+    } )
+    public int attributeCount;
+
+    private IdentityDto _identity;
+    private List<IdentityDto> _listSearchResult;
+    private IdentityHistoryPage _historyPage;
+    private ObjectMapper _mapper;
+
+    /**
+     * Generates the payloads
+     */
+    @Setup
+    public void setUp( )
+    {
+        _identity = IdentityFixtures.newIdentity( attributeCount, SEED );
+        _listSearchResult = IdentityFixtures.newSearchResult( SEARCH_RESULT_SIZE, attributeCount, SEED );
+        _historyPage = new IdentityHistoryPage( IdentityFixtures.newHistoryChanges( HISTORY_PAGE_SIZE, attributeCount, SEED ), HISTORY_PAGE_SIZE * 5,
+                "200:history" );
+        _mapper = new ObjectMapper( );
+    }
+
+    /**
+     * Serializes an identity, as returned by GET /identity/{customer_id}
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeIdentity( ) throws IOException
+    {
+        return buffer( _identity );
+    }
+
+    /**
+     * Serializes a search result, as returned by GET /search
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeSearchResult( ) throws IOException
+    {
+        return stream( _listSearchResult );
+    }
+
+    /**
+     * Serializes a page of history changes, as returned by GET /identity/{customer_id}/history/changes
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeHistoryPage( ) throws IOException
+    {
+        return buffer( _historyPage );
+    }
+
+    /**
+     * Serializes an identity through a String (baseline of serializeIdentity)
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeIdentityAsString( ) throws IOException
+    {
+        return writeAsString( _identity );
+    }
+
+    /**
+     * Serializes a search result through a String (baseline of serializeSearchResult)
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeSearchResultAsString( ) throws IOException
+    {
+        return writeAsString( _listSearchResult );
+    }
+
+    /**
+     * Serializes a page of history changes through a String (baseline of serializeHistoryPage)
+     *
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    @Benchmark
+    public int serializeHistoryPageAsString( ) throws IOException
+    {
+        return writeAsString( _historyPage );
+    }
+
+    /**
+     * Streams a payload as the JSON responses do
+     *
+     * @param payload
+     *            the payload
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    private int stream( Object payload ) throws IOException
+    {
+        CountingOutputStream output = new CountingOutputStream( );
+        IdentityRestService.writerFor( payload.getClass( ) ).writeValue( output, payload );
+        return output._nCount;
+    }
+
+    /**
+     * Writes a payload as the bounded JSON responses do
+     *
+     * @param payload
+     *            the payload
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    private int buffer( Object payload ) throws IOException
+    {
+        return IdentityRestService.toJson( payload ).length;
+    }
+
+    /**
+     * Writes a payload to a String, then encodes it in UTF-8 as the container does with a String entity
+     *
+     * @param payload
+     *            the payload
+     * @return the size of the JSON
+     * @throws IOException
+     *             if the serialization fails
+     */
+    private int writeAsString( Object payload ) throws IOException
+    {
+        return _mapper.writeValueAsString( payload ).getBytes( StandardCharsets.UTF_8 ).length;
+    }
+
+    /**
+     * Response stream which only counts the bytes written
+     */
+    private static final class CountingOutputStream extends OutputStream
+    {
+        private int _nCount;
+
+        @Override
+        public void write( int b )
+        {
+            _nCount++;
+        }
+
+        @Override
+        public void write( byte [ ] bytes, int nOffset, int nLength )
+        {
+            _nCount += nLength;
+        }
+    }
+}
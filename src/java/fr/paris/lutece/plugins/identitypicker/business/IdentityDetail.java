@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.business;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityHistory;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.task.IdentityTaskDto;
+
+/**
+ * Identity, history and tasks of a customer, fetched in one call. Only the requested sections are filled, and a section which failed or timed out
+ * is reported in the errors. A fetched section is always serialized, even when it holds no task.
+ */
+@JsonInclude( JsonInclude.Include.NON_EMPTY )
+public class IdentityDetail
+{
+    public static final String SECTION_IDENTITY = "identity";
+    public static final String SECTION_HISTORY = "history";
+    public static final String SECTION_TASKS = "tasks";
+    public static final Set<String> SECTIONS = Set.of( SECTION_IDENTITY, SECTION_HISTORY, SECTION_TASKS );
+
+    @JsonProperty( SECTION_IDENTITY )
+    private IdentityDto identity;
+
+    @JsonProperty( SECTION_HISTORY )
+    private IdentityHistory history;
+
+    // an empty task list is a result, not a missing section
+    @JsonProperty( SECTION_TASKS )
+    @JsonInclude( JsonInclude.Include.NON_NULL )
+    private List<IdentityTaskDto> tasks;
+
+    @JsonProperty( "errors" )
+    private final Map<String, String> errors = new TreeMap<>( );
+
+    public IdentityDto getIdentity( )
+    {
+        return identity;
+    }
+
+    public void setIdentity( IdentityDto identity )
+    {
+        this.identity = identity;
+    }
+
+    public IdentityHistory getHistory( )
+    {
+        return history;
+    }
+
+    public void setHistory( IdentityHistory history )
+    {
+        this.history = history;
+    }
+
+    public List<IdentityTaskDto> getTasks( )
+    {
+        return tasks;
+    }
+
+    public void setTasks( List<IdentityTaskDto> tasks )
+    {
+        this.tasks = tasks;
+    }
+
+    public Map<String, String> getErrors( )
+    {
+        return errors;
+    }
+
+    /**
+     * Reports the error of a section
+     *
+     * @param strSection
+     *            the section
+     * @param strError
+     *            the error message
+     */
+    public void addError( String strSection, String strError )
+    {
+        errors.put( strSection, strError );
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.business;
+
+import jakarta.ws.rs.QueryParam;
+
+/**
+ * Filters of the identity history pages. All the filters are optional. The ISO dates of {@code from} and {@code to} are read in the time zone
+ * of the client ({@code zone}, e.g. {@code Europe/Paris}), or in the configured zone when it is not given.
+ */
+public class IdentityHistoryFilter
+{
+    @QueryParam( "attribute_key" )
+    private String attributeKey;
+
+    @QueryParam( "from" )
+    private String from;
+
+    @QueryParam( "to" )
+    private String to;
+
+    @QueryParam( "author" )
+    private String author;
+
+    @QueryParam( "change_type" )
+    private String changeType;
+
+    @QueryParam( "zone" )
+    private String zone;
+
+    public String getAttributeKey( )
+    {
+        return attributeKey;
+    }
+
+    public void setAttributeKey( String attributeKey )
+    {
+        this.attributeKey = attributeKey;
+    }
+
+    public String getFrom( )
+    {
+        return from;
+    }
+
+    public void setFrom( String from )
+    {
+        this.from = from;
+    }
+
+    public String getTo( )
+    {
+        return to;
+    }
+
+    public void setTo( String to )
+    {
+        this.to = to;
+    }
+
+    public String getAuthor( )
+    {
+        return author;
+    }
+
+    public void setAuthor( String author )
+    {
+        this.author = author;
+    }
+
+    public String getChangeType( )
+    {
+        return changeType;
+    }
+
+    public void setChangeType( String changeType )
+    {
+        this.changeType = changeType;
+    }
+
+    public String getZone( )
+    {
+        return zone;
+    }
+
+    public void setZone( String zone )
+    {
+        this.zone = zone;
+    }
+}
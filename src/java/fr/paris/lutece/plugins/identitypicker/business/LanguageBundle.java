@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.business;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Immutable snapshot of the localized strings sent to the picker for one locale, with its JSON form computed once.
+ */
+@JsonSerialize( using = LanguageBundle.RawJsonSerializer.class )
+public class LanguageBundle
+{
+    private final Map<String, String> strings;
+    private final SerializedString json;
+    private final String version;
+
+    /**
+     * Constructor
+     *
+     * @param strings
+     *            the localized strings, which must not be modified afterwards
+     * @param strJson
+     *            the JSON object holding the same strings
+     * @param version
+     *            a hash of the JSON content
+     */
+    public LanguageBundle( Map<String, String> strings, String strJson, String version )
+    {
+        this.strings = strings;
+        this.json = new SerializedString( strJson );
+        this.version = version;
+    }
+
+    public Map<String, String> getStrings( )
+    {
+        return strings;
+    }
+
+    public String getJson( )
+    {
+        return json.getValue( );
+    }
+
+    public String getVersion( )
+    {
+        return version;
+    }
+
+    /**
+     * Writes the pre-serialized JSON as is. {@link SerializedString} keeps its UTF-8 encoding, so the bundle is neither serialized nor encoded again.
+     */
+    public static class RawJsonSerializer extends JsonSerializer<LanguageBundle>
+    {
+        @Override
+        public void serialize( LanguageBundle bundle, JsonGenerator generator, SerializerProvider provider ) throws IOException
+        {
+            generator.writeRawValue( bundle.json );
+        }
+    }
+}
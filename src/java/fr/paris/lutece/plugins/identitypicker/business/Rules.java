@@ -1,6 +1,6 @@
 package fr.paris.lutece.plugins.identitypicker.business;
 
-import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.contract.ServiceContractDto;
 
@@ -8,14 +8,16 @@ public class Rules
 {
     Referential referential;
     ServiceContractDto contract;
-    Map<String, String> language;
+    LanguageBundle language;
+    String version;
 
 
-    public Rules( Referential referential, ServiceContractDto contract, Map<String, String> language )
+    public Rules( Referential referential, ServiceContractDto contract, LanguageBundle language, String version )
     {
         this.referential = referential;
         this.contract = contract;
         this.language = language;
+        this.version = version;
     }
 
     public Referential getReferential( )
@@ -28,9 +30,15 @@ public class Rules
         return contract;
     }
 
-    public Map<String, String> getLanguage( )
+    public LanguageBundle getLanguage( )
     {
         return language;
     }
 
+    @JsonIgnore
+    public String getVersion( )
+    {
+        return version;
+    }
+
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreUnavailableException;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+
+/**
+ * Owns the background threads of the plugin, so that they are created once and stopped with the application.
+ */
+@ApplicationScoped
+@Named( "identitypicker.executorService" )
+public class IdentityPickerExecutorService
+{
+    private static final String THREAD_NAME_REFRESH = "identitypicker-refresh";
+    private static final String THREAD_NAME_WORKER = "identitypicker-worker";
+    private static final String THREAD_NAME_REQUEST = "identitypicker-request";
+    private static final String THREAD_NAME_HEDGE = "identitypicker-hedge";
+    private static final String ERROR_WORKERS_SATURATED = "Too many pending calls to the identity store. Please try again later.";
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.executor.workers", defaultValue = "16" )
+    private int _nWorkers;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.executor.workers.queueSize", defaultValue = "200" )
+    private int _nWorkerQueueSize;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.executor.requests", defaultValue = "32" )
+    private int _nRequestThreads;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.executor.requests.queueSize", defaultValue = "200" )
+    private int _nRequestQueueSize;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.executor.hedge", defaultValue = "32" )
+    private int _nHedgeThreads;
+
+    private final ScheduledExecutorService _refreshExecutor = Executors.newSingleThreadScheduledExecutor( daemonThreadFactory( THREAD_NAME_REFRESH ) );
+    private ExecutorService _workerExecutor;
+    private ExecutorService _requestExecutor;
+    private ExecutorService _hedgeExecutor;
+
+    /**
+     * Creates the pools once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _workerExecutor = new ThreadPoolExecutor( _nWorkers, _nWorkers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>( _nWorkerQueueSize ),
+                daemonThreadFactory( THREAD_NAME_WORKER ), new ThreadPoolExecutor.AbortPolicy( ) );
+        _requestExecutor = new ThreadPoolExecutor( _nRequestThreads, _nRequestThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>( _nRequestQueueSize ), daemonThreadFactory( THREAD_NAME_REQUEST ), new ThreadPoolExecutor.AbortPolicy( ) );
+        _hedgeExecutor = new ThreadPoolExecutor( _nHedgeThreads, _nHedgeThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>( _nHedgeThreads ),
+                daemonThreadFactory( THREAD_NAME_HEDGE ), new ThreadPoolExecutor.AbortPolicy( ) );
+    }
+
+    /**
+     * Gets the executor running the background refreshes of the caches. It is a single thread executor: refresh tasks must not wait on each other.
+     *
+     * @return the refresh executor
+     */
+    public ScheduledExecutorService getRefreshExecutor( )
+    {
+        return _refreshExecutor;
+    }
+
+    /**
+     * Gets the bounded pool running the identity store calls that are fanned out in parallel. Tasks submitted to this pool must not wait on other
+     * tasks of the same pool. Its queue is bounded too: submit the calls made for a request with {@link #submit(ExecutorService, Callable)}, so
+     * that a full queue is answered with 503 instead of piling up calls which would outlive their request.
+     *
+     * @return the worker executor
+     */
+    public ExecutorService getWorkerExecutor( )
+    {
+        return _workerExecutor;
+    }
+
+    /**
+     * Gets the bounded pool running the REST requests once they are released from the servlet thread. Its queue is bounded too: when it is full,
+     * submissions are rejected with a {@link java.util.concurrent.RejectedExecutionException}, so that an overloaded identity store does not pile up
+     * waiting requests. Request tasks may wait on the worker pool, not the other way round.
+     *
+     * @return the request executor
+     */
+    public ExecutorService getRequestExecutor( )
+    {
+        return _requestExecutor;
+    }
+
+    /**
+     * Gets the bounded pool running the attempts of the hedged identity store reads. Its tasks never wait on other tasks, so callers of any
+     * pool may wait on it. Submissions beyond its queue are rejected with a {@link java.util.concurrent.RejectedExecutionException}: the caller
+     * then runs the call itself, without hedging.
+     *
+     * @return the hedge executor
+     */
+    public ExecutorService getHedgeExecutor( )
+    {
+        return _hedgeExecutor;
+    }
+
+    /**
+     * Submits an identity store call to a bounded pool.
+     *
+     * @param <T>
+     *            the result type
+     * @param executor
+     *            the pool
+     * @param call
+     *            the call
+     * @return the pending call
+     * @throws IdentityStoreUnavailableException
+     *             if the pool and its queue are full
+     */
+    public static <T> Future<T> submit( ExecutorService executor, Callable<T> call ) throws IdentityStoreUnavailableException
+    {
+        try
+        {
+            return executor.submit( call );
+        }
+        catch( RejectedExecutionException e )
+        {
+            throw new IdentityStoreUnavailableException( ERROR_WORKERS_SATURATED );
+        }
+    }
+
+    /**
+     * Waits for the result of an identity store call until a deadline shared by several calls.
+     *
+     * @param <T>
+     *            the result type
+     * @param future
+     *            the pending call
+     * @param lDeadlineNanos
+     *            the deadline, as a {@link System#nanoTime()} value
+     * @return the result of the call
+     * @throws IdentityStoreException
+     *             the exception thrown by the call, or an exception wrapping the timeout or the interruption
+     */
+    public static <T> T await( Future<T> future, long lDeadlineNanos ) throws IdentityStoreException
+    {
+        try
+        {
+            return future.get( Math.max( 0, lDeadlineNanos - System.nanoTime( ) ), TimeUnit.NANOSECONDS );
+        }
+        catch( ExecutionException e )
+        {
+            Throwable cause = e.getCause( );
+            if ( cause instanceof IdentityStoreException )
+            {
+                throw (IdentityStoreException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new IdentityStoreException( cause.getMessage( ), cause );
+        }
+        catch( TimeoutException e )
+        {
+            future.cancel( true );
+            throw new IdentityStoreException( "Timeout while waiting for the identity store", e );
+        }
+        catch( InterruptedException e )
+        {
+            future.cancel( true );
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while waiting for the identity store", e );
+        }
+    }
+
+    /**
+     * Stops the background threads when the application shuts down
+     */
+    @PreDestroy
+    public void shutdown( )
+    {
+        _refreshExecutor.shutdownNow( );
+        if ( _workerExecutor != null )
+        {
+            _workerExecutor.shutdownNow( );
+        }
+        if ( _requestExecutor != null )
+        {
+            _requestExecutor.shutdownNow( );
+        }
+        if ( _hedgeExecutor != null )
+        {
+            _hedgeExecutor.shutdownNow( );
+        }
+    }
+
+    /**
+     * Builds a thread factory creating named daemon threads, so that a pending task never prevents the JVM from stopping
+     *
+     * @param strPrefix
+     *            the thread name prefix
+     * @return the thread factory
+     */
+    static ThreadFactory daemonThreadFactory( String strPrefix )
+    {
+        AtomicInteger nCounter = new AtomicInteger( );
+        return runnable -> {
+            Thread thread = new Thread( runnable, strPrefix + "-" + nCounter.incrementAndGet( ) );
+            thread.setDaemon( true );
+            return thread;
+        };
+    }
+}
@@ -1,26 +1,60 @@
 package fr.paris.lutece.plugins.identitypicker.service;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import fr.paris.lutece.api.user.User;
+import fr.paris.lutece.plugins.identitypicker.business.ClientRules;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityBatchResult;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityDetail;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryFilter;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryPage;
 import fr.paris.lutece.plugins.identitypicker.business.IdentitySearchCriteria;
+import fr.paris.lutece.plugins.identitypicker.business.LanguageBundle;
 import fr.paris.lutece.plugins.identitypicker.business.Referential;
 import fr.paris.lutece.plugins.identitypicker.business.Rules;
-import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerI18nUtils;
+import fr.paris.lutece.plugins.identitypicker.service.cache.IdentityCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.IdentitySearchKey;
+import fr.paris.lutece.plugins.identitypicker.service.cache.LanguageBundleCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.RulesCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.SearchResultCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitypicker.service.history.IdentityHistoryIndex;
+import fr.paris.lutece.plugins.identitypicker.service.history.IdentityHistoryIndexService;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreCall;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreCallService;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreUnavailableException;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerETagUtils;
+import fr.paris.lutece.plugins.identitypicker.service.validation.IdentityChangeValidatorService;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeTreatmentType;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AuthorType;
@@ -34,6 +68,9 @@ import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.crud.IdentityChangeRe
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.crud.IdentityChangeResponse;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityHistory;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityHistoryGetResponse;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.referentiel.AttributeSearchResponse;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.referentiel.LevelSearchResponse;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.referentiel.ProcessusSearchResponse;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.search.IdentitySearchRequest;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.search.IdentitySearchResponse;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.search.SearchAttribute;
@@ -66,6 +103,20 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @Named( "identitypicker.identityPickerService" )
 public class IdentityPickerService {
     private static final String ERROR_SEARCHING_IDENTITIES = "Error while searching identities: ";
+    private static final String ERROR_FETCHING_HISTORY = "Error while fetching identity history: ";
+    private static final String ERROR_NOT_FOUND = "Resource not found";
+    private static final String ERROR_BATCH_TIMEOUT = "Timeout while fetching the identity";
+    private static final String ERROR_INVALID_ORIGINAL = "Invalid original identity: it must hold the last_update_date and the attributes of the edited identity";
+    private static final String PARAMETER_ORIGINAL = "original";
+    private static final ObjectMapper _mapper = new ObjectMapper();
+    // The original sent back by the client is the identity it read, which may hold fields added by newer identity store versions
+    private static final ObjectMapper _originalMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // Concurrent identical reads wait for the call already sent to the identity store
+    private final SingleFlight<IdentitySearchKey, List<IdentityDto>> searchCalls = new SingleFlight<>();
+    private final SingleFlight<String, IdentitySearchResponse> identityCalls = new SingleFlight<>();
+    private final SingleFlight<String, IdentityHistoryGetResponse> historyCalls = new SingleFlight<>();
+    private final SingleFlight<String, IdentityTaskListGetResponse> taskCalls = new SingleFlight<>();
 
     @Inject
     @Named( "identityService.rest.httpAccess" )
@@ -83,6 +134,74 @@ public class IdentityPickerService {
     @Named( "identity.serviceContractService" )
     private ServiceContractServiceExtended serviceContract;
 
+    @Inject
+    @Named( "identitypicker.rulesCacheService" )
+    private RulesCacheService rulesCacheService;
+
+    @Inject
+    @Named( "identitypicker.identityCacheService" )
+    private IdentityCacheService identityCacheService;
+
+    @Inject
+    @Named( "identitypicker.identityHistoryIndexService" )
+    private IdentityHistoryIndexService historyIndexService;
+
+    @Inject
+    @Named( "identitypicker.searchResultCacheService" )
+    private SearchResultCacheService searchResultCacheService;
+
+    @Inject
+    @Named( "identitypicker.languageBundleCacheService" )
+    private LanguageBundleCacheService languageBundleCacheService;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService executorService;
+
+    @Inject
+    @Named( "identitypicker.identityStoreCallService" )
+    private IdentityStoreCallService identityStoreCallService;
+
+    @Inject
+    @Named( "identitypicker.identityChangeValidatorService" )
+    private IdentityChangeValidatorService identityChangeValidatorService;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.rules.timeout", defaultValue = "10000" )
+    private long rulesTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.rules.author", defaultValue = "identitypicker" )
+    private String rulesAuthor;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.detail.timeout.identity", defaultValue = "5000" )
+    private long detailIdentityTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.detail.timeout.history", defaultValue = "10000" )
+    private long detailHistoryTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.detail.timeout.tasks", defaultValue = "10000" )
+    private long detailTasksTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.history.zone", defaultValue = "Europe/Paris" )
+    private String historyZone;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.batch.parallelism", defaultValue = "4" )
+    private int batchParallelism;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.batch.timeout", defaultValue = "10000" )
+    private long batchTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.request.timeout", defaultValue = "30000" )
+    private long requestTimeout;
+
     /**
      * Searches for identities based on given criteria.
      * @param criteria The search criteria
@@ -91,8 +210,30 @@ public class IdentityPickerService {
      * @throws IdentityStoreException If an error occurs during the search
      */
     public List<IdentityDto> searchIdentities(IdentitySearchCriteria criteria, User luteceUser) throws IdentityStoreException {
-        IdentitySearchRequest searchRequest = createSearchRequest(criteria);
-        return doSearch(searchRequest, createRequestAuthor(luteceUser));
+        IdentitySearchKey key = new IdentitySearchKey(clientCode, criteria);
+        List<IdentityDto> cachedIdentities = searchResultCacheService.get(key);
+        if (cachedIdentities != null) {
+            return cachedIdentities;
+        }
+        return searchCalls.execute(key, requestDeadline(), () -> {
+            IdentitySearchRequest searchRequest = createSearchRequest(key);
+            List<IdentityDto> identities = doSearch(searchRequest, createRequestAuthor(luteceUser));
+            searchResultCacheService.put(key, identities);
+            return identities;
+        });
+    }
+
+    /**
+     * Gets the coalescing groups of the identity store reads, by operation name, for monitoring.
+     * @return The coalescing groups
+     */
+    public Map<String, SingleFlight<?, ?>> getSingleFlights() {
+        Map<String, SingleFlight<?, ?>> singleFlights = new LinkedHashMap<>();
+        singleFlights.put("search", searchCalls);
+        singleFlights.put("identity", identityCalls);
+        singleFlights.put("history", historyCalls);
+        singleFlights.put("tasks", taskCalls);
+        return singleFlights;
     }
 
     /**
@@ -103,51 +244,300 @@ public class IdentityPickerService {
      * @throws IdentityStoreException If an error occurs while fetching the identity
      */
     public Optional<IdentityDto> getIdentity(String customerId, User luteceUser) throws IdentityStoreException {
+        IdentityDto cachedIdentity = identityCacheService.get(customerId);
+        if (cachedIdentity != null) {
+            return Optional.of(cachedIdentity);
+        }
         try {
-            IdentitySearchResponse response = identityService.getIdentity(customerId, clientCode, createRequestAuthor(luteceUser));
-            return isSuccess(response) ? Optional.of(response.getIdentities().get(0)) : Optional.empty();
+            IdentitySearchResponse response = identityCalls.execute(customerId, requestDeadline(), () -> {
+                // Read before the call: an update invalidating the identity meanwhile prevents caching the former state
+                long generation = identityCacheService.getGeneration(customerId);
+                IdentitySearchResponse loaded = identityStoreCallService.execute(IdentityStoreCall.GET_IDENTITY,
+                    () -> identityService.getIdentity(customerId, clientCode, createRequestAuthor(luteceUser)));
+                if (isSuccess(loaded)) {
+                    identityCacheService.put(customerId, loaded.getIdentities().get(0), generation);
+                }
+                return loaded;
+            });
+            if (isSuccess(response)) {
+                return Optional.of(response.getIdentities().get(0));
+            }
+            identityCacheService.invalidate(customerId);
+            return Optional.empty();
         } catch (IdentityStoreException e) {
+            identityCacheService.invalidate(customerId);
             AppLogService.error("Error while fetching identity", e);
             throw e;
         }
     }
 
     /**
-     * Gets the rules and referential data.
-     * @param request The HTTP request
+     * Gets an identity from the cache only, without calling the identity store.
+     * @param customerId The customer ID
+     * @return The cached identity, or null if it is not cached
+     */
+    public IdentityDto getCachedIdentity(String customerId) {
+        return identityCacheService.get(customerId);
+    }
+
+    /**
+     * Reads the original state of an identity sent by the client with its update, and removes it from the update data.
+     * The original is the identity as the client read it: its last_update_date and the attributes the client edited.
+     * @param customerId The customer ID of the identity
+     * @param data The update data, holding the original under the "original" key
+     * @return The original identity, or null if the client did not send it
+     * @throws IllegalArgumentException If the original has no last update date or no attributes
+     */
+    public IdentityDto readOriginalIdentity(String customerId, Map<String, Object> data) {
+        Object original = data.remove(PARAMETER_ORIGINAL);
+        if (original == null) {
+            return null;
+        }
+        IdentityDto identity;
+        try {
+            identity = _originalMapper.convertValue(original, IdentityDto.class);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(ERROR_INVALID_ORIGINAL, e);
+        }
+        if (identity == null || identity.getLastUpdateDate() == null || identity.getAttributes() == null) {
+            throw new IllegalArgumentException(ERROR_INVALID_ORIGINAL);
+        }
+        identity.setCustomerId(customerId);
+        return identity;
+    }
+
+    /**
+     * Gets several identities by customer ID, fetching them concurrently with a bounded parallelism.
+     * @param customerIds The customer IDs
+     * @param luteceUser The current Lutece user
+     * @return The outcome of each fetch, in the order of the customer IDs
+     * @throws IdentityStoreException If the worker pool is saturated
+     */
+    public List<IdentityBatchResult> getIdentities(List<String> customerIds, User luteceUser) throws IdentityStoreException {
+        List<String> distinctIds = customerIds.stream().distinct().collect(Collectors.toList());
+        Queue<String> pendingIds = new ConcurrentLinkedQueue<>(distinctIds);
+        Map<String, IdentityBatchResult> results = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeout);
+
+        // Each worker fetches identities from the shared queue until it is empty
+        List<Future<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(batchParallelism, distinctIds.size()); i++) {
+            try {
+                workers.add(IdentityPickerExecutorService.submit(executorService.getWorkerExecutor(), () -> {
+                    String customerId;
+                    while ((customerId = pendingIds.poll()) != null) {
+                        results.put(customerId, fetchBatchIdentity(customerId, luteceUser));
+                    }
+                    return null;
+                }));
+            } catch (IdentityStoreUnavailableException e) {
+                if (workers.isEmpty()) {
+                    throw e;
+                }
+                // The workers already submitted fetch the remaining identities
+                break;
+            }
+        }
+        for (Future<Void> worker : workers) {
+            try {
+                IdentityPickerExecutorService.await(worker, deadline);
+            } catch (IdentityStoreException e) {
+                AppLogService.error("Error while fetching a batch of identities", e);
+            }
+        }
+        pendingIds.clear();
+
+        return distinctIds.stream()
+            .map(customerId -> results.getOrDefault(customerId, new IdentityBatchResult(customerId,
+                HttpServletResponse.SC_GATEWAY_TIMEOUT, null, ERROR_BATCH_TIMEOUT)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches one identity of a batch.
+     * @param customerId The customer ID
+     * @param luteceUser The current Lutece user
+     * @return The identity, or the error status
+     */
+    private IdentityBatchResult fetchBatchIdentity(String customerId, User luteceUser) {
+        try {
+            return getIdentity(customerId, luteceUser)
+                .map(identity -> new IdentityBatchResult(customerId, HttpServletResponse.SC_OK, identity, null))
+                .orElseGet(() -> new IdentityBatchResult(customerId, HttpServletResponse.SC_NOT_FOUND, null, ERROR_NOT_FOUND));
+        } catch (IdentityStoreUnavailableException e) {
+            return new IdentityBatchResult(customerId, HttpServletResponse.SC_SERVICE_UNAVAILABLE, null, e.getMessage());
+        } catch (IdentityStoreException | RuntimeException e) {
+            return new IdentityBatchResult(customerId, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the identity, history and tasks of a customer concurrently. Each section has its own
+     * timeout, so that a slow section does not delay the others.
+     * @param customerId The customer ID
+     * @param sections The sections to fetch, among {@link IdentityDetail#SECTION_IDENTITY},
+     *            {@link IdentityDetail#SECTION_HISTORY} and {@link IdentityDetail#SECTION_TASKS}
      * @param luteceUser The current Lutece user
+     * @return The requested sections, and the errors of the sections which could not be fetched
+     * @throws IdentityStoreException If the worker pool is saturated
+     */
+    public IdentityDetail getIdentityDetail(String customerId, Set<String> sections, User luteceUser) throws IdentityStoreException {
+        ExecutorService executor = executorService.getWorkerExecutor();
+        long start = System.nanoTime();
+        Future<Optional<IdentityDto>> identity = null;
+        Future<Optional<IdentityHistory>> history = null;
+        Future<Optional<List<IdentityTaskDto>>> tasks = null;
+        try {
+            if (sections.contains(IdentityDetail.SECTION_IDENTITY)) {
+                identity = IdentityPickerExecutorService.submit(executor, () -> getIdentity(customerId, luteceUser));
+            }
+            if (sections.contains(IdentityDetail.SECTION_HISTORY)) {
+                history = IdentityPickerExecutorService.submit(executor, () -> fetchIdentityHistory(customerId, luteceUser));
+            }
+            if (sections.contains(IdentityDetail.SECTION_TASKS)) {
+                tasks = IdentityPickerExecutorService.submit(executor,
+                    () -> Optional.of(fetchIdentityTasks(customerId, luteceUser).orElseGet(Collections::emptyList)));
+            }
+        } catch (IdentityStoreUnavailableException e) {
+            Stream.of(identity, history, tasks).filter(Objects::nonNull).forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        IdentityDetail detail = new IdentityDetail();
+        awaitSection(detail, IdentityDetail.SECTION_IDENTITY, identity, start + TimeUnit.MILLISECONDS.toNanos(detailIdentityTimeout))
+            .ifPresent(detail::setIdentity);
+        awaitSection(detail, IdentityDetail.SECTION_HISTORY, history, start + TimeUnit.MILLISECONDS.toNanos(detailHistoryTimeout))
+            .ifPresent(detail::setHistory);
+        awaitSection(detail, IdentityDetail.SECTION_TASKS, tasks, start + TimeUnit.MILLISECONDS.toNanos(detailTasksTimeout))
+            .ifPresent(detail::setTasks);
+        return detail;
+    }
+
+    /**
+     * Waits for a section of the identity detail, and reports its error if it fails or times out.
+     * @param detail The identity detail
+     * @param section The section name
+     * @param future The pending fetch of the section, null if the section was not requested
+     * @param deadline The deadline of the section, as a {@link System#nanoTime()} value
+     * @return The section content, or empty
+     */
+    private <T> Optional<T> awaitSection(IdentityDetail detail, String section, Future<Optional<T>> future, long deadline) {
+        if (future == null) {
+            return Optional.empty();
+        }
+        try {
+            return IdentityPickerExecutorService.await(future, deadline);
+        } catch (IdentityStoreException | RuntimeException e) {
+            AppLogService.error("Error while fetching the {} section of an identity", section, e);
+            detail.addError(section, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the rules and referential data.
+     * @param locale The locale of the localized strings
      * @return A Rules object containing referential data and service contract
      * @throws IdentityStoreException If an error occurs while fetching the data
      */
-    public Rules getRules(HttpServletRequest request, User luteceUser) throws IdentityStoreException {
+    public Rules getRules(Locale locale) throws IdentityStoreException {
         try {
-            RequestAuthor author = createRequestAuthor(luteceUser);
-            Referential referential = new Referential(
-                referentialService.getProcessList(clientCode, author),
-                referentialService.getLevelList(clientCode, author),
-                referentialService.getAttributeKeyList(clientCode, author)
-            );
-            ServiceContractDto contract = serviceContract
-                .getActiveServiceContract(clientCode, clientCode, author)
-                .getServiceContract();
-            Map<String, String> language = getLanguage( request );
-            return new Rules(referential, contract, language);
+            ClientRules clientRules = getClientRules();
+            LanguageBundle language = languageBundleCacheService.getLanguageBundle(locale);
+            String version = IdentityPickerETagUtils.hash(clientRules.getVersion(), language.getVersion());
+            return new Rules(clientRules.getReferential(), clientRules.getContract(), language, version);
         } catch (IdentityStoreException e) {
             AppLogService.error("Error while fetching referential data", e);
             throw e;
         }
     }
 
+    /**
+     * Loads the referential and the active service contract into the rules cache, without a Lutece user.
+     * @return The rules of the configured client code
+     * @throws IdentityStoreException If an error occurs while fetching the data
+     */
+    public ClientRules preloadRules() throws IdentityStoreException {
+        return getClientRules();
+    }
+
+    /**
+     * Gets the rules of the configured client code from the cache.
+     * The rules do not depend on the user: they are loaded with the application author, which the background refresh of the cache reuses.
+     * @return The rules of the configured client code
+     * @throws IdentityStoreException If the rules are not cached and cannot be loaded
+     */
+    private ClientRules getClientRules() throws IdentityStoreException {
+        return rulesCacheService.getClientRules(clientCode, () -> loadClientRules(createRequestAuthor(rulesAuthor)));
+    }
+
+    /**
+     * Loads the referential and the active service contract from the identity store.
+     * @param author The request author
+     * @return The rules of the configured client code
+     * @throws IdentityStoreException If an error occurs while fetching the data
+     */
+    private ClientRules loadClientRules(RequestAuthor author) throws IdentityStoreException {
+        ExecutorService executor = executorService.getWorkerExecutor();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(rulesTimeout);
+        Future<ProcessusSearchResponse> processList = null;
+        Future<LevelSearchResponse> levelList = null;
+        Future<AttributeSearchResponse> attributeKeyList = null;
+        Future<ServiceContractDto> contract = null;
+        try {
+            processList = IdentityPickerExecutorService.submit(executor, () -> identityStoreCallService.execute(IdentityStoreCall.GET_PROCESS_LIST,
+                () -> referentialService.getProcessList(clientCode, author)));
+            levelList = IdentityPickerExecutorService.submit(executor, () -> identityStoreCallService.execute(IdentityStoreCall.GET_LEVEL_LIST,
+                () -> referentialService.getLevelList(clientCode, author)));
+            attributeKeyList = IdentityPickerExecutorService.submit(executor, () -> identityStoreCallService.execute(IdentityStoreCall.GET_ATTRIBUTE_KEY_LIST,
+                () -> referentialService.getAttributeKeyList(clientCode, author)));
+            contract = IdentityPickerExecutorService.submit(executor, () -> identityStoreCallService.execute(IdentityStoreCall.GET_SERVICE_CONTRACT,
+                () -> serviceContract.getActiveServiceContract(clientCode, clientCode, author).getServiceContract()));
+            Referential referential = new Referential(
+                IdentityPickerExecutorService.await(processList, deadline),
+                IdentityPickerExecutorService.await(levelList, deadline),
+                IdentityPickerExecutorService.await(attributeKeyList, deadline)
+            );
+            ServiceContractDto contractDto = IdentityPickerExecutorService.await(contract, deadline);
+            return new ClientRules(referential, contractDto, computeVersion(referential, contractDto));
+        } finally {
+            Stream.of(processList, levelList, attributeKeyList, contract).filter(Objects::nonNull).forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Computes the version of the referential and contract from their JSON content.
+     * @param referential The referential
+     * @param contract The service contract
+     * @return A hash of the content
+     */
+    private String computeVersion(Referential referential, ServiceContractDto contract) {
+        try {
+            return IdentityPickerETagUtils.hash(_mapper.writeValueAsBytes(new Object[] { referential, contract }));
+        } catch (JsonProcessingException e) {
+            AppLogService.error("Unable to compute the version of the rules", e);
+            return String.valueOf(System.nanoTime());
+        }
+    }
+
     /**
      * Creates a new identity.
      * @param data The identity data
+     * @param locale The locale of the validation messages
      * @param luteceUser The current Lutece user
-     * @return The response from the identity creation request
+     * @return The response from the identity creation request, or the validation failure if the identity breaks the service contract
      * @throws IdentityStoreException If an error occurs during identity creation
      */
-    public IdentityChangeResponse createIdentity(Map<String, Object> data, User luteceUser) throws IdentityStoreException {
+    public IdentityChangeResponse createIdentity(Map<String, Object> data, Locale locale, User luteceUser) throws IdentityStoreException {
         IdentityChangeRequest request = buildIdentityChangeRequest(data, null);
-        return identityService.createIdentity(request, clientCode, createRequestAuthor(luteceUser));
+        Optional<IdentityChangeResponse> invalid = validateAttributes(request.getIdentity().getAttributes(), true, locale);
+        if (invalid.isPresent()) {
+            return invalid.get();
+        }
+        IdentityChangeResponse response = identityStoreCallService.execute(IdentityStoreCall.CREATE_IDENTITY,
+            () -> identityService.createIdentity(request, clientCode, createRequestAuthor(luteceUser)));
+        searchResultCacheService.invalidate(null, request.getIdentity().getAttributes());
+        return response;
     }
 
     /**
@@ -155,25 +545,63 @@ public class IdentityPickerService {
      * @param customerId The customer ID of the identity to update
      * @param data The updated identity data
      * @param previousIdentity The previous state of the identity
+     * @param locale The locale of the validation messages
      * @param luteceUser The current Lutece user
-     * @return The response from the identity update request
+     * @return The response from the identity update request, or the validation failure if the modified attributes break the service contract
      * @throws IdentityStoreException If an error occurs during identity update
      */
-    public IdentityChangeResponse updateIdentity(String customerId, Map<String, Object> data, IdentityDto previousIdentity, User luteceUser) throws IdentityStoreException {
+    public IdentityChangeResponse updateIdentity(String customerId, Map<String, Object> data, IdentityDto previousIdentity, Locale locale, User luteceUser) throws IdentityStoreException {
         IdentityChangeRequest request = buildIdentityChangeRequest(data, previousIdentity);
         request.getIdentity().setCustomerId(customerId);
         
-        List<AttributeDto> modifiedAttributes = request.getIdentity().getAttributes().stream()
-            .filter(updatedAttr -> checkIfAttributeIsModified(previousIdentity, updatedAttr))
-            .collect(Collectors.toList());
-        
+        List<AttributeDto> modifiedAttributes = getModifiedAttributes(previousIdentity, request.getIdentity().getAttributes());
+
         if (modifiedAttributes.isEmpty()) {
             throw new IdentityStoreException("No attributes to update");
         }
+        // Only the modified attributes are checked: the unchanged read-only attributes sent back by the form are not updated
+        Optional<IdentityChangeResponse> invalid = validateAttributes(modifiedAttributes, false, locale);
+        if (invalid.isPresent()) {
+            return invalid.get();
+        }
         
         request.getIdentity().setAttributes(modifiedAttributes);
         request.getIdentity().setLastUpdateDate(previousIdentity.getLastUpdateDate());
-        return identityService.updateIdentity(customerId, request, clientCode, createRequestAuthor(luteceUser));
+        IdentityChangeResponse response;
+        try {
+            response = identityStoreCallService.execute(IdentityStoreCall.UPDATE_IDENTITY,
+                () -> identityService.updateIdentity(customerId, request, clientCode, createRequestAuthor(luteceUser)));
+        } finally {
+            // The change response does not hold the whole identity: the next read fetches the new state
+            identityCacheService.invalidate(customerId);
+            historyIndexService.invalidate(customerId);
+        }
+        List<AttributeDto> touchedAttributes = new ArrayList<>(previousIdentity.getAttributes());
+        touchedAttributes.addAll(modifiedAttributes);
+        searchResultCacheService.invalidate(customerId, touchedAttributes);
+        return response;
+    }
+
+    /**
+     * Checks the attributes of a change against the cached service contract, before any call to the identity store.
+     * @param attributes The attributes sent to the identity store
+     * @param creation true for a creation, false for an update
+     * @param locale The locale of the validation messages
+     * @return The failure response of the change, or empty if the change is valid or cannot be checked
+     */
+    private Optional<IdentityChangeResponse> validateAttributes(List<AttributeDto> attributes, boolean creation, Locale locale) {
+        if (!identityChangeValidatorService.isEnabled()) {
+            return Optional.empty();
+        }
+        ClientRules clientRules;
+        try {
+            clientRules = getClientRules();
+        } catch (IdentityStoreException e) {
+            // The identity store still checks the change against the contract
+            AppLogService.error("Unable to load the rules, the identity change is sent without local validation", e);
+            return Optional.empty();
+        }
+        return identityChangeValidatorService.validate(clientRules, attributes, creation, locale);
     }
 
     /**
@@ -194,7 +622,7 @@ public class IdentityPickerService {
      * @param previousIdentity The previous state of the identity (null for new identities)
      * @return An IdentityChangeRequest object
      */
-    private IdentityChangeRequest buildIdentityChangeRequest(Map<String, Object> data, IdentityDto previousIdentity) {
+    IdentityChangeRequest buildIdentityChangeRequest(Map<String, Object> data, IdentityDto previousIdentity) {
         IdentityChangeRequest request = new IdentityChangeRequest();
         IdentityDto identity = new IdentityDto();
         List<AttributeDto> attributes = data.entrySet().stream()
@@ -220,7 +648,7 @@ public class IdentityPickerService {
      * Handles special cases for birth-related attributes.
      * @param attributes The list of attributes to process
      */
-    private void handleBirthAttributes(List<AttributeDto> attributes) {
+    void handleBirthAttributes(List<AttributeDto> attributes) {
         Map<String, AttributeDto> attributeMap = attributes.stream()
             .collect(Collectors.toMap(AttributeDto::getKey, Function.identity()));
 
@@ -246,6 +674,18 @@ public class IdentityPickerService {
             );
     }
 
+    /**
+     * Keeps the attributes of an update which differ from the previous state of the identity.
+     * @param previousIdentity The previous state of the identity
+     * @param updatedAttributes The attributes of the update
+     * @return The modified attributes
+     */
+    List<AttributeDto> getModifiedAttributes(IdentityDto previousIdentity, List<AttributeDto> updatedAttributes) {
+        return updatedAttributes.stream()
+            .filter(updatedAttr -> checkIfAttributeIsModified(previousIdentity, updatedAttr))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Checks if an attribute has been modified.
      * @param originalIdentity The original identity
@@ -270,7 +710,7 @@ public class IdentityPickerService {
      * @param certification The certification information
      * @return An AttributeDto object, or null if the value is blank
      */
-    private AttributeDto buildAttribute(String key, String value, String certification) {
+    AttributeDto buildAttribute(String key, String value, String certification) {
         if (StringUtils.isBlank(value) && StringUtils.isBlank(certification)) {
             return null;
         }
@@ -307,16 +747,26 @@ public class IdentityPickerService {
      * @param criteria The search criteria
      * @return An IdentitySearchRequest object
      */
-    private IdentitySearchRequest createSearchRequest(IdentitySearchCriteria criteria) {
+    IdentitySearchRequest createSearchRequest(IdentitySearchCriteria criteria) {
+        return createSearchRequest(new IdentitySearchKey(clientCode, criteria));
+    }
+
+    /**
+     * Creates an IdentitySearchRequest from the values of a search key, so that the searches sharing a cache
+     * entry send the same request.
+     * @param key The search key
+     * @return An IdentitySearchRequest object
+     */
+    private IdentitySearchRequest createSearchRequest(IdentitySearchKey key) {
         IdentitySearchRequest searchRequest = new IdentitySearchRequest();
         SearchDto search = new SearchDto();
         List<SearchAttribute> attributes = new ArrayList<>();
-        if (criteria.hasCommonEmail()) {
-            attributes.add(new SearchAttribute(Constants.PARAM_COMMON_EMAIL, criteria.getCommonEmail(), AttributeTreatmentType.STRICT));
+        if (key.hasEmail()) {
+            attributes.add(new SearchAttribute(Constants.PARAM_COMMON_EMAIL, key.getEmail(), AttributeTreatmentType.STRICT));
         } else {
-            attributes.add(new SearchAttribute(Constants.PARAM_FIRST_NAME, criteria.getFirstName(), AttributeTreatmentType.APPROXIMATED));
-            attributes.add(new SearchAttribute(Constants.PARAM_COMMON_LASTNAME, criteria.getCommonLastName(), AttributeTreatmentType.APPROXIMATED));
-            attributes.add(new SearchAttribute(Constants.PARAM_BIRTH_DATE, criteria.getBirthDate(), AttributeTreatmentType.STRICT));
+            attributes.add(new SearchAttribute(Constants.PARAM_FIRST_NAME, key.getFirstName(), AttributeTreatmentType.APPROXIMATED));
+            attributes.add(new SearchAttribute(Constants.PARAM_COMMON_LASTNAME, key.getLastName(), AttributeTreatmentType.APPROXIMATED));
+            attributes.add(new SearchAttribute(Constants.PARAM_BIRTH_DATE, key.getBirthDate(), AttributeTreatmentType.STRICT));
         }
         search.setAttributes(attributes);
         searchRequest.setSearch(search);
@@ -324,16 +774,25 @@ public class IdentityPickerService {
     }
 
 /**
-     * Performs the identity search.
+     * Performs the identity search. Only a found or a not found answer is returned, to be cached: any other
+     * status of the identity store is raised as an error.
      * @param searchRequest The search request
      * @param author The request author
-     * @return A list of matching IdentityDto objects
-     * @throws IdentityStoreException If an error occurs during the search
+     * @return A list of matching IdentityDto objects, empty if no identity is found
+     * @throws IdentityStoreException If an error occurs during the search, or the identity store answers another status
      */
     private List<IdentityDto> doSearch(IdentitySearchRequest searchRequest, RequestAuthor author) throws IdentityStoreException {
         try {
-            IdentitySearchResponse searchResponse = identityService.searchIdentities(searchRequest, clientCode, author);
-            return isSuccess(searchResponse) ? searchResponse.getIdentities() : Collections.emptyList();
+            IdentitySearchResponse searchResponse = identityStoreCallService.execute(IdentityStoreCall.SEARCH,
+                () -> identityService.searchIdentities(searchRequest, clientCode, author));
+            if (isSuccess(searchResponse)) {
+                return searchResponse.getIdentities();
+            }
+            ResponseStatusType status = getStatusType(searchResponse);
+            if (status == ResponseStatusType.NOT_FOUND) {
+                return Collections.emptyList();
+            }
+            throw new IdentityStoreException(ERROR_SEARCHING_IDENTITIES + status);
         } catch (IdentityStoreException e) {
             AppLogService.error(ERROR_SEARCHING_IDENTITIES, e);
             throw e;
@@ -348,14 +807,102 @@ public class IdentityPickerService {
      */
     public Optional<IdentityHistory> getIdentityHistory(String customerId, User luteceUser) {
         try {
-            IdentityHistoryGetResponse response = identityService.getIdentityHistory(customerId, clientCode, createRequestAuthor(luteceUser));
-            return isSuccess(response) ? Optional.ofNullable(response.getHistory()) : Optional.empty();
+            return fetchIdentityHistory(customerId, luteceUser);
         } catch (IdentityStoreException e) {
             AppLogService.error("Error while fetching identity history", e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Fetches the history of changes for a specific identity.
+     * @param customerId The customer ID of the identity
+     * @param luteceUser The current Lutece user
+     * @return An Optional containing the IdentityHistory, or empty if not found
+     * @throws IdentityStoreException If an error occurs while fetching the history
+     */
+    private Optional<IdentityHistory> fetchIdentityHistory(String customerId, User luteceUser) throws IdentityStoreException {
+        IdentityHistoryGetResponse response = historyCalls.execute(customerId, requestDeadline(),
+            () -> identityStoreCallService.execute(IdentityStoreCall.GET_HISTORY,
+                () -> identityService.getIdentityHistory(customerId, clientCode, createRequestAuthor(luteceUser))));
+        return isSuccess(response) ? Optional.ofNullable(response.getHistory()) : Optional.empty();
+    }
+
+
+    /**
+     * Gets a page of the changes of an identity, most recent first. The history is flattened and sorted
+     * once, then the following pages are served from the flattened history.
+     * @param customerId The customer ID of the identity
+     * @param filter The filters of the changes
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The maximum number of changes of the page
+     * @param luteceUser The current Lutece user
+     * @return The page, or empty if the history is not found
+     * @throws IdentityStoreException If the history cannot be fetched, or the identity store answers another status than found or not found
+     * @throws IllegalArgumentException If a filter, the time zone or the cursor is malformed, or if the cursor was issued for other filters
+     */
+    public Optional<IdentityHistoryPage> getIdentityHistoryPage(String customerId, IdentityHistoryFilter filter, String cursor, int limit, User luteceUser)
+            throws IdentityStoreException {
+        ZoneId zone = getHistoryZone(filter);
+        IdentityHistoryIndex index = historyIndexService.get(customerId);
+        if (index == null) {
+            Optional<IdentityHistoryIndex> loaded = loadIdentityHistoryIndex(customerId, luteceUser);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            index = loaded.get();
+        }
+        return Optional.of(index.getPage(filter, cursor, limit, zone));
+    }
+
+    /**
+     * Fetches and indexes the history of an identity. The index is cached, unless the identity was changed by the picker
+     * since the fetch started.
+     * @param customerId The customer ID of the identity
+     * @param luteceUser The current Lutece user
+     * @return The index, or empty if the history is not found
+     * @throws IdentityStoreException If the history cannot be fetched, or the identity store answers another status than found or not found
+     */
+    private Optional<IdentityHistoryIndex> loadIdentityHistoryIndex(String customerId, User luteceUser) throws IdentityStoreException {
+        IdentityHistoryGetResponse response = historyCalls.execute(customerId, requestDeadline(), () -> {
+            // Read before the call: a change of the identity meanwhile prevents indexing the former history
+            long generation = historyIndexService.getGeneration(customerId);
+            IdentityHistoryGetResponse loaded = identityStoreCallService.execute(IdentityStoreCall.GET_HISTORY,
+                () -> identityService.getIdentityHistory(customerId, clientCode, createRequestAuthor(luteceUser)));
+            if (isSuccess(loaded) && loaded.getHistory() != null) {
+                historyIndexService.put(customerId, IdentityHistoryIndex.build(_mapper.valueToTree(loaded.getHistory())), generation);
+            }
+            return loaded;
+        });
+        if (!isSuccess(response)) {
+            ResponseStatusType status = getStatusType(response);
+            if (status == ResponseStatusType.NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw new IdentityStoreException(ERROR_FETCHING_HISTORY + status);
+        }
+        if (response.getHistory() == null) {
+            return Optional.empty();
+        }
+        IdentityHistoryIndex index = historyIndexService.get(customerId);
+        // The call was shared with a caller which does not index, or the identity changed meanwhile: the index only serves this request
+        return Optional.of(index != null ? index : IdentityHistoryIndex.build(_mapper.valueToTree(response.getHistory())));
+    }
+
+    /**
+     * Gets the time zone of the ISO dates of a history filter: the zone of the client, or the configured zone.
+     * @param filter The filters of the changes
+     * @return The time zone
+     * @throws IllegalArgumentException If the time zone is unknown
+     */
+    private ZoneId getHistoryZone(IdentityHistoryFilter filter) {
+        String zone = StringUtils.isBlank(filter.getZone()) ? historyZone : filter.getZone();
+        try {
+            return ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + zone, e);
+        }
+    }
 
     /**
      * Gets the status of a specific identity task.
@@ -366,14 +913,27 @@ public class IdentityPickerService {
 
     public Optional<List<IdentityTaskDto>> getIdentityTasks(final String customerId, final User luteceUser) {
         try {
-            final IdentityTaskListGetResponse response = identityService.getIdentityTaskList(customerId, IdentityResourceType.CUID.name(), clientCode, createRequestAuthor(luteceUser));
-            return isSuccess(response) ? Optional.ofNullable(response.getTasks()) : Optional.empty();
+            return fetchIdentityTasks(customerId, luteceUser);
         } catch (final IdentityStoreException e) {
             AppLogService.error("An error occurred trying to get the task list associated to identity {}", customerId, e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Fetches the tasks of a specific identity.
+     * @param customerId The customer ID of the identity
+     * @param luteceUser The current Lutece user
+     * @return An Optional containing the tasks, or empty if not found
+     * @throws IdentityStoreException If an error occurs while fetching the tasks
+     */
+    private Optional<List<IdentityTaskDto>> fetchIdentityTasks(final String customerId, final User luteceUser) throws IdentityStoreException {
+        final IdentityTaskListGetResponse response = taskCalls.execute(customerId, requestDeadline(),
+            () -> identityStoreCallService.execute(IdentityStoreCall.GET_TASKS,
+                () -> identityService.getIdentityTaskList(customerId, IdentityResourceType.CUID.name(), clientCode, createRequestAuthor(luteceUser))));
+        return isSuccess(response) ? Optional.ofNullable(response.getTasks()) : Optional.empty();
+    }
+
     /**
      * Create an account creation task for a specific identity.
      * @param customerId The customer ID of the identity
@@ -413,30 +973,23 @@ public class IdentityPickerService {
             task.setResourceId(customerId);
             taskCreateRequest.setTask(task);
 
-            return identityService.createIdentityTask(taskCreateRequest, clientCode, createRequestAuthor(luteceUser));
+            return identityStoreCallService.execute(IdentityStoreCall.CREATE_TASK,
+                () -> identityService.createIdentityTask(taskCreateRequest, clientCode, createRequestAuthor(luteceUser)));
         } catch (IdentityStoreException e) {
             AppLogService.error("Error while creating identity task", e);
             throw e;
+        } finally {
+            identityCacheService.invalidate(customerId);
+            historyIndexService.invalidate(customerId);
         }
     }
 
     /**
-     * Gets the list of available languages.
-     * @param request The HTTP request
-     * @return A map of language codes and localized names
+     * Gets the deadline of a request started now, bounding the wait for an identical identity store call.
+     * @return The deadline, as a {@link System#nanoTime()} value
      */
-    private Map<String, String> getLanguage(HttpServletRequest request) {
-        Map<String, String> result = IdentityPickerI18nUtils.getAllLocalizedStrings(request.getLocale());        
-        Map<String, String> identityStoreTranslations = IdentityPickerI18nUtils.loadIdentityStoreProperties(request.getLocale().getLanguage());
-        if (!identityStoreTranslations.isEmpty()) {
-            Map<String, String> prefixedTranslations = identityStoreTranslations.entrySet().stream()
-                .collect(Collectors.toMap(
-                    entry -> "identitystore." + entry.getKey(),
-                    Map.Entry::getValue
-                ));
-            result.putAll(prefixedTranslations);
-        }
-        return result;
+    private long requestDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestTimeout);
     }
 
     /**
@@ -445,8 +998,17 @@ public class IdentityPickerService {
      * @return A RequestAuthor object
      */
     private RequestAuthor createRequestAuthor(User luteceUser) {
+        return createRequestAuthor(luteceUser.getEmail());
+    }
+
+    /**
+     * Creates an application RequestAuthor.
+     * @param name The author name
+     * @return A RequestAuthor object
+     */
+    private RequestAuthor createRequestAuthor(String name) {
         RequestAuthor author = new RequestAuthor();
-        author.setName(luteceUser.getEmail());
+        author.setName(name);
         author.setType(AuthorType.application);
         return author;
     }
@@ -457,10 +1019,20 @@ public class IdentityPickerService {
      * @return true if the response is successful, false otherwise
      */
     private boolean isSuccess(final ResponseDto apiResponse) {
+        ResponseStatusType type = getStatusType(apiResponse);
+        return type == ResponseStatusType.SUCCESS || type == ResponseStatusType.INCOMPLETE_SUCCESS || type == ResponseStatusType.OK;
+    }
+
+    /**
+     * Gets the status type of an API response.
+     *
+     * @param apiResponse The API response
+     * @return The status type, or null if the response has no status
+     */
+    private ResponseStatusType getStatusType(final ResponseDto apiResponse) {
         return Optional.ofNullable(apiResponse)
             .map(ResponseDto::getStatus)
             .map(ResponseStatus::getType)
-            .map(type -> type == ResponseStatusType.SUCCESS || type == ResponseStatusType.INCOMPLETE_SUCCESS || type == ResponseStatusType.OK)
-            .orElse(false);
+            .orElse(null);
     }
 }
\ No newline at end of file
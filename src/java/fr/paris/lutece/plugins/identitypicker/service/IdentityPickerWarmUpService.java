@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.business.ClientRules;
+import fr.paris.lutece.plugins.identitypicker.service.cache.LanguageBundleCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.geocode.GeocodeIndexService;
+import fr.paris.lutece.plugins.identitypicker.service.token.AccessTokenProvider;
+import fr.paris.lutece.plugins.identitypicker.service.validation.IdentityChangeValidatorService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Warms the plugin up at startup, so that the first agents do not wait for the cold start.
+ *
+ * The access token is requested, the referential and service contract are loaded (which opens the first connections to the identity store), the
+ * language bundles of the configured locales are built, and the geocodes are loaded when they are enabled. The warm-up runs in background and
+ * startup does not wait for it. Each step which fails is reported and left to the first request.
+ */
+@ApplicationScoped
+@Named( "identitypicker.warmUpService" )
+public class IdentityPickerWarmUpService
+{
+    private static final String STEP_TOKEN = "token";
+    private static final String STEP_RULES = "rules";
+    private static final String STEP_LANGUAGE = "language";
+    private static final String STEP_GEOCODES = "geocodes";
+
+    /**
+     * State of the warm-up
+     */
+    public enum State
+    {
+        DISABLED,
+        RUNNING,
+        READY,
+        FAILED
+    }
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.warmup.enabled", defaultValue = "false" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.warmup.locales", defaultValue = "fr" )
+    private String _strLocales;
+
+    @Inject
+    @Named( "identitypicker.identityPickerService" )
+    private IdentityPickerService _identityPickerService;
+
+    @Inject
+    @Named( "identitypicker.accessTokenProvider" )
+    private AccessTokenProvider _accessTokenProvider;
+
+    @Inject
+    @Named( "identitypicker.languageBundleCacheService" )
+    private LanguageBundleCacheService _languageBundleCacheService;
+
+    @Inject
+    @Named( "identitypicker.identityChangeValidatorService" )
+    private IdentityChangeValidatorService _identityChangeValidatorService;
+
+    @Inject
+    @Named( "identitypicker.geocodeIndexService" )
+    private GeocodeIndexService _geocodeIndexService;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    private volatile State _state = State.DISABLED;
+    private volatile long _lDuration;
+    private final List<String> _listFailedSteps = Collections.synchronizedList( new ArrayList<>( ) );
+
+    /**
+     * Starts the warm-up in background once the application is initialized
+     *
+     * @param event
+     *            the initialization event
+     */
+    void onStartup( @Observes @Initialized( ApplicationScoped.class ) Object event )
+    {
+        if ( !_bEnabled )
+        {
+            return;
+        }
+        _state = State.RUNNING;
+        try
+        {
+            // The rules are loaded in parallel on the worker pool: the warm-up itself runs on the request pool, which may wait on it
+            _executorService.getRequestExecutor( ).execute( this::warmUp );
+        }
+        catch( RejectedExecutionException e )
+        {
+            AppLogService.error( "Unable to start the identity picker warm-up", e );
+            _state = State.FAILED;
+        }
+    }
+
+    /**
+     * Runs the warm-up steps
+     */
+    private void warmUp( )
+    {
+        long lStart = System.nanoTime( );
+        if ( _accessTokenProvider.isEnabled( ) )
+        {
+            runStep( STEP_TOKEN, _accessTokenProvider::getToken );
+        }
+        runStep( STEP_RULES, ( ) -> {
+            ClientRules rules = _identityPickerService.preloadRules( );
+            _identityChangeValidatorService.getValidator( rules );
+        } );
+        runStep( STEP_LANGUAGE, ( ) -> {
+            for ( String strLocale : StringUtils.split( _strLocales, ',' ) )
+            {
+                _languageBundleCacheService.getLanguageBundle( Locale.forLanguageTag( strLocale.trim( ) ) );
+            }
+        } );
+        if ( _geocodeIndexService.isEnabled( ) )
+        {
+            runStep( STEP_GEOCODES, _geocodeIndexService::preload );
+        }
+
+        _lDuration = TimeUnit.NANOSECONDS.toMillis( System.nanoTime( ) - lStart );
+        if ( _listFailedSteps.isEmpty( ) )
+        {
+            _state = State.READY;
+            AppLogService.info( "Identity picker ready, warmed up in {} ms", _lDuration );
+        }
+        else
+        {
+            _state = State.FAILED;
+            AppLogService.error( "Identity picker warmed up in {} ms, failed steps: {}", _lDuration, _listFailedSteps );
+        }
+    }
+
+    /**
+     * Runs a warm-up step, recording its failure
+     *
+     * @param strStep
+     *            the step name
+     * @param step
+     *            the step
+     */
+    private void runStep( String strStep, Step step )
+    {
+        try
+        {
+            step.run( );
+        }
+        catch( Exception e )
+        {
+            AppLogService.error( "Identity picker warm-up step {} failed", strStep, e );
+            _listFailedSteps.add( strStep );
+        }
+    }
+
+    /**
+     * Gets the state of the warm-up
+     *
+     * @return the state
+     */
+    public State getState( )
+    {
+        return _state;
+    }
+
+    /**
+     * Gets the duration of the warm-up
+     *
+     * @return the duration in milliseconds, 0 if the warm-up is not finished
+     */
+    public long getDuration( )
+    {
+        return _lDuration;
+    }
+
+    /**
+     * Gets the steps of the warm-up which failed
+     *
+     * @return the names of the failed steps
+     */
+    public List<String> getFailedSteps( )
+    {
+        synchronized( _listFailedSteps )
+        {
+            return new ArrayList<>( _listFailedSteps );
+        }
+    }
+
+    /**
+     * Warm-up step
+     */
+    @FunctionalInterface
+    private interface Step
+    {
+        /**
+         * Runs the step
+         *
+         * @throws Exception
+         *             if the step fails
+         */
+        void run( ) throws Exception;
+    }
+}
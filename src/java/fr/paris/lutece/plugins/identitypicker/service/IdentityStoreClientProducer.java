@@ -41,48 +41,56 @@ import fr.paris.lutece.plugins.identitystore.v3.web.rs.service.ServiceContractTr
 import fr.paris.lutece.plugins.identitystore.v3.web.service.IdentityServiceExtended;
 import fr.paris.lutece.plugins.identitystore.v3.web.service.ReferentialService;
 import fr.paris.lutece.plugins.identitystore.v3.web.service.ServiceContractServiceExtended;
+import fr.paris.lutece.plugins.identitypicker.service.token.AccessTokenProvider;
+import fr.paris.lutece.plugins.identitypicker.service.token.SharedTokenAccessTransport;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Named;
+import jakarta.inject.Singleton;
 
-import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.util.Optional;
 
 /**
  * CDI producer for the Identity Store client services. Replaces the former Spring context
  * ({@code identitypicker_context.xml}) that wired the {@link HttpApiManagerAccessTransport},
  * the REST transports and the identity store services from the plugin properties.
+ *
+ * The three services share a single transport, so that they share the pooled keep-alive connections of the
+ * Lutece {@code HttpAccess} client (sized by the core {@code httpAccess.*} properties) and, with an access
+ * manager, the token of the {@link AccessTokenProvider}.
  */
 @ApplicationScoped
 public class IdentityStoreClientProducer
 {
     /**
-     * Builds the HTTP transport pointing to the configured Identity Store API endpoint.
+     * Builds the HTTP transport pointing to the configured Identity Store API endpoint, shared by the identity,
+     * referential and service contract services.
      *
-     * When an access manager (APIM) endpoint is configured, an {@link HttpApiManagerAccessTransport}
-     * is used (OAuth2 token added on each call). Otherwise a plain {@link HttpAccessTransport} is used
-     * for direct access (no token) — the relevant mode for an Identity Store reached without an APIM gateway.
+     * When an access manager (APIM) endpoint is configured, a {@link SharedTokenAccessTransport} is used:
+     * it adds the OAuth2 token of the shared {@link AccessTokenProvider} to each call, in place of the
+     * {@link HttpApiManagerAccessTransport} which requested its own token. Otherwise a plain
+     * {@link HttpAccessTransport} is used for direct access (no token) — the relevant mode for an Identity
+     * Store reached without an APIM gateway.
      *
      * @param strApiEndPointUrl
      *            the Identity Store API endpoint URL
-     * @param strAccessManagerEndPointUrl
-     *            the access manager (token) endpoint URL, blank when no APIM is used
-     * @param strAccessManagerCredentials
-     *            the access manager credentials
+     * @param tokenProvider
+     *            the access manager token provider, enabled when an access manager endpoint is configured
      * @return the configured HTTP transport
      */
-    private HttpAccessTransport createTransport( String strApiEndPointUrl, String strAccessManagerEndPointUrl,
-            String strAccessManagerCredentials )
+    @Produces
+    @Singleton
+    @Named( "identitypicker.identityStoreTransport" )
+    public HttpAccessTransport createTransport(
+            @ConfigProperty( name = "identitypicker.identitystore.apiEndPointUrl" ) String strApiEndPointUrl,
+            @Named( "identitypicker.accessTokenProvider" ) AccessTokenProvider tokenProvider )
     {
-        if ( StringUtils.isNotBlank( strAccessManagerEndPointUrl ) )
+        if ( tokenProvider.isEnabled( ) )
         {
-            HttpApiManagerAccessTransport apimTransport = new HttpApiManagerAccessTransport( );
+            SharedTokenAccessTransport apimTransport = new SharedTokenAccessTransport( tokenProvider );
             apimTransport.setApiEndPointUrl( strApiEndPointUrl );
-            apimTransport.setAccessManagerEndPointUrl( strAccessManagerEndPointUrl );
-            apimTransport.setAccessManagerCredentials( strAccessManagerCredentials );
             return apimTransport;
         }
         HttpAccessTransport transport = new HttpAccessTransport( );
@@ -93,72 +101,45 @@ public class IdentityStoreClientProducer
     /**
      * Produces the extended identity service over a REST transport.
      *
-     * @param strApiEndPointUrl
-     *            the Identity Store API endpoint URL
-     * @param strAccessManagerEndPointUrl
-     *            the access manager (token) endpoint URL
-     * @param strAccessManagerCredentials
-     *            the access manager credentials
+     * @param transport
+     *            the shared HTTP transport
      * @return the configured IdentityServiceExtended
      */
     @Produces
     @ApplicationScoped
     @Named( "identityService.rest.httpAccess" )
-    public IdentityServiceExtended createIdentityService(
-            @ConfigProperty( name = "identitypicker.identitystore.apiEndPointUrl" ) String strApiEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerEndPointUrl" ) Optional<String> strAccessManagerEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerCredentials" ) Optional<String> strAccessManagerCredentials )
+    public IdentityServiceExtended createIdentityService( @Named( "identitypicker.identityStoreTransport" ) HttpAccessTransport transport )
     {
-        HttpAccessTransport transport = createTransport( strApiEndPointUrl, strAccessManagerEndPointUrl.orElse( "" ),
-                strAccessManagerCredentials.orElse( "" ) );
         return new IdentityServiceExtended( new IdentityTransportRest( transport ) );
     }
 
     /**
      * Produces the referential service over a REST transport.
      *
-     * @param strApiEndPointUrl
-     *            the Identity Store API endpoint URL
-     * @param strAccessManagerEndPointUrl
-     *            the access manager (token) endpoint URL
-     * @param strAccessManagerCredentials
-     *            the access manager credentials
+     * @param transport
+     *            the shared HTTP transport
      * @return the configured ReferentialService
      */
     @Produces
     @ApplicationScoped
     @Named( "identity.ReferentialService" )
-    public ReferentialService createReferentialService(
-            @ConfigProperty( name = "identitypicker.identitystore.apiEndPointUrl" ) String strApiEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerEndPointUrl" ) Optional<String> strAccessManagerEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerCredentials" ) Optional<String> strAccessManagerCredentials )
+    public ReferentialService createReferentialService( @Named( "identitypicker.identityStoreTransport" ) HttpAccessTransport transport )
     {
-        HttpAccessTransport transport = createTransport( strApiEndPointUrl, strAccessManagerEndPointUrl.orElse( "" ),
-                strAccessManagerCredentials.orElse( "" ) );
         return new ReferentialService( new ReferentialTransportRest( transport ) );
     }
 
     /**
      * Produces the extended service contract service over a REST transport.
      *
-     * @param strApiEndPointUrl
-     *            the Identity Store API endpoint URL
-     * @param strAccessManagerEndPointUrl
-     *            the access manager (token) endpoint URL
-     * @param strAccessManagerCredentials
-     *            the access manager credentials
+     * @param transport
+     *            the shared HTTP transport
      * @return the configured ServiceContractServiceExtended
      */
     @Produces
     @ApplicationScoped
     @Named( "identity.serviceContractService" )
-    public ServiceContractServiceExtended createServiceContractService(
-            @ConfigProperty( name = "identitypicker.identitystore.apiEndPointUrl" ) String strApiEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerEndPointUrl" ) Optional<String> strAccessManagerEndPointUrl,
-            @ConfigProperty( name = "identitypicker.identitystore.accessManagerCredentials" ) Optional<String> strAccessManagerCredentials )
+    public ServiceContractServiceExtended createServiceContractService( @Named( "identitypicker.identityStoreTransport" ) HttpAccessTransport transport )
     {
-        HttpAccessTransport transport = createTransport( strApiEndPointUrl, strAccessManagerEndPointUrl.orElse( "" ),
-                strAccessManagerCredentials.orElse( "" ) );
         return new ServiceContractServiceExtended( new ServiceContractTransportRest( transport ) );
     }
 }
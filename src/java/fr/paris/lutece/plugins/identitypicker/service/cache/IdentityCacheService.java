@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Read-through cache of the identities fetched by customer id.
+ *
+ * The cache holds the identities as returned for the configured client code, and is only read by the service once the REST layer has checked the
+ * permissions of the agent. Entries are dropped when the picker writes the identity or when the identity store does not return it. Changes made
+ * outside the picker become visible after at most the time to live.
+ *
+ * An invalidation bumps the generation of the customer id, and a load started before it cannot store its result afterwards. The generations are
+ * striped by the hash of the customer id, so an invalidation may also drop the concurrent load of another identity, which is then read again.
+ * The identities are stored serialized: each read gets its own copy, which the caller may modify without affecting the cache.
+ */
+@ApplicationScoped
+@Named( "identitypicker.identityCacheService" )
+public class IdentityCacheService
+{
+    private static final int GENERATION_STRIPES = 1024;
+
+    // The identity store may return fields added by newer versions of the library
+    private static final ObjectMapper _mapper = new ObjectMapper( ).configure( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false );
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.identity.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.identity.ttl", defaultValue = "60" )
+    private long _lTtlSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.identity.maxSize", defaultValue = "1000" )
+    private int _nMaxSize;
+
+    private final AtomicLongArray _generations = new AtomicLongArray( GENERATION_STRIPES );
+    private TimedCache<String, byte [ ]> _cache;
+
+    /**
+     * Creates the cache once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _cache = new TimedCache<>( _nMaxSize, TimeUnit.SECONDS.toMillis( _lTtlSeconds ) );
+    }
+
+    /**
+     * Gets a copy of a cached identity
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the identity, or null if it is not cached
+     */
+    public IdentityDto get( String strCustomerId )
+    {
+        byte [ ] identity = _bEnabled ? _cache.get( strCustomerId ) : null;
+        if ( identity == null )
+        {
+            return null;
+        }
+        try
+        {
+            return _mapper.readValue( identity, IdentityDto.class );
+        }
+        catch( IOException e )
+        {
+            AppLogService.error( "Unable to read the cached identity {}", strCustomerId, e );
+            _cache.remove( strCustomerId );
+            return null;
+        }
+    }
+
+    /**
+     * Gets the generation of a customer id, to be read before loading the identity
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the generation
+     */
+    public long getGeneration( String strCustomerId )
+    {
+        return _generations.get( stripe( strCustomerId ) );
+    }
+
+    /**
+     * Stores a copy of an identity, unless it was invalidated since its load started
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @param identity
+     *            the identity
+     * @param lGeneration
+     *            the generation of the customer id read before the load
+     */
+    public void put( String strCustomerId, IdentityDto identity, long lGeneration )
+    {
+        if ( !_bEnabled )
+        {
+            return;
+        }
+        byte [ ] serialized;
+        try
+        {
+            serialized = _mapper.writeValueAsBytes( identity );
+        }
+        catch( JsonProcessingException e )
+        {
+            AppLogService.error( "Unable to cache the identity {}", strCustomerId, e );
+            return;
+        }
+        int nStripe = stripe( strCustomerId );
+        // The check and the store are atomic with regard to the invalidation, which bumps the generation under the same lock
+        synchronized( _generations )
+        {
+            if ( _generations.get( nStripe ) == lGeneration )
+            {
+                _cache.put( strCustomerId, serialized );
+            }
+        }
+    }
+
+    /**
+     * Removes an identity from the cache, and drops the loads of the identity still running
+     *
+     * @param strCustomerId
+     *            the customer id
+     */
+    public void invalidate( String strCustomerId )
+    {
+        synchronized( _generations )
+        {
+            _generations.incrementAndGet( stripe( strCustomerId ) );
+            _cache.remove( strCustomerId );
+        }
+    }
+
+    /**
+     * Gets the number of reads served from the cache
+     *
+     * @return the hit count
+     */
+    public long getHitCount( )
+    {
+        return _cache.getHitCount( );
+    }
+
+    /**
+     * Gets the number of reads sent to the identity store while the cache is enabled
+     *
+     * @return the miss count
+     */
+    public long getMissCount( )
+    {
+        return _cache.getMissCount( );
+    }
+
+    /**
+     * Gets the generation stripe of a customer id
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the stripe index
+     */
+    private static int stripe( String strCustomerId )
+    {
+        return Math.floorMod( strCustomerId.hashCode( ), GENERATION_STRIPES );
+    }
+}
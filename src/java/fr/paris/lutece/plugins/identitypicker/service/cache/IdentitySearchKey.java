@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.identitypicker.business.IdentitySearchCriteria;
+
+import static fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils.normalizeDate;
+import static fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils.normalizeText;
+
+/**
+ * Search criteria of a client application, as sent to the identity store. The search request is built from the key, so that two searches share
+ * a cache entry only if the identity store receives the same request: the values are trimmed, the spaces of the names are collapsed and the
+ * birth date is written dd/MM/yyyy whatever the format typed, but the case and the accents are kept, since the email and the birth date are
+ * matched strictly.
+ */
+public final class IdentitySearchKey
+{
+    private static final Pattern PATTERN_SPACES = Pattern.compile( "\\s+" );
+    private static final DateTimeFormatter FORMAT_BIRTH_DATE = DateTimeFormatter.ofPattern( "dd/MM/yyyy" );
+
+    private final String _strClientCode;
+    private final String _strEmail;
+    private final String _strLastName;
+    private final String _strFirstName;
+    private final String _strBirthDate;
+
+    /**
+     * Constructor
+     *
+     * @param strClientCode
+     *            the client code
+     * @param criteria
+     *            the search criteria
+     */
+    public IdentitySearchKey( String strClientCode, IdentitySearchCriteria criteria )
+    {
+        _strClientCode = strClientCode;
+        if ( criteria.hasCommonEmail( ) )
+        {
+            // The names are ignored by an email search
+            _strEmail = StringUtils.trim( criteria.getCommonEmail( ) );
+            _strLastName = null;
+            _strFirstName = null;
+            _strBirthDate = null;
+        }
+        else
+        {
+            _strEmail = null;
+            _strLastName = collapseSpaces( criteria.getCommonLastName( ) );
+            _strFirstName = collapseSpaces( criteria.getFirstName( ) );
+            _strBirthDate = formatBirthDate( criteria.getBirthDate( ) );
+        }
+    }
+
+    /**
+     * Trims a name and collapses its spaces
+     *
+     * @param strName
+     *            the name
+     * @return the name, or null if it is null
+     */
+    private static String collapseSpaces( String strName )
+    {
+        return strName == null ? null : PATTERN_SPACES.matcher( strName.trim( ) ).replaceAll( " " );
+    }
+
+    /**
+     * Writes a birth date typed either as yyyy-MM-dd or dd/MM/yyyy in the format of the identity store
+     *
+     * @param strBirthDate
+     *            the birth date
+     * @return the dd/MM/yyyy date, or the trimmed input if it is not a recognized date
+     */
+    private static String formatBirthDate( String strBirthDate )
+    {
+        String strIsoDate = normalizeDate( strBirthDate );
+        try
+        {
+            return LocalDate.parse( strIsoDate ).format( FORMAT_BIRTH_DATE );
+        }
+        catch( DateTimeParseException e )
+        {
+            return strIsoDate;
+        }
+    }
+
+    /**
+     * Tells whether the search is an email search
+     *
+     * @return true if the search is made on the email only
+     */
+    public boolean hasEmail( )
+    {
+        return _strEmail != null;
+    }
+
+    /**
+     * Gets the email searched
+     *
+     * @return the email, null for a name search
+     */
+    public String getEmail( )
+    {
+        return _strEmail;
+    }
+
+    /**
+     * Gets the last name searched
+     *
+     * @return the last name, null for an email search
+     */
+    public String getLastName( )
+    {
+        return _strLastName;
+    }
+
+    /**
+     * Gets the first name searched
+     *
+     * @return the first name, null for an email search
+     */
+    public String getFirstName( )
+    {
+        return _strFirstName;
+    }
+
+    /**
+     * Gets the birth date searched
+     *
+     * @return the dd/MM/yyyy birth date, null for an email search
+     */
+    public String getBirthDate( )
+    {
+        return _strBirthDate;
+    }
+
+    /**
+     * Checks whether an identity with the given normalized values could be found by this search. The names of a search are matched approximately
+     * by the identity store, so a name search may find any identity born on its birth date.
+     *
+     * @param emails
+     *            the normalized emails and logins
+     * @param birthDates
+     *            the ISO birth dates
+     * @return true if the identity may be found by the search
+     */
+    boolean matches( Set<String> emails, Set<String> birthDates )
+    {
+        if ( _strEmail != null )
+        {
+            return emails.contains( normalizeText( _strEmail ) );
+        }
+        return birthDates.contains( normalizeDate( _strBirthDate ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object other )
+    {
+        if ( this == other )
+        {
+            return true;
+        }
+        if ( !( other instanceof IdentitySearchKey ) )
+        {
+            return false;
+        }
+        IdentitySearchKey key = (IdentitySearchKey) other;
+        return Objects.equals( _strClientCode, key._strClientCode ) && Objects.equals( _strEmail, key._strEmail )
+                && Objects.equals( _strLastName, key._strLastName ) && Objects.equals( _strFirstName, key._strFirstName )
+                && Objects.equals( _strBirthDate, key._strBirthDate );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode( )
+    {
+        return Objects.hash( _strClientCode, _strEmail, _strLastName, _strFirstName, _strBirthDate );
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Named;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.identitypicker.business.LanguageBundle;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerETagUtils;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerI18nUtils;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Cache of the language bundles sent to the picker, one per locale.
+ *
+ * The bundle merges the picker strings and the identity store translations. It is registered as a Lutece cache, so it is emptied along with the
+ * other caches when the localized resources are reloaded from the administration.
+ */
+@ApplicationScoped
+@Named( "identitypicker.languageBundleCacheService" )
+public class LanguageBundleCacheService extends AbstractCacheableService<String, LanguageBundle>
+{
+    private static final String CACHE_NAME = "IdentityPickerLanguageBundleCache";
+    private static final String IDENTITY_STORE_KEY_PREFIX = "identitystore.";
+
+    private static final ObjectMapper _mapper = new ObjectMapper( );
+
+    /**
+     * Registers the cache
+     */
+    @PostConstruct
+    void init( )
+    {
+        initCache( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return CACHE_NAME;
+    }
+
+    /**
+     * Gets the language bundle of a locale, building it on the first call.
+     *
+     * @param locale
+     *            the locale
+     * @return the language bundle
+     */
+    public LanguageBundle getLanguageBundle( Locale locale )
+    {
+        String strKey = locale.toString( );
+        LanguageBundle bundle = get( strKey );
+        if ( bundle == null )
+        {
+            bundle = buildLanguageBundle( locale );
+            put( strKey, bundle );
+        }
+        return bundle;
+    }
+
+    /**
+     * Builds the language bundle of a locale
+     *
+     * @param locale
+     *            the locale
+     * @return the language bundle
+     */
+    private LanguageBundle buildLanguageBundle( Locale locale )
+    {
+        Map<String, String> strings = new TreeMap<>( IdentityPickerI18nUtils.getAllLocalizedStrings( locale ) );
+        for ( Map.Entry<String, String> entry : IdentityPickerI18nUtils.loadIdentityStoreProperties( locale.getLanguage( ) ).entrySet( ) )
+        {
+            strings.put( IDENTITY_STORE_KEY_PREFIX + entry.getKey( ), entry.getValue( ) );
+        }
+
+        String strJson;
+        try
+        {
+            strJson = _mapper.writeValueAsString( strings );
+        }
+        catch( JsonProcessingException e )
+        {
+            // Cannot happen with a map of strings
+            AppLogService.error( "Unable to serialize the language bundle of locale {}", locale, e );
+            strJson = "{}";
+        }
+        return new LanguageBundle( Collections.unmodifiableMap( strings ), strJson, IdentityPickerETagUtils.hash( strJson ) );
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.business.ClientRules;
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Cache of the referential and service contract of each client code.
+ *
+ * An entry is refreshed in background once it is older than (ttl - refreshAhead), while the current value keeps being served. An expired entry is
+ * reloaded synchronously, unless a background refresh is already running. When a load fails, the last good value is served, and the next
+ * attempt waits a delay doubling with each consecutive failure, from retryDelay up to refreshAhead. The background refresh reuses the loader of
+ * the request which triggered it, so the loader must not depend on the caller. The cache is registered as a Lutece cache: it is emptied along
+ * with the other caches from the administration.
+ */
+@ApplicationScoped
+@Named( "identitypicker.rulesCacheService" )
+public class RulesCacheService extends AbstractCacheableService<String, ClientRules>
+{
+    private static final String CACHE_NAME = "IdentityPickerRulesCache";
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.rules.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.rules.ttl", defaultValue = "3600" )
+    private long _lTtlSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.rules.refreshAhead", defaultValue = "300" )
+    private long _lRefreshAheadSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.rules.retryDelay", defaultValue = "30" )
+    private long _lRetryDelaySeconds;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    private final Map<String, CacheEntry> _mapEntries = new ConcurrentHashMap<>( );
+    private final Map<String, Object> _mapLocks = new ConcurrentHashMap<>( );
+
+    /**
+     * Registers the cache
+     */
+    @PostConstruct
+    void init( )
+    {
+        if ( _lRefreshAheadSeconds >= _lTtlSeconds )
+        {
+            // Otherwise every request would start a refresh as soon as an entry is loaded
+            AppLogService.error( "identitypicker.cache.rules.refreshAhead ({}) must be lower than identitypicker.cache.rules.ttl ({}), using {}",
+                    _lRefreshAheadSeconds, _lTtlSeconds, _lTtlSeconds / 2 );
+            _lRefreshAheadSeconds = _lTtlSeconds / 2;
+        }
+        initCache( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return CACHE_NAME;
+    }
+
+    /**
+     * Empties the cache along with the other Lutece caches
+     */
+    @Override
+    public void resetCache( )
+    {
+        super.resetCache( );
+        invalidateAll( );
+    }
+
+    /**
+     * Loads the rules of a client code from the identity store
+     */
+    @FunctionalInterface
+    public interface ClientRulesLoader
+    {
+        /**
+         * Loads the rules
+         *
+         * @return the rules
+         * @throws IdentityStoreException
+         *             if the identity store call fails
+         */
+        ClientRules load( ) throws IdentityStoreException;
+    }
+
+    /**
+     * Gets the rules of a client code, from the cache when possible.
+     *
+     * @param strClientCode
+     *            the client code
+     * @param loader
+     *            the loader used on a cache miss and for the background refresh, independent of the caller
+     * @return the rules
+     * @throws IdentityStoreException
+     *             if the rules are not cached and cannot be loaded
+     */
+    public ClientRules getClientRules( String strClientCode, ClientRulesLoader loader ) throws IdentityStoreException
+    {
+        if ( !_bEnabled )
+        {
+            return loader.load( );
+        }
+
+        CacheEntry entry = _mapEntries.get( strClientCode );
+        if ( entry == null )
+        {
+            return load( strClientCode, loader );
+        }
+
+        long lAge = System.currentTimeMillis( ) - entry._lLoadedAt;
+        if ( lAge >= TimeUnit.SECONDS.toMillis( _lTtlSeconds ) )
+        {
+            // Serve the last good value while the background refresh is running, or until the next attempt after a failure
+            return entry._bRefreshing.get( ) || entry.isBackingOff( ) ? entry._rules : load( strClientCode, loader );
+        }
+        if ( lAge >= TimeUnit.SECONDS.toMillis( _lTtlSeconds - _lRefreshAheadSeconds ) && !entry.isBackingOff( ) )
+        {
+            scheduleRefresh( strClientCode, loader, entry );
+        }
+        return entry._rules;
+    }
+
+    /**
+     * Loads the rules of a client code synchronously and stores them. Concurrent callers for the same client code wait for a single load.
+     *
+     * @param strClientCode
+     *            the client code
+     * @param loader
+     *            the loader
+     * @return the rules
+     * @throws IdentityStoreException
+     *             if the rules cannot be loaded and no previous value is available
+     */
+    public ClientRules load( String strClientCode, ClientRulesLoader loader ) throws IdentityStoreException
+    {
+        CacheEntry previous = _mapEntries.get( strClientCode );
+        synchronized( _mapLocks.computeIfAbsent( strClientCode, k -> new Object( ) ) )
+        {
+            CacheEntry current = _mapEntries.get( strClientCode );
+            if ( current != null && current != previous )
+            {
+                // Loaded by another thread while waiting for the lock
+                return current._rules;
+            }
+            try
+            {
+                ClientRules rules = loader.load( );
+                _mapEntries.put( strClientCode, new CacheEntry( rules ) );
+                return rules;
+            }
+            catch( IdentityStoreException e )
+            {
+                if ( current == null )
+                {
+                    throw e;
+                }
+                AppLogService.error( "Unable to reload the rules of client {}, serving the previous value", strClientCode, e );
+                backOff( current );
+                return current._rules;
+            }
+        }
+    }
+
+    /**
+     * Removes the rules of a client code from the cache
+     *
+     * @param strClientCode
+     *            the client code
+     */
+    public void invalidate( String strClientCode )
+    {
+        _mapEntries.remove( strClientCode );
+    }
+
+    /**
+     * Removes all the entries of the cache
+     */
+    public void invalidateAll( )
+    {
+        _mapEntries.clear( );
+    }
+
+    /**
+     * Starts a background refresh of an entry, unless one is already running
+     *
+     * @param strClientCode
+     *            the client code
+     * @param loader
+     *            the loader
+     * @param entry
+     *            the entry to refresh
+     */
+    private void scheduleRefresh( String strClientCode, ClientRulesLoader loader, CacheEntry entry )
+    {
+        if ( !entry._bRefreshing.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            _executorService.getRefreshExecutor( ).execute( ( ) -> {
+                try
+                {
+                    _mapEntries.put( strClientCode, new CacheEntry( loader.load( ) ) );
+                }
+                catch( IdentityStoreException | RuntimeException e )
+                {
+                    AppLogService.error( "Background refresh of the rules of client {} failed", strClientCode, e );
+                    backOff( entry );
+                    entry._bRefreshing.set( false );
+                }
+            } );
+        }
+        catch( RejectedExecutionException e )
+        {
+            entry._bRefreshing.set( false );
+        }
+    }
+
+    /**
+     * Delays the next reload of an entry after a failure. The delay doubles with each consecutive failure, from retryDelay up to refreshAhead, so
+     * that an unreachable identity store is not called by every request.
+     *
+     * @param entry
+     *            the entry which could not be reloaded
+     */
+    private void backOff( CacheEntry entry )
+    {
+        int nFailures = entry._nFailures.incrementAndGet( );
+        long lDelay = Math.min( _lRetryDelaySeconds << Math.min( nFailures - 1, 20 ), Math.max( _lRetryDelaySeconds, _lRefreshAheadSeconds ) );
+        entry._lRetryAt = System.currentTimeMillis( ) + TimeUnit.SECONDS.toMillis( lDelay );
+    }
+
+    /**
+     * Cached rules with their loading time, and the time of the next reload attempt after a failure
+     */
+    private static final class CacheEntry
+    {
+        private final ClientRules _rules;
+        private final long _lLoadedAt = System.currentTimeMillis( );
+        private final AtomicBoolean _bRefreshing = new AtomicBoolean( );
+        private final AtomicInteger _nFailures = new AtomicInteger( );
+        private volatile long _lRetryAt;
+
+        private CacheEntry( ClientRules rules )
+        {
+            _rules = rules;
+        }
+
+        private boolean isBackingOff( )
+        {
+            return System.currentTimeMillis( ) < _lRetryAt;
+        }
+    }
+}
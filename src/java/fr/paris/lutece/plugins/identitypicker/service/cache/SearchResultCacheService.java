@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.util.Constants;
+
+import static fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils.normalizeDate;
+import static fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils.normalizeText;
+
+/**
+ * Short-lived cache of the identity search results, keyed by the normalized search criteria.
+ *
+ * Entries are invalidated when an identity they contain is updated, or when a created or updated identity has the searched email (or login), or
+ * the birth date of a name search: the names are matched approximately by the identity store, so any name search on that birth date may find the
+ * identity. Changes made outside the picker are only bounded by the time to live.
+ */
+@ApplicationScoped
+@Named( "identitypicker.searchResultCacheService" )
+public class SearchResultCacheService
+{
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.search.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.search.ttl", defaultValue = "120" )
+    private long _lTtlSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.search.maxSize", defaultValue = "500" )
+    private int _nMaxSize;
+
+    private TimedCache<IdentitySearchKey, List<IdentityDto>> _cache;
+
+    /**
+     * Creates the cache once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _cache = new TimedCache<>( _nMaxSize, TimeUnit.SECONDS.toMillis( _lTtlSeconds ) );
+    }
+
+    /**
+     * Gets the cached result of a search
+     *
+     * @param key
+     *            the normalized search criteria
+     * @return the identities found, or null if the search is not cached
+     */
+    public List<IdentityDto> get( IdentitySearchKey key )
+    {
+        return _bEnabled ? _cache.get( key ) : null;
+    }
+
+    /**
+     * Stores the result of a search
+     *
+     * @param key
+     *            the normalized search criteria
+     * @param identities
+     *            the identities found
+     */
+    public void put( IdentitySearchKey key, List<IdentityDto> identities )
+    {
+        if ( _bEnabled )
+        {
+            _cache.put( key, Collections.unmodifiableList( identities ) );
+        }
+    }
+
+    /**
+     * Invalidates the searches which may be affected by the creation or the update of an identity
+     *
+     * @param strCustomerId
+     *            the customer id of the identity, null on creation
+     * @param attributes
+     *            the attributes of the identity, former and new values
+     */
+    public void invalidate( String strCustomerId, Collection<AttributeDto> attributes )
+    {
+        Set<String> emails = new HashSet<>( );
+        Set<String> birthDates = new HashSet<>( );
+        for ( AttributeDto attribute : attributes )
+        {
+            if ( attribute.getKey( ) == null )
+            {
+                continue;
+            }
+            switch( attribute.getKey( ) )
+            {
+                case Constants.PARAM_EMAIL:
+                case Constants.PARAM_LOGIN:
+                    emails.add( normalizeText( attribute.getValue( ) ) );
+                    break;
+                case Constants.PARAM_BIRTH_DATE:
+                    birthDates.add( normalizeDate( attribute.getValue( ) ) );
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        _cache.removeIf( ( key, identities ) -> key.matches( emails, birthDates )
+                || ( strCustomerId != null && identities.stream( ).anyMatch( identity -> strCustomerId.equals( identity.getCustomerId( ) ) ) ) );
+    }
+
+    /**
+     * Gets the number of searches served from the cache
+     *
+     * @return the hit count
+     */
+    public long getHitCount( )
+    {
+        return _cache.getHitCount( );
+    }
+
+    /**
+     * Gets the number of searches sent to the identity store while the cache is enabled
+     *
+     * @return the miss count
+     */
+    public long getMissCount( )
+    {
+        return _cache.getMissCount( );
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Size-bounded in-memory cache whose entries expire after a fixed time to live. The least recently used entry is evicted when the cache is full.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public class TimedCache<K, V>
+{
+    private final int _nMaxSize;
+    private final long _lTtlMillis;
+    private final Map<K, Entry<V>> _mapEntries;
+    private final LongAdder _hitCount = new LongAdder( );
+    private final LongAdder _missCount = new LongAdder( );
+
+    /**
+     * Constructor
+     *
+     * @param nMaxSize
+     *            the maximum number of entries
+     * @param lTtlMillis
+     *            the time to live of an entry, in milliseconds
+     */
+    public TimedCache( int nMaxSize, long lTtlMillis )
+    {
+        _nMaxSize = nMaxSize;
+        _lTtlMillis = lTtlMillis;
+        _mapEntries = new LinkedHashMap<K, Entry<V>>( 16, 0.75f, true )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<K, Entry<V>> eldest )
+            {
+                return size( ) > _nMaxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a value
+     *
+     * @param key
+     *            the key
+     * @return the value, or null if it is not cached or expired
+     */
+    public V get( K key )
+    {
+        synchronized( _mapEntries )
+        {
+            Entry<V> entry = _mapEntries.get( key );
+            if ( entry != null && entry._lExpiration > System.currentTimeMillis( ) )
+            {
+                _hitCount.increment( );
+                return entry._value;
+            }
+            if ( entry != null )
+            {
+                _mapEntries.remove( key );
+            }
+        }
+        _missCount.increment( );
+        return null;
+    }
+
+    /**
+     * Stores a value
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    public void put( K key, V value )
+    {
+        synchronized( _mapEntries )
+        {
+            _mapEntries.put( key, new Entry<>( value, System.currentTimeMillis( ) + _lTtlMillis ) );
+        }
+    }
+
+    /**
+     * Removes a value
+     *
+     * @param key
+     *            the key
+     */
+    public void remove( K key )
+    {
+        synchronized( _mapEntries )
+        {
+            _mapEntries.remove( key );
+        }
+    }
+
+    /**
+     * Removes the entries matching a condition
+     *
+     * @param condition
+     *            the condition on the key and the value
+     */
+    public void removeIf( BiPredicate<K, V> condition )
+    {
+        synchronized( _mapEntries )
+        {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = _mapEntries.entrySet( ).iterator( );
+            while ( iterator.hasNext( ) )
+            {
+                Map.Entry<K, Entry<V>> entry = iterator.next( );
+                if ( condition.test( entry.getKey( ), entry.getValue( )._value ) )
+                {
+                    iterator.remove( );
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries
+     */
+    public void clear( )
+    {
+        synchronized( _mapEntries )
+        {
+            _mapEntries.clear( );
+        }
+    }
+
+    /**
+     * Gets the number of entries, including the expired ones not evicted yet
+     *
+     * @return the number of entries
+     */
+    public int size( )
+    {
+        synchronized( _mapEntries )
+        {
+            return _mapEntries.size( );
+        }
+    }
+
+    /**
+     * Gets the number of reads served from the cache
+     *
+     * @return the hit count
+     */
+    public long getHitCount( )
+    {
+        return _hitCount.sum( );
+    }
+
+    /**
+     * Gets the number of reads not served from the cache
+     *
+     * @return the miss count
+     */
+    public long getMissCount( )
+    {
+        return _missCount.sum( );
+    }
+
+    /**
+     * Cached value with its expiration time
+     *
+     * @param <V>
+     *            the value type
+     */
+    private static final class Entry<V>
+    {
+        private final V _value;
+        private final long _lExpiration;
+
+        private Entry( V value, long lExpiration )
+        {
+            _value = value;
+            _lExpiration = lExpiration;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+
+/**
+ * Coalesces concurrent identical calls: while a call is running for a key, the other callers for the same key wait for its outcome instead of
+ * sending their own call. The result or the exception of the call is shared as is. A caller waits at most until its own deadline. When the running
+ * call is interrupted or cancelled, which only concerns its own caller, the waiting callers do not get this outcome: one of them sends the call
+ * again and the others wait for it.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the result type
+ */
+public class SingleFlight<K, V>
+{
+    private final Map<K, CompletableFuture<V>> _mapCalls = new ConcurrentHashMap<>( );
+    private final LongAdder _callCount = new LongAdder( );
+    private final LongAdder _coalescedCount = new LongAdder( );
+
+    /**
+     * A call to the identity store
+     *
+     * @param <V>
+     *            the result type
+     */
+    @FunctionalInterface
+    public interface Call<V>
+    {
+        /**
+         * Runs the call
+         *
+         * @return the result
+         * @throws IdentityStoreException
+         *             if the call fails
+         */
+        V call( ) throws IdentityStoreException;
+    }
+
+    /**
+     * Runs a call, or waits for the outcome of the identical call already running
+     *
+     * @param key
+     *            the key identifying identical calls
+     * @param lDeadlineNanos
+     *            the deadline of the caller, as a {@link System#nanoTime()} value, bounding the wait for an identical call
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreException
+     *             if the call fails, or if the identical call is not completed before the deadline
+     */
+    public V execute( K key, long lDeadlineNanos, Call<V> call ) throws IdentityStoreException
+    {
+        boolean bCoalesced = false;
+        while ( true )
+        {
+            CompletableFuture<V> future = new CompletableFuture<>( );
+            CompletableFuture<V> inFlight = _mapCalls.putIfAbsent( key, future );
+            if ( inFlight == null )
+            {
+                return lead( key, future, call );
+            }
+
+            if ( !bCoalesced )
+            {
+                _coalescedCount.increment( );
+                bCoalesced = true;
+            }
+            try
+            {
+                return join( inFlight, lDeadlineNanos );
+            }
+            catch( CancellationException e )
+            {
+                // The running call was interrupted or cancelled: send it again, or wait for the caller which does
+                _mapCalls.remove( key, inFlight );
+            }
+        }
+    }
+
+    /**
+     * Runs a call and shares its outcome with the callers waiting for it
+     *
+     * @param key
+     *            the key identifying identical calls
+     * @param future
+     *            the outcome shared with the waiting callers
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreException
+     *             if the call fails
+     */
+    private V lead( K key, CompletableFuture<V> future, Call<V> call ) throws IdentityStoreException
+    {
+        _callCount.increment( );
+        try
+        {
+            V result = call.call( );
+            future.complete( result );
+            return result;
+        }
+        catch( IdentityStoreException | RuntimeException | Error e )
+        {
+            if ( Thread.currentThread( ).isInterrupted( ) || ExceptionUtils.indexOfType( e, InterruptedException.class ) >= 0 )
+            {
+                // The interruption belongs to this caller: the waiting callers retry
+                future.cancel( false );
+            }
+            else
+            {
+                future.completeExceptionally( e );
+            }
+            throw e;
+        }
+        finally
+        {
+            _mapCalls.remove( key, future );
+        }
+    }
+
+    /**
+     * Gets the number of calls actually sent
+     *
+     * @return the call count
+     */
+    public long getCallCount( )
+    {
+        return _callCount.sum( );
+    }
+
+    /**
+     * Gets the number of calls which waited for an identical call instead of being sent
+     *
+     * @return the coalesced call count
+     */
+    public long getCoalescedCount( )
+    {
+        return _coalescedCount.sum( );
+    }
+
+    /**
+     * Waits for the outcome of a running call
+     *
+     * @param future
+     *            the running call
+     * @param lDeadlineNanos
+     *            the deadline of the caller, as a {@link System#nanoTime()} value
+     * @return the result of the call
+     * @throws IdentityStoreException
+     *             the exception thrown by the call, or if the call is not completed before the deadline
+     * @throws CancellationException
+     *             if the running call was interrupted or cancelled
+     */
+    private V join( CompletableFuture<V> future, long lDeadlineNanos ) throws IdentityStoreException
+    {
+        try
+        {
+            return future.get( Math.max( 0, lDeadlineNanos - System.nanoTime( ) ), TimeUnit.NANOSECONDS );
+        }
+        catch( ExecutionException e )
+        {
+            Throwable cause = e.getCause( );
+            if ( cause instanceof IdentityStoreException )
+            {
+                throw (IdentityStoreException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+        catch( TimeoutException e )
+        {
+            // The running call goes on for its own caller
+            throw new IdentityStoreException( "Timeout while waiting for an identical identity store call", e );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while waiting for an identical identity store call", e );
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.geocode;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils;
+
+/**
+ * In-memory prefix index of geocodes (countries or cities).
+ *
+ * The normalized names and the codes are kept in sorted arrays: the entries starting with a prefix are a contiguous range, found by binary
+ * search. Each entry keeps the JSON item it was loaded from, which is returned as is. Instances are immutable and can be shared between threads.
+ */
+public final class GeocodeIndex
+{
+    public static final String FIELD_CODE = "code";
+    public static final String FIELD_VALUE = "value";
+    public static final String FIELD_VALIDITY_START = "dateValidityStart";
+    public static final String FIELD_VALIDITY_END = "dateValidityEnd";
+
+    private static final Pattern PATTERN_SEPARATORS = Pattern.compile( "[\\s\\-'\u2019]+" );
+    private static final ZoneId ZONE_PARIS = ZoneId.of( "Europe/Paris" );
+
+    private final Key [ ] _names;
+    private final Key [ ] _codes;
+    private final int _nSize;
+
+    /**
+     * Constructor
+     *
+     * @param names
+     *            the entries by normalized name, sorted
+     * @param codes
+     *            the entries by code, sorted
+     * @param nSize
+     *            the number of entries
+     */
+    private GeocodeIndex( Key [ ] names, Key [ ] codes, int nSize )
+    {
+        _names = names;
+        _codes = codes;
+        _nSize = nSize;
+    }
+
+    /**
+     * Builds the index of a list of geocodes.
+     *
+     * @param items
+     *            the geocodes, each one holding at least a code and a value
+     * @return the index
+     */
+    public static GeocodeIndex build( Iterable<JsonNode> items )
+    {
+        List<Key> listNames = new ArrayList<>( );
+        List<Key> listCodes = new ArrayList<>( );
+        for ( JsonNode item : items )
+        {
+            String strCode = item.path( FIELD_CODE ).asText( );
+            String strName = normalize( item.path( FIELD_VALUE ).asText( ) );
+            if ( StringUtils.isEmpty( strCode ) || StringUtils.isEmpty( strName ) )
+            {
+                continue;
+            }
+            Entry entry = new Entry( item, parseDate( item.get( FIELD_VALIDITY_START ) ), parseDate( item.get( FIELD_VALIDITY_END ) ) );
+            listNames.add( new Key( strName, entry ) );
+            listCodes.add( new Key( strCode.toLowerCase( Locale.ROOT ), entry ) );
+        }
+        Key [ ] names = listNames.toArray( new Key [ 0 ] );
+        Key [ ] codes = listCodes.toArray( new Key [ 0 ] );
+        Arrays.sort( names, Key.ORDER );
+        Arrays.sort( codes, Key.ORDER );
+        return new GeocodeIndex( names, codes, names.length );
+    }
+
+    /**
+     * Gets the number of geocodes of the index
+     *
+     * @return the number of geocodes
+     */
+    public int size( )
+    {
+        return _nSize;
+    }
+
+    /**
+     * Searches the geocodes whose name or code starts with a text, and which are valid at a date.
+     *
+     * @param strSearch
+     *            the text typed by the agent
+     * @param date
+     *            the date the geocodes must be valid at, null to keep all the geocodes
+     * @param nMaxResults
+     *            the maximum number of results
+     * @return the matching geocodes, in the order of their name, the ones matching by code first
+     */
+    public List<JsonNode> search( String strSearch, LocalDate date, int nMaxResults )
+    {
+        String strName = normalize( strSearch );
+        if ( strName.isEmpty( ) )
+        {
+            return new ArrayList<>( );
+        }
+        Set<Entry> setResults = new LinkedHashSet<>( );
+        collect( _codes, StringUtils.deleteWhitespace( strSearch ).toLowerCase( Locale.ROOT ), date, nMaxResults, setResults );
+        collect( _names, strName, date, nMaxResults, setResults );
+
+        List<JsonNode> listResults = new ArrayList<>( setResults.size( ) );
+        for ( Entry entry : setResults )
+        {
+            listResults.add( entry._item );
+        }
+        return listResults;
+    }
+
+    /**
+     * Adds the valid entries of the range of keys starting with a prefix
+     *
+     * @param keys
+     *            the sorted keys
+     * @param strPrefix
+     *            the prefix
+     * @param date
+     *            the validity date, or null
+     * @param nMaxResults
+     *            the maximum number of results
+     * @param setResults
+     *            the results
+     */
+    private static void collect( Key [ ] keys, String strPrefix, LocalDate date, int nMaxResults, Set<Entry> setResults )
+    {
+        for ( int i = lowerBound( keys, strPrefix ); i < keys.length && setResults.size( ) < nMaxResults && keys [i]._strKey.startsWith( strPrefix ); i++ )
+        {
+            if ( keys [i]._entry.isValidAt( date ) )
+            {
+                setResults.add( keys [i]._entry );
+            }
+        }
+    }
+
+    /**
+     * Finds the first key greater than or equal to a prefix
+     *
+     * @param keys
+     *            the sorted keys
+     * @param strPrefix
+     *            the prefix
+     * @return the index of the first key of the range
+     */
+    private static int lowerBound( Key [ ] keys, String strPrefix )
+    {
+        int nLow = 0;
+        int nHigh = keys.length;
+        while ( nLow < nHigh )
+        {
+            int nMiddle = ( nLow + nHigh ) >>> 1;
+            if ( keys [nMiddle]._strKey.compareTo( strPrefix ) < 0 )
+            {
+                nLow = nMiddle + 1;
+            }
+            else
+            {
+                nHigh = nMiddle;
+            }
+        }
+        return nLow;
+    }
+
+    /**
+     * Normalizes a name: accents, case, spaces, hyphens and apostrophes are ignored
+     *
+     * @param strName
+     *            the name
+     * @return the normalized name
+     */
+    static String normalize( String strName )
+    {
+        return PATTERN_SEPARATORS.matcher( IdentityPickerNormalizationUtils.normalizeText( strName ) ).replaceAll( " " ).trim( );
+    }
+
+    /**
+     * Parses a validity date, given either as epoch milliseconds or as a date string
+     *
+     * @param node
+     *            the date node, may be null
+     * @return the date, or null if the node is missing or is not a date
+     */
+    private static LocalDate parseDate( JsonNode node )
+    {
+        if ( node == null || node.isNull( ) )
+        {
+            return null;
+        }
+        if ( node.isNumber( ) )
+        {
+            return Instant.ofEpochMilli( node.asLong( ) ).atZone( ZONE_PARIS ).toLocalDate( );
+        }
+        String strDate = node.asText( );
+        try
+        {
+            // Timestamps may be serialized with their time
+            return LocalDate.parse( IdentityPickerNormalizationUtils.normalizeDate( StringUtils.substringBefore( strDate, "T" ) ) );
+        }
+        catch( DateTimeParseException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Geocode with its validity period
+     */
+    private static final class Entry
+    {
+        private final JsonNode _item;
+        private final LocalDate _start;
+        private final LocalDate _end;
+
+        Entry( JsonNode item, LocalDate start, LocalDate end )
+        {
+            _item = item;
+            _start = start;
+            _end = end;
+        }
+
+        /**
+         * @param date
+         *            the date, or null
+         * @return true if the geocode is valid at the date
+         */
+        boolean isValidAt( LocalDate date )
+        {
+            return date == null || ( ( _start == null || !date.isBefore( _start ) ) && ( _end == null || !date.isAfter( _end ) ) );
+        }
+    }
+
+    /**
+     * Search key of an entry
+     */
+    private static final class Key
+    {
+        private static final Comparator<Key> ORDER = Comparator.comparing( key -> key._strKey );
+
+        private final String _strKey;
+        private final Entry _entry;
+
+        Key( String strKey, Entry entry )
+        {
+            _strKey = strKey;
+            _entry = entry;
+        }
+    }
+}
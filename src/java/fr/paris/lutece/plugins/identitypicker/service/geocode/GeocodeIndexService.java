@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.geocode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerNormalizationUtils;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Serves the birth country and birth place autocomplete of the picker from in-memory indexes.
+ *
+ * The countries and cities are loaded from the configured JSON exports of the geocode service (an array of geocodes, or a geocodes client
+ * response holding them in "result"), in background from the warm-up or the first search, then reloaded periodically. A search never waits for
+ * a load: until the first load succeeds it throws a {@link GeocodesNotReadyException}. A failed first load is retried after a delay doubling on
+ * each failure, up to the refresh interval, and a failed reload keeps the loaded indexes.
+ */
+@ApplicationScoped
+@Named( "identitypicker.geocodeIndexService" )
+public class GeocodeIndexService
+{
+    private static final String FIELD_RESULT = "result";
+    private static final String SCHEME_FILE = "file";
+    private static final ObjectMapper _mapper = new ObjectMapper( );
+
+    /**
+     * Type of geocode
+     */
+    public enum GeocodeType
+    {
+        COUNTRY,
+        CITY
+    }
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.enabled", defaultValue = "false" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.countries.url" )
+    private Optional<String> _strCountriesUrl;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.cities.url" )
+    private Optional<String> _strCitiesUrl;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.refreshInterval", defaultValue = "86400" )
+    private long _lRefreshInterval;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.retryDelay", defaultValue = "60" )
+    private long _lRetryDelay;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.timeout", defaultValue = "30000" )
+    private long _lTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.geocodes.maxResults", defaultValue = "50" )
+    private int _nMaxResults;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    private HttpClient _httpClient;
+    private volatile Map<GeocodeType, GeocodeIndex> _mapIndexes;
+    private volatile long _lLoadedAt;
+    private final AtomicBoolean _bStarted = new AtomicBoolean( );
+    private final AtomicBoolean _bLoading = new AtomicBoolean( );
+    private int _nFailures;
+
+    /**
+     * Creates the HTTP client once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _httpClient = HttpClient.newBuilder( ).connectTimeout( Duration.ofMillis( _lTimeout ) ).followRedirects( HttpClient.Redirect.NORMAL ).build( );
+    }
+
+    /**
+     * Tells whether the geocodes are served by the picker
+     *
+     * @return true if the geocode indexes are enabled
+     */
+    public boolean isEnabled( )
+    {
+        return _bEnabled;
+    }
+
+    /**
+     * Searches the geocodes whose name or code starts with a text.
+     *
+     * @param type
+     *            the type of geocode
+     * @param strSearch
+     *            the text typed by the agent
+     * @param strDate
+     *            the date the geocodes must be valid at (the birth date), as yyyy-MM-dd or dd/MM/yyyy; blank to ignore the validity
+     * @return the matching geocodes
+     * @throws IOException
+     *             if the geocodes are not loaded yet, as a {@link GeocodesNotReadyException}
+     */
+    public List<JsonNode> search( GeocodeType type, String strSearch, String strDate ) throws IOException
+    {
+        LocalDate date = null;
+        if ( StringUtils.isNotBlank( strDate ) )
+        {
+            try
+            {
+                date = LocalDate.parse( IdentityPickerNormalizationUtils.normalizeDate( strDate ) );
+            }
+            catch( DateTimeParseException e )
+            {
+                // An incomplete date typed by the agent does not filter the geocodes
+            }
+        }
+        return getIndexes( ).get( type ).search( strSearch, date, _nMaxResults );
+    }
+
+    /**
+     * Loads the indexes on the calling thread, if they are not loaded yet and no load is running. Meant for the warm-up, which runs in
+     * background: a failure is retried in background like a failed first load.
+     *
+     * @return the number of geocodes of each type, empty if a load is still running
+     * @throws IOException
+     *             if the geocodes cannot be loaded
+     */
+    public Map<GeocodeType, Integer> preload( ) throws IOException
+    {
+        if ( _mapIndexes == null && _bLoading.compareAndSet( false, true ) )
+        {
+            startReloads( );
+            load( );
+        }
+        return getSizes( );
+    }
+
+    /**
+     * Gets the time of the last successful load
+     *
+     * @return the load time in epoch milliseconds, 0 if the geocodes are not loaded
+     */
+    public long getLoadedAt( )
+    {
+        return _lLoadedAt;
+    }
+
+    /**
+     * Gets the number of geocodes of each type
+     *
+     * @return the number of geocodes, empty if the geocodes are not loaded
+     */
+    public Map<GeocodeType, Integer> getSizes( )
+    {
+        Map<GeocodeType, GeocodeIndex> mapIndexes = _mapIndexes;
+        Map<GeocodeType, Integer> mapSizes = new EnumMap<>( GeocodeType.class );
+        if ( mapIndexes != null )
+        {
+            mapIndexes.forEach( ( type, index ) -> mapSizes.put( type, index.size( ) ) );
+        }
+        return mapSizes;
+    }
+
+    /**
+     * Gets the indexes. The first call starts their load in background.
+     *
+     * @return the indexes
+     * @throws GeocodesNotReadyException
+     *             if the indexes are not loaded yet
+     */
+    private Map<GeocodeType, GeocodeIndex> getIndexes( ) throws GeocodesNotReadyException
+    {
+        Map<GeocodeType, GeocodeIndex> mapIndexes = _mapIndexes;
+        if ( mapIndexes == null )
+        {
+            if ( startReloads( ) )
+            {
+                _executorService.getRefreshExecutor( ).execute( this::scheduleReload );
+            }
+            throw new GeocodesNotReadyException( "The geocodes are not loaded yet" );
+        }
+        return mapIndexes;
+    }
+
+    /**
+     * Schedules the periodic reloads, on the first call only
+     *
+     * @return true on the first call
+     */
+    private boolean startReloads( )
+    {
+        if ( !_bStarted.compareAndSet( false, true ) )
+        {
+            return false;
+        }
+        // The loads are triggered from the refresh executor but download and index the geocodes on a worker, so that they do not delay the
+        // other background refreshes
+        _executorService.getRefreshExecutor( ).scheduleWithFixedDelay( this::scheduleReload, _lRefreshInterval, _lRefreshInterval, TimeUnit.SECONDS );
+        return true;
+    }
+
+    /**
+     * Starts a background load of the indexes, unless one is running
+     */
+    private void scheduleReload( )
+    {
+        if ( !_bLoading.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            _executorService.getWorkerExecutor( ).execute( ( ) -> {
+                try
+                {
+                    load( );
+                }
+                catch( IOException | RuntimeException e )
+                {
+                    AppLogService.error( _mapIndexes == null ? "Unable to load the geocodes" : "Unable to reload the geocodes, the loaded ones are kept", e );
+                }
+            } );
+        }
+        catch( RejectedExecutionException e )
+        {
+            _bLoading.set( false );
+            AppLogService.error( "Unable to schedule the load of the geocodes", e );
+            scheduleRetry( );
+        }
+    }
+
+    /**
+     * Schedules a new load after a failed first load, the delay doubling on each failure up to the refresh interval. A failed reload waits for
+     * the next periodic one.
+     */
+    private void scheduleRetry( )
+    {
+        if ( _mapIndexes != null )
+        {
+            return;
+        }
+        int nFailures = ++_nFailures;
+        long lDelay = Math.min( _lRetryDelay << Math.min( nFailures - 1, 20 ), _lRefreshInterval );
+        AppLogService.info( "Geocodes not loaded after {} attempts, next attempt in {} s", nFailures, lDelay );
+        _executorService.getRefreshExecutor( ).schedule( this::scheduleReload, lDelay, TimeUnit.SECONDS );
+    }
+
+    /**
+     * Loads and indexes the countries and the cities, then releases the load flag taken by the caller. A failure schedules the retry.
+     *
+     * @throws IOException
+     *             if a list of geocodes cannot be read
+     */
+    private void load( ) throws IOException
+    {
+        try
+        {
+            long lStart = System.nanoTime( );
+            Map<GeocodeType, GeocodeIndex> mapIndexes = new EnumMap<>( GeocodeType.class );
+            mapIndexes.put( GeocodeType.COUNTRY, GeocodeIndex.build( read( _strCountriesUrl.orElse( null ) ) ) );
+            mapIndexes.put( GeocodeType.CITY, GeocodeIndex.build( read( _strCitiesUrl.orElse( null ) ) ) );
+            _mapIndexes = Collections.unmodifiableMap( mapIndexes );
+            _lLoadedAt = System.currentTimeMillis( );
+            AppLogService.info( "Geocodes loaded in {} ms: {} countries, {} cities", TimeUnit.NANOSECONDS.toMillis( System.nanoTime( ) - lStart ),
+                    mapIndexes.get( GeocodeType.COUNTRY ).size( ), mapIndexes.get( GeocodeType.CITY ).size( ) );
+        }
+        catch( IOException | RuntimeException e )
+        {
+            _bLoading.set( false );
+            scheduleRetry( );
+            throw e;
+        }
+        finally
+        {
+            _bLoading.set( false );
+        }
+    }
+
+    /**
+     * Reads a list of geocodes from a file or HTTP URL
+     *
+     * @param strUrl
+     *            the URL
+     * @return the geocodes
+     * @throws IOException
+     *             if the URL is not configured or cannot be read
+     */
+    private JsonNode read( String strUrl ) throws IOException
+    {
+        if ( StringUtils.isBlank( strUrl ) )
+        {
+            throw new IOException( "The URLs of the geocodes are not configured" );
+        }
+        URI uri = URI.create( strUrl.trim( ) );
+        JsonNode root;
+        if ( SCHEME_FILE.equals( uri.getScheme( ) ) )
+        {
+            try ( InputStream input = Files.newInputStream( Path.of( uri ) ) )
+            {
+                root = _mapper.readTree( input );
+            }
+        }
+        else
+        {
+            HttpRequest request = HttpRequest.newBuilder( uri ).timeout( Duration.ofMillis( _lTimeout ) ).header( "Accept", "application/json" ).GET( ).build( );
+            try
+            {
+                HttpResponse<InputStream> response = _httpClient.send( request, HttpResponse.BodyHandlers.ofInputStream( ) );
+                try ( InputStream input = response.body( ) )
+                {
+                    if ( response.statusCode( ) != 200 )
+                    {
+                        throw new IOException( "Geocodes URL " + strUrl + " answered " + response.statusCode( ) );
+                    }
+                    root = _mapper.readTree( input );
+                }
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread( ).interrupt( );
+                throw new IOException( "Interrupted while reading the geocodes", e );
+            }
+        }
+
+        JsonNode items = root.has( FIELD_RESULT ) ? root.get( FIELD_RESULT ) : root;
+        if ( !items.isArray( ) )
+        {
+            throw new IOException( "Geocodes URL " + strUrl + " does not hold a list of geocodes" );
+        }
+        return items;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryFilter;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryPage;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerETagUtils;
+
+/**
+ * Flattened view of the history of an identity: the identity changes and the attribute changes in a single list, most recent first. It is built
+ * once per history content and serves the pages and filters without walking the history again.
+ *
+ * Each change keeps its identity store JSON form, with an additional {@code entry_type} field ({@code identity} or {@code attribute}) and the
+ * {@code attribute_key} of attribute changes. The identity store serializes the identity changes in camel case ({@code modificationDate},
+ * {@code changeType}, {@code author.author_name}) and the attribute changes in snake case ({@code modification_date}, {@code change_type},
+ * {@code author_name}): each field is read with the spelling of its entry type.
+ */
+public final class IdentityHistoryIndex
+{
+    public static final String ENTRY_TYPE = "entry_type";
+    public static final String ENTRY_TYPE_IDENTITY = "identity";
+    public static final String ENTRY_TYPE_ATTRIBUTE = "attribute";
+
+    private static final String FIELD_IDENTITY_CHANGES = "identity_changes";
+    private static final String FIELD_ATTRIBUTE_HISTORIES = "attribute_histories";
+    private static final String FIELD_ATTRIBUTE_CHANGES = "attribute_changes";
+    private static final String FIELD_ATTRIBUTE_KEY = "attribute_key";
+    private static final String FIELD_IDENTITY_DATE = "modificationDate";
+    private static final String FIELD_IDENTITY_CHANGE_TYPE = "changeType";
+    private static final String FIELD_IDENTITY_AUTHOR = "author";
+    private static final String FIELD_ATTRIBUTE_DATE = "modification_date";
+    private static final String FIELD_ATTRIBUTE_CHANGE_TYPE = "change_type";
+    private static final String FIELD_AUTHOR_NAME = "author_name";
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private final List<ObjectNode> _listEntries;
+    private final String _strVersion;
+
+    /**
+     * Constructor
+     *
+     * @param listEntries
+     *            the sorted entries
+     * @param strVersion
+     *            the version of the history content
+     */
+    private IdentityHistoryIndex( List<ObjectNode> listEntries, String strVersion )
+    {
+        _listEntries = listEntries;
+        _strVersion = strVersion;
+    }
+
+    /**
+     * Flattens and sorts a history
+     *
+     * @param history
+     *            the JSON tree of the history, which is modified in place
+     * @return the index
+     */
+    public static IdentityHistoryIndex build( JsonNode history )
+    {
+        String strVersion = IdentityPickerETagUtils.hash( history.toString( ).getBytes( StandardCharsets.UTF_8 ) );
+        List<ObjectNode> listEntries = new ArrayList<>( );
+        for ( JsonNode change : history.path( FIELD_IDENTITY_CHANGES ) )
+        {
+            if ( change.isObject( ) )
+            {
+                listEntries.add( ( (ObjectNode) change ).put( ENTRY_TYPE, ENTRY_TYPE_IDENTITY ) );
+            }
+        }
+        for ( JsonNode attributeHistory : history.path( FIELD_ATTRIBUTE_HISTORIES ) )
+        {
+            String strAttributeKey = attributeHistory.path( FIELD_ATTRIBUTE_KEY ).asText( );
+            for ( JsonNode change : attributeHistory.path( FIELD_ATTRIBUTE_CHANGES ) )
+            {
+                if ( change.isObject( ) )
+                {
+                    ObjectNode entry = ( (ObjectNode) change ).put( ENTRY_TYPE, ENTRY_TYPE_ATTRIBUTE );
+                    if ( !entry.hasNonNull( FIELD_ATTRIBUTE_KEY ) )
+                    {
+                        entry.put( FIELD_ATTRIBUTE_KEY, strAttributeKey );
+                    }
+                    listEntries.add( entry );
+                }
+            }
+        }
+        listEntries.sort( Comparator.comparingLong( IdentityHistoryIndex::getDate ).reversed( ) );
+        return new IdentityHistoryIndex( Collections.unmodifiableList( listEntries ), strVersion );
+    }
+
+    /**
+     * Gets the version of the history content
+     *
+     * @return the version
+     */
+    public String getVersion( )
+    {
+        return _strVersion;
+    }
+
+    /**
+     * Gets a page of the entries matching a filter
+     *
+     * @param filter
+     *            the filter
+     * @param strCursor
+     *            the cursor returned with the previous page, or null for the first page
+     * @param nLimit
+     *            the maximum number of entries of the page
+     * @param zone
+     *            the time zone of the ISO dates of the filter
+     * @return the page
+     * @throws IllegalArgumentException
+     *             if a filter or the cursor is malformed, or if the cursor was issued for another version of the history or another filter
+     */
+    public IdentityHistoryPage getPage( IdentityHistoryFilter filter, String strCursor, int nLimit, ZoneId zone )
+    {
+        String strFilter = IdentityPickerETagUtils.hash( StringUtils.defaultString( filter.getAttributeKey( ) ), StringUtils.defaultString( filter.getFrom( ) ),
+                StringUtils.defaultString( filter.getTo( ) ), StringUtils.defaultString( filter.getAuthor( ) ),
+                StringUtils.defaultString( filter.getChangeType( ) ), zone.getId( ) );
+        int nOffset = decodeCursor( strCursor, strFilter );
+        Predicate<ObjectNode> predicate = toPredicate( filter, zone );
+        List<JsonNode> listPage = new ArrayList<>( nLimit );
+        int nTotal = 0;
+        for ( ObjectNode entry : _listEntries )
+        {
+            if ( predicate.test( entry ) )
+            {
+                if ( nTotal >= nOffset && listPage.size( ) < nLimit )
+                {
+                    listPage.add( entry );
+                }
+                nTotal++;
+            }
+        }
+        int nNextOffset = nOffset + listPage.size( );
+        return new IdentityHistoryPage( listPage, nTotal, nNextOffset < nTotal ? encodeCursor( strFilter, nNextOffset ) : null );
+    }
+
+    /**
+     * Builds the predicate of a filter
+     *
+     * @param filter
+     *            the filter
+     * @param zone
+     *            the time zone of the ISO dates
+     * @return the predicate
+     */
+    private static Predicate<ObjectNode> toPredicate( IdentityHistoryFilter filter, ZoneId zone )
+    {
+        Predicate<ObjectNode> predicate = entry -> true;
+        if ( StringUtils.isNotBlank( filter.getAttributeKey( ) ) )
+        {
+            predicate = predicate.and( entry -> ENTRY_TYPE_ATTRIBUTE.equals( entry.path( ENTRY_TYPE ).asText( ) )
+                    && filter.getAttributeKey( ).equals( entry.path( FIELD_ATTRIBUTE_KEY ).asText( ) ) );
+        }
+        if ( StringUtils.isNotBlank( filter.getFrom( ) ) )
+        {
+            long lFrom = parseDate( filter.getFrom( ), false, zone );
+            predicate = predicate.and( entry -> getDate( entry ) >= lFrom );
+        }
+        if ( StringUtils.isNotBlank( filter.getTo( ) ) )
+        {
+            long lTo = parseDate( filter.getTo( ), true, zone );
+            predicate = predicate.and( entry -> getDate( entry ) <= lTo );
+        }
+        if ( StringUtils.isNotBlank( filter.getAuthor( ) ) )
+        {
+            predicate = predicate.and( entry -> StringUtils.containsIgnoreCase( getAuthorName( entry ), filter.getAuthor( ) ) );
+        }
+        if ( StringUtils.isNotBlank( filter.getChangeType( ) ) )
+        {
+            predicate = predicate.and( entry -> filter.getChangeType( ).equalsIgnoreCase( getChangeType( entry ) ) );
+        }
+        return predicate;
+    }
+
+    /**
+     * Parses a date bound, given either as an ISO date or as epoch milliseconds
+     *
+     * @param strDate
+     *            the date
+     * @param bEndOfDay
+     *            true to return the last millisecond of an ISO date
+     * @param zone
+     *            the time zone of an ISO date
+     * @return the date in epoch milliseconds
+     * @throws IllegalArgumentException
+     *             if the date is malformed
+     */
+    private static long parseDate( String strDate, boolean bEndOfDay, ZoneId zone )
+    {
+        if ( StringUtils.isNumeric( strDate ) )
+        {
+            return Long.parseLong( strDate );
+        }
+        try
+        {
+            LocalDate date = LocalDate.parse( strDate );
+            if ( bEndOfDay )
+            {
+                date = date.plusDays( 1 );
+            }
+            long lMillis = date.atStartOfDay( zone ).toInstant( ).toEpochMilli( );
+            return bEndOfDay ? lMillis - 1 : lMillis;
+        }
+        catch( DateTimeParseException e )
+        {
+            throw new IllegalArgumentException( "Invalid date: " + strDate, e );
+        }
+    }
+
+    /**
+     * Gets the modification date of an entry
+     *
+     * @param entry
+     *            the entry
+     * @return the date in epoch milliseconds, 0 if unknown
+     */
+    private static long getDate( JsonNode entry )
+    {
+        return entry.path( isIdentityChange( entry ) ? FIELD_IDENTITY_DATE : FIELD_ATTRIBUTE_DATE ).asLong( );
+    }
+
+    /**
+     * Gets the author name of an entry
+     *
+     * @param entry
+     *            the entry
+     * @return the author name, or an empty string
+     */
+    private static String getAuthorName( JsonNode entry )
+    {
+        JsonNode author = isIdentityChange( entry ) ? entry.path( FIELD_IDENTITY_AUTHOR ).path( FIELD_AUTHOR_NAME ) : entry.path( FIELD_AUTHOR_NAME );
+        return author.asText( );
+    }
+
+    /**
+     * Gets the change type of an entry
+     *
+     * @param entry
+     *            the entry
+     * @return the change type, or an empty string
+     */
+    private static String getChangeType( JsonNode entry )
+    {
+        return entry.path( isIdentityChange( entry ) ? FIELD_IDENTITY_CHANGE_TYPE : FIELD_ATTRIBUTE_CHANGE_TYPE ).asText( );
+    }
+
+    /**
+     * Tells whether an entry is an identity change or an attribute change
+     *
+     * @param entry
+     *            the entry
+     * @return true for an identity change
+     */
+    private static boolean isIdentityChange( JsonNode entry )
+    {
+        return ENTRY_TYPE_IDENTITY.equals( entry.path( ENTRY_TYPE ).asText( ) );
+    }
+
+    /**
+     * Encodes a cursor bound to the version of the history and to the filter
+     *
+     * @param strFilter
+     *            the hash of the filter
+     * @param nOffset
+     *            the offset of the next page
+     * @return the cursor
+     */
+    private String encodeCursor( String strFilter, int nOffset )
+    {
+        String strCursor = _strVersion + CURSOR_SEPARATOR + strFilter + CURSOR_SEPARATOR + nOffset;
+        return Base64.getUrlEncoder( ).withoutPadding( ).encodeToString( strCursor.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Decodes a cursor
+     *
+     * @param strCursor
+     *            the cursor, or null
+     * @param strFilter
+     *            the hash of the filter of the requested page
+     * @return the offset
+     * @throws IllegalArgumentException
+     *             if the cursor is malformed or was issued for another version of the history or another filter
+     */
+    private int decodeCursor( String strCursor, String strFilter )
+    {
+        if ( StringUtils.isBlank( strCursor ) )
+        {
+            return 0;
+        }
+        String strDecoded;
+        try
+        {
+            strDecoded = new String( Base64.getUrlDecoder( ).decode( strCursor ), StandardCharsets.UTF_8 );
+        }
+        catch( IllegalArgumentException e )
+        {
+            throw new IllegalArgumentException( "Malformed cursor", e );
+        }
+        int nSeparator = strDecoded.lastIndexOf( CURSOR_SEPARATOR );
+        if ( nSeparator < 0 || !_strVersion.equals( StringUtils.substringBefore( strDecoded, String.valueOf( CURSOR_SEPARATOR ) ) ) )
+        {
+            throw new IllegalArgumentException( "The cursor does not match the current history" );
+        }
+        if ( !strDecoded.substring( 0, nSeparator ).equals( _strVersion + CURSOR_SEPARATOR + strFilter ) )
+        {
+            throw new IllegalArgumentException( "The cursor was issued for other filters" );
+        }
+        try
+        {
+            return Math.max( 0, Integer.parseInt( strDecoded.substring( nSeparator + 1 ) ) );
+        }
+        catch( NumberFormatException e )
+        {
+            throw new IllegalArgumentException( "Malformed cursor", e );
+        }
+    }
+}
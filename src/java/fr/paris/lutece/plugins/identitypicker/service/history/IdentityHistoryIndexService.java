@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.history;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.cache.TimedCache;
+
+/**
+ * Keeps the flattened histories of the identities being browsed, so that the next pages are served without fetching the history again. An index
+ * is dropped when the picker changes the identity or creates a task on it.
+ *
+ * As for the identities, an invalidation bumps the generation of the customer id, and a load started before it cannot store its index
+ * afterwards. The generations are striped by the hash of the customer id.
+ */
+@ApplicationScoped
+@Named( "identitypicker.identityHistoryIndexService" )
+public class IdentityHistoryIndexService
+{
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.history.ttl", defaultValue = "120" )
+    private long _lTtlSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.history.maxSize", defaultValue = "200" )
+    private int _nMaxSize;
+
+    private final AtomicLongArray _generations = new AtomicLongArray( GENERATION_STRIPES );
+    private TimedCache<String, IdentityHistoryIndex> _cache;
+
+    /**
+     * Creates the cache once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _cache = new TimedCache<>( _nMaxSize, TimeUnit.SECONDS.toMillis( _lTtlSeconds ) );
+    }
+
+    /**
+     * Gets the index of the history of an identity
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the index, or null if it is not available
+     */
+    public IdentityHistoryIndex get( String strCustomerId )
+    {
+        return _cache.get( strCustomerId );
+    }
+
+    /**
+     * Gets the generation of a customer id, to be read before loading the history
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the generation
+     */
+    public long getGeneration( String strCustomerId )
+    {
+        return _generations.get( stripe( strCustomerId ) );
+    }
+
+    /**
+     * Stores the index of the history of an identity, unless it was invalidated since the load of the history started
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @param index
+     *            the index
+     * @param lGeneration
+     *            the generation of the customer id read before the load
+     */
+    public void put( String strCustomerId, IdentityHistoryIndex index, long lGeneration )
+    {
+        // The check and the store are atomic with regard to the invalidation, which bumps the generation under the same lock
+        synchronized( _generations )
+        {
+            if ( _generations.get( stripe( strCustomerId ) ) == lGeneration )
+            {
+                _cache.put( strCustomerId, index );
+            }
+        }
+    }
+
+    /**
+     * Drops the index of the history of an identity, and the loads of the history still running
+     *
+     * @param strCustomerId
+     *            the customer id
+     */
+    public void invalidate( String strCustomerId )
+    {
+        synchronized( _generations )
+        {
+            _generations.incrementAndGet( stripe( strCustomerId ) );
+            _cache.remove( strCustomerId );
+        }
+    }
+
+    /**
+     * Gets the generation stripe of a customer id
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @return the stripe index
+     */
+    private static int stripe( String strCustomerId )
+    {
+        return Math.floorMod( strCustomerId.hashCode( ), GENERATION_STRIPES );
+    }
+}
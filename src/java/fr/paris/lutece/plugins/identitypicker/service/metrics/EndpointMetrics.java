@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a REST endpoint: latency, status codes, requests in flight and response sizes
+ */
+public class EndpointMetrics
+{
+    private static final int MAX_STATUS = 600;
+
+    private final String _strName;
+    private final Histogram _latency = new Histogram( Histogram.LATENCY_BOUNDS );
+    private final Histogram _responseSize = new Histogram( Histogram.SIZE_BOUNDS );
+    private final AtomicLongArray _statusCounts = new AtomicLongArray( MAX_STATUS );
+    private final LongAdder _inFlight = new LongAdder( );
+
+    /**
+     * Constructor
+     *
+     * @param strName
+     *            the endpoint name
+     */
+    public EndpointMetrics( String strName )
+    {
+        _strName = strName;
+    }
+
+    /**
+     * Records the start of a request
+     */
+    public void requestStarted( )
+    {
+        _inFlight.increment( );
+    }
+
+    /**
+     * Records the response of a request
+     *
+     * @param nStatus
+     *            the HTTP status
+     * @param lLatencyNanos
+     *            the time from the start of the request to its response
+     */
+    public void requestCompleted( int nStatus, long lLatencyNanos )
+    {
+        _inFlight.decrement( );
+        _latency.observe( lLatencyNanos );
+        if ( nStatus >= 0 && nStatus < MAX_STATUS )
+        {
+            _statusCounts.incrementAndGet( nStatus );
+        }
+    }
+
+    /**
+     * Gets the endpoint name
+     *
+     * @return the name
+     */
+    public String getName( )
+    {
+        return _strName;
+    }
+
+    /**
+     * Gets the latency histogram, in nanoseconds
+     *
+     * @return the latency histogram
+     */
+    public Histogram getLatency( )
+    {
+        return _latency;
+    }
+
+    /**
+     * Gets the response size histogram, in bytes
+     *
+     * @return the response size histogram
+     */
+    public Histogram getResponseSize( )
+    {
+        return _responseSize;
+    }
+
+    /**
+     * Gets the number of responses with a status
+     *
+     * @param nStatus
+     *            the HTTP status
+     * @return the number of responses
+     */
+    public long getStatusCount( int nStatus )
+    {
+        return nStatus >= 0 && nStatus < MAX_STATUS ? _statusCounts.get( nStatus ) : 0;
+    }
+
+    /**
+     * Gets the highest HTTP status which can be counted, exclusive
+     *
+     * @return the status bound
+     */
+    public static int getMaxStatus( )
+    {
+        return MAX_STATUS;
+    }
+
+    /**
+     * Gets the number of requests in flight
+     *
+     * @return the requests in flight
+     */
+    public long getInFlight( )
+    {
+        return _inFlight.sum( );
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram with fixed bucket bounds. Recording a value does not allocate: it increments the counter of its bucket, the count and the sum.
+ */
+public class Histogram
+{
+    /**
+     * Latency bounds, in nanoseconds: 5 ms to 10 s
+     */
+    public static final long [ ] LATENCY_BOUNDS = {
+            5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L,
+            5_000_000_000L, 10_000_000_000L
+    };
+
+    /**
+     * Payload size bounds, in bytes: 256 bytes to 1 MiB
+     */
+    public static final long [ ] SIZE_BOUNDS = {
+            256L, 1_024L, 4_096L, 16_384L, 65_536L, 262_144L, 1_048_576L
+    };
+
+    private final long [ ] _bounds;
+    private final LongAdder [ ] _buckets;
+    private final LongAdder _count = new LongAdder( );
+    private final LongAdder _sum = new LongAdder( );
+
+    /**
+     * Constructor
+     *
+     * @param bounds
+     *            the upper bounds of the buckets, in ascending order. A last bucket holds the values above the highest bound.
+     */
+    public Histogram( long [ ] bounds )
+    {
+        _bounds = bounds;
+        _buckets = new LongAdder [ bounds.length + 1];
+        for ( int i = 0; i < _buckets.length; i++ )
+        {
+            _buckets [i] = new LongAdder( );
+        }
+    }
+
+    /**
+     * Records a value
+     *
+     * @param lValue
+     *            the value
+     */
+    public void observe( long lValue )
+    {
+        int nBucket = 0;
+        while ( nBucket < _bounds.length && lValue > _bounds [nBucket] )
+        {
+            nBucket++;
+        }
+        _buckets [nBucket].increment( );
+        _count.increment( );
+        _sum.add( lValue );
+    }
+
+    /**
+     * Gets the upper bounds of the buckets
+     *
+     * @return the bounds
+     */
+    public long [ ] getBounds( )
+    {
+        return _bounds.clone( );
+    }
+
+    /**
+     * Gets the number of values recorded in a bucket, not including the lower buckets
+     *
+     * @param nBucket
+     *            the bucket index, {@code getBounds( ).length} for the values above the highest bound
+     * @return the number of values
+     */
+    public long getBucketCount( int nBucket )
+    {
+        return _buckets [nBucket].sum( );
+    }
+
+    /**
+     * Gets the number of values recorded
+     *
+     * @return the count
+     */
+    public long getCount( )
+    {
+        return _count.sum( );
+    }
+
+    /**
+     * Gets the sum of the values recorded
+     *
+     * @return the sum
+     */
+    public long getSum( )
+    {
+        return _sum.sum( );
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreCall;
+
+/**
+ * Registry of the metrics of the REST endpoints and of the identity store calls. The metrics of an endpoint are created on its first request,
+ * those of the calls up front, so that recording a value looks up an existing object and does not allocate.
+ */
+@ApplicationScoped
+@Named( "identitypicker.metricsRegistry" )
+public class MetricsRegistry
+{
+    @Inject
+    @ConfigProperty( name = "identitypicker.metrics.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    private final Map<String, EndpointMetrics> _mapEndpoints = new ConcurrentHashMap<>( );
+    private final Map<IdentityStoreCall, RemoteCallMetrics> _mapRemoteCalls = new EnumMap<>( IdentityStoreCall.class );
+
+    /**
+     * Creates the metrics of the identity store calls
+     */
+    @PostConstruct
+    void init( )
+    {
+        for ( IdentityStoreCall call : IdentityStoreCall.values( ) )
+        {
+            _mapRemoteCalls.put( call, new RemoteCallMetrics( call.getKey( ) ) );
+        }
+    }
+
+    /**
+     * Tells whether the metrics are recorded
+     *
+     * @return true if the metrics are enabled
+     */
+    public boolean isEnabled( )
+    {
+        return _bEnabled;
+    }
+
+    /**
+     * Gets the metrics of an endpoint
+     *
+     * @param strName
+     *            the endpoint name
+     * @return the metrics of the endpoint
+     */
+    public EndpointMetrics getEndpoint( String strName )
+    {
+        EndpointMetrics endpoint = _mapEndpoints.get( strName );
+        return endpoint != null ? endpoint : _mapEndpoints.computeIfAbsent( strName, EndpointMetrics::new );
+    }
+
+    /**
+     * Gets the metrics of an identity store call
+     *
+     * @param call
+     *            the call
+     * @return the metrics of the call
+     */
+    public RemoteCallMetrics getRemoteCall( IdentityStoreCall call )
+    {
+        return _mapRemoteCalls.get( call );
+    }
+
+    /**
+     * Gets the metrics of the endpoints requested so far
+     *
+     * @return the endpoint metrics
+     */
+    public Collection<EndpointMetrics> getEndpoints( )
+    {
+        return Collections.unmodifiableCollection( _mapEndpoints.values( ) );
+    }
+
+    /**
+     * Gets the metrics of the identity store calls
+     *
+     * @return the call metrics
+     */
+    public Collection<RemoteCallMetrics> getRemoteCalls( )
+    {
+        return Collections.unmodifiableCollection( _mapRemoteCalls.values( ) );
+    }
+}
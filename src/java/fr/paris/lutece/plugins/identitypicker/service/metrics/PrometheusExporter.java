@@ -0,0 +1,554 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerService;
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerWarmUpService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.IdentityCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.SearchResultCacheService;
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitypicker.service.geocode.GeocodeIndexService;
+import fr.paris.lutece.plugins.identitypicker.service.rbac.PermissionSnapshotService;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.Bulkhead;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.BulkheadService;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.CircuitBreaker;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreCallService;
+import fr.paris.lutece.plugins.identitypicker.service.token.AccessTokenProvider;
+
+/**
+ * Writes the metrics of the plugin in the Prometheus text exposition format
+ */
+@ApplicationScoped
+@Named( "identitypicker.prometheusExporter" )
+public class PrometheusExporter
+{
+    /**
+     * Content type of the Prometheus text exposition format
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "identitypicker_";
+    private static final String TYPE_COUNTER = "counter";
+    private static final String TYPE_GAUGE = "gauge";
+    private static final String TYPE_HISTOGRAM = "histogram";
+    private static final String LABEL_ENDPOINT = "endpoint";
+    private static final String LABEL_CALL = "call";
+    private static final String LABEL_CACHE = "cache";
+    private static final String LABEL_OPERATION = "operation";
+    private static final String LABEL_POOL = "pool";
+    private static final String LABEL_TYPE = "type";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    @Inject
+    @Named( "identitypicker.metricsRegistry" )
+    private MetricsRegistry _metricsRegistry;
+
+    @Inject
+    @Named( "identitypicker.identityPickerService" )
+    private IdentityPickerService _identityPickerService;
+
+    @Inject
+    @Named( "identitypicker.identityCacheService" )
+    private IdentityCacheService _identityCacheService;
+
+    @Inject
+    @Named( "identitypicker.searchResultCacheService" )
+    private SearchResultCacheService _searchResultCacheService;
+
+    @Inject
+    @Named( "identitypicker.permissionSnapshotService" )
+    private PermissionSnapshotService _permissionSnapshotService;
+
+    @Inject
+    @Named( "identitypicker.bulkheadService" )
+    private BulkheadService _bulkheadService;
+
+    @Inject
+    @Named( "identitypicker.identityStoreCallService" )
+    private IdentityStoreCallService _identityStoreCallService;
+
+    @Inject
+    @Named( "identitypicker.accessTokenProvider" )
+    private AccessTokenProvider _tokenProvider;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    @Inject
+    @Named( "identitypicker.geocodeIndexService" )
+    private GeocodeIndexService _geocodeIndexService;
+
+    @Inject
+    @Named( "identitypicker.warmUpService" )
+    private IdentityPickerWarmUpService _warmUpService;
+
+    /**
+     * Writes all the metrics
+     *
+     * @return the metrics in the Prometheus text format
+     */
+    public String export( )
+    {
+        StringBuilder sb = new StringBuilder( 16_384 );
+        writeEndpoints( sb );
+        writeRemoteCalls( sb );
+        writeCaches( sb );
+        writeSingleFlights( sb );
+        writeBulkheads( sb );
+        writeResilience( sb );
+        writeExecutors( sb );
+        writeGeocodes( sb );
+        writeWarmUp( sb );
+        return sb.toString( );
+    }
+
+    /**
+     * Writes the metrics of the REST endpoints
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeEndpoints( StringBuilder sb )
+    {
+        writeHeader( sb, "http_requests_total", TYPE_COUNTER, "Responses of the REST endpoints, by status." );
+        for ( EndpointMetrics endpoint : _metricsRegistry.getEndpoints( ) )
+        {
+            for ( int nStatus = 0; nStatus < EndpointMetrics.getMaxStatus( ); nStatus++ )
+            {
+                long lCount = endpoint.getStatusCount( nStatus );
+                if ( lCount > 0 )
+                {
+                    writeSample( sb, "http_requests_total", LABEL_ENDPOINT, endpoint.getName( ), "status", String.valueOf( nStatus ), lCount );
+                }
+            }
+        }
+
+        writeHeader( sb, "http_requests_in_flight", TYPE_GAUGE, "Requests of the REST endpoints being processed." );
+        for ( EndpointMetrics endpoint : _metricsRegistry.getEndpoints( ) )
+        {
+            writeSample( sb, "http_requests_in_flight", LABEL_ENDPOINT, endpoint.getName( ), null, null, endpoint.getInFlight( ) );
+        }
+
+        writeHeader( sb, "http_request_duration_seconds", TYPE_HISTOGRAM, "Latency of the REST endpoints." );
+        for ( EndpointMetrics endpoint : _metricsRegistry.getEndpoints( ) )
+        {
+            writeHistogram( sb, "http_request_duration_seconds", LABEL_ENDPOINT, endpoint.getName( ), endpoint.getLatency( ), NANOS_PER_SECOND );
+        }
+
+        writeHeader( sb, "http_response_size_bytes", TYPE_HISTOGRAM, "Size of the response bodies of the REST endpoints." );
+        for ( EndpointMetrics endpoint : _metricsRegistry.getEndpoints( ) )
+        {
+            writeHistogram( sb, "http_response_size_bytes", LABEL_ENDPOINT, endpoint.getName( ), endpoint.getResponseSize( ), 1d );
+        }
+    }
+
+    /**
+     * Writes the metrics of the identity store calls
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeRemoteCalls( StringBuilder sb )
+    {
+        writeHeader( sb, "remote_call_duration_seconds", TYPE_HISTOGRAM, "Latency of the identity store calls, retries and hedges included." );
+        for ( RemoteCallMetrics call : _metricsRegistry.getRemoteCalls( ) )
+        {
+            writeHistogram( sb, "remote_call_duration_seconds", LABEL_CALL, call.getName( ), call.getLatency( ), NANOS_PER_SECOND );
+        }
+
+        writeHeader( sb, "remote_call_errors_total", TYPE_COUNTER, "Failed identity store calls, by exception type." );
+        for ( RemoteCallMetrics call : _metricsRegistry.getRemoteCalls( ) )
+        {
+            for ( Map.Entry<Class<?>, LongAdder> error : call.getErrors( ).entrySet( ) )
+            {
+                writeSample( sb, "remote_call_errors_total", LABEL_CALL, call.getName( ), "type", error.getKey( ).getSimpleName( ), error.getValue( ).sum( ) );
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics of the caches
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeCaches( StringBuilder sb )
+    {
+        writeHeader( sb, "cache_hits_total", TYPE_COUNTER, "Cache lookups answered from the cache." );
+        writeSample( sb, "cache_hits_total", LABEL_CACHE, "identity", null, null, _identityCacheService.getHitCount( ) );
+        writeSample( sb, "cache_hits_total", LABEL_CACHE, "search", null, null, _searchResultCacheService.getHitCount( ) );
+        writeSample( sb, "cache_hits_total", LABEL_CACHE, "permissions", null, null, _permissionSnapshotService.getHitCount( ) );
+
+        writeHeader( sb, "cache_misses_total", TYPE_COUNTER, "Cache lookups not answered from the cache." );
+        writeSample( sb, "cache_misses_total", LABEL_CACHE, "identity", null, null, _identityCacheService.getMissCount( ) );
+        writeSample( sb, "cache_misses_total", LABEL_CACHE, "search", null, null, _searchResultCacheService.getMissCount( ) );
+        writeSample( sb, "cache_misses_total", LABEL_CACHE, "permissions", null, null, _permissionSnapshotService.getMissCount( ) );
+    }
+
+    /**
+     * Writes the metrics of the coalesced calls
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeSingleFlights( StringBuilder sb )
+    {
+        Map<String, SingleFlight<?, ?>> mapSingleFlights = _identityPickerService.getSingleFlights( );
+
+        writeHeader( sb, "single_flight_calls_total", TYPE_COUNTER, "Calls sent to the identity store after coalescing." );
+        for ( Map.Entry<String, SingleFlight<?, ?>> entry : mapSingleFlights.entrySet( ) )
+        {
+            writeSample( sb, "single_flight_calls_total", LABEL_OPERATION, entry.getKey( ), null, null, entry.getValue( ).getCallCount( ) );
+        }
+
+        writeHeader( sb, "single_flight_coalesced_total", TYPE_COUNTER, "Calls which joined a call already in flight." );
+        for ( Map.Entry<String, SingleFlight<?, ?>> entry : mapSingleFlights.entrySet( ) )
+        {
+            writeSample( sb, "single_flight_coalesced_total", LABEL_OPERATION, entry.getKey( ), null, null, entry.getValue( ).getCoalescedCount( ) );
+        }
+    }
+
+    /**
+     * Writes the metrics of the bulkheads and of their circuit breakers
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeBulkheads( StringBuilder sb )
+    {
+        writeHeader( sb, "bulkhead_limit", TYPE_GAUGE, "Concurrency limit of the bulkheads." );
+        for ( Bulkhead bulkhead : _bulkheadService.getBulkheads( ).values( ) )
+        {
+            writeSample( sb, "bulkhead_limit", LABEL_OPERATION, bulkhead.getName( ), null, null, bulkhead.getLimit( ) );
+        }
+
+        writeHeader( sb, "bulkhead_in_flight", TYPE_GAUGE, "Calls in flight in the bulkheads." );
+        for ( Bulkhead bulkhead : _bulkheadService.getBulkheads( ).values( ) )
+        {
+            writeSample( sb, "bulkhead_in_flight", LABEL_OPERATION, bulkhead.getName( ), null, null, bulkhead.getInFlight( ) );
+        }
+
+        writeHeader( sb, "bulkhead_rejected_total", TYPE_COUNTER, "Calls refused because the bulkhead was full." );
+        for ( Bulkhead bulkhead : _bulkheadService.getBulkheads( ).values( ) )
+        {
+            writeSample( sb, "bulkhead_rejected_total", LABEL_OPERATION, bulkhead.getName( ), null, null, bulkhead.getRejectedCount( ) );
+        }
+
+        writeHeader( sb, "circuit_breaker_state", TYPE_GAUGE, "State of the circuit breakers: 0 closed, 1 open, 2 half open." );
+        for ( Bulkhead bulkhead : _bulkheadService.getBulkheads( ).values( ) )
+        {
+            CircuitBreaker.State state = bulkhead.getCircuitBreaker( ).getState( );
+            writeSample( sb, "circuit_breaker_state", LABEL_OPERATION, bulkhead.getName( ), null, null, state.ordinal( ) );
+        }
+
+        writeHeader( sb, "circuit_breaker_short_circuited_total", TYPE_COUNTER, "Calls refused because the circuit breaker was open." );
+        for ( Bulkhead bulkhead : _bulkheadService.getBulkheads( ).values( ) )
+        {
+            writeSample( sb, "circuit_breaker_short_circuited_total", LABEL_OPERATION, bulkhead.getName( ), null, null,
+                    bulkhead.getCircuitBreaker( ).getShortCircuitedCount( ) );
+        }
+    }
+
+    /**
+     * Writes the metrics of the retries, of the hedged calls and of the access token
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeResilience( StringBuilder sb )
+    {
+        writeHeader( sb, "retries_total", TYPE_COUNTER, "Identity store calls retried." );
+        writeSample( sb, "retries_total", null, null, null, null, _identityStoreCallService.getRetryCount( ) );
+        writeHeader( sb, "retry_budget_exhausted_total", TYPE_COUNTER, "Retries refused because the retry budget was exhausted." );
+        writeSample( sb, "retry_budget_exhausted_total", null, null, null, null, _identityStoreCallService.getRetryBudget( ).getExhaustedCount( ) );
+        writeHeader( sb, "retry_budget_tokens", TYPE_GAUGE, "Tokens left in the retry budget." );
+        writeSample( sb, "retry_budget_tokens", null, null, null, null, _identityStoreCallService.getRetryBudget( ).getTokens( ) );
+        writeHeader( sb, "hedges_total", TYPE_COUNTER, "Hedged identity store calls sent." );
+        writeSample( sb, "hedges_total", null, null, null, null, _identityStoreCallService.getHedgeCount( ) );
+        writeHeader( sb, "hedge_wins_total", TYPE_COUNTER, "Hedged identity store calls which answered first." );
+        writeSample( sb, "hedge_wins_total", null, null, null, null, _identityStoreCallService.getHedgeWinCount( ) );
+        writeHeader( sb, "token_fetches_total", TYPE_COUNTER, "Access tokens fetched from the access manager." );
+        writeSample( sb, "token_fetches_total", null, null, null, null, _tokenProvider.getFetchCount( ) );
+        writeHeader( sb, "token_invalidations_total", TYPE_COUNTER, "Access tokens dropped after a refused call." );
+        writeSample( sb, "token_invalidations_total", null, null, null, null, _tokenProvider.getInvalidationCount( ) );
+    }
+
+    /**
+     * Writes the usage of the thread pools
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeExecutors( StringBuilder sb )
+    {
+        Map<String, ThreadPoolExecutor> mapPools = new LinkedHashMap<>( );
+        addPool( mapPools, "request", _executorService.getRequestExecutor( ) );
+        addPool( mapPools, "worker", _executorService.getWorkerExecutor( ) );
+        addPool( mapPools, "hedge", _executorService.getHedgeExecutor( ) );
+
+        writeHeader( sb, "executor_active_threads", TYPE_GAUGE, "Threads running a task in the pools." );
+        for ( Map.Entry<String, ThreadPoolExecutor> pool : mapPools.entrySet( ) )
+        {
+            writeSample( sb, "executor_active_threads", LABEL_POOL, pool.getKey( ), null, null, pool.getValue( ).getActiveCount( ) );
+        }
+
+        writeHeader( sb, "executor_pool_size", TYPE_GAUGE, "Threads started in the pools." );
+        for ( Map.Entry<String, ThreadPoolExecutor> pool : mapPools.entrySet( ) )
+        {
+            writeSample( sb, "executor_pool_size", LABEL_POOL, pool.getKey( ), null, null, pool.getValue( ).getPoolSize( ) );
+        }
+
+        writeHeader( sb, "executor_queue_size", TYPE_GAUGE, "Tasks waiting for a thread in the pools." );
+        for ( Map.Entry<String, ThreadPoolExecutor> pool : mapPools.entrySet( ) )
+        {
+            writeSample( sb, "executor_queue_size", LABEL_POOL, pool.getKey( ), null, null, pool.getValue( ).getQueue( ).size( ) );
+        }
+    }
+
+    /**
+     * Writes the size and age of the geocode indexes
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeGeocodes( StringBuilder sb )
+    {
+        if ( !_geocodeIndexService.isEnabled( ) )
+        {
+            return;
+        }
+        writeHeader( sb, "geocode_entries", TYPE_GAUGE, "Geocodes held by the autocomplete indexes." );
+        for ( Map.Entry<GeocodeIndexService.GeocodeType, Integer> size : _geocodeIndexService.getSizes( ).entrySet( ) )
+        {
+            writeSample( sb, "geocode_entries", LABEL_TYPE, size.getKey( ).name( ).toLowerCase( Locale.ROOT ), null, null, size.getValue( ) );
+        }
+
+        writeHeader( sb, "geocode_loaded_timestamp_seconds", TYPE_GAUGE, "Time of the last load of the geocodes, 0 if they are not loaded." );
+        writeSample( sb, "geocode_loaded_timestamp_seconds", null, null, null, null, _geocodeIndexService.getLoadedAt( ) / 1000.0 );
+    }
+
+    /**
+     * Writes the readiness of the startup warm-up
+     *
+     * @param sb
+     *            the output
+     */
+    private void writeWarmUp( StringBuilder sb )
+    {
+        IdentityPickerWarmUpService.State state = _warmUpService.getState( );
+        if ( state == IdentityPickerWarmUpService.State.DISABLED )
+        {
+            return;
+        }
+        writeHeader( sb, "warmup_ready", TYPE_GAUGE, "1 once the startup warm-up has completed all its steps." );
+        writeSample( sb, "warmup_ready", null, null, null, null, state == IdentityPickerWarmUpService.State.READY ? 1 : 0 );
+
+        writeHeader( sb, "warmup_failed_steps", TYPE_GAUGE, "Steps of the startup warm-up which failed." );
+        writeSample( sb, "warmup_failed_steps", null, null, null, null, _warmUpService.getFailedSteps( ).size( ) );
+
+        writeHeader( sb, "warmup_duration_seconds", TYPE_GAUGE, "Duration of the startup warm-up, 0 while it is running." );
+        writeSample( sb, "warmup_duration_seconds", null, null, null, null, _warmUpService.getDuration( ) / 1000.0 );
+    }
+
+    /**
+     * Adds a pool to the exported pools if its usage can be read
+     *
+     * @param mapPools
+     *            the exported pools
+     * @param strName
+     *            the pool name
+     * @param executor
+     *            the pool
+     */
+    private static void addPool( Map<String, ThreadPoolExecutor> mapPools, String strName, ExecutorService executor )
+    {
+        if ( executor instanceof ThreadPoolExecutor )
+        {
+            mapPools.put( strName, (ThreadPoolExecutor) executor );
+        }
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric
+     *
+     * @param sb
+     *            the output
+     * @param strName
+     *            the metric name, without prefix
+     * @param strType
+     *            the metric type
+     * @param strHelp
+     *            the description of the metric
+     */
+    private static void writeHeader( StringBuilder sb, String strName, String strType, String strHelp )
+    {
+        sb.append( "# HELP " ).append( PREFIX ).append( strName ).append( ' ' ).append( strHelp ).append( '\n' );
+        sb.append( "# TYPE " ).append( PREFIX ).append( strName ).append( ' ' ).append( strType ).append( '\n' );
+    }
+
+    /**
+     * Writes the buckets, the sum and the count of a histogram
+     *
+     * @param sb
+     *            the output
+     * @param strName
+     *            the metric name, without prefix
+     * @param strLabel
+     *            the name of the label of the histogram
+     * @param strLabelValue
+     *            the value of the label
+     * @param histogram
+     *            the histogram
+     * @param dDivisor
+     *            the divisor converting the recorded values to the exported unit
+     */
+    private static void writeHistogram( StringBuilder sb, String strName, String strLabel, String strLabelValue, Histogram histogram, double dDivisor )
+    {
+        long [ ] bounds = histogram.getBounds( );
+        long lCumulative = 0;
+        for ( int i = 0; i <= bounds.length; i++ )
+        {
+            lCumulative += histogram.getBucketCount( i );
+            String strBound = i < bounds.length ? formatValue( bounds [i] / dDivisor ) : "+Inf";
+            writeSample( sb, strName + "_bucket", strLabel, strLabelValue, "le", strBound, lCumulative );
+        }
+        writeSample( sb, strName + "_sum", strLabel, strLabelValue, null, null, histogram.getSum( ) / dDivisor );
+        writeSample( sb, strName + "_count", strLabel, strLabelValue, null, null, histogram.getCount( ) );
+    }
+
+    /**
+     * Writes a sample with up to two labels
+     *
+     * @param sb
+     *            the output
+     * @param strName
+     *            the metric name, without prefix
+     * @param strLabel1
+     *            the name of the first label, or null
+     * @param strValue1
+     *            the value of the first label
+     * @param strLabel2
+     *            the name of the second label, or null
+     * @param strValue2
+     *            the value of the second label
+     * @param dValue
+     *            the sample value
+     */
+    private static void writeSample( StringBuilder sb, String strName, String strLabel1, String strValue1, String strLabel2, String strValue2,
+            double dValue )
+    {
+        sb.append( PREFIX ).append( strName );
+        if ( strLabel1 != null || strLabel2 != null )
+        {
+            sb.append( '{' );
+            if ( strLabel1 != null )
+            {
+                writeLabel( sb, strLabel1, strValue1 );
+            }
+            if ( strLabel2 != null )
+            {
+                if ( strLabel1 != null )
+                {
+                    sb.append( ',' );
+                }
+                writeLabel( sb, strLabel2, strValue2 );
+            }
+            sb.append( '}' );
+        }
+        sb.append( ' ' ).append( formatValue( dValue ) ).append( '\n' );
+    }
+
+    /**
+     * Writes a label, escaping its value
+     *
+     * @param sb
+     *            the output
+     * @param strName
+     *            the label name
+     * @param strValue
+     *            the label value
+     */
+    private static void writeLabel( StringBuilder sb, String strName, String strValue )
+    {
+        sb.append( strName ).append( "=\"" );
+        for ( int i = 0; i < strValue.length( ); i++ )
+        {
+            char c = strValue.charAt( i );
+            switch( c )
+            {
+                case '\\':
+                    sb.append( "\\\\" );
+                    break;
+                case '"':
+                    sb.append( "\\\"" );
+                    break;
+                case '\n':
+                    sb.append( "\\n" );
+                    break;
+                default:
+                    sb.append( c );
+            }
+        }
+        sb.append( '"' );
+    }
+
+    /**
+     * Formats a sample value, without a fraction when the value is integral
+     *
+     * @param dValue
+     *            the value
+     * @return the formatted value
+     */
+    private static String formatValue( double dValue )
+    {
+        if ( dValue == Math.rint( dValue ) && Math.abs( dValue ) < 1e15 )
+        {
+            return Long.toString( (long) dValue );
+        }
+        return Double.toString( dValue );
+    }
+}
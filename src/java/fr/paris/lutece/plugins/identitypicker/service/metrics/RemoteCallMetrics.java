@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a kind of identity store call: latency, and failures by exception type
+ */
+public class RemoteCallMetrics
+{
+    private final String _strName;
+    private final Histogram _latency = new Histogram( Histogram.LATENCY_BOUNDS );
+    private final Map<Class<?>, LongAdder> _mapErrors = new ConcurrentHashMap<>( );
+
+    /**
+     * Constructor
+     *
+     * @param strName
+     *            the call name
+     */
+    public RemoteCallMetrics( String strName )
+    {
+        _strName = strName;
+    }
+
+    /**
+     * Records a failed call
+     *
+     * @param error
+     *            the exception of the call
+     */
+    public void recordError( Throwable error )
+    {
+        LongAdder counter = _mapErrors.get( error.getClass( ) );
+        if ( counter == null )
+        {
+            counter = _mapErrors.computeIfAbsent( error.getClass( ), type -> new LongAdder( ) );
+        }
+        counter.increment( );
+    }
+
+    /**
+     * Gets the call name
+     *
+     * @return the name
+     */
+    public String getName( )
+    {
+        return _strName;
+    }
+
+    /**
+     * Gets the latency histogram of the calls, successful or not, in nanoseconds
+     *
+     * @return the latency histogram
+     */
+    public Histogram getLatency( )
+    {
+        return _latency;
+    }
+
+    /**
+     * Gets the failure counters by exception type
+     *
+     * @return the failure counters
+     */
+    public Map<Class<?>, LongAdder> getErrors( )
+    {
+        return Collections.unmodifiableMap( _mapErrors );
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rbac;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerResourceService;
+
+/**
+ * The identity picker permissions of an admin user, resolved once: one bit per permission of {@link IdentityPickerResourceService}.
+ */
+public final class PermissionSnapshot
+{
+    /**
+     * The snapshot of a user without any permission
+     */
+    public static final PermissionSnapshot NONE = new PermissionSnapshot( 0 );
+
+    private static final List<String> PERMISSIONS = List.of( IdentityPickerResourceService.PERMISSION_SEARCH, IdentityPickerResourceService.PERMISSION_CREATE,
+            IdentityPickerResourceService.PERMISSION_UPDATE, IdentityPickerResourceService.PERMISSION_VIEW,
+            IdentityPickerResourceService.PERMISSION_CREATE_TASK );
+
+    private final int _nBits;
+
+    /**
+     * Constructor
+     *
+     * @param nBits
+     *            the permission bits
+     */
+    private PermissionSnapshot( int nBits )
+    {
+        _nBits = nBits;
+    }
+
+    /**
+     * Resolves the snapshot of a user
+     *
+     * @param isAuthorized
+     *            tells whether the user has a permission
+     * @return the snapshot
+     */
+    public static PermissionSnapshot resolve( Predicate<String> isAuthorized )
+    {
+        int nBits = 0;
+        for ( int i = 0; i < PERMISSIONS.size( ); i++ )
+        {
+            if ( isAuthorized.test( PERMISSIONS.get( i ) ) )
+            {
+                nBits |= 1 << i;
+            }
+        }
+        return new PermissionSnapshot( nBits );
+    }
+
+    /**
+     * Tells whether the user has a permission
+     *
+     * @param strPermission
+     *            the permission
+     * @return true if the user has the permission, false otherwise or if the permission is unknown
+     */
+    public boolean has( String strPermission )
+    {
+        int nIndex = PERMISSIONS.indexOf( strPermission );
+        return nIndex >= 0 && ( _nBits & ( 1 << nIndex ) ) != 0;
+    }
+
+    /**
+     * Tells whether the user has at least one of the permissions
+     *
+     * @param permissions
+     *            the permissions
+     * @return true if the user has one of the permissions
+     */
+    public boolean hasAny( String... permissions )
+    {
+        for ( String strPermission : permissions )
+        {
+            if ( has( strPermission ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the permissions as a map sorted by permission
+     *
+     * @return the map of each permission to whether the user has it
+     */
+    public Map<String, Boolean> toMap( )
+    {
+        Map<String, Boolean> permissions = new TreeMap<>( );
+        for ( String strPermission : PERMISSIONS )
+        {
+            permissions.put( strPermission, has( strPermission ) );
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rbac;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.api.user.User;
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerResourceService;
+import fr.paris.lutece.plugins.identitypicker.service.cache.TimedCache;
+import fr.paris.lutece.portal.business.rbac.RBAC;
+import fr.paris.lutece.portal.business.user.AdminUser;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.rbac.RBACService;
+
+/**
+ * Resolves and caches the {@link PermissionSnapshot} of the admin users.
+ *
+ * Snapshots are keyed by user and roles: a change of the roles of a user gives a new key, so it applies on the next request. A change of the
+ * permissions granted to a role applies after at most the time to live, or at once through {@link #invalidateAll()}. The cache is registered as a
+ * Lutece cache, so that resetting the caches from the administration also applies a change of the permissions at once.
+ */
+@ApplicationScoped
+@Named( "identitypicker.permissionSnapshotService" )
+public class PermissionSnapshotService extends AbstractCacheableService<String, PermissionSnapshot>
+{
+    private static final String CACHE_NAME = "IdentityPickerPermissionsCache";
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.permissions.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.permissions.ttl", defaultValue = "60" )
+    private long _lTtlSeconds;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.cache.permissions.maxSize", defaultValue = "1000" )
+    private int _nMaxSize;
+
+    private TimedCache<String, PermissionSnapshot> _cache;
+
+    /**
+     * Creates the cache once the configuration is injected, and registers it
+     */
+    @PostConstruct
+    void init( )
+    {
+        _cache = new TimedCache<>( _nMaxSize, TimeUnit.SECONDS.toMillis( _lTtlSeconds ) );
+        initCache( );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName( )
+    {
+        return CACHE_NAME;
+    }
+
+    /**
+     * Empties the cache along with the other Lutece caches
+     */
+    @Override
+    public void resetCache( )
+    {
+        super.resetCache( );
+        invalidateAll( );
+    }
+
+    /**
+     * Gets the permissions of an admin user
+     *
+     * @param adminUser
+     *            the admin user, or null
+     * @return the snapshot of the permissions, {@link PermissionSnapshot#NONE} if there is no user
+     */
+    public PermissionSnapshot getSnapshot( AdminUser adminUser )
+    {
+        if ( adminUser == null )
+        {
+            return PermissionSnapshot.NONE;
+        }
+        if ( !_bEnabled )
+        {
+            return resolve( adminUser );
+        }
+        String strKey = adminUser.getUserId( ) + ":" + String.join( ",", new TreeSet<>( adminUser.getRoles( ).keySet( ) ) );
+        PermissionSnapshot snapshot = _cache.get( strKey );
+        if ( snapshot == null )
+        {
+            snapshot = resolve( adminUser );
+            _cache.put( strKey, snapshot );
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops all the snapshots, after a change of the permissions granted to the roles
+     */
+    public void invalidateAll( )
+    {
+        _cache.clear( );
+    }
+
+    /**
+     * Resolves the permissions of an admin user with RBAC
+     *
+     * @param adminUser
+     *            the admin user
+     * @return the snapshot of the permissions
+     */
+    private static PermissionSnapshot resolve( AdminUser adminUser )
+    {
+        return PermissionSnapshot.resolve( strPermission -> RBACService.isAuthorized( IdentityPickerResourceService.RESOURCE_TYPE,
+                RBAC.WILDCARD_RESOURCES_ID, strPermission, (User) adminUser ) );
+    }
+
+    /**
+     * Gets the number of snapshots served from the cache
+     *
+     * @return the hit count
+     */
+    public long getHitCount( )
+    {
+        return _cache.getHitCount( );
+    }
+
+    /**
+     * Gets the number of snapshots resolved with RBAC while the cache is enabled
+     *
+     * @return the miss count
+     */
+    public long getMissCount( )
+    {
+        return _cache.getMissCount( );
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+
+/**
+ * Bulkhead of a class of identity store calls: bounds the number of calls in flight, so that a burst of slow calls cannot take every
+ * connection and thread used by the other classes.
+ *
+ * The bound adapts to the observed latency (AIMD): it grows by one each time a full limit of calls completed under the latency threshold while
+ * the bulkhead was busy, and it is cut by the backoff ratio when a call is slower than the threshold or fails. The calls in flight when the
+ * identity store slows down all complete late: the bound is cut at most once per window of a limit's worth of completions, so that one burst
+ * does not collapse it to its minimum. Calls beyond the bound are refused, never queued. A {@link CircuitBreaker} refuses every call while the identity store keeps failing.
+ */
+public class Bulkhead
+{
+    private final String _strName;
+    private final int _nMinLimit;
+    private final int _nMaxLimit;
+    private final long _lLatencyThresholdNanos;
+    private final double _dBackoffRatio;
+    private final CircuitBreaker _circuitBreaker;
+    private final LongAdder _rejectedCount = new LongAdder( );
+    private double _dLimit;
+    private int _nInFlight;
+    private long _lCompletionsSinceDecrease;
+
+    /**
+     * Constructor
+     *
+     * @param strName
+     *            the name of the class of calls
+     * @param nInitialLimit
+     *            the initial limit of calls in flight
+     * @param nMinLimit
+     *            the lowest limit
+     * @param nMaxLimit
+     *            the highest limit
+     * @param lLatencyThresholdMillis
+     *            the latency above which the limit is decreased, in milliseconds
+     * @param dBackoffRatio
+     *            the ratio applied to the limit when it is decreased, between 0 and 1
+     * @param circuitBreaker
+     *            the circuit breaker of the calls
+     */
+    public Bulkhead( String strName, int nInitialLimit, int nMinLimit, int nMaxLimit, long lLatencyThresholdMillis, double dBackoffRatio,
+            CircuitBreaker circuitBreaker )
+    {
+        _strName = strName;
+        _nMinLimit = Math.max( 1, nMinLimit );
+        _nMaxLimit = Math.max( _nMinLimit, nMaxLimit );
+        _dLimit = Math.min( _nMaxLimit, Math.max( _nMinLimit, nInitialLimit ) );
+        // The first slow call cuts the limit right away
+        _lCompletionsSinceDecrease = (long) _dLimit;
+        _lLatencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos( lLatencyThresholdMillis );
+        _dBackoffRatio = dBackoffRatio;
+        _circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Runs a call within the bulkhead
+     *
+     * @param <V>
+     *            the result type
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreUnavailableException
+     *             if the call is refused because the bulkhead is full or the circuit breaker is open
+     * @throws IdentityStoreException
+     *             if the call fails
+     */
+    public <V> V execute( SingleFlight.Call<V> call ) throws IdentityStoreException
+    {
+        if ( !_circuitBreaker.tryAcquire( ) )
+        {
+            throw new IdentityStoreUnavailableException( "The identity store is unavailable for " + _strName + " calls. Please try again later." );
+        }
+        if ( !tryAcquire( ) )
+        {
+            _circuitBreaker.onCancel( );
+            _rejectedCount.increment( );
+            throw new IdentityStoreUnavailableException( "Too many concurrent " + _strName + " calls to the identity store. Please try again later." );
+        }
+
+        long lStart = System.nanoTime( );
+        boolean bSuccess = false;
+        try
+        {
+            V result = call.call( );
+            bSuccess = true;
+            return result;
+        }
+        finally
+        {
+            release( System.nanoTime( ) - lStart, bSuccess );
+            if ( bSuccess )
+            {
+                _circuitBreaker.onSuccess( );
+            }
+            else
+            {
+                _circuitBreaker.onFailure( );
+            }
+        }
+    }
+
+    /**
+     * Takes a slot if the limit is not reached
+     *
+     * @return true if a slot was taken
+     */
+    private synchronized boolean tryAcquire( )
+    {
+        if ( _nInFlight >= (int) _dLimit )
+        {
+            return false;
+        }
+        _nInFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a slot and adapts the limit to the outcome of the call
+     *
+     * @param lLatencyNanos
+     *            the latency of the call
+     * @param bSuccess
+     *            whether the call succeeded
+     */
+    private synchronized void release( long lLatencyNanos, boolean bSuccess )
+    {
+        // The limit only grows when it was actually used, otherwise an idle bulkhead would drift to its maximum
+        boolean bBusy = _nInFlight * 2 >= (int) _dLimit;
+        _nInFlight--;
+        _lCompletionsSinceDecrease++;
+        if ( !bSuccess || lLatencyNanos > _lLatencyThresholdNanos )
+        {
+            // The other slow calls of the same window started before the cut and tell nothing about the new limit
+            if ( _lCompletionsSinceDecrease >= (int) _dLimit )
+            {
+                _dLimit = Math.max( _nMinLimit, _dLimit * _dBackoffRatio );
+                _lCompletionsSinceDecrease = 0;
+            }
+        }
+        else
+            if ( bBusy )
+            {
+                _dLimit = Math.min( _nMaxLimit, _dLimit + 1.0 / _dLimit );
+            }
+    }
+
+    /**
+     * Gets the name of the class of calls
+     *
+     * @return the name
+     */
+    public String getName( )
+    {
+        return _strName;
+    }
+
+    /**
+     * Gets the current limit of calls in flight
+     *
+     * @return the limit
+     */
+    public synchronized int getLimit( )
+    {
+        return (int) _dLimit;
+    }
+
+    /**
+     * Gets the number of calls in flight
+     *
+     * @return the calls in flight
+     */
+    public synchronized int getInFlight( )
+    {
+        return _nInFlight;
+    }
+
+    /**
+     * Gets the number of calls refused because the limit was reached
+     *
+     * @return the rejected call count
+     */
+    public long getRejectedCount( )
+    {
+        return _rejectedCount.sum( );
+    }
+
+    /**
+     * Gets the circuit breaker of the calls
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker( )
+    {
+        return _circuitBreaker;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+
+/**
+ * Isolates the classes of identity store calls from each other: each {@link IdentityStoreOperation} has its own {@link Bulkhead} and
+ * {@link CircuitBreaker}, so that a burst of expensive searches cannot starve the cheap reads.
+ *
+ * The limits of an operation are read from the properties identitypicker.bulkhead.&lt;operation&gt;.initialLimit, .minLimit, .maxLimit and
+ * .latencyThreshold (in milliseconds).
+ */
+@ApplicationScoped
+@Named( "identitypicker.bulkheadService" )
+public class BulkheadService
+{
+    private static final String PROPERTY_PREFIX = "identitypicker.bulkhead.";
+    private static final String PROPERTY_INITIAL_LIMIT = ".initialLimit";
+    private static final String PROPERTY_MIN_LIMIT = ".minLimit";
+    private static final String PROPERTY_MAX_LIMIT = ".maxLimit";
+    private static final String PROPERTY_LATENCY_THRESHOLD = ".latencyThreshold";
+
+    @Inject
+    private Config _config;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.bulkhead.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.bulkhead.backoffRatio", defaultValue = "0.9" )
+    private double _dBackoffRatio;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.breaker.failureThreshold", defaultValue = "5" )
+    private int _nFailureThreshold;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.breaker.openDuration", defaultValue = "30000" )
+    private long _lOpenDuration;
+
+    private final Map<IdentityStoreOperation, Bulkhead> _mapBulkheads = new EnumMap<>( IdentityStoreOperation.class );
+
+    /**
+     * Creates the bulkheads once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        for ( IdentityStoreOperation operation : IdentityStoreOperation.values( ) )
+        {
+            String strPrefix = PROPERTY_PREFIX + operation.getKey( );
+            _mapBulkheads.put( operation, new Bulkhead( operation.getKey( ),
+                    _config.getOptionalValue( strPrefix + PROPERTY_INITIAL_LIMIT, Integer.class ).orElse( operation.getInitialLimit( ) ),
+                    _config.getOptionalValue( strPrefix + PROPERTY_MIN_LIMIT, Integer.class ).orElse( operation.getMinLimit( ) ),
+                    _config.getOptionalValue( strPrefix + PROPERTY_MAX_LIMIT, Integer.class ).orElse( operation.getMaxLimit( ) ),
+                    _config.getOptionalValue( strPrefix + PROPERTY_LATENCY_THRESHOLD, Long.class ).orElse( operation.getLatencyThreshold( ) ),
+                    _dBackoffRatio, new CircuitBreaker( _nFailureThreshold, _lOpenDuration ) ) );
+        }
+    }
+
+    /**
+     * Runs an identity store call within the bulkhead of its operation
+     *
+     * @param <V>
+     *            the result type
+     * @param operation
+     *            the class of the call
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreUnavailableException
+     *             if the call is refused because the bulkhead is full or the circuit breaker is open
+     * @throws IdentityStoreException
+     *             if the call fails
+     */
+    public <V> V execute( IdentityStoreOperation operation, SingleFlight.Call<V> call ) throws IdentityStoreException
+    {
+        if ( !_bEnabled )
+        {
+            return call.call( );
+        }
+        return _mapBulkheads.get( operation ).execute( call );
+    }
+
+    /**
+     * Gets the bulkheads by operation, for monitoring
+     *
+     * @return the bulkheads
+     */
+    public Map<IdentityStoreOperation, Bulkhead> getBulkheads( )
+    {
+        return Collections.unmodifiableMap( _mapBulkheads );
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker of a class of identity store calls. After a number of consecutive failures, the breaker opens and the calls are refused
+ * without being sent. Once the open duration has elapsed, a single trial call is let through: its success closes the breaker, its failure opens
+ * it again.
+ */
+public class CircuitBreaker
+{
+    /**
+     * State of the breaker
+     */
+    public enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int _nFailureThreshold;
+    private final long _lOpenDurationNanos;
+    private final LongAdder _shortCircuitedCount = new LongAdder( );
+    private State _state = State.CLOSED;
+    private int _nConsecutiveFailures;
+    private long _lOpenedAt;
+    private boolean _bTrialInFlight;
+
+    /**
+     * Constructor
+     *
+     * @param nFailureThreshold
+     *            the number of consecutive failures opening the breaker
+     * @param lOpenDurationMillis
+     *            the time the breaker stays open before a trial call, in milliseconds
+     */
+    public CircuitBreaker( int nFailureThreshold, long lOpenDurationMillis )
+    {
+        _nFailureThreshold = Math.max( 1, nFailureThreshold );
+        _lOpenDurationNanos = TimeUnit.MILLISECONDS.toNanos( lOpenDurationMillis );
+    }
+
+    /**
+     * Checks whether a call may be sent. When the open duration has elapsed, the first caller gets the trial call.
+     *
+     * @return true if the call may be sent, false if it must be refused
+     */
+    public synchronized boolean tryAcquire( )
+    {
+        if ( _state == State.OPEN && System.nanoTime( ) - _lOpenedAt >= _lOpenDurationNanos )
+        {
+            _state = State.HALF_OPEN;
+            _bTrialInFlight = false;
+        }
+        if ( _state == State.CLOSED || ( _state == State.HALF_OPEN && !_bTrialInFlight ) )
+        {
+            _bTrialInFlight = _state == State.HALF_OPEN;
+            return true;
+        }
+        _shortCircuitedCount.increment( );
+        return false;
+    }
+
+    /**
+     * Records a successful call
+     */
+    public synchronized void onSuccess( )
+    {
+        _nConsecutiveFailures = 0;
+        _bTrialInFlight = false;
+        _state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed call
+     */
+    public synchronized void onFailure( )
+    {
+        _nConsecutiveFailures++;
+        _bTrialInFlight = false;
+        if ( _state == State.HALF_OPEN || _nConsecutiveFailures >= _nFailureThreshold )
+        {
+            _state = State.OPEN;
+            _lOpenedAt = System.nanoTime( );
+        }
+    }
+
+    /**
+     * Releases a call let through but finally not sent, so that another caller can get the trial call
+     */
+    public synchronized void onCancel( )
+    {
+        _bTrialInFlight = false;
+    }
+
+    /**
+     * Gets the state of the breaker
+     *
+     * @return the state
+     */
+    public synchronized State getState( )
+    {
+        return _state;
+    }
+
+    /**
+     * Gets the number of calls refused because the breaker was open
+     *
+     * @return the short circuited call count
+     */
+    public long getShortCircuitedCount( )
+    {
+        return _shortCircuitedCount.sum( );
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.Locale;
+
+/**
+ * The identity store calls of the picker, each in the {@link IdentityStoreOperation} deciding its bulkhead, retries and hedging
+ */
+public enum IdentityStoreCall
+{
+    SEARCH( IdentityStoreOperation.SEARCH ),
+    GET_IDENTITY( IdentityStoreOperation.READ ),
+    CREATE_IDENTITY( IdentityStoreOperation.WRITE ),
+    UPDATE_IDENTITY( IdentityStoreOperation.WRITE ),
+    GET_HISTORY( IdentityStoreOperation.HISTORY ),
+    GET_TASKS( IdentityStoreOperation.HISTORY ),
+    CREATE_TASK( IdentityStoreOperation.WRITE ),
+    GET_PROCESS_LIST( IdentityStoreOperation.REFERENTIAL ),
+    GET_LEVEL_LIST( IdentityStoreOperation.REFERENTIAL ),
+    GET_ATTRIBUTE_KEY_LIST( IdentityStoreOperation.REFERENTIAL ),
+    GET_SERVICE_CONTRACT( IdentityStoreOperation.REFERENTIAL );
+
+    private final IdentityStoreOperation _operation;
+
+    IdentityStoreCall( IdentityStoreOperation operation )
+    {
+        _operation = operation;
+    }
+
+    /**
+     * Gets the operation of the call
+     *
+     * @return the operation
+     */
+    public IdentityStoreOperation getOperation( )
+    {
+        return _operation;
+    }
+
+    /**
+     * Gets the key of the call in the metrics
+     *
+     * @return the key
+     */
+    public String getKey( )
+    {
+        return name( ).toLowerCase( Locale.ROOT );
+    }
+}
@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitypicker.service.metrics.MetricsRegistry;
+import fr.paris.lutece.plugins.identitypicker.service.metrics.RemoteCallMetrics;
+import fr.paris.lutece.plugins.identitypicker.service.token.AccessTokenProvider;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.util.httpaccess.HttpAccessException;
+
+/**
+ * Sends the identity store calls according to their {@link IdentityStoreOperation}:
+ * <ul>
+ * <li>every attempt goes through the bulkhead of the operation;</li>
+ * <li>idempotent calls failing on a transient HTTP error are retried with a jittered exponential backoff, within a {@link RetryBudget} shared
+ * by all the calls;</li>
+ * <li>when hedging is enabled, a hedgeable call slower than a percentile of the recent latencies gets a second attempt, and the first
+ * successful answer wins.</li>
+ * </ul>
+ * Writes are sent once, as is. Any call rejected with 401 is sent again once with a new access manager token: the access manager rejects it
+ * before the identity store processes it, so this holds for writes too.
+ */
+@ApplicationScoped
+@Named( "identitypicker.identityStoreCallService" )
+public class IdentityStoreCallService
+{
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int NO_HTTP_ERROR = Integer.MIN_VALUE;
+
+    @Inject
+    @Named( "identitypicker.bulkheadService" )
+    private BulkheadService _bulkheadService;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    @Inject
+    @Named( "identitypicker.accessTokenProvider" )
+    private AccessTokenProvider _tokenProvider;
+
+    @Inject
+    @Named( "identitypicker.metricsRegistry" )
+    private MetricsRegistry _metricsRegistry;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.retry.enabled", defaultValue = "true" )
+    private boolean _bRetryEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.retry.maxAttempts", defaultValue = "3" )
+    private int _nMaxAttempts;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.retry.backoff", defaultValue = "100" )
+    private long _lBackoff;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.retry.budget.capacity", defaultValue = "20" )
+    private double _dBudgetCapacity;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.retry.budget.ratio", defaultValue = "0.1" )
+    private double _dBudgetRatio;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.hedge.enabled", defaultValue = "false" )
+    private boolean _bHedgeEnabled;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.hedge.percentile", defaultValue = "95" )
+    private double _dHedgePercentile;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.hedge.minDelay", defaultValue = "20" )
+    private long _lHedgeMinDelay;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.hedge.minSamples", defaultValue = "50" )
+    private int _nHedgeMinSamples;
+
+    private final Map<IdentityStoreOperation, LatencyTracker> _mapLatencies = new EnumMap<>( IdentityStoreOperation.class );
+    private final LongAdder _retryCount = new LongAdder( );
+    private final LongAdder _hedgeCount = new LongAdder( );
+    private final LongAdder _hedgeWinCount = new LongAdder( );
+    private RetryBudget _retryBudget;
+
+    /**
+     * Creates the retry budget and the latency trackers once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _retryBudget = new RetryBudget( _dBudgetCapacity, _dBudgetRatio );
+        for ( IdentityStoreOperation operation : IdentityStoreOperation.values( ) )
+        {
+            _mapLatencies.put( operation, new LatencyTracker( LATENCY_SAMPLES ) );
+        }
+    }
+
+    /**
+     * Sends an identity store call according to its operation, and records its latency and failures
+     *
+     * @param <V>
+     *            the result type
+     * @param identityStoreCall
+     *            the kind of call
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreUnavailableException
+     *             if the call is refused because the bulkhead is full or the circuit breaker is open
+     * @throws IdentityStoreException
+     *             if the call fails
+     */
+    public <V> V execute( IdentityStoreCall identityStoreCall, SingleFlight.Call<V> call ) throws IdentityStoreException
+    {
+        if ( !_metricsRegistry.isEnabled( ) )
+        {
+            return execute( identityStoreCall.getOperation( ), call );
+        }
+        RemoteCallMetrics metrics = _metricsRegistry.getRemoteCall( identityStoreCall );
+        long lStart = System.nanoTime( );
+        try
+        {
+            return execute( identityStoreCall.getOperation( ), call );
+        }
+        catch( IdentityStoreException | RuntimeException e )
+        {
+            metrics.recordError( e );
+            throw e;
+        }
+        finally
+        {
+            metrics.getLatency( ).observe( System.nanoTime( ) - lStart );
+        }
+    }
+
+    /**
+     * Sends an identity store call according to its operation
+     *
+     * @param <V>
+     *            the result type
+     * @param operation
+     *            the class of the call
+     * @param call
+     *            the call
+     * @return the result of the call
+     * @throws IdentityStoreException
+     *             if the call fails or is refused
+     */
+    private <V> V execute( IdentityStoreOperation operation, SingleFlight.Call<V> call ) throws IdentityStoreException
+    {
+        SingleFlight.Call<V> authenticated = _tokenProvider.isEnabled( ) ? withTokenRenewal( call ) : call;
+        SingleFlight.Call<V> attempt = ( ) -> _bulkheadService.execute( operation, authenticated );
+        if ( !operation.isIdempotent( ) )
+        {
+            return attempt.call( );
+        }
+        if ( _bHedgeEnabled && operation.isHedgeable( ) )
+        {
+            SingleFlight.Call<V> single = timed( operation, attempt );
+            attempt = ( ) -> hedge( operation, single );
+        }
+        return _bRetryEnabled ? retry( attempt ) : attempt.call( );
+    }
+
+    /**
+     * Sends a call again while it fails on a transient error, as long as the attempts and the retry budget allow it
+     *
+     * @param <V>
+     *            the result type
+     * @param attempt
+     *            the attempt
+     * @return the result of the first successful attempt
+     * @throws IdentityStoreException
+     *             the exception of the last attempt
+     */
+    private <V> V retry( SingleFlight.Call<V> attempt ) throws IdentityStoreException
+    {
+        _retryBudget.deposit( );
+        for ( int nAttempt = 1;; nAttempt++ )
+        {
+            try
+            {
+                return attempt.call( );
+            }
+            catch( IdentityStoreException e )
+            {
+                if ( nAttempt >= _nMaxAttempts || !isTransient( e ) || !_retryBudget.tryWithdraw( ) )
+                {
+                    throw e;
+                }
+                _retryCount.increment( );
+                AppLogService.debug( "Retrying an identity store call after a transient error: {}", e.getMessage( ) );
+                backoff( nAttempt );
+            }
+        }
+    }
+
+    /**
+     * Waits before a retry: a random delay up to the base backoff doubled at each attempt ("full jitter"), so that the retries of concurrent
+     * callers are spread
+     *
+     * @param nAttempt
+     *            the number of the failed attempt, from 1
+     * @throws IdentityStoreException
+     *             if the thread is interrupted
+     */
+    private void backoff( int nAttempt ) throws IdentityStoreException
+    {
+        long lMaxDelay = _lBackoff << Math.min( nAttempt - 1, 10 );
+        try
+        {
+            Thread.sleep( ThreadLocalRandom.current( ).nextLong( lMaxDelay + 1 ) );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while waiting to retry an identity store call", e );
+        }
+    }
+
+    /**
+     * Wraps a call so that it is sent again once with a new token when its token is rejected
+     *
+     * @param <V>
+     *            the result type
+     * @param call
+     *            the call
+     * @return the wrapped call
+     */
+    private <V> SingleFlight.Call<V> withTokenRenewal( SingleFlight.Call<V> call )
+    {
+        return ( ) -> {
+            long lStart = System.nanoTime( );
+            try
+            {
+                return call.call( );
+            }
+            catch( IdentityStoreException e )
+            {
+                if ( getResponseCode( e ) != HttpServletResponse.SC_UNAUTHORIZED )
+                {
+                    throw e;
+                }
+                _tokenProvider.invalidate( lStart );
+                return call.call( );
+            }
+        };
+    }
+
+    /**
+     * Tells whether a call failed on an error which may not happen again: no response, too many requests or a server error
+     *
+     * @param e
+     *            the exception of the call
+     * @return true if the error is transient
+     */
+    static boolean isTransient( IdentityStoreException e )
+    {
+        int nResponseCode = getResponseCode( e );
+        return nResponseCode != NO_HTTP_ERROR
+                && ( nResponseCode <= 0 || nResponseCode == HTTP_TOO_MANY_REQUESTS || nResponseCode >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+    }
+
+    /**
+     * Gets the HTTP response code of a failed call
+     *
+     * @param e
+     *            the exception of the call
+     * @return the response code, 0 or less if no response was received, or {@link #NO_HTTP_ERROR} if the call did not fail on an HTTP error
+     */
+    private static int getResponseCode( IdentityStoreException e )
+    {
+        for ( Throwable cause = e.getCause( ); cause != null; cause = cause.getCause( ) )
+        {
+            if ( cause instanceof HttpAccessException )
+            {
+                return ( (HttpAccessException) cause ).getResponseCode( );
+            }
+        }
+        return NO_HTTP_ERROR;
+    }
+
+    /**
+     * Wraps an attempt so that the latency of its successes is recorded
+     *
+     * @param <V>
+     *            the result type
+     * @param operation
+     *            the class of the call
+     * @param attempt
+     *            the attempt
+     * @return the timed attempt
+     */
+    private <V> SingleFlight.Call<V> timed( IdentityStoreOperation operation, SingleFlight.Call<V> attempt )
+    {
+        LatencyTracker latencies = _mapLatencies.get( operation );
+        return ( ) -> {
+            long lStart = System.nanoTime( );
+            V result = attempt.call( );
+            latencies.record( System.nanoTime( ) - lStart );
+            return result;
+        };
+    }
+
+    /**
+     * Sends an attempt, and a second one if the first has not answered after the hedging delay. The first successful answer is returned; the
+     * other attempt completes in background and its result is dropped.
+     *
+     * @param <V>
+     *            the result type
+     * @param operation
+     *            the class of the call
+     * @param attempt
+     *            the attempt
+     * @return the first successful answer
+     * @throws IdentityStoreException
+     *             the exception of the last attempt, when all attempts fail
+     */
+    private <V> V hedge( IdentityStoreOperation operation, SingleFlight.Call<V> attempt ) throws IdentityStoreException
+    {
+        long lDelay = _mapLatencies.get( operation ).getPercentile( _dHedgePercentile, _nHedgeMinSamples );
+        if ( lDelay < 0 )
+        {
+            // Not enough samples yet to know what a slow call is
+            return attempt.call( );
+        }
+        lDelay = Math.max( lDelay, TimeUnit.MILLISECONDS.toNanos( _lHedgeMinDelay ) );
+
+        CompletableFuture<V> primary;
+        try
+        {
+            primary = submit( attempt );
+        }
+        catch( RejectedExecutionException e )
+        {
+            return attempt.call( );
+        }
+        try
+        {
+            return primary.get( lDelay, TimeUnit.NANOSECONDS );
+        }
+        catch( TimeoutException e )
+        {
+            // The primary attempt is slow: hedge below
+        }
+        catch( ExecutionException e )
+        {
+            throw unwrap( e );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while waiting for the identity store", e );
+        }
+
+        CompletableFuture<V> hedged;
+        try
+        {
+            hedged = submit( attempt );
+        }
+        catch( RejectedExecutionException e )
+        {
+            hedged = null;
+        }
+        if ( hedged == null )
+        {
+            return join( primary );
+        }
+        _hedgeCount.increment( );
+        return join( firstSuccess( primary, hedged ) );
+    }
+
+    /**
+     * Submits an attempt to the hedge executor
+     *
+     * @param <V>
+     *            the result type
+     * @param attempt
+     *            the attempt
+     * @return the pending attempt
+     */
+    private <V> CompletableFuture<V> submit( SingleFlight.Call<V> attempt )
+    {
+        CompletableFuture<V> future = new CompletableFuture<>( );
+        _executorService.getHedgeExecutor( ).execute( ( ) -> {
+            try
+            {
+                future.complete( attempt.call( ) );
+            }
+            catch( Throwable e )
+            {
+                future.completeExceptionally( e );
+            }
+        } );
+        return future;
+    }
+
+    /**
+     * Combines two attempts into a future completed by the first success, or by the last failure when both attempts fail
+     *
+     * @param <V>
+     *            the result type
+     * @param primary
+     *            the primary attempt
+     * @param hedged
+     *            the hedged attempt
+     * @return the combined future
+     */
+    private <V> CompletableFuture<V> firstSuccess( CompletableFuture<V> primary, CompletableFuture<V> hedged )
+    {
+        CompletableFuture<V> first = new CompletableFuture<>( );
+        AtomicInteger nPending = new AtomicInteger( 2 );
+        primary.whenComplete( onComplete( first, nPending, null ) );
+        hedged.whenComplete( onComplete( first, nPending, _hedgeWinCount ) );
+        return first;
+    }
+
+    /**
+     * Builds the completion handler of an attempt combined by {@link #firstSuccess(CompletableFuture, CompletableFuture)}
+     *
+     * @param <V>
+     *            the result type
+     * @param first
+     *            the combined future
+     * @param nPending
+     *            the number of attempts not completed yet
+     * @param winCount
+     *            the counter incremented when this attempt is the first success, or null
+     * @return the completion handler
+     */
+    private static <V> BiConsumer<V, Throwable> onComplete( CompletableFuture<V> first, AtomicInteger nPending, LongAdder winCount )
+    {
+        return ( result, e ) -> {
+            if ( e == null )
+            {
+                if ( first.complete( result ) && winCount != null )
+                {
+                    winCount.increment( );
+                }
+            }
+            else
+                if ( nPending.decrementAndGet( ) == 0 )
+                {
+                    first.completeExceptionally( e );
+                }
+        };
+    }
+
+    /**
+     * Waits for a pending attempt
+     *
+     * @param <V>
+     *            the result type
+     * @param future
+     *            the pending attempt
+     * @return the result
+     * @throws IdentityStoreException
+     *             the exception of the attempt
+     */
+    private static <V> V join( CompletableFuture<V> future ) throws IdentityStoreException
+    {
+        try
+        {
+            return future.get( );
+        }
+        catch( ExecutionException e )
+        {
+            throw unwrap( e );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while waiting for the identity store", e );
+        }
+    }
+
+    /**
+     * Gets the exception of a failed attempt
+     *
+     * @param e
+     *            the execution exception
+     * @return the identity store exception to throw
+     */
+    private static IdentityStoreException unwrap( ExecutionException e )
+    {
+        Throwable cause = e.getCause( );
+        if ( cause instanceof IdentityStoreException )
+        {
+            return (IdentityStoreException) cause;
+        }
+        if ( cause instanceof RuntimeException )
+        {
+            throw (RuntimeException) cause;
+        }
+        if ( cause instanceof Error )
+        {
+            throw (Error) cause;
+        }
+        return new IdentityStoreException( cause.getMessage( ), cause );
+    }
+
+    /**
+     * Gets the number of retries sent
+     *
+     * @return the retry count
+     */
+    public long getRetryCount( )
+    {
+        return _retryCount.sum( );
+    }
+
+    /**
+     * Gets the number of hedged attempts sent
+     *
+     * @return the hedge count
+     */
+    public long getHedgeCount( )
+    {
+        return _hedgeCount.sum( );
+    }
+
+    /**
+     * Gets the number of calls answered by their hedged attempt
+     *
+     * @return the hedge win count
+     */
+    public long getHedgeWinCount( )
+    {
+        return _hedgeWinCount.sum( );
+    }
+
+    /**
+     * Gets the retry budget shared by the calls
+     *
+     * @return the retry budget
+     */
+    public RetryBudget getRetryBudget( )
+    {
+        return _retryBudget;
+    }
+
+    /**
+     * Gets the latency trackers by operation. Latencies are only recorded while hedging is enabled.
+     *
+     * @return the latency trackers
+     */
+    public Map<IdentityStoreOperation, LatencyTracker> getLatencies( )
+    {
+        return Collections.unmodifiableMap( _mapLatencies );
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.Locale;
+
+/**
+ * The classes of identity store calls, each with its own bulkhead. Only idempotent calls are retried, and only the cheap idempotent reads are
+ * hedged: a search is retried but never hedged, since a second attempt would double the most expensive load of the identity store.
+ */
+public enum IdentityStoreOperation
+{
+    // Approximated matching: the most expensive call of the identity store
+    SEARCH( 8, 2, 20, 3000, true, false ),
+    READ( 20, 4, 50, 1000, true, true ),
+    // Identity creation and update, task creation: never retried nor hedged
+    WRITE( 10, 2, 20, 3000, false, false ),
+    // History and task listing
+    HISTORY( 10, 2, 20, 2000, true, true ),
+    REFERENTIAL( 4, 1, 8, 5000, true, true );
+
+    private final int _nInitialLimit;
+    private final int _nMinLimit;
+    private final int _nMaxLimit;
+    private final long _lLatencyThreshold;
+    private final boolean _bIdempotent;
+    private final boolean _bHedgeable;
+
+    IdentityStoreOperation( int nInitialLimit, int nMinLimit, int nMaxLimit, long lLatencyThreshold, boolean bIdempotent, boolean bHedgeable )
+    {
+        _nInitialLimit = nInitialLimit;
+        _nMinLimit = nMinLimit;
+        _nMaxLimit = nMaxLimit;
+        _lLatencyThreshold = lLatencyThreshold;
+        _bIdempotent = bIdempotent;
+        _bHedgeable = bHedgeable;
+    }
+
+    /**
+     * Gets the key of the operation in the properties and metrics
+     *
+     * @return the key
+     */
+    public String getKey( )
+    {
+        return name( ).toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * Gets the default initial limit of the bulkhead
+     *
+     * @return the initial limit
+     */
+    public int getInitialLimit( )
+    {
+        return _nInitialLimit;
+    }
+
+    /**
+     * Gets the default lowest limit of the bulkhead
+     *
+     * @return the lowest limit
+     */
+    public int getMinLimit( )
+    {
+        return _nMinLimit;
+    }
+
+    /**
+     * Gets the default highest limit of the bulkhead
+     *
+     * @return the highest limit
+     */
+    public int getMaxLimit( )
+    {
+        return _nMaxLimit;
+    }
+
+    /**
+     * Gets the default latency threshold of the bulkhead, in milliseconds
+     *
+     * @return the latency threshold
+     */
+    public long getLatencyThreshold( )
+    {
+        return _lLatencyThreshold;
+    }
+
+    /**
+     * Tells whether the calls may be sent again without side effect
+     *
+     * @return true if the calls may be retried
+     */
+    public boolean isIdempotent( )
+    {
+        return _bIdempotent;
+    }
+
+    /**
+     * Tells whether a second attempt may be sent while the first one is slow
+     *
+     * @return true if the calls may be hedged
+     */
+    public boolean isHedgeable( )
+    {
+        return _bHedgeable;
+    }
+}
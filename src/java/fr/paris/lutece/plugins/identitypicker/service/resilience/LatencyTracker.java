@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the last calls of an operation, kept in a fixed size ring, from which the hedging delay is computed.
+ */
+public class LatencyTracker
+{
+    private final long [ ] _latencies;
+    private int _nNext;
+    private int _nSize;
+
+    /**
+     * Constructor
+     *
+     * @param nCapacity
+     *            the number of latencies kept
+     */
+    public LatencyTracker( int nCapacity )
+    {
+        _latencies = new long [ Math.max( 1, nCapacity )];
+    }
+
+    /**
+     * Records the latency of a call
+     *
+     * @param lLatencyNanos
+     *            the latency, in nanoseconds
+     */
+    public synchronized void record( long lLatencyNanos )
+    {
+        _latencies [_nNext] = lLatencyNanos;
+        _nNext = ( _nNext + 1 ) % _latencies.length;
+        _nSize = Math.min( _nSize + 1, _latencies.length );
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies
+     *
+     * @param dPercentile
+     *            the percentile, between 0 and 100
+     * @param nMinSamples
+     *            the number of latencies below which the percentile is not significant
+     * @return the percentile in nanoseconds, or -1 if fewer than nMinSamples latencies were recorded
+     */
+    public long getPercentile( double dPercentile, int nMinSamples )
+    {
+        long [ ] sorted;
+        synchronized( this )
+        {
+            if ( _nSize < Math.max( 1, nMinSamples ) )
+            {
+                return -1;
+            }
+            sorted = Arrays.copyOf( _latencies, _nSize );
+        }
+        Arrays.sort( sorted );
+        int nIndex = (int) Math.ceil( dPercentile / 100 * sorted.length ) - 1;
+        return sorted [Math.min( sorted.length - 1, Math.max( 0, nIndex ) )];
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.resilience;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket bounding the retries of all the identity store calls. Each call deposits a fraction of a token, and each retry takes a whole
+ * token: the retries can not exceed this fraction of the traffic, so that they do not pile up on an identity store which is already failing.
+ */
+public class RetryBudget
+{
+    private final double _dCapacity;
+    private final double _dRatio;
+    private final LongAdder _exhaustedCount = new LongAdder( );
+    private double _dTokens;
+
+    /**
+     * Constructor
+     *
+     * @param dCapacity
+     *            the maximum number of tokens, which is also the initial number
+     * @param dRatio
+     *            the fraction of a token deposited by each call
+     */
+    public RetryBudget( double dCapacity, double dRatio )
+    {
+        _dCapacity = dCapacity;
+        _dRatio = dRatio;
+        _dTokens = dCapacity;
+    }
+
+    /**
+     * Deposits the share of a call
+     */
+    public synchronized void deposit( )
+    {
+        _dTokens = Math.min( _dCapacity, _dTokens + _dRatio );
+    }
+
+    /**
+     * Takes the token of a retry
+     *
+     * @return true if the retry is allowed, false if the budget is exhausted
+     */
+    public synchronized boolean tryWithdraw( )
+    {
+        if ( _dTokens < 1 )
+        {
+            _exhaustedCount.increment( );
+            return false;
+        }
+        _dTokens--;
+        return true;
+    }
+
+    /**
+     * Gets the number of tokens left
+     *
+     * @return the tokens
+     */
+    public synchronized double getTokens( )
+    {
+        return _dTokens;
+    }
+
+    /**
+     * Gets the number of retries refused because the budget was exhausted
+     *
+     * @return the exhausted count
+     */
+    public long getExhaustedCount( )
+    {
+        return _exhaustedCount.sum( );
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.service.metrics.MetricsRegistry;
+import fr.paris.lutece.plugins.identitypicker.service.metrics.PrometheusExporter;
+import fr.paris.lutece.plugins.rest.service.RestConstants;
+import fr.paris.lutece.portal.service.admin.AdminUserService;
+
+/**
+ * REST service exposing the metrics of the plugin in the Prometheus text format. The scraper authenticates with the bearer token set in
+ * identitypicker.metrics.token; without a token, the metrics are only readable by an authenticated back office user.
+ */
+@RequestScoped
+@Path( RestConstants.BASE_PATH + IdentityRestConstants.API_PATH + IdentityRestConstants.METRICS_PATH )
+public class IdentityMetricsRestService
+{
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Inject
+    @Named( "identitypicker.metricsRegistry" )
+    private MetricsRegistry _metricsRegistry;
+
+    @Inject
+    @Named( "identitypicker.prometheusExporter" )
+    private PrometheusExporter _prometheusExporter;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.metrics.token" )
+    private Optional<String> _strToken;
+
+    /**
+     * Gets the metrics of the plugin
+     *
+     * @param request
+     *            The HTTP servlet request
+     * @return the metrics in the Prometheus text format, or an error status
+     */
+    @GET
+    @Produces( PrometheusExporter.CONTENT_TYPE )
+    public Response getMetrics( @Context HttpServletRequest request )
+    {
+        if ( !_metricsRegistry.isEnabled( ) )
+        {
+            return Response.status( Response.Status.NOT_FOUND ).entity( IdentityRestConstants.ERROR_NOT_FOUND_RESOURCE ).build( );
+        }
+        if ( !isAuthorized( request ) )
+        {
+            return Response.status( Response.Status.FORBIDDEN ).entity( IdentityRestConstants.ERROR_UNAUTHORIZED ).build( );
+        }
+        CacheControl cacheControl = new CacheControl( );
+        cacheControl.setNoStore( true );
+        return Response.ok( _prometheusExporter.export( ), PrometheusExporter.CONTENT_TYPE ).cacheControl( cacheControl ).build( );
+    }
+
+    /**
+     * Checks the bearer token of the scraper if one is configured, the back office user otherwise
+     *
+     * @param request
+     *            The HTTP servlet request
+     * @return true if the caller may read the metrics
+     */
+    private boolean isAuthorized( HttpServletRequest request )
+    {
+        if ( _strToken.isEmpty( ) )
+        {
+            return AdminUserService.getAdminUser( request ) != null;
+        }
+        String strAuthorization = request.getHeader( HttpHeaders.AUTHORIZATION );
+        if ( strAuthorization == null || !strAuthorization.startsWith( BEARER_PREFIX ) )
+        {
+            return false;
+        }
+        byte [ ] expected = _strToken.get( ).getBytes( StandardCharsets.UTF_8 );
+        byte [ ] actual = strAuthorization.substring( BEARER_PREFIX.length( ) ).getBytes( StandardCharsets.UTF_8 );
+        return MessageDigest.isEqual( expected, actual );
+    }
+}
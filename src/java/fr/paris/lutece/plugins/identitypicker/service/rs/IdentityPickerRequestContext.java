@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rs;
+
+import fr.paris.lutece.plugins.identitypicker.service.rbac.PermissionSnapshot;
+import fr.paris.lutece.portal.business.user.AdminUser;
+
+/**
+ * The admin user of a REST request and its permissions, resolved once per request
+ */
+public final class IdentityPickerRequestContext
+{
+    private final AdminUser _adminUser;
+    private final PermissionSnapshot _permissions;
+
+    /**
+     * Constructor
+     *
+     * @param adminUser
+     *            the admin user, or null if the request is not authenticated
+     * @param permissions
+     *            the permissions of the user
+     */
+    public IdentityPickerRequestContext( AdminUser adminUser, PermissionSnapshot permissions )
+    {
+        _adminUser = adminUser;
+        _permissions = permissions;
+    }
+
+    /**
+     * Gets the admin user
+     *
+     * @return the admin user, or null if the request is not authenticated
+     */
+    public AdminUser getAdminUser( )
+    {
+        return _adminUser;
+    }
+
+    /**
+     * Gets the permissions of the user
+     *
+     * @return the permissions
+     */
+    public PermissionSnapshot getPermissions( )
+    {
+        return _permissions;
+    }
+}
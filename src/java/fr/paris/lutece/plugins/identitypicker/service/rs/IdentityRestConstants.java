@@ -42,7 +42,19 @@ public final class IdentityRestConstants
     public static final String ERROR_UNAUTHORIZED = "You are not authorized to access this resource.";
     public static final String ERROR_INVALID_PARAMETERS = "Invalid parameters. Provide either 'search_common_email' or 'search_common_lastname', 'search_first_name', and 'search_birthdate'.";
     public static final String ERROR_INTERNAL_SERVER = "An error occurred while processing your request.";
+    public static final String ERROR_TIMEOUT = "The identity store did not answer in time. Please try again later.";
+    public static final String ERROR_SERVICE_UNAVAILABLE = "Too many pending requests. Please try again later.";
+    public static final String ERROR_PRECONDITION_FAILED = "The identity has been modified since it was read. Please reload it.";
+    public static final String ERROR_BATCH_TOO_LARGE = "Too many customer ids. Maximum allowed: ";
+    public static final String ERROR_INVALID_SECTIONS = "Invalid include parameter. Allowed sections: ";
+    public static final String ERROR_GEOCODES_UNAVAILABLE = "The geocodes are not available. Please try again later.";
+    public static final String ERROR_GEOCODES_NOT_READY = "The geocodes are being loaded. Please try again later.";
+    public static final String GEOCODES_STATUS = "status";
+    public static final String GEOCODES_STATUS_OK = "OK";
+    public static final String GEOCODES_RESULT = "result";
     public static final String IDENTITY_PATH = "/identity";
+    public static final String METRICS_PATH = "/metrics";
+    public static final String PARAMETER_CUSTOMER_IDS = "customer_ids";
 
     /**
      * Private constructor
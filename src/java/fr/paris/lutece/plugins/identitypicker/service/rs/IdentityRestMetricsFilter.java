@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.rs;
+
+import java.io.IOException;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import fr.paris.lutece.plugins.identitypicker.service.metrics.CountingOutputStream;
+import fr.paris.lutece.plugins.identitypicker.service.metrics.EndpointMetrics;
+import fr.paris.lutece.plugins.identitypicker.service.metrics.MetricsRegistry;
+
+/**
+ * Records the latency, the status and the response size of the requests of the metered REST resources. The request is timed from the
+ * request filter to the response filter, so that the time spent on the executor by the asynchronous endpoints is included. The response
+ * size is counted while the body is written, after the response filter.
+ */
+@Provider
+@ApplicationScoped
+@IdentityPickerMetered
+public class IdentityRestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor
+{
+    private static final String PROPERTY_METRICS = "identitypicker.metrics";
+    private static final String PROPERTY_START = "identitypicker.metrics.start";
+
+    @Context
+    private ResourceInfo _resourceInfo;
+
+    @Inject
+    @Named( "identitypicker.metricsRegistry" )
+    private MetricsRegistry _metricsRegistry;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter( ContainerRequestContext requestContext ) throws IOException
+    {
+        if ( !_metricsRegistry.isEnabled( ) || _resourceInfo.getResourceMethod( ) == null )
+        {
+            return;
+        }
+        EndpointMetrics metrics = _metricsRegistry.getEndpoint( _resourceInfo.getResourceMethod( ).getName( ) );
+        metrics.requestStarted( );
+        requestContext.setProperty( PROPERTY_METRICS, metrics );
+        requestContext.setProperty( PROPERTY_START, System.nanoTime( ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter( ContainerRequestContext requestContext, ContainerResponseContext responseContext ) throws IOException
+    {
+        Object metrics = requestContext.getProperty( PROPERTY_METRICS );
+        if ( metrics instanceof EndpointMetrics )
+        {
+            long lStart = (Long) requestContext.getProperty( PROPERTY_START );
+            ( (EndpointMetrics) metrics ).requestCompleted( responseContext.getStatus( ), System.nanoTime( ) - lStart );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void aroundWriteTo( WriterInterceptorContext context ) throws IOException
+    {
+        Object metrics = context.getProperty( PROPERTY_METRICS );
+        if ( !( metrics instanceof EndpointMetrics ) )
+        {
+            context.proceed( );
+            return;
+        }
+        CountingOutputStream out = new CountingOutputStream( context.getOutputStream( ) );
+        context.setOutputStream( out );
+        try
+        {
+            context.proceed( );
+        }
+        finally
+        {
+            ( (EndpointMetrics) metrics ).getResponseSize( ).observe( out.getCount( ) );
+        }
+    }
+}
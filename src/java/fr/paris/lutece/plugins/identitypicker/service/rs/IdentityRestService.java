@@ -1,9 +1,21 @@
 package fr.paris.lutece.plugins.identitypicker.service.rs;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
@@ -16,16 +28,36 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
-import fr.paris.lutece.api.user.User;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import fr.paris.lutece.plugins.identitypicker.business.Bootstrap;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityBatchResult;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityDetail;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryFilter;
+import fr.paris.lutece.plugins.identitypicker.business.IdentityHistoryPage;
 import fr.paris.lutece.plugins.identitypicker.business.IdentitySearchCriteria;
 import fr.paris.lutece.plugins.identitypicker.business.Rules;
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
 import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerResourceService;
 import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerService;
+import fr.paris.lutece.plugins.identitypicker.service.geocode.GeocodeIndexService;
+import fr.paris.lutece.plugins.identitypicker.service.geocode.GeocodesNotReadyException;
+import fr.paris.lutece.plugins.identitypicker.service.rbac.PermissionSnapshotService;
+import fr.paris.lutece.plugins.identitypicker.service.resilience.IdentityStoreUnavailableException;
+import fr.paris.lutece.plugins.identitypicker.service.util.IdentityPickerETagUtils;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.crud.IdentityChangeResponse;
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityHistory;
@@ -33,20 +65,21 @@ import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.task.IdentityTaskCrea
 import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.task.IdentityTaskDto;
 import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
 import fr.paris.lutece.plugins.rest.service.RestConstants;
-import fr.paris.lutece.portal.business.rbac.RBAC;
 import fr.paris.lutece.portal.business.user.AdminUser;
 import fr.paris.lutece.portal.service.admin.AdminUserService;
-import fr.paris.lutece.portal.service.rbac.RBACService;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.util.httpaccess.HttpAccessException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * REST service for identity management operations.
  */
 @RequestScoped
+@IdentityPickerMetered
 @Path(RestConstants.BASE_PATH + IdentityRestConstants.API_PATH)
 public class IdentityRestService {
 
@@ -57,24 +90,281 @@ public class IdentityRestService {
      */
     private static final ObjectMapper _mapper = new ObjectMapper();
 
+    /**
+     * Writers of the mapper, one per payload type. A writer resolves the serializer of its root type once, and
+     * leaves the response stream open for the container.
+     */
+    private static final Map<Class<?>, ObjectWriter> _writers = new ConcurrentHashMap<>();
+
+    /**
+     * Permissions giving access to the rules.
+     */
+    private static final String[] RULES_PERMISSIONS = {
+        IdentityPickerResourceService.PERMISSION_SEARCH, IdentityPickerResourceService.PERMISSION_CREATE,
+        IdentityPickerResourceService.PERMISSION_UPDATE, IdentityPickerResourceService.PERMISSION_VIEW
+    };
+
     @Inject
     @Named( "identitypicker.identityPickerService" )
     private IdentityPickerService _identityPickerService;
 
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    @Inject
+    @Named( "identitypicker.permissionSnapshotService" )
+    private PermissionSnapshotService _permissionSnapshotService;
+
+    @Inject
+    @Named( "identitypicker.geocodeIndexService" )
+    private GeocodeIndexService _geocodeIndexService;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.request.timeout", defaultValue = "30000" )
+    private long _lRequestTimeout;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.batch.maxSize", defaultValue = "10" )
+    private int _nBatchMaxSize;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.history.pageSize", defaultValue = "20" )
+    private int _nHistoryPageSize;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.history.maxPageSize", defaultValue = "200" )
+    private int _nHistoryMaxPageSize;
+
+    /**
+     * The user of the request and its permissions, resolved once: the resource is request scoped.
+     */
+    private IdentityPickerRequestContext _context;
+
     /**
      * Builds a JSON response by serializing the payload with Jackson.
      *
      * @param status the HTTP status code
      * @param payload the object to serialize
-     * @return a JSON response, or an internal-server-error response if serialization fails
+     * @return a JSON response
      */
     private Response jsonResponse(int status, Object payload) {
+        return jsonResponse(status, payload, null);
+    }
+
+    /**
+     * Builds a JSON response tagged with a strong entity tag. The browser is asked to revalidate the
+     * response on each use, so that it sends the tag back in an If-None-Match header.
+     *
+     * The payload is streamed as UTF-8 to the response: it is never materialized, whatever its size (a search
+     * result or a full history has no bound).
+     *
+     * @param status the HTTP status code
+     * @param payload the object to serialize
+     * @param etag the entity tag, or null
+     * @return a JSON response
+     */
+    private Response jsonResponse(int status, Object payload, EntityTag etag) {
+        ObjectWriter writer = writerFor(payload.getClass());
+        StreamingOutput body = output -> {
+            try {
+                writer.writeValue(output, payload);
+            } catch (IOException e) {
+                AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
+                throw e;
+            }
+        };
+        return jsonResponseBuilder(status, body, etag).build();
+    }
+
+    /**
+     * Builds a JSON response from a bounded payload: one identity, a batch of at most identitypicker.batch.maxSize
+     * identities or a history page of at most identitypicker.history.maxPageSize changes.
+     *
+     * The payload is serialized to UTF-8 bytes before the response is built, so that a serialization error is
+     * answered with a 500 instead of a truncated 200.
+     *
+     * @param status the HTTP status code
+     * @param payload the object to serialize
+     * @param etag the entity tag, or null
+     * @return a JSON response
+     */
+    private Response boundedJsonResponse(int status, Object payload, EntityTag etag) {
+        byte[] body;
         try {
-            return Response.status(status).entity(_mapper.writeValueAsString(payload)).type(MediaType.APPLICATION_JSON).build();
+            body = toJson(payload);
         } catch (JsonProcessingException e) {
             AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
+        return jsonResponseBuilder(status, body, etag).build();
+    }
+
+    /**
+     * Starts a JSON response, in UTF-8, tagged when an entity tag is given.
+     *
+     * @param status the HTTP status code
+     * @param body the entity
+     * @param etag the entity tag, or null
+     * @return the response builder
+     */
+    private static Response.ResponseBuilder jsonResponseBuilder(int status, Object body, EntityTag etag) {
+        Response.ResponseBuilder builder = Response.status(status).entity(body).type(MediaType.APPLICATION_JSON_TYPE.withCharset(StandardCharsets.UTF_8.name()));
+        if (etag != null) {
+            builder.tag(etag).cacheControl(revalidateCacheControl());
+        }
+        return builder;
+    }
+
+    /**
+     * Serializes a bounded payload as the buffered JSON responses do.
+     *
+     * @param payload the object to serialize
+     * @return the JSON, encoded in UTF-8
+     * @throws JsonProcessingException if the payload cannot be serialized
+     */
+    static byte[] toJson(Object payload) throws JsonProcessingException {
+        return writerFor(payload.getClass()).writeValueAsBytes(payload);
+    }
+
+    /**
+     * Gets the writer of a payload type.
+     *
+     * @param type the payload type
+     * @return the writer
+     */
+    static ObjectWriter writerFor(Class<?> type) {
+        return _writers.computeIfAbsent(type, key -> _mapper.writerFor(key).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    /**
+     * Evaluates the If-None-Match header of the request against the current entity tag. The header is read on the
+     * request thread and passed as a value, since the request may be completed on another thread.
+     *
+     * @param ifNoneMatch the If-None-Match header of the request, or null
+     * @param etag the current entity tag
+     * @return a 304 Not Modified response if the client already has this version, null otherwise
+     */
+    private static Response notModified(String ifNoneMatch, EntityTag etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String quotedValue = '"' + etag.getValue() + '"';
+        for (String candidate : ifNoneMatch.split(",")) {
+            // If-None-Match uses the weak comparison: a W/ prefix is ignored
+            String value = StringUtils.removeStart(candidate.trim(), "W/");
+            if ("*".equals(value) || quotedValue.equals(value)) {
+                return Response.notModified(etag).cacheControl(revalidateCacheControl()).build();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates the If-Match header of the request against the current entity tag.
+     *
+     * @param ifMatch the If-Match header of the request
+     * @param etag the current entity tag
+     * @return true if the header matches the current version
+     */
+    private static boolean matches(String ifMatch, EntityTag etag) {
+        String quotedValue = '"' + etag.getValue() + '"';
+        for (String candidate : ifMatch.split(",")) {
+            // If-Match uses the strong comparison: a weak tag never matches
+            String value = candidate.trim();
+            if ("*".equals(value) || quotedValue.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the answer to an update of a version of the identity which is not the current one.
+     *
+     * @param currentIdentity the current identity
+     * @return a 412 Precondition Failed response, tagged with the current version
+     */
+    private static Response preconditionFailed(IdentityDto currentIdentity) {
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .tag(new EntityTag(IdentityPickerETagUtils.identityVersion(currentIdentity)))
+                .entity(IdentityRestConstants.ERROR_PRECONDITION_FAILED)
+                .build();
+    }
+
+    /**
+     * Builds the cache control of tagged responses: private data, which may be stored but must be revalidated.
+     *
+     * @return the cache control
+     */
+    private static CacheControl revalidateCacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+
+    /**
+     * Completes a suspended request on the request executor, so that the servlet thread is released while the
+     * identity store is called. The request is answered with 504 Gateway Timeout if it is not completed within the
+     * request timeout, and with 503 Service Unavailable if the executor is saturated.
+     *
+     * The task must not use the servlet request: whatever it needs (user, headers, locale) is read beforehand on
+     * the request thread.
+     *
+     * @param asyncResponse the suspended response
+     * @param task the task computing the response
+     */
+    private void resumeAsync(AsyncResponse asyncResponse, Callable<Response> task) {
+        asyncResponse.setTimeoutHandler(response -> response.resume(
+                Response.status(Response.Status.GATEWAY_TIMEOUT).entity(IdentityRestConstants.ERROR_TIMEOUT).build()));
+        asyncResponse.setTimeout(_lRequestTimeout, TimeUnit.MILLISECONDS);
+        try {
+            _executorService.getRequestExecutor().execute(() -> {
+                if (asyncResponse.isDone()) {
+                    // Timed out while queued: the client already got its answer
+                    return;
+                }
+                Response response;
+                try {
+                    response = task.call();
+                } catch (Exception e) {
+                    AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
+                    response = Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+                }
+                asyncResponse.resume(response);
+            });
+        } catch (RejectedExecutionException e) {
+            AppLogService.error("Identity picker request executor saturated", e);
+            asyncResponse.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(IdentityRestConstants.ERROR_SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+    /**
+     * Builds the response of a failed identity store call: 503 Service Unavailable with the reason when the call was
+     * refused locally (bulkhead full, circuit breaker open or worker pool saturated), 500 Internal Server Error otherwise.
+     *
+     * @param e the exception of the call
+     * @return the error response
+     */
+    private static Response errorResponse(IdentityStoreException e) {
+        if (e instanceof IdentityStoreUnavailableException) {
+            AppLogService.debug(e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(e.getMessage()).build();
+        }
+        AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+    }
+
+    /**
+     * Tells whether an identity was updated after another version of it.
+     *
+     * @param identity the identity
+     * @param other the other version, with a last update date
+     * @return true if the identity has a strictly later last update date
+     */
+    private static boolean isNewer(IdentityDto identity, IdentityDto other) {
+        return identity.getLastUpdateDate() != null && identity.getLastUpdateDate().after(other.getLastUpdateDate());
     }
 
     /**
@@ -82,25 +372,29 @@ public class IdentityRestService {
      *
      * @param searchCriteria The search criteria for identities
      * @param request The HTTP servlet request
-     * @return Response containing the search results or error information
+     * @param asyncResponse The suspended response, resumed with the search results or error information
      */
     @GET
     @Path("/search")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response identitySearch(@BeanParam IdentitySearchCriteria searchCriteria, @Context HttpServletRequest request) {
+    public void identitySearch(@BeanParam IdentitySearchCriteria searchCriteria, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_SEARCH)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
         if (!searchCriteria.isValid()) {
-            return Response.status(Response.Status.BAD_REQUEST).entity(IdentityRestConstants.ERROR_INVALID_PARAMETERS).build();
-        }
-        try {
-            List<IdentityDto> identities = _identityPickerService.searchIdentities(searchCriteria, AdminUserService.getAdminUser(request));
-            return createResponse(identities);
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST).entity(IdentityRestConstants.ERROR_INVALID_PARAMETERS).build());
+            return;
         }
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                List<IdentityDto> identities = _identityPickerService.searchIdentities(searchCriteria, adminUser);
+                return createResponse(identities);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
 
     /**
@@ -108,60 +402,115 @@ public class IdentityRestService {
      *
      * @param customerId The customer ID to look up
      * @param request The HTTP servlet request
-     * @return Response containing the identity information or error details
+     * @param asyncResponse The suspended response, resumed with the identity information or error details
      */
     @GET
     @Path("/identity/{customer_id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIdentity(@PathParam("customer_id") String customerId, @Context HttpServletRequest request) {
+    public void getIdentity(@PathParam("customer_id") String customerId, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
-        try {
-            Optional<IdentityDto> identity = _identityPickerService.getIdentity(customerId, AdminUserService.getAdminUser(request));
-            if (identity.isPresent()) {
-                return jsonResponse(Response.Status.OK.getStatusCode(), identity.get());
+        AdminUser adminUser = getContext(request).getAdminUser();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Optional<IdentityDto> identity = _identityPickerService.getIdentity(customerId, adminUser);
+                if (identity.isPresent()) {
+                    EntityTag etag = new EntityTag(IdentityPickerETagUtils.identityVersion(identity.get()));
+                    Response notModified = notModified(ifNoneMatch, etag);
+                    return notModified != null ? notModified : boundedJsonResponse(Response.Status.OK.getStatusCode(), identity.get(), etag);
+                }
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
             }
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        });
+    }
+
+    /**
+     * Retrieve several identities by customer ID in one call.
+     *
+     * @param data The request body, holding the customer IDs in "customer_ids"
+     * @param request The HTTP servlet request
+     * @param asyncResponse The suspended response, resumed with the outcome of each identity fetch, or error information
+     */
+    @POST
+    @Path("/identity/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void getIdentities(Map<String, Object> data, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
+        if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
+        }
+        Object customerIds = data == null ? null : data.get(IdentityRestConstants.PARAMETER_CUSTOMER_IDS);
+        if (!(customerIds instanceof List) || ((List<?>) customerIds).isEmpty()) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST).entity(IdentityRestConstants.ERROR_BAD_REQUEST_EMPTY_PARAMETER).build());
+            return;
         }
+        if (((List<?>) customerIds).size() > _nBatchMaxSize) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST).entity(IdentityRestConstants.ERROR_BATCH_TOO_LARGE + _nBatchMaxSize).build());
+            return;
+        }
+        List<String> ids = ((List<?>) customerIds).stream().map(String::valueOf).collect(Collectors.toList());
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                List<IdentityBatchResult> results = _identityPickerService.getIdentities(ids, adminUser);
+                return boundedJsonResponse(Response.Status.OK.getStatusCode(), results, null);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
 
     /**
      * Retrieve the rules for identity picking.
      *
      * @param request The HTTP servlet request
-     * @return Response containing the rules or error information
+     * @param asyncResponse The suspended response, resumed with the rules or error information
      */
     @GET
     @Path("/rules")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getRules(@Context HttpServletRequest request) {
-        if (!hasAnyPermission(request, IdentityPickerResourceService.PERMISSION_SEARCH, IdentityPickerResourceService.PERMISSION_CREATE, IdentityPickerResourceService.PERMISSION_UPDATE, IdentityPickerResourceService.PERMISSION_VIEW)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+    public void getRules(@Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
+        if (!hasAnyPermission(request, RULES_PERMISSIONS)) {
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
-        try {
-            Rules rules = _identityPickerService.getRules(request, AdminUserService.getAdminUser(request));
-            return jsonResponse(Response.Status.OK.getStatusCode(), rules);
-        } catch (IdentityStoreException e) {
-            if (e.getCause() instanceof HttpAccessException) {
-                AppLogService.error("Unknown host error while fetching rules", e);
-                return Response.status(Response.Status.BAD_REQUEST)
-                               .entity("Unable to connect to the referential service. Please check the configuration.")
+        Locale locale = request.getLocale();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Rules rules = _identityPickerService.getRules(locale);
+                EntityTag etag = new EntityTag(rules.getVersion());
+                Response notModified = notModified(ifNoneMatch, etag);
+                return notModified != null ? notModified : jsonResponse(Response.Status.OK.getStatusCode(), rules, etag);
+            } catch (IdentityStoreUnavailableException e) {
+                return errorResponse(e);
+            } catch (IdentityStoreException e) {
+                if (e.getCause() instanceof HttpAccessException) {
+                    AppLogService.error("Unknown host error while fetching rules", e);
+                    return Response.status(Response.Status.BAD_REQUEST)
+                                   .entity("Unable to connect to the referential service. Please check the configuration.")
+                                   .build();
+                }
+                AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity("An internal server error occurred. Please try again later.")
                                .build();
             }
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("An internal server error occurred. Please try again later.")
-                           .build();
-        }
+        });
     }
 
     /**
      * Retrieve the permissions for the current user.
      *
+     * The permissions come from the snapshot of the user, on the request thread: this endpoint does not call the identity store,
+     * so it stays synchronous.
+     *
      * @param request The HTTP servlet request
      * @return Response containing the user's permissions or error information
      */
@@ -169,77 +518,224 @@ public class IdentityRestService {
     @Path("/permissions")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getUserPermissions(@Context HttpServletRequest request) {
-        AdminUser adminUser = AdminUserService.getAdminUser(request);
-        if (adminUser == null) {
+        IdentityPickerRequestContext context = getContext(request);
+        if (context.getAdminUser() == null) {
             return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
         }
         try {
-            Map<String, Boolean> permissions = new HashMap<>();
-            permissions.put(IdentityPickerResourceService.PERMISSION_SEARCH, isAuthorized(request, IdentityPickerResourceService.PERMISSION_SEARCH));
-            permissions.put(IdentityPickerResourceService.PERMISSION_CREATE, isAuthorized(request, IdentityPickerResourceService.PERMISSION_CREATE));
-            permissions.put(IdentityPickerResourceService.PERMISSION_UPDATE, isAuthorized(request, IdentityPickerResourceService.PERMISSION_UPDATE));
-            permissions.put(IdentityPickerResourceService.PERMISSION_VIEW, isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW));
-            permissions.put(IdentityPickerResourceService.PERMISSION_CREATE_TASK, isAuthorized(request, IdentityPickerResourceService.PERMISSION_CREATE_TASK));
-
-            return jsonResponse(Response.Status.OK.getStatusCode(), permissions);
+            Map<String, Boolean> permissions = context.getPermissions().toMap();
+
+            EntityTag etag = new EntityTag(IdentityPickerETagUtils.hash(permissions.toString()));
+            Response notModified = notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+            return notModified != null ? notModified : jsonResponse(Response.Status.OK.getStatusCode(), permissions, etag);
         } catch (Exception e) {
             AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Retrieve the permissions of the current user and the rules in one call, for the start of the picker.
+     *
+     * The user and its permissions are resolved once. The rules are only loaded when one of the permissions gives access to
+     * them. The version of the response combines the versions of the permissions and of the rules, and is sent as a strong ETag.
+     *
+     * @param request The HTTP servlet request
+     * @param asyncResponse The suspended response, resumed with the permissions and rules or error information
+     */
+    @GET
+    @Path("/bootstrap")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void getBootstrap(@Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
+        IdentityPickerRequestContext context = getContext(request);
+        if (context.getAdminUser() == null) {
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
+        }
+        Map<String, Boolean> permissions = context.getPermissions().toMap();
+        String permissionsVersion = IdentityPickerETagUtils.hash(permissions.toString());
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (!context.getPermissions().hasAny(RULES_PERMISSIONS)) {
+            // Without the rules the response does not need the identity store
+            asyncResponse.resume(bootstrapResponse(new Bootstrap(permissions, null, permissionsVersion), ifNoneMatch));
+            return;
+        }
+        Locale locale = request.getLocale();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Rules rules = _identityPickerService.getRules(locale);
+                String version = IdentityPickerETagUtils.hash(permissionsVersion, rules.getVersion());
+                return bootstrapResponse(new Bootstrap(permissions, rules, version), ifNoneMatch);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
+    }
+
+    /**
+     * Builds the response of the bootstrap endpoint, or a 304 when the client holds its version.
+     *
+     * @param bootstrap The permissions and rules
+     * @param ifNoneMatch The If-None-Match header of the request, or null
+     * @return The response
+     */
+    private Response bootstrapResponse(Bootstrap bootstrap, String ifNoneMatch) {
+        EntityTag etag = new EntityTag(bootstrap.getVersion());
+        Response notModified = notModified(ifNoneMatch, etag);
+        return notModified != null ? notModified : jsonResponse(Response.Status.OK.getStatusCode(), bootstrap, etag);
+    }
+
     /**
      * Create a new identity.
      *
      * @param data The identity data to create
      * @param servletRequest The HTTP servlet request
-     * @return Response containing the result of the creation or error information
+     * @param asyncResponse The suspended response, resumed with the result of the creation or error information
      */
     @POST
     @Path("/identity")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response createIdentity(Map<String, Object> data, @Context HttpServletRequest servletRequest) {
+    public void createIdentity(Map<String, Object> data, @Context HttpServletRequest servletRequest, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(servletRequest, IdentityPickerResourceService.PERMISSION_CREATE)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
-        }
-        try {
-            IdentityChangeResponse response = _identityPickerService.createIdentity(data, AdminUserService.getAdminUser(servletRequest));
-            int httpCode = _identityPickerService.getHttpCodeFromResponse(response);
-            return jsonResponse(httpCode, response);
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        AdminUser adminUser = getContext(servletRequest).getAdminUser();
+        Locale locale = servletRequest.getLocale();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                IdentityChangeResponse response = _identityPickerService.createIdentity(data, locale, adminUser);
+                int httpCode = _identityPickerService.getHttpCodeFromResponse(response);
+                return jsonResponse(httpCode, response);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
 
     /**
      * Update an existing identity.
      *
+     * The attribute diff and the last update date sent to the identity store come from the previous state of the
+     * identity. The client may send it as an "original" object in the body (the last_update_date and the attributes
+     * it edited, as returned by the identity endpoint): the update then goes straight to the identity store, whose
+     * optimistic concurrency check rejects it if the identity changed meanwhile. Otherwise the identity is read
+     * first, and checked against the If-Match header when one is sent.
+     *
      * @param customerId The customer ID of the identity to update
      * @param data The updated identity data
      * @param servletRequest The HTTP servlet request
-     * @return Response containing the result of the update or error information
+     * @param asyncResponse The suspended response, resumed with the result of the update or error information
      */
     @PUT
     @Path("/identity/{customer_id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response updateIdentity(@PathParam("customer_id") String customerId, Map<String, Object> data, @Context HttpServletRequest servletRequest) {
+    public void updateIdentity(@PathParam("customer_id") String customerId, Map<String, Object> data, @Context HttpServletRequest servletRequest, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(servletRequest, IdentityPickerResourceService.PERMISSION_UPDATE)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        IdentityDto originalIdentity;
         try {
-            Optional<IdentityDto> previousIdentity = _identityPickerService.getIdentity(customerId, AdminUserService.getAdminUser(servletRequest));
-            if (previousIdentity.isEmpty()) {
-                return Response.status(Response.Status.NOT_FOUND).entity(IdentityRestConstants.ERROR_NOT_FOUND_RESOURCE).build();
+            originalIdentity = _identityPickerService.readOriginalIdentity(customerId, data);
+        } catch (IllegalArgumentException e) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+            return;
+        }
+        AdminUser adminUser = getContext(servletRequest).getAdminUser();
+        String ifMatch = servletRequest.getHeader(HttpHeaders.IF_MATCH);
+        Locale locale = servletRequest.getLocale();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                IdentityDto previousIdentity;
+                if (originalIdentity != null) {
+                    // A newer cached version means the client edited a stale identity: no need to ask the identity store.
+                    // An older cached version is stale itself, so the identity store checks the update.
+                    IdentityDto cachedIdentity = _identityPickerService.getCachedIdentity(customerId);
+                    if (cachedIdentity != null && isNewer(cachedIdentity, originalIdentity)) {
+                        return preconditionFailed(cachedIdentity);
+                    }
+                    previousIdentity = originalIdentity;
+                } else {
+                    Optional<IdentityDto> currentIdentity = _identityPickerService.getIdentity(customerId, adminUser);
+                    if (currentIdentity.isEmpty()) {
+                        return Response.status(Response.Status.NOT_FOUND).entity(IdentityRestConstants.ERROR_NOT_FOUND_RESOURCE).build();
+                    }
+                    if (ifMatch != null && !matches(ifMatch, new EntityTag(IdentityPickerETagUtils.identityVersion(currentIdentity.get())))) {
+                        return preconditionFailed(currentIdentity.get());
+                    }
+                    previousIdentity = currentIdentity.get();
+                }
+                IdentityChangeResponse response = _identityPickerService.updateIdentity(customerId, data, previousIdentity, locale, adminUser);
+                int httpCode = _identityPickerService.getHttpCodeFromResponse(response);
+                return jsonResponse(httpCode, response);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
             }
-            IdentityChangeResponse response = _identityPickerService.updateIdentity(customerId, data, previousIdentity.get(), AdminUserService.getAdminUser(servletRequest));
-            int httpCode = _identityPickerService.getHttpCodeFromResponse(response);
-            return jsonResponse(httpCode, response);
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        });
+    }
+
+    /**
+     * Search the countries for the birth country autocomplete.
+     *
+     * @param search The beginning of the country name or code
+     * @param date The birth date the countries must be valid at
+     * @param request The HTTP servlet request
+     * @return The matching countries, in the response format of the geocodes client
+     */
+    @GET
+    @Path("/geocodes/countries")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response searchCountries(@QueryParam("search") String search, @QueryParam("additionalParam") String date, @Context HttpServletRequest request) {
+        return searchGeocodes(GeocodeIndexService.GeocodeType.COUNTRY, search, date, request);
+    }
+
+    /**
+     * Search the cities for the birth place autocomplete.
+     *
+     * @param search The beginning of the city name or INSEE code
+     * @param date The birth date the cities must be valid at
+     * @param request The HTTP servlet request
+     * @return The matching cities, in the response format of the geocodes client
+     */
+    @GET
+    @Path("/geocodes/cities")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response searchCities(@QueryParam("search") String search, @QueryParam("additionalParam") String date, @Context HttpServletRequest request) {
+        return searchGeocodes(GeocodeIndexService.GeocodeType.CITY, search, date, request);
+    }
+
+    /**
+     * Searches the geocode index. The lookup is in memory, so it runs on the servlet thread.
+     *
+     * @param type The type of geocode
+     * @param search The beginning of the name or code
+     * @param date The date the geocodes must be valid at
+     * @param request The HTTP servlet request
+     * @return The matching geocodes
+     */
+    private Response searchGeocodes(GeocodeIndexService.GeocodeType type, String search, String date, HttpServletRequest request) {
+        if (!_geocodeIndexService.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (!hasAnyPermission(request, IdentityPickerResourceService.PERMISSION_CREATE, IdentityPickerResourceService.PERMISSION_UPDATE)) {
+            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+        }
+        if (StringUtils.isBlank(search)) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(IdentityRestConstants.ERROR_BAD_REQUEST_EMPTY_PARAMETER).build();
+        }
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put(IdentityRestConstants.GEOCODES_STATUS, IdentityRestConstants.GEOCODES_STATUS_OK);
+            body.put(IdentityRestConstants.GEOCODES_RESULT, _geocodeIndexService.search(type, search, date));
+            return jsonResponse(Response.Status.OK.getStatusCode(), body);
+        } catch (GeocodesNotReadyException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(IdentityRestConstants.ERROR_GEOCODES_NOT_READY).build();
+        } catch (IOException e) {
+            AppLogService.error("Unable to search the geocodes", e);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(IdentityRestConstants.ERROR_GEOCODES_UNAVAILABLE).build();
         }
     }
 
@@ -248,91 +744,182 @@ public class IdentityRestService {
      *
      * @param customerId The customer ID to look up
      * @param request The HTTP servlet request
-     * @return Response containing the identity history or error details
+     * @param asyncResponse The suspended response, resumed with the identity history or error details
      */
     @GET
     @Path("/identity/{customer_id}/history")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIdentityHistory(@PathParam("customer_id") String customerId, @Context HttpServletRequest request) {
+    public void getIdentityHistory(@PathParam("customer_id") String customerId, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
-        
-        try {
-            Optional<IdentityHistory> history = _identityPickerService.getIdentityHistory(customerId, AdminUserService.getAdminUser(request));
-            
-            if (history.isPresent()) {
-                IdentityHistory historyData = history.get();
-                return jsonResponse(Response.Status.OK.getStatusCode(), historyData);
-            } else {
-                Map<String, Object> emptyHistory = new HashMap<>();
-                emptyHistory.put("identity_changes", new java.util.ArrayList<>());
-                emptyHistory.put("attribute_histories", new java.util.ArrayList<>());
-                return jsonResponse(Response.Status.OK.getStatusCode(), emptyHistory);
+        AdminUser adminUser = getContext(request).getAdminUser();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Optional<IdentityHistory> history = _identityPickerService.getIdentityHistory(customerId, adminUser);
+
+                Object historyData;
+                if (history.isPresent()) {
+                    historyData = history.get();
+                } else {
+                    Map<String, Object> emptyHistory = new HashMap<>();
+                    emptyHistory.put("identity_changes", new java.util.ArrayList<>());
+                    emptyHistory.put("attribute_histories", new java.util.ArrayList<>());
+                    historyData = emptyHistory;
+                }
+                // The history has no version of its own: the tag is derived from its last change date and size,
+                // so that the history is not serialized just to be compared
+                EntityTag etag = new EntityTag(IdentityPickerETagUtils.historyVersion(customerId, history.orElse(null)));
+                Response notModified = notModified(ifNoneMatch, etag);
+                return notModified != null ? notModified : jsonResponse(Response.Status.OK.getStatusCode(), historyData, etag);
+            } catch (Exception e) {
+                AppLogService.error("Error processing history for customer {}", customerId, e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity("Error processing history: " + e.getMessage())
+                               .build();
             }
-        } catch (Exception e) {
-            AppLogService.error("Error processing history for customer {}", customerId, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("Error processing history: " + e.getMessage())
-                           .build();
+        });
+    }
+
+    /**
+     * Retrieve a page of the changes of an identity, most recent first.
+     *
+     * @param customerId The customer ID to look up
+     * @param filter The optional filters: attribute key, date range, author and change type
+     * @param cursor The cursor returned with the previous page, absent for the first page
+     * @param limit The maximum number of changes of the page
+     * @param request The HTTP servlet request
+     * @param asyncResponse The suspended response, resumed with the page of changes or error details
+     */
+    @GET
+    @Path("/identity/{customer_id}/history/changes")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void getIdentityHistoryPage(@PathParam("customer_id") String customerId, @BeanParam IdentityHistoryFilter filter,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
+        if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        int pageSize = limit == null || limit <= 0 ? _nHistoryPageSize : Math.min(limit, _nHistoryMaxPageSize);
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Optional<IdentityHistoryPage> page = _identityPickerService.getIdentityHistoryPage(customerId, filter, cursor, pageSize, adminUser);
+                return boundedJsonResponse(Response.Status.OK.getStatusCode(), page.orElseGet(() -> new IdentityHistoryPage(new ArrayList<>(), 0, null)), null);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
 
+    /**
+     * Retrieve the identity, history and tasks of a customer in one call.
+     *
+     * @param customerId The customer ID to look up
+     * @param include The comma separated sections to return among identity, history and tasks, all by default
+     * @param request The HTTP servlet request
+     * @param asyncResponse The suspended response, resumed with the requested sections and the errors of the sections which could not be fetched
+     */
     @GET
-    @Path("/identity/{customer_id}/tasks")
+    @Path("/identity/{customer_id}/full")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIdentityTasks(@PathParam("customer_id") String customerId, @Context HttpServletRequest request) {
+    public void getIdentityDetail(@PathParam("customer_id") String customerId, @QueryParam("include") String include, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
-        
-        try {
-            Optional<List<IdentityTaskDto>> tasks = _identityPickerService.getIdentityTasks(customerId, AdminUserService.getAdminUser(request));
-            
-            if (tasks.isPresent()) {
-                List<IdentityTaskDto> tasksData = tasks.get();
-                return jsonResponse(Response.Status.OK.getStatusCode(), tasksData);
-            } else {
-                return jsonResponse(Response.Status.OK.getStatusCode(), new java.util.ArrayList<>());
+        Set<String> sections = StringUtils.isBlank(include)
+            ? IdentityDetail.SECTIONS
+            : Arrays.stream(include.split(",")).map(String::trim).collect(Collectors.toSet());
+        if (!IdentityDetail.SECTIONS.containsAll(sections)) {
+            asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST)
+                .entity(IdentityRestConstants.ERROR_INVALID_SECTIONS + String.join(",", IdentityDetail.SECTIONS)).build());
+            return;
+        }
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            IdentityDetail detail;
+            try {
+                detail = _identityPickerService.getIdentityDetail(customerId, sections, adminUser);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
             }
-        } catch (Exception e) {
-            AppLogService.error("Error processing tasks for customer {}", customerId, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("Error processing tasks: " + e.getMessage())
-                           .build();
+            if (sections.contains(IdentityDetail.SECTION_IDENTITY) && detail.getIdentity() == null
+                    && !detail.getErrors().containsKey(IdentityDetail.SECTION_IDENTITY)) {
+                return Response.status(Response.Status.NOT_FOUND).entity(IdentityRestConstants.ERROR_NOT_FOUND_RESOURCE).build();
+            }
+            return jsonResponse(Response.Status.OK.getStatusCode(), detail);
+        });
+    }
+
+    @GET
+    @Path("/identity/{customer_id}/tasks")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void getIdentityTasks(@PathParam("customer_id") String customerId, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
+        if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_VIEW)) {
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                Optional<List<IdentityTaskDto>> tasks = _identityPickerService.getIdentityTasks(customerId, adminUser);
+
+                if (tasks.isPresent()) {
+                    List<IdentityTaskDto> tasksData = tasks.get();
+                    return jsonResponse(Response.Status.OK.getStatusCode(), tasksData);
+                } else {
+                    return jsonResponse(Response.Status.OK.getStatusCode(), new java.util.ArrayList<>());
+                }
+            } catch (Exception e) {
+                AppLogService.error("Error processing tasks for customer {}", customerId, e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity("Error processing tasks: " + e.getMessage())
+                               .build();
+            }
+        });
     }
 
     @POST
     @Path("/identity/{customer_id}/tasks/create-account-task")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response createAccountTask(@PathParam("customer_id") String customerId, @Context HttpServletRequest request) {
+    public void createAccountTask(@PathParam("customer_id") String customerId, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_CREATE_TASK)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
-        }
-        try {
-            IdentityTaskCreateResponse response = _identityPickerService.createAccountTask(customerId, AdminUserService.getAdminUser(request));
-            return jsonResponse(Response.Status.CREATED.getStatusCode(), response);
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                IdentityTaskCreateResponse response = _identityPickerService.createAccountTask(customerId, adminUser);
+                return jsonResponse(Response.Status.CREATED.getStatusCode(), response);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
 
     @POST
     @Path("/identity/{customer_id}/tasks/validate-email-task")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response createEmailValidationTask(@PathParam("customer_id") String customerId, @Context HttpServletRequest request) {
+    public void createEmailValidationTask(@PathParam("customer_id") String customerId, @Context HttpServletRequest request, @Suspended AsyncResponse asyncResponse) {
         if (!isAuthorized(request, IdentityPickerResourceService.PERMISSION_CREATE_TASK)) {
-            return Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build();
-        }
-        try {
-            IdentityTaskCreateResponse response = _identityPickerService.createEmailValidationTask(customerId, AdminUserService.getAdminUser(request));
-            return jsonResponse(Response.Status.CREATED.getStatusCode(), response);
-        } catch (IdentityStoreException e) {
-            AppLogService.error(IdentityRestConstants.ERROR_INTERNAL_SERVER, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            asyncResponse.resume(Response.status(Response.Status.FORBIDDEN).entity(IdentityRestConstants.ERROR_UNAUTHORIZED).build());
+            return;
         }
+        AdminUser adminUser = getContext(request).getAdminUser();
+        resumeAsync(asyncResponse, () -> {
+            try {
+                IdentityTaskCreateResponse response = _identityPickerService.createEmailValidationTask(customerId, adminUser);
+                return jsonResponse(Response.Status.CREATED.getStatusCode(), response);
+            } catch (IdentityStoreException e) {
+                return errorResponse(e);
+            }
+        });
     }
     
     /**
@@ -348,6 +935,21 @@ public class IdentityRestService {
         return jsonResponse(Response.Status.OK.getStatusCode(), identities);
     }
 
+    /**
+     * Gets the admin user of the request and its permissions, resolved on the first call and reused by the
+     * following checks of the request.
+     *
+     * @param request The HTTP servlet request
+     * @return The request context
+     */
+    private IdentityPickerRequestContext getContext(HttpServletRequest request) {
+        if (_context == null) {
+            AdminUser adminUser = AdminUserService.getAdminUser(request);
+            _context = new IdentityPickerRequestContext(adminUser, _permissionSnapshotService.getSnapshot(adminUser));
+        }
+        return _context;
+    }
+
     /**
      * Checks if the current user is authorized to perform an action.
      *
@@ -356,8 +958,8 @@ public class IdentityRestService {
      * @return true if authorized, false otherwise
      */
     private boolean isAuthorized(HttpServletRequest request, String permission) {
-        AdminUser adminUser = AdminUserService.getAdminUser(request);
-        return adminUser != null && (permission == null || RBACService.isAuthorized(IdentityPickerResourceService.RESOURCE_TYPE, RBAC.WILDCARD_RESOURCES_ID, permission, (User) adminUser));
+        IdentityPickerRequestContext context = getContext(request);
+        return context.getAdminUser() != null && (permission == null || context.getPermissions().has(permission));
     }
 
     /**
@@ -368,16 +970,8 @@ public class IdentityRestService {
      * @return true if the user has at least one permission, false otherwise
      */
     private boolean hasAnyPermission(HttpServletRequest request, String... permissions) {
-        AdminUser adminUser = AdminUserService.getAdminUser(request);
-        if (adminUser == null) {
-            return false;
-        }
-        for (String permission : permissions) {
-            if (RBACService.isAuthorized(IdentityPickerResourceService.RESOURCE_TYPE, RBAC.WILDCARD_RESOURCES_ID, permission, (User) adminUser)) {
-                return true;
-            }
-        }
-        return false;
+        IdentityPickerRequestContext context = getContext(request);
+        return context.getAdminUser() != null && context.getPermissions().hasAny(permissions);
     }
 
 }
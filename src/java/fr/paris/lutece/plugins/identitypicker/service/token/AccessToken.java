@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.token;
+
+/**
+ * An access token of the access manager, with its validity
+ */
+public final class AccessToken
+{
+    private final String _strValue;
+    private final long _lFetchedAt;
+    private final long _lExpiresAt;
+
+    /**
+     * Constructor
+     *
+     * @param strValue
+     *            the token
+     * @param lFetchedAt
+     *            the time the token was requested, as a {@link System#nanoTime()} value
+     * @param lExpiresAt
+     *            the time the token expires, as a {@link System#nanoTime()} value
+     */
+    public AccessToken( String strValue, long lFetchedAt, long lExpiresAt )
+    {
+        _strValue = strValue;
+        _lFetchedAt = lFetchedAt;
+        _lExpiresAt = lExpiresAt;
+    }
+
+    /**
+     * Gets the token
+     *
+     * @return the token
+     */
+    public String getValue( )
+    {
+        return _strValue;
+    }
+
+    /**
+     * Gets the time the token was requested
+     *
+     * @return the time, as a {@link System#nanoTime()} value
+     */
+    public long getFetchedAt( )
+    {
+        return _lFetchedAt;
+    }
+
+    /**
+     * Gets the time the token expires
+     *
+     * @return the time, as a {@link System#nanoTime()} value
+     */
+    public long getExpiresAt( )
+    {
+        return _lExpiresAt;
+    }
+}
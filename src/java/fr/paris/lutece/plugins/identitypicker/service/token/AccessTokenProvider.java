@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.token;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.identitypicker.service.IdentityPickerExecutorService;
+import fr.paris.lutece.plugins.identitypicker.service.concurrent.SingleFlight;
+import fr.paris.lutece.plugins.identitystore.web.exception.IdentityStoreException;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Provides the access manager token shared by all the identity store calls (OAuth2 client credentials grant).
+ *
+ * The token is cached until shortly before its expiry, and refreshed in background ahead of it, so that the calls do not wait for a token
+ * request. When a token must be requested on a call (at startup, or after an expiry or a rejection), a single request is sent and the other
+ * callers wait for it.
+ */
+@ApplicationScoped
+@Named( "identitypicker.accessTokenProvider" )
+public class AccessTokenProvider
+{
+    private static final String FLIGHT_KEY = "token";
+    private static final String GRANT_CLIENT_CREDENTIALS = "grant_type=client_credentials";
+    private static final String FIELD_ACCESS_TOKEN = "access_token";
+    private static final String FIELD_EXPIRES_IN = "expires_in";
+    private static final long DEFAULT_EXPIRES_IN = 300;
+    private static final long RETRY_DELAY = 5;
+    private static final ObjectMapper _mapper = new ObjectMapper( );
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.identitystore.accessManagerEndPointUrl" )
+    private Optional<String> _strEndPointUrl;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.identitystore.accessManagerCredentials" )
+    private Optional<String> _strCredentials;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.token.expirySkew", defaultValue = "10" )
+    private long _lExpirySkew;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.token.refreshAhead", defaultValue = "60" )
+    private long _lRefreshAhead;
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.token.timeout", defaultValue = "5000" )
+    private long _lTimeout;
+
+    @Inject
+    @Named( "identitypicker.executorService" )
+    private IdentityPickerExecutorService _executorService;
+
+    private final SingleFlight<String, AccessToken> _fetches = new SingleFlight<>( );
+    private final LongAdder _fetchCount = new LongAdder( );
+    private final LongAdder _invalidationCount = new LongAdder( );
+    private HttpClient _httpClient;
+    private volatile AccessToken _token;
+    private ScheduledFuture<?> _refresh;
+
+    /**
+     * Creates the HTTP client once the configuration is injected
+     */
+    @PostConstruct
+    void init( )
+    {
+        _httpClient = HttpClient.newBuilder( ).connectTimeout( Duration.ofMillis( _lTimeout ) ).build( );
+    }
+
+    /**
+     * Tells whether an access manager is configured
+     *
+     * @return true if the identity store calls need a token
+     */
+    public boolean isEnabled( )
+    {
+        return StringUtils.isNotBlank( _strEndPointUrl.orElse( null ) );
+    }
+
+    /**
+     * Gets a valid token, requesting one only if the cached token is missing or about to expire
+     *
+     * @return the token
+     * @throws IdentityStoreException
+     *             if the token can not be obtained
+     */
+    public String getToken( ) throws IdentityStoreException
+    {
+        AccessToken token = _token;
+        if ( token != null && System.nanoTime( ) < token.getExpiresAt( ) )
+        {
+            return token.getValue( );
+        }
+        return _fetches.execute( FLIGHT_KEY, this::fetchIfNeeded ).getValue( );
+    }
+
+    /**
+     * Drops the cached token after a call was rejected, unless the token was replaced after the call started: concurrent rejections of the same
+     * token lead to a single new request.
+     *
+     * @param lCallStart
+     *            the time the rejected call started, as a {@link System#nanoTime()} value
+     */
+    public void invalidate( long lCallStart )
+    {
+        AccessToken token = _token;
+        if ( token != null && token.getFetchedAt( ) < lCallStart )
+        {
+            _invalidationCount.increment( );
+            _token = null;
+        }
+    }
+
+    /**
+     * Requests a token unless another caller got a valid one while this caller was waiting
+     *
+     * @return the valid token
+     * @throws IdentityStoreException
+     *             if the token can not be obtained
+     */
+    private AccessToken fetchIfNeeded( ) throws IdentityStoreException
+    {
+        AccessToken token = _token;
+        if ( token != null && System.nanoTime( ) < token.getExpiresAt( ) )
+        {
+            return token;
+        }
+        return fetch( );
+    }
+
+    /**
+     * Requests a token from the access manager, caches it, and schedules its refresh
+     *
+     * @return the new token
+     * @throws IdentityStoreException
+     *             if the token can not be obtained
+     */
+    private AccessToken fetch( ) throws IdentityStoreException
+    {
+        _fetchCount.increment( );
+        long lFetchedAt = System.nanoTime( );
+        HttpRequest request = HttpRequest.newBuilder( URI.create( _strEndPointUrl.orElse( "" ) ) )
+                .timeout( Duration.ofMillis( _lTimeout ) )
+                .header( "Content-Type", "application/x-www-form-urlencoded" )
+                .header( "Authorization", "Basic " + _strCredentials.orElse( "" ) )
+                .POST( HttpRequest.BodyPublishers.ofString( GRANT_CLIENT_CREDENTIALS ) )
+                .build( );
+        try
+        {
+            HttpResponse<String> response = _httpClient.send( request, HttpResponse.BodyHandlers.ofString( ) );
+            if ( response.statusCode( ) != 200 )
+            {
+                throw new IdentityStoreException( "Access manager answered " + response.statusCode( ) + " to the token request" );
+            }
+            JsonNode body = _mapper.readTree( response.body( ) );
+            String strToken = body.path( FIELD_ACCESS_TOKEN ).asText( null );
+            if ( strToken == null )
+            {
+                throw new IdentityStoreException( "No access token in the access manager response" );
+            }
+            long lExpiresIn = body.path( FIELD_EXPIRES_IN ).asLong( DEFAULT_EXPIRES_IN );
+            // The token is considered expired a little before its actual expiry, so that it is not rejected on its way
+            long lExpiresAt = lFetchedAt + TimeUnit.SECONDS.toNanos( Math.max( 0, lExpiresIn - _lExpirySkew ) );
+            AccessToken token = new AccessToken( strToken, lFetchedAt, lExpiresAt );
+            _token = token;
+            // A short lived token is refreshed at half of its lifetime rather than continuously
+            long lLifetime = Math.max( 0, lExpiresIn - _lExpirySkew );
+            scheduleRefresh( Math.max( lLifetime / 2, lLifetime - _lRefreshAhead ) );
+            return token;
+        }
+        catch( IOException e )
+        {
+            throw new IdentityStoreException( "Unable to get an access token: " + e.getMessage( ), e );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread( ).interrupt( );
+            throw new IdentityStoreException( "Interrupted while getting an access token", e );
+        }
+    }
+
+    /**
+     * Schedules the background refresh of the token
+     *
+     * @param lDelay
+     *            the delay before the refresh, in seconds
+     */
+    private synchronized void scheduleRefresh( long lDelay )
+    {
+        if ( _refresh != null )
+        {
+            _refresh.cancel( false );
+        }
+        _refresh = _executorService.getRefreshExecutor( ).schedule( this::refresh, lDelay, TimeUnit.SECONDS );
+    }
+
+    /**
+     * Refreshes the token in background. On failure the current token is kept while it is valid, and the refresh is tried again shortly.
+     */
+    private void refresh( )
+    {
+        try
+        {
+            _fetches.execute( FLIGHT_KEY, this::fetch );
+        }
+        catch( IdentityStoreException | RuntimeException e )
+        {
+            AppLogService.error( "Unable to refresh the access token of the identity store", e );
+            AccessToken token = _token;
+            if ( token != null && System.nanoTime( ) < token.getExpiresAt( ) )
+            {
+                scheduleRefresh( RETRY_DELAY );
+            }
+        }
+    }
+
+    /**
+     * Gets the number of token requests sent to the access manager
+     *
+     * @return the fetch count
+     */
+    public long getFetchCount( )
+    {
+        return _fetchCount.sum( );
+    }
+
+    /**
+     * Gets the number of tokens dropped after a rejected call
+     *
+     * @return the invalidation count
+     */
+    public long getInvalidationCount( )
+    {
+        return _invalidationCount.sum( );
+    }
+}
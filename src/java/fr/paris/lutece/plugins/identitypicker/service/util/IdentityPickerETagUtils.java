@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.IdentityDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.AttributeChange;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.AttributeHistory;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityChange;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.history.IdentityHistory;
+
+/**
+ * Utility class computing the versions used as strong entity tags by the REST service
+ */
+public final class IdentityPickerETagUtils
+{
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int VERSION_BYTES = 16;
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Private constructor
+     */
+    private IdentityPickerETagUtils( )
+    {
+    }
+
+    /**
+     * Computes the version of a content
+     *
+     * @param content
+     *            the content
+     * @return a hexadecimal hash of the content
+     */
+    public static String hash( byte [ ] content )
+    {
+        try
+        {
+            byte [ ] digest = MessageDigest.getInstance( DIGEST_ALGORITHM ).digest( content );
+            StringBuilder sbVersion = new StringBuilder( VERSION_BYTES * 2 );
+            for ( int i = 0; i < VERSION_BYTES; i++ )
+            {
+                sbVersion.append( Character.forDigit( ( digest [i] >> 4 ) & 0xF, 16 ) );
+                sbVersion.append( Character.forDigit( digest [i] & 0xF, 16 ) );
+            }
+            return sbVersion.toString( );
+        }
+        catch( NoSuchAlgorithmException e )
+        {
+            // SHA-256 is provided by every Java platform
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Computes the version of several contents
+     *
+     * @param parts
+     *            the contents
+     * @return a hexadecimal hash of the contents
+     */
+    public static String hash( String... parts )
+    {
+        return hash( String.join( String.valueOf( SEPARATOR ), parts ).getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Computes the version of an identity from its customer id and last update date, without serializing it
+     *
+     * @param identity
+     *            the identity
+     * @return the version of the identity
+     */
+    public static String identityVersion( IdentityDto identity )
+    {
+        return hash( identity.getCustomerId( ), String.valueOf( identity.getLastUpdateDate( ) ) );
+    }
+
+    /**
+     * Computes the version of a history from its customer id, number of changes and last change date, without serializing it. The history of
+     * an identity only grows, so a new change moves both markers.
+     *
+     * @param strCustomerId
+     *            the customer id
+     * @param history
+     *            the history, or null if it is not found
+     * @return the version of the history
+     */
+    public static String historyVersion( String strCustomerId, IdentityHistory history )
+    {
+        int nChanges = 0;
+        long lLastChange = 0;
+        if ( history != null )
+        {
+            if ( history.getIdentityChanges( ) != null )
+            {
+                for ( IdentityChange change : history.getIdentityChanges( ) )
+                {
+                    nChanges++;
+                    lLastChange = Math.max( lLastChange, getTime( change.getModificationDate( ) ) );
+                }
+            }
+            if ( history.getAttributeHistories( ) != null )
+            {
+                for ( AttributeHistory attributeHistory : history.getAttributeHistories( ) )
+                {
+                    if ( attributeHistory.getAttributeChanges( ) != null )
+                    {
+                        for ( AttributeChange change : attributeHistory.getAttributeChanges( ) )
+                        {
+                            nChanges++;
+                            lLastChange = Math.max( lLastChange, getTime( change.getModificationDate( ) ) );
+                        }
+                    }
+                }
+            }
+        }
+        return hash( strCustomerId, String.valueOf( nChanges ), String.valueOf( lLastChange ) );
+    }
+
+    /**
+     * Gets the time of a date
+     *
+     * @param date
+     *            the date, or null
+     * @return the time in epoch milliseconds, 0 for null
+     */
+    private static long getTime( Date date )
+    {
+        return date != null ? date.getTime( ) : 0;
+    }
+}
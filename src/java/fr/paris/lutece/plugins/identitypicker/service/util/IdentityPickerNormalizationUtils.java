@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.util;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Utility class normalizing the values typed by the agents, so that equivalent inputs can be compared
+ */
+public final class IdentityPickerNormalizationUtils
+{
+    private static final Pattern PATTERN_DIACRITICS = Pattern.compile( "\\p{M}+" );
+    private static final Pattern PATTERN_SPACES = Pattern.compile( "\\s+" );
+    private static final DateTimeFormatter [ ] DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern( "d/M/yyyy" ), DateTimeFormatter.ofPattern( "d-M-yyyy" )
+    };
+
+    /**
+     * Private constructor
+     */
+    private IdentityPickerNormalizationUtils( )
+    {
+    }
+
+    /**
+     * Normalizes a text: trims it, collapses the spaces, removes the accents and lowers the case
+     *
+     * @param strText
+     *            the text
+     * @return the normalized text, or an empty string if the text is null
+     */
+    public static String normalizeText( String strText )
+    {
+        if ( strText == null )
+        {
+            return StringUtils.EMPTY;
+        }
+        String strDecomposed = Normalizer.normalize( strText.trim( ), Normalizer.Form.NFD );
+        String strNoAccent = PATTERN_DIACRITICS.matcher( strDecomposed ).replaceAll( StringUtils.EMPTY );
+        return PATTERN_SPACES.matcher( strNoAccent ).replaceAll( " " ).toLowerCase( Locale.ROOT );
+    }
+
+    /**
+     * Normalizes a date typed either as yyyy-MM-dd or dd/MM/yyyy into the ISO format
+     *
+     * @param strDate
+     *            the date
+     * @return the ISO date, or the trimmed input if it is not a recognized date
+     */
+    public static String normalizeDate( String strDate )
+    {
+        String strTrimmed = StringUtils.trimToEmpty( strDate );
+        for ( DateTimeFormatter format : DATE_FORMATS )
+        {
+            try
+            {
+                return LocalDate.parse( strTrimmed, format ).toString( );
+            }
+            catch( DateTimeParseException e )
+            {
+                // Try the next format
+            }
+        }
+        return strTrimmed;
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.validation;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.util.Constants;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Checks the attributes of an identity change against a service contract and the attribute referential.
+ *
+ * The rules are compiled once from the JSON form of the contract and referential, the one sent to the picker by /rules, so that a change can be
+ * checked without any call to the identity store. Instances are immutable and can be shared between threads.
+ */
+public final class IdentityChangeValidator
+{
+    public static final String MESSAGE_UNKNOWN_ATTRIBUTE = "identitypicker.validation.unknownAttribute";
+    public static final String MESSAGE_NOT_WRITABLE = "identitypicker.validation.notWritable";
+    public static final String MESSAGE_MANDATORY = "identitypicker.validation.mandatory";
+    public static final String MESSAGE_CERTIFICATION = "identitypicker.validation.certification";
+    public static final String MESSAGE_VALUE = "identitypicker.validation.value";
+    public static final String MESSAGE_DATE = "identitypicker.validation.date";
+    public static final String MESSAGE_EMAIL = "identitypicker.validation.email";
+    public static final String MESSAGE_FORMAT = "identitypicker.validation.format";
+
+    private static final String KEY_TYPE_DATE = "date";
+    private static final Set<String> EMAIL_KEYS = Set.of( "email", "login" );
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern( "dd/MM/uuuu" ).withResolverStyle( ResolverStyle.STRICT );
+    private static final Pattern EMAIL_PATTERN = Pattern.compile( "^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$" );
+
+    private final Map<String, AttributeRule> _mapRules;
+    private final String _strVersion;
+
+    /**
+     * Constructor
+     *
+     * @param mapRules
+     *            the rules by attribute key
+     * @param strVersion
+     *            the version of the rules the validator was compiled from
+     */
+    private IdentityChangeValidator( Map<String, AttributeRule> mapRules, String strVersion )
+    {
+        _mapRules = mapRules;
+        _strVersion = strVersion;
+    }
+
+    /**
+     * Compiles the rules of a service contract.
+     *
+     * @param contract
+     *            the service contract, as serialized for the picker
+     * @param referential
+     *            the referential, as serialized for the picker
+     * @param strVersion
+     *            the version of the contract and referential
+     * @return the validator
+     */
+    public static IdentityChangeValidator compile( JsonNode contract, JsonNode referential, String strVersion )
+    {
+        Map<String, JsonNode> mapKeys = new HashMap<>( );
+        for ( JsonNode attributeKey : referential.path( "attributeKeyList" ).path( "attributeKeys" ) )
+        {
+            mapKeys.put( attributeKey.path( "keyName" ).asText( ), attributeKey );
+        }
+
+        Map<String, AttributeRule> mapRules = new HashMap<>( );
+        for ( JsonNode definition : contract.path( "attributeDefinitions" ) )
+        {
+            String strKey = definition.path( "keyName" ).asText( );
+            if ( StringUtils.isNotEmpty( strKey ) )
+            {
+                mapRules.put( strKey, compileRule( strKey, definition, mapKeys.get( strKey ) ) );
+            }
+        }
+        return new IdentityChangeValidator( Collections.unmodifiableMap( mapRules ), strVersion );
+    }
+
+    /**
+     * Compiles the rule of an attribute
+     *
+     * @param strKey
+     *            the attribute key
+     * @param definition
+     *            the attribute definition of the contract
+     * @param attributeKey
+     *            the attribute key of the referential, null if the referential does not hold it
+     * @return the rule
+     */
+    private static AttributeRule compileRule( String strKey, JsonNode definition, JsonNode attributeKey )
+    {
+        JsonNode right = definition.path( "attributeRight" );
+        Set<String> setCertifications = new HashSet<>( );
+        for ( JsonNode certification : definition.path( "attributeCertifications" ) )
+        {
+            setCertifications.add( certification.path( "code" ).asText( ) );
+        }
+
+        Set<String> setValues = new HashSet<>( );
+        Pattern pattern = null;
+        String strPatternMessage = null;
+        String strKeyType = null;
+        if ( attributeKey != null )
+        {
+            for ( JsonNode value : attributeKey.path( "values" ) )
+            {
+                setValues.add( value.path( "value" ).asText( ) );
+            }
+            strKeyType = attributeKey.path( "keyType" ).asText( null );
+            String strRegex = attributeKey.path( "validationRegex" ).asText( null );
+            if ( StringUtils.isNotEmpty( strRegex ) )
+            {
+                try
+                {
+                    pattern = Pattern.compile( strRegex );
+                    strPatternMessage = attributeKey.path( "validationErrorMessage" ).asText( null );
+                }
+                catch( PatternSyntaxException e )
+                {
+                    AppLogService.error( "Invalid validation pattern of attribute {}, the attribute format is not checked", strKey, e );
+                }
+            }
+        }
+
+        Format format = Format.NONE;
+        if ( KEY_TYPE_DATE.equalsIgnoreCase( strKeyType ) || Constants.PARAM_BIRTH_DATE.equals( strKey ) )
+        {
+            format = Format.DATE;
+        }
+        else if ( EMAIL_KEYS.contains( strKey ) )
+        {
+            format = Format.EMAIL;
+        }
+
+        return new AttributeRule( right.path( "writable" ).asBoolean( ), right.path( "mandatory" ).asBoolean( ), Collections.unmodifiableSet( setCertifications ),
+                Collections.unmodifiableSet( setValues ), format, pattern, strPatternMessage );
+    }
+
+    /**
+     * Gets the version of the rules the validator was compiled from
+     *
+     * @return the version
+     */
+    public String getVersion( )
+    {
+        return _strVersion;
+    }
+
+    /**
+     * Checks the attributes of an identity change.
+     *
+     * @param listAttributes
+     *            the attributes sent to the identity store
+     * @param bCreation
+     *            true for a creation, whose mandatory attributes must all be set
+     * @return the violations, empty if the change is valid
+     */
+    public List<Violation> validate( List<AttributeDto> listAttributes, boolean bCreation )
+    {
+        List<Violation> listViolations = new ArrayList<>( );
+        Set<String> setKeys = new HashSet<>( );
+        for ( AttributeDto attribute : listAttributes )
+        {
+            setKeys.add( attribute.getKey( ) );
+            AttributeRule rule = _mapRules.get( attribute.getKey( ) );
+            if ( rule == null )
+            {
+                listViolations.add( new Violation( attribute.getKey( ), MESSAGE_UNKNOWN_ATTRIBUTE, null ) );
+            }
+            else
+            {
+                validateAttribute( attribute, rule, listViolations );
+            }
+        }
+
+        if ( bCreation )
+        {
+            for ( Map.Entry<String, AttributeRule> entry : _mapRules.entrySet( ) )
+            {
+                if ( entry.getValue( )._bMandatory && !setKeys.contains( entry.getKey( ) ) )
+                {
+                    listViolations.add( new Violation( entry.getKey( ), MESSAGE_MANDATORY, null ) );
+                }
+            }
+        }
+        return listViolations;
+    }
+
+    /**
+     * Checks an attribute against its rule
+     *
+     * @param attribute
+     *            the attribute
+     * @param rule
+     *            the rule of the attribute
+     * @param listViolations
+     *            the violations, the ones of the attribute are added to
+     */
+    private static void validateAttribute( AttributeDto attribute, AttributeRule rule, List<Violation> listViolations )
+    {
+        String strKey = attribute.getKey( );
+        if ( !rule._bWritable )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_NOT_WRITABLE, null ) );
+            return;
+        }
+        if ( StringUtils.isNotBlank( attribute.getCertifier( ) ) && !rule._setCertifications.contains( attribute.getCertifier( ) ) )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_CERTIFICATION, null, attribute.getCertifier( ) ) );
+        }
+
+        String strValue = attribute.getValue( );
+        if ( StringUtils.isBlank( strValue ) )
+        {
+            if ( rule._bMandatory )
+            {
+                listViolations.add( new Violation( strKey, MESSAGE_MANDATORY, null ) );
+            }
+            return;
+        }
+        if ( !rule._setValues.isEmpty( ) && !rule._setValues.contains( strValue ) )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_VALUE, null, strValue ) );
+        }
+        else if ( rule._format == Format.DATE && !isDate( strValue ) )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_DATE, null, strValue ) );
+        }
+        else if ( rule._format == Format.EMAIL && !EMAIL_PATTERN.matcher( strValue ).matches( ) )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_EMAIL, null, strValue ) );
+        }
+        else if ( rule._pattern != null && !rule._pattern.matcher( strValue ).matches( ) )
+        {
+            listViolations.add( new Violation( strKey, MESSAGE_FORMAT, rule._strPatternMessage, strValue ) );
+        }
+    }
+
+    /**
+     * Checks a date in the format of the identity store
+     *
+     * @param strValue
+     *            the value
+     * @return true if the value is a valid date
+     */
+    private static boolean isDate( String strValue )
+    {
+        try
+        {
+            LocalDate.parse( strValue, DATE_FORMAT );
+            return true;
+        }
+        catch( DateTimeParseException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Format checked on the value of an attribute
+     */
+    private enum Format
+    {
+        NONE,
+        DATE,
+        EMAIL
+    }
+
+    /**
+     * Compiled rule of an attribute
+     */
+    private static final class AttributeRule
+    {
+        private final boolean _bWritable;
+        private final boolean _bMandatory;
+        private final Set<String> _setCertifications;
+        private final Set<String> _setValues;
+        private final Format _format;
+        private final Pattern _pattern;
+        private final String _strPatternMessage;
+
+        AttributeRule( boolean bWritable, boolean bMandatory, Set<String> setCertifications, Set<String> setValues, Format format, Pattern pattern,
+                String strPatternMessage )
+        {
+            _bWritable = bWritable;
+            _bMandatory = bMandatory;
+            _setCertifications = setCertifications;
+            _setValues = setValues;
+            _format = format;
+            _pattern = pattern;
+            _strPatternMessage = strPatternMessage;
+        }
+    }
+
+    /**
+     * Rule broken by an attribute of a change
+     */
+    public static final class Violation
+    {
+        private final String _strKey;
+        private final String _strMessageKey;
+        private final Object [ ] _args;
+        private final String _strMessage;
+
+        /**
+         * Constructor
+         *
+         * @param strKey
+         *            the attribute key
+         * @param strMessageKey
+         *            the key of the message describing the violation
+         * @param strMessage
+         *            the message given by the referential, null to use the localized message
+         * @param args
+         *            the arguments of the message
+         */
+        Violation( String strKey, String strMessageKey, String strMessage, Object... args )
+        {
+            _strKey = strKey;
+            _strMessageKey = strMessageKey;
+            _strMessage = strMessage;
+            _args = args;
+        }
+
+        /**
+         * @return the attribute key
+         */
+        public String getKey( )
+        {
+            return _strKey;
+        }
+
+        /**
+         * @return the key of the message describing the violation
+         */
+        public String getMessageKey( )
+        {
+            return _strMessageKey;
+        }
+
+        /**
+         * @return the arguments of the message
+         */
+        public Object [ ] getArgs( )
+        {
+            return _args;
+        }
+
+        /**
+         * @return the message given by the referential for this violation, null to use the localized message
+         */
+        public String getMessage( )
+        {
+            return _strMessage;
+        }
+    }
+}
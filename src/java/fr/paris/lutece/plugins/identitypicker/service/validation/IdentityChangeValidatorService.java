@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2024, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.identitypicker.service.validation;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.identitypicker.business.ClientRules;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeChangeStatus;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeDto;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.AttributeStatus;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.ResponseStatus;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.common.ResponseStatusType;
+import fr.paris.lutece.plugins.identitystore.v3.web.rs.dto.crud.IdentityChangeResponse;
+import fr.paris.lutece.portal.service.i18n.I18nService;
+
+/**
+ * Checks the identity changes against the cached service contract before they are sent to the identity store.
+ *
+ * The validator is compiled once per version of the rules. A rejected change gets the response shape of the identity store, with one attribute
+ * status per violation, so that the picker displays it as it displays the identity store errors.
+ */
+@ApplicationScoped
+@Named( "identitypicker.identityChangeValidatorService" )
+public class IdentityChangeValidatorService
+{
+    private static final String MESSAGE_FAILURE = "identitypicker.validation.failure";
+
+    private static final ObjectMapper _mapper = new ObjectMapper( );
+
+    @Inject
+    @ConfigProperty( name = "identitypicker.validation.enabled", defaultValue = "true" )
+    private boolean _bEnabled;
+
+    private volatile IdentityChangeValidator _validator;
+
+    /**
+     * Tells whether the changes are checked before they are sent to the identity store
+     *
+     * @return true if the local validation is enabled
+     */
+    public boolean isEnabled( )
+    {
+        return _bEnabled;
+    }
+
+    /**
+     * Gets the validator of a version of the rules, compiling it on the first call.
+     *
+     * @param clientRules
+     *            the rules
+     * @return the validator
+     */
+    public IdentityChangeValidator getValidator( ClientRules clientRules )
+    {
+        IdentityChangeValidator validator = _validator;
+        if ( validator == null || !validator.getVersion( ).equals( clientRules.getVersion( ) ) )
+        {
+            // Concurrent compilations of the same version build equal validators, the last one is kept
+            validator = IdentityChangeValidator.compile( _mapper.valueToTree( clientRules.getContract( ) ), _mapper.valueToTree( clientRules.getReferential( ) ),
+                    clientRules.getVersion( ) );
+            _validator = validator;
+        }
+        return validator;
+    }
+
+    /**
+     * Checks the attributes of an identity change.
+     *
+     * @param clientRules
+     *            the rules of the client code
+     * @param listAttributes
+     *            the attributes sent to the identity store
+     * @param bCreation
+     *            true for a creation, false for an update
+     * @param locale
+     *            the locale of the messages
+     * @return the failure response of the change, or empty if the change is valid
+     */
+    public Optional<IdentityChangeResponse> validate( ClientRules clientRules, List<AttributeDto> listAttributes, boolean bCreation, Locale locale )
+    {
+        List<IdentityChangeValidator.Violation> listViolations = getValidator( clientRules ).validate( listAttributes, bCreation );
+        if ( listViolations.isEmpty( ) )
+        {
+            return Optional.empty( );
+        }
+
+        AttributeChangeStatus changeStatus = bCreation ? AttributeChangeStatus.NOT_CREATED : AttributeChangeStatus.NOT_UPDATED;
+        List<AttributeStatus> listStatuses = listViolations.stream( ).map( violation -> {
+            AttributeStatus status = new AttributeStatus( );
+            status.setKey( violation.getKey( ) );
+            status.setStatus( changeStatus );
+            status.setMessageKey( violation.getMessageKey( ) );
+            status.setMessage( violation.getMessage( ) != null ? violation.getMessage( )
+                    : I18nService.getLocalizedString( violation.getMessageKey( ), violation.getArgs( ), locale ) );
+            return status;
+        } ).collect( Collectors.toList( ) );
+
+        ResponseStatus status = new ResponseStatus( );
+        status.setType( ResponseStatusType.FAILURE );
+        status.setHttpCode( HttpServletResponse.SC_BAD_REQUEST );
+        status.setMessageKey( MESSAGE_FAILURE );
+        status.setMessage( I18nService.getLocalizedString( MESSAGE_FAILURE, new Object [ 0 ], locale ) );
+        status.setAttributeStatuses( listStatuses );
+
+        IdentityChangeResponse response = new IdentityChangeResponse( );
+        response.setStatus( status );
+        return Optional.of( response );
+    }
+}
@@ -31,11 +31,15 @@
                 modalMaxHeight: 0.9,
             },
             endpoints: {
+                bootstrap: 'rest/identitypicker/api/bootstrap',
                 permissions: 'rest/identitypicker/api/permissions',
                 search: 'rest/identitypicker/api/search',
                 identity: 'rest/identitypicker/api/identity',
                 history: 'history',
+                changes: 'changes',
                 tasks: 'tasks',
+                full: 'full',
+                batch: 'batch',
                 rules: 'rest/identitypicker/api/rules',
                 countries: 'rest/geocodesclient/api/v1/countries',
                 cities: 'rest/geocodesclient/api/v1/cities',
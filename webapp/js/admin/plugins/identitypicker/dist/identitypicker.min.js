@@ -1,3 +1,3 @@
 function e(e,t){(null==t||t>e.length)&&(t=e.length);for(var i=0,n=Array(t);i<t;i++)n[i]=e[i];return n}function t(e,t,i,n,r,o,a){try{var s=e[o](a),c=s.value}catch(e){return void i(e)}s.done?t(c):Promise.resolve(c).then(n,r)}function i(e){return function(){var i=this,n=arguments;return new Promise(function(r,o){var a=e.apply(i,n);function s(e){t(a,r,o,s,c,"next",e)}function c(e){t(a,r,o,s,c,"throw",e)}s(void 0)})}}function n(e,t,i){return t=l(t),function(e,t){if(t&&("object"==typeof t||"function"==typeof t))return t;if(void 0!==t)throw new TypeError("Derived constructors may only return object or undefined");return function(e){if(void 0===e)throw new ReferenceError("this hasn't been initialised - super() hasn't been called");return e}(e)}(e,d()?Reflect.construct(t,i||[],l(e).constructor):t.apply(e,i))}function r(e,t){if(!(e instanceof t))throw new TypeError("Cannot call a class as a function")}function o(e,t){for(var i=0;i<t.length;i++){var n=t[i];n.enumerable=n.enumerable||!1,n.configurable=!0,"value"in n&&(n.writable=!0),Object.defineProperty(e,b(n.key),n)}}function a(e,t,i){return t&&o(e.prototype,t),i&&o(e,i),Object.defineProperty(e,"prototype",{writable:!1}),e}function s(e,t){var i="undefined"!=typeof Symbol&&e[Symbol.iterator]||e["@@iterator"];if(!i){if(Array.isArray(e)||(i=_(e))||t){i&&(e=i);var n=0,r=function(){};return{s:r,n:function(){return n>=e.length?{done:!0}:{done:!1,value:e[n++]}},e:function(e){throw e},f:r}}throw new TypeError("Invalid attempt to iterate non-iterable instance.\nIn order to be iterable, non-array objects must have a [Symbol.iterator]() method.")}var o,a=!0,s=!1;return{s:function(){i=i.call(e)},n:function(){var e=i.next();return a=e.done,e},e:function(e){s=!0,o=e},f:function(){try{a||null==i.return||i.return()}finally{if(s)throw o}}}}function c(e,t,i){return(t=b(t))in e?Object.defineProperty(e,t,{value:i,enumerable:!0,configurable:!0,writable:!0}):e[t]=i,e}function l(e){return l=Object.setPrototypeOf?Object.getPrototypeOf.bind():function(e){return e.__proto__||Object.getPrototypeOf(e)},l(e)}function u(e,t){if("function"!=typeof t&&null!==t)throw new TypeError("Super expression must either be null or a function");e.prototype=Object.create(t&&t.prototype,{constructor:{value:e,writable:!0,configurable:!0}}),Object.defineProperty(e,"prototype",{writable:!1}),t&&m(e,t)}function d(){try{var e=!Boolean.prototype.valueOf.call(Reflect.construct(Boolean,[],function(){}))}catch(e){}return(d=function(){return!!e})()}function h(e,t){var i=Object.keys(e);if(Object.getOwnPropertySymbols){var n=Object.getOwnPropertySymbols(e);t&&(n=n.filter(function(t){return Object.getOwnPropertyDescriptor(e,t).enumerable})),i.push.apply(i,n)}return i}function p(e){for(var t=1;t<arguments.length;t++){var i=null!=arguments[t]?arguments[t]:{};t%2?h(Object(i),!0).forEach(function(t){c(e,t,i[t])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(i)):h(Object(i)).forEach(function(t){Object.defineProperty(e,t,Object.getOwnPropertyDescriptor(i,t))})}return e}function f(){
 /*! regenerator-runtime -- Copyright (c) 2014-present, Facebook, Inc. -- license (MIT): https://github.com/babel/babel/blob/main/packages/babel-helpers/LICENSE */
-var e,t,i="function"==typeof Symbol?Symbol:{},n=i.iterator||"@@iterator",r=i.toStringTag||"@@toStringTag";function o(i,n,r,o){var c=n&&n.prototype instanceof s?n:s,l=Object.create(c.prototype);return g(l,"_invoke",function(i,n,r){var o,s,c,l=0,u=r||[],d=!1,h={p:0,n:0,v:e,a:p,f:p.bind(e,4),d:function(t,i){return o=t,s=0,c=e,h.n=i,a}};function p(i,n){for(s=i,c=n,t=0;!d&&l&&!r&&t<u.length;t++){var r,o=u[t],p=h.p,f=o[2];i>3?(r=f===n)&&(c=o[(s=o[4])?5:(s=3,3)],o[4]=o[5]=e):o[0]<=p&&((r=i<2&&p<o[1])?(s=0,h.v=n,h.n=o[1]):p<f&&(r=i<3||o[0]>n||n>f)&&(o[4]=i,o[5]=n,h.n=f,s=0))}if(r||i>1)return a;throw d=!0,n}return function(r,u,f){if(l>1)throw TypeError("Generator is already running");for(d&&1===u&&p(u,f),s=u,c=f;(t=s<2?e:c)||!d;){o||(s?s<3?(s>1&&(h.n=-1),p(s,c)):h.n=c:h.v=c);try{if(l=2,o){if(s||(r="next"),t=o[r]){if(!(t=t.call(o,c)))throw TypeError("iterator result is not an object");if(!t.done)return t;c=t.value,s<2&&(s=0)}else 1===s&&(t=o.return)&&t.call(o),s<2&&(c=TypeError("The iterator does not provide a '"+r+"' method"),s=1);o=e}else if((t=(d=h.n<0)?c:i.call(n,h))!==a)break}catch(t){o=e,s=1,c=t}finally{l=1}}return{value:t,done:d}}}(i,r,o),!0),l}var a={};function s(){}function c(){}function l(){}t=Object.getPrototypeOf;var u=[][n]?t(t([][n]())):(g(t={},n,function(){return this}),t),d=l.prototype=s.prototype=Object.create(u);function h(e){return Object.setPrototypeOf?Object.setPrototypeOf(e,l):(e.__proto__=l,g(e,r,"GeneratorFunction")),e.prototype=Object.create(d),e}return c.prototype=l,g(d,"constructor",l),g(l,"constructor",c),c.displayName="GeneratorFunction",g(l,r,"GeneratorFunction"),g(d),g(d,r,"Generator"),g(d,n,function(){return this}),g(d,"toString",function(){return"[object Generator]"}),(f=function(){return{w:o,m:h}})()}function g(e,t,i,n){var r=Object.defineProperty;try{r({},"",{})}catch(e){r=0}g=function(e,t,i,n){function o(t,i){g(e,t,function(e){return this._invoke(t,i,e)})}t?r?r(e,t,{value:i,enumerable:!n,configurable:!n,writable:!n}):e[t]=i:(o("next",0),o("throw",1),o("return",2))},g(e,t,i,n)}function m(e,t){return m=Object.setPrototypeOf?Object.setPrototypeOf.bind():function(e,t){return e.__proto__=t,e},m(e,t)}function v(e,t){return function(e){if(Array.isArray(e))return e}(e)||function(e,t){var i=null==e?null:"undefined"!=typeof Symbol&&e[Symbol.iterator]||e["@@iterator"];if(null!=i){var n,r,o,a,s=[],c=!0,l=!1;try{if(o=(i=i.call(e)).next,0===t);else for(;!(c=(n=o.call(i)).done)&&(s.push(n.value),s.length!==t);c=!0);}catch(e){l=!0,r=e}finally{try{if(!c&&null!=i.return&&(a=i.return(),Object(a)!==a))return}finally{if(l)throw r}}return s}}(e,t)||_(e,t)||function(){throw new TypeError("Invalid attempt to destructure non-iterable instance.\nIn order to be iterable, non-array objects must have a [Symbol.iterator]() method.")}()}function y(t){return function(t){if(Array.isArray(t))return e(t)}(t)||function(e){if("undefined"!=typeof Symbol&&null!=e[Symbol.iterator]||null!=e["@@iterator"])return Array.from(e)}(t)||_(t)||function(){throw new TypeError("Invalid attempt to spread non-iterable instance.\nIn order to be iterable, non-array objects must have a [Symbol.iterator]() method.")}()}function b(e){var t=function(e,t){if("object"!=typeof e||!e)return e;var i=e[Symbol.toPrimitive];if(void 0!==i){var n=i.call(e,t);if("object"!=typeof n)return n;throw new TypeError("@@toPrimitive must return a primitive value.")}return String(e)}(e,"string");return"symbol"==typeof t?t:t+""}function k(e){return k="function"==typeof Symbol&&"symbol"==typeof Symbol.iterator?function(e){return typeof e}:function(e){return e&&"function"==typeof Symbol&&e.constructor===Symbol&&e!==Symbol.prototype?"symbol":typeof e},k(e)}function _(t,i){if(t){if("string"==typeof t)return e(t,i);var n={}.toString.call(t).slice(8,-1);return"Object"===n&&t.constructor&&(n=t.constructor.name),"Map"===n||"Set"===n?Array.from(t):"Arguments"===n||/^(?:Ui|I)nt(?:8|16|32)(?:Clamped)?Array$/.test(n)?e(t,i):void 0}}function x(e,t){void 0===t&&(t={});var i=t.insertAt;if(e&&"undefined"!=typeof document){var n=document.head||document.getElementsByTagName("head")[0],r=document.createElement("style");r.type="text/css","top"===i&&n.firstChild?n.insertBefore(r,n.firstChild):n.appendChild(r),r.styleSheet?r.styleSheet.cssText=e:r.appendChild(document.createTextNode(e))}}var w=":host,:root{--ip-bg:#fff;--ip-text:#0d0c22;--ip-text-light:#121127;--ip-text-extra-light:#444;--ip-close:#333;--ip-close-hover:#000;--ip-overlay:rgba(0,0,0,.5);--ip-shadow:0 10px 30px rgba(0,0,0,.1);--ip-border:#dee2e6;--ip-input-focus:rgba(36,36,36,.534);--ip-input-box-shadow:0px 4px 4px 0px rgba(6,3,24,.03);--ip-input-disabled:#f5f5f5;--ip-button-bg:#000;--ip-button-border:#c0e5ac;--ip-button-text:#fff;--ip-button-hover:#565564;--ip-button-close-bg:#eef0f1;--ip-button-close-text:#0d0c22;--ip-button-close-hover:#eef0f1;--ip-button-close-border:#eef0f1;--ip-button-disabled:#f5f5f5;--ip-button-text-disabled:silver;--ip-result-bg:#fff;--ip-result-shadow:0 2px 10px rgba(0,0,0,.05);--ip-result-shadow-hover:0 5px 15px rgba(0,0,0,.1);--ip-result-header-color:#55686b;--ip-result-preferred-name-color:#666;--ip-result-details-color:#555;--ip-result-item-hover-bg:#f1f7f8;--ip-result-icon-color:#000;--ip-table-thead-bg:#f5f5f5;--ip-table-thead-color:#55686b;--ip-area-bg:#fff;--ip-table-separator-bg:#f6f6f6;--ip-table-td-hover-bg:#fcfcfc;--ip-tag-bg-default:#fff;--ip-tag-text-default:#0d0c22;--ip-tag-border-default:#e6e5e5;--ip-tag-bg-success:#f6fffb;--ip-tag-text-success:#00874a;--ip-tag-border-success:#c0efda;--ip-tag-bg-warning:#fff3cd;--ip-tag-text-warning:#664d03;--ip-tag-border-warning:#ffe69c;--ip-tag-bg-error:#fffbfc;--ip-tag-text-error:#e93870;--ip-tag-border-error:#fbc9ce;--ip-tag-bg-blue:#e7f5ff;--ip-tag-text-blue:#007bff;--ip-tag-border-blue:#cfe2f3;--ip-tag-bg-purple:#f5f0ff;--ip-tag-text-purple:#6f42c1;--ip-tag-border-purple:#e2d9f3;--ip-tag-bg-green:#f0fff4;--ip-tag-text-green:#28a745;--ip-tag-border-green:#c8e6c9;--ip-tag-bg-yellow:#fff9db;--ip-tag-text-yellow:#ff7c07;--ip-tag-border-yellow:#ffeeba;--ip-tag-text-sauge:#6a6e6d;--ip-tag-bg-sauge:#d4d8d6;--ip-tag-border-sauge:#dddfdc}*{color:inherit}";x(w);var C=".ip-modal{align-items:center;background-color:rgba(0,0,0,.5);display:none;inset:0;justify-content:center;position:fixed;transition:background-color .3s ease;z-index:1000}.ip-modal-content{background-color:var(--ip-bg);border-radius:30px;box-shadow:0 10px 30px rgba(0,0,0,.1);color:var(--ip-text);display:flex;flex-direction:column;max-height:90vh;max-width:600px;opacity:0;overflow-y:auto;padding:0;position:relative;transform:scale(.9);transition:all .3s cubic-bezier(.68,-.55,.27,1.55),width .3s ease;width:90%}.ip-modal-content.wide-view{max-width:900px}.with-side-container>.ip-header>.ip-header-container{margin:24px 0 0}.ip-back,.ip-close{transition:transform .2s ease}.with-side-container>.ip-header>.ip-header-container .ip-close{margin-right:30px}.with-side-container>.ip-header>.ip-header-container .ip-back{margin-left:30px}.ip-modal-content.with-side-container{max-width:1280px}.ip-container-header-btns{min-width:400px;text-align:end}.ip-modal-open .ip-modal-content{opacity:1;transform:scale(1)}.ip-header{background-color:var(--ip-bg);flex-shrink:0;position:sticky;top:0;z-index:10}.ip-header .ip-header-container{align-items:center;border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;margin:24px 40px 0;padding-bottom:24px}.ip-back{color:#333;cursor:pointer;font-size:24px;transition:transform .2s ease}.ip-back:hover{transform:translateX(-3px)}.ip-modal h2{color:var(--ip-text);font-size:20px;font-weight:800;margin:0}.ip-main-container{display:flex;flex-grow:1;overflow:hidden}.ip-scrollable-content{flex-grow:1;min-width:0;overflow-y:auto;scrollbar-color:hsla(0,0%,61%,.5) transparent;scrollbar-width:thin}.ip-scrollable-content::-webkit-scrollbar{width:8px}.ip-scrollable-content::-webkit-scrollbar-thumb{background-color:hsla(0,0%,61%,.5)}.ip-scrollable-content::-webkit-scrollbar-track{background-color:transparent}.ip-content-area{min-height:100%;padding:24px 40px}.ip-side-container{border-left:1px solid var(--ip-border);overflow-y:hidden;position:relative;transition:transform .3s ease;width:400px}.ip-side-container,.ip-side-container .ip-header{background-color:var(--ip-table-separator-bg)}.ip-side-container.overlay{border-left:none;border-top:1px solid var(--ip-border);bottom:0;box-shadow:-5px 0 15px rgba(0,0,0,.1);left:0;position:absolute;top:0;width:100%;z-index:10}.ip-side-container.overlay.open{transform:translateX(0)}.ip-side-close{background:none;border:none;cursor:pointer;font-size:20px;position:absolute;right:10px;top:10px}.ip-results-container,.ip-search-container{min-height:100%;position:relative;transition:opacity .3s ease,transform .3s ease;width:100%}.ip-results-container{min-height:100px}.ip-container-header{align-items:center;background:var(--ip-bg);border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;padding-bottom:20px;padding-top:10px;position:sticky;top:0}.ip-truncate{overflow:hidden;text-overflow:ellipsis;white-space:nowrap}.ip-container-header h3{color:var(--ip-text);font-size:18px!important;font-weight:800!important;margin:0}.ip-container-header p{font-size:12px;letter-spacing:.1rem;margin:0}.ip-result-details p{font-size:12px;font-weight:400;margin:0;text-transform:uppercase}.ip-details-container h4{font-size:18px!important;font-weight:600!important;margin:0}.ip-container-buttons{background:var(--ip-bg);border-top:1px solid var(--ip-border);bottom:0;display:flex;gap:10px;padding-bottom:20px;padding-top:20px;position:sticky}.ip-container-buttons button{width:100%}.ip-footer{background-color:var(--ip-bg);border-top:1px solid var(--ip-border);flex-shrink:0;padding:15px;text-align:center}.ip-create-identity-container,.ip-details-container{min-height:100%}@media (max-width:1200px){.ip-modal-content{flex-direction:column}.ip-modal-content.with-side-container .ip-scrollable-content{width:100%}}";x(C);var E=".ip-confirm-modal{align-items:center;background-color:rgba(0,0,0,.5);display:flex;height:100%;justify-content:center;left:0;position:fixed;top:0;width:100%;z-index:1000}.ip-confirm-dialog{max-width:400px;padding:30px;width:90%}.ip-confirm-dialog h2{margin:0 0 10px}.ip-confirm-dialog p{margin:0 0 20px}.ip-confirm-buttons{display:flex;gap:10px;justify-content:flex-end}";x(E);var S=".ip-modal *,.ip-modal :after,.ip-modal :before{box-sizing:border-box}.ip-search-option{display:flex;gap:15px;justify-content:center;margin-bottom:15px}.ip-search-option label{align-items:center;border:1px solid var(--ip-border);border-radius:8px;cursor:pointer;display:flex;padding:10px 15px;transition:all .3s ease;width:250px}.ip-search-option label:hover{border-color:var(--ip-input-focus)}.ip-search-option input[type=radio]{align-self:center;margin-bottom:0;margin-right:10px;margin-top:0}.ip-search-option span{align-items:center;display:flex;height:100%;line-height:15px}.ip-search-option input[type=radio]:checked+span{font-weight:700}.ip-search-option input[type=radio]:checked{background-color:var(--ip-bg);border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-search-option label:has(input[type=radio]:checked){border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-modal input[type=date],.ip-modal input[type=email],.ip-modal input[type=text],.ip-modal select{padding:12px;width:100%}.ip-modal .choices__inner,.ip-modal input[type=date],.ip-modal input[type=email],.ip-modal input[type=text],.ip-modal select{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:8px;box-sizing:border-box;color:var(--ip-text);transition:all .3s ease}.ip-modal .choices__inner{align-items:center;display:flex;min-height:44px;padding:6px 12px}.ip-modal .is-open .choices__inner{border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-modal .choices.is-disabled .choices__inner,.ip-modal .choices.is-disabled .choices__input,.ip-modal input[type=date]:disabled,.ip-modal input[type=email]:disabled,.ip-modal input[type=text]:disabled,.ip-modal select:disabled{background-color:var(--ip-input-disabled);cursor:not-allowed}.ip-modal input:focus,.ip-modal select:focus{border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow);outline:none!important}.ip-modal .choices__inner:hover,.ip-modal input:hover,.ip-modal select:hover{border-color:var(--ip-input-focus)}.ip-modal .choices{font-size:inherit;margin-bottom:0}.ip-modal .choices__list--single{align-items:center;display:flex}.ip-modal .choices__list--single .choices__item{color:var(--ip-text);line-height:1.4;padding:0}.ip-modal .choices[data-type*=select-one]:after{border-color:var(--ip-text) transparent transparent transparent;margin-top:-5px;right:15px;top:50%}@keyframes slideDownWithShadow{0%{box-shadow:0 0 0 transparent;opacity:0;transform:translateY(-20px)}to{box-shadow:0 4px 12px rgba(0,0,0,.15);opacity:1;transform:translateY(0)}}.choices[data-type*=select-one] .choices__list--dropdown{border-radius:8px;box-shadow:0 0 0 transparent;display:none;margin-top:5px;overflow:hidden;transform-origin:top center}.choices[data-type*=select-one] .choices__list--dropdown.is-active{animation:slideDownWithShadow .4s cubic-bezier(.68,-.55,.265,1.55) forwards;display:block}.choices__list--dropdown .choices__item,.choices__list[aria-expanded] .choices__item{color:var(--ip-text);font-size:14px;padding:10px 12px;position:relative}.choices__list--dropdown .choices__item--selectable.is-highlighted{background-color:var(--ip-primary);color:var(--ip-text)}.choices__list--dropdown{background-color:var(--ip-bg);border:1px solid var(--ip-border)}.choices[data-type*=select-one] .choices__list--dropdown .choices__input{box-shadow:none}.ip-fieldset{border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;padding:20px}.ip-fieldset legend{font-size:18px;font-weight:700;margin-bottom:10px}.ip-form-row{display:flex;flex-wrap:wrap;gap:20px;margin-bottom:20px}.ip-form-input,.ip-form-select{flex:1 1 calc(50% - 10px);min-width:200px}.ip-form-input label,.ip-form-select label{display:block;font-weight:500;margin-bottom:8px}.ip-required{color:#ff4136;font-weight:700;margin-left:3px}.ip-modal .choices[data-type*=select-one] select.choices__input{bottom:0;display:block!important;left:0;opacity:0;pointer-events:none;position:absolute}.ip-modal .choices__list--single{padding:0}.ip-search-container input{margin-bottom:16px}.ip-field-error{color:#d32f2f;font-size:13px;margin-top:3px}.ip-error-input{border-color:#d32f2f!important}.ip-input-group label{display:block;font-size:14px;font-weight:500;margin-bottom:8px}.ip-readonly-field{opacity:.8}.ip-readonly-value{background-color:var(--ip-input-disabled);border:1px solid var(--ip-border);border-radius:8px;color:var(--ip-text-secondary);font-weight:500;padding:.5rem}";x(S);var P='.ip-modal .ip-button,.ip-modal button{background-color:var(--ip-button-bg);border:none;border-radius:24px;color:var(--ip-button-text);cursor:pointer;font-weight:600;letter-spacing:.5px;overflow:hidden;padding:12px 20px;transition:all .3s ease}.ip-modal .ip-button-medium{padding:6px 20px}.ip-modal .ip-button-mini{padding:2px 10px}.ip-modal .ip-button-red{background-color:#e93870}.ip-modal .ip-button-red:hover{background-color:#ff0051}.ip-modal .ip-button-yellow{background-color:#fff2c4;color:#644d0d}.ip-modal .ip-button-yellow:hover{background-color:#fae9ac}.ip-modal .ip-button:disabled,.ip-modal button:disabled{background-color:var(--ip-button-disabled);color:var(--ip-button-text-disabled);cursor:not-allowed}.ip-modal .ip-button-light{background-color:var(--ip-button-close-bg);color:var(--ip-button-close-text)}.ip-side-container .ip-button-rounded{margin-right:30px;margin-top:-15px}.ip-modal .ip-button-light:hover{background-color:var(--ip-button-close-hover)}.ip-modal .ip-button:hover,.ip-modal button:hover{background-color:var(--ip-button-hover);box-shadow:0 4px 10px rgba(0,0,0,.2);transform:translateY(-2px)}.ip-modal button:active{box-shadow:0 2px 5px rgba(0,0,0,.2);transform:translateY(0)}.ip-modal button:after{background:hsla(0,0%,100%,.5);border-radius:100%;content:"";height:5px;left:50%;opacity:0;position:absolute;top:50%;transform:scale(1) translate(-50%);transform-origin:50% 50%;width:5px}.ip-modal .ip-button:focus:not(:active):after,.ip-modal button:focus:not(:active):after{animation:ripple 1s ease-out}.ip-modal .ip-button-rounded{align-items:center;border-radius:30px;display:flex;height:30px;justify-content:center;padding:0;width:30px}.ip-modal .ip-side-close{font-size:13px!important}.ip-modal .ip-select-link{color:inherit;cursor:pointer;text-decoration:none}.ip-modal .ip-select-link:hover{text-decoration:underline}@keyframes ripple{0%{opacity:1;transform:scale(0)}20%{opacity:1;transform:scale(25)}to{opacity:0;transform:scale(40)}}';x(P);var A=".ip-info-message{border-radius:4px;font-weight:500;margin-bottom:20px;overflow:hidden;padding:12px 40px 12px 16px;position:relative;transition:all .3s ease}.ip-info-message-main{font-weight:700;margin:0}.ip-info-message-description{font-size:12px;margin:0}.ip-info-message.info{background-color:#e3f2fd;border-left:4px solid #2196f3;color:#0d47a1}.ip-info-message.error{background-color:#ffebee;border-left:4px solid #f44336;color:#b71c1c}.ip-info-message.success{background-color:#e8f5e9;border-left:4px solid #4caf50;color:#1b5e20}.ip-info-message:hover{transform:translateY(-2px)}.ip-progress-bar{background-color:rgba(0,0,0,.2);bottom:0;height:4px;left:0;position:absolute;transform-origin:left;width:100%}@keyframes shrink{0%{transform:scaleX(1)}to{transform:scaleX(0)}}.ip-info-message-close{background:none;border:none;color:inherit;cursor:pointer;font-size:20px;opacity:.7;position:absolute;right:10px;top:50%;transform:translateY(-50%);transition:opacity .3s ease}.ip-info-message-close:hover{opacity:1}";x(A);var M=".ip-results-list{border:1px solid var(--ip-border);border-radius:8px;list-style-type:none;margin:0 0 20px;overflow:hidden;padding:0}.ip-result-item{align-items:center;border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;margin:0;padding:20px;transition:background-color .3s ease}.ip-result-item:last-child{border-bottom:none}.ip-result-item:hover{background-color:var(--ip-table-td-hover-bg);cursor:pointer}.ip-result-left{align-items:flex-start;display:flex;flex:1;flex-direction:column;margin-right:1rem}.ip-result-right{align-items:center;display:flex;flex-shrink:0}.ip-result-details,.ip-result-header{text-align:left;width:100%}.ip-result-header h3{text-transform:uppercase}.ip-result-details{display:flex;flex-wrap:wrap;gap:12px}.ip-result-details p{margin:0}.ip-result-details i{margin-right:8px;transition:transform .2s ease}.ip-compare-table-container{border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;max-height:70vh;overflow:auto;position:relative}.ip-compare-table{border-collapse:separate;border-spacing:0;text-align:left;width:100%}.ip-compare-table td,.ip-compare-table th{min-width:200px;padding:12px}.ip-compare-table th{background-color:var(--ip-table-separator-bg);border-top:1px solid var(--ip-border)}.ip-compare-table td,.ip-compare-table th{border-bottom:1px solid var(--ip-border);border-right:1px solid var(--ip-border)}.ip-compare-table td{background-color:var(--ip-bg)}.ip-compare-table thead th{background-color:var(--ip-table-separator-bg);border-top:none;position:sticky;top:0;z-index:2}.ip-compare-table tbody td:first-child{background-color:var(--ip-table-separator-bg);border-left:none;left:0;position:sticky;z-index:1}.ip-compare-table tfoot th{background-color:var(--ip-table-separator-bg);bottom:0;position:sticky;z-index:2}.ip-compare-table thead th:first-child{left:0;position:sticky;z-index:3}.ip-compare-table tr.ip-group-separator td.ip-table-separator{background-color:var(--ip-table-separator-bg);font-weight:700}.ip-compare-table tr.ip-group-separator td.ip-group-label{background-color:var(--ip-table-separator-bg);left:0;min-width:200px;position:sticky;z-index:1}.ip-compare-table tbody tr:hover td{background-color:var(--ip-table-td-hover-bg)}.ip-compare-table tbody tr:hover td:first-child{background-color:var(--ip-table-separator-bg)}.ip-active,.ip-high,.ip-percentage-high{color:#28a745}.ip-medium,.ip-percentage-medium{color:#ff6507}.ip-inactive,.ip-low,.ip-percentage-low{color:#dc3545}.ip-highlight{background-color:rgba(255,0,0,.2);border-radius:2px;padding:0 2px}.ip-difference{background-color:#fff9c4;border-radius:4px;color:#f57c00;padding:2px 4px}.ip-search-criteria{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;padding:10px 15px}.ip-search-criteria p{color:var(--ip-text);font-weight:500;margin:0 0 8px}.ip-criteria-tags{display:flex;flex-wrap:wrap;gap:8px}.ip-tag-criteria{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:4px;color:var(--ip-text);font-size:13px;padding:4px 8px}.ip-tag-criteria strong{margin-right:4px}.ip-info-tag.ip-tag-success{background-color:#e8f5e9;border:1px solid #a5d6a7;color:#2e7d32}.ip-info-tag.ip-tag-error{background-color:#ffebee;border:1px solid #ef9a9a;color:#c62828}.ip-result-header h3{color:var(--ip-text);font-size:14px!important;font-weight:600;letter-spacing:.5px;margin:0;text-transform:none}.ip-preferred-name{font-style:italic;font-weight:400;margin:4px 0 0;text-transform:uppercase}.ip-approximate{background-color:#fff3cd;border-radius:2px;color:#856404;font-weight:700;padding:0 2px}.ip-result-details p{line-height:1.4;margin:8px 0 0}.ip-result-details p:first-child{font-weight:500}";x(M);var L=".ip-results-container,.ip-search-container{opacity:0;pointer-events:none;transform:translateY(20px);transition:opacity .3s ease,transform .3s ease}.ip-results-container.active,.ip-search-container.active{opacity:1;pointer-events:auto;transform:translateY(0)}@keyframes fadeIn{0%{opacity:0;transform:translateY(20px)}to{opacity:1;transform:translateY(0)}}.ip-result-item,.ip-timeline-item{animation:fadeIn .5s ease forwards;opacity:0;transform:translateY(20px)}.ip-result-item:first-child,.ip-timeline-item:first-child{animation-delay:.1s}.ip-result-item:nth-child(2),.ip-timeline-item:nth-child(2){animation-delay:.2s}.ip-result-item:nth-child(3),.ip-timeline-item:nth-child(3){animation-delay:.3s}.ip-result-item:nth-child(4),.ip-timeline-item:nth-child(4){animation-delay:.4s}.ip-result-item:nth-child(5),.ip-timeline-item:nth-child(5){animation-delay:.5s}.ip-result-item:nth-child(6),.ip-timeline-item:nth-child(6){animation-delay:.6s}.ip-result-item:nth-child(7),.ip-timeline-item:nth-child(7){animation-delay:.7s}.ip-result-item:nth-child(8),.ip-timeline-item:nth-child(8){animation-delay:.8s}.ip-result-item:nth-child(9),.ip-timeline-item:nth-child(9){animation-delay:.9s}.ip-result-item:nth-child(10),.ip-timeline-item:nth-child(10){animation-delay:1s}@keyframes spin{0%{transform:rotate(0deg)}to{transform:rotate(1turn)}}@keyframes pulse{0%{transform:scale(1)}50%{transform:scale(1.05)}to{transform:scale(1)}}.ip-modal button:focus{animation:pulse .5s ease-in-out}";x(L);x("");var I=".ip-table{border:1px solid var(--ip-border);border-collapse:separate;border-radius:10px;border-spacing:0;margin-bottom:20px;margin-top:10px;overflow:hidden;width:100%}.ip-table td,.ip-table th{border:none;padding:12px 16px;text-align:left;word-break:auto-phrase}.ip-table th{background-color:var(--ip-thead-bg);color:var(--ip-thead-color);font-size:10px!important;font-weight:600;letter-spacing:.5px;text-transform:uppercase}.ip-table tr{background-color:var(--ip-bg)}.ip-table tr:hover{background-color:var(--ip-table-td-hover-bg);transition:background-color .3s ease}.ip-table td{border-top:1px solid var(--ip-border)}.ip-table tr:first-child td{border-top:none}@keyframes highlight{0%{background-color:rgba(0,0,0,.1)}to{background-color:transparent}}.ip-table tr:target{animation:highlight 2s ease-out}.ip-table-separator{background:var(--ip-table-separator-bg);font-weight:700}.ip-description{margin-bottom:5px!important}";x(I);var T=".ip-info-tags{display:flex;flex-wrap:nowrap;gap:10px;margin-bottom:20px;margin-top:20px;width:100%}.ip-info-tag{align-items:center;border-radius:6px;border-style:solid;border-width:1px;display:flex;flex:1;flex-direction:column;font-size:13px;justify-content:center;padding:10px;text-align:center}.ip-info-tag strong{display:block}.ip-tag-default{background-color:var(--ip-tag-bg-default)!important;border-color:var(--ip-tag-border-default);color:var(--ip-tag-text-default)}.ip-tag-success{background-color:var(--ip-tag-bg-success)!important;border-color:var(--ip-tag-border-success);color:var(--ip-tag-text-success)}.ip-tag-warning{background-color:var(--ip-tag-bg-warning)!important;border-color:var(--ip-tag-border-warning);color:var(--ip-tag-text-warning)}.ip-tag-error{background-color:var(--ip-tag-bg-error)!important;border-color:var(--ip-tag-border-error);color:var(--ip-tag-text-error)}.ip-tag-identity{background-color:var(--ip-tag-bg-blue)!important;border-color:var(--ip-tag-border-blue);color:var(--ip-tag-text-blue)}.ip-tag-attribute{background-color:var(--ip-tag-bg-purple)!important;border-color:var(--ip-tag-border-purple);color:var(--ip-tag-text-purple)}.ip-tag-green{background-color:var(--ip-tag-bg-green)!important;border-color:var(--ip-tag-border-green);color:var(--ip-tag-text-green)}.ip-tag-task{background-color:var(--ip-tag-bg-yellow)!important;border-color:var(--ip-tag-border-yellow);color:var(--ip-tag-text-yellow)}.ip-mini-tag{background:var(--ip-border);border-radius:6px;display:inline-block;font-size:12px;font-weight:700;letter-spacing:.1rem;margin:2px;padding:2px 5px}";x(T);var F=".ip-loading-container{align-items:center;background-color:hsla(0,0%,100%,.9);bottom:0;display:none;flex-direction:column;justify-content:center;left:0;opacity:0;position:absolute;right:0;top:0;transform:scale(.95);transition:opacity .3s ease,transform .3s ease;z-index:1000}.ip-loading-container.show{opacity:1;transform:scale(1)}.ip-loader{animation:spin 1s linear infinite;border:5px solid #f3f3f3;border-radius:50%;border-top-color:#000;height:40px;width:40px}.ip-loading-message{color:#333;font-size:16px;margin-top:20px;opacity:0;text-align:center;transform:translateY(10px);transition:opacity .3s ease .1s,transform .3s ease .1s}.ip-loading-container.show .ip-loading-message{opacity:1;transform:translateY(0)}@keyframes spin{0%{transform:rotate(0deg)}to{transform:rotate(1turn)}}";x(F);var D=".ip-timeline{border-left:1px solid var(--ip-border);margin-left:6px}.ip-timeline,.ip-timeline-item{position:relative}.ip-timeline-point{background-color:var(--ip-border);border-radius:50%;height:12px;left:-7px;position:absolute;top:21px;width:12px}.ip-timeline-content{padding:15px}.ip-timeline-content .date{color:var(--ip-text-light);font-size:12px;letter-spacing:.1rem;margin:0}.ip-timeline-content .code{color:var(--ip-text-extra-light);font-size:10px;margin:0}button.ip-copy-button{background:#fff;color:var(--ip-text);font-size:10px;margin-top:5px;padding:5px}button.ip-copy-button:hover{background:var(--ip-table-td-hover-bg)}.ip-identity-change-header{margin-bottom:10px}.ip-timeline .change-type{color:var(--ip-text);font-weight:700;margin-bottom:5px}.ip-identity-change-header .change-info{color:#6c757d;font-size:.9em}.ip-change-status{color:#28a745;font-style:italic;margin-bottom:5px}.ip-change-message{color:#6c757d;display:block;font-size:.9em;margin-bottom:10px}.ip-attribute-changes-table{border-collapse:collapse;margin-top:10px;width:100%}.ip-attribute-changes-table td,.ip-attribute-changes-table th{border:1px solid #dee2e6;padding:8px;text-align:left}.ip-attribute-changes-table th{background-color:#e9ecef;font-weight:700}.ip-attribute-changes-table tr:nth-child(2n){background-color:#f8f9fa}.ip-date-and-types{align-items:center;display:flex;justify-content:space-between;margin-bottom:10px}.ip-event-types{color:#666;font-size:.9em}.ip-event-type{margin-right:5px}.ip-event-type.identity{color:#007bff}.ip-event-type.attribute{color:#28a745}.ip-event-type.task{color:#ffc107}.ip-search-bar{background-color:var(--ip-table-separator-bg);padding-bottom:20px;padding-top:20px;position:sticky;top:0;z-index:2}.ip-search-input{border-radius:40px!important}.ip-side-container .ip-content-area{margin-bottom:60px;padding-right:25px;padding-top:10px}.ip-view-task-history{background-color:var(--ip-primary);border:none;border-radius:4px;color:#fff;cursor:pointer;margin-top:10px;padding:5px 10px}.ip-view-task-history:hover{background-color:var(--ip-primary-dark)}.ip-full-task-history{padding:20px}.ip-task-history-item{border-bottom:1px solid var(--ip-border);padding:10px 0}.ip-task-history-item span{display:block;margin-bottom:5px}.ip-task-history-date{font-weight:700}.ip-task-history-author,.ip-task-history-change,.ip-task-history-status{color:var(--ip-text-light)}.ip-attribute-changes-list{background-color:#fff;border:1px solid var(--ip-border);border-radius:8px;box-shadow:0 2px 4px rgba(0,0,0,.1);margin-bottom:10px;margin-top:10px}.ip-attribute-changes-list\r\n.ip-attribute-change-item{border-bottom:1px solid var(--ip-border);padding:8px}.ip-attribute-change-item:last-child{border-bottom:none}.ip-attribute-name{color:var(--ip-text);font-weight:500;margin-bottom:3px}.ip-attribute-value{color:var(--ip-text);margin-bottom:3px;word-break:break-word}.ip-attribute-certification{color:var(--ip-text-light);font-size:.85em;font-style:italic}.ip-certification-label{margin-right:4px}.ip-certification-value{font-weight:500}";x(D);var O='.choices{font-size:16px;margin-bottom:24px;overflow:hidden;position:relative}.choices:focus{outline:0}.choices:last-child{margin-bottom:0}.choices.is-open{overflow:visible}.choices.is-disabled .choices__inner,.choices.is-disabled .choices__input{background-color:#eaeaea;cursor:not-allowed;-webkit-user-select:none;user-select:none}.choices.is-disabled .choices__item{cursor:not-allowed}.choices [hidden]{display:none!important}.choices[data-type*=select-one]{cursor:pointer}.choices[data-type*=select-one] .choices__inner{padding-bottom:7.5px}.choices[data-type*=select-one] .choices__input{background-color:#fff;border-bottom:1px solid #ddd;display:block;margin:0;padding:10px;width:100%}.choices[data-type*=select-one] .choices__button{background-image:url(data:image/svg+xml;base64,PHN2ZyB3aWR0aD0iMjEiIGhlaWdodD0iMjEiIHhtbG5zPSJodHRwOi8vd3d3LnczLm9yZy8yMDAwL3N2ZyI+PGcgZmlsbC1ydWxlPSJldmVub2RkIj48cGF0aCBkPSJtMi41OTIuMDQ0IDE4LjM2NCAxOC4zNjQtMi41NDggMi41NDhMLjA0NCAyLjU5MnoiLz48cGF0aCBkPSJNMCAxOC4zNjQgMTguMzY0IDBsMi41NDggMi41NDhMMi41NDggMjAuOTEyeiIvPjwvZz48L3N2Zz4=);background-size:8px;border-radius:10em;height:20px;margin-right:25px;margin-top:-10px;opacity:.25;padding:0;position:absolute;right:0;top:50%;width:20px}.choices[data-type*=select-one] .choices__button:focus,.choices[data-type*=select-one] .choices__button:hover{opacity:1}.choices[data-type*=select-one] .choices__button:focus{box-shadow:0 0 0 2px #005f75}.choices[data-type*=select-one] .choices__item[data-placeholder] .choices__button{display:none}.choices[data-type*=select-one]:after{border:5px solid transparent;border-top-color:#333;content:"";height:0;margin-top:-2.5px;pointer-events:none;position:absolute;right:11.5px;top:50%;width:0}.choices[data-type*=select-one].is-open:after{border-color:transparent transparent #333;margin-top:-7.5px}.choices[data-type*=select-one][dir=rtl]:after{left:11.5px;right:auto}.choices[data-type*=select-one][dir=rtl] .choices__button{left:0;margin-left:25px;margin-right:0;right:auto}.choices[data-type*=select-multiple] .choices__inner,.choices[data-type*=text] .choices__inner{cursor:text}.choices[data-type*=select-multiple] .choices__button,.choices[data-type*=text] .choices__button{background-image:url(data:image/svg+xml;base64,PHN2ZyB3aWR0aD0iMjEiIGhlaWdodD0iMjEiIHhtbG5zPSJodHRwOi8vd3d3LnczLm9yZy8yMDAwL3N2ZyI+PGcgZmlsbD0iI0ZGRiIgZmlsbC1ydWxlPSJldmVub2RkIj48cGF0aCBkPSJtMi41OTIuMDQ0IDE4LjM2NCAxOC4zNjQtMi41NDggMi41NDhMLjA0NCAyLjU5MnoiLz48cGF0aCBkPSJNMCAxOC4zNjQgMTguMzY0IDBsMi41NDggMi41NDhMMi41NDggMjAuOTEyeiIvPjwvZz48L3N2Zz4=);background-size:8px;border-left:1px solid #003642;border-radius:0;display:inline-block;line-height:1;margin:0-4px 0 8px;opacity:.75;padding-left:16px;position:relative;width:8px}.choices[data-type*=select-multiple] .choices__button:focus,.choices[data-type*=select-multiple] .choices__button:hover,.choices[data-type*=text] .choices__button:focus,.choices[data-type*=text] .choices__button:hover{opacity:1}.choices__inner{background-color:#f9f9f9;border:1px solid #ddd;border-radius:2.5px;display:inline-block;font-size:14px;min-height:44px;overflow:hidden;padding:7.5px 7.5px 3.75px;vertical-align:top;width:100%}.is-focused .choices__inner,.is-open .choices__inner{border-color:#b7b7b7}.is-open .choices__inner{border-radius:2.5px 2.5px 0 0}.is-flipped.is-open .choices__inner{border-radius:0 0 2.5px 2.5px}.choices__list{list-style:none;margin:0;padding-left:0}.choices__list--single{display:inline-block;padding:4px 16px 4px 4px;width:100%}[dir=rtl] .choices__list--single{padding-left:16px;padding-right:4px}.choices__list--single .choices__item{width:100%}.choices__list--multiple{display:inline}.choices__list--multiple .choices__item{background-color:#005f75;border:1px solid #004a5c;border-radius:20px;box-sizing:border-box;color:#fff;display:inline-block;font-size:12px;font-weight:500;margin-bottom:3.75px;margin-right:3.75px;padding:4px 10px;vertical-align:middle;word-break:break-all}.choices__list--multiple .choices__item[data-deletable]{padding-right:5px}[dir=rtl] .choices__list--multiple .choices__item{margin-left:3.75px;margin-right:0}.choices__list--multiple .choices__item.is-highlighted{background-color:#004a5c;border:1px solid #003642}.is-disabled .choices__list--multiple .choices__item{background-color:#aaa;border:1px solid #919191}.choices__list--dropdown,.choices__list[aria-expanded]{background-color:#fff;border:1px solid #ddd;border-bottom-left-radius:2.5px;border-bottom-right-radius:2.5px;display:none;margin-top:-1px;overflow:hidden;position:absolute;top:100%;width:100%;word-break:break-all;z-index:1}.is-active.choices__list--dropdown,.is-active.choices__list[aria-expanded]{display:block}.is-open .choices__list--dropdown,.is-open .choices__list[aria-expanded]{border-color:#b7b7b7}.is-flipped .choices__list--dropdown,.is-flipped .choices__list[aria-expanded]{border-radius:.25rem .25rem 0 0;bottom:100%;margin-bottom:-1px;margin-top:0;top:auto}.choices__list--dropdown .choices__list,.choices__list[aria-expanded] .choices__list{-webkit-overflow-scrolling:touch;max-height:300px;overflow:auto;position:relative;will-change:scroll-position}.choices__list--dropdown .choices__item,.choices__list[aria-expanded] .choices__item{font-size:14px;padding:10px;position:relative}[dir=rtl] .choices__list--dropdown .choices__item,[dir=rtl] .choices__list[aria-expanded] .choices__item{text-align:right}@media (min-width:640px){.choices__list--dropdown .choices__item--selectable[data-select-text],.choices__list[aria-expanded] .choices__item--selectable[data-select-text]{padding-right:100px}.choices__list--dropdown .choices__item--selectable[data-select-text]:after,.choices__list[aria-expanded] .choices__item--selectable[data-select-text]:after{content:attr(data-select-text);font-size:12px;opacity:0;position:absolute;right:10px;top:50%;transform:translateY(-50%)}[dir=rtl] .choices__list--dropdown .choices__item--selectable[data-select-text],[dir=rtl] .choices__list[aria-expanded] .choices__item--selectable[data-select-text]{padding-left:100px;padding-right:10px;text-align:right}[dir=rtl] .choices__list--dropdown .choices__item--selectable[data-select-text]:after,[dir=rtl] .choices__list[aria-expanded] .choices__item--selectable[data-select-text]:after{left:10px;right:auto}}.choices__list--dropdown .choices__item--selectable.is-highlighted,.choices__list[aria-expanded] .choices__item--selectable.is-highlighted{background-color:#f2f2f2}.choices__list--dropdown .choices__item--selectable.is-highlighted:after,.choices__list[aria-expanded] .choices__item--selectable.is-highlighted:after{opacity:.5}.choices__item{cursor:default}.choices__item--selectable{cursor:pointer}.choices__item--disabled{cursor:not-allowed;opacity:.5;-webkit-user-select:none;user-select:none}.choices__heading{border-bottom:1px solid #f7f7f7;color:gray;font-size:12px;font-weight:600;padding:10px}.choices__button{appearance:none;background-color:transparent;background-position:50%;background-repeat:no-repeat;border:0;cursor:pointer;text-indent:-9999px}.choices__button:focus,.choices__input:focus{outline:0}.choices__input{background-color:#f9f9f9;border:0;border-radius:0;display:inline-block;font-size:14px;margin-bottom:5px;max-width:100%;padding:4px 0 4px 2px;vertical-align:baseline}.choices__input::-webkit-search-cancel-button,.choices__input::-webkit-search-decoration,.choices__input::-webkit-search-results-button,.choices__input::-webkit-search-results-decoration{display:none}.choices__input::-ms-clear,.choices__input::-ms-reveal{display:none;height:0;width:0}[dir=rtl] .choices__input{padding-left:0;padding-right:2px}.choices__placeholder{opacity:.5}';x(O);var N={choices:{minSearchLength:3,debounceTime:300},display:{modalMaxHeight:.9},endpoints:{permissions:"rest/identitypicker/api/permissions",search:"rest/identitypicker/api/search",identity:"rest/identitypicker/api/identity",rules:"rest/identitypicker/api/rules",history:"history",countries:"rest/geocodesclient/api/v1/countries",cities:"rest/geocodesclient/api/v1/cities"},autoFill:!1,selection:!0,cuid:null,fieldMapping:{}};function j(e,t){var i;return function(){for(var n=this,r=arguments.length,o=new Array(r),a=0;a<r;a++)o[a]=arguments[a];clearTimeout(i),i=setTimeout(function(){return e.apply(n,o)},t)}}function B(e,t){var i=e.attributes.find(function(e){return e.key===t});return i?i.value:""}function R(e){var t=parseFloat(e);return t>=80?"ip-percentage-high":t>=30?"ip-percentage-medium":"ip-percentage-low"}function q(e,t,i,n){var r=i.processList.processus.find(function(e){return e.code===t});if(r){var o=r.attributeCertificationLevels.find(function(t){return t.attributeKey===e});if(o)return{label:r.label,description:o.level.description}}return{label:t,description:n.certificationUnavailable}}function H(e,t,i){var n=i.attributeKeyList.attributeKeys.find(function(t){return t.keyName===e});if(n&&n.values){var r=n.values.find(function(e){return e.value===t});return r?r.label:t}return t}function V(e){return new Date(e).toLocaleDateString("fr-FR")}function z(e){return e?e.split(" ").map(function(e){return e.charAt(0).toUpperCase()+e.slice(1).toLowerCase()}).join(" "):""}function K(e){return e.normalize("NFD").replace(/[\u0300-\u036f]/g,"")}var $=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.uniqueId=t.uniqueId,this.emailForm=null,this.nameForm=null},[{key:"initSearchView",value:(o=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.n){case 0:return t=this.identityPicker.searchContainer,i='<svg xmlns="http://www.w3.org/2000/svg" width="16" height="16" fill="currentColor" viewBox="0 0 16 16"><path d="M11.742 10.344a6.5 6.5 0 1 0-1.397 1.398h-.001c.03.04.062.078.098.115l3.85 3.85a1 1 0 0 0 1.415-1.414l-3.85-3.85a1.007 1.007 0 0 0-.115-.1zM12 6.5a5.5 5.5 0 1 1-11 0 5.5 5.5 0 0 1 11 0z"/></svg>',t.innerHTML='\n            <div class="ip-search-option">\n                <label>\n                    <input type="radio" name="searchType" value="email">\n                    <span>'.concat(this.identityPicker.rules.language.searchByEmail,'</span>\n                </label>\n                <label>\n                    <input type="radio" name="searchType" value="name" checked>\n                    <span>').concat(this.identityPicker.rules.language.searchByName,'</span>\n                </label>\n            </div>\n            <form id="ip-email-form-').concat(this.uniqueId,'" style="display: none;">\n                <div class="ip-input-group">\n                    <label for="ip-email-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.emailPlaceholder,'</label>\n                    <input id="ip-email-input-').concat(this.uniqueId,'" type="email" name="email" required>\n                </div>\n                <div class="ip-container-buttons">\n                    <button class="ip-button-light ip-button-close" type="button">').concat(this.identityPicker.rules.language.closeButton,'</button>\n                    <button type="submit">').concat(i," ").concat(this.identityPicker.rules.language.searchButton,'</button>\n                </div>\n            </form>\n            <form id="ip-name-form-').concat(this.uniqueId,'">\n                <div class="ip-input-group">\n                    <label for="ip-lastname-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.lastNamePlaceholder,'</label>\n                    <input id="ip-lastname-input-').concat(this.uniqueId,'" type="text" name="lastName" required>\n                </div>\n                <div class="ip-input-group">\n                    <label for="ip-firstname-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.firstNamePlaceholder,'</label>\n                    <input id="ip-firstname-input-').concat(this.uniqueId,'" type="text" name="firstName" required>\n                </div>\n                <div class="ip-input-group">\n                    <label for="ip-birthdate-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.birthdatePlaceholder,'</label>\n                    <input id="ip-birthdate-input-').concat(this.uniqueId,'" type="date" placeholder="').concat(this.identityPicker.rules.language.birthdatePlaceholder,'" name="birthdate" required>\n                </div>\n                <div class="ip-container-buttons">\n                    <button class="ip-button-light ip-button-close" type="button">').concat(this.identityPicker.rules.language.closeButton,'</button>\n                    <button type="submit">').concat(i," ").concat(this.identityPicker.rules.language.searchButton,"</button>\n                </div>\n            </form>\n        "),this.emailForm=t.querySelector("#ip-email-form-".concat(this.uniqueId)),this.nameForm=t.querySelector("#ip-name-form-".concat(this.uniqueId)),this.closeBtns=t.querySelectorAll(".ip-button-close"),e.n=1,this.setupSearchForms();case 1:return e.n=2,this.setupResultsClickHandler();case 2:return e.a(2)}},e,this)})),function(){return o.apply(this,arguments)})},{key:"setupSearchForms",value:(n=i(f().m(function e(){var t=this;return f().w(function(e){for(;;)switch(e.n){case 0:this.identityPicker.searchContainer.querySelectorAll('input[name="searchType"]').forEach(function(e){e.addEventListener("change",function(){return t.toggleSearchForm(e.value)})}),this.emailForm.addEventListener("submit",function(e){e.preventDefault(),t.performSearch(new FormData(t.emailForm),"email")}),this.nameForm.addEventListener("submit",function(e){e.preventDefault(),t.performSearch(new FormData(t.nameForm),"name")}),this.closeBtns.forEach(function(e){e.addEventListener("click",function(){return t.identityPicker.closeModal()})});case 1:return e.a(2)}},e,this)})),function(){return n.apply(this,arguments)})},{key:"toggleSearchForm",value:function(e){this.emailForm.style.display="email"===e?"block":"none",this.nameForm.style.display="name"===e?"block":"none",this.identityPicker.adjustModalHeight()}},{key:"performSearch",value:(t=i(f().m(function e(t,i){var n,r,o,a;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),n=this.buildSearchUrl(t,i),e.p=1,e.n=2,fetch(n);case 2:if(404!==(r=e.v).status){e.n=3;break}return this.displayResults([]),e.a(2);case 3:if(r.ok){e.n=4;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(r.status));case 4:return e.n=5,r.json();case 5:o=e.v,this.displayResults(o),e.n=7;break;case 6:e.p=6,a=e.v,console.error(this.identityPicker.rules.language.fetchError,a),this.identityPicker.showMessage("errorMessage","error",a.message);case 7:return e.p=7,this.identityPicker.hideLoading(),e.f(7);case 8:return e.a(2)}},e,this,[[1,6,7,8]])})),function(e,i){return t.apply(this,arguments)})},{key:"buildSearchUrl",value:function(e,t){var i=this.identityPicker.config.endpoints.search+"?";if("email"===t)return"".concat(i,"common_email=").concat(encodeURIComponent(e.get("email")));var n=V(e.get("birthdate"));return"".concat(i,"common_lastname=").concat(e.get("lastName"),"&first_name=").concat(e.get("firstName"),"&birthdate=").concat(n)}},{key:"displayResults",value:function(e){var t=this,i=this.identityPicker.resultsContainer;if(0===e.length){if(!this.identityPicker.permissions.creation)return void this.identityPicker.showMessage("noResults","info");var n=this.getSearchData(),r=this.buildSearchCriteriaHTML(n),o=this.identityPicker.rules.language.noResults||"Aucun résultat trouvé";i.innerHTML="\n                ".concat(r,'\n                <div class="ip-info-message info" style="margin-top: 20px;">\n                    <p class="ip-info-message-main">').concat(o,"</p>\n                </div>\n            ")}else{var a=this.getSearchData(),s=this.buildSearchCriteriaHTML(a),c=e.map(function(e){return t.createResultItem(e)}).join("");i.innerHTML="\n                ".concat(s,'\n                <ul class="ip-results-list">').concat(c,"</ul>\n            ")}this.addActionButtons(e),this.identityPicker.showResultsView(),this.identityPicker.adjustModalHeight()}},{key:"buildSearchCriteriaHTML",value:function(e){if("email"===this.identityPicker.searchContainer.querySelector('input[name="searchType"]:checked').value){var t=this.identityPicker.shadowRoot.querySelector("#ip-email-input-".concat(this.uniqueId)),i=t?t.value:"";return i?'\n                <div class="ip-search-criteria">\n                    <p>'.concat(this.identityPicker.rules.language.searchCriteriaTitle||"Résultats pour",':</p>\n                    <div class="ip-criteria-tags">\n                        <span class="ip-tag ip-tag-criteria">\n                            <strong>').concat(this.identityPicker.rules.language.emailPlaceholder,":</strong> ").concat(i,"\n                        </span>\n                    </div>\n                </div>\n            "):""}if(!e.firstName&&!e.lastName&&!e.birthdate)return"";var n=[];return e.lastName&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.lastNamePlaceholder,":</strong> ").concat(e.lastName,"\n                    </span>\n                ")),e.firstName&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.firstNamePlaceholder,":</strong> ").concat(e.firstName,"\n                    </span>\n                ")),e.birthdate&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.birthdatePlaceholder,":</strong> ").concat(V(e.birthdate),"\n                    </span>\n                ")),'\n                <div class="ip-search-criteria">\n                    <p>'.concat(this.identityPicker.rules.language.searchCriteriaTitle||"Résultats pour",':</p>\n                    <div class="ip-criteria-tags">\n                        ').concat(n.join(""),"\n                    </div>\n                </div>\n            ")}},{key:"createResultItem",value:function(e){var t=this.getSearchData(),i=B(e,"first_name"),n=B(e,"family_name"),r=B(e,"preferred_username"),o=B(e,"birthdate"),a=B(e,"gender"),s=B(e,"birthcountry"),c=B(e,"birthplace"),l="ND";"1"===a?l="M":"2"===a&&(l="F");var u=n.toUpperCase(),d=z(i),h=r?r.toUpperCase():"",p="email"===this.identityPicker.searchContainer.querySelector('input[name="searchType"]:checked').value,f=!p&&this.isApproximateMatch(t.lastName,n),g=!p&&this.isApproximateMatch(t.firstName,i),m="".concat(l," ").concat(f?'<span class="ip-approximate">'.concat(u,"</span>"):u," ").concat(g?'<span class="ip-approximate">'.concat(d,"</span>"):d),v=h?'<div class="ip-preferred-name">'.concat(h,"</div>"):"",y=[o,s,c].filter(Boolean).join(" | "),b='\n            <span class="ip-info-tag '.concat(e.mon_paris_active?"ip-tag-success":"ip-tag-error",'">\n                <strong>').concat(this.identityPicker.rules.language.monParisAccount,"</strong> ").concat(e.mon_paris_active?this.identityPicker.rules.language.active:e.expiration&&e.expiration.delete_date?"".concat(this.identityPicker.rules.language.inactive," (Supprimé)"):this.identityPicker.rules.language.inactive,"\n            </span>\n        ");return'\n            <li class="ip-result-item" data-customer-id="'.concat(e.customer_id,'">\n                <div class="ip-result-left">\n                    <div class="ip-result-header">\n                        <h3>').concat(m,"</h3>\n                        ").concat(v,'\n                    </div>\n                    <div class="ip-result-details">\n                        <p>').concat(y,'</p>\n                    </div>\n                </div>\n                <div class="ip-result-right">\n                    ').concat(b,"\n                </div>\n            </li>\n        ")}},{key:"isApproximateMatch",value:function(e,t){if(!e||!t)return!1;var i=K(e.toLowerCase()),n=K(t.toLowerCase());if(i===n)return!1;var r,o=i.split(/\s+/),a=n.split(/\s+/),c=s(o);try{for(c.s();!(r=c.n()).done;){var l=r.value;if(!(l.length<3)&&!n.includes(l))return!0}}catch(e){c.e(e)}finally{c.f()}var u,d=s(a);try{for(d.s();!(u=d.n()).done;){var h=u.value;if(!(h.length<3)&&!i.includes(h))return!0}}catch(e){d.e(e)}finally{d.f()}return Math.abs(i.length-n.length)>3}},{key:"addActionButtons",value:function(e){var t=this,i=e.length>1,n=this.identityPicker.permissions.creation;if(i||n){var r=document.createElement("div");if(r.classList.add("ip-container-buttons"),i){var o=document.createElement("button");o.textContent=this.identityPicker.rules.language.compareButton,o.classList.add("ip-button-light"),o.addEventListener("click",function(){t.identityPicker.identityCompare.initCompareView(e),t.identityPicker.showCompareView()}),r.appendChild(o)}if(n){var a=document.createElement("button");a.textContent=this.identityPicker.rules.language.createButton,a.classList.add("ip-create-button"),a.addEventListener("click",function(){return t.identityPicker.showIdentityFormView()}),r.appendChild(a)}this.identityPicker.resultsContainer.appendChild(r)}}},{key:"setupResultsClickHandler",value:(e=i(f().m(function e(){var t=this;return f().w(function(e){for(;;)switch(e.n){case 0:this.identityPicker.resultsContainer.addEventListener("click",function(e){var i=e.target.closest(".ip-result-item");i&&t.identityPicker.showDetailsView(i.dataset.customerId,"results")});case 1:return e.a(2)}},e,this)})),function(){return e.apply(this,arguments)})},{key:"getSearchData",value:function(){var e=this.identityPicker.shadowRoot.querySelector("#ip-name-form-".concat(this.uniqueId));return{firstName:e.querySelector('input[name="firstName"]').value,lastName:e.querySelector('input[name="lastName"]').value,birthdate:e.querySelector('input[name="birthdate"]').value}}},{key:"resetForms",value:function(){this.emailForm&&this.emailForm.reset(),this.nameForm&&this.nameForm.reset();var e=this.identityPicker.searchContainer.querySelector('input[name="searchType"][value="name"]');e&&(e.checked=!0,this.toggleSearchForm("name"))}}]);var e,t,n,o}(),G=function(){return a(function e(t){r(this,e),this.identityPicker=t},[{key:"autoFillIdentity",value:(n=i(f().m(function e(t){var i,n,r,o;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 3:return e.n=4,n.json();case 4:r=e.v,this.fillFields(r),e.n=6;break;case 5:e.p=5,o=e.v,console.error(this.identityPicker.rules.language.fetchError,o);case 6:return e.a(2)}},e,this,[[1,5]])})),function(e){return n.apply(this,arguments)})},{key:"loadIdentityDetails",value:(t=i(f().m(function e(t){var i,n,r,o,a,s;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(),i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw n;case 3:return e.n=4,n.json();case 4:r=e.v,this.displayIdentityDetails(r),e.n=6;break;case 5:e.p=5,s=e.v,console.error(this.identityPicker.rules.language.fetchError,s),o=s instanceof Response?403===s.status?"".concat(this.identityPicker.rules.language.httpError," 403"):"".concat(this.identityPicker.rules.language.httpError," ").concat(s.status):s.message,a=o.includes("403")?"noPermissions":"errorMessage",this.identityPicker.showMessage(a,"error",o);case 6:return e.p=6,this.identityPicker.hideLoading(),e.f(6);case 7:return e.a(2)}},e,this,[[1,5,6,7]])})),function(e){return t.apply(this,arguments)})},{key:"displayIdentityDetails",value:function(e){var t=this.identityPicker.detailsContainer,i=B(e,"first_name"),n=B(e,"family_name"),r=B(e,"preferred_username"),o=this.generateHeaderHTML(e,i,n,r),a=this.generateAttributesTable(e);t.innerHTML=o+a,this.setupButtons(e)}},{key:"generateHeaderHTML",value:function(e,t,i,n){var r=this.identityPicker.modal.getAttribute("data-cuid")!==e.customer_id,o=e.attributes.find(function(e){return"email"===e.key}),a=o&&o.value&&""!==o.value.trim(),s=o&&"DEC"===o.certProcess,c=a&&s&&this.identityPicker.permissions.create_task,l=this.canCreateAccount(e)&&this.identityPicker.permissions.create_task;return'\n            <div class="ip-container-header">\n                <div>\n                    <h3 class="ip-truncate">'.concat(t," ").concat(i).concat(n?" (<i>".concat(n.toUpperCase(),"</i>)"):"",'</h3>\n                    <p class="ip-truncate ip-description">').concat(e.customer_id,"</p>\n                    ").concat(c?'<button class="ip-validate-email-btn ip-button-mini ip-button-yellow">⚠️ '.concat(this.identityPicker.rules.language.validateEmailButton,"</button>"):"",'\n                </div>\n                <div class="ip-container-header-btns">\n                    <button class="ip-history-btn">').concat(this.identityPicker.rules.language.historyButton,"</button>\n                    ").concat(this.identityPicker.permissions.update?'<button class="ip-modify-btn">'.concat(this.identityPicker.rules.language.modifyButton,"</button>"):"","\n                    ").concat(Object.keys(this.identityPicker.config.fieldMapping||{}).length>0&&this.identityPicker.config.selection?'<button class="ip-select-btn" '.concat(r?"":"disabled",">").concat("".concat(r?this.identityPicker.rules.language.selectButton:this.identityPicker.rules.language.selectedButton),"</button>"):"",'\n                </div>\n            </div>\n            <div class="ip-info-tags">\n                <span class="ip-info-tag ip-tag-default">\n                    <strong>').concat(this.identityPicker.rules.language.creationDate,"</strong> ").concat(V(e.creation_date),'\n                </span>\n                <span class="ip-info-tag ip-tag-default">\n                    <strong>').concat(this.identityPicker.rules.language.lastUpdateDate,"</strong> ").concat(V(e.last_update_date),'\n                </span>\n                <span class="ip-info-tag ').concat(e.mon_paris_active?"ip-tag-success":"ip-tag-error",'">\n                    <strong>').concat(this.identityPicker.rules.language.monParisAccount,"</strong> ").concat(e.mon_paris_active?this.identityPicker.rules.language.active:e.expiration&&e.expiration.delete_date?"".concat(this.identityPicker.rules.language.inactive," (Supprimé)"):this.identityPicker.rules.language.inactive," ").concat(!e.mon_paris_active&&l?'<button class="ip-create-account-btn ip-button-mini ip-button-red">'.concat(this.identityPicker.rules.language.createAccountButton,"</button>"):"",'\n                </span>\n                <span class="ip-info-tag ').concat(this.getCoverageClass(e.quality.coverage),'">\n                    <strong>').concat(this.identityPicker.rules.language.coverage,"</strong> ").concat(1===e.quality.coverage?"Informations Complètes":"Informations à compléter","\n                </span>\n            </div>")}},{key:"generateAttributesTable",value:function(e){for(var t=this,i=this.identityPicker.rules.contract.attributeDefinitions.filter(function(e){return e.attributeRight.readable}).map(function(t){var i=e.attributes.find(function(e){return e.key===t.keyName});return{name:t.name,key:t.keyName,value:i?i.value:"",certification:i?i.certProcess:""}}),n=this.groupAttributes(i),r='\n            <table class="ip-table">\n                <tbody>',o=0,a=Object.entries(n);o<a.length;o++){var s=v(a[o],2),c=s[0],l=s[1];if(l.length>0){var u="other"===c?this.identityPicker.rules.language.otherGroup:this.identityPicker.rules.language["".concat(c,"Group")];r+='\n                    <tr class="ip-group-separator">\n                        <td class="ip-table-separator" colspan="3">'.concat(u,"</td>\n                    </tr>"),l.forEach(function(e){var i=q(e.key,e.certification,t.identityPicker.rules.referential,t.identityPicker.rules.language),n=H(e.key,e.value,t.identityPicker.rules.referential);"preferred_username"===e.key&&n&&(n="<i>".concat(n.toUpperCase(),"</i>")),r+="\n                        <tr>\n                            <td>".concat(e.name,"</td>\n                            <td><strong>").concat(n,'</strong></td>\n                            <td>\n                                <span title="').concat(i.description,'">').concat(i.label,"</span>\n                            </td>\n                        </tr>")})}}if(r+='\n                    <tr class="ip-group-separator">\n                        <td class="ip-table-separator" colspan="3">Informations complémentaires</td>\n                    </tr>',e.expiration&&e.expiration.delete_date&&(r+="\n                        <tr>\n                            <td>Date de demande suppression</td>\n                            <td><strong>".concat(V(e.expiration.delete_date),"</strong></td>\n                            <td></td>\n                        </tr>")),e.quality&&void 0!==e.quality.scoring){var d=(100*e.quality.scoring).toFixed(2),h=R(d);r+='\n                        <tr>\n                            <td>Score</td>\n                            <td class="'.concat(h,'"><strong>').concat(d,"%</strong></td>\n                            <td></td>\n                        </tr>")}if(e.quality&&void 0!==e.quality.quality){var p=(100*e.quality.quality).toFixed(2),f=R(p);r+='\n                        <tr>\n                            <td>Qualité</td>\n                            <td class="'.concat(f,'"><strong>').concat(p,"%</strong></td>\n                            <td></td>\n                        </tr>")}return r+="\n                </tbody>\n            </table>"}},{key:"canCreateAccount",value:function(e){if(e.mon_paris_active)return!1;var t,i=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName}).sort(function(e,t){return e.localeCompare(t)}),n=null,r=s(i);try{var o,a=function(){var i=t.value,r=e.attributes.find(function(e){return e.key===i});return"birthcountry_code"===i&&r&&(n=r.value),"birthplace_code"===i&&n&&"99100"!==n?0:r&&"ORIG1"===r.certProcess?void 0:{v:!1}};for(r.s();!(t=r.n()).done;)if(0!==(o=a())&&o)return o.v}catch(e){r.e(e)}finally{r.f()}return!0}},{key:"groupAttributes",value:function(e){var t=this,i={};return Object.keys(this.identityPicker.config.attributeGroups).forEach(function(e){i[e]=[]}),i.other=[],e.forEach(function(e){for(var n=!1,r=0,o=Object.entries(t.identityPicker.config.attributeGroups);r<o.length;r++){var a=v(o[r],2),s=a[0];if(a[1].attributes.includes(e.key)){i[s].push(e),n=!0;break}}n||i.other.push(e)}),Object.keys(i).forEach(function(e){"other"!==e&&i[e].sort(function(i,n){return t.identityPicker.config.attributeGroups[e].attributes.indexOf(i.key)-t.identityPicker.config.attributeGroups[e].attributes.indexOf(n.key)})}),i}},{key:"getCoverageClass",value:function(e){return e<.5?"ip-tag-error":e<.8?"ip-tag-warning":"ip-tag-success"}},{key:"fillFields",value:function(e){for(var t=function(){var t=v(n[i],2),r=t[0],o=t[1],a=document.getElementById(r);if(a){var s;if(o in e)s=e[o];else{var c=e.attributes.find(function(e){return e.key===o});s=c?c.value:""}a instanceof HTMLInputElement||a instanceof HTMLSelectElement?a.value=s:a.textContent=s}},i=0,n=Object.entries(this.identityPicker.config.fieldMapping);i<n.length;i++)t();this.identityPicker.modal.setAttribute("data-cuid",e.customer_id),this.identityPicker.closeModal()}},{key:"setupButtons",value:function(e){var t=this,i=this.identityPicker.detailsContainer,n=i.querySelector(".ip-modify-btn"),r=i.querySelector(".ip-select-btn"),o=i.querySelector(".ip-history-btn"),a=i.querySelector(".ip-create-account-btn"),s=i.querySelector(".ip-validate-email-btn");null==n||n.addEventListener("click",function(){t.identityPicker.showIdentityFormView(e.customer_id)}),null==r||r.addEventListener("click",function(){t.fillFields(e)}),null==o||o.addEventListener("click",function(){t.identityPicker.identityHistory.loadGlobalHistory(e.customer_id)}),null==a||a.addEventListener("click",function(){t.identityPicker.showConfirmDialog(t.identityPicker.rules.language.createAccountConfirmTitle||"Create Account",t.identityPicker.rules.language.createAccountConfirmMessage||"Are you sure you want to create an account for this identity?",function(){return t.createIdentityTask(e.customer_id,"create-account-task")})}),null==s||s.addEventListener("click",function(){t.identityPicker.showConfirmDialog(t.identityPicker.rules.language.validateEmailConfirmTitle||"Validate Email",t.identityPicker.rules.language.validateEmailConfirmMessage||"Are you sure you want to validate the email for this identity?",function(){return t.createIdentityTask(e.customer_id,"validate-email-task")})})}},{key:"createIdentityTask",value:(e=i(f().m(function e(t,i){var n,r,o,a,s,c,l,u,d,h;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,n="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/tasks/").concat(i),e.n=1,fetch(n,{method:"POST",headers:{"Content-Type":"application/json"}});case 1:return r=e.v,e.n=2,r.json();case 2:if(o=e.v,r.ok){e.n=3;break}return a=o.status&&o.status.message?o.status.message:this.identityPicker.rules.language.fetchError,this.identityPicker.showMessage(this.identityPicker.rules.language.taskCreationFailed,"error",a),e.a(2);case 3:s=o.task_code,c=this.identityPicker.rules.language.taskCreationSuccess,l="".concat(this.identityPicker.rules.language.taskCode,": ").concat(s),this.identityPicker.showMessage(c,"success",l),e.n=11;break;case 4:if(e.p=4,h=e.v,console.error(this.identityPicker.rules.language.fetchError,h),!(h instanceof Response)){e.n=9;break}return e.p=5,e.n=6,h.json();case 6:d=e.v,u=d.status&&d.status.message?d.status.message:h.statusText||this.identityPicker.rules.language.fetchError,e.n=8;break;case 7:e.p=7,e.v,u=h.statusText||this.identityPicker.rules.language.fetchError;case 8:e.n=10;break;case 9:u=h.message||this.identityPicker.rules.language.fetchError;case 10:this.identityPicker.showMessage(this.identityPicker.rules.language.taskCreationFailed,"error",u);case 11:return e.a(2)}},e,this,[[5,7],[0,4]])})),function(t,i){return e.apply(this,arguments)})}]);var e,t,n}(),W=function(e,t){return W=Object.setPrototypeOf||{__proto__:[]}instanceof Array&&function(e,t){e.__proto__=t}||function(e,t){for(var i in t)Object.prototype.hasOwnProperty.call(t,i)&&(e[i]=t[i])},W(e,t)};function U(e,t){if("function"!=typeof t&&null!==t)throw new TypeError("Class extends value "+String(t)+" is not a constructor or null");function i(){this.constructor=e}W(e,t),e.prototype=null===t?Object.create(t):(i.prototype=t.prototype,new i)}var J=function(){return J=Object.assign||function(e){for(var t,i=1,n=arguments.length;i<n;i++)for(var r in t=arguments[i])Object.prototype.hasOwnProperty.call(t,r)&&(e[r]=t[r]);return e},J.apply(this,arguments)};function Y(e,t,i){for(var n,r=0,o=t.length;r<o;r++)!n&&r in t||(n||(n=Array.prototype.slice.call(t,0,r)),n[r]=t[r]);return e.concat(n||Array.prototype.slice.call(t))}"function"==typeof SuppressedError&&SuppressedError;var Z,Q="ADD_CHOICE",X="REMOVE_CHOICE",ee="FILTER_CHOICES",te="ACTIVATE_CHOICES",ie="CLEAR_CHOICES",ne="ADD_GROUP",re="ADD_ITEM",oe="REMOVE_ITEM",ae="HIGHLIGHT_ITEM",se="showDropdown",ce="hideDropdown",le="change",ue="choice",de="search",he="addItem",pe="removeItem",fe="highlightItem",ge="highlightChoice",me="unhighlightItem",ve=9,ye=16,be=46,ke=8,_e=13,xe=65,we=27,Ce=38,Ee=40,Se=33,Pe=34,Ae=["fuseOptions","classNames"],Me="text",Le="select-one",Ie="select-multiple",Te=function(e){return{type:Q,choice:e}},Fe=function(e){return{type:re,item:e}},De=function(e){return{type:oe,item:e}},Oe=function(e,t){return{type:ae,item:e,highlighted:t}},Ne=function(e){return Array.from({length:e},function(){return(e=0,t=36,Math.floor(Math.random()*(t-e)+e)).toString(36);var e,t}).join("")},je=function(e){if("string"!=typeof e){if(null==e)return"";if("object"===k(e)){if("raw"in e)return je(e.raw);if("trusted"in e)return e.trusted}return e}return e.replace(/&/g,"&amp;").replace(/>/g,"&gt;").replace(/</g,"&lt;").replace(/'/g,"&#039;").replace(/"/g,"&quot;")},Be=(Z=document.createElement("div"),function(e){Z.innerHTML=e.trim();for(var t=Z.children[0];Z.firstChild;)Z.removeChild(Z.firstChild);return t}),Re=function(e,t){return"function"==typeof e?e(je(t),t):e},qe=function(e){return"function"==typeof e?e():e},He=function(e){if("string"==typeof e)return e;if("object"===k(e)){if("trusted"in e)return e.trusted;if("raw"in e)return e.raw}return""},Ve=function(e){if("string"==typeof e)return e;if("object"===k(e)){if("escaped"in e)return e.escaped;if("trusted"in e)return e.trusted}return""},ze=function(e,t){return e?Ve(t):je(t)},Ke=function(e,t,i){e.innerHTML=ze(t,i)},$e=function(e,t){return e.rank-t.rank},Ge=function(e){return Array.isArray(e)?e:[e]},We=function(e){return e&&Array.isArray(e)?e.map(function(e){return".".concat(e)}).join(""):".".concat(e)},Ue=function(e,t){var i;(i=e.classList).add.apply(i,Ge(t))},Je=function(e,t){var i;(i=e.classList).remove.apply(i,Ge(t))},Ye=function(e){if(void 0!==e)try{return JSON.parse(e)}catch(t){return e}return{}},Ze=function(){function e(e){var t=e.element,i=e.type,n=e.classNames;this.element=t,this.classNames=n,this.type=i,this.isActive=!1}return e.prototype.show=function(){return Ue(this.element,this.classNames.activeState),this.element.setAttribute("aria-expanded","true"),this.isActive=!0,this},e.prototype.hide=function(){return Je(this.element,this.classNames.activeState),this.element.setAttribute("aria-expanded","false"),this.isActive=!1,this},e}(),Qe=function(){function e(e){var t=e.element,i=e.type,n=e.classNames,r=e.position;this.element=t,this.classNames=n,this.type=i,this.position=r,this.isOpen=!1,this.isFlipped=!1,this.isDisabled=!1,this.isLoading=!1}return e.prototype.shouldFlip=function(e,t){var i=!1;return"auto"===this.position?i=this.element.getBoundingClientRect().top-t>=0&&!window.matchMedia("(min-height: ".concat(e+1,"px)")).matches:"top"===this.position&&(i=!0),i},e.prototype.setActiveDescendant=function(e){this.element.setAttribute("aria-activedescendant",e)},e.prototype.removeActiveDescendant=function(){this.element.removeAttribute("aria-activedescendant")},e.prototype.open=function(e,t){Ue(this.element,this.classNames.openState),this.element.setAttribute("aria-expanded","true"),this.isOpen=!0,this.shouldFlip(e,t)&&(Ue(this.element,this.classNames.flippedState),this.isFlipped=!0)},e.prototype.close=function(){Je(this.element,this.classNames.openState),this.element.setAttribute("aria-expanded","false"),this.removeActiveDescendant(),this.isOpen=!1,this.isFlipped&&(Je(this.element,this.classNames.flippedState),this.isFlipped=!1)},e.prototype.addFocusState=function(){Ue(this.element,this.classNames.focusState)},e.prototype.removeFocusState=function(){Je(this.element,this.classNames.focusState)},e.prototype.enable=function(){Je(this.element,this.classNames.disabledState),this.element.removeAttribute("aria-disabled"),this.type===Le&&this.element.setAttribute("tabindex","0"),this.isDisabled=!1},e.prototype.disable=function(){Ue(this.element,this.classNames.disabledState),this.element.setAttribute("aria-disabled","true"),this.type===Le&&this.element.setAttribute("tabindex","-1"),this.isDisabled=!0},e.prototype.wrap=function(e){var t=this.element,i=e.parentNode;i&&(e.nextSibling?i.insertBefore(t,e.nextSibling):i.appendChild(t)),t.appendChild(e)},e.prototype.unwrap=function(e){var t=this.element,i=t.parentNode;i&&(i.insertBefore(e,t),i.removeChild(t))},e.prototype.addLoadingState=function(){Ue(this.element,this.classNames.loadingState),this.element.setAttribute("aria-busy","true"),this.isLoading=!0},e.prototype.removeLoadingState=function(){Je(this.element,this.classNames.loadingState),this.element.removeAttribute("aria-busy"),this.isLoading=!1},e}(),Xe=function(){function e(e){var t=e.element,i=e.type,n=e.classNames,r=e.preventPaste;this.element=t,this.type=i,this.classNames=n,this.preventPaste=r,this.isFocussed=this.element.isEqualNode(document.activeElement),this.isDisabled=t.disabled,this._onPaste=this._onPaste.bind(this),this._onInput=this._onInput.bind(this),this._onFocus=this._onFocus.bind(this),this._onBlur=this._onBlur.bind(this)}return Object.defineProperty(e.prototype,"placeholder",{set:function(e){this.element.placeholder=e},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"value",{get:function(){return this.element.value},set:function(e){this.element.value=e},enumerable:!1,configurable:!0}),e.prototype.addEventListeners=function(){var e=this.element;e.addEventListener("paste",this._onPaste),e.addEventListener("input",this._onInput,{passive:!0}),e.addEventListener("focus",this._onFocus,{passive:!0}),e.addEventListener("blur",this._onBlur,{passive:!0})},e.prototype.removeEventListeners=function(){var e=this.element;e.removeEventListener("input",this._onInput),e.removeEventListener("paste",this._onPaste),e.removeEventListener("focus",this._onFocus),e.removeEventListener("blur",this._onBlur)},e.prototype.enable=function(){this.element.removeAttribute("disabled"),this.isDisabled=!1},e.prototype.disable=function(){this.element.setAttribute("disabled",""),this.isDisabled=!0},e.prototype.focus=function(){this.isFocussed||this.element.focus()},e.prototype.blur=function(){this.isFocussed&&this.element.blur()},e.prototype.clear=function(e){return void 0===e&&(e=!0),this.element.value="",e&&this.setWidth(),this},e.prototype.setWidth=function(){var e=this.element;e.style.minWidth="".concat(e.placeholder.length+1,"ch"),e.style.width="".concat(e.value.length+1,"ch")},e.prototype.setActiveDescendant=function(e){this.element.setAttribute("aria-activedescendant",e)},e.prototype.removeActiveDescendant=function(){this.element.removeAttribute("aria-activedescendant")},e.prototype._onInput=function(){this.type!==Le&&this.setWidth()},e.prototype._onPaste=function(e){this.preventPaste&&e.preventDefault()},e.prototype._onFocus=function(){this.isFocussed=!0},e.prototype._onBlur=function(){this.isFocussed=!1},e}(),et=function(){function e(e){var t=e.element;this.element=t,this.scrollPos=this.element.scrollTop,this.height=this.element.offsetHeight}return e.prototype.prepend=function(e){var t=this.element.firstElementChild;t?this.element.insertBefore(e,t):this.element.append(e)},e.prototype.scrollToTop=function(){this.element.scrollTop=0},e.prototype.scrollToChildElement=function(e,t){var i=this;if(e){var n=this.element.offsetHeight,r=this.element.scrollTop+n,o=e.offsetHeight,a=e.offsetTop+o,s=t>0?this.element.scrollTop+a-r:e.offsetTop;requestAnimationFrame(function(){i._animateScroll(s,t)})}},e.prototype._scrollDown=function(e,t,i){var n=(i-e)/t,r=n>1?n:1;this.element.scrollTop=e+r},e.prototype._scrollUp=function(e,t,i){var n=(e-i)/t,r=n>1?n:1;this.element.scrollTop=e-r},e.prototype._animateScroll=function(e,t){var i=this,n=this.element.scrollTop,r=!1;t>0?(this._scrollDown(n,4,e),n<e&&(r=!0)):(this._scrollUp(n,4,e),n>e&&(r=!0)),r&&requestAnimationFrame(function(){i._animateScroll(e,t)})},e}(),tt=function(){function e(e){var t=e.element,i=e.classNames;this.element=t,this.classNames=i,this.isDisabled=!1}return Object.defineProperty(e.prototype,"isActive",{get:function(){return"active"===this.element.dataset.choice},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"dir",{get:function(){return this.element.dir},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"value",{get:function(){return this.element.value},set:function(e){this.element.setAttribute("value",e),this.element.value=e},enumerable:!1,configurable:!0}),e.prototype.conceal=function(){var e=this.element;Ue(e,this.classNames.input),e.hidden=!0,e.tabIndex=-1;var t=e.getAttribute("style");t&&e.setAttribute("data-choice-orig-style",t),e.setAttribute("data-choice","active")},e.prototype.reveal=function(){var e=this.element;Je(e,this.classNames.input),e.hidden=!1,e.removeAttribute("tabindex");var t=e.getAttribute("data-choice-orig-style");t?(e.removeAttribute("data-choice-orig-style"),e.setAttribute("style",t)):e.removeAttribute("style"),e.removeAttribute("data-choice")},e.prototype.enable=function(){this.element.removeAttribute("disabled"),this.element.disabled=!1,this.isDisabled=!1},e.prototype.disable=function(){this.element.setAttribute("disabled",""),this.element.disabled=!0,this.isDisabled=!0},e.prototype.triggerEvent=function(e,t){!function(e,t,i){void 0===i&&(i=null);var n=new CustomEvent(t,{detail:i,bubbles:!0,cancelable:!0});e.dispatchEvent(n)}(this.element,e,t||{})},e}(),it=function(e){function t(){return null!==e&&e.apply(this,arguments)||this}return U(t,e),t}(tt),nt=function(e,t){return void 0===t&&(t=!0),void 0===e?t:!!e},rt=function(e){if("string"==typeof e&&(e=e.split(" ").filter(function(e){return e.length})),Array.isArray(e)&&e.length)return e},ot=function(e,t,i){if(void 0===i&&(i=!0),"string"==typeof e){var n=je(e);return ot({value:e,label:i||n===e?e:{escaped:n,raw:e},selected:!0},!1)}var r=e;if("choices"in r){if(!t)throw new TypeError("optGroup is not allowed");var o=r,a=o.choices.map(function(e){return ot(e,!1)});return{id:0,label:He(o.label)||o.value,active:!!a.length,disabled:!!o.disabled,choices:a}}var s=r;return{id:0,group:null,score:0,rank:0,value:s.value,label:s.label||s.value,active:nt(s.active),selected:nt(s.selected,!1),disabled:nt(s.disabled,!1),placeholder:nt(s.placeholder,!1),highlighted:!1,labelClass:rt(s.labelClass),labelDescription:s.labelDescription,customProperties:s.customProperties}},at=function(e){return"SELECT"===e.tagName},st=function(e){function t(t){var i=t.element,n=t.classNames,r=t.template,o=t.extractPlaceholder,a=e.call(this,{element:i,classNames:n})||this;return a.template=r,a.extractPlaceholder=o,a}return U(t,e),Object.defineProperty(t.prototype,"placeholderOption",{get:function(){return this.element.querySelector('option[value=""]')||this.element.querySelector("option[placeholder]")},enumerable:!1,configurable:!0}),t.prototype.addOptions=function(e){var t=this,i=document.createDocumentFragment();e.forEach(function(e){var n=e;if(!n.element){var r=t.template(n);i.appendChild(r),n.element=r}}),this.element.appendChild(i)},t.prototype.optionsAsChoices=function(){var e=this,t=[];return this.element.querySelectorAll(":scope > option, :scope > optgroup").forEach(function(i){!function(e){return"OPTION"===e.tagName}(i)?function(e){return"OPTGROUP"===e.tagName}(i)&&t.push(e._optgroupToChoice(i)):t.push(e._optionToChoice(i))}),t},t.prototype._optionToChoice=function(e){return!e.hasAttribute("value")&&e.hasAttribute("placeholder")&&(e.setAttribute("value",""),e.value=""),{id:0,group:null,score:0,rank:0,value:e.value,label:e.label,element:e,active:!0,selected:this.extractPlaceholder?e.selected:e.hasAttribute("selected"),disabled:e.disabled,highlighted:!1,placeholder:this.extractPlaceholder&&(!e.value||e.hasAttribute("placeholder")),labelClass:void 0!==e.dataset.labelClass?rt(e.dataset.labelClass):void 0,labelDescription:void 0!==e.dataset.labelDescription?e.dataset.labelDescription:void 0,customProperties:Ye(e.dataset.customProperties)}},t.prototype._optgroupToChoice=function(e){var t=this,i=e.querySelectorAll("option"),n=Array.from(i).map(function(e){return t._optionToChoice(e)});return{id:0,label:e.label||"",element:e,active:!!n.length,disabled:e.disabled,choices:n}},t}(tt),ct={items:[],choices:[],silent:!1,renderChoiceLimit:-1,maxItemCount:-1,closeDropdownOnSelect:"auto",singleModeForMultiSelect:!1,addChoices:!1,addItems:!0,addItemFilter:function(e){return!!e&&""!==e},removeItems:!0,removeItemButton:!1,removeItemButtonAlignLeft:!1,editItems:!1,allowHTML:!1,allowHtmlUserInput:!1,duplicateItemsAllowed:!0,delimiter:",",paste:!0,searchEnabled:!0,searchChoices:!0,searchFloor:1,searchResultLimit:4,searchFields:["label","value"],position:"auto",resetScrollPosition:!0,shouldSort:!0,shouldSortItems:!1,sorter:function(e,t){var i=e.value,n=e.label,r=void 0===n?i:n,o=t.value,a=t.label,s=void 0===a?o:a;return He(r).localeCompare(He(s),[],{sensitivity:"base",ignorePunctuation:!0,numeric:!0})},shadowRoot:null,placeholder:!0,placeholderValue:null,searchPlaceholderValue:null,prependValue:null,appendValue:null,renderSelectedChoices:"auto",loadingText:"Loading...",noResultsText:"No results found",noChoicesText:"No choices to choose from",itemSelectText:"Press to select",uniqueItemText:"Only unique values can be added",customAddItemText:"Only values matching specific conditions can be added",addItemText:function(e){return'Press Enter to add <b>"'.concat(e,'"</b>')},removeItemIconText:function(){return"Remove item"},removeItemLabelText:function(e){return"Remove item: ".concat(e)},maxItemText:function(e){return"Only ".concat(e," values can be added")},valueComparer:function(e,t){return e===t},fuseOptions:{includeScore:!0},labelId:"",callbackOnInit:null,callbackOnCreateTemplates:null,classNames:{containerOuter:["choices"],containerInner:["choices__inner"],input:["choices__input"],inputCloned:["choices__input--cloned"],list:["choices__list"],listItems:["choices__list--multiple"],listSingle:["choices__list--single"],listDropdown:["choices__list--dropdown"],item:["choices__item"],itemSelectable:["choices__item--selectable"],itemDisabled:["choices__item--disabled"],itemChoice:["choices__item--choice"],description:["choices__description"],placeholder:["choices__placeholder"],group:["choices__group"],groupHeading:["choices__heading"],button:["choices__button"],activeState:["is-active"],focusState:["is-focused"],openState:["is-open"],disabledState:["is-disabled"],highlightedState:["is-highlighted"],selectedState:["is-selected"],flippedState:["is-flipped"],loadingState:["is-loading"],notice:["choices__notice"],addChoice:["choices__item--selectable","add-choice"],noResults:["has-no-results"],noChoices:["has-no-choices"]},appendGroupInSearch:!1},lt=function(e){var t=e.itemEl;t&&(t.remove(),e.itemEl=void 0)};var ut={groups:function(e,t){var i=e,n=!0;switch(t.type){case ne:i.push(t.group);break;case ie:i=[];break;default:n=!1}return{state:i,update:n}},items:function(e,t,i){var n=e,r=!0;switch(t.type){case re:t.item.selected=!0,(o=t.item.element)&&(o.selected=!0,o.setAttribute("selected","")),n.push(t.item);break;case oe:var o;if(t.item.selected=!1,o=t.item.element){o.selected=!1,o.removeAttribute("selected");var a=o.parentElement;a&&at(a)&&a.type===Le&&(a.value="")}lt(t.item),n=n.filter(function(e){return e.id!==t.item.id});break;case X:lt(t.choice),n=n.filter(function(e){return e.id!==t.choice.id});break;case ae:var s=t.highlighted,c=n.find(function(e){return e.id===t.item.id});c&&c.highlighted!==s&&(c.highlighted=s,i&&function(e,t,i){var n=e.itemEl;n&&(Je(n,i),Ue(n,t))}(c,s?i.classNames.highlightedState:i.classNames.selectedState,s?i.classNames.selectedState:i.classNames.highlightedState));break;default:r=!1}return{state:n,update:r}},choices:function(e,t,i){var n=e,r=!0;switch(t.type){case Q:n.push(t.choice);break;case X:t.choice.choiceEl=void 0,t.choice.group&&(t.choice.group.choices=t.choice.group.choices.filter(function(e){return e.id!==t.choice.id})),n=n.filter(function(e){return e.id!==t.choice.id});break;case re:case oe:t.item.choiceEl=void 0;break;case ee:var o=[];t.results.forEach(function(e){o[e.item.id]=e}),n.forEach(function(e){var t=o[e.id];void 0!==t?(e.score=t.score,e.rank=t.rank,e.active=!0):(e.score=0,e.rank=0,e.active=!1),i&&i.appendGroupInSearch&&(e.choiceEl=void 0)});break;case te:n.forEach(function(e){e.active=t.active,i&&i.appendGroupInSearch&&(e.choiceEl=void 0)});break;case ie:n=[];break;default:r=!1}return{state:n,update:r}}},dt=function(){function e(e){this._state=this.defaultState,this._listeners=[],this._txn=0,this._context=e}return Object.defineProperty(e.prototype,"defaultState",{get:function(){return{groups:[],items:[],choices:[]}},enumerable:!1,configurable:!0}),e.prototype.changeSet=function(e){return{groups:e,items:e,choices:e}},e.prototype.reset=function(){this._state=this.defaultState;var e=this.changeSet(!0);this._txn?this._changeSet=e:this._listeners.forEach(function(t){return t(e)})},e.prototype.subscribe=function(e){return this._listeners.push(e),this},e.prototype.dispatch=function(e){var t=this,i=this._state,n=!1,r=this._changeSet||this.changeSet(!1);Object.keys(ut).forEach(function(o){var a=ut[o](i[o],e,t._context);a.update&&(n=!0,r[o]=!0,i[o]=a.state)}),n&&(this._txn?this._changeSet=r:this._listeners.forEach(function(e){return e(r)}))},e.prototype.withTxn=function(e){this._txn++;try{e()}finally{if(this._txn=Math.max(0,this._txn-1),!this._txn){var t=this._changeSet;t&&(this._changeSet=void 0,this._listeners.forEach(function(e){return e(t)}))}}},Object.defineProperty(e.prototype,"state",{get:function(){return this._state},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"items",{get:function(){return this.state.items},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"highlightedActiveItems",{get:function(){return this.items.filter(function(e){return e.active&&e.highlighted})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"choices",{get:function(){return this.state.choices},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"activeChoices",{get:function(){return this.choices.filter(function(e){return e.active})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"searchableChoices",{get:function(){return this.choices.filter(function(e){return!e.disabled&&!e.placeholder})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"groups",{get:function(){return this.state.groups},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"activeGroups",{get:function(){var e=this;return this.state.groups.filter(function(t){var i=t.active&&!t.disabled,n=e.state.choices.some(function(e){return e.active&&!e.disabled});return i&&n},[])},enumerable:!1,configurable:!0}),e.prototype.inTxn=function(){return this._txn>0},e.prototype.getChoiceById=function(e){return this.activeChoices.find(function(t){return t.id===e})},e.prototype.getGroupById=function(e){return this.groups.find(function(t){return t.id===e})},e}(),ht="no-choices",pt="no-results",ft="add-choice",gt="";function mt(e,t,i){return(t=function(e){var t=function(e,t){if("object"!=k(e)||!e)return e;var i=e[Symbol.toPrimitive];if(void 0!==i){var n=i.call(e,t);if("object"!=k(n))return n;throw new TypeError("@@toPrimitive must return a primitive value.")}return("string"===t?String:Number)(e)}(e,"string");return"symbol"==k(t)?t:t+""}(t))in e?Object.defineProperty(e,t,{value:i,enumerable:!0,configurable:!0,writable:!0}):e[t]=i,e}function vt(e,t){var i=Object.keys(e);if(Object.getOwnPropertySymbols){var n=Object.getOwnPropertySymbols(e);t&&(n=n.filter(function(t){return Object.getOwnPropertyDescriptor(e,t).enumerable})),i.push.apply(i,n)}return i}function yt(e){for(var t=1;t<arguments.length;t++){var i=null!=arguments[t]?arguments[t]:{};t%2?vt(Object(i),!0).forEach(function(t){mt(e,t,i[t])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(i)):vt(Object(i)).forEach(function(t){Object.defineProperty(e,t,Object.getOwnPropertyDescriptor(i,t))})}return e}function bt(e){return Array.isArray?Array.isArray(e):"[object Array]"===St(e)}function kt(e){return"string"==typeof e}function _t(e){return"number"==typeof e}function xt(e){return!0===e||!1===e||function(e){return wt(e)&&null!==e}(e)&&"[object Boolean]"==St(e)}function wt(e){return"object"===k(e)}function Ct(e){return null!=e}function Et(e){return!e.trim().length}function St(e){return null==e?void 0===e?"[object Undefined]":"[object Null]":Object.prototype.toString.call(e)}var Pt=Object.prototype.hasOwnProperty,At=function(){return a(function e(t){var i=this;r(this,e),this._keys=[],this._keyMap={};var n=0;t.forEach(function(e){var t=Mt(e);i._keys.push(t),i._keyMap[t.id]=t,n+=t.weight}),this._keys.forEach(function(e){e.weight/=n})},[{key:"get",value:function(e){return this._keyMap[e]}},{key:"keys",value:function(){return this._keys}},{key:"toJSON",value:function(){return JSON.stringify(this._keys)}}])}();function Mt(e){var t=null,i=null,n=null,r=1,o=null;if(kt(e)||bt(e))n=e,t=Lt(e),i=It(e);else{if(!Pt.call(e,"name"))throw new Error(function(e){return"Missing ".concat(e," property in key")}("name"));var a=e.name;if(n=a,Pt.call(e,"weight")&&(r=e.weight)<=0)throw new Error(function(e){return"Property 'weight' in key '".concat(e,"' must be a positive integer")}(a));t=Lt(a),i=It(a),o=e.getFn}return{path:t,id:i,weight:r,src:n,getFn:o}}function Lt(e){return bt(e)?e:e.split(".")}function It(e){return bt(e)?e.join("."):e}var Tt={useExtendedSearch:!1,getFn:function(e,t){var i=[],n=!1,r=function(e,t,o){if(Ct(e))if(t[o]){var a=e[t[o]];if(!Ct(a))return;if(o===t.length-1&&(kt(a)||_t(a)||xt(a)))i.push(function(e){return null==e?"":function(e){if("string"==typeof e)return e;var t=e+"";return"0"==t&&1/e==-1/0?"-0":t}(e)}(a));else if(bt(a)){n=!0;for(var s=0,c=a.length;s<c;s+=1)r(a[s],t,o+1)}else t.length&&r(a,t,o+1)}else i.push(e)};return r(e,kt(t)?t.split("."):t,0),n?i:i[0]},ignoreLocation:!1,ignoreFieldNorm:!1,fieldNormWeight:1},Ft=yt(yt(yt(yt({},{isCaseSensitive:!1,includeScore:!1,keys:[],shouldSort:!0,sortFn:function(e,t){return e.score===t.score?e.idx<t.idx?-1:1:e.score<t.score?-1:1}}),{includeMatches:!1,findAllMatches:!1,minMatchCharLength:1}),{location:0,threshold:.6,distance:100}),Tt),Dt=/[^ ]+/g;var Ot=function(){return a(function e(){var t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:{},i=t.getFn,n=void 0===i?Ft.getFn:i,o=t.fieldNormWeight,a=void 0===o?Ft.fieldNormWeight:o;r(this,e),this.norm=function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:1,t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:3,i=new Map,n=Math.pow(10,t);return{get:function(t){var r=t.match(Dt).length;if(i.has(r))return i.get(r);var o=1/Math.pow(r,.5*e),a=parseFloat(Math.round(o*n)/n);return i.set(r,a),a},clear:function(){i.clear()}}}(a,3),this.getFn=n,this.isCreated=!1,this.setIndexRecords()},[{key:"setSources",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.docs=e}},{key:"setIndexRecords",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.records=e}},{key:"setKeys",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.keys=t,this._keysMap={},t.forEach(function(t,i){e._keysMap[t.id]=i})}},{key:"create",value:function(){var e=this;!this.isCreated&&this.docs.length&&(this.isCreated=!0,kt(this.docs[0])?this.docs.forEach(function(t,i){e._addString(t,i)}):this.docs.forEach(function(t,i){e._addObject(t,i)}),this.norm.clear())}},{key:"add",value:function(e){var t=this.size();kt(e)?this._addString(e,t):this._addObject(e,t)}},{key:"removeAt",value:function(e){this.records.splice(e,1);for(var t=e,i=this.size();t<i;t+=1)this.records[t].i-=1}},{key:"getValueForItemAtKeyId",value:function(e,t){return e[this._keysMap[t]]}},{key:"size",value:function(){return this.records.length}},{key:"_addString",value:function(e,t){if(Ct(e)&&!Et(e)){var i={v:e,i:t,n:this.norm.get(e)};this.records.push(i)}}},{key:"_addObject",value:function(e,t){var i=this,n={i:t,$:{}};this.keys.forEach(function(t,r){var o=t.getFn?t.getFn(e):i.getFn(e,t.path);if(Ct(o))if(bt(o)){for(var a=[],s=[{nestedArrIndex:-1,value:o}];s.length;){var c=s.pop(),l=c.nestedArrIndex,u=c.value;if(Ct(u))if(kt(u)&&!Et(u)){var d={v:u,i:l,n:i.norm.get(u)};a.push(d)}else bt(u)&&u.forEach(function(e,t){s.push({nestedArrIndex:t,value:e})})}n.$[r]=a}else if(kt(o)&&!Et(o)){var h={v:o,n:i.norm.get(o)};n.$[r]=h}}),this.records.push(n)}},{key:"toJSON",value:function(){return{keys:this.keys,records:this.records}}}])}();function Nt(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.getFn,r=void 0===n?Ft.getFn:n,o=i.fieldNormWeight,a=void 0===o?Ft.fieldNormWeight:o,s=new Ot({getFn:r,fieldNormWeight:a});return s.setKeys(e.map(Mt)),s.setSources(t),s.create(),s}function jt(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.errors,n=void 0===i?0:i,r=t.currentLocation,o=void 0===r?0:r,a=t.expectedLocation,s=void 0===a?0:a,c=t.distance,l=void 0===c?Ft.distance:c,u=t.ignoreLocation,d=void 0===u?Ft.ignoreLocation:u,h=n/e.length;if(d)return h;var p=Math.abs(s-o);return l?h+p/l:p?1:h}var Bt=32;function Rt(e,t,i){var n=arguments.length>3&&void 0!==arguments[3]?arguments[3]:{},r=n.location,o=void 0===r?Ft.location:r,a=n.distance,s=void 0===a?Ft.distance:a,c=n.threshold,l=void 0===c?Ft.threshold:c,u=n.findAllMatches,d=void 0===u?Ft.findAllMatches:u,h=n.minMatchCharLength,p=void 0===h?Ft.minMatchCharLength:h,f=n.includeMatches,g=void 0===f?Ft.includeMatches:f,m=n.ignoreLocation,v=void 0===m?Ft.ignoreLocation:m;if(t.length>Bt)throw new Error("Pattern length exceeds max of ".concat(Bt,"."));for(var y,b=t.length,k=e.length,_=Math.max(0,Math.min(o,k)),x=l,w=_,C=p>1||g,E=C?Array(k):[];(y=e.indexOf(t,w))>-1;){var S=jt(t,{currentLocation:y,expectedLocation:_,distance:s,ignoreLocation:v});if(x=Math.min(S,x),w=y+b,C)for(var P=0;P<b;)E[y+P]=1,P+=1}w=-1;for(var A=[],M=1,L=b+k,I=1<<b-1,T=0;T<b;T+=1){for(var F=0,D=L;F<D;){jt(t,{errors:T,currentLocation:_+D,expectedLocation:_,distance:s,ignoreLocation:v})<=x?F=D:L=D,D=Math.floor((L-F)/2+F)}L=D;var O=Math.max(1,_-D+1),N=d?k:Math.min(_+D,k)+b,j=Array(N+2);j[N+1]=(1<<T)-1;for(var B=N;B>=O;B-=1){var R=B-1,q=i[e.charAt(R)];if(C&&(E[R]=+!!q),j[B]=(j[B+1]<<1|1)&q,T&&(j[B]|=(A[B+1]|A[B])<<1|1|A[B+1]),j[B]&I&&(M=jt(t,{errors:T,currentLocation:R,expectedLocation:_,distance:s,ignoreLocation:v}))<=x){if(x=M,(w=R)<=_)break;O=Math.max(1,2*_-w)}}if(jt(t,{errors:T+1,currentLocation:_,expectedLocation:_,distance:s,ignoreLocation:v})>x)break;A=j}var H={isMatch:w>=0,score:Math.max(.001,M)};if(C){var V=function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[],t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:Ft.minMatchCharLength,i=[],n=-1,r=-1,o=0,a=e.length;o<a;o+=1){var s=e[o];s&&-1===n?n=o:s||-1===n||((r=o-1)-n+1>=t&&i.push([n,r]),n=-1)}return e[o-1]&&o-n>=t&&i.push([n,o-1]),i}(E,p);V.length?g&&(H.indices=V):H.isMatch=!1}return H}function qt(e){for(var t={},i=0,n=e.length;i<n;i+=1){var r=e.charAt(i);t[r]=(t[r]||0)|1<<n-i-1}return t}var Ht=function(){return a(function e(t){var i=this,n=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},o=n.location,a=void 0===o?Ft.location:o,s=n.threshold,c=void 0===s?Ft.threshold:s,l=n.distance,u=void 0===l?Ft.distance:l,d=n.includeMatches,h=void 0===d?Ft.includeMatches:d,p=n.findAllMatches,f=void 0===p?Ft.findAllMatches:p,g=n.minMatchCharLength,m=void 0===g?Ft.minMatchCharLength:g,v=n.isCaseSensitive,y=void 0===v?Ft.isCaseSensitive:v,b=n.ignoreLocation,k=void 0===b?Ft.ignoreLocation:b;if(r(this,e),this.options={location:a,threshold:c,distance:u,includeMatches:h,findAllMatches:f,minMatchCharLength:m,isCaseSensitive:y,ignoreLocation:k},this.pattern=y?t:t.toLowerCase(),this.chunks=[],this.pattern.length){var _=function(e,t){i.chunks.push({pattern:e,alphabet:qt(e),startIndex:t})},x=this.pattern.length;if(x>Bt){for(var w=0,C=x%Bt,E=x-C;w<E;)_(this.pattern.substr(w,Bt),w),w+=Bt;if(C){var S=x-Bt;_(this.pattern.substr(S),S)}}else _(this.pattern,0)}},[{key:"searchIn",value:function(e){var t=this.options,i=t.isCaseSensitive,n=t.includeMatches;if(i||(e=e.toLowerCase()),this.pattern===e){var r={isMatch:!0,score:0};return n&&(r.indices=[[0,e.length-1]]),r}var o=this.options,a=o.location,s=o.distance,c=o.threshold,l=o.findAllMatches,u=o.minMatchCharLength,d=o.ignoreLocation,h=[],p=0,f=!1;this.chunks.forEach(function(t){var i=t.pattern,r=t.alphabet,o=t.startIndex,g=Rt(e,i,r,{location:a+o,distance:s,threshold:c,findAllMatches:l,minMatchCharLength:u,includeMatches:n,ignoreLocation:d}),m=g.isMatch,v=g.score,b=g.indices;m&&(f=!0),p+=v,m&&b&&(h=[].concat(y(h),y(b)))});var g={isMatch:f,score:f?p/this.chunks.length:1};return f&&n&&(g.indices=h),g}}])}(),Vt=function(){return a(function e(t){r(this,e),this.pattern=t},[{key:"search",value:function(){}}],[{key:"isMultiMatch",value:function(e){return zt(e,this.multiRegex)}},{key:"isSingleMatch",value:function(e){return zt(e,this.singleRegex)}}])}();function zt(e,t){var i=e.match(t);return i?i[1]:null}var Kt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e===this.pattern;return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"exact"}},{key:"multiRegex",get:function(){return/^="(.*)"$/}},{key:"singleRegex",get:function(){return/^=(.*)$/}}])}(),$t=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=-1===e.indexOf(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"$/}},{key:"singleRegex",get:function(){return/^!(.*)$/}}])}(),Gt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"prefix-exact"}},{key:"multiRegex",get:function(){return/^\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^\^(.*)$/}}])}(),Wt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=!e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-prefix-exact"}},{key:"multiRegex",get:function(){return/^!\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^!\^(.*)$/}}])}(),Ut=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[e.length-this.pattern.length,e.length-1]}}}],[{key:"type",get:function(){return"suffix-exact"}},{key:"multiRegex",get:function(){return/^"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^(.*)\$$/}}])}(),Jt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=!e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-suffix-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^!(.*)\$$/}}])}(),Yt=function(){function e(t){var i,o=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},a=o.location,s=void 0===a?Ft.location:a,c=o.threshold,l=void 0===c?Ft.threshold:c,u=o.distance,d=void 0===u?Ft.distance:u,h=o.includeMatches,p=void 0===h?Ft.includeMatches:h,f=o.findAllMatches,g=void 0===f?Ft.findAllMatches:f,m=o.minMatchCharLength,v=void 0===m?Ft.minMatchCharLength:m,y=o.isCaseSensitive,b=void 0===y?Ft.isCaseSensitive:y,k=o.ignoreLocation,_=void 0===k?Ft.ignoreLocation:k;return r(this,e),(i=n(this,e,[t]))._bitapSearch=new Ht(t,{location:s,threshold:l,distance:d,includeMatches:p,findAllMatches:g,minMatchCharLength:v,isCaseSensitive:b,ignoreLocation:_}),i}return u(e,Vt),a(e,[{key:"search",value:function(e){return this._bitapSearch.searchIn(e)}}],[{key:"type",get:function(){return"fuzzy"}},{key:"multiRegex",get:function(){return/^"(.*)"$/}},{key:"singleRegex",get:function(){return/^(.*)$/}}])}(),Zt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){for(var t,i=0,n=[],r=this.pattern.length;(t=e.indexOf(this.pattern,i))>-1;)i=t+r,n.push([t,i-1]);var o=!!n.length;return{isMatch:o,score:o?0:1,indices:n}}}],[{key:"type",get:function(){return"include"}},{key:"multiRegex",get:function(){return/^'"(.*)"$/}},{key:"singleRegex",get:function(){return/^'(.*)$/}}])}(),Qt=[Kt,Zt,Gt,Wt,Jt,Ut,$t,Yt],Xt=Qt.length,ei=/ +(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)/;var ti=new Set([Yt.type,Zt.type]),ii=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=i.isCaseSensitive,o=void 0===n?Ft.isCaseSensitive:n,a=i.includeMatches,s=void 0===a?Ft.includeMatches:a,c=i.minMatchCharLength,l=void 0===c?Ft.minMatchCharLength:c,u=i.ignoreLocation,d=void 0===u?Ft.ignoreLocation:u,h=i.findAllMatches,p=void 0===h?Ft.findAllMatches:h,f=i.location,g=void 0===f?Ft.location:f,m=i.threshold,v=void 0===m?Ft.threshold:m,y=i.distance,b=void 0===y?Ft.distance:y;r(this,e),this.query=null,this.options={isCaseSensitive:o,includeMatches:s,minMatchCharLength:l,findAllMatches:p,ignoreLocation:d,location:g,threshold:v,distance:b},this.pattern=o?t:t.toLowerCase(),this.query=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};return e.split("|").map(function(e){for(var i=e.trim().split(ei).filter(function(e){return e&&!!e.trim()}),n=[],r=0,o=i.length;r<o;r+=1){for(var a=i[r],s=!1,c=-1;!s&&++c<Xt;){var l=Qt[c],u=l.isMultiMatch(a);u&&(n.push(new l(u,t)),s=!0)}if(!s)for(c=-1;++c<Xt;){var d=Qt[c],h=d.isSingleMatch(a);if(h){n.push(new d(h,t));break}}}return n})}(this.pattern,this.options)},[{key:"searchIn",value:function(e){var t=this.query;if(!t)return{isMatch:!1,score:1};var i=this.options,n=i.includeMatches;e=i.isCaseSensitive?e:e.toLowerCase();for(var r=0,o=[],a=0,s=0,c=t.length;s<c;s+=1){var l=t[s];o.length=0,r=0;for(var u=0,d=l.length;u<d;u+=1){var h=l[u],p=h.search(e),f=p.isMatch,g=p.indices,m=p.score;if(!f){a=0,r=0,o.length=0;break}if(r+=1,a+=m,n){var v=h.constructor.type;ti.has(v)?o=[].concat(y(o),y(g)):o.push(g)}}if(r){var b={isMatch:!0,score:a/r};return n&&(b.indices=o),b}}return{isMatch:!1,score:1}}}],[{key:"condition",value:function(e,t){return t.useExtendedSearch}}])}(),ni=[];function ri(e,t){for(var i=0,n=ni.length;i<n;i+=1){var r=ni[i];if(r.condition(e,t))return new r(e,t)}return new Ht(e,t)}var oi="$and",ai="$or",si="$path",ci="$val",li=function(e){return!(!e[oi]&&!e[ai])},ui=function(e){return c({},oi,Object.keys(e).map(function(t){return c({},t,e[t])}))};function di(e,t){var i=(arguments.length>2&&void 0!==arguments[2]?arguments[2]:{}).auto,n=void 0===i||i,r=function(e){var i=Object.keys(e),o=function(e){return!!e[si]}(e);if(!o&&i.length>1&&!li(e))return r(ui(e));if(function(e){return!bt(e)&&wt(e)&&!li(e)}(e)){var a=o?e[si]:i[0],s=o?e[ci]:e[a];if(!kt(s))throw new Error(function(e){return"Invalid value for key ".concat(e)}(a));var c={keyId:It(a),pattern:s};return n&&(c.searcher=ri(s,t)),c}var l={children:[],operator:i[0]};return i.forEach(function(t){var i=e[t];bt(i)&&i.forEach(function(e){l.children.push(r(e))})}),l};return li(e)||(e=ui(e)),r(e)}function hi(e,t){var i=e.matches;t.matches=[],Ct(i)&&i.forEach(function(e){if(Ct(e.indices)&&e.indices.length){var i={indices:e.indices,value:e.value};e.key&&(i.key=e.key.src),e.idx>-1&&(i.refIndex=e.idx),t.matches.push(i)}})}function pi(e,t){t.score=e.score}var fi=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=arguments.length>2?arguments[2]:void 0;r(this,e),this.options=yt(yt({},Ft),i),this.options.useExtendedSearch,this._keyStore=new At(this.options.keys),this.setCollection(t,n)},[{key:"setCollection",value:function(e,t){if(this._docs=e,t&&!(t instanceof Ot))throw new Error("Incorrect 'index' type");this._myIndex=t||Nt(this.options.keys,this._docs,{getFn:this.options.getFn,fieldNormWeight:this.options.fieldNormWeight})}},{key:"add",value:function(e){Ct(e)&&(this._docs.push(e),this._myIndex.add(e))}},{key:"remove",value:function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:function(){return!1},t=[],i=0,n=this._docs.length;i<n;i+=1){var r=this._docs[i];e(r,i)&&(this.removeAt(i),i-=1,n-=1,t.push(r))}return t}},{key:"removeAt",value:function(e){this._docs.splice(e,1),this._myIndex.removeAt(e)}},{key:"getIndex",value:function(){return this._myIndex}},{key:"search",value:function(e){var t=(arguments.length>1&&void 0!==arguments[1]?arguments[1]:{}).limit,i=void 0===t?-1:t,n=this.options,r=n.includeMatches,o=n.includeScore,a=n.shouldSort,s=n.sortFn,c=n.ignoreFieldNorm,l=kt(e)?kt(this._docs[0])?this._searchStringList(e):this._searchObjectList(e):this._searchLogical(e);return function(e,t){var i=t.ignoreFieldNorm,n=void 0===i?Ft.ignoreFieldNorm:i;e.forEach(function(e){var t=1;e.matches.forEach(function(e){var i=e.key,r=e.norm,o=e.score,a=i?i.weight:null;t*=Math.pow(0===o&&a?Number.EPSILON:o,(a||1)*(n?1:r))}),e.score=t})}(l,{ignoreFieldNorm:c}),a&&l.sort(s),_t(i)&&i>-1&&(l=l.slice(0,i)),function(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.includeMatches,r=void 0===n?Ft.includeMatches:n,o=i.includeScore,a=void 0===o?Ft.includeScore:o,s=[];return r&&s.push(hi),a&&s.push(pi),e.map(function(e){var i=e.idx,n={item:t[i],refIndex:i};return s.length&&s.forEach(function(t){t(e,n)}),n})}(l,this._docs,{includeMatches:r,includeScore:o})}},{key:"_searchStringList",value:function(e){var t=ri(e,this.options),i=this._myIndex.records,n=[];return i.forEach(function(e){var i=e.v,r=e.i,o=e.n;if(Ct(i)){var a=t.searchIn(i),s=a.isMatch,c=a.score,l=a.indices;s&&n.push({item:i,idx:r,matches:[{score:c,value:i,norm:o,indices:l}]})}}),n}},{key:"_searchLogical",value:function(e){var t=this,i=di(e,this.options),n=function(e,i,r){if(!e.children){var o=e.keyId,a=e.searcher,s=t._findMatches({key:t._keyStore.get(o),value:t._myIndex.getValueForItemAtKeyId(i,o),searcher:a});return s&&s.length?[{idx:r,item:i,matches:s}]:[]}for(var c=[],l=0,u=e.children.length;l<u;l+=1){var d=e.children[l],h=n(d,i,r);if(h.length)c.push.apply(c,y(h));else if(e.operator===oi)return[]}return c},r=this._myIndex.records,o={},a=[];return r.forEach(function(e){var t=e.$,r=e.i;if(Ct(t)){var s=n(i,t,r);s.length&&(o[r]||(o[r]={idx:r,item:t,matches:[]},a.push(o[r])),s.forEach(function(e){var t,i=e.matches;(t=o[r].matches).push.apply(t,y(i))}))}}),a}},{key:"_searchObjectList",value:function(e){var t=this,i=ri(e,this.options),n=this._myIndex,r=n.keys,o=n.records,a=[];return o.forEach(function(e){var n=e.$,o=e.i;if(Ct(n)){var s=[];r.forEach(function(e,r){s.push.apply(s,y(t._findMatches({key:e,value:n[r],searcher:i})))}),s.length&&a.push({idx:o,item:n,matches:s})}}),a}},{key:"_findMatches",value:function(e){var t=e.key,i=e.value,n=e.searcher;if(!Ct(i))return[];var r=[];if(bt(i))i.forEach(function(e){var i=e.v,o=e.i,a=e.n;if(Ct(i)){var s=n.searchIn(i),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:i,idx:o,norm:a,indices:u})}});else{var o=i.v,a=i.n,s=n.searchIn(o),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:o,norm:a,indices:u})}return r}}])}();fi.version="7.0.0",fi.createIndex=Nt,fi.parseIndex=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.getFn,n=void 0===i?Ft.getFn:i,r=t.fieldNormWeight,o=void 0===r?Ft.fieldNormWeight:r,a=e.keys,s=e.records,c=new Ot({getFn:n,fieldNormWeight:o});return c.setKeys(a),c.setIndexRecords(s),c},fi.config=Ft,fi.parseQuery=di,function(){ni.push.apply(ni,arguments)}(ii);var gi=function(){function e(e){this._haystack=[],this._fuseOptions=J(J({},e.fuseOptions),{keys:Y([],e.searchFields),includeMatches:!0})}return e.prototype.index=function(e){this._haystack=e,this._fuse&&this._fuse.setCollection(e)},e.prototype.reset=function(){this._haystack=[],this._fuse=void 0},e.prototype.isEmptyIndex=function(){return!this._haystack.length},e.prototype.search=function(e){return this._fuse||(this._fuse=new fi(this._haystack,this._fuseOptions)),this._fuse.search(e).map(function(e,t){return{item:e.item,score:e.score||0,rank:t+1}})},e}();var mi=function(e,t,i){var n=e.dataset,r=t.customProperties,o=t.labelClass,a=t.labelDescription;o&&(n.labelClass=Ge(o).join(" ")),a&&(n.labelDescription=a),i&&r&&("string"==typeof r?n.customProperties=r:"object"!==k(r)||function(e){for(var t in e)if(Object.prototype.hasOwnProperty.call(e,t))return!1;return!0}(r)||(n.customProperties=JSON.stringify(r)))},vi=function(e,t,i){var n=t&&e.querySelector("label[for='".concat(t,"']")),r=n&&n.innerText;r&&i.setAttribute("aria-label",r)},yi={containerOuter:function(e,t,i,n,r,o,a){var s=e.classNames.containerOuter,c=document.createElement("div");return Ue(c,s),c.dataset.type=o,t&&(c.dir=t),n&&(c.tabIndex=0),i&&(c.setAttribute("role",r?"combobox":"listbox"),r?c.setAttribute("aria-autocomplete","list"):a||vi(this._docRoot,this.passedElement.element.id,c),c.setAttribute("aria-haspopup","true"),c.setAttribute("aria-expanded","false")),a&&c.setAttribute("aria-labelledby",a),c},containerInner:function(e){var t=e.classNames.containerInner,i=document.createElement("div");return Ue(i,t),i},itemList:function(e,t){var i=e.searchEnabled,n=e.classNames,r=n.list,o=n.listSingle,a=n.listItems,s=document.createElement("div");return Ue(s,r),Ue(s,t?o:a),this._isSelectElement&&i&&s.setAttribute("role","listbox"),s},placeholder:function(e,t){var i=e.allowHTML,n=e.classNames.placeholder,r=document.createElement("div");return Ue(r,n),Ke(r,i,t),r},item:function(e,t,i){var n=e.allowHTML,r=e.removeItemButtonAlignLeft,o=e.removeItemIconText,a=e.removeItemLabelText,s=e.classNames,c=s.item,l=s.button,u=s.highlightedState,d=s.itemSelectable,h=s.placeholder,p=He(t.value),f=document.createElement("div");if(Ue(f,c),t.labelClass){var g=document.createElement("span");Ke(g,n,t.label),Ue(g,t.labelClass),f.appendChild(g)}else Ke(f,n,t.label);if(f.dataset.item="",f.dataset.id=t.id,f.dataset.value=p,mi(f,t,!0),(t.disabled||this.containerOuter.isDisabled)&&f.setAttribute("aria-disabled","true"),this._isSelectElement&&(f.setAttribute("aria-selected","true"),f.setAttribute("role","option")),t.placeholder&&(Ue(f,h),f.dataset.placeholder=""),Ue(f,t.highlighted?u:d),i){t.disabled&&Je(f,d),f.dataset.deletable="";var m=document.createElement("button");m.type="button",Ue(m,l),Ke(m,!0,Re(o,t.value));var v=Re(a,t.value);v&&m.setAttribute("aria-label",v),m.dataset.button="",r?f.insertAdjacentElement("afterbegin",m):f.appendChild(m)}return f},choiceList:function(e,t){var i=e.classNames.list,n=document.createElement("div");return Ue(n,i),t||n.setAttribute("aria-multiselectable","true"),n.setAttribute("role","listbox"),n},choiceGroup:function(e,t){var i=e.allowHTML,n=e.classNames,r=n.group,o=n.groupHeading,a=n.itemDisabled,s=t.id,c=t.label,l=t.disabled,u=He(c),d=document.createElement("div");Ue(d,r),l&&Ue(d,a),d.setAttribute("role","group"),d.dataset.group="",d.dataset.id=s,d.dataset.value=u,l&&d.setAttribute("aria-disabled","true");var h=document.createElement("div");return Ue(h,o),Ke(h,i,c||""),d.appendChild(h),d},choice:function(e,t,i,n){var r=e.allowHTML,o=e.classNames,a=o.item,s=o.itemChoice,c=o.itemSelectable,l=o.selectedState,u=o.itemDisabled,d=o.description,h=o.placeholder,p=t.label,f=He(t.value),g=document.createElement("div");g.id=t.elementId,Ue(g,a),Ue(g,s),n&&"string"==typeof p&&(p=ze(r,p),p={trusted:p+=" (".concat(n,")")});var m=g;if(t.labelClass){var v=document.createElement("span");Ke(v,r,p),Ue(v,t.labelClass),m=v,g.appendChild(v)}else Ke(g,r,p);if(t.labelDescription){var y="".concat(t.elementId,"-description");m.setAttribute("aria-describedby",y);var b=document.createElement("span");Ke(b,r,t.labelDescription),b.id=y,Ue(b,d),g.appendChild(b)}return t.selected&&Ue(g,l),t.placeholder&&Ue(g,h),g.setAttribute("role",t.group?"treeitem":"option"),g.dataset.choice="",g.dataset.id=t.id,g.dataset.value=f,i&&(g.dataset.selectText=i),t.group&&(g.dataset.groupId="".concat(t.group.id)),mi(g,t,!1),t.disabled?(Ue(g,u),g.dataset.choiceDisabled="",g.setAttribute("aria-disabled","true")):(Ue(g,c),g.dataset.choiceSelectable=""),g},input:function(e,t){var i=e.classNames,n=i.input,r=i.inputCloned,o=e.labelId,a=document.createElement("input");return a.type="search",Ue(a,n),Ue(a,r),a.autocomplete="off",a.autocapitalize="off",a.spellcheck=!1,a.setAttribute("aria-autocomplete","list"),t?a.setAttribute("aria-label",t):o||vi(this._docRoot,this.passedElement.element.id,a),a},dropdown:function(e){var t=e.classNames,i=t.list,n=t.listDropdown,r=document.createElement("div");return Ue(r,i),Ue(r,n),r.setAttribute("aria-expanded","false"),r},notice:function(e,t,i){var n=e.classNames,r=n.item,o=n.itemChoice,a=n.addChoice,s=n.noResults,c=n.noChoices,l=n.notice;void 0===i&&(i=gt);var u=document.createElement("div");switch(Ke(u,!0,t),Ue(u,r),Ue(u,o),Ue(u,l),i){case ft:Ue(u,a);break;case pt:Ue(u,s);break;case ht:Ue(u,c)}return i===ft&&(u.dataset.choiceSelectable="",u.dataset.choice=""),u},option:function(e){var t=He(e.label),i=new Option(t,e.value,!1,e.selected);return mi(i,e,!0),i.disabled=e.disabled,e.selected&&i.setAttribute("selected",""),i}},bi="-ms-scroll-limit"in document.documentElement.style&&"-ms-ime-align"in document.documentElement.style,ki={},_i=function(e){if(e)return e.dataset.id?parseInt(e.dataset.id,10):void 0},xi="[data-choice-selectable]",wi=function(){function e(t,i){void 0===t&&(t="[data-choice]"),void 0===i&&(i={});var n=this;this.initialisedOK=void 0,this._hasNonChoicePlaceholder=!1,this._lastAddedChoiceId=0,this._lastAddedGroupId=0;var r=e.defaults;this.config=J(J(J({},r.allOptions),r.options),i),Ae.forEach(function(e){n.config[e]=J(J(J({},r.allOptions[e]),r.options[e]),i[e])});var o=this.config;o.silent||this._validateConfig();var a=o.shadowRoot||document.documentElement;this._docRoot=a;var s="string"==typeof t?a.querySelector(t):t;if(!s||"object"!==k(s)||"INPUT"!==s.tagName&&!at(s)){if(!s&&"string"==typeof t)throw TypeError("Selector ".concat(t," failed to find an element"));throw TypeError("Expected one of the following types text|select-one|select-multiple")}var c=s.type,l=c===Me;(l||1!==o.maxItemCount)&&(o.singleModeForMultiSelect=!1),o.singleModeForMultiSelect&&(c=Ie);var u=c===Le,d=c===Ie,h=u||d;if(this._elementType=c,this._isTextElement=l,this._isSelectOneElement=u,this._isSelectMultipleElement=d,this._isSelectElement=u||d,this._canAddUserChoices=l&&o.addItems||h&&o.addChoices,"boolean"!=typeof o.renderSelectedChoices&&(o.renderSelectedChoices="always"===o.renderSelectedChoices||u),"auto"===o.closeDropdownOnSelect?o.closeDropdownOnSelect=l||u||o.singleModeForMultiSelect:o.closeDropdownOnSelect=nt(o.closeDropdownOnSelect),o.placeholder&&(o.placeholderValue?this._hasNonChoicePlaceholder=!0:s.dataset.placeholder&&(this._hasNonChoicePlaceholder=!0,o.placeholderValue=s.dataset.placeholder)),i.addItemFilter&&"function"!=typeof i.addItemFilter){var p=i.addItemFilter instanceof RegExp?i.addItemFilter:new RegExp(i.addItemFilter);o.addItemFilter=p.test.bind(p)}if(this._isTextElement)this.passedElement=new it({element:s,classNames:o.classNames});else{var f=s;this.passedElement=new st({element:f,classNames:o.classNames,template:function(e){return n._templates.option(e)},extractPlaceholder:o.placeholder&&!this._hasNonChoicePlaceholder})}if(this.initialised=!1,this._store=new dt(o),this._currentValue="",o.searchEnabled=!l&&o.searchEnabled||d,this._canSearch=o.searchEnabled,this._isScrollingOnIe=!1,this._highlightPosition=0,this._wasTap=!0,this._placeholderValue=this._generatePlaceholderValue(),this._baseId=function(e,t){var i=e.id||e.name&&"".concat(e.name,"-").concat(Ne(2))||Ne(4);return i=i.replace(/(:|\.|\[|\]|,)/g,""),"".concat(t,"-").concat(i)}(s,"choices-"),this._direction=s.dir,!this._direction){var g=window.getComputedStyle(s).direction;g!==window.getComputedStyle(document.documentElement).direction&&(this._direction=g)}if(this._idNames={itemChoice:"item-choice"},this._templates=r.templates,this._render=this._render.bind(this),this._onFocus=this._onFocus.bind(this),this._onBlur=this._onBlur.bind(this),this._onKeyUp=this._onKeyUp.bind(this),this._onKeyDown=this._onKeyDown.bind(this),this._onInput=this._onInput.bind(this),this._onClick=this._onClick.bind(this),this._onTouchMove=this._onTouchMove.bind(this),this._onTouchEnd=this._onTouchEnd.bind(this),this._onMouseDown=this._onMouseDown.bind(this),this._onMouseOver=this._onMouseOver.bind(this),this._onFormReset=this._onFormReset.bind(this),this._onSelectKey=this._onSelectKey.bind(this),this._onEnterKey=this._onEnterKey.bind(this),this._onEscapeKey=this._onEscapeKey.bind(this),this._onDirectionKey=this._onDirectionKey.bind(this),this._onDeleteKey=this._onDeleteKey.bind(this),this.passedElement.isActive)return o.silent||console.warn("Trying to initialise Choices on element already initialised",{element:t}),this.initialised=!0,void(this.initialisedOK=!1);this.init(),this._initialItems=this._store.items.map(function(e){return e.value})}return Object.defineProperty(e,"defaults",{get:function(){return Object.preventExtensions({get options(){return ki},get allOptions(){return ct},get templates(){return yi}})},enumerable:!1,configurable:!0}),e.prototype.init=function(){if(!this.initialised&&void 0===this.initialisedOK){var e;this._searcher=(e=this.config,new gi(e)),this._loadChoices(),this._createTemplates(),this._createElements(),this._createStructure(),this._isTextElement&&!this.config.addItems||this.passedElement.element.hasAttribute("disabled")||this.passedElement.element.closest("fieldset:disabled")?this.disable():(this.enable(),this._addEventListeners()),this._initStore(),this.initialised=!0,this.initialisedOK=!0;var t=this.config.callbackOnInit;"function"==typeof t&&t.call(this)}},e.prototype.destroy=function(){this.initialised&&(this._removeEventListeners(),this.passedElement.reveal(),this.containerOuter.unwrap(this.passedElement.element),this._store._listeners=[],this.clearStore(!1),this._stopSearch(),this._templates=e.defaults.templates,this.initialised=!1,this.initialisedOK=void 0)},e.prototype.enable=function(){return this.passedElement.isDisabled&&this.passedElement.enable(),this.containerOuter.isDisabled&&(this._addEventListeners(),this.input.enable(),this.containerOuter.enable()),this},e.prototype.disable=function(){return this.passedElement.isDisabled||this.passedElement.disable(),this.containerOuter.isDisabled||(this._removeEventListeners(),this.input.disable(),this.containerOuter.disable()),this},e.prototype.highlightItem=function(e,t){if(void 0===t&&(t=!0),!e||!e.id)return this;var i=this._store.items.find(function(t){return t.id===e.id});return!i||i.highlighted||(this._store.dispatch(Oe(i,!0)),t&&this.passedElement.triggerEvent(fe,this._getChoiceForOutput(i))),this},e.prototype.unhighlightItem=function(e,t){if(void 0===t&&(t=!0),!e||!e.id)return this;var i=this._store.items.find(function(t){return t.id===e.id});return i&&i.highlighted?(this._store.dispatch(Oe(i,!1)),t&&this.passedElement.triggerEvent(me,this._getChoiceForOutput(i)),this):this},e.prototype.highlightAll=function(){var e=this;return this._store.withTxn(function(){e._store.items.forEach(function(t){t.highlighted||(e._store.dispatch(Oe(t,!0)),e.passedElement.triggerEvent(fe,e._getChoiceForOutput(t)))})}),this},e.prototype.unhighlightAll=function(){var e=this;return this._store.withTxn(function(){e._store.items.forEach(function(t){t.highlighted&&(e._store.dispatch(Oe(t,!1)),e.passedElement.triggerEvent(fe,e._getChoiceForOutput(t)))})}),this},e.prototype.removeActiveItemsByValue=function(e){var t=this;return this._store.withTxn(function(){t._store.items.filter(function(t){return t.value===e}).forEach(function(e){return t._removeItem(e)})}),this},e.prototype.removeActiveItems=function(e){var t=this;return this._store.withTxn(function(){t._store.items.filter(function(t){return t.id!==e}).forEach(function(e){return t._removeItem(e)})}),this},e.prototype.removeHighlightedItems=function(e){var t=this;return void 0===e&&(e=!1),this._store.withTxn(function(){t._store.highlightedActiveItems.forEach(function(i){t._removeItem(i),e&&t._triggerChange(i.value)})}),this},e.prototype.showDropdown=function(e){var t=this;return this.dropdown.isActive||(void 0===e&&(e=!this._canSearch),requestAnimationFrame(function(){t.dropdown.show();var i=t.dropdown.element.getBoundingClientRect();t.containerOuter.open(i.bottom,i.height),e||t.input.focus(),t.passedElement.triggerEvent(se)})),this},e.prototype.hideDropdown=function(e){var t=this;return this.dropdown.isActive?(requestAnimationFrame(function(){t.dropdown.hide(),t.containerOuter.close(),!e&&t._canSearch&&(t.input.removeActiveDescendant(),t.input.blur()),t.passedElement.triggerEvent(ce)}),this):this},e.prototype.getValue=function(e){var t=this,i=this._store.items.map(function(i){return e?i.value:t._getChoiceForOutput(i)});return this._isSelectOneElement||this.config.singleModeForMultiSelect?i[0]:i},e.prototype.setValue=function(e){var t=this;return this.initialisedOK?(this._store.withTxn(function(){e.forEach(function(e){e&&t._addChoice(ot(e,!1))})}),this._searcher.reset(),this):(this._warnChoicesInitFailed("setValue"),this)},e.prototype.setChoiceByValue=function(e){var t=this;return this.initialisedOK?(this._isTextElement||(this._store.withTxn(function(){(Array.isArray(e)?e:[e]).forEach(function(e){return t._findAndSelectChoiceByValue(e)}),t.unhighlightAll()}),this._searcher.reset()),this):(this._warnChoicesInitFailed("setChoiceByValue"),this)},e.prototype.setChoices=function(e,t,i,n,r,o){var a=this;if(void 0===e&&(e=[]),void 0===t&&(t="value"),void 0===i&&(i="label"),void 0===n&&(n=!1),void 0===r&&(r=!0),void 0===o&&(o=!1),!this.initialisedOK)return this._warnChoicesInitFailed("setChoices"),this;if(!this._isSelectElement)throw new TypeError("setChoices can't be used with INPUT based Choices");if("string"!=typeof t||!t)throw new TypeError("value parameter must be a name of 'value' field in passed objects");if("function"==typeof e){var s=e(this);if("function"==typeof Promise&&s instanceof Promise)return new Promise(function(e){return requestAnimationFrame(e)}).then(function(){return a._handleLoadingState(!0)}).then(function(){return s}).then(function(e){return a.setChoices(e,t,i,n,r,o)}).catch(function(e){a.config.silent||console.error(e)}).then(function(){return a._handleLoadingState(!1)}).then(function(){return a});if(!Array.isArray(s))throw new TypeError(".setChoices first argument function must return either array of choices or Promise, got: ".concat(k(s)));return this.setChoices(s,t,i,!1)}if(!Array.isArray(e))throw new TypeError(".setChoices must be called either with array of choices with a function resulting into Promise of array of choices");return this.containerOuter.removeLoadingState(),this._store.withTxn(function(){r&&(a._isSearching=!1),n&&a.clearChoices(!0,o);var s="value"===t,c="label"===i;e.forEach(function(e){if("choices"in e){var n=e;c||(n=J(J({},n),{label:n[i]})),a._addGroup(ot(n,!0))}else{var r=e;c&&s||(r=J(J({},r),{value:r[t],label:r[i]}));var o=ot(r,!1);a._addChoice(o),o.placeholder&&!a._hasNonChoicePlaceholder&&(a._placeholderValue=Ve(o.label))}}),a.unhighlightAll()}),this._searcher.reset(),this},e.prototype.refresh=function(e,t,i){var n=this;return void 0===e&&(e=!1),void 0===t&&(t=!1),void 0===i&&(i=!1),this._isSelectElement?(this._store.withTxn(function(){var r=n.passedElement.optionsAsChoices(),o={};i||n._store.items.forEach(function(e){e.id&&e.active&&e.selected&&(o[e.value]=!0)}),n.clearStore(!1);var a=function(e){i?n._store.dispatch(De(e)):o[e.value]&&(e.selected=!0)};r.forEach(function(e){"choices"in e?e.choices.forEach(a):a(e)}),n._addPredefinedChoices(r,t,e),n._isSearching&&n._searchChoices(n.input.value)}),this):(this.config.silent||console.warn("refresh method can only be used on choices backed by a <select> element"),this)},e.prototype.removeChoice=function(e){var t=this._store.choices.find(function(t){return t.value===e});return t?(this._clearNotice(),this._store.dispatch(function(e){return{type:X,choice:e}}(t)),this._searcher.reset(),t.selected&&this.passedElement.triggerEvent(pe,this._getChoiceForOutput(t)),this):this},e.prototype.clearChoices=function(e,t){var i=this;return void 0===e&&(e=!0),void 0===t&&(t=!1),e&&(t?this.passedElement.element.replaceChildren(""):this.passedElement.element.querySelectorAll(":not([selected])").forEach(function(e){e.remove()})),this.itemList.element.replaceChildren(""),this.choiceList.element.replaceChildren(""),this._clearNotice(),this._store.withTxn(function(){var e=t?[]:i._store.items;i._store.reset(),e.forEach(function(e){i._store.dispatch(Te(e)),i._store.dispatch(Fe(e))})}),this._searcher.reset(),this},e.prototype.clearStore=function(e){return void 0===e&&(e=!0),this.clearChoices(e,!0),this._stopSearch(),this._lastAddedChoiceId=0,this._lastAddedGroupId=0,this},e.prototype.clearInput=function(){var e=!this._isSelectOneElement;return this.input.clear(e),this._stopSearch(),this},e.prototype._validateConfig=function(){var e,t,i,n,r=this.config,o=(e=r,t=ct,i=Object.keys(e).sort(),n=Object.keys(t).sort(),i.filter(function(e){return n.indexOf(e)<0}));o.length&&console.warn("Unknown config option(s) passed",o.join(", ")),r.allowHTML&&r.allowHtmlUserInput&&(r.addItems&&console.warn("Warning: allowHTML/allowHtmlUserInput/addItems all being true is strongly not recommended and may lead to XSS attacks"),r.addChoices&&console.warn("Warning: allowHTML/allowHtmlUserInput/addChoices all being true is strongly not recommended and may lead to XSS attacks"))},e.prototype._render=function(e){void 0===e&&(e={choices:!0,groups:!0,items:!0}),this._store.inTxn()||(this._isSelectElement&&(e.choices||e.groups)&&this._renderChoices(),e.items&&this._renderItems())},e.prototype._renderChoices=function(){var e=this;if(this._canAddItems()){var t=this.config,i=this._isSearching,n=this._store,r=n.activeGroups,o=n.activeChoices,a=0;if(i&&t.searchResultLimit>0?a=t.searchResultLimit:t.renderChoiceLimit>0&&(a=t.renderChoiceLimit),this._isSelectElement){var s=o.filter(function(e){return!e.element});s.length&&this.passedElement.addOptions(s)}var c=document.createDocumentFragment(),l=function(e){return e.filter(function(e){return!e.placeholder&&(i?!!e.rank:t.renderSelectedChoices||!e.selected)})},u=!1,d=function(n,r,o){i?n.sort($e):t.shouldSort&&n.sort(t.sorter);var s=n.length;s=!r&&a&&s>a?a:s,s--,n.every(function(n,r){var a=n.choiceEl||e._templates.choice(t,n,t.itemSelectText,o);return n.choiceEl=a,c.appendChild(a),!i&&n.selected||(u=!0),r<s})};o.length&&(t.resetScrollPosition&&requestAnimationFrame(function(){return e.choiceList.scrollToTop()}),this._hasNonChoicePlaceholder||i||!this._isSelectOneElement||d(o.filter(function(e){return e.placeholder&&!e.group}),!1,void 0),r.length&&!i?(t.shouldSort&&r.sort(t.sorter),d(o.filter(function(e){return!e.placeholder&&!e.group}),!1,void 0),r.forEach(function(n){var r=l(n.choices);if(r.length){if(n.label){var o=n.groupEl||e._templates.choiceGroup(e.config,n);n.groupEl=o,o.remove(),c.appendChild(o)}d(r,!0,t.appendGroupInSearch&&i?n.label:void 0)}})):d(l(o),!1,void 0)),u||!i&&c.children.length&&t.renderSelectedChoices||(this._notice||(this._notice={text:qe(i?t.noResultsText:t.noChoicesText),type:i?pt:ht}),c.replaceChildren("")),this._renderNotice(c),this.choiceList.element.replaceChildren(c),u&&this._highlightChoice()}},e.prototype._renderItems=function(){var e=this,t=this._store.items||[],i=this.itemList.element,n=this.config,r=document.createDocumentFragment(),o=function(e){return i.querySelector('[data-item][data-id="'.concat(e.id,'"]'))},a=function(t){var i=t.itemEl;i&&i.parentElement||(i=o(t)||e._templates.item(n,t,n.removeItemButton),t.itemEl=i,r.appendChild(i))};t.forEach(a);var s=!!r.childNodes.length;if(this._isSelectOneElement){var c=i.children.length;if(s||c>1){var l=i.querySelector(We(n.classNames.placeholder));l&&l.remove()}else s||c||!this._placeholderValue||(s=!0,a(ot({selected:!0,value:"",label:this._placeholderValue,placeholder:!0},!1)))}s&&(i.append(r),n.shouldSortItems&&!this._isSelectOneElement&&(t.sort(n.sorter),t.forEach(function(e){var t=o(e);t&&(t.remove(),r.append(t))}),i.append(r))),this._isTextElement&&(this.passedElement.value=t.map(function(e){return e.value}).join(n.delimiter))},e.prototype._displayNotice=function(e,t,i){void 0===i&&(i=!0);var n=this._notice;n&&(n.type===t&&n.text===e||n.type===ft&&(t===pt||t===ht))?i&&this.showDropdown(!0):(this._clearNotice(),this._notice=e?{text:e,type:t}:void 0,this._renderNotice(),i&&e&&this.showDropdown(!0))},e.prototype._clearNotice=function(){if(this._notice){var e=this.choiceList.element.querySelector(We(this.config.classNames.notice));e&&e.remove(),this._notice=void 0}},e.prototype._renderNotice=function(e){var t=this._notice;if(t){var i=this._templates.notice(this.config,t.text,t.type);e?e.append(i):this.choiceList.prepend(i)}},e.prototype._getChoiceForOutput=function(e,t){return{id:e.id,highlighted:e.highlighted,labelClass:e.labelClass,labelDescription:e.labelDescription,customProperties:e.customProperties,disabled:e.disabled,active:e.active,label:e.label,placeholder:e.placeholder,value:e.value,groupValue:e.group?e.group.label:void 0,element:e.element,keyCode:t}},e.prototype._triggerChange=function(e){null!=e&&this.passedElement.triggerEvent(le,{value:e})},e.prototype._handleButtonAction=function(e){var t=this,i=this._store.items;if(i.length&&this.config.removeItems&&this.config.removeItemButton){var n=e&&_i(e.parentElement),r=n&&i.find(function(e){return e.id===n});r&&this._store.withTxn(function(){if(t._removeItem(r),t._triggerChange(r.value),t._isSelectOneElement&&!t._hasNonChoicePlaceholder){var e=(t.config.shouldSort?t._store.choices.reverse():t._store.choices).find(function(e){return e.placeholder});e&&(t._addItem(e),t.unhighlightAll(),e.value&&t._triggerChange(e.value))}})}},e.prototype._handleItemAction=function(e,t){var i=this;void 0===t&&(t=!1);var n=this._store.items;if(n.length&&this.config.removeItems&&!this._isSelectOneElement){var r=_i(e);r&&(n.forEach(function(e){e.id!==r||e.highlighted?!t&&e.highlighted&&i.unhighlightItem(e):i.highlightItem(e)}),this.input.focus())}},e.prototype._handleChoiceAction=function(e){var t=this,i=_i(e),n=i&&this._store.getChoiceById(i);if(!n||n.disabled)return!1;var r=this.dropdown.isActive;if(!n.selected){if(!this._canAddItems())return!0;this._store.withTxn(function(){t._addItem(n,!0,!0),t.clearInput(),t.unhighlightAll()}),this._triggerChange(n.value)}return r&&this.config.closeDropdownOnSelect&&(this.hideDropdown(!0),this.containerOuter.element.focus()),!0},e.prototype._handleBackspace=function(e){var t=this.config;if(t.removeItems&&e.length){var i=e[e.length-1],n=e.some(function(e){return e.highlighted});t.editItems&&!n&&i?(this.input.value=i.value,this.input.setWidth(),this._removeItem(i),this._triggerChange(i.value)):(n||this.highlightItem(i,!1),this.removeHighlightedItems(!0))}},e.prototype._loadChoices=function(){var e,t=this,i=this.config;if(this._isTextElement){if(this._presetChoices=i.items.map(function(e){return ot(e,!1)}),this.passedElement.value){var n=this.passedElement.value.split(i.delimiter).map(function(e){return ot(e,!1,t.config.allowHtmlUserInput)});this._presetChoices=this._presetChoices.concat(n)}this._presetChoices.forEach(function(e){e.selected=!0})}else if(this._isSelectElement){this._presetChoices=i.choices.map(function(e){return ot(e,!0)});var r=this.passedElement.optionsAsChoices();r&&(e=this._presetChoices).push.apply(e,r)}},e.prototype._handleLoadingState=function(e){void 0===e&&(e=!0);var t=this.itemList.element;e?(this.disable(),this.containerOuter.addLoadingState(),this._isSelectOneElement?t.replaceChildren(this._templates.placeholder(this.config,this.config.loadingText)):this.input.placeholder=this.config.loadingText):(this.enable(),this.containerOuter.removeLoadingState(),this._isSelectOneElement?(t.replaceChildren(""),this._render()):this.input.placeholder=this._placeholderValue||"")},e.prototype._handleSearch=function(e){if(this.input.isFocussed)if(null!=e&&e.length>=this.config.searchFloor){var t=this.config.searchChoices?this._searchChoices(e):0;null!==t&&this.passedElement.triggerEvent(de,{value:e,resultCount:t})}else this._store.choices.some(function(e){return!e.active})&&this._stopSearch()},e.prototype._canAddItems=function(){var e=this.config,t=e.maxItemCount,i=e.maxItemText;return!e.singleModeForMultiSelect&&t>0&&t<=this._store.items.length?(this.choiceList.element.replaceChildren(""),this._notice=void 0,this._displayNotice("function"==typeof i?i(t):i,ft),!1):(this._notice&&this._notice.type===ft&&this._clearNotice(),!0)},e.prototype._canCreateItem=function(e){var t=this.config,i=!0,n="";if((i&&"function"==typeof t.addItemFilter&&!t.addItemFilter(e)&&(i=!1,n=Re(t.customAddItemText,e)),i)&&this._store.choices.find(function(i){return t.valueComparer(i.value,e)})){if(this._isSelectElement)return this._displayNotice("",ft),!1;t.duplicateItemsAllowed||(i=!1,n=Re(t.uniqueItemText,e))}return i&&(n=Re(t.addItemText,e)),n&&this._displayNotice(n,ft),i},e.prototype._searchChoices=function(e){var t=e.trim().replace(/\s{2,}/," ");if(!t.length||t===this._currentValue)return null;var i=this._searcher;i.isEmptyIndex()&&i.index(this._store.searchableChoices);var n=i.search(t);this._currentValue=t,this._highlightPosition=0,this._isSearching=!0;var r=this._notice;return(r&&r.type)!==ft&&(n.length?this._clearNotice():this._displayNotice(qe(this.config.noResultsText),pt)),this._store.dispatch(function(e){return{type:ee,results:e}}(n)),n.length},e.prototype._stopSearch=function(){this._isSearching&&(this._currentValue="",this._isSearching=!1,this._clearNotice(),this._store.dispatch({type:te,active:!0}),this.passedElement.triggerEvent(de,{value:"",resultCount:0}))},e.prototype._addEventListeners=function(){var e=this._docRoot,t=this.containerOuter.element,i=this.input.element;e.addEventListener("touchend",this._onTouchEnd,!0),t.addEventListener("keydown",this._onKeyDown,!0),t.addEventListener("mousedown",this._onMouseDown,!0),e.addEventListener("click",this._onClick,{passive:!0}),e.addEventListener("touchmove",this._onTouchMove,{passive:!0}),this.dropdown.element.addEventListener("mouseover",this._onMouseOver,{passive:!0}),this._isSelectOneElement&&(t.addEventListener("focus",this._onFocus,{passive:!0}),t.addEventListener("blur",this._onBlur,{passive:!0})),i.addEventListener("keyup",this._onKeyUp,{passive:!0}),i.addEventListener("input",this._onInput,{passive:!0}),i.addEventListener("focus",this._onFocus,{passive:!0}),i.addEventListener("blur",this._onBlur,{passive:!0}),i.form&&i.form.addEventListener("reset",this._onFormReset,{passive:!0}),this.input.addEventListeners()},e.prototype._removeEventListeners=function(){var e=this._docRoot,t=this.containerOuter.element,i=this.input.element;e.removeEventListener("touchend",this._onTouchEnd,!0),t.removeEventListener("keydown",this._onKeyDown,!0),t.removeEventListener("mousedown",this._onMouseDown,!0),e.removeEventListener("click",this._onClick),e.removeEventListener("touchmove",this._onTouchMove),this.dropdown.element.removeEventListener("mouseover",this._onMouseOver),this._isSelectOneElement&&(t.removeEventListener("focus",this._onFocus),t.removeEventListener("blur",this._onBlur)),i.removeEventListener("keyup",this._onKeyUp),i.removeEventListener("input",this._onInput),i.removeEventListener("focus",this._onFocus),i.removeEventListener("blur",this._onBlur),i.form&&i.form.removeEventListener("reset",this._onFormReset),this.input.removeEventListeners()},e.prototype._onKeyDown=function(e){var t=e.keyCode,i=this.dropdown.isActive,n=1===e.key.length||2===e.key.length&&e.key.charCodeAt(0)>=55296||"Unidentified"===e.key;switch(this._isTextElement||i||t===we||t===ve||t===ye||(this.showDropdown(),!this.input.isFocussed&&n&&(this.input.value+=e.key," "===e.key&&e.preventDefault())),t){case xe:return this._onSelectKey(e,this.itemList.element.hasChildNodes());case _e:return this._onEnterKey(e,i);case we:return this._onEscapeKey(e,i);case Ce:case Se:case Ee:case Pe:return this._onDirectionKey(e,i);case ke:case be:return this._onDeleteKey(e,this._store.items,this.input.isFocussed)}},e.prototype._onKeyUp=function(){this._canSearch=this.config.searchEnabled},e.prototype._onInput=function(){var e=this.input.value;e?this._canAddItems()&&(this._canSearch&&this._handleSearch(e),this._canAddUserChoices&&(this._canCreateItem(e),this._isSelectElement&&(this._highlightPosition=0,this._highlightChoice()))):this._isTextElement?this.hideDropdown(!0):this._stopSearch()},e.prototype._onSelectKey=function(e,t){(e.ctrlKey||e.metaKey)&&t&&(this._canSearch=!1,this.config.removeItems&&!this.input.value&&this.input.element===document.activeElement&&this.highlightAll())},e.prototype._onEnterKey=function(e,t){var i=this,n=this.input.value,r=e.target;if(e.preventDefault(),r&&r.hasAttribute("data-button"))this._handleButtonAction(r);else if(t){var o=this.dropdown.element.querySelector(We(this.config.classNames.highlightedState));if(!o||!this._handleChoiceAction(o))if(r&&n){if(this._canAddItems()){var a=!1;this._store.withTxn(function(){if(!(a=i._findAndSelectChoiceByValue(n,!0))){if(!i._canAddUserChoices)return;if(!i._canCreateItem(n))return;i._addChoice(ot(n,!1,i.config.allowHtmlUserInput),!0,!0),a=!0}i.clearInput(),i.unhighlightAll()}),a&&(this._triggerChange(n),this.config.closeDropdownOnSelect&&this.hideDropdown(!0))}}else this.hideDropdown(!0)}else(this._isSelectElement||this._notice)&&this.showDropdown()},e.prototype._onEscapeKey=function(e,t){t&&(e.stopPropagation(),this.hideDropdown(!0),this._stopSearch(),this.containerOuter.element.focus())},e.prototype._onDirectionKey=function(e,t){var i,n,r,o=e.keyCode;if(t||this._isSelectOneElement){this.showDropdown(),this._canSearch=!1;var a=o===Ee||o===Pe?1:-1,s=void 0;if(e.metaKey||o===Pe||o===Se)s=a>0?this.dropdown.element.querySelector("".concat(xi,":last-of-type")):this.dropdown.element.querySelector(xi);else{var c=this.dropdown.element.querySelector(We(this.config.classNames.highlightedState));s=c?function(e,t,i){void 0===i&&(i=1);for(var n="".concat(i>0?"next":"previous","ElementSibling"),r=e[n];r;){if(r.matches(t))return r;r=r[n]}return null}(c,xi,a):this.dropdown.element.querySelector(xi)}s&&(i=s,n=this.choiceList.element,void 0===(r=a)&&(r=1),(r>0?n.scrollTop+n.offsetHeight>=i.offsetTop+i.offsetHeight:i.offsetTop>=n.scrollTop)||this.choiceList.scrollToChildElement(s,a),this._highlightChoice(s)),e.preventDefault()}},e.prototype._onDeleteKey=function(e,t,i){this._isSelectOneElement||e.target.value||!i||(this._handleBackspace(t),e.preventDefault())},e.prototype._onTouchMove=function(){this._wasTap&&(this._wasTap=!1)},e.prototype._onTouchEnd=function(e){var t=(e||e.touches[0]).target;this._wasTap&&this.containerOuter.element.contains(t)&&((t===this.containerOuter.element||t===this.containerInner.element)&&(this._isTextElement?this.input.focus():this._isSelectMultipleElement&&this.showDropdown()),e.stopPropagation());this._wasTap=!0},e.prototype._onMouseDown=function(e){var t=e.target;if(t instanceof HTMLElement){if(bi&&this.choiceList.element.contains(t)){var i=this.choiceList.element.firstElementChild;this._isScrollingOnIe="ltr"===this._direction?e.offsetX>=i.offsetWidth:e.offsetX<i.offsetLeft}if(t!==this.input.element){var n=t.closest("[data-button],[data-item],[data-choice]");n instanceof HTMLElement&&("button"in n.dataset?this._handleButtonAction(n):"item"in n.dataset?this._handleItemAction(n,e.shiftKey):"choice"in n.dataset&&this._handleChoiceAction(n)),e.preventDefault()}}},e.prototype._onMouseOver=function(e){var t=e.target;t instanceof HTMLElement&&"choice"in t.dataset&&this._highlightChoice(t)},e.prototype._onClick=function(e){var t=e.target,i=this.containerOuter;i.element.contains(t)?this.dropdown.isActive||i.isDisabled?this._isSelectOneElement&&t!==this.input.element&&!this.dropdown.element.contains(t)&&this.hideDropdown():this._isTextElement?document.activeElement!==this.input.element&&this.input.focus():(this.showDropdown(),i.element.focus()):(i.removeFocusState(),this.hideDropdown(!0),this.unhighlightAll())},e.prototype._onFocus=function(e){var t=e.target,i=this.containerOuter;if(t&&i.element.contains(t)){var n=t===this.input.element;this._isTextElement?n&&i.addFocusState():this._isSelectMultipleElement?n&&(this.showDropdown(!0),i.addFocusState()):(i.addFocusState(),n&&this.showDropdown(!0))}},e.prototype._onBlur=function(e){var t=e.target,i=this.containerOuter;t&&i.element.contains(t)&&!this._isScrollingOnIe?t===this.input.element?(i.removeFocusState(),this.hideDropdown(!0),(this._isTextElement||this._isSelectMultipleElement)&&this.unhighlightAll()):t===this.containerOuter.element&&(i.removeFocusState(),this._canSearch||this.hideDropdown(!0)):(this._isScrollingOnIe=!1,this.input.element.focus())},e.prototype._onFormReset=function(){var e=this;this._store.withTxn(function(){e.clearInput(),e.hideDropdown(),e.refresh(!1,!1,!0),e._initialItems.length&&e.setChoiceByValue(e._initialItems)})},e.prototype._highlightChoice=function(e){void 0===e&&(e=null);var t=Array.from(this.dropdown.element.querySelectorAll(xi));if(t.length){var i=e,n=this.config.classNames.highlightedState;Array.from(this.dropdown.element.querySelectorAll(We(n))).forEach(function(e){Je(e,n),e.setAttribute("aria-selected","false")}),i?this._highlightPosition=t.indexOf(i):(i=t.length>this._highlightPosition?t[this._highlightPosition]:t[t.length-1])||(i=t[0]),Ue(i,n),i.setAttribute("aria-selected","true"),this.passedElement.triggerEvent(ge,{el:i}),this.dropdown.isActive&&(this.input.setActiveDescendant(i.id),this.containerOuter.setActiveDescendant(i.id))}},e.prototype._addItem=function(e,t,i){if(void 0===t&&(t=!0),void 0===i&&(i=!1),!e.id)throw new TypeError("item.id must be set before _addItem is called for a choice/item");(this.config.singleModeForMultiSelect||this._isSelectOneElement)&&this.removeActiveItems(e.id),this._store.dispatch(Fe(e)),t&&(this.passedElement.triggerEvent(he,this._getChoiceForOutput(e)),i&&this.passedElement.triggerEvent(ue,this._getChoiceForOutput(e)))},e.prototype._removeItem=function(e){if(e.id){this._store.dispatch(De(e));var t=this._notice;t&&t.type===ht&&this._clearNotice(),this.passedElement.triggerEvent(pe,this._getChoiceForOutput(e))}},e.prototype._addChoice=function(e,t,i){if(void 0===t&&(t=!0),void 0===i&&(i=!1),e.id)throw new TypeError("Can not re-add a choice which has already been added");var n=this.config;if(n.duplicateItemsAllowed||!this._store.choices.find(function(t){return n.valueComparer(t.value,e.value)})){this._lastAddedChoiceId++,e.id=this._lastAddedChoiceId,e.elementId="".concat(this._baseId,"-").concat(this._idNames.itemChoice,"-").concat(e.id);var r=n.prependValue,o=n.appendValue;r&&(e.value=r+e.value),o&&(e.value+=o.toString()),(r||o)&&e.element&&(e.element.value=e.value),this._clearNotice(),this._store.dispatch(Te(e)),e.selected&&this._addItem(e,t,i)}},e.prototype._addGroup=function(e,t){var i=this;if(void 0===t&&(t=!0),e.id)throw new TypeError("Can not re-add a group which has already been added");this._store.dispatch(function(e){return{type:ne,group:e}}(e)),e.choices&&(this._lastAddedGroupId++,e.id=this._lastAddedGroupId,e.choices.forEach(function(n){n.group=e,e.disabled&&(n.disabled=!0),i._addChoice(n,t)}))},e.prototype._createTemplates=function(){var e=this,t=this.config.callbackOnCreateTemplates,i={};"function"==typeof t&&(i=t.call(this,Be,ze,Ge));var n={};Object.keys(this._templates).forEach(function(t){n[t]=t in i?i[t].bind(e):e._templates[t].bind(e)}),this._templates=n},e.prototype._createElements=function(){var e=this._templates,t=this.config,i=this._isSelectOneElement,n=t.position,r=t.classNames,o=this._elementType;this.containerOuter=new Qe({element:e.containerOuter(t,this._direction,this._isSelectElement,i,t.searchEnabled,o,t.labelId),classNames:r,type:o,position:n}),this.containerInner=new Qe({element:e.containerInner(t),classNames:r,type:o,position:n}),this.input=new Xe({element:e.input(t,this._placeholderValue),classNames:r,type:o,preventPaste:!t.paste}),this.choiceList=new et({element:e.choiceList(t,i)}),this.itemList=new et({element:e.itemList(t,i)}),this.dropdown=new Ze({element:e.dropdown(t),classNames:r,type:o})},e.prototype._createStructure=function(){var e=this,t=e.containerInner,i=e.containerOuter,n=e.passedElement,r=this.dropdown.element;n.conceal(),t.wrap(n.element),i.wrap(t.element),this._isSelectOneElement?this.input.placeholder=this.config.searchPlaceholderValue||"":(this._placeholderValue&&(this.input.placeholder=this._placeholderValue),this.input.setWidth()),i.element.appendChild(t.element),i.element.appendChild(r),t.element.appendChild(this.itemList.element),r.appendChild(this.choiceList.element),this._isSelectOneElement?this.config.searchEnabled&&r.insertBefore(this.input.element,r.firstChild):t.element.appendChild(this.input.element),this._highlightPosition=0,this._isSearching=!1},e.prototype._initStore=function(){var e=this;this._store.subscribe(this._render).withTxn(function(){e._addPredefinedChoices(e._presetChoices,e._isSelectOneElement&&!e._hasNonChoicePlaceholder,!1)}),(!this._store.choices.length||this._isSelectOneElement&&this._hasNonChoicePlaceholder)&&this._render()},e.prototype._addPredefinedChoices=function(e,t,i){var n=this;(void 0===t&&(t=!1),void 0===i&&(i=!0),t)&&(-1===e.findIndex(function(e){return e.selected})&&e.some(function(e){return!e.disabled&&!("choices"in e)&&(e.selected=!0,!0)}));e.forEach(function(e){"choices"in e?n._isSelectElement&&n._addGroup(e,i):n._addChoice(e,i)})},e.prototype._findAndSelectChoiceByValue=function(e,t){var i=this;void 0===t&&(t=!1);var n=this._store.choices.find(function(t){return i.config.valueComparer(t.value,e)});return!(!n||n.disabled||n.selected)&&(this._addItem(n,!0,t),!0)},e.prototype._generatePlaceholderValue=function(){var e=this.config;if(!e.placeholder)return null;if(this._hasNonChoicePlaceholder)return e.placeholderValue;if(this._isSelectElement){var t=this.passedElement.placeholderOption;return t?t.text:null}return null},e.prototype._warnChoicesInitFailed=function(e){if(!this.config.silent){if(!this.initialised)throw new TypeError("".concat(e," called on a non-initialised instance of Choices"));if(!this.initialisedOK)throw new TypeError("".concat(e," called for an element which has multiple instances of Choices initialised on it"))}},e.version="11.1.0",e}(),Ci=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.uniqueId=t.uniqueId,this.birthcountryChoices=null,this.birthplaceChoices=null,this.identity=null},[{key:"showCreateIdentityForm",value:(o=i(f().m(function e(){return f().w(function(e){for(;;)switch(e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),this.identity=null,e.n=1,this.displayForm("create");case 1:this.identityPicker.hideLoading();case 2:return e.a(2)}},e,this)})),function(){return o.apply(this,arguments)})},{key:"showModifyIdentityForm",value:(n=i(f().m(function e(t){var i,n,r,o,a;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw n;case 3:return e.n=4,n.json();case 4:this.identity=e.v,this.displayForm("modify"),e.n=6;break;case 5:e.p=5,a=e.v,console.error(this.identityPicker.rules.language.fetchError,a),r=a instanceof Response?403===a.status?"".concat(this.identityPicker.rules.language.httpError," 403"):"".concat(this.identityPicker.rules.language.httpError," ").concat(a.status):a.message,o=r.includes("403")?"noPermissions":"errorMessage",this.identityPicker.showMessage(o,"error",r);case 6:return e.p=6,this.identityPicker.hideLoading(),e.f(6);case 7:return e.a(2)}},e,this,[[1,5,6,7]])})),function(e){return n.apply(this,arguments)})},{key:"displayForm",value:(t=i(f().m(function e(t){var i,n,r,o,a,s,c,l=this;return f().w(function(e){for(;;)switch(e.n){case 0:for(this.birthcountryChoices&&(this.birthcountryChoices.destroy(),this.birthcountryChoices=null),this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),i="ip-".concat(t,"-form-").concat(this.uniqueId),n='<form id="'.concat(i,'">'),r=0,o=Object.entries(this.identityPicker.config.attributeGroups);r<o.length;r++)a=v(o[r],2),s=a[0],c=a[1],n+='<fieldset class="ip-fieldset">\n                <legend>'.concat(this.identityPicker.rules.language["".concat(s,"Group")],"</legend>"),c.attributes.forEach(function(e){n+=l.generateAttributeField(e)}),n+="</fieldset>";n+='<div class="ip-container-buttons">\n            <button class="ip-button-back ip-button-light" type="button">'.concat(this.identityPicker.rules.language.backButton,'</button>\n            <button type="submit">').concat("create"===t?this.identityPicker.rules.language.createButton:this.identityPicker.rules.language.modifyButton,"</button>\n        </div></form>"),this.identityPicker.identityFormContainer.innerHTML=n,this.identityPicker.identityFormContainer.querySelector(".ip-button-back").addEventListener("click",function(){"create"===t?l.identityPicker.showResultsView():l.identityPicker.showDetailsView(l.identity.customer_id,"results")}),this.initializeFormBehavior(i,t);case 1:return e.a(2)}},e,this)})),function(e){return t.apply(this,arguments)})},{key:"generateAttributeField",value:function(e){var t=this;if("birthcountry_code"===e||"birthplace_code"===e){var i=this.identity?B(this.identity,e):"";return'<input type="hidden" id="'.concat(e,'" name="').concat(e,'" value="').concat(i,'">')}var n=this.identityPicker.rules.contract.attributeDefinitions.find(function(t){return t.keyName===e});if(!n)return"";var r=n.attributeRight&&n.attributeRight.writable;if(!r&&this.identity){var o=this.identity.attributes.find(function(t){return t.key===e}),a=o?o.value:"";if(!a)return"";var s=H(e,a,this.identityPicker.rules.referential);return'\n                <div class="ip-form-row ip-readonly-field">\n                    <div class="ip-form-input">\n                        <label for="'.concat(n.keyName,'">').concat(n.name,'</label>\n                        <div class="ip-readonly-value">').concat(s,"</div>\n                    </div>\n                </div>")}if(!r)return"";var c=this.identity?this.identity.attributes.find(function(t){return t.key===e}):null,l=c?c.value:"",u=null!=c&&c.certProcess?this.getCertificationLevel(e,c.certProcess):0,d="";if(null!=c&&c.certProcess&&!n.attributeCertifications.find(function(e){return e.code===c.certProcess})){var h=q(e,c.certProcess,this.identityPicker.rules.referential,this.identityPicker.rules.language);d='<option value="'.concat(c.certProcess,'" selected>').concat(h.label," (").concat(this.identityPicker.rules.language.qualityLabel," ").concat(u,")</option>")}var p=n.attributeCertifications.sort(function(e,t){return parseInt(e.level)-parseInt(t.level)}).filter(function(e){return null==c||!c.certProcess||parseInt(e.level)>=u}).map(function(e){return'<option value="'.concat(e.code,'" ').concat((null==c?void 0:c.certProcess)===e.code?"selected":"",">").concat(e.label," (").concat(t.identityPicker.rules.language.qualityLabel," ").concat(e.level,")</option>")}).join("");return"\n            ".concat("birthcountry"===n.keyName?'<div class="ip-info-message info" id="birthcountry-message" style="display:none">\n                <p class="ip-info-message-main">▲ Veuillez fournir la date de naissance pour pouvoir saisir le pays de naissance</p>\n            </div>':"","\n            ").concat("birthplace"===n.keyName?'<div class="ip-info-message info" id="birthplace-message" style="display:none">\n                <p class="ip-info-message-main">▲ Veuillez fournir le pays de naissance pour pouvoir saisir la commune de naissance</p>\n            </div>':"",'\n            <div class="ip-form-row">\n                <div class="ip-form-input">\n                    <label for="').concat(n.keyName,'">').concat(n.name," ").concat(n.attributeRight.mandatory?'<span class="ip-required">'.concat(this.identityPicker.rules.language.mandatory,"</span>"):"","</label>\n                    ").concat(this.getInputFieldHtml(n,l),'\n                    <div class="ip-field-error" id="').concat(n.keyName,'-error" style="display: none;"></div>\n                </div>\n                <div class="ip-form-select">\n                    <label for="').concat(n.keyName,'-certification">').concat(this.identityPicker.rules.language.selectCertification,' <span class="ip-required" id="').concat(n.keyName,'-cert-required" style="').concat(l?"":"display: none;",'">').concat(this.identityPicker.rules.language.mandatory,'</span></label>\n                    <select id="').concat(n.keyName,'-certification" name="').concat(n.keyName,'-certification" class="ip-select" ').concat(l?"required":"",' data-initial-cert="').concat((null==c?void 0:c.certProcess)||"",'" data-initial-level="').concat(u,'">\n                        <option value="" ').concat(null!=c&&c.certProcess?"":"selected"," disabled>").concat(this.identityPicker.rules.language.selectCertification,"</option>\n                        ").concat(d,"\n                        ").concat(p,'\n                    </select>\n                    <div class="ip-field-error" id="').concat(n.keyName,'-certification-error" style="display: none;"></div>\n                </div>\n            </div>')}},{key:"getCertificationLevel",value:function(e,t){var i=this.identityPicker.rules.referential.processList.processus.find(function(e){return e.code===t});if(i){var n=i.attributeCertificationLevels.find(function(t){return t.attributeKey===e});if(n&&n.level)return parseInt(n.level.level||0)}return 0}},{key:"getInputFieldHtml",value:function(e,t){if("birthcountry"===e.keyName)return'\n                <select id="birthcountry" name="birthcountry" class="ip-birthcountry-select" '.concat(e.attributeRight.mandatory?"required":"",">\n                    ").concat(t?'<option value="'.concat(t,'" selected>').concat(t,"</option>"):"","\n                </select>");if("birthdate"===e.keyName){var i="";if(t){var n=t.split("/");3===n.length&&(i="".concat(n[2],"-").concat(n[1],"-").concat(n[0]))}return'<input type="date" id="'.concat(e.keyName,'" name="').concat(e.keyName,'" value="').concat(i,'" ').concat(e.attributeRight.mandatory?"required":"",">")}var r=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.find(function(t){return t.keyName===e.keyName});return r&&r.values&&r.values.length>0?'\n                    <select id="'.concat(e.keyName,'" class="ip-select" name="').concat(e.keyName,'" ').concat(e.attributeRight.mandatory?"required":"",'>\n                        <option value="" ').concat(t?"":"selected"," disabled>").concat(this.identityPicker.rules.language.selectValue,"</option>\n                        ").concat(r.values.map(function(e){return'\n                            <option value="'.concat(e.value,'" ').concat(e.value===t?"selected":"",">").concat(e.label,"</option>\n                        ")}).join(""),"\n                    </select>"):'<input type="text" id="'.concat(e.keyName,'" name="').concat(e.keyName,'" value="').concat(t,'" ').concat(e.attributeRight.mandatory?"required":"",">")}},{key:"initializeFormBehavior",value:function(e,t){var i=this;this.initializeChoices(),this.initBirthcountrySelect(),this.applyFormRules();var n=this.identityPicker.identityFormContainer.querySelector("#".concat(e)),r=n.querySelectorAll('input[type="text"], input[type="email"], input[type="date"], select:not([id$="-certification"])');r.forEach(function(e){e.value&&i.validateAttributePair(e),e.addEventListener("input",function(e){i.validateAttributePair(e.target)}),e.addEventListener("change",function(e){i.validateAttributePair(e.target)}),e.addEventListener("blur",function(e){i.validateAttributePair(e.target)})});var o=n.querySelectorAll('select[id$="-certification"]');o.forEach(function(e){var t=e.id.replace("-certification",""),r=n.querySelector("#".concat(t));r&&r.value&&i.validateCertificationLevel(e),e.addEventListener("change",function(e){i.validateCertificationLevel(e.target)})}),n.addEventListener("submit",function(e){e.preventDefault();var a=!0;if(r.forEach(function(e){i.validateAttributePair(e)||(a=!1,e.focus())}),o.forEach(function(e){i.validateCertificationLevel(e)||(a=!1,e.focus())}),a){var s=i.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName});i.validatePivotCertificationConsistency(s,n)?i.submitForm(e.target,t):a=!1}a||i.identityPicker.showMessage(i.identityPicker.rules.language.formValidationError||"Veuillez corriger les erreurs dans le formulaire avant de soumettre","error")});var a=this.identityPicker.identityFormContainer.querySelector("#birthdate"),s=this.identityPicker.identityFormContainer.querySelector("#birthcountry");a&&a.addEventListener("change",function(){return i.applyFormRules()}),s&&s.addEventListener("change",function(){return i.applyFormRules()})}},{key:"validateAttributePair",value:function(e){var t=e.id,i=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification")),n=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-cert-required")),r=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification-error"));return!i||(!e.value||""===e.value.trim()?(i.required=!1,n&&(n.style.display="none"),r&&(r.style.display="none",r.textContent=""),!0):(i.required=!0,n&&(n.style.display="inline"),i.value?(r&&(r.style.display="none",r.textContent=""),i.classList.remove("ip-error-input"),!0):(r&&(r.textContent=this.identityPicker.rules.language.certificationRequired||"La certification est obligatoire",r.style.display="block"),i.classList.add("ip-error-input"),!1)))}},{key:"validateCertificationLevel",value:function(e){var t=e.id.replace("-certification",""),i=this.identityPicker.identityFormContainer.querySelector("#".concat(t)),n=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification-error"));if(!i)return!0;if(!i.value||""===i.value.trim()||e.value){var r=parseInt(e.dataset.initialLevel||"0");if(r>0&&e.value)if(this.getCertificationLevel(t,e.value)<r)return n&&(n.textContent=this.identityPicker.rules.language.certificationLowerLevel||"Le niveau de certification doit être supérieur ou égal au niveau actuel (".concat(r,")"),n.style.display="block"),e.classList.add("ip-error-input"),!1;return n&&(n.style.display="none",n.textContent=""),e.classList.remove("ip-error-input"),!0}return n&&(n.textContent=this.identityPicker.rules.language.certificationRequired||"La certification est obligatoire",n.style.display="block"),e.classList.add("ip-error-input"),!1}},{key:"validatePivotCertificationConsistency",value:function(e,t){var i,n=0,r={},o=s(e);try{for(o.s();!(i=o.n()).done;){var a=i.value,c=t.querySelector("#".concat(a)),l=t.querySelector("#".concat(a,"-certification"));if(c&&l&&c.value&&l.value){var u=this.getCertificationLevel(a,l.value);r[a]=u,u>n&&(n=u)}}}catch(e){o.e(e)}finally{o.f()}if(n>=400){var d=Object.keys(r);if(d.some(function(e){return r[e]!==n})){this.identityPicker.showMessage(this.identityPicker.rules.language.inconsistentCertification||"Les niveaux de certification des attributs pivots doivent être cohérents (tous du même niveau si ≥ 400)","error");var h,p=s(d);try{for(p.s();!(h=p.n()).done;){var f=h.value;if(r[f]!==n){var g=t.querySelector("#".concat(f,"-certification")),m=t.querySelector("#".concat(f,"-certification-error"));g&&g.classList.add("ip-error-input"),m&&(m.textContent=this.identityPicker.rules.language.inconsistentCertLevelForAttr||"Niveau de certification incohérent, doit être le même que les autres attributs pivots",m.style.display="block")}}}catch(e){p.e(e)}finally{p.f()}return!1}}return!0}},{key:"submitForm",value:(e=i(f().m(function e(t,i){var n,r,o,a,c,l,u,d,h,p,g,m,y,b,k,_,x,w;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:n=new FormData(t),r={},o=s(n.entries());try{for(o.s();!(a=o.n()).done;)c=v(a.value,2),l=c[0],u=c[1],d=l.split("-"),h=v(d,2),p=h[0],g=h[1],r[p]||(r[p]={}),"certification"===g?r[p].certification=u:r[p].value=u}catch(e){o.e(e)}finally{o.f()}return m="create"===i?this.identityPicker.config.endpoints.identity:"".concat(this.identityPicker.config.endpoints.identity,"/").concat(this.identity.customer_id),this.identityPicker.showLoading(this.identityPicker.rules.language.loading),e.p=1,e.n=2,fetch(m,{method:"create"===i?"POST":"PUT",headers:{"Content-Type":"application/json"},body:JSON.stringify(r)});case 2:return y=e.v,e.n=3,y.json();case 3:if(b=e.v,y.ok){e.n=4;break}throw b;case 4:return k="create"===i?"successCreate":"successModify",e.n=5,this.identityPicker.showDetailsView(b.customer_id,"results","success",k);case 5:e.n=7;break;case 6:e.p=6,w=e.v,console.error(this.identityPicker.rules.language.fetchError,w),w.status&&(w.status.attributes_status||w.status.message)?this.handleSaveError(w):w instanceof Response?(_="".concat(this.identityPicker.rules.language.httpError," ").concat(w.status),this.identityPicker.showMessage("errorMessage","error",_)):(x=w.message||this.identityPicker.rules.language.unknownError,this.identityPicker.showMessage("errorMessage","error",x));case 7:return e.p=7,this.identityPicker.hideLoading(),e.f(7);case 8:return e.a(2)}},e,this,[[1,6,7,8]])})),function(t,i){return e.apply(this,arguments)})},{key:"initializeChoices",value:function(){var e=this;this.identityPicker.shadowRoot.querySelectorAll(".ip-select").forEach(function(t){new wi(t,{searchEnabled:!1,itemSelectText:"",shouldSort:!1,placeholder:!0,shadowRoot:e.identityPicker.shadowRoot})})}},{key:"initBirthcountrySelect",value:function(){var e=this,t=this.identityPicker.shadowRoot.querySelector(".ip-birthcountry-select");t&&(this.birthcountryChoices=new wi(t,{searchEnabled:!0,itemSelectText:"",placeholder:!0,placeholderValue:this.identityPicker.rules.language.selectCountry,searchPlaceholderValue:this.identityPicker.rules.language.searchCountry,shouldSort:!1,shadowRoot:this.identityPicker.shadowRoot,noResultsText:this.identityPicker.rules.language.noCountryResults,noChoicesText:this.identityPicker.rules.language.noCountryAvailable,loadingText:this.identityPicker.rules.language.loadingCountries}),this.birthcountryChoices.passedElement.element.addEventListener("search",j(function(t){var i=t.detail.value;i&&i.length>=e.identityPicker.config.choices.minSearchLength&&e.fetchGeoCode("birthcountry",i,e.identityPicker.identityFormContainer.querySelector("#birthdate").value,e.birthcountryChoices)},this.identityPicker.config.choices.debounceTime)),this.birthcountryChoices.passedElement.element.addEventListener("choice",function(t){var i=e.identityPicker.identityFormContainer.querySelector("#birthcountry_code");i&&(i.value=t.detail.value,e.applyFormRules())}))}},{key:"fetchGeoCode",value:function(e,t,i,n){var r=this,o="".concat(this.identityPicker.config.endpoints["birthcountry"===e?"countries":"cities"],"?search=").concat(encodeURIComponent(t),"&additionalParam=").concat(encodeURIComponent(i));fetch(o,{headers:{accept:"application/json"}}).then(function(e){return e.json()}).then(function(e){if("OK"===e.status&&e.result){var t=e.result.map(function(e){return{value:e.code,label:e.displayValue||"".concat(e.value).concat(e.codeZone?" (".concat(e.codeZone,")"):"")}});n.setChoices(t,"value","label",!0)}else n.setChoices([],"value","label",!0)}).catch(function(t){console.error("".concat(r.identityPicker.rules.language.fetchError," ").concat("birthcountry"===e?r.identityPicker.rules.language.loadingCountries:r.identityPicker.rules.language.loadingCities),t),n.setChoices([],"value","label",!0)})}},{key:"applyFormRules",value:function(){var e=this.identityPicker.identityFormContainer.querySelector("#birthdate"),t=this.identityPicker.identityFormContainer.querySelector("#birthcountry"),i=this.identityPicker.identityFormContainer.querySelector("#birthcountry_code"),n=this.identityPicker.identityFormContainer.querySelector("#birthplace"),r=this.identityPicker.identityFormContainer.querySelector("#birthplace_code"),o=this.identityPicker.identityFormContainer.querySelector("#birthplace-message"),a=this.identityPicker.identityFormContainer.querySelector("#birthcountry-message");if(e&&t&&n){var s=""===e.value.trim(),c=!i||""===i.value.trim();t.disabled=s,a.style.display=s?"block":"none",this.birthcountryChoices&&(s?this.birthcountryChoices.disable():this.birthcountryChoices.enable());var l=!s&&!c;n.disabled=!l,o.style.display=l?"none":"block",l&&("99100"===i.value?this.setupBirthplaceSelect(n,r):this.setupBirthplaceInput(n,r)),!l&&this.birthplaceChoices&&this.birthplaceChoices.disable()}}},{key:"setupBirthplaceSelect",value:function(e,t){var i=this,n=e.value,r=t?t.value:"";if("select"!==e.tagName.toLowerCase()){var o=document.createElement("select");if(o.id=e.id,o.name=e.name,o.className=e.className,e.required&&(o.required=!0),n&&r){var a=document.createElement("option");a.value=r,a.text=n,a.selected=!0,o.appendChild(a)}e.parentNode.replaceChild(o,e),e=o}this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),this.birthplaceChoices=new wi(e,{searchEnabled:!0,itemSelectText:"",placeholder:!0,placeholderValue:this.identityPicker.rules.language.selectCity,searchPlaceholderValue:this.identityPicker.rules.language.searchCity,shouldSort:!1,noResultsText:this.identityPicker.rules.language.noCityResults,noChoicesText:this.identityPicker.rules.language.noCityAvailable,loadingText:this.identityPicker.rules.language.loadingCities,shadowRoot:this.identityPicker.shadowRoot}),this.birthplaceChoices.passedElement.element.addEventListener("search",j(function(e){var t=e.detail.value;t&&t.length>=i.identityPicker.config.choices.minSearchLength&&i.fetchGeoCode("birthplace",t,i.identityPicker.identityFormContainer.querySelector("#birthdate").value,i.birthplaceChoices)},this.identityPicker.config.choices.debounceTime)),this.birthplaceChoices.passedElement.element.addEventListener("choice",function(e){t&&(t.value=e.detail.value)}),n&&r&&this.birthplaceChoices.setChoiceByValue(r)}},{key:"setupBirthplaceInput",value:function(e,t){if(this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),"input"!==e.tagName.toLowerCase()){var i=document.createElement("input");i.type="text",i.id=e.id,i.name=e.name,i.className=e.className,e.required&&(i.required=!0),e.parentNode.replaceChild(i,e)}t&&(t.value="")}},{key:"handleSaveError",value:function(e){if(this.clearFieldErrors(),e.status&&e.status.attributes_status){this.displayFieldErrors(e.status.attributes_status);var t=e.status.message||this.identityPicker.rules.language.validationError||"Erreur de validation";this.identityPicker.showMessage("errorMessage","error",t)}else if(e.status&&e.status.message_key){var i=this.identityPicker.rules.language[e.status.message_key]||e.status.message;this.identityPicker.showMessage("errorMessage","error",i),console.error("Erreur serveur:",e.status)}else e.status&&e.status.message?(this.identityPicker.showMessage("errorMessage","error",e.status.message),console.error("Erreur serveur:",e.status)):(this.identityPicker.showMessage("errorMessage","error",this.identityPicker.rules.language.unknownError||"Une erreur inconnue est survenue"),console.error("Erreur non catégorisée:",e))}},{key:"displayFieldErrors",value:function(e){var t=this;this.clearFieldErrors();var i=null;e.forEach(function(e){var n=t.identityPicker.identityFormContainer.querySelector('[name="'.concat(e.key,'"]'));if(n){n.classList.add("ip-error-input"),i||(i=n);var r=t.identityPicker.identityFormContainer.querySelector("#".concat(e.key,"-error"));if(r)r.textContent=e.message,r.style.display="block";else{var o=document.createElement("div");o.className="ip-field-error",o.textContent=e.message,n.parentNode.insertBefore(o,n.nextSibling)}}}),i&&setTimeout(function(){i.scrollIntoView({behavior:"smooth",block:"center"}),i.focus()},100)}},{key:"clearFieldErrors",value:function(){this.identityPicker.identityFormContainer.querySelectorAll(".ip-field-error").forEach(function(e){e.textContent="",e.style.display="none"}),this.identityPicker.identityFormContainer.querySelectorAll(".ip-error-input").forEach(function(e){return e.classList.remove("ip-error-input")})}}]);var e,t,n,o}();function Ei(e){return Array.isArray?Array.isArray(e):"[object Array]"===Ti(e)}function Si(e){return"string"==typeof e}function Pi(e){return"number"==typeof e}function Ai(e){return!0===e||!1===e||function(e){return Mi(e)&&null!==e}(e)&&"[object Boolean]"==Ti(e)}function Mi(e){return"object"===k(e)}function Li(e){return null!=e}function Ii(e){return!e.trim().length}function Ti(e){return null==e?void 0===e?"[object Undefined]":"[object Null]":Object.prototype.toString.call(e)}var Fi=Object.prototype.hasOwnProperty,Di=function(){return a(function e(t){var i=this;r(this,e),this._keys=[],this._keyMap={};var n=0;t.forEach(function(e){var t=Oi(e);i._keys.push(t),i._keyMap[t.id]=t,n+=t.weight}),this._keys.forEach(function(e){e.weight/=n})},[{key:"get",value:function(e){return this._keyMap[e]}},{key:"keys",value:function(){return this._keys}},{key:"toJSON",value:function(){return JSON.stringify(this._keys)}}])}();function Oi(e){var t=null,i=null,n=null,r=1,o=null;if(Si(e)||Ei(e))n=e,t=Ni(e),i=ji(e);else{if(!Fi.call(e,"name"))throw new Error(function(e){return"Missing ".concat(e," property in key")}("name"));var a=e.name;if(n=a,Fi.call(e,"weight")&&(r=e.weight)<=0)throw new Error(function(e){return"Property 'weight' in key '".concat(e,"' must be a positive integer")}(a));t=Ni(a),i=ji(a),o=e.getFn}return{path:t,id:i,weight:r,src:n,getFn:o}}function Ni(e){return Ei(e)?e:e.split(".")}function ji(e){return Ei(e)?e.join("."):e}var Bi={useExtendedSearch:!1,getFn:function(e,t){var i=[],n=!1,r=function(e,t,o){if(Li(e))if(t[o]){var a=e[t[o]];if(!Li(a))return;if(o===t.length-1&&(Si(a)||Pi(a)||Ai(a)))i.push(function(e){return null==e?"":function(e){if("string"==typeof e)return e;var t=e+"";return"0"==t&&1/e==-1/0?"-0":t}(e)}(a));else if(Ei(a)){n=!0;for(var s=0,c=a.length;s<c;s+=1)r(a[s],t,o+1)}else t.length&&r(a,t,o+1)}else i.push(e)};return r(e,Si(t)?t.split("."):t,0),n?i:i[0]},ignoreLocation:!1,ignoreFieldNorm:!1,fieldNormWeight:1},Ri=p(p(p(p({},{isCaseSensitive:!1,ignoreDiacritics:!1,includeScore:!1,keys:[],shouldSort:!0,sortFn:function(e,t){return e.score===t.score?e.idx<t.idx?-1:1:e.score<t.score?-1:1}}),{includeMatches:!1,findAllMatches:!1,minMatchCharLength:1}),{location:0,threshold:.6,distance:100}),Bi),qi=/[^ ]+/g;var Hi=function(){return a(function e(){var t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:{},i=t.getFn,n=void 0===i?Ri.getFn:i,o=t.fieldNormWeight,a=void 0===o?Ri.fieldNormWeight:o;r(this,e),this.norm=function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:1,t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:3,i=new Map,n=Math.pow(10,t);return{get:function(t){var r=t.match(qi).length;if(i.has(r))return i.get(r);var o=1/Math.pow(r,.5*e),a=parseFloat(Math.round(o*n)/n);return i.set(r,a),a},clear:function(){i.clear()}}}(a,3),this.getFn=n,this.isCreated=!1,this.setIndexRecords()},[{key:"setSources",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.docs=e}},{key:"setIndexRecords",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.records=e}},{key:"setKeys",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.keys=t,this._keysMap={},t.forEach(function(t,i){e._keysMap[t.id]=i})}},{key:"create",value:function(){var e=this;!this.isCreated&&this.docs.length&&(this.isCreated=!0,Si(this.docs[0])?this.docs.forEach(function(t,i){e._addString(t,i)}):this.docs.forEach(function(t,i){e._addObject(t,i)}),this.norm.clear())}},{key:"add",value:function(e){var t=this.size();Si(e)?this._addString(e,t):this._addObject(e,t)}},{key:"removeAt",value:function(e){this.records.splice(e,1);for(var t=e,i=this.size();t<i;t+=1)this.records[t].i-=1}},{key:"getValueForItemAtKeyId",value:function(e,t){return e[this._keysMap[t]]}},{key:"size",value:function(){return this.records.length}},{key:"_addString",value:function(e,t){if(Li(e)&&!Ii(e)){var i={v:e,i:t,n:this.norm.get(e)};this.records.push(i)}}},{key:"_addObject",value:function(e,t){var i=this,n={i:t,$:{}};this.keys.forEach(function(t,r){var o=t.getFn?t.getFn(e):i.getFn(e,t.path);if(Li(o))if(Ei(o)){for(var a=[],s=[{nestedArrIndex:-1,value:o}];s.length;){var c=s.pop(),l=c.nestedArrIndex,u=c.value;if(Li(u))if(Si(u)&&!Ii(u)){var d={v:u,i:l,n:i.norm.get(u)};a.push(d)}else Ei(u)&&u.forEach(function(e,t){s.push({nestedArrIndex:t,value:e})})}n.$[r]=a}else if(Si(o)&&!Ii(o)){var h={v:o,n:i.norm.get(o)};n.$[r]=h}}),this.records.push(n)}},{key:"toJSON",value:function(){return{keys:this.keys,records:this.records}}}])}();function Vi(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.getFn,r=void 0===n?Ri.getFn:n,o=i.fieldNormWeight,a=void 0===o?Ri.fieldNormWeight:o,s=new Hi({getFn:r,fieldNormWeight:a});return s.setKeys(e.map(Oi)),s.setSources(t),s.create(),s}function zi(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.errors,n=void 0===i?0:i,r=t.currentLocation,o=void 0===r?0:r,a=t.expectedLocation,s=void 0===a?0:a,c=t.distance,l=void 0===c?Ri.distance:c,u=t.ignoreLocation,d=void 0===u?Ri.ignoreLocation:u,h=n/e.length;if(d)return h;var p=Math.abs(s-o);return l?h+p/l:p?1:h}var Ki=32;function $i(e,t,i){var n=arguments.length>3&&void 0!==arguments[3]?arguments[3]:{},r=n.location,o=void 0===r?Ri.location:r,a=n.distance,s=void 0===a?Ri.distance:a,c=n.threshold,l=void 0===c?Ri.threshold:c,u=n.findAllMatches,d=void 0===u?Ri.findAllMatches:u,h=n.minMatchCharLength,p=void 0===h?Ri.minMatchCharLength:h,f=n.includeMatches,g=void 0===f?Ri.includeMatches:f,m=n.ignoreLocation,v=void 0===m?Ri.ignoreLocation:m;if(t.length>Ki)throw new Error("Pattern length exceeds max of ".concat(Ki,"."));for(var y,b=t.length,k=e.length,_=Math.max(0,Math.min(o,k)),x=l,w=_,C=p>1||g,E=C?Array(k):[];(y=e.indexOf(t,w))>-1;){var S=zi(t,{currentLocation:y,expectedLocation:_,distance:s,ignoreLocation:v});if(x=Math.min(S,x),w=y+b,C)for(var P=0;P<b;)E[y+P]=1,P+=1}w=-1;for(var A=[],M=1,L=b+k,I=1<<b-1,T=0;T<b;T+=1){for(var F=0,D=L;F<D;){zi(t,{errors:T,currentLocation:_+D,expectedLocation:_,distance:s,ignoreLocation:v})<=x?F=D:L=D,D=Math.floor((L-F)/2+F)}L=D;var O=Math.max(1,_-D+1),N=d?k:Math.min(_+D,k)+b,j=Array(N+2);j[N+1]=(1<<T)-1;for(var B=N;B>=O;B-=1){var R=B-1,q=i[e.charAt(R)];if(C&&(E[R]=+!!q),j[B]=(j[B+1]<<1|1)&q,T&&(j[B]|=(A[B+1]|A[B])<<1|1|A[B+1]),j[B]&I&&(M=zi(t,{errors:T,currentLocation:R,expectedLocation:_,distance:s,ignoreLocation:v}))<=x){if(x=M,(w=R)<=_)break;O=Math.max(1,2*_-w)}}if(zi(t,{errors:T+1,currentLocation:_,expectedLocation:_,distance:s,ignoreLocation:v})>x)break;A=j}var H={isMatch:w>=0,score:Math.max(.001,M)};if(C){var V=function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[],t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:Ri.minMatchCharLength,i=[],n=-1,r=-1,o=0,a=e.length;o<a;o+=1){var s=e[o];s&&-1===n?n=o:s||-1===n||((r=o-1)-n+1>=t&&i.push([n,r]),n=-1)}return e[o-1]&&o-n>=t&&i.push([n,o-1]),i}(E,p);V.length?g&&(H.indices=V):H.isMatch=!1}return H}function Gi(e){for(var t={},i=0,n=e.length;i<n;i+=1){var r=e.charAt(i);t[r]=(t[r]||0)|1<<n-i-1}return t}var Wi=String.prototype.normalize?function(e){return e.normalize("NFD").replace(/[\u0300-\u036F\u0483-\u0489\u0591-\u05BD\u05BF\u05C1\u05C2\u05C4\u05C5\u05C7\u0610-\u061A\u064B-\u065F\u0670\u06D6-\u06DC\u06DF-\u06E4\u06E7\u06E8\u06EA-\u06ED\u0711\u0730-\u074A\u07A6-\u07B0\u07EB-\u07F3\u07FD\u0816-\u0819\u081B-\u0823\u0825-\u0827\u0829-\u082D\u0859-\u085B\u08D3-\u08E1\u08E3-\u0903\u093A-\u093C\u093E-\u094F\u0951-\u0957\u0962\u0963\u0981-\u0983\u09BC\u09BE-\u09C4\u09C7\u09C8\u09CB-\u09CD\u09D7\u09E2\u09E3\u09FE\u0A01-\u0A03\u0A3C\u0A3E-\u0A42\u0A47\u0A48\u0A4B-\u0A4D\u0A51\u0A70\u0A71\u0A75\u0A81-\u0A83\u0ABC\u0ABE-\u0AC5\u0AC7-\u0AC9\u0ACB-\u0ACD\u0AE2\u0AE3\u0AFA-\u0AFF\u0B01-\u0B03\u0B3C\u0B3E-\u0B44\u0B47\u0B48\u0B4B-\u0B4D\u0B56\u0B57\u0B62\u0B63\u0B82\u0BBE-\u0BC2\u0BC6-\u0BC8\u0BCA-\u0BCD\u0BD7\u0C00-\u0C04\u0C3E-\u0C44\u0C46-\u0C48\u0C4A-\u0C4D\u0C55\u0C56\u0C62\u0C63\u0C81-\u0C83\u0CBC\u0CBE-\u0CC4\u0CC6-\u0CC8\u0CCA-\u0CCD\u0CD5\u0CD6\u0CE2\u0CE3\u0D00-\u0D03\u0D3B\u0D3C\u0D3E-\u0D44\u0D46-\u0D48\u0D4A-\u0D4D\u0D57\u0D62\u0D63\u0D82\u0D83\u0DCA\u0DCF-\u0DD4\u0DD6\u0DD8-\u0DDF\u0DF2\u0DF3\u0E31\u0E34-\u0E3A\u0E47-\u0E4E\u0EB1\u0EB4-\u0EB9\u0EBB\u0EBC\u0EC8-\u0ECD\u0F18\u0F19\u0F35\u0F37\u0F39\u0F3E\u0F3F\u0F71-\u0F84\u0F86\u0F87\u0F8D-\u0F97\u0F99-\u0FBC\u0FC6\u102B-\u103E\u1056-\u1059\u105E-\u1060\u1062-\u1064\u1067-\u106D\u1071-\u1074\u1082-\u108D\u108F\u109A-\u109D\u135D-\u135F\u1712-\u1714\u1732-\u1734\u1752\u1753\u1772\u1773\u17B4-\u17D3\u17DD\u180B-\u180D\u1885\u1886\u18A9\u1920-\u192B\u1930-\u193B\u1A17-\u1A1B\u1A55-\u1A5E\u1A60-\u1A7C\u1A7F\u1AB0-\u1ABE\u1B00-\u1B04\u1B34-\u1B44\u1B6B-\u1B73\u1B80-\u1B82\u1BA1-\u1BAD\u1BE6-\u1BF3\u1C24-\u1C37\u1CD0-\u1CD2\u1CD4-\u1CE8\u1CED\u1CF2-\u1CF4\u1CF7-\u1CF9\u1DC0-\u1DF9\u1DFB-\u1DFF\u20D0-\u20F0\u2CEF-\u2CF1\u2D7F\u2DE0-\u2DFF\u302A-\u302F\u3099\u309A\uA66F-\uA672\uA674-\uA67D\uA69E\uA69F\uA6F0\uA6F1\uA802\uA806\uA80B\uA823-\uA827\uA880\uA881\uA8B4-\uA8C5\uA8E0-\uA8F1\uA8FF\uA926-\uA92D\uA947-\uA953\uA980-\uA983\uA9B3-\uA9C0\uA9E5\uAA29-\uAA36\uAA43\uAA4C\uAA4D\uAA7B-\uAA7D\uAAB0\uAAB2-\uAAB4\uAAB7\uAAB8\uAABE\uAABF\uAAC1\uAAEB-\uAAEF\uAAF5\uAAF6\uABE3-\uABEA\uABEC\uABED\uFB1E\uFE00-\uFE0F\uFE20-\uFE2F]/g,"")}:function(e){return e},Ui=function(){return a(function e(t){var i=this,n=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},o=n.location,a=void 0===o?Ri.location:o,s=n.threshold,c=void 0===s?Ri.threshold:s,l=n.distance,u=void 0===l?Ri.distance:l,d=n.includeMatches,h=void 0===d?Ri.includeMatches:d,p=n.findAllMatches,f=void 0===p?Ri.findAllMatches:p,g=n.minMatchCharLength,m=void 0===g?Ri.minMatchCharLength:g,v=n.isCaseSensitive,y=void 0===v?Ri.isCaseSensitive:v,b=n.ignoreDiacritics,k=void 0===b?Ri.ignoreDiacritics:b,_=n.ignoreLocation,x=void 0===_?Ri.ignoreLocation:_;if(r(this,e),this.options={location:a,threshold:c,distance:u,includeMatches:h,findAllMatches:f,minMatchCharLength:m,isCaseSensitive:y,ignoreDiacritics:k,ignoreLocation:x},t=y?t:t.toLowerCase(),t=k?Wi(t):t,this.pattern=t,this.chunks=[],this.pattern.length){var w=function(e,t){i.chunks.push({pattern:e,alphabet:Gi(e),startIndex:t})},C=this.pattern.length;if(C>Ki){for(var E=0,S=C%Ki,P=C-S;E<P;)w(this.pattern.substr(E,Ki),E),E+=Ki;if(S){var A=C-Ki;w(this.pattern.substr(A),A)}}else w(this.pattern,0)}},[{key:"searchIn",value:function(e){var t=this.options,i=t.isCaseSensitive,n=t.ignoreDiacritics,r=t.includeMatches;if(e=i?e:e.toLowerCase(),e=n?Wi(e):e,this.pattern===e){var o={isMatch:!0,score:0};return r&&(o.indices=[[0,e.length-1]]),o}var a=this.options,s=a.location,c=a.distance,l=a.threshold,u=a.findAllMatches,d=a.minMatchCharLength,h=a.ignoreLocation,p=[],f=0,g=!1;this.chunks.forEach(function(t){var i=t.pattern,n=t.alphabet,o=t.startIndex,a=$i(e,i,n,{location:s+o,distance:c,threshold:l,findAllMatches:u,minMatchCharLength:d,includeMatches:r,ignoreLocation:h}),m=a.isMatch,v=a.score,b=a.indices;m&&(g=!0),f+=v,m&&b&&(p=[].concat(y(p),y(b)))});var m={isMatch:g,score:g?f/this.chunks.length:1};return g&&r&&(m.indices=p),m}}])}(),Ji=function(){return a(function e(t){r(this,e),this.pattern=t},[{key:"search",value:function(){}}],[{key:"isMultiMatch",value:function(e){return Yi(e,this.multiRegex)}},{key:"isSingleMatch",value:function(e){return Yi(e,this.singleRegex)}}])}();function Yi(e,t){var i=e.match(t);return i?i[1]:null}var Zi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e===this.pattern;return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"exact"}},{key:"multiRegex",get:function(){return/^="(.*)"$/}},{key:"singleRegex",get:function(){return/^=(.*)$/}}])}(),Qi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=-1===e.indexOf(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"$/}},{key:"singleRegex",get:function(){return/^!(.*)$/}}])}(),Xi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"prefix-exact"}},{key:"multiRegex",get:function(){return/^\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^\^(.*)$/}}])}(),en=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=!e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-prefix-exact"}},{key:"multiRegex",get:function(){return/^!\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^!\^(.*)$/}}])}(),tn=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[e.length-this.pattern.length,e.length-1]}}}],[{key:"type",get:function(){return"suffix-exact"}},{key:"multiRegex",get:function(){return/^"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^(.*)\$$/}}])}(),nn=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=!e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-suffix-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^!(.*)\$$/}}])}(),rn=function(){function e(t){var i,o=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},a=o.location,s=void 0===a?Ri.location:a,c=o.threshold,l=void 0===c?Ri.threshold:c,u=o.distance,d=void 0===u?Ri.distance:u,h=o.includeMatches,p=void 0===h?Ri.includeMatches:h,f=o.findAllMatches,g=void 0===f?Ri.findAllMatches:f,m=o.minMatchCharLength,v=void 0===m?Ri.minMatchCharLength:m,y=o.isCaseSensitive,b=void 0===y?Ri.isCaseSensitive:y,k=o.ignoreDiacritics,_=void 0===k?Ri.ignoreDiacritics:k,x=o.ignoreLocation,w=void 0===x?Ri.ignoreLocation:x;return r(this,e),(i=n(this,e,[t]))._bitapSearch=new Ui(t,{location:s,threshold:l,distance:d,includeMatches:p,findAllMatches:g,minMatchCharLength:v,isCaseSensitive:b,ignoreDiacritics:_,ignoreLocation:w}),i}return u(e,Ji),a(e,[{key:"search",value:function(e){return this._bitapSearch.searchIn(e)}}],[{key:"type",get:function(){return"fuzzy"}},{key:"multiRegex",get:function(){return/^"(.*)"$/}},{key:"singleRegex",get:function(){return/^(.*)$/}}])}(),on=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){for(var t,i=0,n=[],r=this.pattern.length;(t=e.indexOf(this.pattern,i))>-1;)i=t+r,n.push([t,i-1]);var o=!!n.length;return{isMatch:o,score:o?0:1,indices:n}}}],[{key:"type",get:function(){return"include"}},{key:"multiRegex",get:function(){return/^'"(.*)"$/}},{key:"singleRegex",get:function(){return/^'(.*)$/}}])}(),an=[Zi,on,Xi,en,nn,tn,Qi,rn],sn=an.length,cn=/ +(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)/;var ln=new Set([rn.type,on.type]),un=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=i.isCaseSensitive,o=void 0===n?Ri.isCaseSensitive:n,a=i.ignoreDiacritics,s=void 0===a?Ri.ignoreDiacritics:a,c=i.includeMatches,l=void 0===c?Ri.includeMatches:c,u=i.minMatchCharLength,d=void 0===u?Ri.minMatchCharLength:u,h=i.ignoreLocation,p=void 0===h?Ri.ignoreLocation:h,f=i.findAllMatches,g=void 0===f?Ri.findAllMatches:f,m=i.location,v=void 0===m?Ri.location:m,y=i.threshold,b=void 0===y?Ri.threshold:y,k=i.distance,_=void 0===k?Ri.distance:k;r(this,e),this.query=null,this.options={isCaseSensitive:o,ignoreDiacritics:s,includeMatches:l,minMatchCharLength:d,findAllMatches:g,ignoreLocation:p,location:v,threshold:b,distance:_},t=o?t:t.toLowerCase(),t=s?Wi(t):t,this.pattern=t,this.query=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};return e.split("|").map(function(e){for(var i=e.trim().split(cn).filter(function(e){return e&&!!e.trim()}),n=[],r=0,o=i.length;r<o;r+=1){for(var a=i[r],s=!1,c=-1;!s&&++c<sn;){var l=an[c],u=l.isMultiMatch(a);u&&(n.push(new l(u,t)),s=!0)}if(!s)for(c=-1;++c<sn;){var d=an[c],h=d.isSingleMatch(a);if(h){n.push(new d(h,t));break}}}return n})}(this.pattern,this.options)},[{key:"searchIn",value:function(e){var t=this.query;if(!t)return{isMatch:!1,score:1};var i=this.options,n=i.includeMatches,r=i.isCaseSensitive,o=i.ignoreDiacritics;e=r?e:e.toLowerCase(),e=o?Wi(e):e;for(var a=0,s=[],c=0,l=0,u=t.length;l<u;l+=1){var d=t[l];s.length=0,a=0;for(var h=0,p=d.length;h<p;h+=1){var f=d[h],g=f.search(e),m=g.isMatch,v=g.indices,b=g.score;if(!m){c=0,a=0,s.length=0;break}if(a+=1,c+=b,n){var k=f.constructor.type;ln.has(k)?s=[].concat(y(s),y(v)):s.push(v)}}if(a){var _={isMatch:!0,score:c/a};return n&&(_.indices=s),_}}return{isMatch:!1,score:1}}}],[{key:"condition",value:function(e,t){return t.useExtendedSearch}}])}(),dn=[];function hn(e,t){for(var i=0,n=dn.length;i<n;i+=1){var r=dn[i];if(r.condition(e,t))return new r(e,t)}return new Ui(e,t)}var pn="$and",fn="$or",gn="$path",mn="$val",vn=function(e){return!(!e[pn]&&!e[fn])},yn=function(e){return c({},pn,Object.keys(e).map(function(t){return c({},t,e[t])}))};function bn(e,t){var i=(arguments.length>2&&void 0!==arguments[2]?arguments[2]:{}).auto,n=void 0===i||i,r=function(e){var i=Object.keys(e),o=function(e){return!!e[gn]}(e);if(!o&&i.length>1&&!vn(e))return r(yn(e));if(function(e){return!Ei(e)&&Mi(e)&&!vn(e)}(e)){var a=o?e[gn]:i[0],s=o?e[mn]:e[a];if(!Si(s))throw new Error(function(e){return"Invalid value for key ".concat(e)}(a));var c={keyId:ji(a),pattern:s};return n&&(c.searcher=hn(s,t)),c}var l={children:[],operator:i[0]};return i.forEach(function(t){var i=e[t];Ei(i)&&i.forEach(function(e){l.children.push(r(e))})}),l};return vn(e)||(e=yn(e)),r(e)}function kn(e,t){var i=e.matches;t.matches=[],Li(i)&&i.forEach(function(e){if(Li(e.indices)&&e.indices.length){var i={indices:e.indices,value:e.value};e.key&&(i.key=e.key.src),e.idx>-1&&(i.refIndex=e.idx),t.matches.push(i)}})}function _n(e,t){t.score=e.score}var xn=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=arguments.length>2?arguments[2]:void 0;r(this,e),this.options=p(p({},Ri),i),this.options.useExtendedSearch,this._keyStore=new Di(this.options.keys),this.setCollection(t,n)},[{key:"setCollection",value:function(e,t){if(this._docs=e,t&&!(t instanceof Hi))throw new Error("Incorrect 'index' type");this._myIndex=t||Vi(this.options.keys,this._docs,{getFn:this.options.getFn,fieldNormWeight:this.options.fieldNormWeight})}},{key:"add",value:function(e){Li(e)&&(this._docs.push(e),this._myIndex.add(e))}},{key:"remove",value:function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:function(){return!1},t=[],i=0,n=this._docs.length;i<n;i+=1){var r=this._docs[i];e(r,i)&&(this.removeAt(i),i-=1,n-=1,t.push(r))}return t}},{key:"removeAt",value:function(e){this._docs.splice(e,1),this._myIndex.removeAt(e)}},{key:"getIndex",value:function(){return this._myIndex}},{key:"search",value:function(e){var t=(arguments.length>1&&void 0!==arguments[1]?arguments[1]:{}).limit,i=void 0===t?-1:t,n=this.options,r=n.includeMatches,o=n.includeScore,a=n.shouldSort,s=n.sortFn,c=n.ignoreFieldNorm,l=Si(e)?Si(this._docs[0])?this._searchStringList(e):this._searchObjectList(e):this._searchLogical(e);return function(e,t){var i=t.ignoreFieldNorm,n=void 0===i?Ri.ignoreFieldNorm:i;e.forEach(function(e){var t=1;e.matches.forEach(function(e){var i=e.key,r=e.norm,o=e.score,a=i?i.weight:null;t*=Math.pow(0===o&&a?Number.EPSILON:o,(a||1)*(n?1:r))}),e.score=t})}(l,{ignoreFieldNorm:c}),a&&l.sort(s),Pi(i)&&i>-1&&(l=l.slice(0,i)),function(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.includeMatches,r=void 0===n?Ri.includeMatches:n,o=i.includeScore,a=void 0===o?Ri.includeScore:o,s=[];return r&&s.push(kn),a&&s.push(_n),e.map(function(e){var i=e.idx,n={item:t[i],refIndex:i};return s.length&&s.forEach(function(t){t(e,n)}),n})}(l,this._docs,{includeMatches:r,includeScore:o})}},{key:"_searchStringList",value:function(e){var t=hn(e,this.options),i=this._myIndex.records,n=[];return i.forEach(function(e){var i=e.v,r=e.i,o=e.n;if(Li(i)){var a=t.searchIn(i),s=a.isMatch,c=a.score,l=a.indices;s&&n.push({item:i,idx:r,matches:[{score:c,value:i,norm:o,indices:l}]})}}),n}},{key:"_searchLogical",value:function(e){var t=this,i=bn(e,this.options),n=function(e,i,r){if(!e.children){var o=e.keyId,a=e.searcher,s=t._findMatches({key:t._keyStore.get(o),value:t._myIndex.getValueForItemAtKeyId(i,o),searcher:a});return s&&s.length?[{idx:r,item:i,matches:s}]:[]}for(var c=[],l=0,u=e.children.length;l<u;l+=1){var d=e.children[l],h=n(d,i,r);if(h.length)c.push.apply(c,y(h));else if(e.operator===pn)return[]}return c},r=this._myIndex.records,o={},a=[];return r.forEach(function(e){var t=e.$,r=e.i;if(Li(t)){var s=n(i,t,r);s.length&&(o[r]||(o[r]={idx:r,item:t,matches:[]},a.push(o[r])),s.forEach(function(e){var t,i=e.matches;(t=o[r].matches).push.apply(t,y(i))}))}}),a}},{key:"_searchObjectList",value:function(e){var t=this,i=hn(e,this.options),n=this._myIndex,r=n.keys,o=n.records,a=[];return o.forEach(function(e){var n=e.$,o=e.i;if(Li(n)){var s=[];r.forEach(function(e,r){s.push.apply(s,y(t._findMatches({key:e,value:n[r],searcher:i})))}),s.length&&a.push({idx:o,item:n,matches:s})}}),a}},{key:"_findMatches",value:function(e){var t=e.key,i=e.value,n=e.searcher;if(!Li(i))return[];var r=[];if(Ei(i))i.forEach(function(e){var i=e.v,o=e.i,a=e.n;if(Li(i)){var s=n.searchIn(i),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:i,idx:o,norm:a,indices:u})}});else{var o=i.v,a=i.n,s=n.searchIn(o),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:o,norm:a,indices:u})}return r}}])}();xn.version="7.1.0",xn.createIndex=Vi,xn.parseIndex=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.getFn,n=void 0===i?Ri.getFn:i,r=t.fieldNormWeight,o=void 0===r?Ri.fieldNormWeight:r,a=e.keys,s=e.records,c=new Hi({getFn:n,fieldNormWeight:o});return c.setKeys(a),c.setIndexRecords(s),c},xn.config=Ri,xn.parseQuery=bn,function(){dn.push.apply(dn,arguments)}(un);var wn=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.globalHistory=[],this.fuse=null},[{key:"loadGlobalHistory",value:(n=i(f().m(function e(t){var i,n,r,o,a;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loadingHistory),e.p=1,e.n=2,Promise.all([this.fetchIdentityHistory(t),this.fetchIdentityTasks(t)]);case 2:i=e.v,n=v(i,2),r=n[0],o=n[1],this.globalHistory=this.mergeHistoryData(r,o),this.initFuseSearch(),this.displayGlobalHistory(this.globalHistory),e.n=4;break;case 3:e.p=3,a=e.v,console.error(this.identityPicker.rules.language.fetchError,a),this.identityPicker.showMessage("errorLoadingHistory","error");case 4:return e.p=4,this.identityPicker.hideLoading(),e.f(4);case 5:return e.a(2)}},e,this,[[1,3,4,5]])})),function(e){return n.apply(this,arguments)})},{key:"fetchIdentityHistory",value:(t=i(f().m(function e(t){var i,n;return f().w(function(e){for(;;)switch(e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/").concat(this.identityPicker.config.endpoints.history),e.n=1,fetch(i);case 1:if((n=e.v).ok){e.n=2;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 2:return e.a(2,n.json())}},e,this)})),function(e){return t.apply(this,arguments)})},{key:"fetchIdentityTasks",value:(e=i(f().m(function e(t){var i,n;return f().w(function(e){for(;;)switch(e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/").concat(this.identityPicker.config.endpoints.tasks),e.n=1,fetch(i);case 1:if((n=e.v).ok){e.n=2;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 2:return e.a(2,n.json())}},e,this)})),function(t){return e.apply(this,arguments)})},{key:"mergeHistoryData",value:function(e,t){var i=this,n=[],r=this.identityPicker.rules.language;return e&&e.identity_changes&&e.identity_changes.forEach(function(e){var t,o="history.".concat(e.changeType.toLowerCase(),".").concat(e.changeStatus.toLowerCase()),a=r[o]||"",s=(null===(t=e.author)||void 0===t?void 0:t.author_name)||r.unknown,c=e.changeMessage||"",l=i.formatDate(parseInt(e.modificationDate));n.push({date:new Date(parseInt(e.modificationDate)),type:"identity",data:e,changeTypeText:a,authorName:s,changeMessage:c,searchableText:"".concat(l," ").concat(a," ").concat(s," ").concat(c)})}),e&&e.attribute_histories&&e.attribute_histories.forEach(function(e){var t,o,a,s=(t=e.attribute_key,o=i.identityPicker.rules.referential,{label:(a=o.attributeKeyList.attributeKeys.find(function(e){return e.keyName===t}))?a.name:t,description:a?a.description:""}),c=(null==s?void 0:s.label)||"";e.attribute_changes.forEach(function(t){var o=t.attribute_value||"",a=r.attributeChangeType||"",s=t.certification_processus||"",l=i.formatDate(parseInt(t.modification_date));n.push({date:new Date(parseInt(t.modification_date)),type:"attribute",data:p(p({},t),{},{attribute_key:e.attribute_key,certification_processus:s}),attributeLabel:c,attributeValue:o,attributeChangeType:a,certificationProcess:s,searchableText:"".concat(l," ").concat(c," ").concat(o," ").concat(a," ").concat(s)})})}),t&&Array.isArray(t)&&t.length>0&&t.forEach(function(e){e.task_history.forEach(function(t){var o,a=i.getTaskTypeText(e.task_type,r),s=i.getTaskChangeTypeText(e.task_type,t.task_change_type,t.task_status,r),c=i.getTaskStatusText(e.task_type,t.task_status,r),l=(null===(o=t.request_author)||void 0===o?void 0:o.author_name)||r.unknown,u=Object.values(e.metadata||{}).join(" "),d=i.formatDate(parseInt(t.task_change_date));n.push({date:new Date(parseInt(t.task_change_date)),type:"task",data:{task:e,change:t},taskTypeText:a,changeTypeText:s,statusText:c,authorName:l,metadataText:u,taskCode:e.task_code,searchableText:"".concat(d," ").concat(a," ").concat(s," ").concat(c," ").concat(l," ").concat(u)})})}),n.sort(function(e,t){return t.date-e.date}),n}},{key:"getTaskTypeText",value:function(e,t){return t["tasks.".concat(e.toLowerCase(),".label")]||e}},{key:"getTaskChangeTypeText",value:function(e,t,i,n){return n["tasks.".concat(e.toLowerCase(),".").concat(t.toLowerCase(),".").concat(i.toLowerCase())]||"".concat(e," ").concat(t," ").concat(i)}},{key:"getTaskStatusText",value:function(e,t,i){return i["tasks.".concat(e.toLowerCase(),".status.").concat(t.toLowerCase())]||t}},{key:"initFuseSearch",value:function(){this.fuse=new xn(this.globalHistory,{includeScore:!0,threshold:.3,useExtendedSearch:!0,keys:["type","changeTypeText","authorName","changeMessage","attributeLabel","attributeValue","certificationProcess","taskTypeText","statusText","metadataText","taskCode","searchableText"]})}},{key:"searchHistory",value:function(e){if(!e)return this.globalHistory;var t={$and:e.split(" ").filter(Boolean).map(function(e){return{$or:[{type:e},{changeTypeText:e},{authorName:e},{changeMessage:e},{attributeLabel:e},{attributeValue:e},{certificationProcess:e},{taskTypeText:e},{taskCode:e},{statusText:e},{metadataText:e},{searchableText:e}]}})};return this.fuse.search(t).map(function(e){return e.item}).sort(function(e,t){return t.date-e.date})}},{key:"displayGlobalHistory",value:function(e){var t=this.generateGlobalHistoryHTML(e),i=this.generateSearchBarHTML();this.identityPicker.openSideContainer(this.identityPicker.rules.language.historyTitle,i+'<div class="ip-timeline">'.concat(t,"</div>")),this.attachListener()}},{key:"generateSearchBarHTML",value:function(){return'\n            <div class="ip-search-bar">\n                <input type="text" class="ip-search-input" placeholder="'.concat(this.identityPicker.rules.language.searchHistory,'">\n            </div>\n        ')}},{key:"attachListener",value:function(){var e=this,t=this.identityPicker.sideContainer.querySelector(".ip-search-input");t.addEventListener("input",function(t){var i=t.target.value,n=e.searchHistory(i),r=e.generateGlobalHistoryHTML(n);e.identityPicker.shadowRoot.querySelector(".ip-timeline").innerHTML=r}),t.focus(),this.identityPicker.sideContainer.querySelectorAll(".ip-copy-button").forEach(function(t){t.addEventListener("click",function(t){var i=t.target.dataset.taskCode;e.copyToClipboard(i,t.target)})})}},{key:"generateGlobalHistoryHTML",value:function(e){var t=this,i="",n=null,r=[];return e.forEach(function(e){if("task"===e.type)i+=t.renderSingleEvent(e);else{var o=t.formatDateForGrouping(e.date);o!==n&&(n&&(i+=t.renderDateEvents(n,r)),n=o,r=[]),r.push(e)}}),n&&(i+=this.renderDateEvents(n,r)),i}},{key:"renderSingleEvent",value:function(e){return'\n            <div class="ip-timeline-item">\n                <div class="ip-timeline-point"></div>\n                <div class="ip-timeline-content">\n                    <div class="ip-date-and-types">\n                        <span class="date">'.concat(this.formatDate(e.date),'</span>\n                        <span class="ip-event-types">\n                            <span class="ip-mini-tag ip-tag-').concat(e.type,'">').concat(this.getEventTypeLabel(e.type),"</span>\n                        </span>\n                    </div>\n                    ").concat(this.generateTaskChangeHTML(e),"\n                </div>\n            </div>\n        ")}},{key:"renderDateEvents",value:function(e,t){var i=this,n=this.getEventTypes(t),r=this.groupEventsByType(t),o=n.includes("attribute")?["attribute"]:n;return'\n            <div class="ip-timeline-item">\n                <div class="ip-timeline-point"></div>\n                <div class="ip-timeline-content">\n                    <div class="ip-date-and-types">\n                        <span class="date">'.concat(e,'</span>\n                        <span class="ip-event-types">\n                            ').concat(o.map(function(e){return'<span class="ip-mini-tag ip-tag-'.concat(e,'">').concat(i.getEventTypeLabel(e),"</span>")}).join(""),"\n                        </span>\n                    </div>\n                    ").concat(this.renderGroupedEvents(r),"\n                </div>\n            </div>\n        ")}},{key:"groupEventsByType",value:function(e){var t={identity:[],attribute:[],task:[]};return e.forEach(function(e){t[e.type].push(e)}),t}},{key:"renderGroupedEvents",value:function(e){var t=this,i="";return e.identity.length>0&&(i+=this.generateIdentityChangeHeader(e.identity[0])),e.attribute.length>0&&(i+=this.generateAttributeChangesTable(e.attribute)),e.task.forEach(function(e){i+=t.generateTaskChangeHTML(e)}),i}},{key:"getEventTypes",value:function(e){return y(new Set(e.map(function(e){return e.type})))}},{key:"getEventTypeLabel",value:function(e){return{identity:this.identityPicker.rules.language.identityChangeType,attribute:this.identityPicker.rules.language.attributeChangeType,task:this.identityPicker.rules.language.taskChangeType}[e]||e}},{key:"generateIdentityChangeHeader",value:function(e){return e?'\n            <div class="ip-identity-change-header">\n                <h3 class="change-type">'.concat(e.changeTypeText,'</h3>\n                <span title="').concat(this.identityPicker.rules.language.author,'">').concat(e.authorName,"</span>\n            </div>\n        "):""}},{key:"generateAttributeChangesTable",value:function(e){var t=this;if(0===e.length)return"";var i='<div class="ip-attribute-changes-list">';return e.forEach(function(e){var n=q(e.data.attribute_key,e.data.certification_processus,t.identityPicker.rules.referential,t.identityPicker.rules.language),r=n.label||e.data.certification_processus||"-",o=n.description||"",a=e.attributeValue||"-";"gender"===e.data.attribute_key&&(a="1"===e.attributeValue?"M":"2"===e.attributeValue?"F":"ND"),i+='\n                <div class="ip-attribute-change-item">\n                    <div class="ip-attribute-name">'.concat(e.attributeLabel,'</div>\n                    <div class="ip-attribute-value">').concat(a,'</div>\n                    <div class="ip-attribute-certification" title="').concat(o,'">\n                        <span class="ip-certification-label">').concat(t.identityPicker.rules.language.attributeCertification||"Certification",':</span>\n                        <span class="ip-certification-value">').concat(r,"</span>\n                    </div>\n                </div>\n            ")}),i+="</div>"}},{key:"copyToClipboard",value:function(e,t){var i=this;navigator.clipboard.writeText(e).then(function(){var e=t.textContent;t.textContent=i.identityPicker.rules.language.copied||"Copied!",setTimeout(function(){t.textContent=e},2e3)}).catch(function(e){console.error("Failed to copy: ",e)})}},{key:"generateTaskChangeHTML",value:function(e){return'\n            <div class="ip-task-change">\n                <h3 class="change-type">'.concat(e.changeTypeText,'</h3>\n                <span title="').concat(this.identityPicker.rules.language.author,'">').concat(e.authorName,'</span><br>\n                <button class="ip-copy-button" data-task-code="').concat(e.taskCode,'">\n                    ').concat(e.taskCode?"".concat(e.taskCode.substring(0,15),"..."):"Copy","\n                </button>\n                <small>").concat(this.generateTaskMetadata(e.data.task.metadata),"</small>\n            </div>\n        ")}},{key:"generateTaskMetadata",value:function(e){if(!e||0===Object.keys(e).length)return"";for(var t='<div class="ip-task-metadata">',i=0,n=Object.entries(e);i<n.length;i++){var r=v(n[i],2),o=r[0],a=r[1];t+="<div><strong>".concat(o,":</strong> ").concat(a,"</div>")}return t+="</div>"}},{key:"formatDate",value:function(e){return new Date(e).toLocaleString(this.identityPicker.config.locale,{year:"numeric",month:"long",day:"numeric",hour:"2-digit",minute:"2-digit",second:"2-digit"})}},{key:"formatDateForGrouping",value:function(e){return e.toLocaleString(this.identityPicker.config.locale,{year:"numeric",month:"long",day:"numeric",hour:"2-digit",minute:"2-digit",second:"2-digit"})}}]);var e,t,n}(),Cn=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.identities=[]},[{key:"initCompareView",value:function(e){this.identities=e.sort(function(e,t){var i=t.quality.scoring-e.quality.scoring;return 0!==i?i:new Date(t.last_update_date)-new Date(e.last_update_date)}),this.renderCompareTable()}},{key:"renderCompareTable",value:function(){var e=this,t=window.innerWidth,i=200+300*this.identities.length;this.identityPicker.modalContent.style.maxWidth="".concat(i>t?t-50:i,"px");var n,r=this.identities.map(function(e){return'\n            <th>\n                <a href="#" class="ip-select-link" data-customer-id="'.concat(e.customer_id,'">\n                    ').concat(e.customer_id,"\n                </a>\n            </th>\n        ")}).join(""),o=this.identities[0],a=this.createCertificationsRow(o),s=this.createMonParisRow(),c=this.createIdentityInfoRows(),l=this.createContactInfoRows(),u=this.createAdditionalInfoRows();n='<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations d\'identité</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+a+s+c+'<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations de contact</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+l+'<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations complémentaires</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+u;var d='\n            <div class="ip-scrollable-content ip-compare-table-container">\n                <table class="ip-compare-table">\n                    <thead>\n                        <tr>\n                            <th></th>\n                            '.concat(r,"\n                        </tr>\n                    </thead>\n                    <tbody>\n                        ").concat(n,"\n                    </tbody>\n                </table>\n            </div>\n        ");this.identityPicker.compareContainer.innerHTML=d,this.identityPicker.compareContainer.scrollTop=0,this.identityPicker.adjustModalHeight(),this.identityPicker.compareContainer.querySelectorAll(".ip-select-link").forEach(function(t){t.addEventListener("click",function(i){i.preventDefault();var n=t.dataset.customerId;e.identityPicker.showDetailsView(n,"compare")})})}},{key:"createCertificationsRow",value:function(e){var t=this,i=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName}),n=this.identities.map(function(e){var n,r=!0,o=600,a=s(i);try{var c=function(){var i,a=n.value,s=e.attributes.find(function(e){return e.key===a});if(!s)return r=!1,0;var c=s.certProcess,l=null===(i=t.identityPicker.rules.contract.attributeDefinitions.find(function(e){return e.keyName===a}))||void 0===i?void 0:i.attributeCertifications.find(function(e){return e.code===c});if(!l||parseInt(l.level)<400)return r=!1,0;o=Math.min(o,parseInt(l.level))};for(a.s();!(n=a.n()).done&&0!==c(););}catch(e){a.e(e)}finally{a.f()}return r?o>=600?"FranceConnect":o>=500?"PJ officielle guichet":o>=400?"PJ officielle scannée":"":""});if(n.every(function(e){return""===e}))return"";var r=n[0],o=n.map(function(e,t){return t>0&&e!==r?'<td><span class="ip-approximate">'.concat(e,"</span></td>"):"<td>".concat(e,"</td>")}).join("");return"<tr>\n            <td>".concat(this.identityPicker.rules.language.certificationLevel||"Niveau de certification","</td>\n            ").concat(o,"\n        </tr>")}},{key:"createMonParisRow",value:function(){var e=this,t=this.identities.map(function(t){var i=t.mon_paris_active,n=i?e.identityPicker.rules.language.active:t.expiration&&t.expiration.delete_date?"".concat(e.identityPicker.rules.language.inactive," (Supprimé)"):e.identityPicker.rules.language.inactive;return'<td class="'.concat(i?"ip-active":"ip-inactive",'">').concat(n,"</td>")}).join("");return"<tr>\n            <td>".concat(this.identityPicker.rules.language.monParisAccount,"</td>\n            ").concat(t,"\n        </tr>")}},{key:"createIdentityInfoRows",value:function(){var e=[{key:"gender",label:this.identityPicker.rules.language.gender||"Sexe",formatter:this.formatGender.bind(this)},{key:"family_name",label:this.identityPicker.rules.language.familyName||"Nom de naissance",formatter:function(e){return e.toUpperCase()}},{key:"preferred_username",label:this.identityPicker.rules.language.preferredUsername||"Nom d'usage",formatter:function(e){return"<i>".concat(e.toUpperCase(),"</i>")}},{key:"first_name",label:this.identityPicker.rules.language.firstName||"Prénoms",formatter:z},{key:"birthdate",label:this.identityPicker.rules.language.birthdate||"Date de naissance"},{key:"birthcountry",label:this.identityPicker.rules.language.birthcountry||"Pays de naissance"},{key:"birthcountry_code",label:this.identityPicker.rules.language.birthcountryCode||"Code INSEE pays"},{key:"birthplace",label:this.identityPicker.rules.language.birthplace||"Commune de naissance"},{key:"birthplace_code",label:this.identityPicker.rules.language.birthplaceCode||"Code INSEE commune"}];return this.createAttributeRows(e)}},{key:"createContactInfoRows",value:function(){var e=[{key:"email",label:this.identityPicker.rules.language.email||"Email de contact"},{key:"login",label:this.identityPicker.rules.language.login||"Login"},{key:"mobile_phone",label:this.identityPicker.rules.language.mobilePhone||"Téléphone portable"},{key:"fixed_phone",label:this.identityPicker.rules.language.fixedPhone||"Téléphone fixe"},{key:"address",label:this.identityPicker.rules.language.address||"Adresse"},{key:"address_detail",label:this.identityPicker.rules.language.addressDetail||"Complément d'adresse"},{key:"address_postal_code",label:this.identityPicker.rules.language.postalCode||"Code postal"},{key:"address_city",label:this.identityPicker.rules.language.city||"Ville"}];return this.createAttributeRows(e)}},{key:"createAdditionalInfoRows",value:function(){var e=this,t="";return t+=this.createRow(this.identityPicker.rules.language.creationDate||"Date de Création",this.identities.map(function(e){return V(e.creation_date)})),t+=this.createRow(this.identityPicker.rules.language.lastUpdateDate||"Date de Modification",this.identities.map(function(e){return V(e.last_update_date)})),t+=this.createRow(this.identityPicker.rules.language.qualityScore||"Score",this.identities.map(function(e){var t=(100*e.quality.scoring).toFixed(2),i=R(t);return{value:"".concat(t,"%"),className:i}})),t+=this.createRow(this.identityPicker.rules.language.qualityLabel||"Qualité",this.identities.map(function(e){var t=(100*e.quality.quality).toFixed(2),i=R(t);return{value:"".concat(t,"%"),className:i}})),t+=this.createRow(this.identityPicker.rules.language.coverageLabel||"Couverture",this.identities.map(function(t){var i=(100*t.quality.coverage).toFixed(2),n=R(i);return{value:i>=100?e.identityPicker.rules.language.completeInformation||"Informations Complètes":e.identityPicker.rules.language.incompleteInformation||"Informations à compléter",className:n}}))}},{key:"createAttributeRows",value:function(e){var t=this,i="",n=this.identities[0];return e.forEach(function(e){var r=t.getAttrValue(n,e.key),o=e.formatter?e.formatter(r||""):r,a=t.identities.map(function(i,n){var r=t.getAttrValue(i,e.key),a=e.formatter?e.formatter(r||""):r;return n>0&&a!==o?'<td><span class="ip-approximate">'.concat(a||"","</span></td>"):"<td>".concat(a||"","</td>")}).join("");i+="<tr>\n                <td>".concat(e.label,"</td>\n                ").concat(a,"\n            </tr>")}),i}},{key:"createRow",value:function(e,t){var i=Array.isArray(t)?t.map(function(e,t){return"object"===k(e)?'<td class="'.concat(e.className||"",'">').concat(e.value||"","</td>"):"<td>".concat(e||"","</td>")}).join(""):Array(this.identities.length).fill("<td>".concat(t||"","</td>")).join("");return"<tr>\n            <td>".concat(e,"</td>\n            ").concat(i,"\n        </tr>")}},{key:"formatGender",value:function(e){return"1"===e?"F":"2"===e?"H":"ND"}},{key:"getAttrValue",value:function(e,t){var i=e.attributes.find(function(e){return e.key===t});return i?H(t,i.value,this.identityPicker.rules.referential):""}}])}(),En=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};r(this,e),this.uniqueId=t,this.config=p(p({},N),i),this.permissions={search:!1,creation:!1,update:!1,view:!1,create_task:!1},this.openButton=document.getElementById("ip-open-button-".concat(t)),this.rules=null,this.shadowRoot=null,this.shadowHost=null,this.init()},[{key:"init",value:(o=i(f().m(function e(){var t,i,n=this;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.openButton.disabled=!0,e.p=1,e.n=2,this.fetchAndApplyPermissions();case 2:e.n=4;break;case 3:return e.p=3,t=e.v,console.error("Failed to fetch permissions:",t),this.openButton.textContent="Permissions "+t,this.openButton.disabled=!0,e.a(2);case 4:if(!Object.values(this.permissions).some(Boolean)){e.n=10;break}return e.p=5,e.n=6,this.fetchRules();case 6:e.n=8;break;case 7:return e.p=7,i=e.v,console.error("Failed to fetch rules:",i),this.openButton.textContent=i,this.openButton.disabled=!0,e.a(2);case 8:return this.identitySearch=new $(this),this.identityView=new G(this),this.identityForm=new Ci(this),this.identityHistory=new wn(this),this.identityCompare=new Cn(this),e.n=9,this.createModal();case 9:this.config.autoFill&&null!=this.config.cuid&&""!==this.config.cuid&&setTimeout(function(){return n.identityView.autoFillIdentity(n.config.cuid)},0),this.openButton.addEventListener("click",function(e){e.preventDefault(),n.openModal()}),this.initSideContainer(),this.openButton.disabled=!1,e.n=11;break;case 10:this.openButton.textContent="user permission empty",this.openButton.disabled=!0;case 11:return e.a(2)}},e,this,[[5,7],[1,3]])})),function(){return o.apply(this,arguments)})},{key:"fetchAndApplyPermissions",value:(n=i(f().m(function e(){var t,i,n;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,e.n=1,fetch(this.config.endpoints.permissions);case 1:if((t=e.v).ok){e.n=2;break}throw new Error("Erreur HTTP ".concat(t.status));case 2:return e.n=3,t.json();case 3:i=e.v,this.permissions={search:this.config.search&&i.SEARCH,creation:this.config.creation&&i.CREATE,update:this.config.update&&i.UPDATE,view:i.VIEW,create_task:this.config.create_task&&i.CREATE_TASK},e.n=5;break;case 4:throw e.p=4,n=e.v,console.error("Failed to fetch permissions:",n),n;case 5:return e.a(2)}},e,this,[[0,4]])})),function(){return n.apply(this,arguments)})},{key:"fetchRules",value:(t=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,e.n=1,fetch(this.config.endpoints.rules);case 1:if((t=e.v).ok){e.n=2;break}throw new Error("Erreur HTTP ".concat(t.status));case 2:return e.n=3,t.json();case 3:if(this.rules=e.v,this.rules.contract){e.n=4;break}throw new Error("Le contrat est null ou indisponible");case 4:e.n=6;break;case 5:throw e.p=5,i=e.v,console.error("Failed to fetch rules:",i),i;case 6:return e.a(2)}},e,this,[[0,5]])})),function(){return t.apply(this,arguments)})},{key:"createModal",value:(e=i(f().m(function e(){var t,i,n=this;return f().w(function(e){for(;;)switch(e.n){case 0:return this.shadowHost=document.createElement("div"),this.shadowHost.id="ip-shadow-host-".concat(this.uniqueId),document.body.appendChild(this.shadowHost),this.shadowRoot=this.shadowHost.attachShadow({mode:"open"}),t=document.createElement("style"),i=[O,w,C,E,S,P,A,M,L,"",I,T,F,D],t.textContent=i.map(function(e){return"string"==typeof e?e:e&&e.default?e.default:""}).join("\n"),this.shadowRoot.appendChild(t),this.modal=document.createElement("div"),this.modal.className="ip-modal",null!=this.config.cuid&&""!==this.config.cuid&&this.modal.setAttribute("data-cuid",this.config.cuid),this.modal.innerHTML=this.getModalHTML(),this.shadowRoot.appendChild(this.modal),this.modalContent=this.shadowRoot.querySelector(".ip-modal-content"),this.searchContainer=this.shadowRoot.querySelector(".ip-search-container"),this.resultsContainer=this.shadowRoot.querySelector(".ip-results-container"),this.detailsContainer=this.shadowRoot.querySelector(".ip-details-container"),this.historyContainer=this.shadowRoot.querySelector(".ip-history-container"),this.compareContainer=this.shadowRoot.querySelector(".ip-compare-container"),this.identityFormContainer=this.shadowRoot.querySelector(".ip-create-identity-container"),this.backButton=this.shadowRoot.querySelector(".ip-back"),this.infoMessage=this.shadowRoot.querySelector(".ip-info-message"),this.contentArea=this.shadowRoot.querySelector(".ip-content-area"),this.headerTitle=this.shadowRoot.querySelector(".ip-header h2"),this.modalHeader=this.shadowRoot.querySelector(".ip-header"),this.modalFooter=this.shadowRoot.querySelector(".ip-footer"),this.modalScrollableContent=this.shadowRoot.querySelectorAll(".ip-scrollable-content"),e.n=1,this.identitySearch.initSearchView();case 1:this.shadowRoot.querySelector(".ip-close").addEventListener("click",function(){return n.closeModal()}),this.backButton.addEventListener("click",function(){return n.showSearchView()});case 2:return e.a(2)}},e,this)})),function(){return e.apply(this,arguments)})},{key:"getModalHTML",value:function(){return'\n            <div class="ip-modal-content">\n                <div class="ip-header">\n                    <div class="ip-header-container">\n                        <span class="ip-back" style="display: none;">&#8592;</span>\n                        <h2></h2>\n                        <button class="ip-close ip-button-light ip-button-rounded">&times;</button>\n                    </div>\n                </div>\n                <div class="ip-main-container">\n                    <div class="ip-scrollable-content">\n                        <div class="ip-content-area">\n                            <div class="ip-info-message" style="display: none;"></div>\n                            <div class="ip-search-container" style="display: none;"></div>\n                            <div class="ip-results-container" style="display: none;"></div>\n                            <div class="ip-compare-container" style="display: none;"></div>\n                            <div class="ip-details-container" style="display: none;"></div>\n                            <div class="ip-create-identity-container" style="display: none;"></div>\n                            <div class="ip-loading-container" style="display: none;">\n                                <div class="ip-loader"></div>\n                                <div class="ip-loading-message"></div>\n                            </div>\n                        </div>\n                    </div>\n                    <div class="ip-side-container" style="display: none;">\n                        <div class="ip-header">\n                            <div class="ip-header-container">\n                                <h2></h2>\n                                <button class="ip-side-close ip-button-light ip-button-rounded">×</button>\n                            </div>\n                        </div>\n                        <div class="ip-scrollable-content">\n                            <div class="ip-content-area"></div>\n                        </div>\n                    </div>\n                </div>\n                <div class="ip-footer" style="display:none"></div>\n            </div>\n        '}},{key:"initSideContainer",value:function(){var e=this;this.sideContainer=this.shadowRoot.querySelector(".ip-side-container"),this.sideContent=this.sideContainer.querySelector(".ip-content-area"),this.sideCloseButton=this.sideContainer.querySelector(".ip-side-close"),this.sideCloseButton.addEventListener("click",function(){return e.closeSideContainer()})}},{key:"openSideContainer",value:function(e,t){this.sideContainer.querySelector("h2").textContent=e,this.sideContent.innerHTML=t,this.sideContainer.style.display="block",this.modalContent.classList.add("with-side-container"),this.adjustModalLayout()}},{key:"closeSideContainer",value:function(){this.sideContainer.style.display="none",this.modalContent.classList.remove("with-side-container"),this.adjustModalLayout()}},{key:"adjustModalLayout",value:function(){window.innerWidth>=1280?(this.modalContent.classList.add("side-by-side"),this.sideContainer.classList.remove("overlay")):(this.modalContent.classList.remove("side-by-side"),this.sideContainer.classList.add("overlay")),this.adjustModalHeight()}},{key:"showMessage",value:function(e,t){var i=this,n=arguments.length>2&&void 0!==arguments[2]?arguments[2]:"",r=this.rules.language[e]||e;this.infoMessage.innerHTML='\n            <p class="ip-info-message-main">'.concat(r,"</p>\n            ").concat(n?'<p class="ip-info-message-description">'.concat(n,"</p>"):"",'\n            <span class="ip-info-message-close">&times;</span>\n        '),this.infoMessage.className="ip-info-message ".concat(t),this.infoMessage.style.display="block",this.infoMessage.querySelector(".ip-info-message-close").addEventListener("click",function(){return i.hideInfoMessage()}),this.adjustModalHeight()}},{key:"removeMessage",value:function(){this.infoMessage.style.display="none",this.infoMessage.innerHTML=""}},{key:"showSearchView",value:function(){this.closeSideContainer(),this.transitionView(this.searchContainer),this.backButton.style.display="none",this.modalContent.classList.remove("wide-view"),this.setHeaderTitle(this.rules.language.searchTitle)}},{key:"showResultsView",value:function(){var e=this;this.closeSideContainer(),this.resultsContainer.querySelector(".ip-results-list")&&0===this.resultsContainer.querySelector(".ip-results-list").children.length?this.showSearchView():(this.transitionView(this.resultsContainer),this.backButton.style.display="inline",this.backButton.onclick=function(){return e.showSearchView()},this.modalContent.classList.remove("wide-view"),this.setHeaderTitle(this.rules.language.resultsTitle))}},{key:"showCompareView",value:function(){var e=this;this.closeSideContainer(),this.transitionView(this.compareContainer),this.backButton.style.display="inline",this.backButton.onclick=function(){return e.showResultsView()},this.modalContent.classList.add("wide-view"),this.setHeaderTitle(this.rules.language.compareTitle),this.identityCompare.renderCompareTable()}},{key:"showDetailsView",value:function(e,t,i,n,r){var o=this;this.closeSideContainer(),this.transitionView(this.detailsContainer),this.permissions.search&&"none"!==t?(this.backButton.style.display="inline",this.backButton.onclick=function(){return o.showView(t,e)}):this.backButton.style.display="none",this.modalContent.classList.add("wide-view"),this.setHeaderTitle(this.rules.language.detailsTitle),this.identityView.loadIdentityDetails(e),i&&n&&this.showMessage(n,i,r||"")}},{key:"showView",value:function(e,t){switch(e){case"search":default:this.showSearchView();break;case"results":this.showResultsView();break;case"details":this.showDetailsView(t,e);break;case"compare":this.showCompareView()}}},{key:"showIdentityFormView",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:null;this.hideInfoMessage(),this.closeSideContainer(),this.transitionView(this.identityFormContainer),this.permissions.search?(this.backButton.style.display="inline",this.backButton.onclick=function(){t?e.showDetailsView(t,"results"):e.showResultsView()}):this.backButton.style.display="none",t?this.identityForm.showModifyIdentityForm(t):this.identityForm.showCreateIdentityForm();var i=t?this.rules.language.modifyTitle:this.rules.language.createTitle;this.setHeaderTitle(i)}},{key:"setHeaderTitle",value:function(e){this.headerTitle.textContent=e}},{key:"transitionView",value:function(e){this.removeMessage(),this.modalContent.style.removeProperty("max-width"),[this.searchContainer,this.resultsContainer,this.detailsContainer,this.identityFormContainer,this.compareContainer].forEach(function(e){e.style.display="none",e.classList.remove("active")}),e.style.display="block",e.classList.add("active"),this.adjustModalHeight()}},{key:"adjustModalHeight",value:function(){var e=this;this.modalContent.style.maxHeight="".concat(.9*window.innerHeight,"px"),this.modalScrollableContent.forEach(function(t){t.style.maxHeight="".concat(.9*window.innerHeight-e.modalHeader.offsetHeight-e.modalFooter.offsetHeight,"px")})}},{key:"showLoading",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:this.rules.language.loading;this.closeSideContainer(),this.scrollToTop();var t=this.shadowRoot.querySelector(".ip-loading-container");(t.querySelector(".ip-loading-message")||this.createLoadingMessage()).textContent=e,t.style.display="flex",t.offsetWidth,t.classList.add("show")}},{key:"hideInfoMessage",value:function(){this.infoMessage.style.display="none",this.infoMessage.innerHTML="",this.adjustModalHeight()}},{key:"createLoadingMessage",value:function(){this.hideInfoMessage();var e=document.createElement("div");return e.className="ip-loading-message",this.shadowRoot.querySelector(".ip-loading-container").appendChild(e),e}},{key:"hideLoading",value:function(){this.scrollToTop();var e=this.shadowRoot.querySelector(".ip-loading-container");e.classList.remove("show"),setTimeout(function(){e.style.display="none"},300)}},{key:"scrollToTop",value:function(){this.modalScrollableContent.forEach(function(e){e.scrollTop=0})}},{key:"openModal",value:function(){var e=this;this.modal.style.display="flex";var t=this.permissions.search,i=this.permissions.view,n=this.modal.getAttribute("data-cuid");if(t||i)if(i&&n){var r=t?"search":"none";this.showDetailsView(n,r)}else!i||n||t?this.showSearchView():this.showMessage("noCuid","error");else this.showMessage("noPermissions","error");document.body.style.overflow="hidden",requestAnimationFrame(function(){e.modal.classList.add("ip-modal-open"),e.adjustModalHeight()})}},{key:"closeModal",value:function(){var e=this;this.modal.classList.remove("ip-modal-open"),this.modal.classList.add("ip-modal-closing"),setTimeout(function(){document.body.style.overflow="",e.modal.style.display="none",e.modal.classList.remove("ip-modal-closing"),setTimeout(function(){e.resetSearchForms()},200)},300)}},{key:"resetSearchForms",value:function(){this.identitySearch&&this.identitySearch.resetForms(),this.showSearchView(),this.resultsContainer.innerHTML="",this.detailsContainer.innerHTML="",this.identityFormContainer.innerHTML="",this.compareContainer.innerHTML="",this.removeMessage()}},{key:"showConfirmDialog",value:function(e,t,i){var n=this,r=document.createElement("div");r.className="ip-confirm-modal ip-modal ip-modal-open",r.innerHTML='\n            <div class="ip-confirm-dialog ip-modal-content">\n                <h2>'.concat(e,"</h2>\n                <p>").concat(t,'</p>\n                <div class="ip-confirm-buttons">\n                    <button class="ip-button-light ip-cancel-btn">\n                        ').concat(this.rules.language.cancelButton||"Cancel",'\n                    </button>\n                    <button class="ip-confirm-btn">\n                        ').concat(this.rules.language.confirmButton||"Confirm","\n                    </button>\n                </div>\n            </div>\n        ");var o=function(){return n.shadowRoot.removeChild(r)};r.querySelector(".ip-cancel-btn").addEventListener("click",o),r.querySelector(".ip-confirm-btn").addEventListener("click",function(){i(),o()}),r.addEventListener("click",function(e){e.target===r&&o()}),this.shadowRoot.appendChild(r)}}]);var e,t,n,o}();export{En as default};
+var e,t,i="function"==typeof Symbol?Symbol:{},n=i.iterator||"@@iterator",r=i.toStringTag||"@@toStringTag";function o(i,n,r,o){var c=n&&n.prototype instanceof s?n:s,l=Object.create(c.prototype);return g(l,"_invoke",function(i,n,r){var o,s,c,l=0,u=r||[],d=!1,h={p:0,n:0,v:e,a:p,f:p.bind(e,4),d:function(t,i){return o=t,s=0,c=e,h.n=i,a}};function p(i,n){for(s=i,c=n,t=0;!d&&l&&!r&&t<u.length;t++){var r,o=u[t],p=h.p,f=o[2];i>3?(r=f===n)&&(c=o[(s=o[4])?5:(s=3,3)],o[4]=o[5]=e):o[0]<=p&&((r=i<2&&p<o[1])?(s=0,h.v=n,h.n=o[1]):p<f&&(r=i<3||o[0]>n||n>f)&&(o[4]=i,o[5]=n,h.n=f,s=0))}if(r||i>1)return a;throw d=!0,n}return function(r,u,f){if(l>1)throw TypeError("Generator is already running");for(d&&1===u&&p(u,f),s=u,c=f;(t=s<2?e:c)||!d;){o||(s?s<3?(s>1&&(h.n=-1),p(s,c)):h.n=c:h.v=c);try{if(l=2,o){if(s||(r="next"),t=o[r]){if(!(t=t.call(o,c)))throw TypeError("iterator result is not an object");if(!t.done)return t;c=t.value,s<2&&(s=0)}else 1===s&&(t=o.return)&&t.call(o),s<2&&(c=TypeError("The iterator does not provide a '"+r+"' method"),s=1);o=e}else if((t=(d=h.n<0)?c:i.call(n,h))!==a)break}catch(t){o=e,s=1,c=t}finally{l=1}}return{value:t,done:d}}}(i,r,o),!0),l}var a={};function s(){}function c(){}function l(){}t=Object.getPrototypeOf;var u=[][n]?t(t([][n]())):(g(t={},n,function(){return this}),t),d=l.prototype=s.prototype=Object.create(u);function h(e){return Object.setPrototypeOf?Object.setPrototypeOf(e,l):(e.__proto__=l,g(e,r,"GeneratorFunction")),e.prototype=Object.create(d),e}return c.prototype=l,g(d,"constructor",l),g(l,"constructor",c),c.displayName="GeneratorFunction",g(l,r,"GeneratorFunction"),g(d),g(d,r,"Generator"),g(d,n,function(){return this}),g(d,"toString",function(){return"[object Generator]"}),(f=function(){return{w:o,m:h}})()}function g(e,t,i,n){var r=Object.defineProperty;try{r({},"",{})}catch(e){r=0}g=function(e,t,i,n){function o(t,i){g(e,t,function(e){return this._invoke(t,i,e)})}t?r?r(e,t,{value:i,enumerable:!n,configurable:!n,writable:!n}):e[t]=i:(o("next",0),o("throw",1),o("return",2))},g(e,t,i,n)}function m(e,t){return m=Object.setPrototypeOf?Object.setPrototypeOf.bind():function(e,t){return e.__proto__=t,e},m(e,t)}function v(e,t){return function(e){if(Array.isArray(e))return e}(e)||function(e,t){var i=null==e?null:"undefined"!=typeof Symbol&&e[Symbol.iterator]||e["@@iterator"];if(null!=i){var n,r,o,a,s=[],c=!0,l=!1;try{if(o=(i=i.call(e)).next,0===t);else for(;!(c=(n=o.call(i)).done)&&(s.push(n.value),s.length!==t);c=!0);}catch(e){l=!0,r=e}finally{try{if(!c&&null!=i.return&&(a=i.return(),Object(a)!==a))return}finally{if(l)throw r}}return s}}(e,t)||_(e,t)||function(){throw new TypeError("Invalid attempt to destructure non-iterable instance.\nIn order to be iterable, non-array objects must have a [Symbol.iterator]() method.")}()}function y(t){return function(t){if(Array.isArray(t))return e(t)}(t)||function(e){if("undefined"!=typeof Symbol&&null!=e[Symbol.iterator]||null!=e["@@iterator"])return Array.from(e)}(t)||_(t)||function(){throw new TypeError("Invalid attempt to spread non-iterable instance.\nIn order to be iterable, non-array objects must have a [Symbol.iterator]() method.")}()}function b(e){var t=function(e,t){if("object"!=typeof e||!e)return e;var i=e[Symbol.toPrimitive];if(void 0!==i){var n=i.call(e,t);if("object"!=typeof n)return n;throw new TypeError("@@toPrimitive must return a primitive value.")}return String(e)}(e,"string");return"symbol"==typeof t?t:t+""}function k(e){return k="function"==typeof Symbol&&"symbol"==typeof Symbol.iterator?function(e){return typeof e}:function(e){return e&&"function"==typeof Symbol&&e.constructor===Symbol&&e!==Symbol.prototype?"symbol":typeof e},k(e)}function _(t,i){if(t){if("string"==typeof t)return e(t,i);var n={}.toString.call(t).slice(8,-1);return"Object"===n&&t.constructor&&(n=t.constructor.name),"Map"===n||"Set"===n?Array.from(t):"Arguments"===n||/^(?:Ui|I)nt(?:8|16|32)(?:Clamped)?Array$/.test(n)?e(t,i):void 0}}function x(e,t){void 0===t&&(t={});var i=t.insertAt;if(e&&"undefined"!=typeof document){var n=document.head||document.getElementsByTagName("head")[0],r=document.createElement("style");r.type="text/css","top"===i&&n.firstChild?n.insertBefore(r,n.firstChild):n.appendChild(r),r.styleSheet?r.styleSheet.cssText=e:r.appendChild(document.createTextNode(e))}}var w=":host,:root{--ip-bg:#fff;--ip-text:#0d0c22;--ip-text-light:#121127;--ip-text-extra-light:#444;--ip-close:#333;--ip-close-hover:#000;--ip-overlay:rgba(0,0,0,.5);--ip-shadow:0 10px 30px rgba(0,0,0,.1);--ip-border:#dee2e6;--ip-input-focus:rgba(36,36,36,.534);--ip-input-box-shadow:0px 4px 4px 0px rgba(6,3,24,.03);--ip-input-disabled:#f5f5f5;--ip-button-bg:#000;--ip-button-border:#c0e5ac;--ip-button-text:#fff;--ip-button-hover:#565564;--ip-button-close-bg:#eef0f1;--ip-button-close-text:#0d0c22;--ip-button-close-hover:#eef0f1;--ip-button-close-border:#eef0f1;--ip-button-disabled:#f5f5f5;--ip-button-text-disabled:silver;--ip-result-bg:#fff;--ip-result-shadow:0 2px 10px rgba(0,0,0,.05);--ip-result-shadow-hover:0 5px 15px rgba(0,0,0,.1);--ip-result-header-color:#55686b;--ip-result-preferred-name-color:#666;--ip-result-details-color:#555;--ip-result-item-hover-bg:#f1f7f8;--ip-result-icon-color:#000;--ip-table-thead-bg:#f5f5f5;--ip-table-thead-color:#55686b;--ip-area-bg:#fff;--ip-table-separator-bg:#f6f6f6;--ip-table-td-hover-bg:#fcfcfc;--ip-tag-bg-default:#fff;--ip-tag-text-default:#0d0c22;--ip-tag-border-default:#e6e5e5;--ip-tag-bg-success:#f6fffb;--ip-tag-text-success:#00874a;--ip-tag-border-success:#c0efda;--ip-tag-bg-warning:#fff3cd;--ip-tag-text-warning:#664d03;--ip-tag-border-warning:#ffe69c;--ip-tag-bg-error:#fffbfc;--ip-tag-text-error:#e93870;--ip-tag-border-error:#fbc9ce;--ip-tag-bg-blue:#e7f5ff;--ip-tag-text-blue:#007bff;--ip-tag-border-blue:#cfe2f3;--ip-tag-bg-purple:#f5f0ff;--ip-tag-text-purple:#6f42c1;--ip-tag-border-purple:#e2d9f3;--ip-tag-bg-green:#f0fff4;--ip-tag-text-green:#28a745;--ip-tag-border-green:#c8e6c9;--ip-tag-bg-yellow:#fff9db;--ip-tag-text-yellow:#ff7c07;--ip-tag-border-yellow:#ffeeba;--ip-tag-text-sauge:#6a6e6d;--ip-tag-bg-sauge:#d4d8d6;--ip-tag-border-sauge:#dddfdc}*{color:inherit}";x(w);var C=".ip-modal{align-items:center;background-color:rgba(0,0,0,.5);display:none;inset:0;justify-content:center;position:fixed;transition:background-color .3s ease;z-index:1000}.ip-modal-content{background-color:var(--ip-bg);border-radius:30px;box-shadow:0 10px 30px rgba(0,0,0,.1);color:var(--ip-text);display:flex;flex-direction:column;max-height:90vh;max-width:600px;opacity:0;overflow-y:auto;padding:0;position:relative;transform:scale(.9);transition:all .3s cubic-bezier(.68,-.55,.27,1.55),width .3s ease;width:90%}.ip-modal-content.wide-view{max-width:900px}.with-side-container>.ip-header>.ip-header-container{margin:24px 0 0}.ip-back,.ip-close{transition:transform .2s ease}.with-side-container>.ip-header>.ip-header-container .ip-close{margin-right:30px}.with-side-container>.ip-header>.ip-header-container .ip-back{margin-left:30px}.ip-modal-content.with-side-container{max-width:1280px}.ip-container-header-btns{min-width:400px;text-align:end}.ip-modal-open .ip-modal-content{opacity:1;transform:scale(1)}.ip-header{background-color:var(--ip-bg);flex-shrink:0;position:sticky;top:0;z-index:10}.ip-header .ip-header-container{align-items:center;border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;margin:24px 40px 0;padding-bottom:24px}.ip-back{color:#333;cursor:pointer;font-size:24px;transition:transform .2s ease}.ip-back:hover{transform:translateX(-3px)}.ip-modal h2{color:var(--ip-text);font-size:20px;font-weight:800;margin:0}.ip-main-container{display:flex;flex-grow:1;overflow:hidden}.ip-scrollable-content{flex-grow:1;min-width:0;overflow-y:auto;scrollbar-color:hsla(0,0%,61%,.5) transparent;scrollbar-width:thin}.ip-scrollable-content::-webkit-scrollbar{width:8px}.ip-scrollable-content::-webkit-scrollbar-thumb{background-color:hsla(0,0%,61%,.5)}.ip-scrollable-content::-webkit-scrollbar-track{background-color:transparent}.ip-content-area{min-height:100%;padding:24px 40px}.ip-side-container{border-left:1px solid var(--ip-border);overflow-y:hidden;position:relative;transition:transform .3s ease;width:400px}.ip-side-container,.ip-side-container .ip-header{background-color:var(--ip-table-separator-bg)}.ip-side-container.overlay{border-left:none;border-top:1px solid var(--ip-border);bottom:0;box-shadow:-5px 0 15px rgba(0,0,0,.1);left:0;position:absolute;top:0;width:100%;z-index:10}.ip-side-container.overlay.open{transform:translateX(0)}.ip-side-close{background:none;border:none;cursor:pointer;font-size:20px;position:absolute;right:10px;top:10px}.ip-results-container,.ip-search-container{min-height:100%;position:relative;transition:opacity .3s ease,transform .3s ease;width:100%}.ip-results-container{min-height:100px}.ip-container-header{align-items:center;background:var(--ip-bg);border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;padding-bottom:20px;padding-top:10px;position:sticky;top:0}.ip-truncate{overflow:hidden;text-overflow:ellipsis;white-space:nowrap}.ip-container-header h3{color:var(--ip-text);font-size:18px!important;font-weight:800!important;margin:0}.ip-container-header p{font-size:12px;letter-spacing:.1rem;margin:0}.ip-result-details p{font-size:12px;font-weight:400;margin:0;text-transform:uppercase}.ip-details-container h4{font-size:18px!important;font-weight:600!important;margin:0}.ip-container-buttons{background:var(--ip-bg);border-top:1px solid var(--ip-border);bottom:0;display:flex;gap:10px;padding-bottom:20px;padding-top:20px;position:sticky}.ip-container-buttons button{width:100%}.ip-footer{background-color:var(--ip-bg);border-top:1px solid var(--ip-border);flex-shrink:0;padding:15px;text-align:center}.ip-create-identity-container,.ip-details-container{min-height:100%}@media (max-width:1200px){.ip-modal-content{flex-direction:column}.ip-modal-content.with-side-container .ip-scrollable-content{width:100%}}";x(C);var E=".ip-confirm-modal{align-items:center;background-color:rgba(0,0,0,.5);display:flex;height:100%;justify-content:center;left:0;position:fixed;top:0;width:100%;z-index:1000}.ip-confirm-dialog{max-width:400px;padding:30px;width:90%}.ip-confirm-dialog h2{margin:0 0 10px}.ip-confirm-dialog p{margin:0 0 20px}.ip-confirm-buttons{display:flex;gap:10px;justify-content:flex-end}";x(E);var S=".ip-modal *,.ip-modal :after,.ip-modal :before{box-sizing:border-box}.ip-search-option{display:flex;gap:15px;justify-content:center;margin-bottom:15px}.ip-search-option label{align-items:center;border:1px solid var(--ip-border);border-radius:8px;cursor:pointer;display:flex;padding:10px 15px;transition:all .3s ease;width:250px}.ip-search-option label:hover{border-color:var(--ip-input-focus)}.ip-search-option input[type=radio]{align-self:center;margin-bottom:0;margin-right:10px;margin-top:0}.ip-search-option span{align-items:center;display:flex;height:100%;line-height:15px}.ip-search-option input[type=radio]:checked+span{font-weight:700}.ip-search-option input[type=radio]:checked{background-color:var(--ip-bg);border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-search-option label:has(input[type=radio]:checked){border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-modal input[type=date],.ip-modal input[type=email],.ip-modal input[type=text],.ip-modal select{padding:12px;width:100%}.ip-modal .choices__inner,.ip-modal input[type=date],.ip-modal input[type=email],.ip-modal input[type=text],.ip-modal select{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:8px;box-sizing:border-box;color:var(--ip-text);transition:all .3s ease}.ip-modal .choices__inner{align-items:center;display:flex;min-height:44px;padding:6px 12px}.ip-modal .is-open .choices__inner{border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow)}.ip-modal .choices.is-disabled .choices__inner,.ip-modal .choices.is-disabled .choices__input,.ip-modal input[type=date]:disabled,.ip-modal input[type=email]:disabled,.ip-modal input[type=text]:disabled,.ip-modal select:disabled{background-color:var(--ip-input-disabled);cursor:not-allowed}.ip-modal input:focus,.ip-modal select:focus{border-color:var(--ip-input-focus);box-shadow:var(--ip-input-box-shadow);outline:none!important}.ip-modal .choices__inner:hover,.ip-modal input:hover,.ip-modal select:hover{border-color:var(--ip-input-focus)}.ip-modal .choices{font-size:inherit;margin-bottom:0}.ip-modal .choices__list--single{align-items:center;display:flex}.ip-modal .choices__list--single .choices__item{color:var(--ip-text);line-height:1.4;padding:0}.ip-modal .choices[data-type*=select-one]:after{border-color:var(--ip-text) transparent transparent transparent;margin-top:-5px;right:15px;top:50%}@keyframes slideDownWithShadow{0%{box-shadow:0 0 0 transparent;opacity:0;transform:translateY(-20px)}to{box-shadow:0 4px 12px rgba(0,0,0,.15);opacity:1;transform:translateY(0)}}.choices[data-type*=select-one] .choices__list--dropdown{border-radius:8px;box-shadow:0 0 0 transparent;display:none;margin-top:5px;overflow:hidden;transform-origin:top center}.choices[data-type*=select-one] .choices__list--dropdown.is-active{animation:slideDownWithShadow .4s cubic-bezier(.68,-.55,.265,1.55) forwards;display:block}.choices__list--dropdown .choices__item,.choices__list[aria-expanded] .choices__item{color:var(--ip-text);font-size:14px;padding:10px 12px;position:relative}.choices__list--dropdown .choices__item--selectable.is-highlighted{background-color:var(--ip-primary);color:var(--ip-text)}.choices__list--dropdown{background-color:var(--ip-bg);border:1px solid var(--ip-border)}.choices[data-type*=select-one] .choices__list--dropdown .choices__input{box-shadow:none}.ip-fieldset{border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;padding:20px}.ip-fieldset legend{font-size:18px;font-weight:700;margin-bottom:10px}.ip-form-row{display:flex;flex-wrap:wrap;gap:20px;margin-bottom:20px}.ip-form-input,.ip-form-select{flex:1 1 calc(50% - 10px);min-width:200px}.ip-form-input label,.ip-form-select label{display:block;font-weight:500;margin-bottom:8px}.ip-required{color:#ff4136;font-weight:700;margin-left:3px}.ip-modal .choices[data-type*=select-one] select.choices__input{bottom:0;display:block!important;left:0;opacity:0;pointer-events:none;position:absolute}.ip-modal .choices__list--single{padding:0}.ip-search-container input{margin-bottom:16px}.ip-field-error{color:#d32f2f;font-size:13px;margin-top:3px}.ip-error-input{border-color:#d32f2f!important}.ip-input-group label{display:block;font-size:14px;font-weight:500;margin-bottom:8px}.ip-readonly-field{opacity:.8}.ip-readonly-value{background-color:var(--ip-input-disabled);border:1px solid var(--ip-border);border-radius:8px;color:var(--ip-text-secondary);font-weight:500;padding:.5rem}";x(S);var P='.ip-modal .ip-button,.ip-modal button{background-color:var(--ip-button-bg);border:none;border-radius:24px;color:var(--ip-button-text);cursor:pointer;font-weight:600;letter-spacing:.5px;overflow:hidden;padding:12px 20px;transition:all .3s ease}.ip-modal .ip-button-medium{padding:6px 20px}.ip-modal .ip-button-mini{padding:2px 10px}.ip-modal .ip-button-red{background-color:#e93870}.ip-modal .ip-button-red:hover{background-color:#ff0051}.ip-modal .ip-button-yellow{background-color:#fff2c4;color:#644d0d}.ip-modal .ip-button-yellow:hover{background-color:#fae9ac}.ip-modal .ip-button:disabled,.ip-modal button:disabled{background-color:var(--ip-button-disabled);color:var(--ip-button-text-disabled);cursor:not-allowed}.ip-modal .ip-button-light{background-color:var(--ip-button-close-bg);color:var(--ip-button-close-text)}.ip-side-container .ip-button-rounded{margin-right:30px;margin-top:-15px}.ip-modal .ip-button-light:hover{background-color:var(--ip-button-close-hover)}.ip-modal .ip-button:hover,.ip-modal button:hover{background-color:var(--ip-button-hover);box-shadow:0 4px 10px rgba(0,0,0,.2);transform:translateY(-2px)}.ip-modal button:active{box-shadow:0 2px 5px rgba(0,0,0,.2);transform:translateY(0)}.ip-modal button:after{background:hsla(0,0%,100%,.5);border-radius:100%;content:"";height:5px;left:50%;opacity:0;position:absolute;top:50%;transform:scale(1) translate(-50%);transform-origin:50% 50%;width:5px}.ip-modal .ip-button:focus:not(:active):after,.ip-modal button:focus:not(:active):after{animation:ripple 1s ease-out}.ip-modal .ip-button-rounded{align-items:center;border-radius:30px;display:flex;height:30px;justify-content:center;padding:0;width:30px}.ip-modal .ip-side-close{font-size:13px!important}.ip-modal .ip-select-link{color:inherit;cursor:pointer;text-decoration:none}.ip-modal .ip-select-link:hover{text-decoration:underline}@keyframes ripple{0%{opacity:1;transform:scale(0)}20%{opacity:1;transform:scale(25)}to{opacity:0;transform:scale(40)}}';x(P);var A=".ip-info-message{border-radius:4px;font-weight:500;margin-bottom:20px;overflow:hidden;padding:12px 40px 12px 16px;position:relative;transition:all .3s ease}.ip-info-message-main{font-weight:700;margin:0}.ip-info-message-description{font-size:12px;margin:0}.ip-info-message.info{background-color:#e3f2fd;border-left:4px solid #2196f3;color:#0d47a1}.ip-info-message.error{background-color:#ffebee;border-left:4px solid #f44336;color:#b71c1c}.ip-info-message.success{background-color:#e8f5e9;border-left:4px solid #4caf50;color:#1b5e20}.ip-info-message:hover{transform:translateY(-2px)}.ip-progress-bar{background-color:rgba(0,0,0,.2);bottom:0;height:4px;left:0;position:absolute;transform-origin:left;width:100%}@keyframes shrink{0%{transform:scaleX(1)}to{transform:scaleX(0)}}.ip-info-message-close{background:none;border:none;color:inherit;cursor:pointer;font-size:20px;opacity:.7;position:absolute;right:10px;top:50%;transform:translateY(-50%);transition:opacity .3s ease}.ip-info-message-close:hover{opacity:1}";x(A);var M=".ip-results-list{border:1px solid var(--ip-border);border-radius:8px;list-style-type:none;margin:0 0 20px;overflow:hidden;padding:0}.ip-result-item{align-items:center;border-bottom:1px solid var(--ip-border);display:flex;justify-content:space-between;margin:0;padding:20px;transition:background-color .3s ease}.ip-result-item:last-child{border-bottom:none}.ip-result-item:hover{background-color:var(--ip-table-td-hover-bg);cursor:pointer}.ip-result-left{align-items:flex-start;display:flex;flex:1;flex-direction:column;margin-right:1rem}.ip-result-right{align-items:center;display:flex;flex-shrink:0}.ip-result-details,.ip-result-header{text-align:left;width:100%}.ip-result-header h3{text-transform:uppercase}.ip-result-details{display:flex;flex-wrap:wrap;gap:12px}.ip-result-details p{margin:0}.ip-result-details i{margin-right:8px;transition:transform .2s ease}.ip-compare-table-container{border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;max-height:70vh;overflow:auto;position:relative}.ip-compare-table{border-collapse:separate;border-spacing:0;text-align:left;width:100%}.ip-compare-table td,.ip-compare-table th{min-width:200px;padding:12px}.ip-compare-table th{background-color:var(--ip-table-separator-bg);border-top:1px solid var(--ip-border)}.ip-compare-table td,.ip-compare-table th{border-bottom:1px solid var(--ip-border);border-right:1px solid var(--ip-border)}.ip-compare-table td{background-color:var(--ip-bg)}.ip-compare-table thead th{background-color:var(--ip-table-separator-bg);border-top:none;position:sticky;top:0;z-index:2}.ip-compare-table tbody td:first-child{background-color:var(--ip-table-separator-bg);border-left:none;left:0;position:sticky;z-index:1}.ip-compare-table tfoot th{background-color:var(--ip-table-separator-bg);bottom:0;position:sticky;z-index:2}.ip-compare-table thead th:first-child{left:0;position:sticky;z-index:3}.ip-compare-table tr.ip-group-separator td.ip-table-separator{background-color:var(--ip-table-separator-bg);font-weight:700}.ip-compare-table tr.ip-group-separator td.ip-group-label{background-color:var(--ip-table-separator-bg);left:0;min-width:200px;position:sticky;z-index:1}.ip-compare-table tbody tr:hover td{background-color:var(--ip-table-td-hover-bg)}.ip-compare-table tbody tr:hover td:first-child{background-color:var(--ip-table-separator-bg)}.ip-active,.ip-high,.ip-percentage-high{color:#28a745}.ip-medium,.ip-percentage-medium{color:#ff6507}.ip-inactive,.ip-low,.ip-percentage-low{color:#dc3545}.ip-highlight{background-color:rgba(255,0,0,.2);border-radius:2px;padding:0 2px}.ip-difference{background-color:#fff9c4;border-radius:4px;color:#f57c00;padding:2px 4px}.ip-search-criteria{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:8px;margin-bottom:20px;padding:10px 15px}.ip-search-criteria p{color:var(--ip-text);font-weight:500;margin:0 0 8px}.ip-criteria-tags{display:flex;flex-wrap:wrap;gap:8px}.ip-tag-criteria{background-color:var(--ip-bg);border:1px solid var(--ip-border);border-radius:4px;color:var(--ip-text);font-size:13px;padding:4px 8px}.ip-tag-criteria strong{margin-right:4px}.ip-info-tag.ip-tag-success{background-color:#e8f5e9;border:1px solid #a5d6a7;color:#2e7d32}.ip-info-tag.ip-tag-error{background-color:#ffebee;border:1px solid #ef9a9a;color:#c62828}.ip-result-header h3{color:var(--ip-text);font-size:14px!important;font-weight:600;letter-spacing:.5px;margin:0;text-transform:none}.ip-preferred-name{font-style:italic;font-weight:400;margin:4px 0 0;text-transform:uppercase}.ip-approximate{background-color:#fff3cd;border-radius:2px;color:#856404;font-weight:700;padding:0 2px}.ip-result-details p{line-height:1.4;margin:8px 0 0}.ip-result-details p:first-child{font-weight:500}";x(M);var L=".ip-results-container,.ip-search-container{opacity:0;pointer-events:none;transform:translateY(20px);transition:opacity .3s ease,transform .3s ease}.ip-results-container.active,.ip-search-container.active{opacity:1;pointer-events:auto;transform:translateY(0)}@keyframes fadeIn{0%{opacity:0;transform:translateY(20px)}to{opacity:1;transform:translateY(0)}}.ip-result-item,.ip-timeline-item{animation:fadeIn .5s ease forwards;opacity:0;transform:translateY(20px)}.ip-result-item:first-child,.ip-timeline-item:first-child{animation-delay:.1s}.ip-result-item:nth-child(2),.ip-timeline-item:nth-child(2){animation-delay:.2s}.ip-result-item:nth-child(3),.ip-timeline-item:nth-child(3){animation-delay:.3s}.ip-result-item:nth-child(4),.ip-timeline-item:nth-child(4){animation-delay:.4s}.ip-result-item:nth-child(5),.ip-timeline-item:nth-child(5){animation-delay:.5s}.ip-result-item:nth-child(6),.ip-timeline-item:nth-child(6){animation-delay:.6s}.ip-result-item:nth-child(7),.ip-timeline-item:nth-child(7){animation-delay:.7s}.ip-result-item:nth-child(8),.ip-timeline-item:nth-child(8){animation-delay:.8s}.ip-result-item:nth-child(9),.ip-timeline-item:nth-child(9){animation-delay:.9s}.ip-result-item:nth-child(10),.ip-timeline-item:nth-child(10){animation-delay:1s}@keyframes spin{0%{transform:rotate(0deg)}to{transform:rotate(1turn)}}@keyframes pulse{0%{transform:scale(1)}50%{transform:scale(1.05)}to{transform:scale(1)}}.ip-modal button:focus{animation:pulse .5s ease-in-out}";x(L);x("");var I=".ip-table{border:1px solid var(--ip-border);border-collapse:separate;border-radius:10px;border-spacing:0;margin-bottom:20px;margin-top:10px;overflow:hidden;width:100%}.ip-table td,.ip-table th{border:none;padding:12px 16px;text-align:left;word-break:auto-phrase}.ip-table th{background-color:var(--ip-thead-bg);color:var(--ip-thead-color);font-size:10px!important;font-weight:600;letter-spacing:.5px;text-transform:uppercase}.ip-table tr{background-color:var(--ip-bg)}.ip-table tr:hover{background-color:var(--ip-table-td-hover-bg);transition:background-color .3s ease}.ip-table td{border-top:1px solid var(--ip-border)}.ip-table tr:first-child td{border-top:none}@keyframes highlight{0%{background-color:rgba(0,0,0,.1)}to{background-color:transparent}}.ip-table tr:target{animation:highlight 2s ease-out}.ip-table-separator{background:var(--ip-table-separator-bg);font-weight:700}.ip-description{margin-bottom:5px!important}";x(I);var T=".ip-info-tags{display:flex;flex-wrap:nowrap;gap:10px;margin-bottom:20px;margin-top:20px;width:100%}.ip-info-tag{align-items:center;border-radius:6px;border-style:solid;border-width:1px;display:flex;flex:1;flex-direction:column;font-size:13px;justify-content:center;padding:10px;text-align:center}.ip-info-tag strong{display:block}.ip-tag-default{background-color:var(--ip-tag-bg-default)!important;border-color:var(--ip-tag-border-default);color:var(--ip-tag-text-default)}.ip-tag-success{background-color:var(--ip-tag-bg-success)!important;border-color:var(--ip-tag-border-success);color:var(--ip-tag-text-success)}.ip-tag-warning{background-color:var(--ip-tag-bg-warning)!important;border-color:var(--ip-tag-border-warning);color:var(--ip-tag-text-warning)}.ip-tag-error{background-color:var(--ip-tag-bg-error)!important;border-color:var(--ip-tag-border-error);color:var(--ip-tag-text-error)}.ip-tag-identity{background-color:var(--ip-tag-bg-blue)!important;border-color:var(--ip-tag-border-blue);color:var(--ip-tag-text-blue)}.ip-tag-attribute{background-color:var(--ip-tag-bg-purple)!important;border-color:var(--ip-tag-border-purple);color:var(--ip-tag-text-purple)}.ip-tag-green{background-color:var(--ip-tag-bg-green)!important;border-color:var(--ip-tag-border-green);color:var(--ip-tag-text-green)}.ip-tag-task{background-color:var(--ip-tag-bg-yellow)!important;border-color:var(--ip-tag-border-yellow);color:var(--ip-tag-text-yellow)}.ip-mini-tag{background:var(--ip-border);border-radius:6px;display:inline-block;font-size:12px;font-weight:700;letter-spacing:.1rem;margin:2px;padding:2px 5px}";x(T);var F=".ip-loading-container{align-items:center;background-color:hsla(0,0%,100%,.9);bottom:0;display:none;flex-direction:column;justify-content:center;left:0;opacity:0;position:absolute;right:0;top:0;transform:scale(.95);transition:opacity .3s ease,transform .3s ease;z-index:1000}.ip-loading-container.show{opacity:1;transform:scale(1)}.ip-loader{animation:spin 1s linear infinite;border:5px solid #f3f3f3;border-radius:50%;border-top-color:#000;height:40px;width:40px}.ip-loading-message{color:#333;font-size:16px;margin-top:20px;opacity:0;text-align:center;transform:translateY(10px);transition:opacity .3s ease .1s,transform .3s ease .1s}.ip-loading-container.show .ip-loading-message{opacity:1;transform:translateY(0)}@keyframes spin{0%{transform:rotate(0deg)}to{transform:rotate(1turn)}}";x(F);var D=".ip-timeline{border-left:1px solid var(--ip-border);margin-left:6px}.ip-timeline,.ip-timeline-item{position:relative}.ip-timeline-point{background-color:var(--ip-border);border-radius:50%;height:12px;left:-7px;position:absolute;top:21px;width:12px}.ip-timeline-content{padding:15px}.ip-timeline-content .date{color:var(--ip-text-light);font-size:12px;letter-spacing:.1rem;margin:0}.ip-timeline-content .code{color:var(--ip-text-extra-light);font-size:10px;margin:0}button.ip-copy-button{background:#fff;color:var(--ip-text);font-size:10px;margin-top:5px;padding:5px}button.ip-copy-button:hover{background:var(--ip-table-td-hover-bg)}button.ip-load-more-button{background:#fff;color:var(--ip-text);display:block;margin:10px auto;padding:5px 10px}button.ip-load-more-button:hover{background:var(--ip-table-td-hover-bg)}button.ip-load-more-button[hidden]{display:none}.ip-identity-change-header{margin-bottom:10px}.ip-timeline .change-type{color:var(--ip-text);font-weight:700;margin-bottom:5px}.ip-identity-change-header .change-info{color:#6c757d;font-size:.9em}.ip-change-status{color:#28a745;font-style:italic;margin-bottom:5px}.ip-change-message{color:#6c757d;display:block;font-size:.9em;margin-bottom:10px}.ip-attribute-changes-table{border-collapse:collapse;margin-top:10px;width:100%}.ip-attribute-changes-table td,.ip-attribute-changes-table th{border:1px solid #dee2e6;padding:8px;text-align:left}.ip-attribute-changes-table th{background-color:#e9ecef;font-weight:700}.ip-attribute-changes-table tr:nth-child(2n){background-color:#f8f9fa}.ip-date-and-types{align-items:center;display:flex;justify-content:space-between;margin-bottom:10px}.ip-event-types{color:#666;font-size:.9em}.ip-event-type{margin-right:5px}.ip-event-type.identity{color:#007bff}.ip-event-type.attribute{color:#28a745}.ip-event-type.task{color:#ffc107}.ip-search-bar{background-color:var(--ip-table-separator-bg);padding-bottom:20px;padding-top:20px;position:sticky;top:0;z-index:2}.ip-search-input{border-radius:40px!important}.ip-history-filters{display:flex;flex-wrap:wrap;gap:5px;margin-top:10px}.ip-history-filters .ip-history-filter{flex:1 1 120px;width:auto}.ip-side-container .ip-content-area{margin-bottom:60px;padding-right:25px;padding-top:10px}.ip-view-task-history{background-color:var(--ip-primary);border:none;border-radius:4px;color:#fff;cursor:pointer;margin-top:10px;padding:5px 10px}.ip-view-task-history:hover{background-color:var(--ip-primary-dark)}.ip-full-task-history{padding:20px}.ip-task-history-item{border-bottom:1px solid var(--ip-border);padding:10px 0}.ip-task-history-item span{display:block;margin-bottom:5px}.ip-task-history-date{font-weight:700}.ip-task-history-author,.ip-task-history-change,.ip-task-history-status{color:var(--ip-text-light)}.ip-attribute-changes-list{background-color:#fff;border:1px solid var(--ip-border);border-radius:8px;box-shadow:0 2px 4px rgba(0,0,0,.1);margin-bottom:10px;margin-top:10px}.ip-attribute-changes-list\r\n.ip-attribute-change-item{border-bottom:1px solid var(--ip-border);padding:8px}.ip-attribute-change-item:last-child{border-bottom:none}.ip-attribute-name{color:var(--ip-text);font-weight:500;margin-bottom:3px}.ip-attribute-value{color:var(--ip-text);margin-bottom:3px;word-break:break-word}.ip-attribute-certification{color:var(--ip-text-light);font-size:.85em;font-style:italic}.ip-certification-label{margin-right:4px}.ip-certification-value{font-weight:500}";x(D);var O='.choices{font-size:16px;margin-bottom:24px;overflow:hidden;position:relative}.choices:focus{outline:0}.choices:last-child{margin-bottom:0}.choices.is-open{overflow:visible}.choices.is-disabled .choices__inner,.choices.is-disabled .choices__input{background-color:#eaeaea;cursor:not-allowed;-webkit-user-select:none;user-select:none}.choices.is-disabled .choices__item{cursor:not-allowed}.choices [hidden]{display:none!important}.choices[data-type*=select-one]{cursor:pointer}.choices[data-type*=select-one] .choices__inner{padding-bottom:7.5px}.choices[data-type*=select-one] .choices__input{background-color:#fff;border-bottom:1px solid #ddd;display:block;margin:0;padding:10px;width:100%}.choices[data-type*=select-one] .choices__button{background-image:url(data:image/svg+xml;base64,PHN2ZyB3aWR0aD0iMjEiIGhlaWdodD0iMjEiIHhtbG5zPSJodHRwOi8vd3d3LnczLm9yZy8yMDAwL3N2ZyI+PGcgZmlsbC1ydWxlPSJldmVub2RkIj48cGF0aCBkPSJtMi41OTIuMDQ0IDE4LjM2NCAxOC4zNjQtMi41NDggMi41NDhMLjA0NCAyLjU5MnoiLz48cGF0aCBkPSJNMCAxOC4zNjQgMTguMzY0IDBsMi41NDggMi41NDhMMi41NDggMjAuOTEyeiIvPjwvZz48L3N2Zz4=);background-size:8px;border-radius:10em;height:20px;margin-right:25px;margin-top:-10px;opacity:.25;padding:0;position:absolute;right:0;top:50%;width:20px}.choices[data-type*=select-one] .choices__button:focus,.choices[data-type*=select-one] .choices__button:hover{opacity:1}.choices[data-type*=select-one] .choices__button:focus{box-shadow:0 0 0 2px #005f75}.choices[data-type*=select-one] .choices__item[data-placeholder] .choices__button{display:none}.choices[data-type*=select-one]:after{border:5px solid transparent;border-top-color:#333;content:"";height:0;margin-top:-2.5px;pointer-events:none;position:absolute;right:11.5px;top:50%;width:0}.choices[data-type*=select-one].is-open:after{border-color:transparent transparent #333;margin-top:-7.5px}.choices[data-type*=select-one][dir=rtl]:after{left:11.5px;right:auto}.choices[data-type*=select-one][dir=rtl] .choices__button{left:0;margin-left:25px;margin-right:0;right:auto}.choices[data-type*=select-multiple] .choices__inner,.choices[data-type*=text] .choices__inner{cursor:text}.choices[data-type*=select-multiple] .choices__button,.choices[data-type*=text] .choices__button{background-image:url(data:image/svg+xml;base64,PHN2ZyB3aWR0aD0iMjEiIGhlaWdodD0iMjEiIHhtbG5zPSJodHRwOi8vd3d3LnczLm9yZy8yMDAwL3N2ZyI+PGcgZmlsbD0iI0ZGRiIgZmlsbC1ydWxlPSJldmVub2RkIj48cGF0aCBkPSJtMi41OTIuMDQ0IDE4LjM2NCAxOC4zNjQtMi41NDggMi41NDhMLjA0NCAyLjU5MnoiLz48cGF0aCBkPSJNMCAxOC4zNjQgMTguMzY0IDBsMi41NDggMi41NDhMMi41NDggMjAuOTEyeiIvPjwvZz48L3N2Zz4=);background-size:8px;border-left:1px solid #003642;border-radius:0;display:inline-block;line-height:1;margin:0-4px 0 8px;opacity:.75;padding-left:16px;position:relative;width:8px}.choices[data-type*=select-multiple] .choices__button:focus,.choices[data-type*=select-multiple] .choices__button:hover,.choices[data-type*=text] .choices__button:focus,.choices[data-type*=text] .choices__button:hover{opacity:1}.choices__inner{background-color:#f9f9f9;border:1px solid #ddd;border-radius:2.5px;display:inline-block;font-size:14px;min-height:44px;overflow:hidden;padding:7.5px 7.5px 3.75px;vertical-align:top;width:100%}.is-focused .choices__inner,.is-open .choices__inner{border-color:#b7b7b7}.is-open .choices__inner{border-radius:2.5px 2.5px 0 0}.is-flipped.is-open .choices__inner{border-radius:0 0 2.5px 2.5px}.choices__list{list-style:none;margin:0;padding-left:0}.choices__list--single{display:inline-block;padding:4px 16px 4px 4px;width:100%}[dir=rtl] .choices__list--single{padding-left:16px;padding-right:4px}.choices__list--single .choices__item{width:100%}.choices__list--multiple{display:inline}.choices__list--multiple .choices__item{background-color:#005f75;border:1px solid #004a5c;border-radius:20px;box-sizing:border-box;color:#fff;display:inline-block;font-size:12px;font-weight:500;margin-bottom:3.75px;margin-right:3.75px;padding:4px 10px;vertical-align:middle;word-break:break-all}.choices__list--multiple .choices__item[data-deletable]{padding-right:5px}[dir=rtl] .choices__list--multiple .choices__item{margin-left:3.75px;margin-right:0}.choices__list--multiple .choices__item.is-highlighted{background-color:#004a5c;border:1px solid #003642}.is-disabled .choices__list--multiple .choices__item{background-color:#aaa;border:1px solid #919191}.choices__list--dropdown,.choices__list[aria-expanded]{background-color:#fff;border:1px solid #ddd;border-bottom-left-radius:2.5px;border-bottom-right-radius:2.5px;display:none;margin-top:-1px;overflow:hidden;position:absolute;top:100%;width:100%;word-break:break-all;z-index:1}.is-active.choices__list--dropdown,.is-active.choices__list[aria-expanded]{display:block}.is-open .choices__list--dropdown,.is-open .choices__list[aria-expanded]{border-color:#b7b7b7}.is-flipped .choices__list--dropdown,.is-flipped .choices__list[aria-expanded]{border-radius:.25rem .25rem 0 0;bottom:100%;margin-bottom:-1px;margin-top:0;top:auto}.choices__list--dropdown .choices__list,.choices__list[aria-expanded] .choices__list{-webkit-overflow-scrolling:touch;max-height:300px;overflow:auto;position:relative;will-change:scroll-position}.choices__list--dropdown .choices__item,.choices__list[aria-expanded] .choices__item{font-size:14px;padding:10px;position:relative}[dir=rtl] .choices__list--dropdown .choices__item,[dir=rtl] .choices__list[aria-expanded] .choices__item{text-align:right}@media (min-width:640px){.choices__list--dropdown .choices__item--selectable[data-select-text],.choices__list[aria-expanded] .choices__item--selectable[data-select-text]{padding-right:100px}.choices__list--dropdown .choices__item--selectable[data-select-text]:after,.choices__list[aria-expanded] .choices__item--selectable[data-select-text]:after{content:attr(data-select-text);font-size:12px;opacity:0;position:absolute;right:10px;top:50%;transform:translateY(-50%)}[dir=rtl] .choices__list--dropdown .choices__item--selectable[data-select-text],[dir=rtl] .choices__list[aria-expanded] .choices__item--selectable[data-select-text]{padding-left:100px;padding-right:10px;text-align:right}[dir=rtl] .choices__list--dropdown .choices__item--selectable[data-select-text]:after,[dir=rtl] .choices__list[aria-expanded] .choices__item--selectable[data-select-text]:after{left:10px;right:auto}}.choices__list--dropdown .choices__item--selectable.is-highlighted,.choices__list[aria-expanded] .choices__item--selectable.is-highlighted{background-color:#f2f2f2}.choices__list--dropdown .choices__item--selectable.is-highlighted:after,.choices__list[aria-expanded] .choices__item--selectable.is-highlighted:after{opacity:.5}.choices__item{cursor:default}.choices__item--selectable{cursor:pointer}.choices__item--disabled{cursor:not-allowed;opacity:.5;-webkit-user-select:none;user-select:none}.choices__heading{border-bottom:1px solid #f7f7f7;color:gray;font-size:12px;font-weight:600;padding:10px}.choices__button{appearance:none;background-color:transparent;background-position:50%;background-repeat:no-repeat;border:0;cursor:pointer;text-indent:-9999px}.choices__button:focus,.choices__input:focus{outline:0}.choices__input{background-color:#f9f9f9;border:0;border-radius:0;display:inline-block;font-size:14px;margin-bottom:5px;max-width:100%;padding:4px 0 4px 2px;vertical-align:baseline}.choices__input::-webkit-search-cancel-button,.choices__input::-webkit-search-decoration,.choices__input::-webkit-search-results-button,.choices__input::-webkit-search-results-decoration{display:none}.choices__input::-ms-clear,.choices__input::-ms-reveal{display:none;height:0;width:0}[dir=rtl] .choices__input{padding-left:0;padding-right:2px}.choices__placeholder{opacity:.5}';x(O);var N={choices:{minSearchLength:3,debounceTime:300},display:{modalMaxHeight:.9},endpoints:{bootstrap:"rest/identitypicker/api/bootstrap",permissions:"rest/identitypicker/api/permissions",search:"rest/identitypicker/api/search",identity:"rest/identitypicker/api/identity",rules:"rest/identitypicker/api/rules",history:"history",changes:"changes",tasks:"tasks",full:"full",batch:"batch",countries:"rest/geocodesclient/api/v1/countries",cities:"rest/geocodesclient/api/v1/cities"},batchSize:10,autoFill:!1,selection:!0,cuid:null,fieldMapping:{}};function j(e,t){var i;return function(){for(var n=this,r=arguments.length,o=new Array(r),a=0;a<r;a++)o[a]=arguments[a];clearTimeout(i),i=setTimeout(function(){return e.apply(n,o)},t)}}function B(e,t){var i=e.attributes.find(function(e){return e.key===t});return i?i.value:""}function R(e){var t=parseFloat(e);return t>=80?"ip-percentage-high":t>=30?"ip-percentage-medium":"ip-percentage-low"}function q(e,t,i,n){var r=i.processList.processus.find(function(e){return e.code===t});if(r){var o=r.attributeCertificationLevels.find(function(t){return t.attributeKey===e});if(o)return{label:r.label,description:o.level.description}}return{label:t,description:n.certificationUnavailable}}function H(e,t,i){var n=i.attributeKeyList.attributeKeys.find(function(t){return t.keyName===e});if(n&&n.values){var r=n.values.find(function(e){return e.value===t});return r?r.label:t}return t}function V(e){return new Date(e).toLocaleDateString("fr-FR")}function z(e){return e?e.split(" ").map(function(e){return e.charAt(0).toUpperCase()+e.slice(1).toLowerCase()}).join(" "):""}function K(e){return e.normalize("NFD").replace(/[\u0300-\u036f]/g,"")}var $=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.uniqueId=t.uniqueId,this.emailForm=null,this.nameForm=null},[{key:"initSearchView",value:(o=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.n){case 0:return t=this.identityPicker.searchContainer,i='<svg xmlns="http://www.w3.org/2000/svg" width="16" height="16" fill="currentColor" viewBox="0 0 16 16"><path d="M11.742 10.344a6.5 6.5 0 1 0-1.397 1.398h-.001c.03.04.062.078.098.115l3.85 3.85a1 1 0 0 0 1.415-1.414l-3.85-3.85a1.007 1.007 0 0 0-.115-.1zM12 6.5a5.5 5.5 0 1 1-11 0 5.5 5.5 0 0 1 11 0z"/></svg>',t.innerHTML='\n            <div class="ip-search-option">\n                <label>\n                    <input type="radio" name="searchType" value="email">\n                    <span>'.concat(this.identityPicker.rules.language.searchByEmail,'</span>\n                </label>\n                <label>\n                    <input type="radio" name="searchType" value="name" checked>\n                    <span>').concat(this.identityPicker.rules.language.searchByName,'</span>\n                </label>\n            </div>\n            <form id="ip-email-form-').concat(this.uniqueId,'" style="display: none;">\n                <div class="ip-input-group">\n                    <label for="ip-email-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.emailPlaceholder,'</label>\n                    <input id="ip-email-input-').concat(this.uniqueId,'" type="email" name="email" required>\n                </div>\n                <div class="ip-container-buttons">\n                    <button class="ip-button-light ip-button-close" type="button">').concat(this.identityPicker.rules.language.closeButton,'</button>\n                    <button type="submit">').concat(i," ").concat(this.identityPicker.rules.language.searchButton,'</button>\n                </div>\n            </form>\n            <form id="ip-name-form-').concat(this.uniqueId,'">\n                <div class="ip-input-group">\n                    <label for="ip-lastname-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.lastNamePlaceholder,'</label>\n                    <input id="ip-lastname-input-').concat(this.uniqueId,'" type="text" name="lastName" required>\n                </div>\n                <div class="ip-input-group">\n                    <label for="ip-firstname-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.firstNamePlaceholder,'</label>\n                    <input id="ip-firstname-input-').concat(this.uniqueId,'" type="text" name="firstName" required>\n                </div>\n                <div class="ip-input-group">\n                    <label for="ip-birthdate-input-').concat(this.uniqueId,'">').concat(this.identityPicker.rules.language.birthdatePlaceholder,'</label>\n                    <input id="ip-birthdate-input-').concat(this.uniqueId,'" type="date" placeholder="').concat(this.identityPicker.rules.language.birthdatePlaceholder,'" name="birthdate" required>\n                </div>\n                <div class="ip-container-buttons">\n                    <button class="ip-button-light ip-button-close" type="button">').concat(this.identityPicker.rules.language.closeButton,'</button>\n                    <button type="submit">').concat(i," ").concat(this.identityPicker.rules.language.searchButton,"</button>\n                </div>\n            </form>\n        "),this.emailForm=t.querySelector("#ip-email-form-".concat(this.uniqueId)),this.nameForm=t.querySelector("#ip-name-form-".concat(this.uniqueId)),this.closeBtns=t.querySelectorAll(".ip-button-close"),e.n=1,this.setupSearchForms();case 1:return e.n=2,this.setupResultsClickHandler();case 2:return e.a(2)}},e,this)})),function(){return o.apply(this,arguments)})},{key:"setupSearchForms",value:(n=i(f().m(function e(){var t=this;return f().w(function(e){for(;;)switch(e.n){case 0:this.identityPicker.searchContainer.querySelectorAll('input[name="searchType"]').forEach(function(e){e.addEventListener("change",function(){return t.toggleSearchForm(e.value)})}),this.emailForm.addEventListener("submit",function(e){e.preventDefault(),t.performSearch(new FormData(t.emailForm),"email")}),this.nameForm.addEventListener("submit",function(e){e.preventDefault(),t.performSearch(new FormData(t.nameForm),"name")}),this.closeBtns.forEach(function(e){e.addEventListener("click",function(){return t.identityPicker.closeModal()})});case 1:return e.a(2)}},e,this)})),function(){return n.apply(this,arguments)})},{key:"toggleSearchForm",value:function(e){this.emailForm.style.display="email"===e?"block":"none",this.nameForm.style.display="name"===e?"block":"none",this.identityPicker.adjustModalHeight()}},{key:"performSearch",value:(t=i(f().m(function e(t,i){var n,r,o,a;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),n=this.buildSearchUrl(t,i),e.p=1,e.n=2,fetch(n);case 2:if(404!==(r=e.v).status){e.n=3;break}return this.displayResults([]),e.a(2);case 3:if(r.ok){e.n=4;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(r.status));case 4:return e.n=5,r.json();case 5:o=e.v,this.displayResults(o),e.n=7;break;case 6:e.p=6,a=e.v,console.error(this.identityPicker.rules.language.fetchError,a),this.identityPicker.showMessage("errorMessage","error",a.message);case 7:return e.p=7,this.identityPicker.hideLoading(),e.f(7);case 8:return e.a(2)}},e,this,[[1,6,7,8]])})),function(e,i){return t.apply(this,arguments)})},{key:"buildSearchUrl",value:function(e,t){var i=this.identityPicker.config.endpoints.search+"?";if("email"===t)return"".concat(i,"common_email=").concat(encodeURIComponent(e.get("email")));var n=V(e.get("birthdate"));return"".concat(i,"common_lastname=").concat(e.get("lastName"),"&first_name=").concat(e.get("firstName"),"&birthdate=").concat(n)}},{key:"displayResults",value:function(e){var t=this,i=this.identityPicker.resultsContainer;if(0===e.length){if(!this.identityPicker.permissions.creation)return void this.identityPicker.showMessage("noResults","info");var n=this.getSearchData(),r=this.buildSearchCriteriaHTML(n),o=this.identityPicker.rules.language.noResults||"Aucun résultat trouvé";i.innerHTML="\n                ".concat(r,'\n                <div class="ip-info-message info" style="margin-top: 20px;">\n                    <p class="ip-info-message-main">').concat(o,"</p>\n                </div>\n            ")}else{var a=this.getSearchData(),s=this.buildSearchCriteriaHTML(a),c=e.map(function(e){return t.createResultItem(e)}).join("");i.innerHTML="\n                ".concat(s,'\n                <ul class="ip-results-list">').concat(c,"</ul>\n            ")}this.addActionButtons(e),this.identityPicker.showResultsView(),this.identityPicker.adjustModalHeight()}},{key:"buildSearchCriteriaHTML",value:function(e){if("email"===this.identityPicker.searchContainer.querySelector('input[name="searchType"]:checked').value){var t=this.identityPicker.shadowRoot.querySelector("#ip-email-input-".concat(this.uniqueId)),i=t?t.value:"";return i?'\n                <div class="ip-search-criteria">\n                    <p>'.concat(this.identityPicker.rules.language.searchCriteriaTitle||"Résultats pour",':</p>\n                    <div class="ip-criteria-tags">\n                        <span class="ip-tag ip-tag-criteria">\n                            <strong>').concat(this.identityPicker.rules.language.emailPlaceholder,":</strong> ").concat(i,"\n                        </span>\n                    </div>\n                </div>\n            "):""}if(!e.firstName&&!e.lastName&&!e.birthdate)return"";var n=[];return e.lastName&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.lastNamePlaceholder,":</strong> ").concat(e.lastName,"\n                    </span>\n                ")),e.firstName&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.firstNamePlaceholder,":</strong> ").concat(e.firstName,"\n                    </span>\n                ")),e.birthdate&&n.push('\n                    <span class="ip-tag ip-tag-criteria">\n                        <strong>'.concat(this.identityPicker.rules.language.birthdatePlaceholder,":</strong> ").concat(V(e.birthdate),"\n                    </span>\n                ")),'\n                <div class="ip-search-criteria">\n                    <p>'.concat(this.identityPicker.rules.language.searchCriteriaTitle||"Résultats pour",':</p>\n                    <div class="ip-criteria-tags">\n                        ').concat(n.join(""),"\n                    </div>\n                </div>\n            ")}},{key:"createResultItem",value:function(e){var t=this.getSearchData(),i=B(e,"first_name"),n=B(e,"family_name"),r=B(e,"preferred_username"),o=B(e,"birthdate"),a=B(e,"gender"),s=B(e,"birthcountry"),c=B(e,"birthplace"),l="ND";"1"===a?l="M":"2"===a&&(l="F");var u=n.toUpperCase(),d=z(i),h=r?r.toUpperCase():"",p="email"===this.identityPicker.searchContainer.querySelector('input[name="searchType"]:checked').value,f=!p&&this.isApproximateMatch(t.lastName,n),g=!p&&this.isApproximateMatch(t.firstName,i),m="".concat(l," ").concat(f?'<span class="ip-approximate">'.concat(u,"</span>"):u," ").concat(g?'<span class="ip-approximate">'.concat(d,"</span>"):d),v=h?'<div class="ip-preferred-name">'.concat(h,"</div>"):"",y=[o,s,c].filter(Boolean).join(" | "),b='\n            <span class="ip-info-tag '.concat(e.mon_paris_active?"ip-tag-success":"ip-tag-error",'">\n                <strong>').concat(this.identityPicker.rules.language.monParisAccount,"</strong> ").concat(e.mon_paris_active?this.identityPicker.rules.language.active:e.expiration&&e.expiration.delete_date?"".concat(this.identityPicker.rules.language.inactive," (Supprimé)"):this.identityPicker.rules.language.inactive,"\n            </span>\n        ");return'\n            <li class="ip-result-item" data-customer-id="'.concat(e.customer_id,'">\n                <div class="ip-result-left">\n                    <div class="ip-result-header">\n                        <h3>').concat(m,"</h3>\n                        ").concat(v,'\n                    </div>\n                    <div class="ip-result-details">\n                        <p>').concat(y,'</p>\n                    </div>\n                </div>\n                <div class="ip-result-right">\n                    ').concat(b,"\n                </div>\n            </li>\n        ")}},{key:"isApproximateMatch",value:function(e,t){if(!e||!t)return!1;var i=K(e.toLowerCase()),n=K(t.toLowerCase());if(i===n)return!1;var r,o=i.split(/\s+/),a=n.split(/\s+/),c=s(o);try{for(c.s();!(r=c.n()).done;){var l=r.value;if(!(l.length<3)&&!n.includes(l))return!0}}catch(e){c.e(e)}finally{c.f()}var u,d=s(a);try{for(d.s();!(u=d.n()).done;){var h=u.value;if(!(h.length<3)&&!i.includes(h))return!0}}catch(e){d.e(e)}finally{d.f()}return Math.abs(i.length-n.length)>3}},{key:"addActionButtons",value:function(e){var t=this,i=e.length>1,n=this.identityPicker.permissions.creation;if(i||n){var r=document.createElement("div");if(r.classList.add("ip-container-buttons"),i){var o=document.createElement("button");o.textContent=this.identityPicker.rules.language.compareButton,o.classList.add("ip-button-light"),o.addEventListener("click",function(){return t.identityPicker.identityCompare.loadCompareView(e)}),r.appendChild(o)}if(n){var a=document.createElement("button");a.textContent=this.identityPicker.rules.language.createButton,a.classList.add("ip-create-button"),a.addEventListener("click",function(){return t.identityPicker.showIdentityFormView()}),r.appendChild(a)}this.identityPicker.resultsContainer.appendChild(r)}}},{key:"setupResultsClickHandler",value:(e=i(f().m(function e(){var t=this;return f().w(function(e){for(;;)switch(e.n){case 0:this.identityPicker.resultsContainer.addEventListener("click",function(e){var i=e.target.closest(".ip-result-item");i&&t.identityPicker.showDetailsView(i.dataset.customerId,"results")});case 1:return e.a(2)}},e,this)})),function(){return e.apply(this,arguments)})},{key:"getSearchData",value:function(){var e=this.identityPicker.shadowRoot.querySelector("#ip-name-form-".concat(this.uniqueId));return{firstName:e.querySelector('input[name="firstName"]').value,lastName:e.querySelector('input[name="lastName"]').value,birthdate:e.querySelector('input[name="birthdate"]').value}}},{key:"resetForms",value:function(){this.emailForm&&this.emailForm.reset(),this.nameForm&&this.nameForm.reset();var e=this.identityPicker.searchContainer.querySelector('input[name="searchType"][value="name"]');e&&(e.checked=!0,this.toggleSearchForm("name"))}}]);var e,t,n,o}(),G=function(){return a(function e(t){r(this,e),this.identityPicker=t},[{key:"autoFillIdentity",value:(n=i(f().m(function e(t){var i,n,r,o;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 3:return e.n=4,n.json();case 4:r=e.v,this.fillFields(r),e.n=6;break;case 5:e.p=5,o=e.v,console.error(this.identityPicker.rules.language.fetchError,o);case 6:return e.a(2)}},e,this,[[1,5]])})),function(e){return n.apply(this,arguments)})},{key:"loadIdentityDetails",value:(t=i(f().m(function e(t){var i,n,r,o,a,s;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(),i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw n;case 3:return e.n=4,n.json();case 4:r=e.v,this.displayIdentityDetails(r),e.n=6;break;case 5:e.p=5,s=e.v,console.error(this.identityPicker.rules.language.fetchError,s),o=s instanceof Response?403===s.status?"".concat(this.identityPicker.rules.language.httpError," 403"):"".concat(this.identityPicker.rules.language.httpError," ").concat(s.status):s.message,a=o.includes("403")?"noPermissions":"errorMessage",this.identityPicker.showMessage(a,"error",o);case 6:return e.p=6,this.identityPicker.hideLoading(),e.f(6);case 7:return e.a(2)}},e,this,[[1,5,6,7]])})),function(e){return t.apply(this,arguments)})},{key:"displayIdentityDetails",value:function(e){var t=this.identityPicker.detailsContainer,i=B(e,"first_name"),n=B(e,"family_name"),r=B(e,"preferred_username"),o=this.generateHeaderHTML(e,i,n,r),a=this.generateAttributesTable(e);t.innerHTML=o+a,this.setupButtons(e)}},{key:"generateHeaderHTML",value:function(e,t,i,n){var r=this.identityPicker.modal.getAttribute("data-cuid")!==e.customer_id,o=e.attributes.find(function(e){return"email"===e.key}),a=o&&o.value&&""!==o.value.trim(),s=o&&"DEC"===o.certProcess,c=a&&s&&this.identityPicker.permissions.create_task,l=this.canCreateAccount(e)&&this.identityPicker.permissions.create_task;return'\n            <div class="ip-container-header">\n                <div>\n                    <h3 class="ip-truncate">'.concat(t," ").concat(i).concat(n?" (<i>".concat(n.toUpperCase(),"</i>)"):"",'</h3>\n                    <p class="ip-truncate ip-description">').concat(e.customer_id,"</p>\n                    ").concat(c?'<button class="ip-validate-email-btn ip-button-mini ip-button-yellow">⚠️ '.concat(this.identityPicker.rules.language.validateEmailButton,"</button>"):"",'\n                </div>\n                <div class="ip-container-header-btns">\n                    <button class="ip-history-btn">').concat(this.identityPicker.rules.language.historyButton,"</button>\n                    ").concat(this.identityPicker.permissions.update?'<button class="ip-modify-btn">'.concat(this.identityPicker.rules.language.modifyButton,"</button>"):"","\n                    ").concat(Object.keys(this.identityPicker.config.fieldMapping||{}).length>0&&this.identityPicker.config.selection?'<button class="ip-select-btn" '.concat(r?"":"disabled",">").concat("".concat(r?this.identityPicker.rules.language.selectButton:this.identityPicker.rules.language.selectedButton),"</button>"):"",'\n                </div>\n            </div>\n            <div class="ip-info-tags">\n                <span class="ip-info-tag ip-tag-default">\n                    <strong>').concat(this.identityPicker.rules.language.creationDate,"</strong> ").concat(V(e.creation_date),'\n                </span>\n                <span class="ip-info-tag ip-tag-default">\n                    <strong>').concat(this.identityPicker.rules.language.lastUpdateDate,"</strong> ").concat(V(e.last_update_date),'\n                </span>\n                <span class="ip-info-tag ').concat(e.mon_paris_active?"ip-tag-success":"ip-tag-error",'">\n                    <strong>').concat(this.identityPicker.rules.language.monParisAccount,"</strong> ").concat(e.mon_paris_active?this.identityPicker.rules.language.active:e.expiration&&e.expiration.delete_date?"".concat(this.identityPicker.rules.language.inactive," (Supprimé)"):this.identityPicker.rules.language.inactive," ").concat(!e.mon_paris_active&&l?'<button class="ip-create-account-btn ip-button-mini ip-button-red">'.concat(this.identityPicker.rules.language.createAccountButton,"</button>"):"",'\n                </span>\n                <span class="ip-info-tag ').concat(this.getCoverageClass(e.quality.coverage),'">\n                    <strong>').concat(this.identityPicker.rules.language.coverage,"</strong> ").concat(1===e.quality.coverage?"Informations Complètes":"Informations à compléter","\n                </span>\n            </div>")}},{key:"generateAttributesTable",value:function(e){for(var t=this,i=this.identityPicker.rules.contract.attributeDefinitions.filter(function(e){return e.attributeRight.readable}).map(function(t){var i=e.attributes.find(function(e){return e.key===t.keyName});return{name:t.name,key:t.keyName,value:i?i.value:"",certification:i?i.certProcess:""}}),n=this.groupAttributes(i),r='\n            <table class="ip-table">\n                <tbody>',o=0,a=Object.entries(n);o<a.length;o++){var s=v(a[o],2),c=s[0],l=s[1];if(l.length>0){var u="other"===c?this.identityPicker.rules.language.otherGroup:this.identityPicker.rules.language["".concat(c,"Group")];r+='\n                    <tr class="ip-group-separator">\n                        <td class="ip-table-separator" colspan="3">'.concat(u,"</td>\n                    </tr>"),l.forEach(function(e){var i=q(e.key,e.certification,t.identityPicker.rules.referential,t.identityPicker.rules.language),n=H(e.key,e.value,t.identityPicker.rules.referential);"preferred_username"===e.key&&n&&(n="<i>".concat(n.toUpperCase(),"</i>")),r+="\n                        <tr>\n                            <td>".concat(e.name,"</td>\n                            <td><strong>").concat(n,'</strong></td>\n                            <td>\n                                <span title="').concat(i.description,'">').concat(i.label,"</span>\n                            </td>\n                        </tr>")})}}if(r+='\n                    <tr class="ip-group-separator">\n                        <td class="ip-table-separator" colspan="3">Informations complémentaires</td>\n                    </tr>',e.expiration&&e.expiration.delete_date&&(r+="\n                        <tr>\n                            <td>Date de demande suppression</td>\n                            <td><strong>".concat(V(e.expiration.delete_date),"</strong></td>\n                            <td></td>\n                        </tr>")),e.quality&&void 0!==e.quality.scoring){var d=(100*e.quality.scoring).toFixed(2),h=R(d);r+='\n                        <tr>\n                            <td>Score</td>\n                            <td class="'.concat(h,'"><strong>').concat(d,"%</strong></td>\n                            <td></td>\n                        </tr>")}if(e.quality&&void 0!==e.quality.quality){var p=(100*e.quality.quality).toFixed(2),f=R(p);r+='\n                        <tr>\n                            <td>Qualité</td>\n                            <td class="'.concat(f,'"><strong>').concat(p,"%</strong></td>\n                            <td></td>\n                        </tr>")}return r+="\n                </tbody>\n            </table>"}},{key:"canCreateAccount",value:function(e){if(e.mon_paris_active)return!1;var t,i=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName}).sort(function(e,t){return e.localeCompare(t)}),n=null,r=s(i);try{var o,a=function(){var i=t.value,r=e.attributes.find(function(e){return e.key===i});return"birthcountry_code"===i&&r&&(n=r.value),"birthplace_code"===i&&n&&"99100"!==n?0:r&&"ORIG1"===r.certProcess?void 0:{v:!1}};for(r.s();!(t=r.n()).done;)if(0!==(o=a())&&o)return o.v}catch(e){r.e(e)}finally{r.f()}return!0}},{key:"groupAttributes",value:function(e){var t=this,i={};return Object.keys(this.identityPicker.config.attributeGroups).forEach(function(e){i[e]=[]}),i.other=[],e.forEach(function(e){for(var n=!1,r=0,o=Object.entries(t.identityPicker.config.attributeGroups);r<o.length;r++){var a=v(o[r],2),s=a[0];if(a[1].attributes.includes(e.key)){i[s].push(e),n=!0;break}}n||i.other.push(e)}),Object.keys(i).forEach(function(e){"other"!==e&&i[e].sort(function(i,n){return t.identityPicker.config.attributeGroups[e].attributes.indexOf(i.key)-t.identityPicker.config.attributeGroups[e].attributes.indexOf(n.key)})}),i}},{key:"getCoverageClass",value:function(e){return e<.5?"ip-tag-error":e<.8?"ip-tag-warning":"ip-tag-success"}},{key:"fillFields",value:function(e){for(var t=function(){var t=v(n[i],2),r=t[0],o=t[1],a=document.getElementById(r);if(a){var s;if(o in e)s=e[o];else{var c=e.attributes.find(function(e){return e.key===o});s=c?c.value:""}a instanceof HTMLInputElement||a instanceof HTMLSelectElement?a.value=s:a.textContent=s}},i=0,n=Object.entries(this.identityPicker.config.fieldMapping);i<n.length;i++)t();this.identityPicker.modal.setAttribute("data-cuid",e.customer_id),this.identityPicker.closeModal()}},{key:"setupButtons",value:function(e){var t=this,i=this.identityPicker.detailsContainer,n=i.querySelector(".ip-modify-btn"),r=i.querySelector(".ip-select-btn"),o=i.querySelector(".ip-history-btn"),a=i.querySelector(".ip-create-account-btn"),s=i.querySelector(".ip-validate-email-btn");null==n||n.addEventListener("click",function(){t.identityPicker.showIdentityFormView(e.customer_id)}),null==r||r.addEventListener("click",function(){t.fillFields(e)}),null==o||o.addEventListener("click",function(){t.identityPicker.identityHistory.loadGlobalHistory(e.customer_id)}),null==a||a.addEventListener("click",function(){t.identityPicker.showConfirmDialog(t.identityPicker.rules.language.createAccountConfirmTitle||"Create Account",t.identityPicker.rules.language.createAccountConfirmMessage||"Are you sure you want to create an account for this identity?",function(){return t.createIdentityTask(e.customer_id,"create-account-task")})}),null==s||s.addEventListener("click",function(){t.identityPicker.showConfirmDialog(t.identityPicker.rules.language.validateEmailConfirmTitle||"Validate Email",t.identityPicker.rules.language.validateEmailConfirmMessage||"Are you sure you want to validate the email for this identity?",function(){return t.createIdentityTask(e.customer_id,"validate-email-task")})})}},{key:"createIdentityTask",value:(e=i(f().m(function e(t,i){var n,r,o,a,s,c,l,u,d,h;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,n="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/tasks/").concat(i),e.n=1,fetch(n,{method:"POST",headers:{"Content-Type":"application/json"}});case 1:return r=e.v,e.n=2,r.json();case 2:if(o=e.v,r.ok){e.n=3;break}return a=o.status&&o.status.message?o.status.message:this.identityPicker.rules.language.fetchError,this.identityPicker.showMessage(this.identityPicker.rules.language.taskCreationFailed,"error",a),e.a(2);case 3:s=o.task_code,c=this.identityPicker.rules.language.taskCreationSuccess,l="".concat(this.identityPicker.rules.language.taskCode,": ").concat(s),this.identityPicker.showMessage(c,"success",l),e.n=11;break;case 4:if(e.p=4,h=e.v,console.error(this.identityPicker.rules.language.fetchError,h),!(h instanceof Response)){e.n=9;break}return e.p=5,e.n=6,h.json();case 6:d=e.v,u=d.status&&d.status.message?d.status.message:h.statusText||this.identityPicker.rules.language.fetchError,e.n=8;break;case 7:e.p=7,e.v,u=h.statusText||this.identityPicker.rules.language.fetchError;case 8:e.n=10;break;case 9:u=h.message||this.identityPicker.rules.language.fetchError;case 10:this.identityPicker.showMessage(this.identityPicker.rules.language.taskCreationFailed,"error",u);case 11:return e.a(2)}},e,this,[[5,7],[0,4]])})),function(t,i){return e.apply(this,arguments)})}]);var e,t,n}(),W=function(e,t){return W=Object.setPrototypeOf||{__proto__:[]}instanceof Array&&function(e,t){e.__proto__=t}||function(e,t){for(var i in t)Object.prototype.hasOwnProperty.call(t,i)&&(e[i]=t[i])},W(e,t)};function U(e,t){if("function"!=typeof t&&null!==t)throw new TypeError("Class extends value "+String(t)+" is not a constructor or null");function i(){this.constructor=e}W(e,t),e.prototype=null===t?Object.create(t):(i.prototype=t.prototype,new i)}var J=function(){return J=Object.assign||function(e){for(var t,i=1,n=arguments.length;i<n;i++)for(var r in t=arguments[i])Object.prototype.hasOwnProperty.call(t,r)&&(e[r]=t[r]);return e},J.apply(this,arguments)};function Y(e,t,i){for(var n,r=0,o=t.length;r<o;r++)!n&&r in t||(n||(n=Array.prototype.slice.call(t,0,r)),n[r]=t[r]);return e.concat(n||Array.prototype.slice.call(t))}"function"==typeof SuppressedError&&SuppressedError;var Z,Q="ADD_CHOICE",X="REMOVE_CHOICE",ee="FILTER_CHOICES",te="ACTIVATE_CHOICES",ie="CLEAR_CHOICES",ne="ADD_GROUP",re="ADD_ITEM",oe="REMOVE_ITEM",ae="HIGHLIGHT_ITEM",se="showDropdown",ce="hideDropdown",le="change",ue="choice",de="search",he="addItem",pe="removeItem",fe="highlightItem",ge="highlightChoice",me="unhighlightItem",ve=9,ye=16,be=46,ke=8,_e=13,xe=65,we=27,Ce=38,Ee=40,Se=33,Pe=34,Ae=["fuseOptions","classNames"],Me="text",Le="select-one",Ie="select-multiple",Te=function(e){return{type:Q,choice:e}},Fe=function(e){return{type:re,item:e}},De=function(e){return{type:oe,item:e}},Oe=function(e,t){return{type:ae,item:e,highlighted:t}},Ne=function(e){return Array.from({length:e},function(){return(e=0,t=36,Math.floor(Math.random()*(t-e)+e)).toString(36);var e,t}).join("")},je=function(e){if("string"!=typeof e){if(null==e)return"";if("object"===k(e)){if("raw"in e)return je(e.raw);if("trusted"in e)return e.trusted}return e}return e.replace(/&/g,"&amp;").replace(/>/g,"&gt;").replace(/</g,"&lt;").replace(/'/g,"&#039;").replace(/"/g,"&quot;")},Be=(Z=document.createElement("div"),function(e){Z.innerHTML=e.trim();for(var t=Z.children[0];Z.firstChild;)Z.removeChild(Z.firstChild);return t}),Re=function(e,t){return"function"==typeof e?e(je(t),t):e},qe=function(e){return"function"==typeof e?e():e},He=function(e){if("string"==typeof e)return e;if("object"===k(e)){if("trusted"in e)return e.trusted;if("raw"in e)return e.raw}return""},Ve=function(e){if("string"==typeof e)return e;if("object"===k(e)){if("escaped"in e)return e.escaped;if("trusted"in e)return e.trusted}return""},ze=function(e,t){return e?Ve(t):je(t)},Ke=function(e,t,i){e.innerHTML=ze(t,i)},$e=function(e,t){return e.rank-t.rank},Ge=function(e){return Array.isArray(e)?e:[e]},We=function(e){return e&&Array.isArray(e)?e.map(function(e){return".".concat(e)}).join(""):".".concat(e)},Ue=function(e,t){var i;(i=e.classList).add.apply(i,Ge(t))},Je=function(e,t){var i;(i=e.classList).remove.apply(i,Ge(t))},Ye=function(e){if(void 0!==e)try{return JSON.parse(e)}catch(t){return e}return{}},Ze=function(){function e(e){var t=e.element,i=e.type,n=e.classNames;this.element=t,this.classNames=n,this.type=i,this.isActive=!1}return e.prototype.show=function(){return Ue(this.element,this.classNames.activeState),this.element.setAttribute("aria-expanded","true"),this.isActive=!0,this},e.prototype.hide=function(){return Je(this.element,this.classNames.activeState),this.element.setAttribute("aria-expanded","false"),this.isActive=!1,this},e}(),Qe=function(){function e(e){var t=e.element,i=e.type,n=e.classNames,r=e.position;this.element=t,this.classNames=n,this.type=i,this.position=r,this.isOpen=!1,this.isFlipped=!1,this.isDisabled=!1,this.isLoading=!1}return e.prototype.shouldFlip=function(e,t){var i=!1;return"auto"===this.position?i=this.element.getBoundingClientRect().top-t>=0&&!window.matchMedia("(min-height: ".concat(e+1,"px)")).matches:"top"===this.position&&(i=!0),i},e.prototype.setActiveDescendant=function(e){this.element.setAttribute("aria-activedescendant",e)},e.prototype.removeActiveDescendant=function(){this.element.removeAttribute("aria-activedescendant")},e.prototype.open=function(e,t){Ue(this.element,this.classNames.openState),this.element.setAttribute("aria-expanded","true"),this.isOpen=!0,this.shouldFlip(e,t)&&(Ue(this.element,this.classNames.flippedState),this.isFlipped=!0)},e.prototype.close=function(){Je(this.element,this.classNames.openState),this.element.setAttribute("aria-expanded","false"),this.removeActiveDescendant(),this.isOpen=!1,this.isFlipped&&(Je(this.element,this.classNames.flippedState),this.isFlipped=!1)},e.prototype.addFocusState=function(){Ue(this.element,this.classNames.focusState)},e.prototype.removeFocusState=function(){Je(this.element,this.classNames.focusState)},e.prototype.enable=function(){Je(this.element,this.classNames.disabledState),this.element.removeAttribute("aria-disabled"),this.type===Le&&this.element.setAttribute("tabindex","0"),this.isDisabled=!1},e.prototype.disable=function(){Ue(this.element,this.classNames.disabledState),this.element.setAttribute("aria-disabled","true"),this.type===Le&&this.element.setAttribute("tabindex","-1"),this.isDisabled=!0},e.prototype.wrap=function(e){var t=this.element,i=e.parentNode;i&&(e.nextSibling?i.insertBefore(t,e.nextSibling):i.appendChild(t)),t.appendChild(e)},e.prototype.unwrap=function(e){var t=this.element,i=t.parentNode;i&&(i.insertBefore(e,t),i.removeChild(t))},e.prototype.addLoadingState=function(){Ue(this.element,this.classNames.loadingState),this.element.setAttribute("aria-busy","true"),this.isLoading=!0},e.prototype.removeLoadingState=function(){Je(this.element,this.classNames.loadingState),this.element.removeAttribute("aria-busy"),this.isLoading=!1},e}(),Xe=function(){function e(e){var t=e.element,i=e.type,n=e.classNames,r=e.preventPaste;this.element=t,this.type=i,this.classNames=n,this.preventPaste=r,this.isFocussed=this.element.isEqualNode(document.activeElement),this.isDisabled=t.disabled,this._onPaste=this._onPaste.bind(this),this._onInput=this._onInput.bind(this),this._onFocus=this._onFocus.bind(this),this._onBlur=this._onBlur.bind(this)}return Object.defineProperty(e.prototype,"placeholder",{set:function(e){this.element.placeholder=e},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"value",{get:function(){return this.element.value},set:function(e){this.element.value=e},enumerable:!1,configurable:!0}),e.prototype.addEventListeners=function(){var e=this.element;e.addEventListener("paste",this._onPaste),e.addEventListener("input",this._onInput,{passive:!0}),e.addEventListener("focus",this._onFocus,{passive:!0}),e.addEventListener("blur",this._onBlur,{passive:!0})},e.prototype.removeEventListeners=function(){var e=this.element;e.removeEventListener("input",this._onInput),e.removeEventListener("paste",this._onPaste),e.removeEventListener("focus",this._onFocus),e.removeEventListener("blur",this._onBlur)},e.prototype.enable=function(){this.element.removeAttribute("disabled"),this.isDisabled=!1},e.prototype.disable=function(){this.element.setAttribute("disabled",""),this.isDisabled=!0},e.prototype.focus=function(){this.isFocussed||this.element.focus()},e.prototype.blur=function(){this.isFocussed&&this.element.blur()},e.prototype.clear=function(e){return void 0===e&&(e=!0),this.element.value="",e&&this.setWidth(),this},e.prototype.setWidth=function(){var e=this.element;e.style.minWidth="".concat(e.placeholder.length+1,"ch"),e.style.width="".concat(e.value.length+1,"ch")},e.prototype.setActiveDescendant=function(e){this.element.setAttribute("aria-activedescendant",e)},e.prototype.removeActiveDescendant=function(){this.element.removeAttribute("aria-activedescendant")},e.prototype._onInput=function(){this.type!==Le&&this.setWidth()},e.prototype._onPaste=function(e){this.preventPaste&&e.preventDefault()},e.prototype._onFocus=function(){this.isFocussed=!0},e.prototype._onBlur=function(){this.isFocussed=!1},e}(),et=function(){function e(e){var t=e.element;this.element=t,this.scrollPos=this.element.scrollTop,this.height=this.element.offsetHeight}return e.prototype.prepend=function(e){var t=this.element.firstElementChild;t?this.element.insertBefore(e,t):this.element.append(e)},e.prototype.scrollToTop=function(){this.element.scrollTop=0},e.prototype.scrollToChildElement=function(e,t){var i=this;if(e){var n=this.element.offsetHeight,r=this.element.scrollTop+n,o=e.offsetHeight,a=e.offsetTop+o,s=t>0?this.element.scrollTop+a-r:e.offsetTop;requestAnimationFrame(function(){i._animateScroll(s,t)})}},e.prototype._scrollDown=function(e,t,i){var n=(i-e)/t,r=n>1?n:1;this.element.scrollTop=e+r},e.prototype._scrollUp=function(e,t,i){var n=(e-i)/t,r=n>1?n:1;this.element.scrollTop=e-r},e.prototype._animateScroll=function(e,t){var i=this,n=this.element.scrollTop,r=!1;t>0?(this._scrollDown(n,4,e),n<e&&(r=!0)):(this._scrollUp(n,4,e),n>e&&(r=!0)),r&&requestAnimationFrame(function(){i._animateScroll(e,t)})},e}(),tt=function(){function e(e){var t=e.element,i=e.classNames;this.element=t,this.classNames=i,this.isDisabled=!1}return Object.defineProperty(e.prototype,"isActive",{get:function(){return"active"===this.element.dataset.choice},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"dir",{get:function(){return this.element.dir},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"value",{get:function(){return this.element.value},set:function(e){this.element.setAttribute("value",e),this.element.value=e},enumerable:!1,configurable:!0}),e.prototype.conceal=function(){var e=this.element;Ue(e,this.classNames.input),e.hidden=!0,e.tabIndex=-1;var t=e.getAttribute("style");t&&e.setAttribute("data-choice-orig-style",t),e.setAttribute("data-choice","active")},e.prototype.reveal=function(){var e=this.element;Je(e,this.classNames.input),e.hidden=!1,e.removeAttribute("tabindex");var t=e.getAttribute("data-choice-orig-style");t?(e.removeAttribute("data-choice-orig-style"),e.setAttribute("style",t)):e.removeAttribute("style"),e.removeAttribute("data-choice")},e.prototype.enable=function(){this.element.removeAttribute("disabled"),this.element.disabled=!1,this.isDisabled=!1},e.prototype.disable=function(){this.element.setAttribute("disabled",""),this.element.disabled=!0,this.isDisabled=!0},e.prototype.triggerEvent=function(e,t){!function(e,t,i){void 0===i&&(i=null);var n=new CustomEvent(t,{detail:i,bubbles:!0,cancelable:!0});e.dispatchEvent(n)}(this.element,e,t||{})},e}(),it=function(e){function t(){return null!==e&&e.apply(this,arguments)||this}return U(t,e),t}(tt),nt=function(e,t){return void 0===t&&(t=!0),void 0===e?t:!!e},rt=function(e){if("string"==typeof e&&(e=e.split(" ").filter(function(e){return e.length})),Array.isArray(e)&&e.length)return e},ot=function(e,t,i){if(void 0===i&&(i=!0),"string"==typeof e){var n=je(e);return ot({value:e,label:i||n===e?e:{escaped:n,raw:e},selected:!0},!1)}var r=e;if("choices"in r){if(!t)throw new TypeError("optGroup is not allowed");var o=r,a=o.choices.map(function(e){return ot(e,!1)});return{id:0,label:He(o.label)||o.value,active:!!a.length,disabled:!!o.disabled,choices:a}}var s=r;return{id:0,group:null,score:0,rank:0,value:s.value,label:s.label||s.value,active:nt(s.active),selected:nt(s.selected,!1),disabled:nt(s.disabled,!1),placeholder:nt(s.placeholder,!1),highlighted:!1,labelClass:rt(s.labelClass),labelDescription:s.labelDescription,customProperties:s.customProperties}},at=function(e){return"SELECT"===e.tagName},st=function(e){function t(t){var i=t.element,n=t.classNames,r=t.template,o=t.extractPlaceholder,a=e.call(this,{element:i,classNames:n})||this;return a.template=r,a.extractPlaceholder=o,a}return U(t,e),Object.defineProperty(t.prototype,"placeholderOption",{get:function(){return this.element.querySelector('option[value=""]')||this.element.querySelector("option[placeholder]")},enumerable:!1,configurable:!0}),t.prototype.addOptions=function(e){var t=this,i=document.createDocumentFragment();e.forEach(function(e){var n=e;if(!n.element){var r=t.template(n);i.appendChild(r),n.element=r}}),this.element.appendChild(i)},t.prototype.optionsAsChoices=function(){var e=this,t=[];return this.element.querySelectorAll(":scope > option, :scope > optgroup").forEach(function(i){!function(e){return"OPTION"===e.tagName}(i)?function(e){return"OPTGROUP"===e.tagName}(i)&&t.push(e._optgroupToChoice(i)):t.push(e._optionToChoice(i))}),t},t.prototype._optionToChoice=function(e){return!e.hasAttribute("value")&&e.hasAttribute("placeholder")&&(e.setAttribute("value",""),e.value=""),{id:0,group:null,score:0,rank:0,value:e.value,label:e.label,element:e,active:!0,selected:this.extractPlaceholder?e.selected:e.hasAttribute("selected"),disabled:e.disabled,highlighted:!1,placeholder:this.extractPlaceholder&&(!e.value||e.hasAttribute("placeholder")),labelClass:void 0!==e.dataset.labelClass?rt(e.dataset.labelClass):void 0,labelDescription:void 0!==e.dataset.labelDescription?e.dataset.labelDescription:void 0,customProperties:Ye(e.dataset.customProperties)}},t.prototype._optgroupToChoice=function(e){var t=this,i=e.querySelectorAll("option"),n=Array.from(i).map(function(e){return t._optionToChoice(e)});return{id:0,label:e.label||"",element:e,active:!!n.length,disabled:e.disabled,choices:n}},t}(tt),ct={items:[],choices:[],silent:!1,renderChoiceLimit:-1,maxItemCount:-1,closeDropdownOnSelect:"auto",singleModeForMultiSelect:!1,addChoices:!1,addItems:!0,addItemFilter:function(e){return!!e&&""!==e},removeItems:!0,removeItemButton:!1,removeItemButtonAlignLeft:!1,editItems:!1,allowHTML:!1,allowHtmlUserInput:!1,duplicateItemsAllowed:!0,delimiter:",",paste:!0,searchEnabled:!0,searchChoices:!0,searchFloor:1,searchResultLimit:4,searchFields:["label","value"],position:"auto",resetScrollPosition:!0,shouldSort:!0,shouldSortItems:!1,sorter:function(e,t){var i=e.value,n=e.label,r=void 0===n?i:n,o=t.value,a=t.label,s=void 0===a?o:a;return He(r).localeCompare(He(s),[],{sensitivity:"base",ignorePunctuation:!0,numeric:!0})},shadowRoot:null,placeholder:!0,placeholderValue:null,searchPlaceholderValue:null,prependValue:null,appendValue:null,renderSelectedChoices:"auto",loadingText:"Loading...",noResultsText:"No results found",noChoicesText:"No choices to choose from",itemSelectText:"Press to select",uniqueItemText:"Only unique values can be added",customAddItemText:"Only values matching specific conditions can be added",addItemText:function(e){return'Press Enter to add <b>"'.concat(e,'"</b>')},removeItemIconText:function(){return"Remove item"},removeItemLabelText:function(e){return"Remove item: ".concat(e)},maxItemText:function(e){return"Only ".concat(e," values can be added")},valueComparer:function(e,t){return e===t},fuseOptions:{includeScore:!0},labelId:"",callbackOnInit:null,callbackOnCreateTemplates:null,classNames:{containerOuter:["choices"],containerInner:["choices__inner"],input:["choices__input"],inputCloned:["choices__input--cloned"],list:["choices__list"],listItems:["choices__list--multiple"],listSingle:["choices__list--single"],listDropdown:["choices__list--dropdown"],item:["choices__item"],itemSelectable:["choices__item--selectable"],itemDisabled:["choices__item--disabled"],itemChoice:["choices__item--choice"],description:["choices__description"],placeholder:["choices__placeholder"],group:["choices__group"],groupHeading:["choices__heading"],button:["choices__button"],activeState:["is-active"],focusState:["is-focused"],openState:["is-open"],disabledState:["is-disabled"],highlightedState:["is-highlighted"],selectedState:["is-selected"],flippedState:["is-flipped"],loadingState:["is-loading"],notice:["choices__notice"],addChoice:["choices__item--selectable","add-choice"],noResults:["has-no-results"],noChoices:["has-no-choices"]},appendGroupInSearch:!1},lt=function(e){var t=e.itemEl;t&&(t.remove(),e.itemEl=void 0)};var ut={groups:function(e,t){var i=e,n=!0;switch(t.type){case ne:i.push(t.group);break;case ie:i=[];break;default:n=!1}return{state:i,update:n}},items:function(e,t,i){var n=e,r=!0;switch(t.type){case re:t.item.selected=!0,(o=t.item.element)&&(o.selected=!0,o.setAttribute("selected","")),n.push(t.item);break;case oe:var o;if(t.item.selected=!1,o=t.item.element){o.selected=!1,o.removeAttribute("selected");var a=o.parentElement;a&&at(a)&&a.type===Le&&(a.value="")}lt(t.item),n=n.filter(function(e){return e.id!==t.item.id});break;case X:lt(t.choice),n=n.filter(function(e){return e.id!==t.choice.id});break;case ae:var s=t.highlighted,c=n.find(function(e){return e.id===t.item.id});c&&c.highlighted!==s&&(c.highlighted=s,i&&function(e,t,i){var n=e.itemEl;n&&(Je(n,i),Ue(n,t))}(c,s?i.classNames.highlightedState:i.classNames.selectedState,s?i.classNames.selectedState:i.classNames.highlightedState));break;default:r=!1}return{state:n,update:r}},choices:function(e,t,i){var n=e,r=!0;switch(t.type){case Q:n.push(t.choice);break;case X:t.choice.choiceEl=void 0,t.choice.group&&(t.choice.group.choices=t.choice.group.choices.filter(function(e){return e.id!==t.choice.id})),n=n.filter(function(e){return e.id!==t.choice.id});break;case re:case oe:t.item.choiceEl=void 0;break;case ee:var o=[];t.results.forEach(function(e){o[e.item.id]=e}),n.forEach(function(e){var t=o[e.id];void 0!==t?(e.score=t.score,e.rank=t.rank,e.active=!0):(e.score=0,e.rank=0,e.active=!1),i&&i.appendGroupInSearch&&(e.choiceEl=void 0)});break;case te:n.forEach(function(e){e.active=t.active,i&&i.appendGroupInSearch&&(e.choiceEl=void 0)});break;case ie:n=[];break;default:r=!1}return{state:n,update:r}}},dt=function(){function e(e){this._state=this.defaultState,this._listeners=[],this._txn=0,this._context=e}return Object.defineProperty(e.prototype,"defaultState",{get:function(){return{groups:[],items:[],choices:[]}},enumerable:!1,configurable:!0}),e.prototype.changeSet=function(e){return{groups:e,items:e,choices:e}},e.prototype.reset=function(){this._state=this.defaultState;var e=this.changeSet(!0);this._txn?this._changeSet=e:this._listeners.forEach(function(t){return t(e)})},e.prototype.subscribe=function(e){return this._listeners.push(e),this},e.prototype.dispatch=function(e){var t=this,i=this._state,n=!1,r=this._changeSet||this.changeSet(!1);Object.keys(ut).forEach(function(o){var a=ut[o](i[o],e,t._context);a.update&&(n=!0,r[o]=!0,i[o]=a.state)}),n&&(this._txn?this._changeSet=r:this._listeners.forEach(function(e){return e(r)}))},e.prototype.withTxn=function(e){this._txn++;try{e()}finally{if(this._txn=Math.max(0,this._txn-1),!this._txn){var t=this._changeSet;t&&(this._changeSet=void 0,this._listeners.forEach(function(e){return e(t)}))}}},Object.defineProperty(e.prototype,"state",{get:function(){return this._state},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"items",{get:function(){return this.state.items},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"highlightedActiveItems",{get:function(){return this.items.filter(function(e){return e.active&&e.highlighted})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"choices",{get:function(){return this.state.choices},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"activeChoices",{get:function(){return this.choices.filter(function(e){return e.active})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"searchableChoices",{get:function(){return this.choices.filter(function(e){return!e.disabled&&!e.placeholder})},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"groups",{get:function(){return this.state.groups},enumerable:!1,configurable:!0}),Object.defineProperty(e.prototype,"activeGroups",{get:function(){var e=this;return this.state.groups.filter(function(t){var i=t.active&&!t.disabled,n=e.state.choices.some(function(e){return e.active&&!e.disabled});return i&&n},[])},enumerable:!1,configurable:!0}),e.prototype.inTxn=function(){return this._txn>0},e.prototype.getChoiceById=function(e){return this.activeChoices.find(function(t){return t.id===e})},e.prototype.getGroupById=function(e){return this.groups.find(function(t){return t.id===e})},e}(),ht="no-choices",pt="no-results",ft="add-choice",gt="";function mt(e,t,i){return(t=function(e){var t=function(e,t){if("object"!=k(e)||!e)return e;var i=e[Symbol.toPrimitive];if(void 0!==i){var n=i.call(e,t);if("object"!=k(n))return n;throw new TypeError("@@toPrimitive must return a primitive value.")}return("string"===t?String:Number)(e)}(e,"string");return"symbol"==k(t)?t:t+""}(t))in e?Object.defineProperty(e,t,{value:i,enumerable:!0,configurable:!0,writable:!0}):e[t]=i,e}function vt(e,t){var i=Object.keys(e);if(Object.getOwnPropertySymbols){var n=Object.getOwnPropertySymbols(e);t&&(n=n.filter(function(t){return Object.getOwnPropertyDescriptor(e,t).enumerable})),i.push.apply(i,n)}return i}function yt(e){for(var t=1;t<arguments.length;t++){var i=null!=arguments[t]?arguments[t]:{};t%2?vt(Object(i),!0).forEach(function(t){mt(e,t,i[t])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(i)):vt(Object(i)).forEach(function(t){Object.defineProperty(e,t,Object.getOwnPropertyDescriptor(i,t))})}return e}function bt(e){return Array.isArray?Array.isArray(e):"[object Array]"===St(e)}function kt(e){return"string"==typeof e}function _t(e){return"number"==typeof e}function xt(e){return!0===e||!1===e||function(e){return wt(e)&&null!==e}(e)&&"[object Boolean]"==St(e)}function wt(e){return"object"===k(e)}function Ct(e){return null!=e}function Et(e){return!e.trim().length}function St(e){return null==e?void 0===e?"[object Undefined]":"[object Null]":Object.prototype.toString.call(e)}var Pt=Object.prototype.hasOwnProperty,At=function(){return a(function e(t){var i=this;r(this,e),this._keys=[],this._keyMap={};var n=0;t.forEach(function(e){var t=Mt(e);i._keys.push(t),i._keyMap[t.id]=t,n+=t.weight}),this._keys.forEach(function(e){e.weight/=n})},[{key:"get",value:function(e){return this._keyMap[e]}},{key:"keys",value:function(){return this._keys}},{key:"toJSON",value:function(){return JSON.stringify(this._keys)}}])}();function Mt(e){var t=null,i=null,n=null,r=1,o=null;if(kt(e)||bt(e))n=e,t=Lt(e),i=It(e);else{if(!Pt.call(e,"name"))throw new Error(function(e){return"Missing ".concat(e," property in key")}("name"));var a=e.name;if(n=a,Pt.call(e,"weight")&&(r=e.weight)<=0)throw new Error(function(e){return"Property 'weight' in key '".concat(e,"' must be a positive integer")}(a));t=Lt(a),i=It(a),o=e.getFn}return{path:t,id:i,weight:r,src:n,getFn:o}}function Lt(e){return bt(e)?e:e.split(".")}function It(e){return bt(e)?e.join("."):e}var Tt={useExtendedSearch:!1,getFn:function(e,t){var i=[],n=!1,r=function(e,t,o){if(Ct(e))if(t[o]){var a=e[t[o]];if(!Ct(a))return;if(o===t.length-1&&(kt(a)||_t(a)||xt(a)))i.push(function(e){return null==e?"":function(e){if("string"==typeof e)return e;var t=e+"";return"0"==t&&1/e==-1/0?"-0":t}(e)}(a));else if(bt(a)){n=!0;for(var s=0,c=a.length;s<c;s+=1)r(a[s],t,o+1)}else t.length&&r(a,t,o+1)}else i.push(e)};return r(e,kt(t)?t.split("."):t,0),n?i:i[0]},ignoreLocation:!1,ignoreFieldNorm:!1,fieldNormWeight:1},Ft=yt(yt(yt(yt({},{isCaseSensitive:!1,includeScore:!1,keys:[],shouldSort:!0,sortFn:function(e,t){return e.score===t.score?e.idx<t.idx?-1:1:e.score<t.score?-1:1}}),{includeMatches:!1,findAllMatches:!1,minMatchCharLength:1}),{location:0,threshold:.6,distance:100}),Tt),Dt=/[^ ]+/g;var Ot=function(){return a(function e(){var t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:{},i=t.getFn,n=void 0===i?Ft.getFn:i,o=t.fieldNormWeight,a=void 0===o?Ft.fieldNormWeight:o;r(this,e),this.norm=function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:1,t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:3,i=new Map,n=Math.pow(10,t);return{get:function(t){var r=t.match(Dt).length;if(i.has(r))return i.get(r);var o=1/Math.pow(r,.5*e),a=parseFloat(Math.round(o*n)/n);return i.set(r,a),a},clear:function(){i.clear()}}}(a,3),this.getFn=n,this.isCreated=!1,this.setIndexRecords()},[{key:"setSources",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.docs=e}},{key:"setIndexRecords",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.records=e}},{key:"setKeys",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.keys=t,this._keysMap={},t.forEach(function(t,i){e._keysMap[t.id]=i})}},{key:"create",value:function(){var e=this;!this.isCreated&&this.docs.length&&(this.isCreated=!0,kt(this.docs[0])?this.docs.forEach(function(t,i){e._addString(t,i)}):this.docs.forEach(function(t,i){e._addObject(t,i)}),this.norm.clear())}},{key:"add",value:function(e){var t=this.size();kt(e)?this._addString(e,t):this._addObject(e,t)}},{key:"removeAt",value:function(e){this.records.splice(e,1);for(var t=e,i=this.size();t<i;t+=1)this.records[t].i-=1}},{key:"getValueForItemAtKeyId",value:function(e,t){return e[this._keysMap[t]]}},{key:"size",value:function(){return this.records.length}},{key:"_addString",value:function(e,t){if(Ct(e)&&!Et(e)){var i={v:e,i:t,n:this.norm.get(e)};this.records.push(i)}}},{key:"_addObject",value:function(e,t){var i=this,n={i:t,$:{}};this.keys.forEach(function(t,r){var o=t.getFn?t.getFn(e):i.getFn(e,t.path);if(Ct(o))if(bt(o)){for(var a=[],s=[{nestedArrIndex:-1,value:o}];s.length;){var c=s.pop(),l=c.nestedArrIndex,u=c.value;if(Ct(u))if(kt(u)&&!Et(u)){var d={v:u,i:l,n:i.norm.get(u)};a.push(d)}else bt(u)&&u.forEach(function(e,t){s.push({nestedArrIndex:t,value:e})})}n.$[r]=a}else if(kt(o)&&!Et(o)){var h={v:o,n:i.norm.get(o)};n.$[r]=h}}),this.records.push(n)}},{key:"toJSON",value:function(){return{keys:this.keys,records:this.records}}}])}();function Nt(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.getFn,r=void 0===n?Ft.getFn:n,o=i.fieldNormWeight,a=void 0===o?Ft.fieldNormWeight:o,s=new Ot({getFn:r,fieldNormWeight:a});return s.setKeys(e.map(Mt)),s.setSources(t),s.create(),s}function jt(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.errors,n=void 0===i?0:i,r=t.currentLocation,o=void 0===r?0:r,a=t.expectedLocation,s=void 0===a?0:a,c=t.distance,l=void 0===c?Ft.distance:c,u=t.ignoreLocation,d=void 0===u?Ft.ignoreLocation:u,h=n/e.length;if(d)return h;var p=Math.abs(s-o);return l?h+p/l:p?1:h}var Bt=32;function Rt(e,t,i){var n=arguments.length>3&&void 0!==arguments[3]?arguments[3]:{},r=n.location,o=void 0===r?Ft.location:r,a=n.distance,s=void 0===a?Ft.distance:a,c=n.threshold,l=void 0===c?Ft.threshold:c,u=n.findAllMatches,d=void 0===u?Ft.findAllMatches:u,h=n.minMatchCharLength,p=void 0===h?Ft.minMatchCharLength:h,f=n.includeMatches,g=void 0===f?Ft.includeMatches:f,m=n.ignoreLocation,v=void 0===m?Ft.ignoreLocation:m;if(t.length>Bt)throw new Error("Pattern length exceeds max of ".concat(Bt,"."));for(var y,b=t.length,k=e.length,_=Math.max(0,Math.min(o,k)),x=l,w=_,C=p>1||g,E=C?Array(k):[];(y=e.indexOf(t,w))>-1;){var S=jt(t,{currentLocation:y,expectedLocation:_,distance:s,ignoreLocation:v});if(x=Math.min(S,x),w=y+b,C)for(var P=0;P<b;)E[y+P]=1,P+=1}w=-1;for(var A=[],M=1,L=b+k,I=1<<b-1,T=0;T<b;T+=1){for(var F=0,D=L;F<D;){jt(t,{errors:T,currentLocation:_+D,expectedLocation:_,distance:s,ignoreLocation:v})<=x?F=D:L=D,D=Math.floor((L-F)/2+F)}L=D;var O=Math.max(1,_-D+1),N=d?k:Math.min(_+D,k)+b,j=Array(N+2);j[N+1]=(1<<T)-1;for(var B=N;B>=O;B-=1){var R=B-1,q=i[e.charAt(R)];if(C&&(E[R]=+!!q),j[B]=(j[B+1]<<1|1)&q,T&&(j[B]|=(A[B+1]|A[B])<<1|1|A[B+1]),j[B]&I&&(M=jt(t,{errors:T,currentLocation:R,expectedLocation:_,distance:s,ignoreLocation:v}))<=x){if(x=M,(w=R)<=_)break;O=Math.max(1,2*_-w)}}if(jt(t,{errors:T+1,currentLocation:_,expectedLocation:_,distance:s,ignoreLocation:v})>x)break;A=j}var H={isMatch:w>=0,score:Math.max(.001,M)};if(C){var V=function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[],t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:Ft.minMatchCharLength,i=[],n=-1,r=-1,o=0,a=e.length;o<a;o+=1){var s=e[o];s&&-1===n?n=o:s||-1===n||((r=o-1)-n+1>=t&&i.push([n,r]),n=-1)}return e[o-1]&&o-n>=t&&i.push([n,o-1]),i}(E,p);V.length?g&&(H.indices=V):H.isMatch=!1}return H}function qt(e){for(var t={},i=0,n=e.length;i<n;i+=1){var r=e.charAt(i);t[r]=(t[r]||0)|1<<n-i-1}return t}var Ht=function(){return a(function e(t){var i=this,n=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},o=n.location,a=void 0===o?Ft.location:o,s=n.threshold,c=void 0===s?Ft.threshold:s,l=n.distance,u=void 0===l?Ft.distance:l,d=n.includeMatches,h=void 0===d?Ft.includeMatches:d,p=n.findAllMatches,f=void 0===p?Ft.findAllMatches:p,g=n.minMatchCharLength,m=void 0===g?Ft.minMatchCharLength:g,v=n.isCaseSensitive,y=void 0===v?Ft.isCaseSensitive:v,b=n.ignoreLocation,k=void 0===b?Ft.ignoreLocation:b;if(r(this,e),this.options={location:a,threshold:c,distance:u,includeMatches:h,findAllMatches:f,minMatchCharLength:m,isCaseSensitive:y,ignoreLocation:k},this.pattern=y?t:t.toLowerCase(),this.chunks=[],this.pattern.length){var _=function(e,t){i.chunks.push({pattern:e,alphabet:qt(e),startIndex:t})},x=this.pattern.length;if(x>Bt){for(var w=0,C=x%Bt,E=x-C;w<E;)_(this.pattern.substr(w,Bt),w),w+=Bt;if(C){var S=x-Bt;_(this.pattern.substr(S),S)}}else _(this.pattern,0)}},[{key:"searchIn",value:function(e){var t=this.options,i=t.isCaseSensitive,n=t.includeMatches;if(i||(e=e.toLowerCase()),this.pattern===e){var r={isMatch:!0,score:0};return n&&(r.indices=[[0,e.length-1]]),r}var o=this.options,a=o.location,s=o.distance,c=o.threshold,l=o.findAllMatches,u=o.minMatchCharLength,d=o.ignoreLocation,h=[],p=0,f=!1;this.chunks.forEach(function(t){var i=t.pattern,r=t.alphabet,o=t.startIndex,g=Rt(e,i,r,{location:a+o,distance:s,threshold:c,findAllMatches:l,minMatchCharLength:u,includeMatches:n,ignoreLocation:d}),m=g.isMatch,v=g.score,b=g.indices;m&&(f=!0),p+=v,m&&b&&(h=[].concat(y(h),y(b)))});var g={isMatch:f,score:f?p/this.chunks.length:1};return f&&n&&(g.indices=h),g}}])}(),Vt=function(){return a(function e(t){r(this,e),this.pattern=t},[{key:"search",value:function(){}}],[{key:"isMultiMatch",value:function(e){return zt(e,this.multiRegex)}},{key:"isSingleMatch",value:function(e){return zt(e,this.singleRegex)}}])}();function zt(e,t){var i=e.match(t);return i?i[1]:null}var Kt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e===this.pattern;return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"exact"}},{key:"multiRegex",get:function(){return/^="(.*)"$/}},{key:"singleRegex",get:function(){return/^=(.*)$/}}])}(),$t=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=-1===e.indexOf(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"$/}},{key:"singleRegex",get:function(){return/^!(.*)$/}}])}(),Gt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"prefix-exact"}},{key:"multiRegex",get:function(){return/^\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^\^(.*)$/}}])}(),Wt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=!e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-prefix-exact"}},{key:"multiRegex",get:function(){return/^!\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^!\^(.*)$/}}])}(),Ut=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[e.length-this.pattern.length,e.length-1]}}}],[{key:"type",get:function(){return"suffix-exact"}},{key:"multiRegex",get:function(){return/^"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^(.*)\$$/}}])}(),Jt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){var t=!e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-suffix-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^!(.*)\$$/}}])}(),Yt=function(){function e(t){var i,o=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},a=o.location,s=void 0===a?Ft.location:a,c=o.threshold,l=void 0===c?Ft.threshold:c,u=o.distance,d=void 0===u?Ft.distance:u,h=o.includeMatches,p=void 0===h?Ft.includeMatches:h,f=o.findAllMatches,g=void 0===f?Ft.findAllMatches:f,m=o.minMatchCharLength,v=void 0===m?Ft.minMatchCharLength:m,y=o.isCaseSensitive,b=void 0===y?Ft.isCaseSensitive:y,k=o.ignoreLocation,_=void 0===k?Ft.ignoreLocation:k;return r(this,e),(i=n(this,e,[t]))._bitapSearch=new Ht(t,{location:s,threshold:l,distance:d,includeMatches:p,findAllMatches:g,minMatchCharLength:v,isCaseSensitive:b,ignoreLocation:_}),i}return u(e,Vt),a(e,[{key:"search",value:function(e){return this._bitapSearch.searchIn(e)}}],[{key:"type",get:function(){return"fuzzy"}},{key:"multiRegex",get:function(){return/^"(.*)"$/}},{key:"singleRegex",get:function(){return/^(.*)$/}}])}(),Zt=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Vt),a(e,[{key:"search",value:function(e){for(var t,i=0,n=[],r=this.pattern.length;(t=e.indexOf(this.pattern,i))>-1;)i=t+r,n.push([t,i-1]);var o=!!n.length;return{isMatch:o,score:o?0:1,indices:n}}}],[{key:"type",get:function(){return"include"}},{key:"multiRegex",get:function(){return/^'"(.*)"$/}},{key:"singleRegex",get:function(){return/^'(.*)$/}}])}(),Qt=[Kt,Zt,Gt,Wt,Jt,Ut,$t,Yt],Xt=Qt.length,ei=/ +(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)/;var ti=new Set([Yt.type,Zt.type]),ii=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=i.isCaseSensitive,o=void 0===n?Ft.isCaseSensitive:n,a=i.includeMatches,s=void 0===a?Ft.includeMatches:a,c=i.minMatchCharLength,l=void 0===c?Ft.minMatchCharLength:c,u=i.ignoreLocation,d=void 0===u?Ft.ignoreLocation:u,h=i.findAllMatches,p=void 0===h?Ft.findAllMatches:h,f=i.location,g=void 0===f?Ft.location:f,m=i.threshold,v=void 0===m?Ft.threshold:m,y=i.distance,b=void 0===y?Ft.distance:y;r(this,e),this.query=null,this.options={isCaseSensitive:o,includeMatches:s,minMatchCharLength:l,findAllMatches:p,ignoreLocation:d,location:g,threshold:v,distance:b},this.pattern=o?t:t.toLowerCase(),this.query=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};return e.split("|").map(function(e){for(var i=e.trim().split(ei).filter(function(e){return e&&!!e.trim()}),n=[],r=0,o=i.length;r<o;r+=1){for(var a=i[r],s=!1,c=-1;!s&&++c<Xt;){var l=Qt[c],u=l.isMultiMatch(a);u&&(n.push(new l(u,t)),s=!0)}if(!s)for(c=-1;++c<Xt;){var d=Qt[c],h=d.isSingleMatch(a);if(h){n.push(new d(h,t));break}}}return n})}(this.pattern,this.options)},[{key:"searchIn",value:function(e){var t=this.query;if(!t)return{isMatch:!1,score:1};var i=this.options,n=i.includeMatches;e=i.isCaseSensitive?e:e.toLowerCase();for(var r=0,o=[],a=0,s=0,c=t.length;s<c;s+=1){var l=t[s];o.length=0,r=0;for(var u=0,d=l.length;u<d;u+=1){var h=l[u],p=h.search(e),f=p.isMatch,g=p.indices,m=p.score;if(!f){a=0,r=0,o.length=0;break}if(r+=1,a+=m,n){var v=h.constructor.type;ti.has(v)?o=[].concat(y(o),y(g)):o.push(g)}}if(r){var b={isMatch:!0,score:a/r};return n&&(b.indices=o),b}}return{isMatch:!1,score:1}}}],[{key:"condition",value:function(e,t){return t.useExtendedSearch}}])}(),ni=[];function ri(e,t){for(var i=0,n=ni.length;i<n;i+=1){var r=ni[i];if(r.condition(e,t))return new r(e,t)}return new Ht(e,t)}var oi="$and",ai="$or",si="$path",ci="$val",li=function(e){return!(!e[oi]&&!e[ai])},ui=function(e){return c({},oi,Object.keys(e).map(function(t){return c({},t,e[t])}))};function di(e,t){var i=(arguments.length>2&&void 0!==arguments[2]?arguments[2]:{}).auto,n=void 0===i||i,r=function(e){var i=Object.keys(e),o=function(e){return!!e[si]}(e);if(!o&&i.length>1&&!li(e))return r(ui(e));if(function(e){return!bt(e)&&wt(e)&&!li(e)}(e)){var a=o?e[si]:i[0],s=o?e[ci]:e[a];if(!kt(s))throw new Error(function(e){return"Invalid value for key ".concat(e)}(a));var c={keyId:It(a),pattern:s};return n&&(c.searcher=ri(s,t)),c}var l={children:[],operator:i[0]};return i.forEach(function(t){var i=e[t];bt(i)&&i.forEach(function(e){l.children.push(r(e))})}),l};return li(e)||(e=ui(e)),r(e)}function hi(e,t){var i=e.matches;t.matches=[],Ct(i)&&i.forEach(function(e){if(Ct(e.indices)&&e.indices.length){var i={indices:e.indices,value:e.value};e.key&&(i.key=e.key.src),e.idx>-1&&(i.refIndex=e.idx),t.matches.push(i)}})}function pi(e,t){t.score=e.score}var fi=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=arguments.length>2?arguments[2]:void 0;r(this,e),this.options=yt(yt({},Ft),i),this.options.useExtendedSearch,this._keyStore=new At(this.options.keys),this.setCollection(t,n)},[{key:"setCollection",value:function(e,t){if(this._docs=e,t&&!(t instanceof Ot))throw new Error("Incorrect 'index' type");this._myIndex=t||Nt(this.options.keys,this._docs,{getFn:this.options.getFn,fieldNormWeight:this.options.fieldNormWeight})}},{key:"add",value:function(e){Ct(e)&&(this._docs.push(e),this._myIndex.add(e))}},{key:"remove",value:function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:function(){return!1},t=[],i=0,n=this._docs.length;i<n;i+=1){var r=this._docs[i];e(r,i)&&(this.removeAt(i),i-=1,n-=1,t.push(r))}return t}},{key:"removeAt",value:function(e){this._docs.splice(e,1),this._myIndex.removeAt(e)}},{key:"getIndex",value:function(){return this._myIndex}},{key:"search",value:function(e){var t=(arguments.length>1&&void 0!==arguments[1]?arguments[1]:{}).limit,i=void 0===t?-1:t,n=this.options,r=n.includeMatches,o=n.includeScore,a=n.shouldSort,s=n.sortFn,c=n.ignoreFieldNorm,l=kt(e)?kt(this._docs[0])?this._searchStringList(e):this._searchObjectList(e):this._searchLogical(e);return function(e,t){var i=t.ignoreFieldNorm,n=void 0===i?Ft.ignoreFieldNorm:i;e.forEach(function(e){var t=1;e.matches.forEach(function(e){var i=e.key,r=e.norm,o=e.score,a=i?i.weight:null;t*=Math.pow(0===o&&a?Number.EPSILON:o,(a||1)*(n?1:r))}),e.score=t})}(l,{ignoreFieldNorm:c}),a&&l.sort(s),_t(i)&&i>-1&&(l=l.slice(0,i)),function(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.includeMatches,r=void 0===n?Ft.includeMatches:n,o=i.includeScore,a=void 0===o?Ft.includeScore:o,s=[];return r&&s.push(hi),a&&s.push(pi),e.map(function(e){var i=e.idx,n={item:t[i],refIndex:i};return s.length&&s.forEach(function(t){t(e,n)}),n})}(l,this._docs,{includeMatches:r,includeScore:o})}},{key:"_searchStringList",value:function(e){var t=ri(e,this.options),i=this._myIndex.records,n=[];return i.forEach(function(e){var i=e.v,r=e.i,o=e.n;if(Ct(i)){var a=t.searchIn(i),s=a.isMatch,c=a.score,l=a.indices;s&&n.push({item:i,idx:r,matches:[{score:c,value:i,norm:o,indices:l}]})}}),n}},{key:"_searchLogical",value:function(e){var t=this,i=di(e,this.options),n=function(e,i,r){if(!e.children){var o=e.keyId,a=e.searcher,s=t._findMatches({key:t._keyStore.get(o),value:t._myIndex.getValueForItemAtKeyId(i,o),searcher:a});return s&&s.length?[{idx:r,item:i,matches:s}]:[]}for(var c=[],l=0,u=e.children.length;l<u;l+=1){var d=e.children[l],h=n(d,i,r);if(h.length)c.push.apply(c,y(h));else if(e.operator===oi)return[]}return c},r=this._myIndex.records,o={},a=[];return r.forEach(function(e){var t=e.$,r=e.i;if(Ct(t)){var s=n(i,t,r);s.length&&(o[r]||(o[r]={idx:r,item:t,matches:[]},a.push(o[r])),s.forEach(function(e){var t,i=e.matches;(t=o[r].matches).push.apply(t,y(i))}))}}),a}},{key:"_searchObjectList",value:function(e){var t=this,i=ri(e,this.options),n=this._myIndex,r=n.keys,o=n.records,a=[];return o.forEach(function(e){var n=e.$,o=e.i;if(Ct(n)){var s=[];r.forEach(function(e,r){s.push.apply(s,y(t._findMatches({key:e,value:n[r],searcher:i})))}),s.length&&a.push({idx:o,item:n,matches:s})}}),a}},{key:"_findMatches",value:function(e){var t=e.key,i=e.value,n=e.searcher;if(!Ct(i))return[];var r=[];if(bt(i))i.forEach(function(e){var i=e.v,o=e.i,a=e.n;if(Ct(i)){var s=n.searchIn(i),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:i,idx:o,norm:a,indices:u})}});else{var o=i.v,a=i.n,s=n.searchIn(o),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:o,norm:a,indices:u})}return r}}])}();fi.version="7.0.0",fi.createIndex=Nt,fi.parseIndex=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.getFn,n=void 0===i?Ft.getFn:i,r=t.fieldNormWeight,o=void 0===r?Ft.fieldNormWeight:r,a=e.keys,s=e.records,c=new Ot({getFn:n,fieldNormWeight:o});return c.setKeys(a),c.setIndexRecords(s),c},fi.config=Ft,fi.parseQuery=di,function(){ni.push.apply(ni,arguments)}(ii);var gi=function(){function e(e){this._haystack=[],this._fuseOptions=J(J({},e.fuseOptions),{keys:Y([],e.searchFields),includeMatches:!0})}return e.prototype.index=function(e){this._haystack=e,this._fuse&&this._fuse.setCollection(e)},e.prototype.reset=function(){this._haystack=[],this._fuse=void 0},e.prototype.isEmptyIndex=function(){return!this._haystack.length},e.prototype.search=function(e){return this._fuse||(this._fuse=new fi(this._haystack,this._fuseOptions)),this._fuse.search(e).map(function(e,t){return{item:e.item,score:e.score||0,rank:t+1}})},e}();var mi=function(e,t,i){var n=e.dataset,r=t.customProperties,o=t.labelClass,a=t.labelDescription;o&&(n.labelClass=Ge(o).join(" ")),a&&(n.labelDescription=a),i&&r&&("string"==typeof r?n.customProperties=r:"object"!==k(r)||function(e){for(var t in e)if(Object.prototype.hasOwnProperty.call(e,t))return!1;return!0}(r)||(n.customProperties=JSON.stringify(r)))},vi=function(e,t,i){var n=t&&e.querySelector("label[for='".concat(t,"']")),r=n&&n.innerText;r&&i.setAttribute("aria-label",r)},yi={containerOuter:function(e,t,i,n,r,o,a){var s=e.classNames.containerOuter,c=document.createElement("div");return Ue(c,s),c.dataset.type=o,t&&(c.dir=t),n&&(c.tabIndex=0),i&&(c.setAttribute("role",r?"combobox":"listbox"),r?c.setAttribute("aria-autocomplete","list"):a||vi(this._docRoot,this.passedElement.element.id,c),c.setAttribute("aria-haspopup","true"),c.setAttribute("aria-expanded","false")),a&&c.setAttribute("aria-labelledby",a),c},containerInner:function(e){var t=e.classNames.containerInner,i=document.createElement("div");return Ue(i,t),i},itemList:function(e,t){var i=e.searchEnabled,n=e.classNames,r=n.list,o=n.listSingle,a=n.listItems,s=document.createElement("div");return Ue(s,r),Ue(s,t?o:a),this._isSelectElement&&i&&s.setAttribute("role","listbox"),s},placeholder:function(e,t){var i=e.allowHTML,n=e.classNames.placeholder,r=document.createElement("div");return Ue(r,n),Ke(r,i,t),r},item:function(e,t,i){var n=e.allowHTML,r=e.removeItemButtonAlignLeft,o=e.removeItemIconText,a=e.removeItemLabelText,s=e.classNames,c=s.item,l=s.button,u=s.highlightedState,d=s.itemSelectable,h=s.placeholder,p=He(t.value),f=document.createElement("div");if(Ue(f,c),t.labelClass){var g=document.createElement("span");Ke(g,n,t.label),Ue(g,t.labelClass),f.appendChild(g)}else Ke(f,n,t.label);if(f.dataset.item="",f.dataset.id=t.id,f.dataset.value=p,mi(f,t,!0),(t.disabled||this.containerOuter.isDisabled)&&f.setAttribute("aria-disabled","true"),this._isSelectElement&&(f.setAttribute("aria-selected","true"),f.setAttribute("role","option")),t.placeholder&&(Ue(f,h),f.dataset.placeholder=""),Ue(f,t.highlighted?u:d),i){t.disabled&&Je(f,d),f.dataset.deletable="";var m=document.createElement("button");m.type="button",Ue(m,l),Ke(m,!0,Re(o,t.value));var v=Re(a,t.value);v&&m.setAttribute("aria-label",v),m.dataset.button="",r?f.insertAdjacentElement("afterbegin",m):f.appendChild(m)}return f},choiceList:function(e,t){var i=e.classNames.list,n=document.createElement("div");return Ue(n,i),t||n.setAttribute("aria-multiselectable","true"),n.setAttribute("role","listbox"),n},choiceGroup:function(e,t){var i=e.allowHTML,n=e.classNames,r=n.group,o=n.groupHeading,a=n.itemDisabled,s=t.id,c=t.label,l=t.disabled,u=He(c),d=document.createElement("div");Ue(d,r),l&&Ue(d,a),d.setAttribute("role","group"),d.dataset.group="",d.dataset.id=s,d.dataset.value=u,l&&d.setAttribute("aria-disabled","true");var h=document.createElement("div");return Ue(h,o),Ke(h,i,c||""),d.appendChild(h),d},choice:function(e,t,i,n){var r=e.allowHTML,o=e.classNames,a=o.item,s=o.itemChoice,c=o.itemSelectable,l=o.selectedState,u=o.itemDisabled,d=o.description,h=o.placeholder,p=t.label,f=He(t.value),g=document.createElement("div");g.id=t.elementId,Ue(g,a),Ue(g,s),n&&"string"==typeof p&&(p=ze(r,p),p={trusted:p+=" (".concat(n,")")});var m=g;if(t.labelClass){var v=document.createElement("span");Ke(v,r,p),Ue(v,t.labelClass),m=v,g.appendChild(v)}else Ke(g,r,p);if(t.labelDescription){var y="".concat(t.elementId,"-description");m.setAttribute("aria-describedby",y);var b=document.createElement("span");Ke(b,r,t.labelDescription),b.id=y,Ue(b,d),g.appendChild(b)}return t.selected&&Ue(g,l),t.placeholder&&Ue(g,h),g.setAttribute("role",t.group?"treeitem":"option"),g.dataset.choice="",g.dataset.id=t.id,g.dataset.value=f,i&&(g.dataset.selectText=i),t.group&&(g.dataset.groupId="".concat(t.group.id)),mi(g,t,!1),t.disabled?(Ue(g,u),g.dataset.choiceDisabled="",g.setAttribute("aria-disabled","true")):(Ue(g,c),g.dataset.choiceSelectable=""),g},input:function(e,t){var i=e.classNames,n=i.input,r=i.inputCloned,o=e.labelId,a=document.createElement("input");return a.type="search",Ue(a,n),Ue(a,r),a.autocomplete="off",a.autocapitalize="off",a.spellcheck=!1,a.setAttribute("aria-autocomplete","list"),t?a.setAttribute("aria-label",t):o||vi(this._docRoot,this.passedElement.element.id,a),a},dropdown:function(e){var t=e.classNames,i=t.list,n=t.listDropdown,r=document.createElement("div");return Ue(r,i),Ue(r,n),r.setAttribute("aria-expanded","false"),r},notice:function(e,t,i){var n=e.classNames,r=n.item,o=n.itemChoice,a=n.addChoice,s=n.noResults,c=n.noChoices,l=n.notice;void 0===i&&(i=gt);var u=document.createElement("div");switch(Ke(u,!0,t),Ue(u,r),Ue(u,o),Ue(u,l),i){case ft:Ue(u,a);break;case pt:Ue(u,s);break;case ht:Ue(u,c)}return i===ft&&(u.dataset.choiceSelectable="",u.dataset.choice=""),u},option:function(e){var t=He(e.label),i=new Option(t,e.value,!1,e.selected);return mi(i,e,!0),i.disabled=e.disabled,e.selected&&i.setAttribute("selected",""),i}},bi="-ms-scroll-limit"in document.documentElement.style&&"-ms-ime-align"in document.documentElement.style,ki={},_i=function(e){if(e)return e.dataset.id?parseInt(e.dataset.id,10):void 0},xi="[data-choice-selectable]",wi=function(){function e(t,i){void 0===t&&(t="[data-choice]"),void 0===i&&(i={});var n=this;this.initialisedOK=void 0,this._hasNonChoicePlaceholder=!1,this._lastAddedChoiceId=0,this._lastAddedGroupId=0;var r=e.defaults;this.config=J(J(J({},r.allOptions),r.options),i),Ae.forEach(function(e){n.config[e]=J(J(J({},r.allOptions[e]),r.options[e]),i[e])});var o=this.config;o.silent||this._validateConfig();var a=o.shadowRoot||document.documentElement;this._docRoot=a;var s="string"==typeof t?a.querySelector(t):t;if(!s||"object"!==k(s)||"INPUT"!==s.tagName&&!at(s)){if(!s&&"string"==typeof t)throw TypeError("Selector ".concat(t," failed to find an element"));throw TypeError("Expected one of the following types text|select-one|select-multiple")}var c=s.type,l=c===Me;(l||1!==o.maxItemCount)&&(o.singleModeForMultiSelect=!1),o.singleModeForMultiSelect&&(c=Ie);var u=c===Le,d=c===Ie,h=u||d;if(this._elementType=c,this._isTextElement=l,this._isSelectOneElement=u,this._isSelectMultipleElement=d,this._isSelectElement=u||d,this._canAddUserChoices=l&&o.addItems||h&&o.addChoices,"boolean"!=typeof o.renderSelectedChoices&&(o.renderSelectedChoices="always"===o.renderSelectedChoices||u),"auto"===o.closeDropdownOnSelect?o.closeDropdownOnSelect=l||u||o.singleModeForMultiSelect:o.closeDropdownOnSelect=nt(o.closeDropdownOnSelect),o.placeholder&&(o.placeholderValue?this._hasNonChoicePlaceholder=!0:s.dataset.placeholder&&(this._hasNonChoicePlaceholder=!0,o.placeholderValue=s.dataset.placeholder)),i.addItemFilter&&"function"!=typeof i.addItemFilter){var p=i.addItemFilter instanceof RegExp?i.addItemFilter:new RegExp(i.addItemFilter);o.addItemFilter=p.test.bind(p)}if(this._isTextElement)this.passedElement=new it({element:s,classNames:o.classNames});else{var f=s;this.passedElement=new st({element:f,classNames:o.classNames,template:function(e){return n._templates.option(e)},extractPlaceholder:o.placeholder&&!this._hasNonChoicePlaceholder})}if(this.initialised=!1,this._store=new dt(o),this._currentValue="",o.searchEnabled=!l&&o.searchEnabled||d,this._canSearch=o.searchEnabled,this._isScrollingOnIe=!1,this._highlightPosition=0,this._wasTap=!0,this._placeholderValue=this._generatePlaceholderValue(),this._baseId=function(e,t){var i=e.id||e.name&&"".concat(e.name,"-").concat(Ne(2))||Ne(4);return i=i.replace(/(:|\.|\[|\]|,)/g,""),"".concat(t,"-").concat(i)}(s,"choices-"),this._direction=s.dir,!this._direction){var g=window.getComputedStyle(s).direction;g!==window.getComputedStyle(document.documentElement).direction&&(this._direction=g)}if(this._idNames={itemChoice:"item-choice"},this._templates=r.templates,this._render=this._render.bind(this),this._onFocus=this._onFocus.bind(this),this._onBlur=this._onBlur.bind(this),this._onKeyUp=this._onKeyUp.bind(this),this._onKeyDown=this._onKeyDown.bind(this),this._onInput=this._onInput.bind(this),this._onClick=this._onClick.bind(this),this._onTouchMove=this._onTouchMove.bind(this),this._onTouchEnd=this._onTouchEnd.bind(this),this._onMouseDown=this._onMouseDown.bind(this),this._onMouseOver=this._onMouseOver.bind(this),this._onFormReset=this._onFormReset.bind(this),this._onSelectKey=this._onSelectKey.bind(this),this._onEnterKey=this._onEnterKey.bind(this),this._onEscapeKey=this._onEscapeKey.bind(this),this._onDirectionKey=this._onDirectionKey.bind(this),this._onDeleteKey=this._onDeleteKey.bind(this),this.passedElement.isActive)return o.silent||console.warn("Trying to initialise Choices on element already initialised",{element:t}),this.initialised=!0,void(this.initialisedOK=!1);this.init(),this._initialItems=this._store.items.map(function(e){return e.value})}return Object.defineProperty(e,"defaults",{get:function(){return Object.preventExtensions({get options(){return ki},get allOptions(){return ct},get templates(){return yi}})},enumerable:!1,configurable:!0}),e.prototype.init=function(){if(!this.initialised&&void 0===this.initialisedOK){var e;this._searcher=(e=this.config,new gi(e)),this._loadChoices(),this._createTemplates(),this._createElements(),this._createStructure(),this._isTextElement&&!this.config.addItems||this.passedElement.element.hasAttribute("disabled")||this.passedElement.element.closest("fieldset:disabled")?this.disable():(this.enable(),this._addEventListeners()),this._initStore(),this.initialised=!0,this.initialisedOK=!0;var t=this.config.callbackOnInit;"function"==typeof t&&t.call(this)}},e.prototype.destroy=function(){this.initialised&&(this._removeEventListeners(),this.passedElement.reveal(),this.containerOuter.unwrap(this.passedElement.element),this._store._listeners=[],this.clearStore(!1),this._stopSearch(),this._templates=e.defaults.templates,this.initialised=!1,this.initialisedOK=void 0)},e.prototype.enable=function(){return this.passedElement.isDisabled&&this.passedElement.enable(),this.containerOuter.isDisabled&&(this._addEventListeners(),this.input.enable(),this.containerOuter.enable()),this},e.prototype.disable=function(){return this.passedElement.isDisabled||this.passedElement.disable(),this.containerOuter.isDisabled||(this._removeEventListeners(),this.input.disable(),this.containerOuter.disable()),this},e.prototype.highlightItem=function(e,t){if(void 0===t&&(t=!0),!e||!e.id)return this;var i=this._store.items.find(function(t){return t.id===e.id});return!i||i.highlighted||(this._store.dispatch(Oe(i,!0)),t&&this.passedElement.triggerEvent(fe,this._getChoiceForOutput(i))),this},e.prototype.unhighlightItem=function(e,t){if(void 0===t&&(t=!0),!e||!e.id)return this;var i=this._store.items.find(function(t){return t.id===e.id});return i&&i.highlighted?(this._store.dispatch(Oe(i,!1)),t&&this.passedElement.triggerEvent(me,this._getChoiceForOutput(i)),this):this},e.prototype.highlightAll=function(){var e=this;return this._store.withTxn(function(){e._store.items.forEach(function(t){t.highlighted||(e._store.dispatch(Oe(t,!0)),e.passedElement.triggerEvent(fe,e._getChoiceForOutput(t)))})}),this},e.prototype.unhighlightAll=function(){var e=this;return this._store.withTxn(function(){e._store.items.forEach(function(t){t.highlighted&&(e._store.dispatch(Oe(t,!1)),e.passedElement.triggerEvent(fe,e._getChoiceForOutput(t)))})}),this},e.prototype.removeActiveItemsByValue=function(e){var t=this;return this._store.withTxn(function(){t._store.items.filter(function(t){return t.value===e}).forEach(function(e){return t._removeItem(e)})}),this},e.prototype.removeActiveItems=function(e){var t=this;return this._store.withTxn(function(){t._store.items.filter(function(t){return t.id!==e}).forEach(function(e){return t._removeItem(e)})}),this},e.prototype.removeHighlightedItems=function(e){var t=this;return void 0===e&&(e=!1),this._store.withTxn(function(){t._store.highlightedActiveItems.forEach(function(i){t._removeItem(i),e&&t._triggerChange(i.value)})}),this},e.prototype.showDropdown=function(e){var t=this;return this.dropdown.isActive||(void 0===e&&(e=!this._canSearch),requestAnimationFrame(function(){t.dropdown.show();var i=t.dropdown.element.getBoundingClientRect();t.containerOuter.open(i.bottom,i.height),e||t.input.focus(),t.passedElement.triggerEvent(se)})),this},e.prototype.hideDropdown=function(e){var t=this;return this.dropdown.isActive?(requestAnimationFrame(function(){t.dropdown.hide(),t.containerOuter.close(),!e&&t._canSearch&&(t.input.removeActiveDescendant(),t.input.blur()),t.passedElement.triggerEvent(ce)}),this):this},e.prototype.getValue=function(e){var t=this,i=this._store.items.map(function(i){return e?i.value:t._getChoiceForOutput(i)});return this._isSelectOneElement||this.config.singleModeForMultiSelect?i[0]:i},e.prototype.setValue=function(e){var t=this;return this.initialisedOK?(this._store.withTxn(function(){e.forEach(function(e){e&&t._addChoice(ot(e,!1))})}),this._searcher.reset(),this):(this._warnChoicesInitFailed("setValue"),this)},e.prototype.setChoiceByValue=function(e){var t=this;return this.initialisedOK?(this._isTextElement||(this._store.withTxn(function(){(Array.isArray(e)?e:[e]).forEach(function(e){return t._findAndSelectChoiceByValue(e)}),t.unhighlightAll()}),this._searcher.reset()),this):(this._warnChoicesInitFailed("setChoiceByValue"),this)},e.prototype.setChoices=function(e,t,i,n,r,o){var a=this;if(void 0===e&&(e=[]),void 0===t&&(t="value"),void 0===i&&(i="label"),void 0===n&&(n=!1),void 0===r&&(r=!0),void 0===o&&(o=!1),!this.initialisedOK)return this._warnChoicesInitFailed("setChoices"),this;if(!this._isSelectElement)throw new TypeError("setChoices can't be used with INPUT based Choices");if("string"!=typeof t||!t)throw new TypeError("value parameter must be a name of 'value' field in passed objects");if("function"==typeof e){var s=e(this);if("function"==typeof Promise&&s instanceof Promise)return new Promise(function(e){return requestAnimationFrame(e)}).then(function(){return a._handleLoadingState(!0)}).then(function(){return s}).then(function(e){return a.setChoices(e,t,i,n,r,o)}).catch(function(e){a.config.silent||console.error(e)}).then(function(){return a._handleLoadingState(!1)}).then(function(){return a});if(!Array.isArray(s))throw new TypeError(".setChoices first argument function must return either array of choices or Promise, got: ".concat(k(s)));return this.setChoices(s,t,i,!1)}if(!Array.isArray(e))throw new TypeError(".setChoices must be called either with array of choices with a function resulting into Promise of array of choices");return this.containerOuter.removeLoadingState(),this._store.withTxn(function(){r&&(a._isSearching=!1),n&&a.clearChoices(!0,o);var s="value"===t,c="label"===i;e.forEach(function(e){if("choices"in e){var n=e;c||(n=J(J({},n),{label:n[i]})),a._addGroup(ot(n,!0))}else{var r=e;c&&s||(r=J(J({},r),{value:r[t],label:r[i]}));var o=ot(r,!1);a._addChoice(o),o.placeholder&&!a._hasNonChoicePlaceholder&&(a._placeholderValue=Ve(o.label))}}),a.unhighlightAll()}),this._searcher.reset(),this},e.prototype.refresh=function(e,t,i){var n=this;return void 0===e&&(e=!1),void 0===t&&(t=!1),void 0===i&&(i=!1),this._isSelectElement?(this._store.withTxn(function(){var r=n.passedElement.optionsAsChoices(),o={};i||n._store.items.forEach(function(e){e.id&&e.active&&e.selected&&(o[e.value]=!0)}),n.clearStore(!1);var a=function(e){i?n._store.dispatch(De(e)):o[e.value]&&(e.selected=!0)};r.forEach(function(e){"choices"in e?e.choices.forEach(a):a(e)}),n._addPredefinedChoices(r,t,e),n._isSearching&&n._searchChoices(n.input.value)}),this):(this.config.silent||console.warn("refresh method can only be used on choices backed by a <select> element"),this)},e.prototype.removeChoice=function(e){var t=this._store.choices.find(function(t){return t.value===e});return t?(this._clearNotice(),this._store.dispatch(function(e){return{type:X,choice:e}}(t)),this._searcher.reset(),t.selected&&this.passedElement.triggerEvent(pe,this._getChoiceForOutput(t)),this):this},e.prototype.clearChoices=function(e,t){var i=this;return void 0===e&&(e=!0),void 0===t&&(t=!1),e&&(t?this.passedElement.element.replaceChildren(""):this.passedElement.element.querySelectorAll(":not([selected])").forEach(function(e){e.remove()})),this.itemList.element.replaceChildren(""),this.choiceList.element.replaceChildren(""),this._clearNotice(),this._store.withTxn(function(){var e=t?[]:i._store.items;i._store.reset(),e.forEach(function(e){i._store.dispatch(Te(e)),i._store.dispatch(Fe(e))})}),this._searcher.reset(),this},e.prototype.clearStore=function(e){return void 0===e&&(e=!0),this.clearChoices(e,!0),this._stopSearch(),this._lastAddedChoiceId=0,this._lastAddedGroupId=0,this},e.prototype.clearInput=function(){var e=!this._isSelectOneElement;return this.input.clear(e),this._stopSearch(),this},e.prototype._validateConfig=function(){var e,t,i,n,r=this.config,o=(e=r,t=ct,i=Object.keys(e).sort(),n=Object.keys(t).sort(),i.filter(function(e){return n.indexOf(e)<0}));o.length&&console.warn("Unknown config option(s) passed",o.join(", ")),r.allowHTML&&r.allowHtmlUserInput&&(r.addItems&&console.warn("Warning: allowHTML/allowHtmlUserInput/addItems all being true is strongly not recommended and may lead to XSS attacks"),r.addChoices&&console.warn("Warning: allowHTML/allowHtmlUserInput/addChoices all being true is strongly not recommended and may lead to XSS attacks"))},e.prototype._render=function(e){void 0===e&&(e={choices:!0,groups:!0,items:!0}),this._store.inTxn()||(this._isSelectElement&&(e.choices||e.groups)&&this._renderChoices(),e.items&&this._renderItems())},e.prototype._renderChoices=function(){var e=this;if(this._canAddItems()){var t=this.config,i=this._isSearching,n=this._store,r=n.activeGroups,o=n.activeChoices,a=0;if(i&&t.searchResultLimit>0?a=t.searchResultLimit:t.renderChoiceLimit>0&&(a=t.renderChoiceLimit),this._isSelectElement){var s=o.filter(function(e){return!e.element});s.length&&this.passedElement.addOptions(s)}var c=document.createDocumentFragment(),l=function(e){return e.filter(function(e){return!e.placeholder&&(i?!!e.rank:t.renderSelectedChoices||!e.selected)})},u=!1,d=function(n,r,o){i?n.sort($e):t.shouldSort&&n.sort(t.sorter);var s=n.length;s=!r&&a&&s>a?a:s,s--,n.every(function(n,r){var a=n.choiceEl||e._templates.choice(t,n,t.itemSelectText,o);return n.choiceEl=a,c.appendChild(a),!i&&n.selected||(u=!0),r<s})};o.length&&(t.resetScrollPosition&&requestAnimationFrame(function(){return e.choiceList.scrollToTop()}),this._hasNonChoicePlaceholder||i||!this._isSelectOneElement||d(o.filter(function(e){return e.placeholder&&!e.group}),!1,void 0),r.length&&!i?(t.shouldSort&&r.sort(t.sorter),d(o.filter(function(e){return!e.placeholder&&!e.group}),!1,void 0),r.forEach(function(n){var r=l(n.choices);if(r.length){if(n.label){var o=n.groupEl||e._templates.choiceGroup(e.config,n);n.groupEl=o,o.remove(),c.appendChild(o)}d(r,!0,t.appendGroupInSearch&&i?n.label:void 0)}})):d(l(o),!1,void 0)),u||!i&&c.children.length&&t.renderSelectedChoices||(this._notice||(this._notice={text:qe(i?t.noResultsText:t.noChoicesText),type:i?pt:ht}),c.replaceChildren("")),this._renderNotice(c),this.choiceList.element.replaceChildren(c),u&&this._highlightChoice()}},e.prototype._renderItems=function(){var e=this,t=this._store.items||[],i=this.itemList.element,n=this.config,r=document.createDocumentFragment(),o=function(e){return i.querySelector('[data-item][data-id="'.concat(e.id,'"]'))},a=function(t){var i=t.itemEl;i&&i.parentElement||(i=o(t)||e._templates.item(n,t,n.removeItemButton),t.itemEl=i,r.appendChild(i))};t.forEach(a);var s=!!r.childNodes.length;if(this._isSelectOneElement){var c=i.children.length;if(s||c>1){var l=i.querySelector(We(n.classNames.placeholder));l&&l.remove()}else s||c||!this._placeholderValue||(s=!0,a(ot({selected:!0,value:"",label:this._placeholderValue,placeholder:!0},!1)))}s&&(i.append(r),n.shouldSortItems&&!this._isSelectOneElement&&(t.sort(n.sorter),t.forEach(function(e){var t=o(e);t&&(t.remove(),r.append(t))}),i.append(r))),this._isTextElement&&(this.passedElement.value=t.map(function(e){return e.value}).join(n.delimiter))},e.prototype._displayNotice=function(e,t,i){void 0===i&&(i=!0);var n=this._notice;n&&(n.type===t&&n.text===e||n.type===ft&&(t===pt||t===ht))?i&&this.showDropdown(!0):(this._clearNotice(),this._notice=e?{text:e,type:t}:void 0,this._renderNotice(),i&&e&&this.showDropdown(!0))},e.prototype._clearNotice=function(){if(this._notice){var e=this.choiceList.element.querySelector(We(this.config.classNames.notice));e&&e.remove(),this._notice=void 0}},e.prototype._renderNotice=function(e){var t=this._notice;if(t){var i=this._templates.notice(this.config,t.text,t.type);e?e.append(i):this.choiceList.prepend(i)}},e.prototype._getChoiceForOutput=function(e,t){return{id:e.id,highlighted:e.highlighted,labelClass:e.labelClass,labelDescription:e.labelDescription,customProperties:e.customProperties,disabled:e.disabled,active:e.active,label:e.label,placeholder:e.placeholder,value:e.value,groupValue:e.group?e.group.label:void 0,element:e.element,keyCode:t}},e.prototype._triggerChange=function(e){null!=e&&this.passedElement.triggerEvent(le,{value:e})},e.prototype._handleButtonAction=function(e){var t=this,i=this._store.items;if(i.length&&this.config.removeItems&&this.config.removeItemButton){var n=e&&_i(e.parentElement),r=n&&i.find(function(e){return e.id===n});r&&this._store.withTxn(function(){if(t._removeItem(r),t._triggerChange(r.value),t._isSelectOneElement&&!t._hasNonChoicePlaceholder){var e=(t.config.shouldSort?t._store.choices.reverse():t._store.choices).find(function(e){return e.placeholder});e&&(t._addItem(e),t.unhighlightAll(),e.value&&t._triggerChange(e.value))}})}},e.prototype._handleItemAction=function(e,t){var i=this;void 0===t&&(t=!1);var n=this._store.items;if(n.length&&this.config.removeItems&&!this._isSelectOneElement){var r=_i(e);r&&(n.forEach(function(e){e.id!==r||e.highlighted?!t&&e.highlighted&&i.unhighlightItem(e):i.highlightItem(e)}),this.input.focus())}},e.prototype._handleChoiceAction=function(e){var t=this,i=_i(e),n=i&&this._store.getChoiceById(i);if(!n||n.disabled)return!1;var r=this.dropdown.isActive;if(!n.selected){if(!this._canAddItems())return!0;this._store.withTxn(function(){t._addItem(n,!0,!0),t.clearInput(),t.unhighlightAll()}),this._triggerChange(n.value)}return r&&this.config.closeDropdownOnSelect&&(this.hideDropdown(!0),this.containerOuter.element.focus()),!0},e.prototype._handleBackspace=function(e){var t=this.config;if(t.removeItems&&e.length){var i=e[e.length-1],n=e.some(function(e){return e.highlighted});t.editItems&&!n&&i?(this.input.value=i.value,this.input.setWidth(),this._removeItem(i),this._triggerChange(i.value)):(n||this.highlightItem(i,!1),this.removeHighlightedItems(!0))}},e.prototype._loadChoices=function(){var e,t=this,i=this.config;if(this._isTextElement){if(this._presetChoices=i.items.map(function(e){return ot(e,!1)}),this.passedElement.value){var n=this.passedElement.value.split(i.delimiter).map(function(e){return ot(e,!1,t.config.allowHtmlUserInput)});this._presetChoices=this._presetChoices.concat(n)}this._presetChoices.forEach(function(e){e.selected=!0})}else if(this._isSelectElement){this._presetChoices=i.choices.map(function(e){return ot(e,!0)});var r=this.passedElement.optionsAsChoices();r&&(e=this._presetChoices).push.apply(e,r)}},e.prototype._handleLoadingState=function(e){void 0===e&&(e=!0);var t=this.itemList.element;e?(this.disable(),this.containerOuter.addLoadingState(),this._isSelectOneElement?t.replaceChildren(this._templates.placeholder(this.config,this.config.loadingText)):this.input.placeholder=this.config.loadingText):(this.enable(),this.containerOuter.removeLoadingState(),this._isSelectOneElement?(t.replaceChildren(""),this._render()):this.input.placeholder=this._placeholderValue||"")},e.prototype._handleSearch=function(e){if(this.input.isFocussed)if(null!=e&&e.length>=this.config.searchFloor){var t=this.config.searchChoices?this._searchChoices(e):0;null!==t&&this.passedElement.triggerEvent(de,{value:e,resultCount:t})}else this._store.choices.some(function(e){return!e.active})&&this._stopSearch()},e.prototype._canAddItems=function(){var e=this.config,t=e.maxItemCount,i=e.maxItemText;return!e.singleModeForMultiSelect&&t>0&&t<=this._store.items.length?(this.choiceList.element.replaceChildren(""),this._notice=void 0,this._displayNotice("function"==typeof i?i(t):i,ft),!1):(this._notice&&this._notice.type===ft&&this._clearNotice(),!0)},e.prototype._canCreateItem=function(e){var t=this.config,i=!0,n="";if((i&&"function"==typeof t.addItemFilter&&!t.addItemFilter(e)&&(i=!1,n=Re(t.customAddItemText,e)),i)&&this._store.choices.find(function(i){return t.valueComparer(i.value,e)})){if(this._isSelectElement)return this._displayNotice("",ft),!1;t.duplicateItemsAllowed||(i=!1,n=Re(t.uniqueItemText,e))}return i&&(n=Re(t.addItemText,e)),n&&this._displayNotice(n,ft),i},e.prototype._searchChoices=function(e){var t=e.trim().replace(/\s{2,}/," ");if(!t.length||t===this._currentValue)return null;var i=this._searcher;i.isEmptyIndex()&&i.index(this._store.searchableChoices);var n=i.search(t);this._currentValue=t,this._highlightPosition=0,this._isSearching=!0;var r=this._notice;return(r&&r.type)!==ft&&(n.length?this._clearNotice():this._displayNotice(qe(this.config.noResultsText),pt)),this._store.dispatch(function(e){return{type:ee,results:e}}(n)),n.length},e.prototype._stopSearch=function(){this._isSearching&&(this._currentValue="",this._isSearching=!1,this._clearNotice(),this._store.dispatch({type:te,active:!0}),this.passedElement.triggerEvent(de,{value:"",resultCount:0}))},e.prototype._addEventListeners=function(){var e=this._docRoot,t=this.containerOuter.element,i=this.input.element;e.addEventListener("touchend",this._onTouchEnd,!0),t.addEventListener("keydown",this._onKeyDown,!0),t.addEventListener("mousedown",this._onMouseDown,!0),e.addEventListener("click",this._onClick,{passive:!0}),e.addEventListener("touchmove",this._onTouchMove,{passive:!0}),this.dropdown.element.addEventListener("mouseover",this._onMouseOver,{passive:!0}),this._isSelectOneElement&&(t.addEventListener("focus",this._onFocus,{passive:!0}),t.addEventListener("blur",this._onBlur,{passive:!0})),i.addEventListener("keyup",this._onKeyUp,{passive:!0}),i.addEventListener("input",this._onInput,{passive:!0}),i.addEventListener("focus",this._onFocus,{passive:!0}),i.addEventListener("blur",this._onBlur,{passive:!0}),i.form&&i.form.addEventListener("reset",this._onFormReset,{passive:!0}),this.input.addEventListeners()},e.prototype._removeEventListeners=function(){var e=this._docRoot,t=this.containerOuter.element,i=this.input.element;e.removeEventListener("touchend",this._onTouchEnd,!0),t.removeEventListener("keydown",this._onKeyDown,!0),t.removeEventListener("mousedown",this._onMouseDown,!0),e.removeEventListener("click",this._onClick),e.removeEventListener("touchmove",this._onTouchMove),this.dropdown.element.removeEventListener("mouseover",this._onMouseOver),this._isSelectOneElement&&(t.removeEventListener("focus",this._onFocus),t.removeEventListener("blur",this._onBlur)),i.removeEventListener("keyup",this._onKeyUp),i.removeEventListener("input",this._onInput),i.removeEventListener("focus",this._onFocus),i.removeEventListener("blur",this._onBlur),i.form&&i.form.removeEventListener("reset",this._onFormReset),this.input.removeEventListeners()},e.prototype._onKeyDown=function(e){var t=e.keyCode,i=this.dropdown.isActive,n=1===e.key.length||2===e.key.length&&e.key.charCodeAt(0)>=55296||"Unidentified"===e.key;switch(this._isTextElement||i||t===we||t===ve||t===ye||(this.showDropdown(),!this.input.isFocussed&&n&&(this.input.value+=e.key," "===e.key&&e.preventDefault())),t){case xe:return this._onSelectKey(e,this.itemList.element.hasChildNodes());case _e:return this._onEnterKey(e,i);case we:return this._onEscapeKey(e,i);case Ce:case Se:case Ee:case Pe:return this._onDirectionKey(e,i);case ke:case be:return this._onDeleteKey(e,this._store.items,this.input.isFocussed)}},e.prototype._onKeyUp=function(){this._canSearch=this.config.searchEnabled},e.prototype._onInput=function(){var e=this.input.value;e?this._canAddItems()&&(this._canSearch&&this._handleSearch(e),this._canAddUserChoices&&(this._canCreateItem(e),this._isSelectElement&&(this._highlightPosition=0,this._highlightChoice()))):this._isTextElement?this.hideDropdown(!0):this._stopSearch()},e.prototype._onSelectKey=function(e,t){(e.ctrlKey||e.metaKey)&&t&&(this._canSearch=!1,this.config.removeItems&&!this.input.value&&this.input.element===document.activeElement&&this.highlightAll())},e.prototype._onEnterKey=function(e,t){var i=this,n=this.input.value,r=e.target;if(e.preventDefault(),r&&r.hasAttribute("data-button"))this._handleButtonAction(r);else if(t){var o=this.dropdown.element.querySelector(We(this.config.classNames.highlightedState));if(!o||!this._handleChoiceAction(o))if(r&&n){if(this._canAddItems()){var a=!1;this._store.withTxn(function(){if(!(a=i._findAndSelectChoiceByValue(n,!0))){if(!i._canAddUserChoices)return;if(!i._canCreateItem(n))return;i._addChoice(ot(n,!1,i.config.allowHtmlUserInput),!0,!0),a=!0}i.clearInput(),i.unhighlightAll()}),a&&(this._triggerChange(n),this.config.closeDropdownOnSelect&&this.hideDropdown(!0))}}else this.hideDropdown(!0)}else(this._isSelectElement||this._notice)&&this.showDropdown()},e.prototype._onEscapeKey=function(e,t){t&&(e.stopPropagation(),this.hideDropdown(!0),this._stopSearch(),this.containerOuter.element.focus())},e.prototype._onDirectionKey=function(e,t){var i,n,r,o=e.keyCode;if(t||this._isSelectOneElement){this.showDropdown(),this._canSearch=!1;var a=o===Ee||o===Pe?1:-1,s=void 0;if(e.metaKey||o===Pe||o===Se)s=a>0?this.dropdown.element.querySelector("".concat(xi,":last-of-type")):this.dropdown.element.querySelector(xi);else{var c=this.dropdown.element.querySelector(We(this.config.classNames.highlightedState));s=c?function(e,t,i){void 0===i&&(i=1);for(var n="".concat(i>0?"next":"previous","ElementSibling"),r=e[n];r;){if(r.matches(t))return r;r=r[n]}return null}(c,xi,a):this.dropdown.element.querySelector(xi)}s&&(i=s,n=this.choiceList.element,void 0===(r=a)&&(r=1),(r>0?n.scrollTop+n.offsetHeight>=i.offsetTop+i.offsetHeight:i.offsetTop>=n.scrollTop)||this.choiceList.scrollToChildElement(s,a),this._highlightChoice(s)),e.preventDefault()}},e.prototype._onDeleteKey=function(e,t,i){this._isSelectOneElement||e.target.value||!i||(this._handleBackspace(t),e.preventDefault())},e.prototype._onTouchMove=function(){this._wasTap&&(this._wasTap=!1)},e.prototype._onTouchEnd=function(e){var t=(e||e.touches[0]).target;this._wasTap&&this.containerOuter.element.contains(t)&&((t===this.containerOuter.element||t===this.containerInner.element)&&(this._isTextElement?this.input.focus():this._isSelectMultipleElement&&this.showDropdown()),e.stopPropagation());this._wasTap=!0},e.prototype._onMouseDown=function(e){var t=e.target;if(t instanceof HTMLElement){if(bi&&this.choiceList.element.contains(t)){var i=this.choiceList.element.firstElementChild;this._isScrollingOnIe="ltr"===this._direction?e.offsetX>=i.offsetWidth:e.offsetX<i.offsetLeft}if(t!==this.input.element){var n=t.closest("[data-button],[data-item],[data-choice]");n instanceof HTMLElement&&("button"in n.dataset?this._handleButtonAction(n):"item"in n.dataset?this._handleItemAction(n,e.shiftKey):"choice"in n.dataset&&this._handleChoiceAction(n)),e.preventDefault()}}},e.prototype._onMouseOver=function(e){var t=e.target;t instanceof HTMLElement&&"choice"in t.dataset&&this._highlightChoice(t)},e.prototype._onClick=function(e){var t=e.target,i=this.containerOuter;i.element.contains(t)?this.dropdown.isActive||i.isDisabled?this._isSelectOneElement&&t!==this.input.element&&!this.dropdown.element.contains(t)&&this.hideDropdown():this._isTextElement?document.activeElement!==this.input.element&&this.input.focus():(this.showDropdown(),i.element.focus()):(i.removeFocusState(),this.hideDropdown(!0),this.unhighlightAll())},e.prototype._onFocus=function(e){var t=e.target,i=this.containerOuter;if(t&&i.element.contains(t)){var n=t===this.input.element;this._isTextElement?n&&i.addFocusState():this._isSelectMultipleElement?n&&(this.showDropdown(!0),i.addFocusState()):(i.addFocusState(),n&&this.showDropdown(!0))}},e.prototype._onBlur=function(e){var t=e.target,i=this.containerOuter;t&&i.element.contains(t)&&!this._isScrollingOnIe?t===this.input.element?(i.removeFocusState(),this.hideDropdown(!0),(this._isTextElement||this._isSelectMultipleElement)&&this.unhighlightAll()):t===this.containerOuter.element&&(i.removeFocusState(),this._canSearch||this.hideDropdown(!0)):(this._isScrollingOnIe=!1,this.input.element.focus())},e.prototype._onFormReset=function(){var e=this;this._store.withTxn(function(){e.clearInput(),e.hideDropdown(),e.refresh(!1,!1,!0),e._initialItems.length&&e.setChoiceByValue(e._initialItems)})},e.prototype._highlightChoice=function(e){void 0===e&&(e=null);var t=Array.from(this.dropdown.element.querySelectorAll(xi));if(t.length){var i=e,n=this.config.classNames.highlightedState;Array.from(this.dropdown.element.querySelectorAll(We(n))).forEach(function(e){Je(e,n),e.setAttribute("aria-selected","false")}),i?this._highlightPosition=t.indexOf(i):(i=t.length>this._highlightPosition?t[this._highlightPosition]:t[t.length-1])||(i=t[0]),Ue(i,n),i.setAttribute("aria-selected","true"),this.passedElement.triggerEvent(ge,{el:i}),this.dropdown.isActive&&(this.input.setActiveDescendant(i.id),this.containerOuter.setActiveDescendant(i.id))}},e.prototype._addItem=function(e,t,i){if(void 0===t&&(t=!0),void 0===i&&(i=!1),!e.id)throw new TypeError("item.id must be set before _addItem is called for a choice/item");(this.config.singleModeForMultiSelect||this._isSelectOneElement)&&this.removeActiveItems(e.id),this._store.dispatch(Fe(e)),t&&(this.passedElement.triggerEvent(he,this._getChoiceForOutput(e)),i&&this.passedElement.triggerEvent(ue,this._getChoiceForOutput(e)))},e.prototype._removeItem=function(e){if(e.id){this._store.dispatch(De(e));var t=this._notice;t&&t.type===ht&&this._clearNotice(),this.passedElement.triggerEvent(pe,this._getChoiceForOutput(e))}},e.prototype._addChoice=function(e,t,i){if(void 0===t&&(t=!0),void 0===i&&(i=!1),e.id)throw new TypeError("Can not re-add a choice which has already been added");var n=this.config;if(n.duplicateItemsAllowed||!this._store.choices.find(function(t){return n.valueComparer(t.value,e.value)})){this._lastAddedChoiceId++,e.id=this._lastAddedChoiceId,e.elementId="".concat(this._baseId,"-").concat(this._idNames.itemChoice,"-").concat(e.id);var r=n.prependValue,o=n.appendValue;r&&(e.value=r+e.value),o&&(e.value+=o.toString()),(r||o)&&e.element&&(e.element.value=e.value),this._clearNotice(),this._store.dispatch(Te(e)),e.selected&&this._addItem(e,t,i)}},e.prototype._addGroup=function(e,t){var i=this;if(void 0===t&&(t=!0),e.id)throw new TypeError("Can not re-add a group which has already been added");this._store.dispatch(function(e){return{type:ne,group:e}}(e)),e.choices&&(this._lastAddedGroupId++,e.id=this._lastAddedGroupId,e.choices.forEach(function(n){n.group=e,e.disabled&&(n.disabled=!0),i._addChoice(n,t)}))},e.prototype._createTemplates=function(){var e=this,t=this.config.callbackOnCreateTemplates,i={};"function"==typeof t&&(i=t.call(this,Be,ze,Ge));var n={};Object.keys(this._templates).forEach(function(t){n[t]=t in i?i[t].bind(e):e._templates[t].bind(e)}),this._templates=n},e.prototype._createElements=function(){var e=this._templates,t=this.config,i=this._isSelectOneElement,n=t.position,r=t.classNames,o=this._elementType;this.containerOuter=new Qe({element:e.containerOuter(t,this._direction,this._isSelectElement,i,t.searchEnabled,o,t.labelId),classNames:r,type:o,position:n}),this.containerInner=new Qe({element:e.containerInner(t),classNames:r,type:o,position:n}),this.input=new Xe({element:e.input(t,this._placeholderValue),classNames:r,type:o,preventPaste:!t.paste}),this.choiceList=new et({element:e.choiceList(t,i)}),this.itemList=new et({element:e.itemList(t,i)}),this.dropdown=new Ze({element:e.dropdown(t),classNames:r,type:o})},e.prototype._createStructure=function(){var e=this,t=e.containerInner,i=e.containerOuter,n=e.passedElement,r=this.dropdown.element;n.conceal(),t.wrap(n.element),i.wrap(t.element),this._isSelectOneElement?this.input.placeholder=this.config.searchPlaceholderValue||"":(this._placeholderValue&&(this.input.placeholder=this._placeholderValue),this.input.setWidth()),i.element.appendChild(t.element),i.element.appendChild(r),t.element.appendChild(this.itemList.element),r.appendChild(this.choiceList.element),this._isSelectOneElement?this.config.searchEnabled&&r.insertBefore(this.input.element,r.firstChild):t.element.appendChild(this.input.element),this._highlightPosition=0,this._isSearching=!1},e.prototype._initStore=function(){var e=this;this._store.subscribe(this._render).withTxn(function(){e._addPredefinedChoices(e._presetChoices,e._isSelectOneElement&&!e._hasNonChoicePlaceholder,!1)}),(!this._store.choices.length||this._isSelectOneElement&&this._hasNonChoicePlaceholder)&&this._render()},e.prototype._addPredefinedChoices=function(e,t,i){var n=this;(void 0===t&&(t=!1),void 0===i&&(i=!0),t)&&(-1===e.findIndex(function(e){return e.selected})&&e.some(function(e){return!e.disabled&&!("choices"in e)&&(e.selected=!0,!0)}));e.forEach(function(e){"choices"in e?n._isSelectElement&&n._addGroup(e,i):n._addChoice(e,i)})},e.prototype._findAndSelectChoiceByValue=function(e,t){var i=this;void 0===t&&(t=!1);var n=this._store.choices.find(function(t){return i.config.valueComparer(t.value,e)});return!(!n||n.disabled||n.selected)&&(this._addItem(n,!0,t),!0)},e.prototype._generatePlaceholderValue=function(){var e=this.config;if(!e.placeholder)return null;if(this._hasNonChoicePlaceholder)return e.placeholderValue;if(this._isSelectElement){var t=this.passedElement.placeholderOption;return t?t.text:null}return null},e.prototype._warnChoicesInitFailed=function(e){if(!this.config.silent){if(!this.initialised)throw new TypeError("".concat(e," called on a non-initialised instance of Choices"));if(!this.initialisedOK)throw new TypeError("".concat(e," called for an element which has multiple instances of Choices initialised on it"))}},e.version="11.1.0",e}(),Ci=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.uniqueId=t.uniqueId,this.birthcountryChoices=null,this.birthplaceChoices=null,this.identity=null},[{key:"showCreateIdentityForm",value:(o=i(f().m(function e(){return f().w(function(e){for(;;)switch(e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),this.identity=null,e.n=1,this.displayForm("create");case 1:this.identityPicker.hideLoading();case 2:return e.a(2)}},e,this)})),function(){return o.apply(this,arguments)})},{key:"showModifyIdentityForm",value:(n=i(f().m(function e(t){var i,n,r,o,a;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loading),i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t),e.p=1,e.n=2,fetch(i);case 2:if((n=e.v).ok){e.n=3;break}throw n;case 3:return e.n=4,n.json();case 4:this.identity=e.v,this.displayForm("modify"),e.n=6;break;case 5:e.p=5,a=e.v,console.error(this.identityPicker.rules.language.fetchError,a),r=a instanceof Response?403===a.status?"".concat(this.identityPicker.rules.language.httpError," 403"):"".concat(this.identityPicker.rules.language.httpError," ").concat(a.status):a.message,o=r.includes("403")?"noPermissions":"errorMessage",this.identityPicker.showMessage(o,"error",r);case 6:return e.p=6,this.identityPicker.hideLoading(),e.f(6);case 7:return e.a(2)}},e,this,[[1,5,6,7]])})),function(e){return n.apply(this,arguments)})},{key:"displayForm",value:(t=i(f().m(function e(t){var i,n,r,o,a,s,c,l=this;return f().w(function(e){for(;;)switch(e.n){case 0:for(this.birthcountryChoices&&(this.birthcountryChoices.destroy(),this.birthcountryChoices=null),this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),i="ip-".concat(t,"-form-").concat(this.uniqueId),n='<form id="'.concat(i,'">'),r=0,o=Object.entries(this.identityPicker.config.attributeGroups);r<o.length;r++)a=v(o[r],2),s=a[0],c=a[1],n+='<fieldset class="ip-fieldset">\n                <legend>'.concat(this.identityPicker.rules.language["".concat(s,"Group")],"</legend>"),c.attributes.forEach(function(e){n+=l.generateAttributeField(e)}),n+="</fieldset>";n+='<div class="ip-container-buttons">\n            <button class="ip-button-back ip-button-light" type="button">'.concat(this.identityPicker.rules.language.backButton,'</button>\n            <button type="submit">').concat("create"===t?this.identityPicker.rules.language.createButton:this.identityPicker.rules.language.modifyButton,"</button>\n        </div></form>"),this.identityPicker.identityFormContainer.innerHTML=n,this.identityPicker.identityFormContainer.querySelector(".ip-button-back").addEventListener("click",function(){"create"===t?l.identityPicker.showResultsView():l.identityPicker.showDetailsView(l.identity.customer_id,"results")}),this.initializeFormBehavior(i,t);case 1:return e.a(2)}},e,this)})),function(e){return t.apply(this,arguments)})},{key:"generateAttributeField",value:function(e){var t=this;if("birthcountry_code"===e||"birthplace_code"===e){var i=this.identity?B(this.identity,e):"";return'<input type="hidden" id="'.concat(e,'" name="').concat(e,'" value="').concat(i,'">')}var n=this.identityPicker.rules.contract.attributeDefinitions.find(function(t){return t.keyName===e});if(!n)return"";var r=n.attributeRight&&n.attributeRight.writable;if(!r&&this.identity){var o=this.identity.attributes.find(function(t){return t.key===e}),a=o?o.value:"";if(!a)return"";var s=H(e,a,this.identityPicker.rules.referential);return'\n                <div class="ip-form-row ip-readonly-field">\n                    <div class="ip-form-input">\n                        <label for="'.concat(n.keyName,'">').concat(n.name,'</label>\n                        <div class="ip-readonly-value">').concat(s,"</div>\n                    </div>\n                </div>")}if(!r)return"";var c=this.identity?this.identity.attributes.find(function(t){return t.key===e}):null,l=c?c.value:"",u=null!=c&&c.certProcess?this.getCertificationLevel(e,c.certProcess):0,d="";if(null!=c&&c.certProcess&&!n.attributeCertifications.find(function(e){return e.code===c.certProcess})){var h=q(e,c.certProcess,this.identityPicker.rules.referential,this.identityPicker.rules.language);d='<option value="'.concat(c.certProcess,'" selected>').concat(h.label," (").concat(this.identityPicker.rules.language.qualityLabel," ").concat(u,")</option>")}var p=n.attributeCertifications.sort(function(e,t){return parseInt(e.level)-parseInt(t.level)}).filter(function(e){return null==c||!c.certProcess||parseInt(e.level)>=u}).map(function(e){return'<option value="'.concat(e.code,'" ').concat((null==c?void 0:c.certProcess)===e.code?"selected":"",">").concat(e.label," (").concat(t.identityPicker.rules.language.qualityLabel," ").concat(e.level,")</option>")}).join("");return"\n            ".concat("birthcountry"===n.keyName?'<div class="ip-info-message info" id="birthcountry-message" style="display:none">\n                <p class="ip-info-message-main">▲ Veuillez fournir la date de naissance pour pouvoir saisir le pays de naissance</p>\n            </div>':"","\n            ").concat("birthplace"===n.keyName?'<div class="ip-info-message info" id="birthplace-message" style="display:none">\n                <p class="ip-info-message-main">▲ Veuillez fournir le pays de naissance pour pouvoir saisir la commune de naissance</p>\n            </div>':"",'\n            <div class="ip-form-row">\n                <div class="ip-form-input">\n                    <label for="').concat(n.keyName,'">').concat(n.name," ").concat(n.attributeRight.mandatory?'<span class="ip-required">'.concat(this.identityPicker.rules.language.mandatory,"</span>"):"","</label>\n                    ").concat(this.getInputFieldHtml(n,l),'\n                    <div class="ip-field-error" id="').concat(n.keyName,'-error" style="display: none;"></div>\n                </div>\n                <div class="ip-form-select">\n                    <label for="').concat(n.keyName,'-certification">').concat(this.identityPicker.rules.language.selectCertification,' <span class="ip-required" id="').concat(n.keyName,'-cert-required" style="').concat(l?"":"display: none;",'">').concat(this.identityPicker.rules.language.mandatory,'</span></label>\n                    <select id="').concat(n.keyName,'-certification" name="').concat(n.keyName,'-certification" class="ip-select" ').concat(l?"required":"",' data-initial-cert="').concat((null==c?void 0:c.certProcess)||"",'" data-initial-level="').concat(u,'">\n                        <option value="" ').concat(null!=c&&c.certProcess?"":"selected"," disabled>").concat(this.identityPicker.rules.language.selectCertification,"</option>\n                        ").concat(d,"\n                        ").concat(p,'\n                    </select>\n                    <div class="ip-field-error" id="').concat(n.keyName,'-certification-error" style="display: none;"></div>\n                </div>\n            </div>')}},{key:"getCertificationLevel",value:function(e,t){var i=this.identityPicker.rules.referential.processList.processus.find(function(e){return e.code===t});if(i){var n=i.attributeCertificationLevels.find(function(t){return t.attributeKey===e});if(n&&n.level)return parseInt(n.level.level||0)}return 0}},{key:"getInputFieldHtml",value:function(e,t){if("birthcountry"===e.keyName)return'\n                <select id="birthcountry" name="birthcountry" class="ip-birthcountry-select" '.concat(e.attributeRight.mandatory?"required":"",">\n                    ").concat(t?'<option value="'.concat(t,'" selected>').concat(t,"</option>"):"","\n                </select>");if("birthdate"===e.keyName){var i="";if(t){var n=t.split("/");3===n.length&&(i="".concat(n[2],"-").concat(n[1],"-").concat(n[0]))}return'<input type="date" id="'.concat(e.keyName,'" name="').concat(e.keyName,'" value="').concat(i,'" ').concat(e.attributeRight.mandatory?"required":"",">")}var r=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.find(function(t){return t.keyName===e.keyName});return r&&r.values&&r.values.length>0?'\n                    <select id="'.concat(e.keyName,'" class="ip-select" name="').concat(e.keyName,'" ').concat(e.attributeRight.mandatory?"required":"",'>\n                        <option value="" ').concat(t?"":"selected"," disabled>").concat(this.identityPicker.rules.language.selectValue,"</option>\n                        ").concat(r.values.map(function(e){return'\n                            <option value="'.concat(e.value,'" ').concat(e.value===t?"selected":"",">").concat(e.label,"</option>\n                        ")}).join(""),"\n                    </select>"):'<input type="text" id="'.concat(e.keyName,'" name="').concat(e.keyName,'" value="').concat(t,'" ').concat(e.attributeRight.mandatory?"required":"",">")}},{key:"initializeFormBehavior",value:function(e,t){var i=this;this.initializeChoices(),this.initBirthcountrySelect(),this.applyFormRules();var n=this.identityPicker.identityFormContainer.querySelector("#".concat(e)),r=n.querySelectorAll('input[type="text"], input[type="email"], input[type="date"], select:not([id$="-certification"])');r.forEach(function(e){e.value&&i.validateAttributePair(e),e.addEventListener("input",function(e){i.validateAttributePair(e.target)}),e.addEventListener("change",function(e){i.validateAttributePair(e.target)}),e.addEventListener("blur",function(e){i.validateAttributePair(e.target)})});var o=n.querySelectorAll('select[id$="-certification"]');o.forEach(function(e){var t=e.id.replace("-certification",""),r=n.querySelector("#".concat(t));r&&r.value&&i.validateCertificationLevel(e),e.addEventListener("change",function(e){i.validateCertificationLevel(e.target)})}),n.addEventListener("submit",function(e){e.preventDefault();var a=!0;if(r.forEach(function(e){i.validateAttributePair(e)||(a=!1,e.focus())}),o.forEach(function(e){i.validateCertificationLevel(e)||(a=!1,e.focus())}),a){var s=i.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName});i.validatePivotCertificationConsistency(s,n)?i.submitForm(e.target,t):a=!1}a||i.identityPicker.showMessage(i.identityPicker.rules.language.formValidationError||"Veuillez corriger les erreurs dans le formulaire avant de soumettre","error")});var a=this.identityPicker.identityFormContainer.querySelector("#birthdate"),s=this.identityPicker.identityFormContainer.querySelector("#birthcountry");a&&a.addEventListener("change",function(){return i.applyFormRules()}),s&&s.addEventListener("change",function(){return i.applyFormRules()})}},{key:"validateAttributePair",value:function(e){var t=e.id,i=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification")),n=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-cert-required")),r=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification-error"));return!i||(!e.value||""===e.value.trim()?(i.required=!1,n&&(n.style.display="none"),r&&(r.style.display="none",r.textContent=""),!0):(i.required=!0,n&&(n.style.display="inline"),i.value?(r&&(r.style.display="none",r.textContent=""),i.classList.remove("ip-error-input"),!0):(r&&(r.textContent=this.identityPicker.rules.language.certificationRequired||"La certification est obligatoire",r.style.display="block"),i.classList.add("ip-error-input"),!1)))}},{key:"validateCertificationLevel",value:function(e){var t=e.id.replace("-certification",""),i=this.identityPicker.identityFormContainer.querySelector("#".concat(t)),n=this.identityPicker.identityFormContainer.querySelector("#".concat(t,"-certification-error"));if(!i)return!0;if(!i.value||""===i.value.trim()||e.value){var r=parseInt(e.dataset.initialLevel||"0");if(r>0&&e.value)if(this.getCertificationLevel(t,e.value)<r)return n&&(n.textContent=this.identityPicker.rules.language.certificationLowerLevel||"Le niveau de certification doit être supérieur ou égal au niveau actuel (".concat(r,")"),n.style.display="block"),e.classList.add("ip-error-input"),!1;return n&&(n.style.display="none",n.textContent=""),e.classList.remove("ip-error-input"),!0}return n&&(n.textContent=this.identityPicker.rules.language.certificationRequired||"La certification est obligatoire",n.style.display="block"),e.classList.add("ip-error-input"),!1}},{key:"validatePivotCertificationConsistency",value:function(e,t){var i,n=0,r={},o=s(e);try{for(o.s();!(i=o.n()).done;){var a=i.value,c=t.querySelector("#".concat(a)),l=t.querySelector("#".concat(a,"-certification"));if(c&&l&&c.value&&l.value){var u=this.getCertificationLevel(a,l.value);r[a]=u,u>n&&(n=u)}}}catch(e){o.e(e)}finally{o.f()}if(n>=400){var d=Object.keys(r);if(d.some(function(e){return r[e]!==n})){this.identityPicker.showMessage(this.identityPicker.rules.language.inconsistentCertification||"Les niveaux de certification des attributs pivots doivent être cohérents (tous du même niveau si ≥ 400)","error");var h,p=s(d);try{for(p.s();!(h=p.n()).done;){var f=h.value;if(r[f]!==n){var g=t.querySelector("#".concat(f,"-certification")),m=t.querySelector("#".concat(f,"-certification-error"));g&&g.classList.add("ip-error-input"),m&&(m.textContent=this.identityPicker.rules.language.inconsistentCertLevelForAttr||"Niveau de certification incohérent, doit être le même que les autres attributs pivots",m.style.display="block")}}}catch(e){p.e(e)}finally{p.f()}return!1}}return!0}},{key:"submitForm",value:(e=i(f().m(function e(t,i){var n,r,o,a,c,l,u,d,h,p,g,m,y,b,k,_,x,w;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:n=new FormData(t),r={},o=s(n.entries());try{for(o.s();!(a=o.n()).done;)c=v(a.value,2),l=c[0],u=c[1],d=l.split("-"),h=v(d,2),p=h[0],g=h[1],r[p]||(r[p]={}),"certification"===g?r[p].certification=u:r[p].value=u}catch(e){o.e(e)}finally{o.f()}return"create"!==i&&(r.original={last_update_date:this.identity.last_update_date,attributes:this.identity.attributes}),m="create"===i?this.identityPicker.config.endpoints.identity:"".concat(this.identityPicker.config.endpoints.identity,"/").concat(this.identity.customer_id),this.identityPicker.showLoading(this.identityPicker.rules.language.loading),e.p=1,e.n=2,fetch(m,{method:"create"===i?"POST":"PUT",headers:{"Content-Type":"application/json"},body:JSON.stringify(r)});case 2:return y=e.v,e.n=3,y.json();case 3:if(b=e.v,y.ok){e.n=4;break}throw b;case 4:return k="create"===i?"successCreate":"successModify",e.n=5,this.identityPicker.showDetailsView(b.customer_id,"results","success",k);case 5:e.n=7;break;case 6:e.p=6,w=e.v,console.error(this.identityPicker.rules.language.fetchError,w),w.status&&(w.status.attributes_status||w.status.message)?this.handleSaveError(w):w instanceof Response?(_="".concat(this.identityPicker.rules.language.httpError," ").concat(w.status),this.identityPicker.showMessage("errorMessage","error",_)):(x=w.message||this.identityPicker.rules.language.unknownError,this.identityPicker.showMessage("errorMessage","error",x));case 7:return e.p=7,this.identityPicker.hideLoading(),e.f(7);case 8:return e.a(2)}},e,this,[[1,6,7,8]])})),function(t,i){return e.apply(this,arguments)})},{key:"initializeChoices",value:function(){var e=this;this.identityPicker.shadowRoot.querySelectorAll(".ip-select").forEach(function(t){new wi(t,{searchEnabled:!1,itemSelectText:"",shouldSort:!1,placeholder:!0,shadowRoot:e.identityPicker.shadowRoot})})}},{key:"initBirthcountrySelect",value:function(){var e=this,t=this.identityPicker.shadowRoot.querySelector(".ip-birthcountry-select");t&&(this.birthcountryChoices=new wi(t,{searchEnabled:!0,itemSelectText:"",placeholder:!0,placeholderValue:this.identityPicker.rules.language.selectCountry,searchPlaceholderValue:this.identityPicker.rules.language.searchCountry,shouldSort:!1,shadowRoot:this.identityPicker.shadowRoot,noResultsText:this.identityPicker.rules.language.noCountryResults,noChoicesText:this.identityPicker.rules.language.noCountryAvailable,loadingText:this.identityPicker.rules.language.loadingCountries}),this.birthcountryChoices.passedElement.element.addEventListener("search",j(function(t){var i=t.detail.value;i&&i.length>=e.identityPicker.config.choices.minSearchLength&&e.fetchGeoCode("birthcountry",i,e.identityPicker.identityFormContainer.querySelector("#birthdate").value,e.birthcountryChoices)},this.identityPicker.config.choices.debounceTime)),this.birthcountryChoices.passedElement.element.addEventListener("choice",function(t){var i=e.identityPicker.identityFormContainer.querySelector("#birthcountry_code");i&&(i.value=t.detail.value,e.applyFormRules())}))}},{key:"fetchGeoCode",value:function(e,t,i,n){var r=this,o="".concat(this.identityPicker.config.endpoints["birthcountry"===e?"countries":"cities"],"?search=").concat(encodeURIComponent(t),"&additionalParam=").concat(encodeURIComponent(i));fetch(o,{headers:{accept:"application/json"}}).then(function(e){return e.json()}).then(function(e){if("OK"===e.status&&e.result){var t=e.result.map(function(e){return{value:e.code,label:e.displayValue||"".concat(e.value).concat(e.codeZone?" (".concat(e.codeZone,")"):"")}});n.setChoices(t,"value","label",!0)}else n.setChoices([],"value","label",!0)}).catch(function(t){console.error("".concat(r.identityPicker.rules.language.fetchError," ").concat("birthcountry"===e?r.identityPicker.rules.language.loadingCountries:r.identityPicker.rules.language.loadingCities),t),n.setChoices([],"value","label",!0)})}},{key:"applyFormRules",value:function(){var e=this.identityPicker.identityFormContainer.querySelector("#birthdate"),t=this.identityPicker.identityFormContainer.querySelector("#birthcountry"),i=this.identityPicker.identityFormContainer.querySelector("#birthcountry_code"),n=this.identityPicker.identityFormContainer.querySelector("#birthplace"),r=this.identityPicker.identityFormContainer.querySelector("#birthplace_code"),o=this.identityPicker.identityFormContainer.querySelector("#birthplace-message"),a=this.identityPicker.identityFormContainer.querySelector("#birthcountry-message");if(e&&t&&n){var s=""===e.value.trim(),c=!i||""===i.value.trim();t.disabled=s,a.style.display=s?"block":"none",this.birthcountryChoices&&(s?this.birthcountryChoices.disable():this.birthcountryChoices.enable());var l=!s&&!c;n.disabled=!l,o.style.display=l?"none":"block",l&&("99100"===i.value?this.setupBirthplaceSelect(n,r):this.setupBirthplaceInput(n,r)),!l&&this.birthplaceChoices&&this.birthplaceChoices.disable()}}},{key:"setupBirthplaceSelect",value:function(e,t){var i=this,n=e.value,r=t?t.value:"";if("select"!==e.tagName.toLowerCase()){var o=document.createElement("select");if(o.id=e.id,o.name=e.name,o.className=e.className,e.required&&(o.required=!0),n&&r){var a=document.createElement("option");a.value=r,a.text=n,a.selected=!0,o.appendChild(a)}e.parentNode.replaceChild(o,e),e=o}this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),this.birthplaceChoices=new wi(e,{searchEnabled:!0,itemSelectText:"",placeholder:!0,placeholderValue:this.identityPicker.rules.language.selectCity,searchPlaceholderValue:this.identityPicker.rules.language.searchCity,shouldSort:!1,noResultsText:this.identityPicker.rules.language.noCityResults,noChoicesText:this.identityPicker.rules.language.noCityAvailable,loadingText:this.identityPicker.rules.language.loadingCities,shadowRoot:this.identityPicker.shadowRoot}),this.birthplaceChoices.passedElement.element.addEventListener("search",j(function(e){var t=e.detail.value;t&&t.length>=i.identityPicker.config.choices.minSearchLength&&i.fetchGeoCode("birthplace",t,i.identityPicker.identityFormContainer.querySelector("#birthdate").value,i.birthplaceChoices)},this.identityPicker.config.choices.debounceTime)),this.birthplaceChoices.passedElement.element.addEventListener("choice",function(e){t&&(t.value=e.detail.value)}),n&&r&&this.birthplaceChoices.setChoiceByValue(r)}},{key:"setupBirthplaceInput",value:function(e,t){if(this.birthplaceChoices&&(this.birthplaceChoices.destroy(),this.birthplaceChoices=null),"input"!==e.tagName.toLowerCase()){var i=document.createElement("input");i.type="text",i.id=e.id,i.name=e.name,i.className=e.className,e.required&&(i.required=!0),e.parentNode.replaceChild(i,e)}t&&(t.value="")}},{key:"handleSaveError",value:function(e){if(this.clearFieldErrors(),e.status&&e.status.attributes_status){this.displayFieldErrors(e.status.attributes_status);var t=e.status.message||this.identityPicker.rules.language.validationError||"Erreur de validation";this.identityPicker.showMessage("errorMessage","error",t)}else if(e.status&&e.status.message_key){var i=this.identityPicker.rules.language[e.status.message_key]||e.status.message;this.identityPicker.showMessage("errorMessage","error",i),console.error("Erreur serveur:",e.status)}else e.status&&e.status.message?(this.identityPicker.showMessage("errorMessage","error",e.status.message),console.error("Erreur serveur:",e.status)):(this.identityPicker.showMessage("errorMessage","error",this.identityPicker.rules.language.unknownError||"Une erreur inconnue est survenue"),console.error("Erreur non catégorisée:",e))}},{key:"displayFieldErrors",value:function(e){var t=this;this.clearFieldErrors();var i=null;e.forEach(function(e){var n=t.identityPicker.identityFormContainer.querySelector('[name="'.concat(e.key,'"]'));if(n){n.classList.add("ip-error-input"),i||(i=n);var r=t.identityPicker.identityFormContainer.querySelector("#".concat(e.key,"-error"));if(r)r.textContent=e.message,r.style.display="block";else{var o=document.createElement("div");o.className="ip-field-error",o.textContent=e.message,n.parentNode.insertBefore(o,n.nextSibling)}}}),i&&setTimeout(function(){i.scrollIntoView({behavior:"smooth",block:"center"}),i.focus()},100)}},{key:"clearFieldErrors",value:function(){this.identityPicker.identityFormContainer.querySelectorAll(".ip-field-error").forEach(function(e){e.textContent="",e.style.display="none"}),this.identityPicker.identityFormContainer.querySelectorAll(".ip-error-input").forEach(function(e){return e.classList.remove("ip-error-input")})}}]);var e,t,n,o}();function Ei(e){return Array.isArray?Array.isArray(e):"[object Array]"===Ti(e)}function Si(e){return"string"==typeof e}function Pi(e){return"number"==typeof e}function Ai(e){return!0===e||!1===e||function(e){return Mi(e)&&null!==e}(e)&&"[object Boolean]"==Ti(e)}function Mi(e){return"object"===k(e)}function Li(e){return null!=e}function Ii(e){return!e.trim().length}function Ti(e){return null==e?void 0===e?"[object Undefined]":"[object Null]":Object.prototype.toString.call(e)}var Fi=Object.prototype.hasOwnProperty,Di=function(){return a(function e(t){var i=this;r(this,e),this._keys=[],this._keyMap={};var n=0;t.forEach(function(e){var t=Oi(e);i._keys.push(t),i._keyMap[t.id]=t,n+=t.weight}),this._keys.forEach(function(e){e.weight/=n})},[{key:"get",value:function(e){return this._keyMap[e]}},{key:"keys",value:function(){return this._keys}},{key:"toJSON",value:function(){return JSON.stringify(this._keys)}}])}();function Oi(e){var t=null,i=null,n=null,r=1,o=null;if(Si(e)||Ei(e))n=e,t=Ni(e),i=ji(e);else{if(!Fi.call(e,"name"))throw new Error(function(e){return"Missing ".concat(e," property in key")}("name"));var a=e.name;if(n=a,Fi.call(e,"weight")&&(r=e.weight)<=0)throw new Error(function(e){return"Property 'weight' in key '".concat(e,"' must be a positive integer")}(a));t=Ni(a),i=ji(a),o=e.getFn}return{path:t,id:i,weight:r,src:n,getFn:o}}function Ni(e){return Ei(e)?e:e.split(".")}function ji(e){return Ei(e)?e.join("."):e}var Bi={useExtendedSearch:!1,getFn:function(e,t){var i=[],n=!1,r=function(e,t,o){if(Li(e))if(t[o]){var a=e[t[o]];if(!Li(a))return;if(o===t.length-1&&(Si(a)||Pi(a)||Ai(a)))i.push(function(e){return null==e?"":function(e){if("string"==typeof e)return e;var t=e+"";return"0"==t&&1/e==-1/0?"-0":t}(e)}(a));else if(Ei(a)){n=!0;for(var s=0,c=a.length;s<c;s+=1)r(a[s],t,o+1)}else t.length&&r(a,t,o+1)}else i.push(e)};return r(e,Si(t)?t.split("."):t,0),n?i:i[0]},ignoreLocation:!1,ignoreFieldNorm:!1,fieldNormWeight:1},Ri=p(p(p(p({},{isCaseSensitive:!1,ignoreDiacritics:!1,includeScore:!1,keys:[],shouldSort:!0,sortFn:function(e,t){return e.score===t.score?e.idx<t.idx?-1:1:e.score<t.score?-1:1}}),{includeMatches:!1,findAllMatches:!1,minMatchCharLength:1}),{location:0,threshold:.6,distance:100}),Bi),qi=/[^ ]+/g;var Hi=function(){return a(function e(){var t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:{},i=t.getFn,n=void 0===i?Ri.getFn:i,o=t.fieldNormWeight,a=void 0===o?Ri.fieldNormWeight:o;r(this,e),this.norm=function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:1,t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:3,i=new Map,n=Math.pow(10,t);return{get:function(t){var r=t.match(qi).length;if(i.has(r))return i.get(r);var o=1/Math.pow(r,.5*e),a=parseFloat(Math.round(o*n)/n);return i.set(r,a),a},clear:function(){i.clear()}}}(a,3),this.getFn=n,this.isCreated=!1,this.setIndexRecords()},[{key:"setSources",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.docs=e}},{key:"setIndexRecords",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.records=e}},{key:"setKeys",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[];this.keys=t,this._keysMap={},t.forEach(function(t,i){e._keysMap[t.id]=i})}},{key:"create",value:function(){var e=this;!this.isCreated&&this.docs.length&&(this.isCreated=!0,Si(this.docs[0])?this.docs.forEach(function(t,i){e._addString(t,i)}):this.docs.forEach(function(t,i){e._addObject(t,i)}),this.norm.clear())}},{key:"add",value:function(e){var t=this.size();Si(e)?this._addString(e,t):this._addObject(e,t)}},{key:"removeAt",value:function(e){this.records.splice(e,1);for(var t=e,i=this.size();t<i;t+=1)this.records[t].i-=1}},{key:"getValueForItemAtKeyId",value:function(e,t){return e[this._keysMap[t]]}},{key:"size",value:function(){return this.records.length}},{key:"_addString",value:function(e,t){if(Li(e)&&!Ii(e)){var i={v:e,i:t,n:this.norm.get(e)};this.records.push(i)}}},{key:"_addObject",value:function(e,t){var i=this,n={i:t,$:{}};this.keys.forEach(function(t,r){var o=t.getFn?t.getFn(e):i.getFn(e,t.path);if(Li(o))if(Ei(o)){for(var a=[],s=[{nestedArrIndex:-1,value:o}];s.length;){var c=s.pop(),l=c.nestedArrIndex,u=c.value;if(Li(u))if(Si(u)&&!Ii(u)){var d={v:u,i:l,n:i.norm.get(u)};a.push(d)}else Ei(u)&&u.forEach(function(e,t){s.push({nestedArrIndex:t,value:e})})}n.$[r]=a}else if(Si(o)&&!Ii(o)){var h={v:o,n:i.norm.get(o)};n.$[r]=h}}),this.records.push(n)}},{key:"toJSON",value:function(){return{keys:this.keys,records:this.records}}}])}();function Vi(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.getFn,r=void 0===n?Ri.getFn:n,o=i.fieldNormWeight,a=void 0===o?Ri.fieldNormWeight:o,s=new Hi({getFn:r,fieldNormWeight:a});return s.setKeys(e.map(Oi)),s.setSources(t),s.create(),s}function zi(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.errors,n=void 0===i?0:i,r=t.currentLocation,o=void 0===r?0:r,a=t.expectedLocation,s=void 0===a?0:a,c=t.distance,l=void 0===c?Ri.distance:c,u=t.ignoreLocation,d=void 0===u?Ri.ignoreLocation:u,h=n/e.length;if(d)return h;var p=Math.abs(s-o);return l?h+p/l:p?1:h}var Ki=32;function $i(e,t,i){var n=arguments.length>3&&void 0!==arguments[3]?arguments[3]:{},r=n.location,o=void 0===r?Ri.location:r,a=n.distance,s=void 0===a?Ri.distance:a,c=n.threshold,l=void 0===c?Ri.threshold:c,u=n.findAllMatches,d=void 0===u?Ri.findAllMatches:u,h=n.minMatchCharLength,p=void 0===h?Ri.minMatchCharLength:h,f=n.includeMatches,g=void 0===f?Ri.includeMatches:f,m=n.ignoreLocation,v=void 0===m?Ri.ignoreLocation:m;if(t.length>Ki)throw new Error("Pattern length exceeds max of ".concat(Ki,"."));for(var y,b=t.length,k=e.length,_=Math.max(0,Math.min(o,k)),x=l,w=_,C=p>1||g,E=C?Array(k):[];(y=e.indexOf(t,w))>-1;){var S=zi(t,{currentLocation:y,expectedLocation:_,distance:s,ignoreLocation:v});if(x=Math.min(S,x),w=y+b,C)for(var P=0;P<b;)E[y+P]=1,P+=1}w=-1;for(var A=[],M=1,L=b+k,I=1<<b-1,T=0;T<b;T+=1){for(var F=0,D=L;F<D;){zi(t,{errors:T,currentLocation:_+D,expectedLocation:_,distance:s,ignoreLocation:v})<=x?F=D:L=D,D=Math.floor((L-F)/2+F)}L=D;var O=Math.max(1,_-D+1),N=d?k:Math.min(_+D,k)+b,j=Array(N+2);j[N+1]=(1<<T)-1;for(var B=N;B>=O;B-=1){var R=B-1,q=i[e.charAt(R)];if(C&&(E[R]=+!!q),j[B]=(j[B+1]<<1|1)&q,T&&(j[B]|=(A[B+1]|A[B])<<1|1|A[B+1]),j[B]&I&&(M=zi(t,{errors:T,currentLocation:R,expectedLocation:_,distance:s,ignoreLocation:v}))<=x){if(x=M,(w=R)<=_)break;O=Math.max(1,2*_-w)}}if(zi(t,{errors:T+1,currentLocation:_,expectedLocation:_,distance:s,ignoreLocation:v})>x)break;A=j}var H={isMatch:w>=0,score:Math.max(.001,M)};if(C){var V=function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:[],t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:Ri.minMatchCharLength,i=[],n=-1,r=-1,o=0,a=e.length;o<a;o+=1){var s=e[o];s&&-1===n?n=o:s||-1===n||((r=o-1)-n+1>=t&&i.push([n,r]),n=-1)}return e[o-1]&&o-n>=t&&i.push([n,o-1]),i}(E,p);V.length?g&&(H.indices=V):H.isMatch=!1}return H}function Gi(e){for(var t={},i=0,n=e.length;i<n;i+=1){var r=e.charAt(i);t[r]=(t[r]||0)|1<<n-i-1}return t}var Wi=String.prototype.normalize?function(e){return e.normalize("NFD").replace(/[\u0300-\u036F\u0483-\u0489\u0591-\u05BD\u05BF\u05C1\u05C2\u05C4\u05C5\u05C7\u0610-\u061A\u064B-\u065F\u0670\u06D6-\u06DC\u06DF-\u06E4\u06E7\u06E8\u06EA-\u06ED\u0711\u0730-\u074A\u07A6-\u07B0\u07EB-\u07F3\u07FD\u0816-\u0819\u081B-\u0823\u0825-\u0827\u0829-\u082D\u0859-\u085B\u08D3-\u08E1\u08E3-\u0903\u093A-\u093C\u093E-\u094F\u0951-\u0957\u0962\u0963\u0981-\u0983\u09BC\u09BE-\u09C4\u09C7\u09C8\u09CB-\u09CD\u09D7\u09E2\u09E3\u09FE\u0A01-\u0A03\u0A3C\u0A3E-\u0A42\u0A47\u0A48\u0A4B-\u0A4D\u0A51\u0A70\u0A71\u0A75\u0A81-\u0A83\u0ABC\u0ABE-\u0AC5\u0AC7-\u0AC9\u0ACB-\u0ACD\u0AE2\u0AE3\u0AFA-\u0AFF\u0B01-\u0B03\u0B3C\u0B3E-\u0B44\u0B47\u0B48\u0B4B-\u0B4D\u0B56\u0B57\u0B62\u0B63\u0B82\u0BBE-\u0BC2\u0BC6-\u0BC8\u0BCA-\u0BCD\u0BD7\u0C00-\u0C04\u0C3E-\u0C44\u0C46-\u0C48\u0C4A-\u0C4D\u0C55\u0C56\u0C62\u0C63\u0C81-\u0C83\u0CBC\u0CBE-\u0CC4\u0CC6-\u0CC8\u0CCA-\u0CCD\u0CD5\u0CD6\u0CE2\u0CE3\u0D00-\u0D03\u0D3B\u0D3C\u0D3E-\u0D44\u0D46-\u0D48\u0D4A-\u0D4D\u0D57\u0D62\u0D63\u0D82\u0D83\u0DCA\u0DCF-\u0DD4\u0DD6\u0DD8-\u0DDF\u0DF2\u0DF3\u0E31\u0E34-\u0E3A\u0E47-\u0E4E\u0EB1\u0EB4-\u0EB9\u0EBB\u0EBC\u0EC8-\u0ECD\u0F18\u0F19\u0F35\u0F37\u0F39\u0F3E\u0F3F\u0F71-\u0F84\u0F86\u0F87\u0F8D-\u0F97\u0F99-\u0FBC\u0FC6\u102B-\u103E\u1056-\u1059\u105E-\u1060\u1062-\u1064\u1067-\u106D\u1071-\u1074\u1082-\u108D\u108F\u109A-\u109D\u135D-\u135F\u1712-\u1714\u1732-\u1734\u1752\u1753\u1772\u1773\u17B4-\u17D3\u17DD\u180B-\u180D\u1885\u1886\u18A9\u1920-\u192B\u1930-\u193B\u1A17-\u1A1B\u1A55-\u1A5E\u1A60-\u1A7C\u1A7F\u1AB0-\u1ABE\u1B00-\u1B04\u1B34-\u1B44\u1B6B-\u1B73\u1B80-\u1B82\u1BA1-\u1BAD\u1BE6-\u1BF3\u1C24-\u1C37\u1CD0-\u1CD2\u1CD4-\u1CE8\u1CED\u1CF2-\u1CF4\u1CF7-\u1CF9\u1DC0-\u1DF9\u1DFB-\u1DFF\u20D0-\u20F0\u2CEF-\u2CF1\u2D7F\u2DE0-\u2DFF\u302A-\u302F\u3099\u309A\uA66F-\uA672\uA674-\uA67D\uA69E\uA69F\uA6F0\uA6F1\uA802\uA806\uA80B\uA823-\uA827\uA880\uA881\uA8B4-\uA8C5\uA8E0-\uA8F1\uA8FF\uA926-\uA92D\uA947-\uA953\uA980-\uA983\uA9B3-\uA9C0\uA9E5\uAA29-\uAA36\uAA43\uAA4C\uAA4D\uAA7B-\uAA7D\uAAB0\uAAB2-\uAAB4\uAAB7\uAAB8\uAABE\uAABF\uAAC1\uAAEB-\uAAEF\uAAF5\uAAF6\uABE3-\uABEA\uABEC\uABED\uFB1E\uFE00-\uFE0F\uFE20-\uFE2F]/g,"")}:function(e){return e},Ui=function(){return a(function e(t){var i=this,n=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},o=n.location,a=void 0===o?Ri.location:o,s=n.threshold,c=void 0===s?Ri.threshold:s,l=n.distance,u=void 0===l?Ri.distance:l,d=n.includeMatches,h=void 0===d?Ri.includeMatches:d,p=n.findAllMatches,f=void 0===p?Ri.findAllMatches:p,g=n.minMatchCharLength,m=void 0===g?Ri.minMatchCharLength:g,v=n.isCaseSensitive,y=void 0===v?Ri.isCaseSensitive:v,b=n.ignoreDiacritics,k=void 0===b?Ri.ignoreDiacritics:b,_=n.ignoreLocation,x=void 0===_?Ri.ignoreLocation:_;if(r(this,e),this.options={location:a,threshold:c,distance:u,includeMatches:h,findAllMatches:f,minMatchCharLength:m,isCaseSensitive:y,ignoreDiacritics:k,ignoreLocation:x},t=y?t:t.toLowerCase(),t=k?Wi(t):t,this.pattern=t,this.chunks=[],this.pattern.length){var w=function(e,t){i.chunks.push({pattern:e,alphabet:Gi(e),startIndex:t})},C=this.pattern.length;if(C>Ki){for(var E=0,S=C%Ki,P=C-S;E<P;)w(this.pattern.substr(E,Ki),E),E+=Ki;if(S){var A=C-Ki;w(this.pattern.substr(A),A)}}else w(this.pattern,0)}},[{key:"searchIn",value:function(e){var t=this.options,i=t.isCaseSensitive,n=t.ignoreDiacritics,r=t.includeMatches;if(e=i?e:e.toLowerCase(),e=n?Wi(e):e,this.pattern===e){var o={isMatch:!0,score:0};return r&&(o.indices=[[0,e.length-1]]),o}var a=this.options,s=a.location,c=a.distance,l=a.threshold,u=a.findAllMatches,d=a.minMatchCharLength,h=a.ignoreLocation,p=[],f=0,g=!1;this.chunks.forEach(function(t){var i=t.pattern,n=t.alphabet,o=t.startIndex,a=$i(e,i,n,{location:s+o,distance:c,threshold:l,findAllMatches:u,minMatchCharLength:d,includeMatches:r,ignoreLocation:h}),m=a.isMatch,v=a.score,b=a.indices;m&&(g=!0),f+=v,m&&b&&(p=[].concat(y(p),y(b)))});var m={isMatch:g,score:g?f/this.chunks.length:1};return g&&r&&(m.indices=p),m}}])}(),Ji=function(){return a(function e(t){r(this,e),this.pattern=t},[{key:"search",value:function(){}}],[{key:"isMultiMatch",value:function(e){return Yi(e,this.multiRegex)}},{key:"isSingleMatch",value:function(e){return Yi(e,this.singleRegex)}}])}();function Yi(e,t){var i=e.match(t);return i?i[1]:null}var Zi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e===this.pattern;return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"exact"}},{key:"multiRegex",get:function(){return/^="(.*)"$/}},{key:"singleRegex",get:function(){return/^=(.*)$/}}])}(),Qi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=-1===e.indexOf(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"$/}},{key:"singleRegex",get:function(){return/^!(.*)$/}}])}(),Xi=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,this.pattern.length-1]}}}],[{key:"type",get:function(){return"prefix-exact"}},{key:"multiRegex",get:function(){return/^\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^\^(.*)$/}}])}(),en=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=!e.startsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-prefix-exact"}},{key:"multiRegex",get:function(){return/^!\^"(.*)"$/}},{key:"singleRegex",get:function(){return/^!\^(.*)$/}}])}(),tn=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[e.length-this.pattern.length,e.length-1]}}}],[{key:"type",get:function(){return"suffix-exact"}},{key:"multiRegex",get:function(){return/^"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^(.*)\$$/}}])}(),nn=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){var t=!e.endsWith(this.pattern);return{isMatch:t,score:t?0:1,indices:[0,e.length-1]}}}],[{key:"type",get:function(){return"inverse-suffix-exact"}},{key:"multiRegex",get:function(){return/^!"(.*)"\$$/}},{key:"singleRegex",get:function(){return/^!(.*)\$$/}}])}(),rn=function(){function e(t){var i,o=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},a=o.location,s=void 0===a?Ri.location:a,c=o.threshold,l=void 0===c?Ri.threshold:c,u=o.distance,d=void 0===u?Ri.distance:u,h=o.includeMatches,p=void 0===h?Ri.includeMatches:h,f=o.findAllMatches,g=void 0===f?Ri.findAllMatches:f,m=o.minMatchCharLength,v=void 0===m?Ri.minMatchCharLength:m,y=o.isCaseSensitive,b=void 0===y?Ri.isCaseSensitive:y,k=o.ignoreDiacritics,_=void 0===k?Ri.ignoreDiacritics:k,x=o.ignoreLocation,w=void 0===x?Ri.ignoreLocation:x;return r(this,e),(i=n(this,e,[t]))._bitapSearch=new Ui(t,{location:s,threshold:l,distance:d,includeMatches:p,findAllMatches:g,minMatchCharLength:v,isCaseSensitive:b,ignoreDiacritics:_,ignoreLocation:w}),i}return u(e,Ji),a(e,[{key:"search",value:function(e){return this._bitapSearch.searchIn(e)}}],[{key:"type",get:function(){return"fuzzy"}},{key:"multiRegex",get:function(){return/^"(.*)"$/}},{key:"singleRegex",get:function(){return/^(.*)$/}}])}(),on=function(){function e(t){return r(this,e),n(this,e,[t])}return u(e,Ji),a(e,[{key:"search",value:function(e){for(var t,i=0,n=[],r=this.pattern.length;(t=e.indexOf(this.pattern,i))>-1;)i=t+r,n.push([t,i-1]);var o=!!n.length;return{isMatch:o,score:o?0:1,indices:n}}}],[{key:"type",get:function(){return"include"}},{key:"multiRegex",get:function(){return/^'"(.*)"$/}},{key:"singleRegex",get:function(){return/^'(.*)$/}}])}(),an=[Zi,on,Xi,en,nn,tn,Qi,rn],sn=an.length,cn=/ +(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)/;var ln=new Set([rn.type,on.type]),un=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=i.isCaseSensitive,o=void 0===n?Ri.isCaseSensitive:n,a=i.ignoreDiacritics,s=void 0===a?Ri.ignoreDiacritics:a,c=i.includeMatches,l=void 0===c?Ri.includeMatches:c,u=i.minMatchCharLength,d=void 0===u?Ri.minMatchCharLength:u,h=i.ignoreLocation,p=void 0===h?Ri.ignoreLocation:h,f=i.findAllMatches,g=void 0===f?Ri.findAllMatches:f,m=i.location,v=void 0===m?Ri.location:m,y=i.threshold,b=void 0===y?Ri.threshold:y,k=i.distance,_=void 0===k?Ri.distance:k;r(this,e),this.query=null,this.options={isCaseSensitive:o,ignoreDiacritics:s,includeMatches:l,minMatchCharLength:d,findAllMatches:g,ignoreLocation:p,location:v,threshold:b,distance:_},t=o?t:t.toLowerCase(),t=s?Wi(t):t,this.pattern=t,this.query=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};return e.split("|").map(function(e){for(var i=e.trim().split(cn).filter(function(e){return e&&!!e.trim()}),n=[],r=0,o=i.length;r<o;r+=1){for(var a=i[r],s=!1,c=-1;!s&&++c<sn;){var l=an[c],u=l.isMultiMatch(a);u&&(n.push(new l(u,t)),s=!0)}if(!s)for(c=-1;++c<sn;){var d=an[c],h=d.isSingleMatch(a);if(h){n.push(new d(h,t));break}}}return n})}(this.pattern,this.options)},[{key:"searchIn",value:function(e){var t=this.query;if(!t)return{isMatch:!1,score:1};var i=this.options,n=i.includeMatches,r=i.isCaseSensitive,o=i.ignoreDiacritics;e=r?e:e.toLowerCase(),e=o?Wi(e):e;for(var a=0,s=[],c=0,l=0,u=t.length;l<u;l+=1){var d=t[l];s.length=0,a=0;for(var h=0,p=d.length;h<p;h+=1){var f=d[h],g=f.search(e),m=g.isMatch,v=g.indices,b=g.score;if(!m){c=0,a=0,s.length=0;break}if(a+=1,c+=b,n){var k=f.constructor.type;ln.has(k)?s=[].concat(y(s),y(v)):s.push(v)}}if(a){var _={isMatch:!0,score:c/a};return n&&(_.indices=s),_}}return{isMatch:!1,score:1}}}],[{key:"condition",value:function(e,t){return t.useExtendedSearch}}])}(),dn=[];function hn(e,t){for(var i=0,n=dn.length;i<n;i+=1){var r=dn[i];if(r.condition(e,t))return new r(e,t)}return new Ui(e,t)}var pn="$and",fn="$or",gn="$path",mn="$val",vn=function(e){return!(!e[pn]&&!e[fn])},yn=function(e){return c({},pn,Object.keys(e).map(function(t){return c({},t,e[t])}))};function bn(e,t){var i=(arguments.length>2&&void 0!==arguments[2]?arguments[2]:{}).auto,n=void 0===i||i,r=function(e){var i=Object.keys(e),o=function(e){return!!e[gn]}(e);if(!o&&i.length>1&&!vn(e))return r(yn(e));if(function(e){return!Ei(e)&&Mi(e)&&!vn(e)}(e)){var a=o?e[gn]:i[0],s=o?e[mn]:e[a];if(!Si(s))throw new Error(function(e){return"Invalid value for key ".concat(e)}(a));var c={keyId:ji(a),pattern:s};return n&&(c.searcher=hn(s,t)),c}var l={children:[],operator:i[0]};return i.forEach(function(t){var i=e[t];Ei(i)&&i.forEach(function(e){l.children.push(r(e))})}),l};return vn(e)||(e=yn(e)),r(e)}function kn(e,t){var i=e.matches;t.matches=[],Li(i)&&i.forEach(function(e){if(Li(e.indices)&&e.indices.length){var i={indices:e.indices,value:e.value};e.key&&(i.key=e.key.src),e.idx>-1&&(i.refIndex=e.idx),t.matches.push(i)}})}function _n(e,t){t.score=e.score}var xn=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},n=arguments.length>2?arguments[2]:void 0;r(this,e),this.options=p(p({},Ri),i),this.options.useExtendedSearch,this._keyStore=new Di(this.options.keys),this.setCollection(t,n)},[{key:"setCollection",value:function(e,t){if(this._docs=e,t&&!(t instanceof Hi))throw new Error("Incorrect 'index' type");this._myIndex=t||Vi(this.options.keys,this._docs,{getFn:this.options.getFn,fieldNormWeight:this.options.fieldNormWeight})}},{key:"add",value:function(e){Li(e)&&(this._docs.push(e),this._myIndex.add(e))}},{key:"remove",value:function(){for(var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:function(){return!1},t=[],i=0,n=this._docs.length;i<n;i+=1){var r=this._docs[i];e(r,i)&&(this.removeAt(i),i-=1,n-=1,t.push(r))}return t}},{key:"removeAt",value:function(e){this._docs.splice(e,1),this._myIndex.removeAt(e)}},{key:"getIndex",value:function(){return this._myIndex}},{key:"search",value:function(e){var t=(arguments.length>1&&void 0!==arguments[1]?arguments[1]:{}).limit,i=void 0===t?-1:t,n=this.options,r=n.includeMatches,o=n.includeScore,a=n.shouldSort,s=n.sortFn,c=n.ignoreFieldNorm,l=Si(e)?Si(this._docs[0])?this._searchStringList(e):this._searchObjectList(e):this._searchLogical(e);return function(e,t){var i=t.ignoreFieldNorm,n=void 0===i?Ri.ignoreFieldNorm:i;e.forEach(function(e){var t=1;e.matches.forEach(function(e){var i=e.key,r=e.norm,o=e.score,a=i?i.weight:null;t*=Math.pow(0===o&&a?Number.EPSILON:o,(a||1)*(n?1:r))}),e.score=t})}(l,{ignoreFieldNorm:c}),a&&l.sort(s),Pi(i)&&i>-1&&(l=l.slice(0,i)),function(e,t){var i=arguments.length>2&&void 0!==arguments[2]?arguments[2]:{},n=i.includeMatches,r=void 0===n?Ri.includeMatches:n,o=i.includeScore,a=void 0===o?Ri.includeScore:o,s=[];return r&&s.push(kn),a&&s.push(_n),e.map(function(e){var i=e.idx,n={item:t[i],refIndex:i};return s.length&&s.forEach(function(t){t(e,n)}),n})}(l,this._docs,{includeMatches:r,includeScore:o})}},{key:"_searchStringList",value:function(e){var t=hn(e,this.options),i=this._myIndex.records,n=[];return i.forEach(function(e){var i=e.v,r=e.i,o=e.n;if(Li(i)){var a=t.searchIn(i),s=a.isMatch,c=a.score,l=a.indices;s&&n.push({item:i,idx:r,matches:[{score:c,value:i,norm:o,indices:l}]})}}),n}},{key:"_searchLogical",value:function(e){var t=this,i=bn(e,this.options),n=function(e,i,r){if(!e.children){var o=e.keyId,a=e.searcher,s=t._findMatches({key:t._keyStore.get(o),value:t._myIndex.getValueForItemAtKeyId(i,o),searcher:a});return s&&s.length?[{idx:r,item:i,matches:s}]:[]}for(var c=[],l=0,u=e.children.length;l<u;l+=1){var d=e.children[l],h=n(d,i,r);if(h.length)c.push.apply(c,y(h));else if(e.operator===pn)return[]}return c},r=this._myIndex.records,o={},a=[];return r.forEach(function(e){var t=e.$,r=e.i;if(Li(t)){var s=n(i,t,r);s.length&&(o[r]||(o[r]={idx:r,item:t,matches:[]},a.push(o[r])),s.forEach(function(e){var t,i=e.matches;(t=o[r].matches).push.apply(t,y(i))}))}}),a}},{key:"_searchObjectList",value:function(e){var t=this,i=hn(e,this.options),n=this._myIndex,r=n.keys,o=n.records,a=[];return o.forEach(function(e){var n=e.$,o=e.i;if(Li(n)){var s=[];r.forEach(function(e,r){s.push.apply(s,y(t._findMatches({key:e,value:n[r],searcher:i})))}),s.length&&a.push({idx:o,item:n,matches:s})}}),a}},{key:"_findMatches",value:function(e){var t=e.key,i=e.value,n=e.searcher;if(!Li(i))return[];var r=[];if(Ei(i))i.forEach(function(e){var i=e.v,o=e.i,a=e.n;if(Li(i)){var s=n.searchIn(i),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:i,idx:o,norm:a,indices:u})}});else{var o=i.v,a=i.n,s=n.searchIn(o),c=s.isMatch,l=s.score,u=s.indices;c&&r.push({score:l,key:t,value:o,norm:a,indices:u})}return r}}])}();xn.version="7.1.0",xn.createIndex=Vi,xn.parseIndex=function(e){var t=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{},i=t.getFn,n=void 0===i?Ri.getFn:i,r=t.fieldNormWeight,o=void 0===r?Ri.fieldNormWeight:r,a=e.keys,s=e.records,c=new Hi({getFn:n,fieldNormWeight:o});return c.setKeys(a),c.setIndexRecords(s),c},xn.config=Ri,xn.parseQuery=bn,function(){dn.push.apply(dn,arguments)}(un);var wn=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.globalHistory=[],this.fuse=null,this.customerId=null,this.historyChanges=[],this.tasks=[],this.nextCursor=null,this.filters={},this.historyRequest=0,this.loadingAllHistory=null},[{key:"loadGlobalHistory",value:(o=i(f().m(function e(t){var i,n,r,o,a,s;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loadingHistory),this.filters={},this.historyRequest++,e.p=1,e.n=2,Promise.all([this.fetchHistoryPage(t,null),this.fetchIdentityDetail(t)]);case 2:if(i=e.v,n=v(i,2),r=n[0],!(null!==(a=(o=n[1]).errors)&&void 0!==a&&a.tasks)){e.n=3;break}throw new Error(o.errors.tasks);case 3:this.customerId=t,this.tasks=o.tasks,this.setHistoryPage(r,null),this.displayGlobalHistory(this.globalHistory),e.n=5;break;case 4:e.p=4,s=e.v,console.error(this.identityPicker.rules.language.fetchError,s),this.identityPicker.showMessage("errorLoadingHistory","error");case 5:return e.p=5,this.identityPicker.hideLoading(),e.f(5);case 6:return e.a(2)}},e,this,[[1,4,5,6]])})),function(e){return o.apply(this,arguments)})},{key:"loadMoreHistory",value:(n=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return this.identityPicker.showLoading(this.identityPicker.rules.language.loadingHistory),t=this.nextCursor,e.p=1,e.n=2,this.fetchHistoryPage(this.customerId,t);case 2:this.setHistoryPage(e.v,t),this.renderTimeline(),e.n=4;break;case 3:e.p=3,i=e.v,console.error(this.identityPicker.rules.language.fetchError,i),this.identityPicker.showMessage("errorLoadingHistory","error");case 4:return e.p=4,this.identityPicker.hideLoading(),e.f(4);case 5:return e.a(2)}},e,this,[[1,3,4,5]])})),function(){return n.apply(this,arguments)})},{key:"applyHistoryFilters",value:(x=i(f().m(function e(){var t,i,n,r;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return t={},this.identityPicker.sideContainer.querySelectorAll(".ip-history-filter").forEach(function(e){e.value&&(t[e.name]=e.value)}),this.filters=t,this.nextCursor=null,i=++this.historyRequest,this.identityPicker.showLoading(this.identityPicker.rules.language.loadingHistory),e.p=1,e.n=2,this.fetchHistoryPage(this.customerId,null);case 2:if(n=e.v,i!==this.historyRequest){e.n=3;break}return this.setHistoryPage(n,null),e.n=3,this.searchTimeline();case 3:e.n=5;break;case 4:e.p=4,r=e.v,console.error(this.identityPicker.rules.language.fetchError,r),this.identityPicker.showMessage("errorLoadingHistory","error");case 5:return e.p=5,this.identityPicker.hideLoading(),e.f(5);case 6:return e.a(2)}},e,this,[[1,4,5,6]])})),function(){return x.apply(this,arguments)})},{key:"loadAllHistory",value:(m=i(f().m(function e(){var t=this;return f().w(function(e){for(;;)switch(e.n){case 0:return this.loadingAllHistory||(this.loadingAllHistory=i(f().m(function e(){var i;return f().w(function(e){for(;;)switch(e.n){case 0:if(!(i=t.nextCursor)){e.n=2;break}return e.n=1,t.fetchHistoryPage(t.customerId,i);case 1:t.setHistoryPage(e.v,i),e.n=0;break;case 2:return e.a(2)}},e)}))().finally(function(){t.loadingAllHistory=null})),e.a(2,this.loadingAllHistory)}},e,this)})),function(){return m.apply(this,arguments)})},{key:"searchTimeline",value:(k=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:if((t=this.identityPicker.sideContainer.querySelector(".ip-search-input")).value&&this.nextCursor){e.n=1;break}e.n=4;break;case 1:return e.p=1,e.n=2,this.loadAllHistory();case 2:e.n=4;break;case 3:e.p=3,i=e.v,console.error(this.identityPicker.rules.language.fetchError,i),this.identityPicker.showMessage("errorLoadingHistory","error");case 4:this.renderTimeline();case 5:return e.a(2)}},e,this,[[1,3]])})),function(){return k.apply(this,arguments)})},{key:"setHistoryPage",value:function(e,t){t&&t!==this.nextCursor||(this.historyChanges=t?this.historyChanges.concat(e.changes):e.changes,this.nextCursor=e.next_cursor,this.globalHistory=this.mergeHistoryData(this.historyChanges,Object.keys(this.filters).length?[]:this.tasks),this.initFuseSearch())}},{key:"renderTimeline",value:function(){var e=this.identityPicker.sideContainer.querySelector(".ip-search-input");this.identityPicker.shadowRoot.querySelector(".ip-timeline").innerHTML=this.generateGlobalHistoryHTML(this.searchHistory(e.value)),this.identityPicker.sideContainer.querySelector(".ip-load-more-button").hidden=!this.nextCursor,this.attachCopyListeners()}},{key:"fetchHistoryPage",value:(t=i(f().m(function e(t,i){var n,r,o;return f().w(function(e){for(;;)switch(e.n){case 0:return n=new URLSearchParams(p(p({},this.filters),{},{zone:Intl.DateTimeFormat().resolvedOptions().timeZone})),i&&n.set("cursor",i),r="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/").concat(this.identityPicker.config.endpoints.history,"/").concat(this.identityPicker.config.endpoints.changes,"?").concat(n),e.n=1,fetch(r);case 1:if((o=e.v).ok){e.n=2;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(o.status));case 2:return e.a(2,o.json())}},e,this)})),function(e,i){return t.apply(this,arguments)})},{key:"fetchIdentityDetail",value:(e=i(f().m(function e(t){var i,n;return f().w(function(e){for(;;)switch(e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(t,"/").concat(this.identityPicker.config.endpoints.full,"?include=tasks"),e.n=1,fetch(i);case 1:if((n=e.v).ok){e.n=2;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 2:return e.a(2,n.json())}},e,this)})),function(t){return e.apply(this,arguments)})},{key:"mergeHistoryData",value:function(e,t){var i=this,n=[],r=this.identityPicker.rules.language;return e&&e.filter(function(e){return"identity"===e.entry_type}).forEach(function(e){var t,o="history.".concat(e.changeType.toLowerCase(),".").concat(e.changeStatus.toLowerCase()),a=r[o]||"",s=(null===(t=e.author)||void 0===t?void 0:t.author_name)||r.unknown,c=e.changeMessage||"",l=i.formatDate(parseInt(e.modificationDate));n.push({date:new Date(parseInt(e.modificationDate)),type:"identity",data:e,changeTypeText:a,authorName:s,changeMessage:c,searchableText:"".concat(l," ").concat(a," ").concat(s," ").concat(c)})}),e&&e.filter(function(e){return"attribute"===e.entry_type}).forEach(function(e){var t,o,a,s=(t=e.attribute_key,o=i.identityPicker.rules.referential,{label:(a=o.attributeKeyList.attributeKeys.find(function(e){return e.keyName===t}))?a.name:t,description:a?a.description:""}),c=(null==s?void 0:s.label)||"",l=e.attribute_value||"",u=r.attributeChangeType||"",d=e.certification_processus||"",h=i.formatDate(parseInt(e.modification_date));n.push({date:new Date(parseInt(e.modification_date)),type:"attribute",data:p(p({},e),{},{certification_processus:d}),attributeLabel:c,attributeValue:l,attributeChangeType:u,certificationProcess:d,searchableText:"".concat(h," ").concat(c," ").concat(l," ").concat(u," ").concat(d)})}),t&&Array.isArray(t)&&t.length>0&&t.forEach(function(e){e.task_history.forEach(function(t){var o,a=i.getTaskTypeText(e.task_type,r),s=i.getTaskChangeTypeText(e.task_type,t.task_change_type,t.task_status,r),c=i.getTaskStatusText(e.task_type,t.task_status,r),l=(null===(o=t.request_author)||void 0===o?void 0:o.author_name)||r.unknown,u=Object.values(e.metadata||{}).join(" "),d=i.formatDate(parseInt(t.task_change_date));n.push({date:new Date(parseInt(t.task_change_date)),type:"task",data:{task:e,change:t},taskTypeText:a,changeTypeText:s,statusText:c,authorName:l,metadataText:u,taskCode:e.task_code,searchableText:"".concat(d," ").concat(a," ").concat(s," ").concat(c," ").concat(l," ").concat(u)})})}),n.sort(function(e,t){return t.date-e.date}),n}},{key:"getTaskTypeText",value:function(e,t){return t["tasks.".concat(e.toLowerCase(),".label")]||e}},{key:"getTaskChangeTypeText",value:function(e,t,i,n){return n["tasks.".concat(e.toLowerCase(),".").concat(t.toLowerCase(),".").concat(i.toLowerCase())]||"".concat(e," ").concat(t," ").concat(i)}},{key:"getTaskStatusText",value:function(e,t,i){return i["tasks.".concat(e.toLowerCase(),".status.").concat(t.toLowerCase())]||t}},{key:"initFuseSearch",value:function(){this.fuse=new xn(this.globalHistory,{includeScore:!0,threshold:.3,useExtendedSearch:!0,keys:["type","changeTypeText","authorName","changeMessage","attributeLabel","attributeValue","certificationProcess","taskTypeText","statusText","metadataText","taskCode","searchableText"]})}},{key:"searchHistory",value:function(e){if(!e)return this.globalHistory;var t={$and:e.split(" ").filter(Boolean).map(function(e){return{$or:[{type:e},{changeTypeText:e},{authorName:e},{changeMessage:e},{attributeLabel:e},{attributeValue:e},{certificationProcess:e},{taskTypeText:e},{taskCode:e},{statusText:e},{metadataText:e},{searchableText:e}]}})};return this.fuse.search(t).map(function(e){return e.item}).sort(function(e,t){return t.date-e.date})}},{key:"displayGlobalHistory",value:function(e){var t=this.generateGlobalHistoryHTML(e),i=this.generateSearchBarHTML();this.identityPicker.openSideContainer(this.identityPicker.rules.language.historyTitle,i+'<div class="ip-timeline">'.concat(t,"</div>")+this.generateLoadMoreHTML()),this.attachListener()}},{key:"generateSearchBarHTML",value:function(){var e=this.identityPicker.rules.language,t=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.map(function(e){return'<option value="'.concat(e.keyName,'">').concat(e.name,"</option>")}).join(""),i=["create","update","delete"].map(function(t){return'<option value="'.concat(t.toUpperCase(),'">').concat(e["historyChangeType.".concat(t)],"</option>")}).join("");return'\n            <div class="ip-search-bar">\n                <input type="text" class="ip-search-input" placeholder="'.concat(e.searchHistory,'">\n                <div class="ip-history-filters">\n                    <select class="ip-history-filter" name="attribute_key">\n                        <option value="">').concat(e.historyFilterAttribute,"</option>\n                        ").concat(t,'\n                    </select>\n                    <select class="ip-history-filter" name="change_type">\n                        <option value="">').concat(e.historyFilterChangeType,"</option>\n                        ").concat(i,'\n                    </select>\n                    <input type="date" class="ip-history-filter" name="from" title="').concat(e.historyFilterFrom,'">\n                    <input type="date" class="ip-history-filter" name="to" title="').concat(e.historyFilterTo,'">\n                    <input type="text" class="ip-history-filter" name="author" placeholder="').concat(e.author,'">\n                </div>\n            </div>\n        ')}},{key:"generateLoadMoreHTML",value:function(){return'\n            <button type="button" class="ip-load-more-button"'.concat(this.nextCursor?"":" hidden",">\n                ").concat(this.identityPicker.rules.language.loadMoreHistory,"\n            </button>\n        ")}},{key:"attachListener",value:function(){var e=this,t=this.identityPicker.sideContainer.querySelector(".ip-search-input");t.addEventListener("input",function(){return e.searchTimeline()}),t.focus(),this.identityPicker.sideContainer.querySelectorAll(".ip-history-filter").forEach(function(t){t.addEventListener("change",function(){return e.applyHistoryFilters()})}),this.identityPicker.sideContainer.querySelector(".ip-load-more-button").addEventListener("click",function(){return e.loadMoreHistory()}),this.attachCopyListeners()}},{key:"attachCopyListeners",value:function(){var e=this;this.identityPicker.sideContainer.querySelectorAll(".ip-copy-button").forEach(function(t){t.addEventListener("click",function(t){var i=t.target.dataset.taskCode;e.copyToClipboard(i,t.target)})})}},{key:"generateGlobalHistoryHTML",value:function(e){var t=this,i="",n=null,r=[];return e.forEach(function(e){if("task"===e.type)i+=t.renderSingleEvent(e);else{var o=t.formatDateForGrouping(e.date);o!==n&&(n&&(i+=t.renderDateEvents(n,r)),n=o,r=[]),r.push(e)}}),n&&(i+=this.renderDateEvents(n,r)),i}},{key:"renderSingleEvent",value:function(e){return'\n            <div class="ip-timeline-item">\n                <div class="ip-timeline-point"></div>\n                <div class="ip-timeline-content">\n                    <div class="ip-date-and-types">\n                        <span class="date">'.concat(this.formatDate(e.date),'</span>\n                        <span class="ip-event-types">\n                            <span class="ip-mini-tag ip-tag-').concat(e.type,'">').concat(this.getEventTypeLabel(e.type),"</span>\n                        </span>\n                    </div>\n                    ").concat(this.generateTaskChangeHTML(e),"\n                </div>\n            </div>\n        ")}},{key:"renderDateEvents",value:function(e,t){var i=this,n=this.getEventTypes(t),r=this.groupEventsByType(t),o=n.includes("attribute")?["attribute"]:n;return'\n            <div class="ip-timeline-item">\n                <div class="ip-timeline-point"></div>\n                <div class="ip-timeline-content">\n                    <div class="ip-date-and-types">\n                        <span class="date">'.concat(e,'</span>\n                        <span class="ip-event-types">\n                            ').concat(o.map(function(e){return'<span class="ip-mini-tag ip-tag-'.concat(e,'">').concat(i.getEventTypeLabel(e),"</span>")}).join(""),"\n                        </span>\n                    </div>\n                    ").concat(this.renderGroupedEvents(r),"\n                </div>\n            </div>\n        ")}},{key:"groupEventsByType",value:function(e){var t={identity:[],attribute:[],task:[]};return e.forEach(function(e){t[e.type].push(e)}),t}},{key:"renderGroupedEvents",value:function(e){var t=this,i="";return e.identity.length>0&&(i+=this.generateIdentityChangeHeader(e.identity[0])),e.attribute.length>0&&(i+=this.generateAttributeChangesTable(e.attribute)),e.task.forEach(function(e){i+=t.generateTaskChangeHTML(e)}),i}},{key:"getEventTypes",value:function(e){return y(new Set(e.map(function(e){return e.type})))}},{key:"getEventTypeLabel",value:function(e){return{identity:this.identityPicker.rules.language.identityChangeType,attribute:this.identityPicker.rules.language.attributeChangeType,task:this.identityPicker.rules.language.taskChangeType}[e]||e}},{key:"generateIdentityChangeHeader",value:function(e){return e?'\n            <div class="ip-identity-change-header">\n                <h3 class="change-type">'.concat(e.changeTypeText,'</h3>\n                <span title="').concat(this.identityPicker.rules.language.author,'">').concat(e.authorName,"</span>\n            </div>\n        "):""}},{key:"generateAttributeChangesTable",value:function(e){var t=this;if(0===e.length)return"";var i='<div class="ip-attribute-changes-list">';return e.forEach(function(e){var n=q(e.data.attribute_key,e.data.certification_processus,t.identityPicker.rules.referential,t.identityPicker.rules.language),r=n.label||e.data.certification_processus||"-",o=n.description||"",a=e.attributeValue||"-";"gender"===e.data.attribute_key&&(a="1"===e.attributeValue?"M":"2"===e.attributeValue?"F":"ND"),i+='\n                <div class="ip-attribute-change-item">\n                    <div class="ip-attribute-name">'.concat(e.attributeLabel,'</div>\n                    <div class="ip-attribute-value">').concat(a,'</div>\n                    <div class="ip-attribute-certification" title="').concat(o,'">\n                        <span class="ip-certification-label">').concat(t.identityPicker.rules.language.attributeCertification||"Certification",':</span>\n                        <span class="ip-certification-value">').concat(r,"</span>\n                    </div>\n                </div>\n            ")}),i+="</div>"}},{key:"copyToClipboard",value:function(e,t){var i=this;navigator.clipboard.writeText(e).then(function(){var e=t.textContent;t.textContent=i.identityPicker.rules.language.copied||"Copied!",setTimeout(function(){t.textContent=e},2e3)}).catch(function(e){console.error("Failed to copy: ",e)})}},{key:"generateTaskChangeHTML",value:function(e){return'\n            <div class="ip-task-change">\n                <h3 class="change-type">'.concat(e.changeTypeText,'</h3>\n                <span title="').concat(this.identityPicker.rules.language.author,'">').concat(e.authorName,'</span><br>\n                <button class="ip-copy-button" data-task-code="').concat(e.taskCode,'">\n                    ').concat(e.taskCode?"".concat(e.taskCode.substring(0,15),"..."):"Copy","\n                </button>\n                <small>").concat(this.generateTaskMetadata(e.data.task.metadata),"</small>\n            </div>\n        ")}},{key:"generateTaskMetadata",value:function(e){if(!e||0===Object.keys(e).length)return"";for(var t='<div class="ip-task-metadata">',i=0,n=Object.entries(e);i<n.length;i++){var r=v(n[i],2),o=r[0],a=r[1];t+="<div><strong>".concat(o,":</strong> ").concat(a,"</div>")}return t+="</div>"}},{key:"formatDate",value:function(e){return new Date(e).toLocaleString(this.identityPicker.config.locale,{year:"numeric",month:"long",day:"numeric",hour:"2-digit",minute:"2-digit",second:"2-digit"})}},{key:"formatDateForGrouping",value:function(e){return e.toLocaleString(this.identityPicker.config.locale,{year:"numeric",month:"long",day:"numeric",hour:"2-digit",minute:"2-digit",second:"2-digit"})}}]);var e,t,n,o,k,m,x}(),Cn=function(){return a(function e(t){r(this,e),this.identityPicker=t,this.identities=[]},[{key:"loadCompareView",value:(t=i(f().m(function e(t){var i,n,r,o,s=this;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:if(i=t.filter(function(e){return!s.isComparable(e)}).map(function(e){return e.customer_id}),n={},i.length){e.n=1;break}e.n=7;break;case 1:this.identityPicker.showLoading(),e.p=2,r=0;case 2:if(!(r<i.length)){e.n=4;break}return e.n=3,this.fetchIdentities(i.slice(r,r+this.identityPicker.config.batchSize));case 3:e.v.filter(function(e){return e.identity}).forEach(function(e){n[e.customer_id]=e.identity}),r+=this.identityPicker.config.batchSize,e.n=2;break;case 4:e.n=6;break;case 5:e.p=5,o=e.v,console.error(this.identityPicker.rules.language.fetchError,o);case 6:return e.p=6,this.identityPicker.hideLoading(),e.f(6);case 7:return this.initCompareView(t.map(function(e){return n[e.customer_id]||e})),this.identityPicker.showCompareView(),e.a(2)}},e,this,[[2,5,6,7]])})),function(e){return t.apply(this,arguments)})},{key:"isComparable",value:function(e){return Array.isArray(e.attributes)&&!!e.quality&&!!e.last_update_date}},{key:"fetchIdentities",value:(e=i(f().m(function e(t){var i,n;return f().w(function(e){for(;;)switch(e.n){case 0:return i="".concat(this.identityPicker.config.endpoints.identity,"/").concat(this.identityPicker.config.endpoints.batch),e.n=1,fetch(i,{method:"POST",headers:{"Content-Type":"application/json"},body:JSON.stringify({customer_ids:t})});case 1:if((n=e.v).ok){e.n=2;break}throw new Error("".concat(this.identityPicker.rules.language.httpError," ").concat(n.status));case 2:return e.a(2,n.json())}},e,this)})),function(t){return e.apply(this,arguments)})},{key:"initCompareView",value:function(e){this.identities=e.sort(function(e,t){var i=t.quality.scoring-e.quality.scoring;return 0!==i?i:new Date(t.last_update_date)-new Date(e.last_update_date)}),this.renderCompareTable()}},{key:"renderCompareTable",value:function(){var e=this,t=window.innerWidth,i=200+300*this.identities.length;this.identityPicker.modalContent.style.maxWidth="".concat(i>t?t-50:i,"px");var n,r=this.identities.map(function(e){return'\n            <th>\n                <a href="#" class="ip-select-link" data-customer-id="'.concat(e.customer_id,'">\n                    ').concat(e.customer_id,"\n                </a>\n            </th>\n        ")}).join(""),o=this.identities[0],a=this.createCertificationsRow(o),s=this.createMonParisRow(),c=this.createIdentityInfoRows(),l=this.createContactInfoRows(),u=this.createAdditionalInfoRows();n='<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations d\'identité</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+a+s+c+'<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations de contact</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+l+'<tr class="ip-group-separator">\n                <td class="ip-table-separator ip-group-label">Informations complémentaires</td>\n                '.concat(Array(this.identities.length).fill('<td class="ip-table-separator"></td>').join(""),"\n            </tr>")+u;var d='\n            <div class="ip-scrollable-content ip-compare-table-container">\n                <table class="ip-compare-table">\n                    <thead>\n                        <tr>\n                            <th></th>\n                            '.concat(r,"\n                        </tr>\n                    </thead>\n                    <tbody>\n                        ").concat(n,"\n                    </tbody>\n                </table>\n            </div>\n        ");this.identityPicker.compareContainer.innerHTML=d,this.identityPicker.compareContainer.scrollTop=0,this.identityPicker.adjustModalHeight(),this.identityPicker.compareContainer.querySelectorAll(".ip-select-link").forEach(function(t){t.addEventListener("click",function(i){i.preventDefault();var n=t.dataset.customerId;e.identityPicker.showDetailsView(n,"compare")})})}},{key:"createCertificationsRow",value:function(e){var t=this,i=this.identityPicker.rules.referential.attributeKeyList.attributeKeys.filter(function(e){return e.pivot}).map(function(e){return e.keyName}),n=this.identities.map(function(e){var n,r=!0,o=600,a=s(i);try{var c=function(){var i,a=n.value,s=e.attributes.find(function(e){return e.key===a});if(!s)return r=!1,0;var c=s.certProcess,l=null===(i=t.identityPicker.rules.contract.attributeDefinitions.find(function(e){return e.keyName===a}))||void 0===i?void 0:i.attributeCertifications.find(function(e){return e.code===c});if(!l||parseInt(l.level)<400)return r=!1,0;o=Math.min(o,parseInt(l.level))};for(a.s();!(n=a.n()).done&&0!==c(););}catch(e){a.e(e)}finally{a.f()}return r?o>=600?"FranceConnect":o>=500?"PJ officielle guichet":o>=400?"PJ officielle scannée":"":""});if(n.every(function(e){return""===e}))return"";var r=n[0],o=n.map(function(e,t){return t>0&&e!==r?'<td><span class="ip-approximate">'.concat(e,"</span></td>"):"<td>".concat(e,"</td>")}).join("");return"<tr>\n            <td>".concat(this.identityPicker.rules.language.certificationLevel||"Niveau de certification","</td>\n            ").concat(o,"\n        </tr>")}},{key:"createMonParisRow",value:function(){var e=this,t=this.identities.map(function(t){var i=t.mon_paris_active,n=i?e.identityPicker.rules.language.active:t.expiration&&t.expiration.delete_date?"".concat(e.identityPicker.rules.language.inactive," (Supprimé)"):e.identityPicker.rules.language.inactive;return'<td class="'.concat(i?"ip-active":"ip-inactive",'">').concat(n,"</td>")}).join("");return"<tr>\n            <td>".concat(this.identityPicker.rules.language.monParisAccount,"</td>\n            ").concat(t,"\n        </tr>")}},{key:"createIdentityInfoRows",value:function(){var e=[{key:"gender",label:this.identityPicker.rules.language.gender||"Sexe",formatter:this.formatGender.bind(this)},{key:"family_name",label:this.identityPicker.rules.language.familyName||"Nom de naissance",formatter:function(e){return e.toUpperCase()}},{key:"preferred_username",label:this.identityPicker.rules.language.preferredUsername||"Nom d'usage",formatter:function(e){return"<i>".concat(e.toUpperCase(),"</i>")}},{key:"first_name",label:this.identityPicker.rules.language.firstName||"Prénoms",formatter:z},{key:"birthdate",label:this.identityPicker.rules.language.birthdate||"Date de naissance"},{key:"birthcountry",label:this.identityPicker.rules.language.birthcountry||"Pays de naissance"},{key:"birthcountry_code",label:this.identityPicker.rules.language.birthcountryCode||"Code INSEE pays"},{key:"birthplace",label:this.identityPicker.rules.language.birthplace||"Commune de naissance"},{key:"birthplace_code",label:this.identityPicker.rules.language.birthplaceCode||"Code INSEE commune"}];return this.createAttributeRows(e)}},{key:"createContactInfoRows",value:function(){var e=[{key:"email",label:this.identityPicker.rules.language.email||"Email de contact"},{key:"login",label:this.identityPicker.rules.language.login||"Login"},{key:"mobile_phone",label:this.identityPicker.rules.language.mobilePhone||"Téléphone portable"},{key:"fixed_phone",label:this.identityPicker.rules.language.fixedPhone||"Téléphone fixe"},{key:"address",label:this.identityPicker.rules.language.address||"Adresse"},{key:"address_detail",label:this.identityPicker.rules.language.addressDetail||"Complément d'adresse"},{key:"address_postal_code",label:this.identityPicker.rules.language.postalCode||"Code postal"},{key:"address_city",label:this.identityPicker.rules.language.city||"Ville"}];return this.createAttributeRows(e)}},{key:"createAdditionalInfoRows",value:function(){var e=this,t="";return t+=this.createRow(this.identityPicker.rules.language.creationDate||"Date de Création",this.identities.map(function(e){return V(e.creation_date)})),t+=this.createRow(this.identityPicker.rules.language.lastUpdateDate||"Date de Modification",this.identities.map(function(e){return V(e.last_update_date)})),t+=this.createRow(this.identityPicker.rules.language.qualityScore||"Score",this.identities.map(function(e){var t=(100*e.quality.scoring).toFixed(2),i=R(t);return{value:"".concat(t,"%"),className:i}})),t+=this.createRow(this.identityPicker.rules.language.qualityLabel||"Qualité",this.identities.map(function(e){var t=(100*e.quality.quality).toFixed(2),i=R(t);return{value:"".concat(t,"%"),className:i}})),t+=this.createRow(this.identityPicker.rules.language.coverageLabel||"Couverture",this.identities.map(function(t){var i=(100*t.quality.coverage).toFixed(2),n=R(i);return{value:i>=100?e.identityPicker.rules.language.completeInformation||"Informations Complètes":e.identityPicker.rules.language.incompleteInformation||"Informations à compléter",className:n}}))}},{key:"createAttributeRows",value:function(e){var t=this,i="",n=this.identities[0];return e.forEach(function(e){var r=t.getAttrValue(n,e.key),o=e.formatter?e.formatter(r||""):r,a=t.identities.map(function(i,n){var r=t.getAttrValue(i,e.key),a=e.formatter?e.formatter(r||""):r;return n>0&&a!==o?'<td><span class="ip-approximate">'.concat(a||"","</span></td>"):"<td>".concat(a||"","</td>")}).join("");i+="<tr>\n                <td>".concat(e.label,"</td>\n                ").concat(a,"\n            </tr>")}),i}},{key:"createRow",value:function(e,t){var i=Array.isArray(t)?t.map(function(e,t){return"object"===k(e)?'<td class="'.concat(e.className||"",'">').concat(e.value||"","</td>"):"<td>".concat(e||"","</td>")}).join(""):Array(this.identities.length).fill("<td>".concat(t||"","</td>")).join("");return"<tr>\n            <td>".concat(e,"</td>\n            ").concat(i,"\n        </tr>")}},{key:"formatGender",value:function(e){return"1"===e?"F":"2"===e?"H":"ND"}},{key:"getAttrValue",value:function(e,t){var i=e.attributes.find(function(e){return e.key===t});return i?H(t,i.value,this.identityPicker.rules.referential):""}}]);var e,t}(),En=function(){return a(function e(t){var i=arguments.length>1&&void 0!==arguments[1]?arguments[1]:{};r(this,e),this.uniqueId=t,this.config=p(p({},N),i),this.permissions={search:!1,creation:!1,update:!1,view:!1,create_task:!1},this.openButton=document.getElementById("ip-open-button-".concat(t)),this.rules=null,this.shadowRoot=null,this.shadowHost=null,this.init()},[{key:"init",value:(o=i(f().m(function e(){var t,i,n=this;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:if(this.openButton.disabled=!0,e.p=1,!this.config.endpoints.bootstrap){e.n=3;break}return e.n=2,this.fetchBootstrap();case 2:e.n=4;break;case 3:return e.n=4,this.fetchAndApplyPermissions();case 4:e.n=6;break;case 5:return e.p=5,t=e.v,console.error("Failed to fetch permissions:",t),this.openButton.textContent="Permissions "+t,this.openButton.disabled=!0,e.a(2);case 6:if(!Object.values(this.permissions).some(Boolean)){e.n=14;break}if(e.p=7,this.rules){e.n=9;break}return e.n=8,this.fetchRules();case 8:e.n=10;break;case 9:if(this.rules.contract){e.n=10;break}throw new Error("Le contrat est null ou indisponible");case 10:e.n=12;break;case 11:return e.p=11,i=e.v,console.error("Failed to fetch rules:",i),this.openButton.textContent=i,this.openButton.disabled=!0,e.a(2);case 12:return this.identitySearch=new $(this),this.identityView=new G(this),this.identityForm=new Ci(this),this.identityHistory=new wn(this),this.identityCompare=new Cn(this),e.n=13,this.createModal();case 13:this.config.autoFill&&null!=this.config.cuid&&""!==this.config.cuid&&setTimeout(function(){return n.identityView.autoFillIdentity(n.config.cuid)},0),this.openButton.addEventListener("click",function(e){e.preventDefault(),n.openModal()}),this.initSideContainer(),this.openButton.disabled=!1,e.n=15;break;case 14:this.openButton.textContent="user permission empty",this.openButton.disabled=!0;case 15:return e.a(2)}},e,this,[[7,11],[1,5]])})),function(){return o.apply(this,arguments)})},{key:"fetchBootstrap",value:(s=i(f().m(function e(){var t,i,n;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,e.n=1,fetch(this.config.endpoints.bootstrap);case 1:if((t=e.v).ok){e.n=2;break}throw new Error("Erreur HTTP ".concat(t.status));case 2:return e.n=3,t.json();case 3:i=e.v,this.applyPermissions(i.permissions),this.rules=i.rules||null,e.n=5;break;case 4:throw e.p=4,n=e.v,console.error("Failed to fetch bootstrap:",n),n;case 5:return e.a(2)}},e,this,[[0,4]])})),function(){return s.apply(this,arguments)})},{key:"fetchAndApplyPermissions",value:(n=i(f().m(function e(){var t,i,n;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,e.n=1,fetch(this.config.endpoints.permissions);case 1:if((t=e.v).ok){e.n=2;break}throw new Error("Erreur HTTP ".concat(t.status));case 2:return e.n=3,t.json();case 3:i=e.v,this.applyPermissions(i),e.n=5;break;case 4:throw e.p=4,n=e.v,console.error("Failed to fetch permissions:",n),n;case 5:return e.a(2)}},e,this,[[0,4]])})),function(){return n.apply(this,arguments)})},{key:"applyPermissions",value:function(e){this.permissions={search:this.config.search&&e.SEARCH,creation:this.config.creation&&e.CREATE,update:this.config.update&&e.UPDATE,view:e.VIEW,create_task:this.config.create_task&&e.CREATE_TASK}}},{key:"fetchRules",value:(t=i(f().m(function e(){var t,i;return f().w(function(e){for(;;)switch(e.p=e.n){case 0:return e.p=0,e.n=1,fetch(this.config.endpoints.rules);case 1:if((t=e.v).ok){e.n=2;break}throw new Error("Erreur HTTP ".concat(t.status));case 2:return e.n=3,t.json();case 3:if(this.rules=e.v,this.rules.contract){e.n=4;break}throw new Error("Le contrat est null ou indisponible");case 4:e.n=6;break;case 5:throw e.p=5,i=e.v,console.error("Failed to fetch rules:",i),i;case 6:return e.a(2)}},e,this,[[0,5]])})),function(){return t.apply(this,arguments)})},{key:"createModal",value:(e=i(f().m(function e(){var t,i,n=this;return f().w(function(e){for(;;)switch(e.n){case 0:return this.shadowHost=document.createElement("div"),this.shadowHost.id="ip-shadow-host-".concat(this.uniqueId),document.body.appendChild(this.shadowHost),this.shadowRoot=this.shadowHost.attachShadow({mode:"open"}),t=document.createElement("style"),i=[O,w,C,E,S,P,A,M,L,"",I,T,F,D],t.textContent=i.map(function(e){return"string"==typeof e?e:e&&e.default?e.default:""}).join("\n"),this.shadowRoot.appendChild(t),this.modal=document.createElement("div"),this.modal.className="ip-modal",null!=this.config.cuid&&""!==this.config.cuid&&this.modal.setAttribute("data-cuid",this.config.cuid),this.modal.innerHTML=this.getModalHTML(),this.shadowRoot.appendChild(this.modal),this.modalContent=this.shadowRoot.querySelector(".ip-modal-content"),this.searchContainer=this.shadowRoot.querySelector(".ip-search-container"),this.resultsContainer=this.shadowRoot.querySelector(".ip-results-container"),this.detailsContainer=this.shadowRoot.querySelector(".ip-details-container"),this.historyContainer=this.shadowRoot.querySelector(".ip-history-container"),this.compareContainer=this.shadowRoot.querySelector(".ip-compare-container"),this.identityFormContainer=this.shadowRoot.querySelector(".ip-create-identity-container"),this.backButton=this.shadowRoot.querySelector(".ip-back"),this.infoMessage=this.shadowRoot.querySelector(".ip-info-message"),this.contentArea=this.shadowRoot.querySelector(".ip-content-area"),this.headerTitle=this.shadowRoot.querySelector(".ip-header h2"),this.modalHeader=this.shadowRoot.querySelector(".ip-header"),this.modalFooter=this.shadowRoot.querySelector(".ip-footer"),this.modalScrollableContent=this.shadowRoot.querySelectorAll(".ip-scrollable-content"),e.n=1,this.identitySearch.initSearchView();case 1:this.shadowRoot.querySelector(".ip-close").addEventListener("click",function(){return n.closeModal()}),this.backButton.addEventListener("click",function(){return n.showSearchView()});case 2:return e.a(2)}},e,this)})),function(){return e.apply(this,arguments)})},{key:"getModalHTML",value:function(){return'\n            <div class="ip-modal-content">\n                <div class="ip-header">\n                    <div class="ip-header-container">\n                        <span class="ip-back" style="display: none;">&#8592;</span>\n                        <h2></h2>\n                        <button class="ip-close ip-button-light ip-button-rounded">&times;</button>\n                    </div>\n                </div>\n                <div class="ip-main-container">\n                    <div class="ip-scrollable-content">\n                        <div class="ip-content-area">\n                            <div class="ip-info-message" style="display: none;"></div>\n                            <div class="ip-search-container" style="display: none;"></div>\n                            <div class="ip-results-container" style="display: none;"></div>\n                            <div class="ip-compare-container" style="display: none;"></div>\n                            <div class="ip-details-container" style="display: none;"></div>\n                            <div class="ip-create-identity-container" style="display: none;"></div>\n                            <div class="ip-loading-container" style="display: none;">\n                                <div class="ip-loader"></div>\n                                <div class="ip-loading-message"></div>\n                            </div>\n                        </div>\n                    </div>\n                    <div class="ip-side-container" style="display: none;">\n                        <div class="ip-header">\n                            <div class="ip-header-container">\n                                <h2></h2>\n                                <button class="ip-side-close ip-button-light ip-button-rounded">×</button>\n                            </div>\n                        </div>\n                        <div class="ip-scrollable-content">\n                            <div class="ip-content-area"></div>\n                        </div>\n                    </div>\n                </div>\n                <div class="ip-footer" style="display:none"></div>\n            </div>\n        '}},{key:"initSideContainer",value:function(){var e=this;this.sideContainer=this.shadowRoot.querySelector(".ip-side-container"),this.sideContent=this.sideContainer.querySelector(".ip-content-area"),this.sideCloseButton=this.sideContainer.querySelector(".ip-side-close"),this.sideCloseButton.addEventListener("click",function(){return e.closeSideContainer()})}},{key:"openSideContainer",value:function(e,t){this.sideContainer.querySelector("h2").textContent=e,this.sideContent.innerHTML=t,this.sideContainer.style.display="block",this.modalContent.classList.add("with-side-container"),this.adjustModalLayout()}},{key:"closeSideContainer",value:function(){this.sideContainer.style.display="none",this.modalContent.classList.remove("with-side-container"),this.adjustModalLayout()}},{key:"adjustModalLayout",value:function(){window.innerWidth>=1280?(this.modalContent.classList.add("side-by-side"),this.sideContainer.classList.remove("overlay")):(this.modalContent.classList.remove("side-by-side"),this.sideContainer.classList.add("overlay")),this.adjustModalHeight()}},{key:"showMessage",value:function(e,t){var i=this,n=arguments.length>2&&void 0!==arguments[2]?arguments[2]:"",r=this.rules.language[e]||e;this.infoMessage.innerHTML='\n            <p class="ip-info-message-main">'.concat(r,"</p>\n            ").concat(n?'<p class="ip-info-message-description">'.concat(n,"</p>"):"",'\n            <span class="ip-info-message-close">&times;</span>\n        '),this.infoMessage.className="ip-info-message ".concat(t),this.infoMessage.style.display="block",this.infoMessage.querySelector(".ip-info-message-close").addEventListener("click",function(){return i.hideInfoMessage()}),this.adjustModalHeight()}},{key:"removeMessage",value:function(){this.infoMessage.style.display="none",this.infoMessage.innerHTML=""}},{key:"showSearchView",value:function(){this.closeSideContainer(),this.transitionView(this.searchContainer),this.backButton.style.display="none",this.modalContent.classList.remove("wide-view"),this.setHeaderTitle(this.rules.language.searchTitle)}},{key:"showResultsView",value:function(){var e=this;this.closeSideContainer(),this.resultsContainer.querySelector(".ip-results-list")&&0===this.resultsContainer.querySelector(".ip-results-list").children.length?this.showSearchView():(this.transitionView(this.resultsContainer),this.backButton.style.display="inline",this.backButton.onclick=function(){return e.showSearchView()},this.modalContent.classList.remove("wide-view"),this.setHeaderTitle(this.rules.language.resultsTitle))}},{key:"showCompareView",value:function(){var e=this;this.closeSideContainer(),this.transitionView(this.compareContainer),this.backButton.style.display="inline",this.backButton.onclick=function(){return e.showResultsView()},this.modalContent.classList.add("wide-view"),this.setHeaderTitle(this.rules.language.compareTitle),this.identityCompare.renderCompareTable()}},{key:"showDetailsView",value:function(e,t,i,n,r){var o=this;this.closeSideContainer(),this.transitionView(this.detailsContainer),this.permissions.search&&"none"!==t?(this.backButton.style.display="inline",this.backButton.onclick=function(){return o.showView(t,e)}):this.backButton.style.display="none",this.modalContent.classList.add("wide-view"),this.setHeaderTitle(this.rules.language.detailsTitle),this.identityView.loadIdentityDetails(e),i&&n&&this.showMessage(n,i,r||"")}},{key:"showView",value:function(e,t){switch(e){case"search":default:this.showSearchView();break;case"results":this.showResultsView();break;case"details":this.showDetailsView(t,e);break;case"compare":this.showCompareView()}}},{key:"showIdentityFormView",value:function(){var e=this,t=arguments.length>0&&void 0!==arguments[0]?arguments[0]:null;this.hideInfoMessage(),this.closeSideContainer(),this.transitionView(this.identityFormContainer),this.permissions.search?(this.backButton.style.display="inline",this.backButton.onclick=function(){t?e.showDetailsView(t,"results"):e.showResultsView()}):this.backButton.style.display="none",t?this.identityForm.showModifyIdentityForm(t):this.identityForm.showCreateIdentityForm();var i=t?this.rules.language.modifyTitle:this.rules.language.createTitle;this.setHeaderTitle(i)}},{key:"setHeaderTitle",value:function(e){this.headerTitle.textContent=e}},{key:"transitionView",value:function(e){this.removeMessage(),this.modalContent.style.removeProperty("max-width"),[this.searchContainer,this.resultsContainer,this.detailsContainer,this.identityFormContainer,this.compareContainer].forEach(function(e){e.style.display="none",e.classList.remove("active")}),e.style.display="block",e.classList.add("active"),this.adjustModalHeight()}},{key:"adjustModalHeight",value:function(){var e=this;this.modalContent.style.maxHeight="".concat(.9*window.innerHeight,"px"),this.modalScrollableContent.forEach(function(t){t.style.maxHeight="".concat(.9*window.innerHeight-e.modalHeader.offsetHeight-e.modalFooter.offsetHeight,"px")})}},{key:"showLoading",value:function(){var e=arguments.length>0&&void 0!==arguments[0]?arguments[0]:this.rules.language.loading;this.closeSideContainer(),this.scrollToTop();var t=this.shadowRoot.querySelector(".ip-loading-container");(t.querySelector(".ip-loading-message")||this.createLoadingMessage()).textContent=e,t.style.display="flex",t.offsetWidth,t.classList.add("show")}},{key:"hideInfoMessage",value:function(){this.infoMessage.style.display="none",this.infoMessage.innerHTML="",this.adjustModalHeight()}},{key:"createLoadingMessage",value:function(){this.hideInfoMessage();var e=document.createElement("div");return e.className="ip-loading-message",this.shadowRoot.querySelector(".ip-loading-container").appendChild(e),e}},{key:"hideLoading",value:function(){this.scrollToTop();var e=this.shadowRoot.querySelector(".ip-loading-container");e.classList.remove("show"),setTimeout(function(){e.style.display="none"},300)}},{key:"scrollToTop",value:function(){this.modalScrollableContent.forEach(function(e){e.scrollTop=0})}},{key:"openModal",value:function(){var e=this;this.modal.style.display="flex";var t=this.permissions.search,i=this.permissions.view,n=this.modal.getAttribute("data-cuid");if(t||i)if(i&&n){var r=t?"search":"none";this.showDetailsView(n,r)}else!i||n||t?this.showSearchView():this.showMessage("noCuid","error");else this.showMessage("noPermissions","error");document.body.style.overflow="hidden",requestAnimationFrame(function(){e.modal.classList.add("ip-modal-open"),e.adjustModalHeight()})}},{key:"closeModal",value:function(){var e=this;this.modal.classList.remove("ip-modal-open"),this.modal.classList.add("ip-modal-closing"),setTimeout(function(){document.body.style.overflow="",e.modal.style.display="none",e.modal.classList.remove("ip-modal-closing"),setTimeout(function(){e.resetSearchForms()},200)},300)}},{key:"resetSearchForms",value:function(){this.identitySearch&&this.identitySearch.resetForms(),this.showSearchView(),this.resultsContainer.innerHTML="",this.detailsContainer.innerHTML="",this.identityFormContainer.innerHTML="",this.compareContainer.innerHTML="",this.removeMessage()}},{key:"showConfirmDialog",value:function(e,t,i){var n=this,r=document.createElement("div");r.className="ip-confirm-modal ip-modal ip-modal-open",r.innerHTML='\n            <div class="ip-confirm-dialog ip-modal-content">\n                <h2>'.concat(e,"</h2>\n                <p>").concat(t,'</p>\n                <div class="ip-confirm-buttons">\n                    <button class="ip-button-light ip-cancel-btn">\n                        ').concat(this.rules.language.cancelButton||"Cancel",'\n                    </button>\n                    <button class="ip-confirm-btn">\n                        ').concat(this.rules.language.confirmButton||"Confirm","\n                    </button>\n                </div>\n            </div>\n        ");var o=function(){return n.shadowRoot.removeChild(r)};r.querySelector(".ip-cancel-btn").addEventListener("click",o),r.querySelector(".ip-confirm-btn").addEventListener("click",function(){i(),o()}),r.addEventListener("click",function(e){e.target===r&&o()}),this.shadowRoot.appendChild(r)}}]);var e,t,n,o,s}();export{En as default};
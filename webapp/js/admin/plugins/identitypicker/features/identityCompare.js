@@ -10,6 +10,64 @@ export default class IdentityCompare {
         this.identities = [];
     }
 
+    /**
+     * Shows the compare view of the identities found by the search. An identity returned by the search without the data
+     * shown by the view is fetched first, in batches of config.batchSize sent one after the other; an identity which cannot
+     * be fetched is compared as found by the search.
+     * @param {Array<Object>} identities - Array of identity objects found by the search
+     * @returns {Promise<void>}
+     */
+    async loadCompareView(identities) {
+        const customerIds = identities.filter(identity => !this.isComparable(identity)).map(identity => identity.customer_id);
+        const fetchedIdentities = {};
+        if (customerIds.length) {
+            this.identityPicker.showLoading();
+            try {
+                for (let i = 0; i < customerIds.length; i += this.identityPicker.config.batchSize) {
+                    const results = await this.fetchIdentities(customerIds.slice(i, i + this.identityPicker.config.batchSize));
+                    results.filter(result => result.identity).forEach(result => {
+                        fetchedIdentities[result.customer_id] = result.identity;
+                    });
+                }
+            } catch (error) {
+                console.error(this.identityPicker.rules.language['fetchError'], error);
+            } finally {
+                this.identityPicker.hideLoading();
+            }
+        }
+        this.initCompareView(identities.map(identity => fetchedIdentities[identity.customer_id] || identity));
+        this.identityPicker.showCompareView();
+    }
+
+    /**
+     * Checks whether an identity holds the data shown by the compare view: its attributes, quality and last update date.
+     * @param {Object} identity - The identity object
+     * @returns {boolean} True if the identity can be compared as is
+     */
+    isComparable(identity) {
+        return Array.isArray(identity.attributes) && !!identity.quality && !!identity.last_update_date;
+    }
+
+    /**
+     * Fetches a batch of identities from the API.
+     * @param {Array<string>} customerIds - The customer IDs of the batch
+     * @returns {Promise<Array<Object>>} The outcome of each fetch, holding the identity or the error
+     */
+    async fetchIdentities(customerIds) {
+        const url = `${this.identityPicker.config.endpoints.identity}/${this.identityPicker.config.endpoints.batch}`;
+        const response = await fetch(url, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ customer_ids: customerIds })
+        });
+        if (!response.ok) {
+            throw new Error(`${this.identityPicker.rules.language['httpError']} ${response.status}`);
+        }
+        return response.json();
+    }
+
     /**
      * Initializes the compare view with sorted identities.
      * @param {Array<Object>} identities - Array of identity objects to compare
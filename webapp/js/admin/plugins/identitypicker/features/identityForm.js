@@ -455,6 +455,13 @@ export default class IdentityForm {
                 jsonData[attrKey].value = value;
             }
         }
+        if (mode !== 'create') {
+            // The identity as it was read: the service diffs against it instead of reading the identity again
+            jsonData.original = {
+                last_update_date: this.identity.last_update_date,
+                attributes: this.identity.attributes
+            };
+        }
         const url = mode === 'create' ? this.identityPicker.config.endpoints.identity : `${this.identityPicker.config.endpoints.identity}/${this.identity.customer_id}`;
         this.identityPicker.showLoading(this.identityPicker.rules.language['loading']);
         try {
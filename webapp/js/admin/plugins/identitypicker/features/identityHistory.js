@@ -10,22 +10,35 @@ export default class IdentityHistory {
         this.identityPicker = identityPicker;
         this.globalHistory = [];
         this.fuse = null;
+        this.customerId = null;
+        this.historyChanges = [];
+        this.tasks = [];
+        this.nextCursor = null;
+        this.filters = {};
+        this.historyRequest = 0;
+        this.loadingAllHistory = null;
     }
 
     /**
-     * Loads and displays the complete history for an identity.
+     * Loads and displays the first page of the history for an identity, with its tasks.
      * @param {string} customerId - The customer ID to load history for
      * @returns {Promise<void>}
      */
     async loadGlobalHistory(customerId) {
         this.identityPicker.showLoading(this.identityPicker.rules.language['loadingHistory']);
+        this.filters = {};
+        this.historyRequest++;
         try {
-            const [identityHistory, tasksData] = await Promise.all([
-                this.fetchIdentityHistory(customerId),
-                this.fetchIdentityTasks(customerId)
+            const [page, detail] = await Promise.all([
+                this.fetchHistoryPage(customerId, null),
+                this.fetchIdentityDetail(customerId)
             ]);
-            this.globalHistory = this.mergeHistoryData(identityHistory, tasksData);
-            this.initFuseSearch();
+            if (detail.errors?.tasks) {
+                throw new Error(detail.errors.tasks);
+            }
+            this.customerId = customerId;
+            this.tasks = detail.tasks;
+            this.setHistoryPage(page, null);
             this.displayGlobalHistory(this.globalHistory);
         } catch (error) {
             console.error(this.identityPicker.rules.language['fetchError'], error);
@@ -36,12 +49,129 @@ export default class IdentityHistory {
     }
 
     /**
-     * Fetches identity history data from the API.
+     * Loads the next page of the history and adds it to the timeline.
+     * @returns {Promise<void>}
+     */
+    async loadMoreHistory() {
+        this.identityPicker.showLoading(this.identityPicker.rules.language['loadingHistory']);
+        const cursor = this.nextCursor;
+        try {
+            this.setHistoryPage(await this.fetchHistoryPage(this.customerId, cursor), cursor);
+            this.renderTimeline();
+        } catch (error) {
+            console.error(this.identityPicker.rules.language['fetchError'], error);
+            this.identityPicker.showMessage('errorLoadingHistory', 'error');
+        } finally {
+            this.identityPicker.hideLoading();
+        }
+    }
+
+    /**
+     * Loads the first page of the history matching the filters typed by the agent. The filters are applied by the server
+     * to the identity and attribute changes; the tasks are only shown without filter.
+     * @returns {Promise<void>}
+     */
+    async applyHistoryFilters() {
+        const filters = {};
+        this.identityPicker.sideContainer.querySelectorAll('.ip-history-filter').forEach(input => {
+            if (input.value) {
+                filters[input.name] = input.value;
+            }
+        });
+        this.filters = filters;
+        // The cursor of the former filters is not valid for the new ones
+        this.nextCursor = null;
+        const request = ++this.historyRequest;
+        this.identityPicker.showLoading(this.identityPicker.rules.language['loadingHistory']);
+        try {
+            const page = await this.fetchHistoryPage(this.customerId, null);
+            if (request === this.historyRequest) {
+                this.setHistoryPage(page, null);
+                await this.searchTimeline();
+            }
+        } catch (error) {
+            console.error(this.identityPicker.rules.language['fetchError'], error);
+            this.identityPicker.showMessage('errorLoadingHistory', 'error');
+        } finally {
+            this.identityPicker.hideLoading();
+        }
+    }
+
+    /**
+     * Loads all the remaining pages of the history, so that the search covers the whole history.
+     * @returns {Promise<void>}
+     */
+    async loadAllHistory() {
+        if (!this.loadingAllHistory) {
+            this.loadingAllHistory = (async () => {
+                let cursor;
+                while ((cursor = this.nextCursor)) {
+                    this.setHistoryPage(await this.fetchHistoryPage(this.customerId, cursor), cursor);
+                }
+            })().finally(() => {
+                this.loadingAllHistory = null;
+            });
+        }
+        return this.loadingAllHistory;
+    }
+
+    /**
+     * Displays the history matching the search typed by the agent, after loading the remaining pages when there is a search.
+     * @returns {Promise<void>}
+     */
+    async searchTimeline() {
+        const searchInput = this.identityPicker.sideContainer.querySelector('.ip-search-input');
+        if (searchInput.value && this.nextCursor) {
+            try {
+                await this.loadAllHistory();
+            } catch (error) {
+                console.error(this.identityPicker.rules.language['fetchError'], error);
+                this.identityPicker.showMessage('errorLoadingHistory', 'error');
+            }
+        }
+        this.renderTimeline();
+    }
+
+    /**
+     * Stores a page of the history and rebuilds the timeline events. A next page which does not follow the loaded ones, because
+     * the filters changed or the page was already loaded meanwhile, is ignored.
+     * @param {Object} page - The page: changes, total and next_cursor
+     * @param {string|null} cursor - The cursor the page was fetched with, null for a first page which replaces the loaded changes
+     * @returns {void}
+     */
+    setHistoryPage(page, cursor) {
+        if (cursor && cursor !== this.nextCursor) {
+            return;
+        }
+        this.historyChanges = cursor ? this.historyChanges.concat(page.changes) : page.changes;
+        this.nextCursor = page.next_cursor;
+        this.globalHistory = this.mergeHistoryData(this.historyChanges, Object.keys(this.filters).length ? [] : this.tasks);
+        this.initFuseSearch();
+    }
+
+    /**
+     * Displays the loaded history matching the search typed by the agent.
+     * @returns {void}
+     */
+    renderTimeline() {
+        const searchInput = this.identityPicker.sideContainer.querySelector('.ip-search-input');
+        this.identityPicker.shadowRoot.querySelector('.ip-timeline').innerHTML = this.generateGlobalHistoryHTML(this.searchHistory(searchInput.value));
+        this.identityPicker.sideContainer.querySelector('.ip-load-more-button').hidden = !this.nextCursor;
+        this.attachCopyListeners();
+    }
+
+    /**
+     * Fetches a page of the identity and attribute changes matching the filters, most recent first.
      * @param {string} customerId - The customer ID
-     * @returns {Promise<Object>} The identity history data
+     * @param {string|null} cursor - The cursor of the previous page, or null for the first page
+     * @returns {Promise<Object>} The page: changes, total and next_cursor
      */
-    async fetchIdentityHistory(customerId) {
-        const url = `${this.identityPicker.config.endpoints.identity}/${customerId}/${this.identityPicker.config.endpoints.history}`;
+    async fetchHistoryPage(customerId, cursor) {
+        const params = new URLSearchParams({ ...this.filters, zone: Intl.DateTimeFormat().resolvedOptions().timeZone });
+        if (cursor) {
+            params.set('cursor', cursor);
+        }
+        const url = `${this.identityPicker.config.endpoints.identity}/${customerId}/${this.identityPicker.config.endpoints.history}/${this.identityPicker.config.endpoints.changes}?${params}`;
         const response = await fetch(url);
         if (!response.ok) {
             throw new Error(`${this.identityPicker.rules.language['httpError']} ${response.status}`);
@@ -50,12 +180,12 @@ export default class IdentityHistory {
     }
 
     /**
-     * Fetches identity tasks data from the API.
+     * Fetches the tasks of an identity.
      * @param {string} customerId - The customer ID
-     * @returns {Promise<Object>} The tasks data
+     * @returns {Promise<Object>} The tasks, and the error of the tasks if they could not be fetched
      */
-    async fetchIdentityTasks(customerId) {
-        const url = `${this.identityPicker.config.endpoints.identity}/${customerId}/${this.identityPicker.config.endpoints.tasks}`;
+    async fetchIdentityDetail(customerId) {
+        const url = `${this.identityPicker.config.endpoints.identity}/${customerId}/${this.identityPicker.config.endpoints.full}?include=tasks`;
         const response = await fetch(url);
         if (!response.ok) {
             throw new Error(`${this.identityPicker.rules.language['httpError']} ${response.status}`);
@@ -64,17 +194,17 @@ export default class IdentityHistory {
     }
 
     /**
-     * Merges identity history and tasks data into a unified timeline.
-     * @param {Object} identityHistory - The identity history data
+     * Merges the loaded history changes and tasks data into a unified timeline.
+     * @param {Array} historyChanges - The identity and attribute changes, as returned by the history pages
      * @param {Array} tasksData - The tasks data
      * @returns {Array} Sorted array of all history events
      */
-    mergeHistoryData(identityHistory, tasksData) {
+    mergeHistoryData(historyChanges, tasksData) {
         const allEvents = [];
         const language = this.identityPicker.rules.language;
         
-        if (identityHistory && identityHistory.identity_changes) {
-            identityHistory.identity_changes.forEach(change => {
+        if (historyChanges) {
+            historyChanges.filter(change => change.entry_type === 'identity').forEach(change => {
             const changeKey = `history.${change.changeType.toLowerCase()}.${change.changeStatus.toLowerCase()}`;
             const changeTypeText = language[changeKey] || '';
             const authorName = change.author?.author_name || language['unknown'];
@@ -92,29 +222,26 @@ export default class IdentityHistory {
         });
         }
         
-        if (identityHistory && identityHistory.attribute_histories) {
-            identityHistory.attribute_histories.forEach(attrHistory => {
-            const attributeInfo = getAttributeInfo(attrHistory.attribute_key, this.identityPicker.rules.referential);
+        if (historyChanges) {
+            historyChanges.filter(change => change.entry_type === 'attribute').forEach(change => {
+            const attributeInfo = getAttributeInfo(change.attribute_key, this.identityPicker.rules.referential);
             const attributeLabel = attributeInfo?.label || '';
-            attrHistory.attribute_changes.forEach(change => {
-                const attributeValue = change.attribute_value || '';
-                const attributeChangeType = language['attributeChangeType'] || '';
-                const certificationProcess = change.certification_processus || '';
-                const formattedDate = this.formatDate(parseInt(change.modification_date));
-                allEvents.push({
-                    date: new Date(parseInt(change.modification_date)),
-                    type: 'attribute',
-                    data: {
-                        ...change,
-                        attribute_key: attrHistory.attribute_key,
-                        certification_processus: certificationProcess
-                    },
-                    attributeLabel,
-                    attributeValue,
-                    attributeChangeType,
-                    certificationProcess,
-                    searchableText: `${formattedDate} ${attributeLabel} ${attributeValue} ${attributeChangeType} ${certificationProcess}`
-                });
+            const attributeValue = change.attribute_value || '';
+            const attributeChangeType = language['attributeChangeType'] || '';
+            const certificationProcess = change.certification_processus || '';
+            const formattedDate = this.formatDate(parseInt(change.modification_date));
+            allEvents.push({
+                date: new Date(parseInt(change.modification_date)),
+                type: 'attribute',
+                data: {
+                    ...change,
+                    certification_processus: certificationProcess
+                },
+                attributeLabel,
+                attributeValue,
+                attributeChangeType,
+                certificationProcess,
+                searchableText: `${formattedDate} ${attributeLabel} ${attributeValue} ${attributeChangeType} ${certificationProcess}`
             });
         });
         }
@@ -255,36 +382,75 @@ export default class IdentityHistory {
         const searchBarHTML = this.generateSearchBarHTML();
         this.identityPicker.openSideContainer(
             this.identityPicker.rules.language['historyTitle'],
-            searchBarHTML + `<div class="ip-timeline">${historyHTML}</div>`
+            searchBarHTML + `<div class="ip-timeline">${historyHTML}</div>` + this.generateLoadMoreHTML()
         );
         this.attachListener();
     }
 
     /**
-     * Generates HTML for the search bar.
+     * Generates HTML for the search bar and the filters of the history.
      * @returns {string} HTML string for search bar
      */
     generateSearchBarHTML() {
+        const language = this.identityPicker.rules.language;
+        const attributeOptions = this.identityPicker.rules.referential.attributeKeyList.attributeKeys
+            .map(attribute => `<option value="${attribute.keyName}">${attribute.name}</option>`)
+            .join('');
+        const changeTypeOptions = ['create', 'update', 'delete']
+            .map(changeType => `<option value="${changeType.toUpperCase()}">${language[`historyChangeType.${changeType}`]}</option>`)
+            .join('');
         return `
             <div class="ip-search-bar">
-                <input type="text" class="ip-search-input" placeholder="${this.identityPicker.rules.language['searchHistory']}">
+                <input type="text" class="ip-search-input" placeholder="${language['searchHistory']}">
+                <div class="ip-history-filters">
+                    <select class="ip-history-filter" name="attribute_key">
+                        <option value="">${language['historyFilterAttribute']}</option>
+                        ${attributeOptions}
+                    </select>
+                    <select class="ip-history-filter" name="change_type">
+                        <option value="">${language['historyFilterChangeType']}</option>
+                        ${changeTypeOptions}
+                    </select>
+                    <input type="date" class="ip-history-filter" name="from" title="${language['historyFilterFrom']}">
+                    <input type="date" class="ip-history-filter" name="to" title="${language['historyFilterTo']}">
+                    <input type="text" class="ip-history-filter" name="author" placeholder="${language['author']}">
+                </div>
             </div>
         `;
     }
 
     /**
-     * Attaches event listeners to search input and copy buttons.
+     * Generates HTML for the button loading the next page of the history.
+     * @returns {string} HTML string for the load more button
+     */
+    generateLoadMoreHTML() {
+        return `
+            <button type="button" class="ip-load-more-button"${this.nextCursor ? '' : ' hidden'}>
+                ${this.identityPicker.rules.language['loadMoreHistory']}
+            </button>
+        `;
+    }
+
+    /**
+     * Attaches event listeners to search input, load more and copy buttons.
      * @returns {void}
      */
     attachListener() {
         const searchInput = this.identityPicker.sideContainer.querySelector('.ip-search-input');
-        searchInput.addEventListener('input', (e) => {
-            const query = e.target.value;
-            const filteredHistory = this.searchHistory(query);
-            const historyHTML = this.generateGlobalHistoryHTML(filteredHistory);
-            this.identityPicker.shadowRoot.querySelector('.ip-timeline').innerHTML = historyHTML;
-        });
+        searchInput.addEventListener('input', () => this.searchTimeline());
         searchInput.focus();
+        this.identityPicker.sideContainer.querySelectorAll('.ip-history-filter').forEach(input => {
+            input.addEventListener('change', () => this.applyHistoryFilters());
+        });
+        this.identityPicker.sideContainer.querySelector('.ip-load-more-button').addEventListener('click', () => this.loadMoreHistory());
+        this.attachCopyListeners();
+    }
+
+    /**
+     * Attaches the event listeners of the copy buttons of the timeline.
+     * @returns {void}
+     */
+    attachCopyListeners() {
         this.identityPicker.sideContainer.querySelectorAll('.ip-copy-button').forEach(button => {
             button.addEventListener('click', (e) => {
                 const taskCode = e.target.dataset.taskCode;
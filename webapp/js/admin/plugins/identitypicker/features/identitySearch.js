@@ -374,10 +374,7 @@ export default class IdentitySearch {
             const compareButton = document.createElement('button');
             compareButton.textContent = this.identityPicker.rules.language['compareButton'];
             compareButton.classList.add('ip-button-light');
-            compareButton.addEventListener('click', () => {
-                this.identityPicker.identityCompare.initCompareView(results);
-                this.identityPicker.showCompareView();
-            });
+            compareButton.addEventListener('click', () => this.identityPicker.identityCompare.loadCompareView(results));
             buttonContainer.appendChild(compareButton);
         }
         
@@ -49,7 +49,11 @@ export default class IdentityPicker {
     async init() {
         this.openButton.disabled = true;
         try {
-            await this.fetchAndApplyPermissions();
+            if (this.config.endpoints.bootstrap) {
+                await this.fetchBootstrap();
+            } else {
+                await this.fetchAndApplyPermissions();
+            }
         } catch (error) {
             console.error('Failed to fetch permissions:', error);
             this.openButton.textContent = 'Permissions ' + error;
@@ -58,7 +62,11 @@ export default class IdentityPicker {
         }
         if (Object.values(this.permissions).some(Boolean)) {
             try {
-                await this.fetchRules();
+                if (!this.rules) {
+                    await this.fetchRules();
+                } else if (!this.rules.contract) {
+                    throw new Error('Le contrat est null ou indisponible');
+                }
             } catch (error) {
                 console.error('Failed to fetch rules:', error);
                 this.openButton.textContent = error;
@@ -86,6 +94,27 @@ export default class IdentityPicker {
         }
     }
 
+    /**
+     * Fetches the user permissions and the rules from the API in one call, and applies the configuration.
+     * The rules are left out by the server when the user has no permission giving access to them.
+     * @returns {Promise<void>}
+     * @throws {Error} If the permissions cannot be fetched
+     */
+    async fetchBootstrap() {
+        try {
+            const response = await fetch(this.config.endpoints.bootstrap);
+            if (!response.ok) {
+                throw new Error(`Erreur HTTP ${response.status}`);
+            }
+            const bootstrap = await response.json();
+            this.applyPermissions(bootstrap.permissions);
+            this.rules = bootstrap.rules || null;
+        } catch (error) {
+            console.error('Failed to fetch bootstrap:', error);
+            throw error;
+        }
+    }
+
     /**
      * Fetches user permissions from the API and applies configuration.
      * @returns {Promise<void>}
@@ -97,20 +126,28 @@ export default class IdentityPicker {
             if (!response.ok) {
                 throw new Error(`Erreur HTTP ${response.status}`);
             }
-            const permissions = await response.json();
-            this.permissions = {
-                search: this.config.search && permissions.SEARCH,
-                creation: this.config.creation && permissions.CREATE,
-                update: this.config.update && permissions.UPDATE,
-                view: permissions.VIEW,
-                create_task: this.config.create_task && permissions.CREATE_TASK
-            };
+            this.applyPermissions(await response.json());
         } catch (error) {
             console.error('Failed to fetch permissions:', error);
             throw error;
         }
     }
 
+    /**
+     * Applies the user permissions, restricted by the configuration.
+     * @param {Object} permissions - The permissions returned by the API
+     * @returns {void}
+     */
+    applyPermissions(permissions) {
+        this.permissions = {
+            search: this.config.search && permissions.SEARCH,
+            creation: this.config.creation && permissions.CREATE,
+            update: this.config.update && permissions.UPDATE,
+            view: permissions.VIEW,
+            create_task: this.config.create_task && permissions.CREATE_TASK
+        };
+    }
+
     /**
      * Fetches business rules and referential data from the API.
      * @returns {Promise<void>}
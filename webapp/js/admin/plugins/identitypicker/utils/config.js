@@ -7,14 +7,20 @@ export const defaultConfig = {
     modalMaxHeight: 0.9,
   },
   endpoints: {
+    bootstrap: 'rest/identitypicker/api/bootstrap',
     permissions: 'rest/identitypicker/api/permissions',
     search: 'rest/identitypicker/api/search',
     identity: 'rest/identitypicker/api/identity',
     rules: 'rest/identitypicker/api/rules',
     history: 'history',
+    changes: 'changes',
+    tasks: 'tasks',
+    full: 'full',
+    batch: 'batch',
     countries: 'rest/geocodesclient/api/v1/countries',
     cities: 'rest/geocodesclient/api/v1/cities',
   },
+  batchSize: 10,
   autoFill: false,
   selection:true,
   cuid: null,